@@ -55,6 +55,21 @@ public interface ExtendedTracer extends Tracer {
 	 */
 	void setTimer(Timer timer) throws IllegalArgumentException;
 
+	/**
+	 * Sets the {@link Sampler} that decides if the new traces are sampled.
+	 * <p>
+	 * By default inspectIT tracer uses the
+	 * {@link rocks.inspectit.agent.java.sdk.opentracing.sampler.ConstantSampler} that samples all
+	 * traces. Spans of the not sampled traces are not reported, but the decision is still propagated
+	 * to the downstream services.
+	 *
+	 * @param sampler
+	 *            {@link Sampler} to set. Must not be <code>null</code>.
+	 * @throws IllegalArgumentException
+	 *             If sampler provided is <code>null</code>.
+	 */
+	void setSampler(Sampler sampler) throws IllegalArgumentException;
+
 	/**
 	 * Builds span with no operation name. The thread context reference will added if the one exists
 	 * as the CHILD_OF reference.
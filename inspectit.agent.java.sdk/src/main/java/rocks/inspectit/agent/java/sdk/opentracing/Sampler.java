@@ -0,0 +1,31 @@
+package rocks.inspectit.agent.java.sdk.opentracing;
+
+/**
+ * Sampler decides if a trace should be sampled. The decision is made only once for every trace,
+ * when the root span of the trace is started. All other spans of the trace inherit the decision
+ * from their parent context, including the spans in the downstream services as the decision is
+ * propagated together with the span context.
+ * <p>
+ * Spans of the not sampled traces are never reported. inspectIT SDK provides the samplers in the
+ * {@link rocks.inspectit.agent.java.sdk.opentracing.sampler} package. By default the tracer uses
+ * the {@link rocks.inspectit.agent.java.sdk.opentracing.sampler.ConstantSampler} that samples all
+ * traces.
+ *
+ * @author agent
+ *
+ */
+public interface Sampler {
+
+	/**
+	 * Decides if the trace with the given id should be sampled. Implementations must be
+	 * thread-safe, as the method is called from all threads that start traces.
+	 *
+	 * @param traceId
+	 *            Id of the new trace.
+	 * @param operationName
+	 *            Operation name of the root span of the trace. Can be <code>null</code>.
+	 * @return <code>true</code> if the trace should be sampled, <code>false</code> otherwise.
+	 */
+	boolean sample(long traceId, String operationName);
+
+}
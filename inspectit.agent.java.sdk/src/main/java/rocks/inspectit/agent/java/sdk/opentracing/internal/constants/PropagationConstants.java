@@ -23,6 +23,16 @@ public interface PropagationConstants {
 	 */
 	String TRACE_ID = INSPECTIT_PREFIX + "traceid";
 
+	/**
+	 * Header name for the sampling decision. Only passed for the not sampled traces.
+	 */
+	String SAMPLED = INSPECTIT_PREFIX + "sampled";
+
+	/**
+	 * Value of the {@link #SAMPLED} header for the not sampled traces.
+	 */
+	String NOT_SAMPLED = "0";
+
 	/**
 	 * Prefix for the propagation baggage.
 	 */
@@ -9,6 +9,7 @@ import io.opentracing.Span;
 import io.opentracing.SpanContext;
 import io.opentracing.Tracer.SpanBuilder;
 import rocks.inspectit.agent.java.sdk.opentracing.Timer;
+import rocks.inspectit.agent.java.sdk.opentracing.internal.util.RandomUtils;
 
 /**
  * Builder for the span. Note that builder is delegating the calls to the span that's created
@@ -17,6 +18,10 @@ import rocks.inspectit.agent.java.sdk.opentracing.Timer;
  * <p>
  * <b>Limitations:</b> This span implementation is saving only one (first) referenced context as the
  * parent. For any additional referenced contexts only the baggage propagation will be done.
+ * <p>
+ * The sampling decision is taken from the parent context. If there is no parent the tracer
+ * {@link rocks.inspectit.agent.java.sdk.opentracing.Sampler} decides when the span is started. Tags
+ * are not collected if the parent is not sampled.
  *
  * @author Ivan Senic
  *
@@ -28,6 +33,11 @@ public class SpanBuilderImpl implements SpanBuilder {
 	 */
 	private final SpanImpl span;
 
+	/**
+	 * Tracer.
+	 */
+	private final TracerImpl tracer;
+
 	/**
 	 * Timer to use if startTimestamp is not provided in the builder.
 	 */
@@ -62,6 +72,7 @@ public class SpanBuilderImpl implements SpanBuilder {
 	 *            Operation name.
 	 */
 	public SpanBuilderImpl(TracerImpl tracer, String operationName) {
+		this.tracer = tracer;
 		this.timer = tracer.getTimer();
 		this.span = new SpanImpl(tracer);
 		this.span.setOperationName(operationName);
@@ -126,7 +137,9 @@ public class SpanBuilderImpl implements SpanBuilder {
 	 */
 	@Override
 	public SpanBuilderImpl withTag(String key, String value) {
-		span.setTag(key, value);
+		if (isParentSampled()) {
+			span.setTag(key, value);
+		}
 		return this;
 	}
 
@@ -135,7 +148,9 @@ public class SpanBuilderImpl implements SpanBuilder {
 	 */
 	@Override
 	public SpanBuilderImpl withTag(String key, boolean value) {
-		span.setTag(key, value);
+		if (isParentSampled()) {
+			span.setTag(key, value);
+		}
 		return this;
 	}
 
@@ -144,7 +159,9 @@ public class SpanBuilderImpl implements SpanBuilder {
 	 */
 	@Override
 	public SpanBuilderImpl withTag(String key, Number value) {
-		span.setTag(key, value);
+		if (isParentSampled()) {
+			span.setTag(key, value);
+		}
 		return this;
 	}
 
@@ -167,6 +184,16 @@ public class SpanBuilderImpl implements SpanBuilder {
 		return this;
 	}
 
+	/**
+	 * Returns if the parent is sampled. Without the parent the decision is not made yet, thus
+	 * <code>true</code> is returned.
+	 *
+	 * @return Returns if the parent is sampled.
+	 */
+	private boolean isParentSampled() {
+		return (null == parent) || parent.isSampled();
+	}
+
 	/**
 	 * Collects baggage from parent. Copied from the io.opentracing implementation.
 	 *
@@ -189,8 +216,15 @@ public class SpanBuilderImpl implements SpanBuilder {
 	 */
 	@Override
 	public SpanImpl start() {
-		// resolve context
-		SpanContextImpl context = SpanContextImpl.build(parent, referenceType, baggage);
+		// resolve context, new traces are sampled by the tracer sampler
+		SpanContextImpl context;
+		if (null == parent) {
+			long id = RandomUtils.randomLong();
+			boolean sampled = tracer.getSampler().sample(id, span.getOperationName());
+			context = SpanContextImpl.build(id, baggage, sampled);
+		} else {
+			context = SpanContextImpl.build(parent, referenceType, baggage);
+		}
 		span.setSpanContext(context);
 
 		// if startTimestamp was not specified in the builder, we use the timer
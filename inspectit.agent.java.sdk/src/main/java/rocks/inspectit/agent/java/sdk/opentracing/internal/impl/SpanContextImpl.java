@@ -10,8 +10,8 @@ import rocks.inspectit.agent.java.sdk.opentracing.internal.util.RandomUtils;
 
 /**
  * Implementation of the {@link io.opentracing.SpanContext}. Keeps information about span id, trace
- * id and span parent id. Sampling flag is not included in the moment as it's not explicitly defined
- * by the opentracing API.
+ * id, span parent id and the sampling decision of the trace. The sampling decision is made when the
+ * root context is built and inherited by all child contexts.
  *
  * @author Ivan Senic
  *
@@ -44,7 +44,12 @@ public class SpanContextImpl implements SpanContext {
 	private final Map<String, String> baggage;
 
 	/**
-	 * Constructor. Use build methods.
+	 * If the trace is sampled.
+	 */
+	private final boolean sampled;
+
+	/**
+	 * Constructor for the sampled context. Use build methods.
 	 *
 	 * @param id
 	 *            Unique ID of the span.
@@ -58,6 +63,26 @@ public class SpanContextImpl implements SpanContext {
 	 *            Additional baggage
 	 */
 	public SpanContextImpl(long id, long traceId, long parentId, String referenceType, Map<String, String> baggage) {
+		this(id, traceId, parentId, referenceType, baggage, true);
+	}
+
+	/**
+	 * Constructor. Use build methods.
+	 *
+	 * @param id
+	 *            Unique ID of the span.
+	 * @param traceId
+	 *            ID of the trace that span belongs to.
+	 * @param parentId
+	 *            ID of the span's parent.
+	 * @param referenceType
+	 *            Reference to the parent.
+	 * @param baggage
+	 *            Additional baggage
+	 * @param sampled
+	 *            If the trace is sampled.
+	 */
+	public SpanContextImpl(long id, long traceId, long parentId, String referenceType, Map<String, String> baggage, boolean sampled) {
 		// ids
 		this.id = id;
 		this.traceId = traceId;
@@ -69,6 +94,7 @@ public class SpanContextImpl implements SpanContext {
 		} else {
 			this.baggage = new HashMap<String, String>(0, 1f);
 		}
+		this.sampled = sampled;
 	}
 
 	/**
@@ -76,7 +102,8 @@ public class SpanContextImpl implements SpanContext {
 	 * <code>null</code> then {@link #build(Map)} will be used and new trace context will be
 	 * created.
 	 * <p>
-	 * Passed baggage will be the baggage of this span context.
+	 * Passed baggage will be the baggage of this span context. The sampling decision is taken from
+	 * the parent context.
 	 *
 	 * @param parent
 	 *            Context that will be use to determine to which trace/parent new context belongs.
@@ -92,7 +119,7 @@ public class SpanContextImpl implements SpanContext {
 			return build(baggage);
 		} else {
 			long id = RandomUtils.randomLong();
-			SpanContextImpl spanContextImpl = new SpanContextImpl(id, parent.getTraceId(), parent.getId(), referenceType, baggage);
+			SpanContextImpl spanContextImpl = new SpanContextImpl(id, parent.getTraceId(), parent.getId(), referenceType, baggage, parent.isSampled());
 			return spanContextImpl;
 		}
 	}
@@ -109,6 +136,22 @@ public class SpanContextImpl implements SpanContext {
 		return new SpanContextImpl(id, id, id, null, baggage);
 	}
 
+	/**
+	 * Builds new {@link SpanContextImpl} with new trace context that has the given id, baggage and
+	 * sampling decision.
+	 *
+	 * @param id
+	 *            Id of the span and the trace.
+	 * @param baggage
+	 *            Context baggage.
+	 * @param sampled
+	 *            If the trace is sampled.
+	 * @return {@link SpanContextImpl}. Never <code>null</code>.
+	 */
+	public static SpanContextImpl build(long id, Map<String, String> baggage, boolean sampled) {
+		return new SpanContextImpl(id, id, id, null, baggage, sampled);
+	}
+
 	/**
 	 * Builds new {@link SpanContextImpl} with new trace context and no baggage.
 	 *
@@ -133,7 +176,25 @@ public class SpanContextImpl implements SpanContext {
 	 * @return Context representing the context of the calling span.
 	 */
 	public static SpanContextImpl buildExtractedContext(long passedId, long passedTraceId, Map<String, String> passedBaggage) {
-		return new SpanContextImpl(passedId, passedTraceId, passedId, null, passedBaggage);
+		return buildExtractedContext(passedId, passedTraceId, passedBaggage, true);
+	}
+
+	/**
+	 * Same as {@link #buildExtractedContext(long, long, Map)}, but with the sampling decision
+	 * passed over the network.
+	 *
+	 * @param passedId
+	 *            calling span id
+	 * @param passedTraceId
+	 *            calling span trace id
+	 * @param passedBaggage
+	 *            passage traveling along
+	 * @param passedSampled
+	 *            if the calling trace is sampled
+	 * @return Context representing the context of the calling span.
+	 */
+	public static SpanContextImpl buildExtractedContext(long passedId, long passedTraceId, Map<String, String> passedBaggage, boolean passedSampled) {
+		return new SpanContextImpl(passedId, passedTraceId, passedId, null, passedBaggage, passedSampled);
 	}
 
 	/**
@@ -203,6 +264,15 @@ public class SpanContextImpl implements SpanContext {
 		return this.parentId;
 	}
 
+	/**
+	 * Gets {@link #sampled}.
+	 *
+	 * @return {@link #sampled}
+	 */
+	public boolean isSampled() {
+		return this.sampled;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -214,6 +284,7 @@ public class SpanContextImpl implements SpanContext {
 		result = (prime * result) + (int) (this.id ^ (this.id >>> 32));
 		result = (prime * result) + (int) (this.parentId ^ (this.parentId >>> 32));
 		result = (prime * result) + ((this.referenceType == null) ? 0 : this.referenceType.hashCode());
+		result = (prime * result) + (this.sampled ? 1231 : 1237);
 		result = (prime * result) + (int) (this.traceId ^ (this.traceId >>> 32));
 		return result;
 	}
@@ -253,6 +324,9 @@ public class SpanContextImpl implements SpanContext {
 		} else if (!this.referenceType.equals(other.referenceType)) {
 			return false;
 		}
+		if (this.sampled != other.sampled) {
+			return false;
+		}
 		if (this.traceId != other.traceId) {
 			return false;
 		}
@@ -264,7 +338,7 @@ public class SpanContextImpl implements SpanContext {
 	 */
 	@Override
 	public String toString() {
-		return "SpanContextImpl [id=" + this.id + ", traceId=" + this.traceId + ", parentId=" + this.parentId + ", referenceType=" + this.referenceType + ", baggage=" + this.baggage + "]";
+		return "SpanContextImpl [id=" + this.id + ", traceId=" + this.traceId + ", parentId=" + this.parentId + ", referenceType=" + this.referenceType + ", baggage=" + this.baggage + ", sampled=" + this.sampled + "]";
 	}
 
 }
\ No newline at end of file
@@ -13,7 +13,8 @@ import rocks.inspectit.agent.java.sdk.opentracing.Reporter;
  * anyway one span should be bounded to one thread.
  * <p>
  * <b>Limitations:</b> This span implementation is ignoring the calls to the <code>log</code>
- * methods as we currently don't support displaying of log events in inspectIT.
+ * methods as we currently don't support displaying of log events in inspectIT. Tags are ignored as
+ * well if the span belongs to a not sampled trace, as such span is never reported.
  *
  * @author Ivan Senic
  *
@@ -46,10 +47,10 @@ public class SpanImpl implements Span {
 	private long startTimeNanos;
 
 	/**
-	 * Duration of the span in microseconds. We keep the span duration as double to that we can keep
-	 * the nano fraction when possible.
+	 * Duration of the span in nanoseconds. Converted to other units only when read, so that the
+	 * duration of the spans finished with the nano time keeps the full precision.
 	 */
-	private double duration;
+	private long durationNanos;
 
 	/**
 	 * If the span should be reported to the {@link Reporter}.
@@ -115,7 +116,7 @@ public class SpanImpl implements Span {
 	 */
 	@Override
 	public void finish(long finishMicros) {
-		duration = finishMicros - startTimeMicros;
+		durationNanos = (finishMicros - startTimeMicros) * 1000L;
 		tracer.spanEnded(this);
 	}
 
@@ -127,7 +128,7 @@ public class SpanImpl implements Span {
 	 *            Current nano time..
 	 */
 	private void finishWithNanos(long nanos) {
-		duration = (nanos - startTimeNanos) / 1000.d;
+		durationNanos = nanos - startTimeNanos;
 		tracer.spanEnded(this);
 	}
 
@@ -175,6 +176,9 @@ public class SpanImpl implements Span {
 	 * @return This object
 	 */
 	private Span setTagInternal(String key, String value) {
+		if (!isSampled()) {
+			return this;
+		}
 		if (null == tags) {
 			tags = new HashMap<String, String>(1, 1f);
 		}
@@ -330,12 +334,21 @@ public class SpanImpl implements Span {
 	}
 
 	/**
-	 * Gets {@link #duration}.
+	 * Returns the duration of the span in microseconds.
 	 *
-	 * @return {@link #duration}
+	 * @return Returns the duration of the span in microseconds.
 	 */
 	public double getDuration() {
-		return this.duration;
+		return this.durationNanos / 1000.d;
+	}
+
+	/**
+	 * Gets {@link #durationNanos}.
+	 *
+	 * @return {@link #durationNanos}
+	 */
+	public long getDurationNanos() {
+		return this.durationNanos;
 	}
 
 	/**
@@ -357,6 +370,16 @@ public class SpanImpl implements Span {
 		this.spanContext = spanContext;
 	}
 
+	/**
+	 * Returns if the span belongs to a sampled trace. Spans without the context are considered as
+	 * sampled, as the decision is not made yet.
+	 *
+	 * @return Returns if the span belongs to a sampled trace.
+	 */
+	public boolean isSampled() {
+		return (null == spanContext) || spanContext.isSampled();
+	}
+
 	/**
 	 * Gets {@link #report}.
 	 *
@@ -417,7 +440,7 @@ public class SpanImpl implements Span {
 	 */
 	@Override
 	public String toString() {
-		return "SpanImpl [spanContext=" + this.spanContext + ", operationName=" + this.operationName + ", duration=" + this.duration + ", report=" + this.report + ", tags=" + this.tags + "]";
+		return "SpanImpl [spanContext=" + this.spanContext + ", operationName=" + this.operationName + ", duration=" + getDuration() + ", report=" + this.report + ", tags=" + this.tags + "]";
 	}
 
 }
@@ -9,6 +9,7 @@ import io.opentracing.SpanContext;
 import io.opentracing.propagation.Format;
 import rocks.inspectit.agent.java.sdk.opentracing.ExtendedTracer;
 import rocks.inspectit.agent.java.sdk.opentracing.Reporter;
+import rocks.inspectit.agent.java.sdk.opentracing.Sampler;
 import rocks.inspectit.agent.java.sdk.opentracing.Timer;
 import rocks.inspectit.agent.java.sdk.opentracing.TracerLogger;
 import rocks.inspectit.agent.java.sdk.opentracing.TracerProvider;
@@ -17,6 +18,7 @@ import rocks.inspectit.agent.java.sdk.opentracing.internal.propagation.TextMapPr
 import rocks.inspectit.agent.java.sdk.opentracing.internal.propagation.UrlEncodingPropagator;
 import rocks.inspectit.agent.java.sdk.opentracing.noop.NoopReporter;
 import rocks.inspectit.agent.java.sdk.opentracing.propagation.Propagator;
+import rocks.inspectit.agent.java.sdk.opentracing.sampler.ConstantSampler;
 import rocks.inspectit.agent.java.sdk.opentracing.util.SystemTimer;
 
 /**
@@ -31,6 +33,9 @@ import rocks.inspectit.agent.java.sdk.opentracing.util.SystemTimer;
  * option to explicitly state that span should not be reported, as inspectIT itself adds other
  * information to the span it creates and reports them itself. User created spans will always be
  * reported if not explicitly stated otherwise.
+ * <p>
+ * The tracer uses {@link Sampler} to decide if a new trace is sampled. Spans of the not sampled
+ * traces are never reported. By default all traces are sampled.
  *
  * @author Ivan Senic
  *
@@ -61,6 +66,11 @@ public class TracerImpl implements ExtendedTracer {
 	 */
 	private final Reporter reporter;
 
+	/**
+	 * Sampler deciding on the new traces.
+	 */
+	private volatile Sampler sampler = new ConstantSampler(true);
+
 	/**
 	 * Logger for logging.
 	 */
@@ -288,7 +298,7 @@ public class TracerImpl implements ExtendedTracer {
 		}
 
 		// check if we need to report the span
-		if (span.isReport()) {
+		if (span.isReport() && span.isSampled()) {
 			reporter.report(span);
 		}
 	}
@@ -302,6 +312,26 @@ public class TracerImpl implements ExtendedTracer {
 		return this.timer;
 	}
 
+	/**
+	 * Gets {@link #sampler}.
+	 *
+	 * @return {@link #sampler}
+	 */
+	Sampler getSampler() {
+		return this.sampler;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setSampler(Sampler sampler) {
+		if (null == sampler) {
+			throw new IllegalArgumentException("Sampler must not be null.");
+		}
+		this.sampler = sampler;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
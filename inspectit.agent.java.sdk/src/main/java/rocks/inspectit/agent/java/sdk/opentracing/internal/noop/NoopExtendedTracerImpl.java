@@ -5,6 +5,7 @@ import io.opentracing.NoopTracerFactory;
 import io.opentracing.SpanContext;
 import io.opentracing.propagation.Format;
 import rocks.inspectit.agent.java.sdk.opentracing.ExtendedTracer;
+import rocks.inspectit.agent.java.sdk.opentracing.Sampler;
 import rocks.inspectit.agent.java.sdk.opentracing.Timer;
 import rocks.inspectit.agent.java.sdk.opentracing.propagation.Propagator;
 
@@ -71,6 +72,13 @@ public final class NoopExtendedTracerImpl implements ExtendedTracer, NoopTracer
 	public void setTimer(Timer timer) throws IllegalArgumentException {
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setSampler(Sampler sampler) throws IllegalArgumentException {
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
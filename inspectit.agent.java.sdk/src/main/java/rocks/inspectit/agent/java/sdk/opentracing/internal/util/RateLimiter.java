@@ -0,0 +1,88 @@
+package rocks.inspectit.agent.java.sdk.opentracing.internal.util;
+
+import rocks.inspectit.agent.java.sdk.opentracing.Timer;
+
+/**
+ * Token bucket rate limiter. The balance is refilled with the given amount of credits per second
+ * up to the maximum balance of one second worth of credits (but at least one credit if the rate is
+ * not zero), and every successful check spends one credit. The limiter starts with the full
+ * balance.
+ *
+ * @author agent
+ *
+ */
+public class RateLimiter {
+
+	/**
+	 * Nanoseconds in one second.
+	 */
+	private static final double NANOS_PER_SECOND = 1000000000.0d;
+
+	/**
+	 * Timer providing the nano time.
+	 */
+	private final Timer timer;
+
+	/**
+	 * Credits added per nanosecond.
+	 */
+	private final double creditsPerNanosecond;
+
+	/**
+	 * Maximum balance.
+	 */
+	private final double maxBalance;
+
+	/**
+	 * Current balance.
+	 */
+	private double balance;
+
+	/**
+	 * Nano time of the last check.
+	 */
+	private long lastTick;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param creditsPerSecond
+	 *            Credits added per second, must not be negative.
+	 * @param timer
+	 *            Timer providing the nano time.
+	 * @throws IllegalArgumentException
+	 *             If the credits per second are negative.
+	 */
+	public RateLimiter(double creditsPerSecond, Timer timer) throws IllegalArgumentException {
+		if (creditsPerSecond < 0d) {
+			throw new IllegalArgumentException("Credits per second must not be negative.");
+		}
+		this.timer = timer;
+		this.creditsPerNanosecond = creditsPerSecond / NANOS_PER_SECOND;
+		this.maxBalance = (creditsPerSecond > 0d) ? Math.max(creditsPerSecond, 1d) : 0d;
+		this.balance = maxBalance;
+		this.lastTick = timer.getCurrentNanoTime();
+	}
+
+	/**
+	 * Spends one credit if the balance allows it.
+	 *
+	 * @return <code>true</code> if the credit was spent, <code>false</code> if the rate is
+	 *         exceeded.
+	 */
+	public synchronized boolean checkCredit() {
+		long currentTick = timer.getCurrentNanoTime();
+		long elapsed = currentTick - lastTick;
+		lastTick = currentTick;
+		if (elapsed > 0) {
+			balance = Math.min(maxBalance, balance + (elapsed * creditsPerNanosecond));
+		}
+
+		if (balance >= 1d) {
+			balance -= 1d;
+			return true;
+		}
+		return false;
+	}
+
+}
@@ -57,6 +57,10 @@ public abstract class AbstractPropagator<C> implements Propagator<C> {
 
 		injectBaggage(carrier, PropagationConstants.SPAN_ID, ConversionUtils.toHexString(spanContext.getId()));
 		injectBaggage(carrier, PropagationConstants.TRACE_ID, ConversionUtils.toHexString(spanContext.getTraceId()));
+		// sampled is the default, so only the negative decision is passed
+		if (!spanContext.isSampled()) {
+			injectBaggage(carrier, PropagationConstants.SAMPLED, PropagationConstants.NOT_SAMPLED);
+		}
 		Iterable<Entry<String, String>> baggageItems = spanContext.baggageItems();
 		if (null != baggageItems) {
 			for (Map.Entry<String, String> e : baggageItems) {
@@ -79,6 +83,7 @@ public abstract class AbstractPropagator<C> implements Propagator<C> {
 		Map<String, String> passedBaggage = new HashMap<String, String>();
 		String idFromBaggage = null;
 		String traceIdFromBaggage = null;
+		boolean sampled = true;
 		// iterate over the baggage
 		for (Entry<String, String> e : iterable) {
 			String key = e.getKey();
@@ -86,6 +91,8 @@ public abstract class AbstractPropagator<C> implements Propagator<C> {
 				idFromBaggage = e.getValue();
 			} else if (PropagationConstants.TRACE_ID.equals(key)) {
 				traceIdFromBaggage = e.getValue();
+			} else if (PropagationConstants.SAMPLED.equals(key)) {
+				sampled = !PropagationConstants.NOT_SAMPLED.equals(e.getValue());
 			} else if (key.startsWith(PropagationConstants.INSPECTIT_BAGGAGE_PREFIX)) {
 				String realKey = key.substring(PropagationConstants.INSPECTIT_BAGGAGE_PREFIX.length());
 				passedBaggage.put(realKey, e.getValue());
@@ -97,7 +104,7 @@ public abstract class AbstractPropagator<C> implements Propagator<C> {
 			try {
 				long id = ConversionUtils.parseHexStringSafe(idFromBaggage);
 				long traceId = ConversionUtils.parseHexStringSafe(traceIdFromBaggage);
-				return SpanContextImpl.buildExtractedContext(id, traceId, passedBaggage);
+				return SpanContextImpl.buildExtractedContext(id, traceId, passedBaggage, sampled);
 			} catch (NumberFormatException e) {
 				// ids were not parsable
 				return null;
@@ -0,0 +1,132 @@
+package rocks.inspectit.agent.java.sdk.opentracing.sampler;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import rocks.inspectit.agent.java.sdk.opentracing.Sampler;
+import rocks.inspectit.agent.java.sdk.opentracing.Timer;
+import rocks.inspectit.agent.java.sdk.opentracing.util.SystemTimer;
+
+/**
+ * {@link Sampler} that adapts the sampling probability to keep the amount of sampled traces around
+ * the given target per second. The amount of started traces is counted in one second intervals and
+ * at the end of every interval the probability for the next one is set to the fraction of the
+ * traces that would meet the target. Unlike the {@link RateLimitingSampler} the sampled traces are
+ * spread evenly over the interval.
+ *
+ * @author agent
+ *
+ */
+public class AdaptiveSampler implements Sampler {
+
+	/**
+	 * Length of the interval in nanoseconds.
+	 */
+	private static final long INTERVAL_NANOS = 1000000000L;
+
+	/**
+	 * Target sampled traces per second.
+	 */
+	private final double targetTracesPerSecond;
+
+	/**
+	 * Timer providing the nano time.
+	 */
+	private final Timer timer;
+
+	/**
+	 * Traces started in the current interval.
+	 */
+	private final AtomicLong intervalCount = new AtomicLong();
+
+	/**
+	 * Nano time of the current interval start.
+	 */
+	private volatile long intervalStart;
+
+	/**
+	 * Current probability.
+	 */
+	private volatile double probability = 1d;
+
+	/**
+	 * Default constructor. Uses the {@link SystemTimer}.
+	 *
+	 * @param targetTracesPerSecond
+	 *            Target amount of traces sampled per second.
+	 */
+	public AdaptiveSampler(double targetTracesPerSecond) {
+		this(targetTracesPerSecond, new SystemTimer());
+	}
+
+	/**
+	 * Constructor with the timer.
+	 *
+	 * @param targetTracesPerSecond
+	 *            Target amount of traces sampled per second.
+	 * @param timer
+	 *            Timer providing the nano time.
+	 * @throws IllegalArgumentException
+	 *             If the target is negative.
+	 */
+	public AdaptiveSampler(double targetTracesPerSecond, Timer timer) throws IllegalArgumentException {
+		if (targetTracesPerSecond < 0d) {
+			throw new IllegalArgumentException("Target traces per second must not be negative.");
+		}
+		this.targetTracesPerSecond = targetTracesPerSecond;
+		this.timer = timer;
+		this.intervalStart = timer.getCurrentNanoTime();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean sample(long traceId, String operationName) {
+		intervalCount.incrementAndGet();
+		long currentTick = timer.getCurrentNanoTime();
+		if ((currentTick - intervalStart) >= INTERVAL_NANOS) {
+			adapt(currentTick);
+		}
+		return ProbabilisticSampler.isSampled(traceId, probability);
+	}
+
+	/**
+	 * Ends the current interval and calculates the probability for the next one.
+	 *
+	 * @param currentTick
+	 *            Current nano time.
+	 */
+	private synchronized void adapt(long currentTick) {
+		long elapsed = currentTick - intervalStart;
+		// another thread could have already ended the interval
+		if (elapsed < INTERVAL_NANOS) {
+			return;
+		}
+
+		double tracesPerSecond = (intervalCount.getAndSet(0L) * (double) INTERVAL_NANOS) / elapsed;
+		if (tracesPerSecond <= targetTracesPerSecond) {
+			probability = 1d;
+		} else {
+			probability = targetTracesPerSecond / tracesPerSecond;
+		}
+		intervalStart = currentTick;
+	}
+
+	/**
+	 * Gets {@link #probability}.
+	 *
+	 * @return {@link #probability}
+	 */
+	public double getProbability() {
+		return this.probability;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "AdaptiveSampler [targetTracesPerSecond=" + this.targetTracesPerSecond + ", probability=" + this.probability + "]";
+	}
+
+}
@@ -0,0 +1,44 @@
+package rocks.inspectit.agent.java.sdk.opentracing.sampler;
+
+import rocks.inspectit.agent.java.sdk.opentracing.Sampler;
+
+/**
+ * {@link Sampler} that makes the same decision for all traces.
+ *
+ * @author agent
+ *
+ */
+public class ConstantSampler implements Sampler {
+
+	/**
+	 * Decision.
+	 */
+	private final boolean decision;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param decision
+	 *            <code>true</code> to sample all traces, <code>false</code> to sample none.
+	 */
+	public ConstantSampler(boolean decision) {
+		this.decision = decision;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean sample(long traceId, String operationName) {
+		return decision;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "ConstantSampler [decision=" + this.decision + "]";
+	}
+
+}
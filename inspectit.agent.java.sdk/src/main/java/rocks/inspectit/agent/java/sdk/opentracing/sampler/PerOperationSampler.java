@@ -0,0 +1,120 @@
+package rocks.inspectit.agent.java.sdk.opentracing.sampler;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import rocks.inspectit.agent.java.sdk.opentracing.Sampler;
+import rocks.inspectit.agent.java.sdk.opentracing.Timer;
+import rocks.inspectit.agent.java.sdk.opentracing.internal.util.RateLimiter;
+import rocks.inspectit.agent.java.sdk.opentracing.util.SystemTimer;
+
+/**
+ * {@link Sampler} that samples at most the given amount of traces per second for each operation
+ * name, thus rarely called operations are not pushed out by the frequently called ones. The amount
+ * of tracked operations is limited, all operations above the limit share one rate limiter.
+ *
+ * @author agent
+ *
+ */
+public class PerOperationSampler implements Sampler {
+
+	/**
+	 * Key used for the spans with no operation name.
+	 */
+	private static final String NO_OPERATION = "";
+
+	/**
+	 * Maximum traces per second per operation.
+	 */
+	private final double maxTracesPerSecond;
+
+	/**
+	 * Maximum amount of tracked operations.
+	 */
+	private final int maxOperations;
+
+	/**
+	 * Timer for the rate limiters.
+	 */
+	private final Timer timer;
+
+	/**
+	 * Rate limiters per operation name.
+	 */
+	private final ConcurrentMap<String, RateLimiter> rateLimiters = new ConcurrentHashMap<String, RateLimiter>();
+
+	/**
+	 * Rate limiter shared by the operations above the {@link #maxOperations}.
+	 */
+	private final RateLimiter overflowRateLimiter;
+
+	/**
+	 * Default constructor. Uses the {@link SystemTimer}.
+	 *
+	 * @param maxTracesPerSecond
+	 *            Maximum amount of traces sampled per second for each operation.
+	 * @param maxOperations
+	 *            Maximum amount of tracked operations.
+	 */
+	public PerOperationSampler(double maxTracesPerSecond, int maxOperations) {
+		this(maxTracesPerSecond, maxOperations, new SystemTimer());
+	}
+
+	/**
+	 * Constructor with the timer.
+	 *
+	 * @param maxTracesPerSecond
+	 *            Maximum amount of traces sampled per second for each operation.
+	 * @param maxOperations
+	 *            Maximum amount of tracked operations.
+	 * @param timer
+	 *            Timer providing the nano time.
+	 * @throws IllegalArgumentException
+	 *             If the maximum traces per second are negative.
+	 */
+	public PerOperationSampler(double maxTracesPerSecond, int maxOperations, Timer timer) throws IllegalArgumentException {
+		this.maxTracesPerSecond = maxTracesPerSecond;
+		this.maxOperations = maxOperations;
+		this.timer = timer;
+		this.overflowRateLimiter = createRateLimiter();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean sample(long traceId, String operationName) {
+		String key = (null != operationName) ? operationName : NO_OPERATION;
+		RateLimiter rateLimiter = rateLimiters.get(key);
+		if (null == rateLimiter) {
+			if (rateLimiters.size() < maxOperations) {
+				rateLimiter = createRateLimiter();
+				RateLimiter existing = rateLimiters.putIfAbsent(key, rateLimiter);
+				if (null != existing) {
+					rateLimiter = existing;
+				}
+			} else {
+				rateLimiter = overflowRateLimiter;
+			}
+		}
+		return rateLimiter.checkCredit();
+	}
+
+	/**
+	 * Creates rate limiter for one operation.
+	 *
+	 * @return {@link RateLimiter}
+	 */
+	private RateLimiter createRateLimiter() {
+		return new RateLimiter(maxTracesPerSecond, timer);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "PerOperationSampler [maxTracesPerSecond=" + this.maxTracesPerSecond + ", maxOperations=" + this.maxOperations + "]";
+	}
+
+}
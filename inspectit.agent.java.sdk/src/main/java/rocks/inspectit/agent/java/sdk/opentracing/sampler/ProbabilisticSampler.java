@@ -0,0 +1,78 @@
+package rocks.inspectit.agent.java.sdk.opentracing.sampler;
+
+import rocks.inspectit.agent.java.sdk.opentracing.Sampler;
+
+/**
+ * {@link Sampler} that samples the given fraction of the traces. The decision is based on the
+ * trace id, which is random, so no additional random number is needed and the same trace id always
+ * results in the same decision.
+ *
+ * @author agent
+ *
+ */
+public class ProbabilisticSampler implements Sampler {
+
+	/**
+	 * Probability of the trace being sampled.
+	 */
+	private final double probability;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param probability
+	 *            Probability of the trace being sampled, must be between <code>0</code> and
+	 *            <code>1</code>.
+	 * @throws IllegalArgumentException
+	 *             If the probability is not between <code>0</code> and <code>1</code>.
+	 */
+	public ProbabilisticSampler(double probability) throws IllegalArgumentException {
+		if ((probability < 0d) || (probability > 1d)) {
+			throw new IllegalArgumentException("Sampling probability must be between 0 and 1.");
+		}
+		this.probability = probability;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean sample(long traceId, String operationName) {
+		return isSampled(traceId, probability);
+	}
+
+	/**
+	 * Decides if the trace with the given id is sampled with the given probability.
+	 *
+	 * @param traceId
+	 *            Trace id.
+	 * @param probability
+	 *            Probability between <code>0</code> and <code>1</code>.
+	 * @return <code>true</code> if the trace is sampled.
+	 */
+	static boolean isSampled(long traceId, double probability) {
+		if (probability >= 1d) {
+			return true;
+		}
+		long boundary = (long) (Long.MAX_VALUE * probability);
+		return (traceId & Long.MAX_VALUE) < boundary;
+	}
+
+	/**
+	 * Gets {@link #probability}.
+	 *
+	 * @return {@link #probability}
+	 */
+	public double getProbability() {
+		return this.probability;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "ProbabilisticSampler [probability=" + this.probability + "]";
+	}
+
+}
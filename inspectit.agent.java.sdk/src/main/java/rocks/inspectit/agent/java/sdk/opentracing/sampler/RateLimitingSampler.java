@@ -0,0 +1,68 @@
+package rocks.inspectit.agent.java.sdk.opentracing.sampler;
+
+import rocks.inspectit.agent.java.sdk.opentracing.Sampler;
+import rocks.inspectit.agent.java.sdk.opentracing.Timer;
+import rocks.inspectit.agent.java.sdk.opentracing.internal.util.RateLimiter;
+import rocks.inspectit.agent.java.sdk.opentracing.util.SystemTimer;
+
+/**
+ * {@link Sampler} that samples at most the given amount of traces per second. Bursts of up to one
+ * second worth of traces are allowed.
+ *
+ * @author agent
+ *
+ */
+public class RateLimitingSampler implements Sampler {
+
+	/**
+	 * Maximum traces per second.
+	 */
+	private final double maxTracesPerSecond;
+
+	/**
+	 * Rate limiter.
+	 */
+	private final RateLimiter rateLimiter;
+
+	/**
+	 * Default constructor. Uses the {@link SystemTimer}.
+	 *
+	 * @param maxTracesPerSecond
+	 *            Maximum amount of traces sampled per second.
+	 */
+	public RateLimitingSampler(double maxTracesPerSecond) {
+		this(maxTracesPerSecond, new SystemTimer());
+	}
+
+	/**
+	 * Constructor with the timer.
+	 *
+	 * @param maxTracesPerSecond
+	 *            Maximum amount of traces sampled per second.
+	 * @param timer
+	 *            Timer providing the nano time.
+	 * @throws IllegalArgumentException
+	 *             If the maximum traces per second are negative.
+	 */
+	public RateLimitingSampler(double maxTracesPerSecond, Timer timer) throws IllegalArgumentException {
+		this.maxTracesPerSecond = maxTracesPerSecond;
+		this.rateLimiter = new RateLimiter(maxTracesPerSecond, timer);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean sample(long traceId, String operationName) {
+		return rateLimiter.checkCredit();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "RateLimitingSampler [maxTracesPerSecond=" + this.maxTracesPerSecond + "]";
+	}
+
+}
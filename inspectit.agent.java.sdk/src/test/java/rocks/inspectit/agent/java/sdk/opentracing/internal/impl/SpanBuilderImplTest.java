@@ -4,6 +4,8 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -25,6 +27,7 @@ import org.testng.annotations.Test;
 import io.opentracing.References;
 import io.opentracing.Span;
 import io.opentracing.SpanContext;
+import rocks.inspectit.agent.java.sdk.opentracing.Sampler;
 import rocks.inspectit.agent.java.sdk.opentracing.Timer;
 import rocks.inspectit.shared.all.testbase.TestBase;
 
@@ -40,9 +43,14 @@ public class SpanBuilderImplTest extends TestBase {
 	@Mock
 	TracerImpl tracer;
 
+	@Mock
+	Sampler sampler;
+
 	@BeforeMethod
 	public void init() {
 		when(tracer.getTimer()).thenReturn(timer);
+		when(tracer.getSampler()).thenReturn(sampler);
+		when(sampler.sample(anyLong(), anyString())).thenReturn(true);
 	}
 
 	public static class Start extends SpanBuilderImplTest {
@@ -65,6 +73,7 @@ public class SpanBuilderImplTest extends TestBase {
 			assertThat(span.getStartTimeMicros(), is(currentTime));
 			assertThat(span.context().getId(), is(span.context().getParentId()));
 			assertThat(span.context().getReferenceType(), is(nullValue()));
+			assertThat(span.context().isSampled(), is(true));
 			// for duration finish
 			span.finish();
 			assertThat(span.getDuration(), is((nano2 - nano1) / 1000.0d));
@@ -72,9 +81,37 @@ public class SpanBuilderImplTest extends TestBase {
 			verify(tracer).spanStarted(span);
 			verify(tracer).spanEnded(span);
 			verify(tracer, atLeastOnce()).getTimer();
+			verify(tracer).getSampler();
+			verify(sampler).sample(span.context().getTraceId(), op);
 			verify(timer).getCurrentTimeMicroseconds();
 			verify(timer, times(2)).getCurrentNanoTime();
-			verifyNoMoreInteractions(tracer, timer);
+			verifyNoMoreInteractions(tracer, timer, sampler);
+		}
+
+		@Test
+		public void rootNotSampled() {
+			when(timer.getCurrentTimeMicroseconds()).thenReturn(System.currentTimeMillis());
+			when(sampler.sample(anyLong(), anyString())).thenReturn(false);
+			SpanBuilderImpl builder = new SpanBuilderImpl(tracer, "operation");
+
+			SpanImpl span = builder.start();
+
+			assertThat(span.context().isSampled(), is(false));
+			assertThat(span.isSampled(), is(false));
+		}
+
+		@Test
+		public void parentNotSampled() {
+			when(timer.getCurrentTimeMicroseconds()).thenReturn(System.currentTimeMillis());
+			SpanContextImpl parent = SpanContextImpl.build(1L, null, false);
+			SpanBuilderImpl builder = new SpanBuilderImpl(tracer, null).asChildOf(parent).withTag("key", "value");
+
+			SpanImpl span = builder.start();
+
+			assertThat(span.context().getTraceId(), is(parent.getTraceId()));
+			assertThat(span.context().isSampled(), is(false));
+			assertThat(span.getTags(), is(nullValue()));
+			verifyZeroInteractions(sampler);
 		}
 
 		@Test
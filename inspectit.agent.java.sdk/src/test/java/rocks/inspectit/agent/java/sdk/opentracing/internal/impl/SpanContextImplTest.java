@@ -27,6 +27,17 @@ public class SpanContextImplTest {
 			assertThat(context.getTraceId(), is(context.getId()));
 			assertThat(context.getParentId(), is(context.getId()));
 			assertThat(context.baggageItems().iterator().hasNext(), is(false));
+			assertThat(context.isSampled(), is(true));
+		}
+
+		@Test
+		public void rootContextNotSampled() {
+			SpanContextImpl context = SpanContextImpl.build(3L, null, false);
+
+			assertThat(context.getId(), is(3L));
+			assertThat(context.getTraceId(), is(3L));
+			assertThat(context.getParentId(), is(3L));
+			assertThat(context.isSampled(), is(false));
 		}
 
 		@Test
@@ -65,6 +76,16 @@ public class SpanContextImplTest {
 			assertThat(context.baggageItems().iterator().hasNext(), is(false));
 		}
 
+		@Test
+		public void childContextNotSampled() {
+			SpanContextImpl parent = SpanContextImpl.build(3L, null, false);
+
+			SpanContextImpl context = SpanContextImpl.build(parent, References.CHILD_OF, Collections.<String, String> emptyMap());
+
+			assertThat(context.getTraceId(), is(parent.getTraceId()));
+			assertThat(context.isSampled(), is(false));
+		}
+
 		@Test
 		public void childContextWithBaggage() {
 			SpanContextImpl parent = SpanContextImpl.build();
@@ -116,6 +137,16 @@ public class SpanContextImplTest {
 			Entry<String, String> entry = context.baggageItems().iterator().next();
 			assertThat(entry.getKey(), is("k"));
 			assertThat(entry.getValue(), is("v"));
+			assertThat(context.isSampled(), is(true));
+		}
+
+		@Test
+		public void extractedContextNotSampled() {
+			SpanContextImpl context = SpanContextImpl.buildExtractedContext(1L, 2L, null, false);
+
+			assertThat(context.getTraceId(), is(2L));
+			assertThat(context.getId(), is(1L));
+			assertThat(context.isSampled(), is(false));
 		}
 	}
 
@@ -111,6 +111,7 @@ public class SpanImplTest extends TestBase {
 
 			assertThat(span.getStartTimeMicros(), is(startTime));
 			assertThat(span.getDuration(), is((endTimeNanos - startTimeNanos) / 1000.d));
+			assertThat(span.getDurationNanos(), is(endTimeNanos - startTimeNanos));
 			verify(tracer).spanStarted(span);
 			verify(tracer).spanEnded(span);
 			verify(tracer, atLeastOnce()).getTimer();
@@ -201,6 +202,15 @@ public class SpanImplTest extends TestBase {
 			assertThat(span.getTags().size(), is(1));
 			assertThat(span.getTags(), hasEntry("key", "value"));
 		}
+
+		@Test
+		public void notSampled() {
+			span.setSpanContext(SpanContextImpl.build(1L, null, false));
+
+			span.setTag("key", "value");
+
+			assertThat(span.getTags(), is(nullValue()));
+		}
 	}
 
 	public static class Context extends SpanImplTest {
@@ -21,6 +21,7 @@ import io.opentracing.propagation.Format;
 import io.opentracing.propagation.TextMap;
 import rocks.inspectit.agent.java.sdk.opentracing.ExtendedTracer;
 import rocks.inspectit.agent.java.sdk.opentracing.Reporter;
+import rocks.inspectit.agent.java.sdk.opentracing.Sampler;
 import rocks.inspectit.agent.java.sdk.opentracing.Timer;
 import rocks.inspectit.agent.java.sdk.opentracing.TracerLogger;
 import rocks.inspectit.agent.java.sdk.opentracing.TracerProvider;
@@ -335,6 +336,19 @@ public class TracerImplTest extends TestBase {
 			verifyZeroInteractions(reporter);
 		}
 
+		@Test
+		public void notSampled() {
+			SpanImpl span = new SpanImpl(tracer);
+			span.setSpanContext(SpanContextImpl.build(1L, null, false));
+			tracer.spanStarted(span);
+
+			tracer.spanEnded(span);
+
+			assertThat(tracer.getCurrentContext(), is(nullValue()));
+			assertThat(tracer.isCurrentContextExisting(), is(false));
+			verifyZeroInteractions(reporter);
+		}
+
 		@Test
 		public void twoSpans() {
 			SpanImpl span1 = new SpanImpl(tracer);
@@ -405,4 +419,27 @@ public class TracerImplTest extends TestBase {
 
 	}
 
+	public static class SetSampler extends TracerImplTest {
+
+		@Test
+		public void defaultSampler() {
+			assertThat(tracer.getSampler().sample(1L, null), is(true));
+		}
+
+		@Test(expectedExceptions = IllegalArgumentException.class)
+		public void samplerNull() {
+			tracer.setSampler(null);
+		}
+
+		@Test
+		public void set() {
+			Sampler s = mock(Sampler.class);
+
+			tracer.setSampler(s);
+
+			assertThat(tracer.getSampler(), is(s));
+		}
+
+	}
+
 }
@@ -47,6 +47,18 @@ public class TextMapPropagatorTest extends TestBase {
 			verifyNoMoreInteractions(carrier);
 		}
 
+		@Test
+		public void notSampled() {
+			SpanContextImpl context = SpanContextImpl.build(1L, null, false);
+
+			propagator.inject(context, carrier);
+
+			verify(carrier).put(PropagationConstants.SPAN_ID, ConversionUtils.toHexString(context.getId()));
+			verify(carrier).put(PropagationConstants.TRACE_ID, ConversionUtils.toHexString(context.getTraceId()));
+			verify(carrier).put(PropagationConstants.SAMPLED, PropagationConstants.NOT_SAMPLED);
+			verifyNoMoreInteractions(carrier);
+		}
+
 		@Test
 		public void baggage() {
 			SpanContextImpl context = SpanContextImpl.build();
@@ -79,6 +91,22 @@ public class TextMapPropagatorTest extends TestBase {
 			assertThat(context.getId(), is(1L));
 			assertThat(context.getTraceId(), is(2L));
 			assertThat(context.baggageItems().iterator().hasNext(), is(false));
+			assertThat(context.isSampled(), is(true));
+		}
+
+		@Test
+		public void notSampled() {
+			Map<String, String> map = new HashMap<String, String>();
+			map.put(PropagationConstants.SPAN_ID, ConversionUtils.toHexString(1L));
+			map.put(PropagationConstants.TRACE_ID, ConversionUtils.toHexString(2L));
+			map.put(PropagationConstants.SAMPLED, PropagationConstants.NOT_SAMPLED);
+			when(carrier.iterator()).thenReturn(map.entrySet().iterator());
+
+			SpanContextImpl context = propagator.extract(carrier);
+
+			assertThat(context.getId(), is(1L));
+			assertThat(context.isSampled(), is(false));
+			assertThat(context.baggageItems().iterator().hasNext(), is(false));
 		}
 
 		@Test
@@ -0,0 +1,79 @@
+package rocks.inspectit.agent.java.sdk.opentracing.sampler;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+import org.mockito.Mock;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.agent.java.sdk.opentracing.Timer;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * @author agent
+ *
+ */
+public class AdaptiveSamplerTest extends TestBase {
+
+	@Mock
+	Timer timer;
+
+	AdaptiveSampler sampler;
+
+	public static class Constructor extends AdaptiveSamplerTest {
+
+		@Test(expectedExceptions = IllegalArgumentException.class)
+		public void negative() {
+			new AdaptiveSampler(-1d, timer);
+		}
+	}
+
+	public static class Sample extends AdaptiveSamplerTest {
+
+		@Test
+		public void firstInterval() {
+			when(timer.getCurrentNanoTime()).thenReturn(0L);
+			sampler = new AdaptiveSampler(10d, timer);
+
+			for (int i = 0; i < 100; i++) {
+				assertThat(sampler.sample(i, null), is(true));
+			}
+		}
+
+		@Test
+		public void overTarget() {
+			when(timer.getCurrentNanoTime()).thenReturn(0L);
+			sampler = new AdaptiveSampler(10d, timer);
+			for (int i = 0; i < 99; i++) {
+				sampler.sample(i, null);
+			}
+
+			when(timer.getCurrentNanoTime()).thenReturn(1000000000L);
+			sampler.sample(Long.MAX_VALUE, null);
+
+			assertThat(sampler.getProbability(), is(closeTo(0.1d, 0.0001d)));
+			assertThat(sampler.sample(0L, null), is(true));
+			assertThat(sampler.sample(Long.MAX_VALUE, null), is(false));
+		}
+
+		@Test
+		public void underTarget() {
+			when(timer.getCurrentNanoTime()).thenReturn(0L);
+			sampler = new AdaptiveSampler(10d, timer);
+			for (int i = 0; i < 99; i++) {
+				sampler.sample(i, null);
+			}
+			when(timer.getCurrentNanoTime()).thenReturn(1000000000L);
+			sampler.sample(0L, null);
+
+			// second interval with less traces than target
+			when(timer.getCurrentNanoTime()).thenReturn(2000000000L);
+			sampler.sample(0L, null);
+
+			assertThat(sampler.getProbability(), is(1d));
+		}
+	}
+
+}
@@ -0,0 +1,58 @@
+package rocks.inspectit.agent.java.sdk.opentracing.sampler;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+import org.mockito.Mock;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.agent.java.sdk.opentracing.Timer;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * @author agent
+ *
+ */
+public class PerOperationSamplerTest extends TestBase {
+
+	@Mock
+	Timer timer;
+
+	PerOperationSampler sampler;
+
+	public static class Sample extends PerOperationSamplerTest {
+
+		@Test
+		public void limitPerOperation() {
+			when(timer.getCurrentNanoTime()).thenReturn(0L);
+			sampler = new PerOperationSampler(1d, 10, timer);
+
+			assertThat(sampler.sample(1L, "op1"), is(true));
+			assertThat(sampler.sample(2L, "op1"), is(false));
+			assertThat(sampler.sample(3L, "op2"), is(true));
+			assertThat(sampler.sample(4L, "op2"), is(false));
+		}
+
+		@Test
+		public void operationNull() {
+			when(timer.getCurrentNanoTime()).thenReturn(0L);
+			sampler = new PerOperationSampler(1d, 10, timer);
+
+			assertThat(sampler.sample(1L, null), is(true));
+			assertThat(sampler.sample(2L, null), is(false));
+		}
+
+		@Test
+		public void operationsOverLimitShareLimit() {
+			when(timer.getCurrentNanoTime()).thenReturn(0L);
+			sampler = new PerOperationSampler(1d, 1, timer);
+
+			assertThat(sampler.sample(1L, "op1"), is(true));
+			assertThat(sampler.sample(2L, "op2"), is(true));
+			assertThat(sampler.sample(3L, "op3"), is(false));
+			assertThat(sampler.sample(4L, "op1"), is(false));
+		}
+	}
+
+}
@@ -0,0 +1,79 @@
+package rocks.inspectit.agent.java.sdk.opentracing.sampler;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import org.testng.annotations.Test;
+
+import rocks.inspectit.agent.java.sdk.opentracing.internal.util.RandomUtils;
+
+/**
+ * @author agent
+ *
+ */
+public class ProbabilisticSamplerTest {
+
+	ProbabilisticSampler sampler;
+
+	public static class Constructor extends ProbabilisticSamplerTest {
+
+		@Test(expectedExceptions = IllegalArgumentException.class)
+		public void negative() {
+			new ProbabilisticSampler(-0.1d);
+		}
+
+		@Test(expectedExceptions = IllegalArgumentException.class)
+		public void biggerThanOne() {
+			new ProbabilisticSampler(1.1d);
+		}
+	}
+
+	public static class Sample extends ProbabilisticSamplerTest {
+
+		@Test
+		public void all() {
+			sampler = new ProbabilisticSampler(1d);
+
+			assertThat(sampler.sample(Long.MAX_VALUE, null), is(true));
+			assertThat(sampler.sample(Long.MIN_VALUE, null), is(true));
+			assertThat(sampler.sample(0L, null), is(true));
+		}
+
+		@Test
+		public void none() {
+			sampler = new ProbabilisticSampler(0d);
+
+			assertThat(sampler.sample(Long.MAX_VALUE, null), is(false));
+			assertThat(sampler.sample(Long.MIN_VALUE, null), is(false));
+			assertThat(sampler.sample(0L, null), is(false));
+		}
+
+		@Test
+		public void sameTraceSameDecision() {
+			sampler = new ProbabilisticSampler(0.5d);
+			long traceId = RandomUtils.randomLong();
+
+			boolean decision = sampler.sample(traceId, "op1");
+
+			assertThat(sampler.sample(traceId, "op2"), is(decision));
+		}
+
+		@Test
+		public void fraction() {
+			sampler = new ProbabilisticSampler(0.1d);
+
+			int sampled = 0;
+			for (int i = 0; i < 10000; i++) {
+				if (sampler.sample(RandomUtils.randomLong(), null)) {
+					sampled++;
+				}
+			}
+
+			assertThat(sampled, is(both(greaterThan(500)).and(lessThan(1500))));
+		}
+	}
+
+}
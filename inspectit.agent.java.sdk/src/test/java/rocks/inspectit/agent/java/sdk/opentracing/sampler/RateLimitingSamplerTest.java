@@ -0,0 +1,76 @@
+package rocks.inspectit.agent.java.sdk.opentracing.sampler;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+import org.mockito.Mock;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.agent.java.sdk.opentracing.Timer;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * @author agent
+ *
+ */
+public class RateLimitingSamplerTest extends TestBase {
+
+	@Mock
+	Timer timer;
+
+	RateLimitingSampler sampler;
+
+	public static class Sample extends RateLimitingSamplerTest {
+
+		@Test
+		public void limited() {
+			when(timer.getCurrentNanoTime()).thenReturn(0L);
+			sampler = new RateLimitingSampler(2d, timer);
+
+			assertThat(sampler.sample(1L, null), is(true));
+			assertThat(sampler.sample(2L, null), is(true));
+			assertThat(sampler.sample(3L, null), is(false));
+		}
+
+		@Test
+		public void refilled() {
+			when(timer.getCurrentNanoTime()).thenReturn(0L);
+			sampler = new RateLimitingSampler(2d, timer);
+			sampler.sample(1L, null);
+			sampler.sample(2L, null);
+
+			// half a second gives one credit
+			when(timer.getCurrentNanoTime()).thenReturn(500000000L);
+
+			assertThat(sampler.sample(3L, null), is(true));
+			assertThat(sampler.sample(4L, null), is(false));
+		}
+
+		@Test
+		public void burstLimited() {
+			when(timer.getCurrentNanoTime()).thenReturn(0L);
+			sampler = new RateLimitingSampler(1d, timer);
+			sampler.sample(1L, null);
+
+			// long pause does not allow more than one second of traces
+			when(timer.getCurrentNanoTime()).thenReturn(10000000000L);
+
+			assertThat(sampler.sample(2L, null), is(true));
+			assertThat(sampler.sample(3L, null), is(false));
+		}
+
+		@Test
+		public void zero() {
+			when(timer.getCurrentNanoTime()).thenReturn(0L);
+			sampler = new RateLimitingSampler(0d, timer);
+
+			assertThat(sampler.sample(1L, null), is(false));
+
+			when(timer.getCurrentNanoTime()).thenReturn(10000000000L);
+
+			assertThat(sampler.sample(2L, null), is(false));
+		}
+	}
+
+}
@@ -0,0 +1,167 @@
+package rocks.inspectit.agent.java.core.impl;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import rocks.inspectit.agent.java.config.impl.RegisteredSensorConfig;
+import rocks.inspectit.agent.java.core.IObjectStorage;
+import rocks.inspectit.agent.java.core.IPlatformManager;
+import rocks.inspectit.agent.java.core.IdNotAvailableException;
+import rocks.inspectit.agent.java.sensor.method.timer.ITimerStorage;
+import rocks.inspectit.agent.java.sensor.method.timer.TimerHook;
+import rocks.inspectit.agent.java.util.Timer;
+import rocks.inspectit.shared.all.communication.DefaultData;
+
+/**
+ * Performance test for the look-up of the object storages in the {@link CoreService} as it is
+ * done on every invocation of an instrumented method, using JMH framework. The string keyed map
+ * that was used before the {@link MeasurementRegistry} is included as reference.
+ * <p>
+ * Run with the GC profiler (<code>-prof gc</code>) to see the allocation per operation
+ * (<code>gc.alloc.rate.norm</code>).
+ *
+ * @author agent
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class CoreServicePerfTest {
+
+	private static final long SENSOR_TYPE_ID = 3L;
+
+	@Param({ "1", "100", "10000" })
+	private int methods;
+
+	private CoreService coreService;
+
+	private Map<String, IObjectStorage> stringKeyedStorages;
+
+	private TimerHook timerHook;
+
+	private RegisteredSensorConfig rsc;
+
+	private long methodId;
+
+	@Setup(Level.Iteration)
+	public void init() {
+		coreService = new CoreService();
+		stringKeyedStorages = new ConcurrentHashMap<String, IObjectStorage>();
+		for (long i = 0; i < methods; i++) {
+			IObjectStorage storage = new NoopTimerStorage();
+			coreService.addObjectStorage(SENSOR_TYPE_ID, i, null, storage);
+			stringKeyedStorages.put(stringKey(SENSOR_TYPE_ID, i, null), storage);
+		}
+		methodId = methods / 2;
+
+		Map<String, Object> settings = new HashMap<String, Object>();
+		settings.put("mode", "optimized");
+		timerHook = new TimerHook(new Timer(), new PlatformManagerStub(), null, settings, ManagementFactory.getThreadMXBean());
+		rsc = new RegisteredSensorConfig();
+		rsc.setSettings(Collections.<String, Object> emptyMap());
+	}
+
+	/**
+	 * Look-up using the {@link MeasurementRegistry}.
+	 */
+	@Benchmark
+	public IObjectStorage registryLookup() {
+		return coreService.getObjectStorage(SENSOR_TYPE_ID, methodId, null);
+	}
+
+	/**
+	 * Look-up with a prefix using the {@link MeasurementRegistry}.
+	 */
+	@Benchmark
+	public IObjectStorage registryLookupPrefix() {
+		return coreService.getObjectStorage(SENSOR_TYPE_ID, methodId, "prefix");
+	}
+
+	/**
+	 * Look-up using the string keys as it was done before.
+	 */
+	@Benchmark
+	public IObjectStorage stringKeyLookup() {
+		return stringKeyedStorages.get(stringKey(SENSOR_TYPE_ID, methodId, null));
+	}
+
+	/**
+	 * Complete before and after body pair of the {@link TimerHook}.
+	 */
+	@Benchmark
+	public void timerHook() {
+		timerHook.beforeBody(methodId, SENSOR_TYPE_ID, null, null, rsc);
+		timerHook.firstAfterBody(methodId, SENSOR_TYPE_ID, null, null, null, rsc);
+		timerHook.secondAfterBody(coreService, methodId, SENSOR_TYPE_ID, null, null, null, rsc);
+	}
+
+	/**
+	 * Creates the key the same way the core service did before the {@link MeasurementRegistry}.
+	 */
+	private String stringKey(long sensorTypeIdent, long methodIdent, String prefix) {
+		StringBuilder builder = new StringBuilder();
+		if (null != prefix) {
+			builder.append(prefix);
+			builder.append('.');
+		}
+		builder.append(methodIdent);
+		builder.append('.');
+		builder.append(sensorTypeIdent);
+		return builder.toString();
+	}
+
+	/**
+	 * Timer storage that does nothing.
+	 */
+	private static class NoopTimerStorage implements ITimerStorage {
+
+		@Override
+		public DefaultData finalizeDataObject() {
+			return null;
+		}
+
+		@Override
+		public void addData(long time, long cpuTime) {
+		}
+	}
+
+	/**
+	 * Platform manager that is always registered.
+	 */
+	private static class PlatformManagerStub implements IPlatformManager {
+
+		@Override
+		public boolean isPlatformRegistered() {
+			return true;
+		}
+
+		@Override
+		public long getPlatformId() throws IdNotAvailableException {
+			return 1L;
+		}
+
+		@Override
+		public void unregisterPlatform() {
+		}
+	}
+}
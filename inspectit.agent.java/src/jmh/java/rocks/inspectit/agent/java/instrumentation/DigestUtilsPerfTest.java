@@ -13,14 +13,19 @@ import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
 import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
 
 import com.google.common.io.ByteStreams;
 
+import rocks.inspectit.agent.java.util.ClassHashUtil;
+
 /**
- * Performance test for the {@link DigestUtils#sha256(byte[])} method that we use in the byte code
- * analyzer.
+ * Performance test for the {@link DigestUtils#sha256(byte[])} method and the
+ * {@link ClassHashUtil#murmur3Hex(byte[])} method that we can use in the byte code analyzer. The
+ * classes range from small interfaces to big classes like the {@link String}, the byte code is
+ * loaded before the measurement.
  *
  * @author Ivan Senic
  *
@@ -33,17 +38,29 @@ import com.google.common.io.ByteStreams;
 @State(Scope.Thread)
 public class DigestUtilsPerfTest {
 
-	@Param({ "java.lang.String", "java.lang.Object", "java.lang.Comparable" })
+	@Param({ "java.lang.Comparable", "java.lang.Object", "java.util.ArrayList", "java.lang.String", "java.util.concurrent.ConcurrentHashMap" })
 	private String clazz;
 
+	private byte[] byteCode;
+
+	@Setup
+	public void setup() {
+		byteCode = getByteCode(clazz);
+	}
+
 	@Benchmark
 	public String sha256Hex() throws InterruptedException, IOException {
-		return DigestUtils.sha256Hex(getByteCode(clazz));
+		return DigestUtils.sha256Hex(byteCode);
+	}
+
+	@Benchmark
+	public String murmur3Hex() {
+		return ClassHashUtil.murmur3Hex(byteCode);
 	}
 
 	@Benchmark
 	public byte[] baseline() {
-		return getByteCode(clazz);
+		return byteCode;
 	}
 
 	public byte[] getByteCode(String className) {
@@ -0,0 +1,192 @@
+package rocks.inspectit.agent.java.instrumentation.asm;
+
+import info.novatec.inspectit.org.objectweb.asm.ClassReader;
+import info.novatec.inspectit.org.objectweb.asm.ClassVisitor;
+import info.novatec.inspectit.org.objectweb.asm.ClassWriter;
+import info.novatec.inspectit.org.objectweb.asm.MethodVisitor;
+import info.novatec.inspectit.org.objectweb.asm.Opcodes;
+import info.novatec.inspectit.org.objectweb.asm.Type;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import rocks.inspectit.agent.java.hooking.IHookDispatcher;
+
+/**
+ * Performance test for calling a method instrumented by the {@link MethodInstrumenter} using JMH
+ * framework. Compares the invocation with the parameter array and the boxed return value passed to
+ * the dispatcher against the invocation where they are not needed. The dispatcher does nothing, so
+ * the measured time is the overhead of the generated byte code.
+ * <p>
+ * Run with the GC profiler (<code>-prof gc</code>) to see the allocation per operation
+ * (<code>gc.alloc.rate.norm</code>).
+ *
+ * @author agent
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class InstrumentedMethodPerfTest {
+
+	/**
+	 * Dispatcher the instrumented code calls.
+	 */
+	public static final IHookDispatcher DISPATCHER = new NoopHookDispatcher();
+
+	/**
+	 * If parameters and the return value are passed to the dispatcher.
+	 */
+	@Param({ "true", "false" })
+	private boolean argumentsNeeded;
+
+	private Invocable instrumented;
+
+	private int counter;
+
+	@Setup(Level.Trial)
+	public void init() throws Exception {
+		final String className = Target.class.getName();
+		ClassReader classReader = new ClassReader(className);
+		ClassWriter classWriter = new ClassWriter(classReader, ClassWriter.COMPUTE_FRAMES);
+		ClassVisitor classVisitor = new ClassVisitor(Opcodes.ASM5, classWriter) {
+			@Override
+			public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+				MethodVisitor methodVisitor = super.visitMethod(access, name, desc, signature, exceptions);
+				if (!"invoke".equals(name)) {
+					return methodVisitor;
+				}
+				return new MethodInstrumenter(methodVisitor, access, name, desc, 1L, false, argumentsNeeded) {
+					@Override
+					protected void loadHookDispatcher() {
+						mv.visitFieldInsn(Opcodes.GETSTATIC, Type.getInternalName(InstrumentedMethodPerfTest.class), "DISPATCHER", Type.getDescriptor(IHookDispatcher.class));
+					}
+				};
+			}
+		};
+		classReader.accept(classVisitor, ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
+
+		final byte[] bytes = classWriter.toByteArray();
+		ClassLoader classLoader = new ClassLoader(InstrumentedMethodPerfTest.class.getClassLoader()) {
+			@Override
+			protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+				if (className.equals(name)) {
+					Class<?> clazz = findLoadedClass(name);
+					if (null == clazz) {
+						clazz = defineClass(name, bytes, 0, bytes.length);
+					}
+					return clazz;
+				}
+				return super.loadClass(name, resolve);
+			}
+		};
+		instrumented = (Invocable) classLoader.loadClass(className).newInstance();
+	}
+
+	/**
+	 * Invokes the instrumented method.
+	 */
+	@Benchmark
+	public int invoke() {
+		return instrumented.invoke(counter++, "parameter");
+	}
+
+	/**
+	 * Interface of the instrumented class, loaded by the benchmark class loader.
+	 */
+	public interface Invocable {
+
+		/**
+		 * Method to instrument.
+		 *
+		 * @param value
+		 *            primitive parameter
+		 * @param text
+		 *            object parameter
+		 * @return primitive result
+		 */
+		int invoke(int value, String text);
+	}
+
+	/**
+	 * Class that is instrumented.
+	 */
+	public static class Target implements Invocable {
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int invoke(int value, String text) {
+			return value + text.length();
+		}
+	}
+
+	/**
+	 * Dispatcher that ignores all calls.
+	 */
+	private static class NoopHookDispatcher implements IHookDispatcher {
+
+		@Override
+		public void dispatchMethodBeforeBody(long id, Object object, Object[] parameters) {
+		}
+
+		@Override
+		public void dispatchFirstMethodAfterBody(long id, Object object, Object[] parameters, Object returnValue) {
+		}
+
+		@Override
+		public void dispatchSecondMethodAfterBody(long id, Object object, Object[] parameters, Object returnValue) {
+		}
+
+		@Override
+		public void dispatchOnThrowInBody(long id, Object object, Object[] parameters, Object exceptionObject) {
+		}
+
+		@Override
+		public void dispatchBeforeCatch(long id, Object exceptionObject) {
+		}
+
+		@Override
+		public void dispatchConstructorOnThrowInBody(long id, Object object, Object[] parameters, Object exceptionObject) {
+		}
+
+		@Override
+		public void dispatchConstructorBeforeCatch(long id, Object exceptionObject) {
+		}
+
+		@Override
+		public void dispatchConstructorBeforeBody(long id, Object[] parameters) {
+		}
+
+		@Override
+		public void dispatchConstructorAfterBody(long id, Object object, Object[] parameters) {
+		}
+
+		@Override
+		public Object dispatchSpecialMethodBeforeBody(long id, Object object, Object[] parameters) {
+			return null;
+		}
+
+		@Override
+		public Object dispatchSpecialMethodAfterBody(long id, Object object, Object[] parameters, Object returnValue) {
+			return null;
+		}
+	}
+
+}
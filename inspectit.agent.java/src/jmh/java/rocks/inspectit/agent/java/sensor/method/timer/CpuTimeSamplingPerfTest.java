@@ -0,0 +1,117 @@
+package rocks.inspectit.agent.java.sensor.method.timer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import rocks.inspectit.agent.java.util.TimingStack;
+import rocks.inspectit.agent.java.util.Timer;
+
+/**
+ * Performance test for the CPU time measurement modes of the {@link TimerHook}, using JMH
+ * framework. Each benchmark operation is one invocation measured as done by the timer hook: time
+ * and CPU time pushed before and after the invocation, popped and added to the timer storage.
+ * <p>
+ * The <code>cpuTimeSampling</code> parameter defines the mode: <code>0</code> - CPU time not
+ * measured, <code>1</code> - CPU time measured for every invocation, bigger values - CPU time
+ * measured for one in the given number of invocations. Reading of the thread CPU time alone is
+ * included as reference.
+ *
+ * @author agent
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class CpuTimeSamplingPerfTest {
+
+	/**
+	 * CPU time sampling rate, <code>0</code> for no CPU time measurement.
+	 */
+	@Param({ "0", "1", "10", "100" })
+	private int cpuTimeSampling;
+
+	private Timer timer;
+
+	private ThreadMXBean threadMXBean;
+
+	private TimingStack stack;
+
+	private OptimizedTimerStorage timerStorage;
+
+	@Setup(Level.Iteration)
+	public void init() {
+		timer = new Timer();
+		threadMXBean = ManagementFactory.getThreadMXBean();
+		threadMXBean.setThreadCpuTimeEnabled(true);
+		stack = new TimingStack();
+		timerStorage = new OptimizedTimerStorage(new Timestamp(System.currentTimeMillis()), 1L, 1L, 1L, null, false);
+	}
+
+	/**
+	 * Reading the thread CPU time only.
+	 */
+	@Benchmark
+	public long threadCpuTime() {
+		return threadMXBean.getCurrentThreadCpuTime();
+	}
+
+	/**
+	 * One measured invocation.
+	 */
+	@Benchmark
+	public void invocation() {
+		boolean enabled = cpuTimeSampling > 0;
+
+		// before body
+		stack.pushTime(timer.getCurrentNanoTime());
+		if (enabled) {
+			if (stack.isCpuTimeSampled(cpuTimeSampling)) {
+				stack.pushCpuTime(threadMXBean.getCurrentThreadCpuTime());
+			} else {
+				stack.pushCpuTime(TimingStack.CPU_TIME_NOT_MEASURED);
+			}
+		}
+
+		// first after body
+		stack.pushTime(timer.getCurrentNanoTime());
+		if (enabled) {
+			if (stack.peekCpuTime() >= 0) {
+				stack.pushCpuTime(threadMXBean.getCurrentThreadCpuTime());
+			} else {
+				stack.pushCpuTime(TimingStack.CPU_TIME_NOT_MEASURED);
+			}
+		}
+
+		// second after body
+		long endTime = stack.popTime();
+		long startTime = stack.popTime();
+		long cpuDuration = -1L;
+		if (enabled) {
+			long cpuEndTime = stack.popCpuTime();
+			long cpuStartTime = stack.popCpuTime();
+			if ((cpuStartTime >= 0) && (cpuEndTime >= 0)) {
+				cpuDuration = cpuEndTime - cpuStartTime;
+			}
+		}
+		timerStorage.addData(endTime - startTime, cpuDuration);
+	}
+
+}
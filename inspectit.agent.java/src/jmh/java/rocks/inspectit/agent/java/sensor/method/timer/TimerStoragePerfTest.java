@@ -0,0 +1,70 @@
+package rocks.inspectit.agent.java.sensor.method.timer;
+
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Performance test for adding the data to the timer storages when the same method is executed by
+ * many threads, using JMH framework. All threads share the storages as they share them in the
+ * agent. The {@link OptimizedTimerStorage} and the {@link AggregateTimerStorage} are not
+ * thread-safe, so they are included as reference with a lock around each addition.
+ *
+ * @author agent
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class TimerStoragePerfTest {
+
+	private OptimizedTimerStorage optimizedTimerStorage;
+
+	private AggregateTimerStorage aggregateTimerStorage;
+
+	private StripedTimerStorage stripedTimerStorage;
+
+	@Setup(Level.Iteration)
+	public void init() {
+		Timestamp timestamp = new Timestamp(System.currentTimeMillis());
+		optimizedTimerStorage = new OptimizedTimerStorage(timestamp, 1L, 1L, 1L, null, false);
+		aggregateTimerStorage = new AggregateTimerStorage(timestamp, 1L, 1L, 1L, null, false);
+		stripedTimerStorage = new StripedTimerStorage(timestamp, 1L, 1L, 1L, null, false);
+	}
+
+	@Benchmark
+	public void optimized() {
+		synchronized (optimizedTimerStorage) {
+			optimizedTimerStorage.addData(10000000L, 5000000L);
+		}
+	}
+
+	@Benchmark
+	public void aggregate() {
+		synchronized (aggregateTimerStorage) {
+			aggregateTimerStorage.addData(10000000L, 5000000L);
+		}
+	}
+
+	@Benchmark
+	public void striped() {
+		stripedTimerStorage.addData(10000000L, 5000000L);
+	}
+
+}
@@ -0,0 +1,116 @@
+package rocks.inspectit.agent.java.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import rocks.inspectit.agent.java.hooking.DispatchContext;
+
+/**
+ * Performance test for saving the times between the before and after calls of the method hooks,
+ * using JMH framework. Each benchmark is one before/after pair with time and CPU time as done by
+ * the timer hook. The {@link ThreadLocalStack} of boxed values that was used before the
+ * {@link TimingStack} of the {@link DispatchContext} is included as reference.
+ * <p>
+ * Run with the GC profiler (<code>-prof gc</code>) to see the allocation per operation
+ * (<code>gc.alloc.rate.norm</code>).
+ *
+ * @author agent
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class TimingStackPerfTest {
+
+	/**
+	 * Number of nested calls.
+	 */
+	@Param({ "1", "10" })
+	private int depth;
+
+	private Timer timer;
+
+	private ThreadMXBean threadMXBean;
+
+	private ThreadLocalStack<Double> timeStack;
+
+	private ThreadLocalStack<Long> threadCpuTimeStack;
+
+	private int timingStackSlot;
+
+	@Setup(Level.Iteration)
+	public void init() {
+		timer = new Timer();
+		threadMXBean = ManagementFactory.getThreadMXBean();
+		timeStack = new ThreadLocalStack<Double>();
+		threadCpuTimeStack = new ThreadLocalStack<Long>();
+		timingStackSlot = DispatchContext.newTimingStackSlot();
+	}
+
+	/**
+	 * Boxed values in the {@link ThreadLocalStack} as used before.
+	 */
+	@Benchmark
+	public double threadLocalStack() {
+		double result = 0;
+		for (int i = 0; i < depth; i++) {
+			timeStack.push(new Double(timer.getCurrentTime()));
+			threadCpuTimeStack.push(Long.valueOf(threadMXBean.getCurrentThreadCpuTime()));
+		}
+		for (int i = 0; i < depth; i++) {
+			timeStack.push(new Double(timer.getCurrentTime()));
+			threadCpuTimeStack.push(Long.valueOf(threadMXBean.getCurrentThreadCpuTime()));
+
+			double endTime = timeStack.pop().doubleValue();
+			double startTime = timeStack.pop().doubleValue();
+			long cpuEndTime = threadCpuTimeStack.pop().longValue();
+			long cpuStartTime = threadCpuTimeStack.pop().longValue();
+			result += (endTime - startTime) + (cpuEndTime - cpuStartTime);
+		}
+		return result;
+	}
+
+	/**
+	 * Primitive values in the {@link TimingStack} of the {@link DispatchContext}.
+	 */
+	@Benchmark
+	public long dispatchContextTimingStack() {
+		long result = 0;
+		for (int i = 0; i < depth; i++) {
+			TimingStack stack = DispatchContext.get().getTimingStack(timingStackSlot);
+			stack.pushTime(timer.getCurrentNanoTime());
+			stack.pushCpuTime(threadMXBean.getCurrentThreadCpuTime());
+		}
+		for (int i = 0; i < depth; i++) {
+			TimingStack stack = DispatchContext.get().getTimingStack(timingStackSlot);
+			stack.pushTime(timer.getCurrentNanoTime());
+			stack.pushCpuTime(threadMXBean.getCurrentThreadCpuTime());
+
+			stack = DispatchContext.get().getTimingStack(timingStackSlot);
+			long endTime = stack.popTime();
+			long startTime = stack.popTime();
+			long cpuEndTime = stack.popCpuTime();
+			long cpuStartTime = stack.popCpuTime();
+			result += (endTime - startTime) + (cpuEndTime - cpuStartTime);
+		}
+		return result;
+	}
+
+}
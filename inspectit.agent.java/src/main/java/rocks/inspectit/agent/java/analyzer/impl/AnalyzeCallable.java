@@ -45,6 +45,12 @@ public class AnalyzeCallable implements Callable<InstrumentationDefinition> {
 	 */
 	private final Type type;
 
+	/**
+	 * Validator whose pending types are sent before the type, so that the CMR knows the complete
+	 * hierarchy of the type. Can be <code>null</code>.
+	 */
+	private final InstrumentationCacheValidator instrumentationCacheValidator;
+
 	/**
 	 * Default constructor.
 	 *
@@ -56,14 +62,17 @@ public class AnalyzeCallable implements Callable<InstrumentationDefinition> {
 	 *            Hash to pass.
 	 * @param type
 	 *            {@link Type} to pass.
+	 * @param instrumentationCacheValidator
+	 *            Validator whose pending types are sent before the type. Can be <code>null</code>.
 	 * @see IConnection#analyze(long, String,
 	 *      rocks.inspectit.shared.all.instrumentation.classcache.Type)
 	 */
-	public AnalyzeCallable(IConnection connection, long platformId, String hash, Type type) {
+	public AnalyzeCallable(IConnection connection, long platformId, String hash, Type type, InstrumentationCacheValidator instrumentationCacheValidator) {
 		this.connection = connection;
 		this.platformId = platformId;
 		this.hash = hash;
 		this.type = type;
+		this.instrumentationCacheValidator = instrumentationCacheValidator;
 	}
 
 	/**
@@ -71,6 +80,10 @@ public class AnalyzeCallable implements Callable<InstrumentationDefinition> {
 	 */
 	@Override
 	public InstrumentationDefinition call() throws Exception {
+		if (null != instrumentationCacheValidator) {
+			instrumentationCacheValidator.validate();
+		}
+
 		try {
 			if (connection.isConnected()) {
 				return connection.analyze(platformId, hash, type);
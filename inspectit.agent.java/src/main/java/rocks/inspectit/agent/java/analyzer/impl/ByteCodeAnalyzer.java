@@ -17,7 +17,6 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
-import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.slf4j.Logger;
@@ -43,6 +42,7 @@ import rocks.inspectit.agent.java.instrumentation.asm.ClassAnalyzer;
 import rocks.inspectit.agent.java.instrumentation.asm.ClassInstrumenter;
 import rocks.inspectit.agent.java.instrumentation.asm.LoaderAwareClassWriter;
 import rocks.inspectit.agent.java.sensor.method.IMethodSensor;
+import rocks.inspectit.agent.java.util.ClassHashUtil;
 import rocks.inspectit.shared.all.instrumentation.classcache.Type;
 import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationDefinition;
 import rocks.inspectit.shared.all.instrumentation.config.impl.MethodInstrumentationConfig;
@@ -102,6 +102,18 @@ public class ByteCodeAnalyzer implements IByteCodeAnalyzer, InitializingBean {
 	@Autowired
 	private ClassHashHelper classHashHelper;
 
+	/**
+	 * {@link InstrumentationCacheValidator}.
+	 */
+	@Autowired
+	private InstrumentationCacheValidator instrumentationCacheValidator;
+
+	/**
+	 * {@link InstrumentationCandidateFilter}.
+	 */
+	@Autowired
+	private InstrumentationCandidateFilter instrumentationCandidateFilter;
+
 	/**
 	 * Core-service executor service.
 	 */
@@ -167,12 +179,28 @@ public class ByteCodeAnalyzer implements IByteCodeAnalyzer, InitializingBean {
 			// no matter what first register class being analyzed with class loader
 			classHashHelper.registerAnalyzed(className);
 
+			// skip classes that can not be instrumented without hashing and parsing
+			ClassReader classReader = new ClassReader(byteCode);
+			if (instrumentationCandidateFilter.isPrefiltered(className, classReader)) {
+				return null;
+			}
+
 			// create the hash
-			String hash = DigestUtils.sha256Hex(byteCode);
+			String hash = ClassHashUtil.hash(byteCode, configurationStorage.getClassHashAlgorithm());
 			InstrumentationDefinition instrumentationResult = null;
 			if (classHashHelper.isSent(className, hash)) {
 				// if sent load instrumentation result from the class hash helper
 				instrumentationResult = classHashHelper.getInstrumentationDefinition(className);
+			} else if (classHashHelper.isCached(className, hash)) {
+				// if known from the cache use the cached instrumentation result and validate later
+				instrumentationResult = classHashHelper.getInstrumentationDefinition(className);
+
+				ClassAnalyzer classAnalyzer = new ClassAnalyzer(hash);
+				classReader.accept(classAnalyzer, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+				Type type = (Type) classAnalyzer.getType();
+
+				analyzeDependingTypes(type, classLoader);
+				instrumentationCacheValidator.addType(hash, type);
 			} else {
 				// if not sent we go for the sending
 				if (!connection.isConnected()) {
@@ -184,7 +212,6 @@ public class ByteCodeAnalyzer implements IByteCodeAnalyzer, InitializingBean {
 				}
 
 				// parse first, do not use internFQNs
-				ClassReader classReader = new ClassReader(byteCode);
 				ClassAnalyzer classAnalyzer = new ClassAnalyzer(hash);
 				classReader.accept(classAnalyzer, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
 				Type type = (Type) classAnalyzer.getType();
@@ -192,8 +219,14 @@ public class ByteCodeAnalyzer implements IByteCodeAnalyzer, InitializingBean {
 				// analyze all necessary depending classes before
 				analyzeDependingTypes(type, classLoader);
 
-				// try connecting to server
-				Callable<InstrumentationDefinition> analyzeCallable = new AnalyzeCallable(connection, platformManager.getPlatformId(), hash, type);
+				// classes that can not be instrumented are sent later in a batch
+				if (!instrumentationCandidateFilter.isCandidate(type)) {
+					instrumentationCacheValidator.addType(hash, type);
+					return null;
+				}
+
+				// try connecting to server, pending types are sent first
+				Callable<InstrumentationDefinition> analyzeCallable = new AnalyzeCallable(connection, platformManager.getPlatformId(), hash, type, instrumentationCacheValidator);
 				try {
 					instrumentationResult = executorService.submit(analyzeCallable).get(ANALYZE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
 				} catch (InterruptedException e) {
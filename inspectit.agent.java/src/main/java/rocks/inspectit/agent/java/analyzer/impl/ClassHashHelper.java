@@ -4,6 +4,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -29,6 +30,7 @@ import com.esotericsoftware.kryo.io.Output;
 import rocks.inspectit.agent.java.config.IConfigurationStorage;
 import rocks.inspectit.agent.java.io.FileResolver;
 import rocks.inspectit.agent.java.spring.PrototypesProvider;
+import rocks.inspectit.shared.all.instrumentation.config.ClassHashAlgorithm;
 import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationDefinition;
 import rocks.inspectit.shared.all.serializer.impl.SerializationManager;
 import rocks.inspectit.shared.all.serializer.provider.SerializationManagerProvider;
@@ -38,6 +40,13 @@ import rocks.inspectit.shared.all.spring.logger.Log;
  * Implementation of the {@link IClassHashHelper} that holds all data in one concurrent map. Keys in
  * this map are class FQNs, while entries are {@link ClassEntry}s and they define answers to all the
  * provided questions.
+ * <p>
+ * Next to the hashes sent to the CMR, the helper persists the instrumentation definitions together
+ * with the configuration revision they belong to. If the CMR has no class cache for the agent, but
+ * the configuration revision did not change, the persisted definitions are loaded and their hashes
+ * are registered as cached. Classes with the cached hashes can be instrumented without asking the
+ * CMR, the {@link InstrumentationCacheValidator} confirms them with the CMR later on. Persisted
+ * hashes computed with other {@link ClassHashAlgorithm} than the current one are not loaded.
  *
  * @author Ivan Senic
  *
@@ -126,6 +135,7 @@ public class ClassHashHelper implements InitializingBean, DisposableBean {
 	public void registerSent(String fqn, String hash) {
 		ClassEntry entry = getOrCreateEntry(fqn);
 		entry.addHash(hash);
+		entry.removeCachedHash(hash);
 	}
 
 	/**
@@ -145,6 +155,21 @@ public class ClassHashHelper implements InitializingBean, DisposableBean {
 		return entry != null ? entry.containsHash(hash) : false;
 	}
 
+	/**
+	 * Returns if the class with given fqn and hash is known from the persisted instrumentation
+	 * definition cache, but has not been sent to the CMR yet.
+	 *
+	 * @param fqn
+	 *            Class fully qualified name.
+	 * @param hash
+	 *            Hash to check
+	 * @return Returns if the class with given hash is known from the cache.
+	 */
+	public boolean isCached(String fqn, String hash) {
+		ClassEntry entry = fqnToClassEntryMap.get(fqn);
+		return entry != null ? entry.containsCachedHash(hash) : false;
+	}
+
 	/**
 	 * Registers the instrumentation result for the class with the given FQn.
 	 *
@@ -220,6 +245,7 @@ public class ClassHashHelper implements InitializingBean, DisposableBean {
 			loadCacheFromDisk();
 		} else {
 			deleteCacheFromDisk();
+			loadInstrumentationDefinitionsFromDisk();
 		}
 
 		// check if there are any initial instrumentation points in configuration
@@ -268,11 +294,14 @@ public class ClassHashHelper implements InitializingBean, DisposableBean {
 				fileInputStream = new FileInputStream(file);
 				Input input = new Input(fileInputStream);
 
+				ClassHashAlgorithm algorithm = configurationStorage.getClassHashAlgorithm();
 				Map<String, Collection<String>> fqnWithHashes = (Map<String, Collection<String>>) serializationManager.deserialize(input);
 				for (Entry<String, Collection<String>> entry : fqnWithHashes.entrySet()) {
 					ClassEntry classEntry = getOrCreateEntry(entry.getKey());
 					for (String hash : entry.getValue()) {
-						classEntry.addHash(hash);
+						if (isHashOf(algorithm, hash)) {
+							classEntry.addHash(hash);
+						}
 					}
 				}
 			} catch (Throwable t) { // NOPMD
@@ -289,6 +318,74 @@ public class ClassHashHelper implements InitializingBean, DisposableBean {
 		}
 	}
 
+	/**
+	 * Loads the instrumentation definitions from disk if they belong to the current configuration
+	 * revision. Hashes of the loaded classes are registered as cached.
+	 */
+	@SuppressWarnings("unchecked")
+	private void loadInstrumentationDefinitionsFromDisk() {
+		File file = fileResolver.getInstrumentationDefinitionCacheFile().getAbsoluteFile();
+
+		if (file.exists()) {
+			FileInputStream fileInputStream = null;
+			try {
+				String revision = configurationStorage.getConfigurationRevision();
+				if (null == revision) {
+					return;
+				}
+
+				fileInputStream = new FileInputStream(file);
+				Input input = new Input(fileInputStream);
+
+				String cachedRevision = (String) serializationManager.deserialize(input);
+				if (!revision.equals(cachedRevision)) {
+					log.info("Instrumentation definition cache ignored as configuration revision changed.");
+					return;
+				}
+
+				ClassHashAlgorithm algorithm = configurationStorage.getClassHashAlgorithm();
+				Map<String, Collection<String>> fqnWithHashes = (Map<String, Collection<String>>) serializationManager.deserialize(input);
+				Map<String, InstrumentationDefinition> fqnWithDefinitions = (Map<String, InstrumentationDefinition>) serializationManager.deserialize(input);
+				for (Entry<String, Collection<String>> entry : fqnWithHashes.entrySet()) {
+					ClassEntry classEntry = getOrCreateEntry(entry.getKey());
+					for (String hash : entry.getValue()) {
+						if (isHashOf(algorithm, hash)) {
+							classEntry.addCachedHash(hash);
+						}
+					}
+					classEntry.setInstrumentationResult(fqnWithDefinitions.get(entry.getKey()));
+				}
+
+				log.info("Loaded instrumentation definition cache for " + fqnWithHashes.size() + " classes (" + fqnWithDefinitions.size() + " instrumented).");
+			} catch (Throwable t) { // NOPMD
+				log.warn("Unable to load instrumentation definition cache from disk.", t);
+			} finally {
+				if (null != fileInputStream) {
+					try {
+						fileInputStream.close();
+					} catch (IOException e) { // NOPMD //NOCHK
+						// ignore
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns if the hash loaded from the disk was created with the algorithm currently in use.
+	 * Hashes of other algorithms can never match the hashes computed now, thus they are not
+	 * loaded.
+	 *
+	 * @param algorithm
+	 *            Current {@link ClassHashAlgorithm}, can be <code>null</code>.
+	 * @param hash
+	 *            Loaded hash.
+	 * @return If the hash should be loaded.
+	 */
+	private boolean isHashOf(ClassHashAlgorithm algorithm, String hash) {
+		return (null == algorithm) || algorithm.isAlgorithmOf(hash);
+	}
+
 	/**
 	 * Deletes the current cache file from disk.
 	 */
@@ -345,6 +442,60 @@ public class ClassHashHelper implements InitializingBean, DisposableBean {
 				}
 			}
 		}
+
+		saveInstrumentationDefinitionsToDisk();
+	}
+
+	/**
+	 * Saves the instrumentation definitions of all known classes together with the current
+	 * configuration revision to disk. Both sent and cached hashes are saved.
+	 */
+	private void saveInstrumentationDefinitionsToDisk() {
+		File file = fileResolver.getInstrumentationDefinitionCacheFile().getAbsoluteFile();
+
+		FileOutputStream fileOutputStream = null;
+		try {
+			String revision = configurationStorage.getConfigurationRevision();
+			if (null == revision) {
+				return;
+			}
+
+			if (!file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+				log.warn("Unable to create needed directory for the cache file: " + file.getParentFile().getAbsolutePath());
+			}
+
+			Map<String, Collection<String>> fqnWithHashes = new HashMap<String, Collection<String>>();
+			Map<String, InstrumentationDefinition> fqnWithDefinitions = new HashMap<String, InstrumentationDefinition>();
+			for (Entry<String, ClassEntry> entry : fqnToClassEntryMap.entrySet()) {
+				ClassEntry classEntry = entry.getValue();
+				Collection<String> hashes = new ArrayList<String>(classEntry.getHashes());
+				hashes.addAll(classEntry.getCachedHashes());
+				if (hashes.isEmpty()) {
+					continue;
+				}
+
+				fqnWithHashes.put(entry.getKey(), hashes);
+				if (null != classEntry.getInstrumentationResult()) {
+					fqnWithDefinitions.put(entry.getKey(), classEntry.getInstrumentationResult());
+				}
+			}
+
+			fileOutputStream = new FileOutputStream(file);
+			Output output = new Output(fileOutputStream);
+			serializationManager.serialize(revision, output);
+			serializationManager.serialize(fqnWithHashes, output);
+			serializationManager.serialize(fqnWithDefinitions, output);
+		} catch (Throwable t) { // NOPMD
+			log.warn("Unable to save instrumentation definition cache to disk.", t);
+		} finally {
+			if (null != fileOutputStream) {
+				try {
+					fileOutputStream.close();
+				} catch (IOException e) { // NOPMD //NOCHK
+					// ignore
+				}
+			}
+		}
 	}
 
 	/**
@@ -366,6 +517,12 @@ public class ClassHashHelper implements InitializingBean, DisposableBean {
 		 */
 		private final CopyOnWriteArrayList<String> hashes = new CopyOnWriteArrayList<String>();
 
+		/**
+		 * Hashes for this class known from the instrumentation definition cache, but not sent to
+		 * the CMR.
+		 */
+		private final CopyOnWriteArrayList<String> cachedHashes = new CopyOnWriteArrayList<String>();
+
 		/**
 		 * Gets {@link #instrumentationResult}.
 		 *
@@ -420,6 +577,53 @@ public class ClassHashHelper implements InitializingBean, DisposableBean {
 			return Collections.unmodifiableList(hashes);
 		}
 
+		/**
+		 * Adds hash to the {@link #cachedHashes} if it does not exist.
+		 *
+		 * @param hash
+		 *            of the class
+		 */
+		public void addCachedHash(String hash) {
+			if (null != hash) {
+				cachedHashes.addIfAbsent(hash);
+			}
+		}
+
+		/**
+		 * Removes hash from the {@link #cachedHashes}.
+		 *
+		 * @param hash
+		 *            of the class
+		 */
+		public void removeCachedHash(String hash) {
+			if (null != hash) {
+				cachedHashes.remove(hash);
+			}
+		}
+
+		/**
+		 * Returns if the hash is contained in the {@link #cachedHashes}.
+		 *
+		 * @param hash
+		 *            of the class
+		 * @return Returns if the hash is contained in the {@link #cachedHashes}.
+		 */
+		public boolean containsCachedHash(String hash) {
+			if (null != hash) {
+				return cachedHashes.contains(hash);
+			}
+			return false;
+		}
+
+		/**
+		 * Gets {@link #cachedHashes}.
+		 *
+		 * @return {@link #cachedHashes}
+		 */
+		public Collection<String> getCachedHashes() {
+			return Collections.unmodifiableList(cachedHashes);
+		}
+
 	}
 
 }
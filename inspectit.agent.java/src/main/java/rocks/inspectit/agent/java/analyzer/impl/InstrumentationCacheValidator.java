@@ -0,0 +1,340 @@
+package rocks.inspectit.agent.java.analyzer.impl;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang.ObjectUtils;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import rocks.inspectit.agent.java.connection.IConnection;
+import rocks.inspectit.agent.java.connection.ServerUnavailableException;
+import rocks.inspectit.agent.java.core.IPlatformManager;
+import rocks.inspectit.agent.java.core.IdNotAvailableException;
+import rocks.inspectit.agent.java.event.AgentMessagesReceivedEvent;
+import rocks.inspectit.shared.all.communication.message.IAgentMessage;
+import rocks.inspectit.shared.all.communication.message.UpdatedInstrumentationMessage;
+import rocks.inspectit.shared.all.exception.BusinessException;
+import rocks.inspectit.shared.all.instrumentation.classcache.Type;
+import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationDefinition;
+import rocks.inspectit.shared.all.instrumentation.config.impl.MethodInstrumentationConfig;
+import rocks.inspectit.shared.all.instrumentation.config.impl.PropertyPathStart;
+import rocks.inspectit.shared.all.instrumentation.config.impl.SensorInstrumentationPoint;
+import rocks.inspectit.shared.all.spring.logger.Log;
+
+/**
+ * Validates the instrumentation of the classes that were not analyzed by the CMR when loaded. These
+ * are the classes instrumented with the cached instrumentation definitions and the classes the
+ * {@link InstrumentationCandidateFilter} rules out, thus left uninstrumented. The
+ * {@link ByteCodeAnalyzer} adds the types of such classes, which are sent to the CMR in bulk
+ * requests. The returned definitions are compared with the ones the classes were loaded with and
+ * classes whose definition differs are retransformed by publishing an
+ * {@link UpdatedInstrumentationMessage}.
+ *
+ * @author agent
+ *
+ */
+@Component
+public class InstrumentationCacheValidator implements InitializingBean, DisposableBean {
+
+	/**
+	 * Period of the validation in seconds.
+	 */
+	private static final long VALIDATION_PERIOD = 15;
+
+	/**
+	 * Amount of pending types that triggers the validation before the period elapses.
+	 */
+	private static final int MAX_PENDING_TYPES = 256;
+
+	/**
+	 * Runnable that validates the pending types.
+	 */
+	private final Runnable validateRunner = new Runnable() {
+
+		@Override
+		public void run() {
+			validate();
+		}
+
+	};
+
+	/**
+	 * Logger for the class.
+	 */
+	@Log
+	Logger log;
+
+	/**
+	 * Connection to the CMR.
+	 */
+	@Autowired
+	private IConnection connection;
+
+	/**
+	 * Platform manager.
+	 */
+	@Autowired
+	private IPlatformManager platformManager;
+
+	/**
+	 * {@link ClassHashHelper}.
+	 */
+	@Autowired
+	private ClassHashHelper classHashHelper;
+
+	/**
+	 * Spring {@link ApplicationEventPublisher} for publishing the events.
+	 */
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	/**
+	 * Core-service executor service.
+	 */
+	@Autowired
+	@Qualifier("coreServiceExecutorService")
+	private ScheduledExecutorService executorService;
+
+	/**
+	 * Types waiting for validation keyed by the class hash, in the order they were added. Access
+	 * must be synchronized on the map.
+	 */
+	private final Map<String, Type> pendingTypes = new LinkedHashMap<String, Type>();
+
+	/**
+	 * ScheduledFuture representing the pending validation task.
+	 */
+	private ScheduledFuture<?> scheduledTask;
+
+	/**
+	 * Adds the type that was instrumented with the cached instrumentation definition.
+	 *
+	 * @param hash
+	 *            Class hash.
+	 * @param type
+	 *            Type parsed from the byte code.
+	 */
+	public void addType(String hash, Type type) {
+		boolean full;
+		synchronized (pendingTypes) {
+			pendingTypes.put(hash, type);
+			full = pendingTypes.size() == MAX_PENDING_TYPES;
+		}
+
+		if (full) {
+			executorService.execute(validateRunner);
+		}
+	}
+
+	/**
+	 * Sends all pending types to the CMR in one request and compares the received definitions
+	 * with the ones the classes were loaded with. Types that could not be validated stay pending.
+	 * Requests are serialized, so that the CMR receives the types in the order they were added.
+	 */
+	synchronized void validate() {
+		Map<String, Type> types;
+		synchronized (pendingTypes) {
+			if (pendingTypes.isEmpty()) {
+				return;
+			}
+			types = new LinkedHashMap<String, Type>(pendingTypes);
+			pendingTypes.clear();
+		}
+
+		Map<String, InstrumentationDefinition> results;
+		try {
+			if (!connection.isConnected()) {
+				restorePending(types);
+				return;
+			}
+			results = connection.analyzeAll(platformManager.getPlatformId(), types);
+		} catch (IdNotAvailableException e) {
+			if (log.isDebugEnabled()) {
+				log.debug("Cached instrumentation definitions could not be validated. No platform id available.", e);
+			}
+			restorePending(types);
+			return;
+		} catch (ServerUnavailableException e) {
+			if (log.isDebugEnabled()) {
+				log.debug("Cached instrumentation definitions could not be validated. Server not available.", e);
+			}
+			restorePending(types);
+			return;
+		} catch (BusinessException e) {
+			log.warn("Cached instrumentation definitions could not be validated.", e);
+			restorePending(types);
+			return;
+		}
+
+		UpdatedInstrumentationMessage message = new UpdatedInstrumentationMessage();
+		for (Entry<String, Type> entry : types.entrySet()) {
+			if (!results.containsKey(entry.getKey())) {
+				continue;
+			}
+
+			String fqn = entry.getValue().getFQN();
+			InstrumentationDefinition received = results.get(entry.getKey());
+			if (!isSameDefinition(classHashHelper.getInstrumentationDefinition(fqn), received)) {
+				message.getMessageContent().add((null != received) ? received : new InstrumentationDefinition(fqn));
+			}
+			classHashHelper.registerSent(fqn, entry.getKey());
+		}
+
+		if (log.isDebugEnabled()) {
+			log.debug("Validated " + types.size() + " cached instrumentation definitions, " + message.getMessageContent().size() + " changed.");
+		}
+
+		if (!message.getMessageContent().isEmpty()) {
+			// publish in separate task, as the caller might be waiting for the validation
+			List<IAgentMessage<?>> messages = Collections.<IAgentMessage<?>> singletonList(message);
+			final AgentMessagesReceivedEvent event = new AgentMessagesReceivedEvent(this, messages);
+			executorService.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					eventPublisher.publishEvent(event);
+				}
+
+			});
+		}
+	}
+
+	/**
+	 * Puts the types back to the pending ones, unless they have been added again in the meantime.
+	 *
+	 * @param types
+	 *            Types that could not be validated.
+	 */
+	private void restorePending(Map<String, Type> types) {
+		synchronized (pendingTypes) {
+			for (Entry<String, Type> entry : types.entrySet()) {
+				if (!pendingTypes.containsKey(entry.getKey())) {
+					pendingTypes.put(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns if the two definitions instrument the same methods with the same sensors. Empty
+	 * definitions are equal to <code>null</code>.
+	 *
+	 * @param first
+	 *            First definition, can be <code>null</code>.
+	 * @param second
+	 *            Second definition, can be <code>null</code>.
+	 * @return If definitions are same.
+	 */
+	static boolean isSameDefinition(InstrumentationDefinition first, InstrumentationDefinition second) {
+		boolean firstEmpty = (null == first) || first.isEmpty();
+		boolean secondEmpty = (null == second) || second.isEmpty();
+		if (firstEmpty || secondEmpty) {
+			return firstEmpty == secondEmpty;
+		}
+
+		Collection<MethodInstrumentationConfig> firstConfigs = first.getMethodInstrumentationConfigs();
+		Collection<MethodInstrumentationConfig> secondConfigs = second.getMethodInstrumentationConfigs();
+		if (firstConfigs.size() != secondConfigs.size()) {
+			return false;
+		}
+		for (MethodInstrumentationConfig config : firstConfigs) {
+			boolean found = false;
+			for (MethodInstrumentationConfig other : secondConfigs) {
+				if (isSameConfig(config, other)) {
+					found = true;
+					break;
+				}
+			}
+			if (!found) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns if the two method instrumentation configs target the same method with the same
+	 * instrumentation points. The sensor instrumentation points are compared including the
+	 * property accessors, as a changed accessor requires the class to be instrumented again.
+	 *
+	 * @param first
+	 *            First config.
+	 * @param second
+	 *            Second config.
+	 * @return If configs are same.
+	 */
+	private static boolean isSameConfig(MethodInstrumentationConfig first, MethodInstrumentationConfig second) {
+		if (!ObjectUtils.equals(first.getTargetMethodName(), second.getTargetMethodName()) || !ObjectUtils.equals(first.getReturnType(), second.getReturnType())
+				|| !ObjectUtils.equals(first.getParameterTypes(), second.getParameterTypes())) {
+			return false;
+		}
+		if (!ObjectUtils.equals(first.getSpecialInstrumentationPoint(), second.getSpecialInstrumentationPoint())) {
+			return false;
+		}
+
+		SensorInstrumentationPoint firstPoint = first.getSensorInstrumentationPoint();
+		SensorInstrumentationPoint secondPoint = second.getSensorInstrumentationPoint();
+		if ((null == firstPoint) || (null == secondPoint)) {
+			return firstPoint == secondPoint;
+		}
+		return (firstPoint.getId() == secondPoint.getId()) && Arrays.equals(firstPoint.getSensorIds(), secondPoint.getSensorIds())
+				&& (firstPoint.isStartsInvocation() == secondPoint.isStartsInvocation()) && ObjectUtils.equals(firstPoint.getSettings(), secondPoint.getSettings())
+				&& isSamePropertyAccessors(firstPoint.getPropertyAccessorList(), secondPoint.getPropertyAccessorList());
+	}
+
+	/**
+	 * Returns if the two property accessor lists contain the same accessors in the same order.
+	 * Empty lists are equal to <code>null</code>.
+	 *
+	 * @param first
+	 *            First list, can be <code>null</code>.
+	 * @param second
+	 *            Second list, can be <code>null</code>.
+	 * @return If lists are same.
+	 */
+	private static boolean isSamePropertyAccessors(List<PropertyPathStart> first, List<PropertyPathStart> second) {
+		boolean firstEmpty = (null == first) || first.isEmpty();
+		boolean secondEmpty = (null == second) || second.isEmpty();
+		if (firstEmpty || secondEmpty) {
+			return firstEmpty == secondEmpty;
+		}
+		return first.equals(second);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Starts the periodic validation.
+	 */
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		if (null == scheduledTask) {
+			scheduledTask = executorService.scheduleWithFixedDelay(validateRunner, VALIDATION_PERIOD, VALIDATION_PERIOD, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void destroy() throws Exception {
+		if (null != scheduledTask) {
+			scheduledTask.cancel(false);
+		}
+	}
+
+}
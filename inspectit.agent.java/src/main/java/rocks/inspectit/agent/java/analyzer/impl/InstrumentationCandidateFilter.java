@@ -0,0 +1,385 @@
+package rocks.inspectit.agent.java.analyzer.impl;
+
+import info.novatec.inspectit.org.objectweb.asm.ClassReader;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import rocks.inspectit.agent.java.config.IConfigurationStorage;
+import rocks.inspectit.agent.java.config.StorageException;
+import rocks.inspectit.shared.all.instrumentation.classcache.AnnotationType;
+import rocks.inspectit.shared.all.instrumentation.classcache.MethodType;
+import rocks.inspectit.shared.all.instrumentation.classcache.Type;
+import rocks.inspectit.shared.all.instrumentation.classcache.TypeWithMethods;
+import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationPrefilter;
+import rocks.inspectit.shared.all.pattern.IMatchPattern;
+import rocks.inspectit.shared.all.spring.logger.Log;
+
+/**
+ * Decides with the candidate patterns defined by the CMR if a class might be instrumented. Only
+ * such classes have to be analyzed by the CMR right away, all others can be sent in batches.
+ * <p>
+ * A type is a candidate if its name matches one of the class candidate patterns or if it is a
+ * hierarchy candidate. Hierarchy candidates are types whose name or any of the annotations match
+ * one of the hierarchy candidate patterns and all their sub-types. As the super-types are always
+ * analyzed before the type, it's enough to remember the names of the hierarchy candidates.
+ * <p>
+ * The decision is only based on the types this agent analyzed, thus a sub-type of a type that was
+ * not analyzed can be missed. Such classes are retransformed after the batch they were sent with
+ * is analyzed by the CMR.
+ * <p>
+ * Before a class is hashed and parsed, the {@link InstrumentationPrefilter}, if enabled on the
+ * CMR, can prove that the class is no candidate by checking only the names in the class file
+ * header and the types referenced in the constant pool. A class is prefiltered if neither its
+ * name, nor any of the referenced types, nor the names of the super-types match the prefilter and
+ * all super-types are known to not match it either. Super-types not seen yet never allow
+ * prefiltering.
+ *
+ * @author agent
+ *
+ */
+@Component
+public class InstrumentationCandidateFilter implements DisposableBean {
+
+	/**
+	 * Tag of the UTF8 constant pool entries.
+	 */
+	private static final int UTF8_TAG = 1;
+
+	/**
+	 * Logger for the class.
+	 */
+	@Log
+	Logger log;
+
+	/**
+	 * {@link IConfigurationStorage} to read the patterns from.
+	 */
+	@Autowired
+	private IConfigurationStorage configurationStorage;
+
+	/**
+	 * {@link ClassHashHelper} to check for the known instrumentation definitions.
+	 */
+	@Autowired
+	private ClassHashHelper classHashHelper;
+
+	/**
+	 * Names of the hierarchy candidates.
+	 */
+	private final Set<String> hierarchyCandidates = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+	/**
+	 * Prefilter state of the seen types. <code>true</code> if the type or any of its super-types
+	 * might match the prefilter, <code>false</code> if none of them can.
+	 */
+	private final ConcurrentHashMap<String, Boolean> prefilterHierarchy = new ConcurrentHashMap<String, Boolean>();
+
+	/**
+	 * Amount of classes that were prefiltered.
+	 */
+	private final AtomicLong filteredClassCount = new AtomicLong();
+
+	/**
+	 * Amount of classes that passed the prefilter and were analyzed.
+	 */
+	private final AtomicLong analyzedClassCount = new AtomicLong();
+
+	/**
+	 * Returns if the class can be skipped without hashing and parsing, because it's proven that
+	 * it can not be instrumented. Classes the CMR already defined the instrumentation for are never
+	 * skipped.
+	 *
+	 * @param className
+	 *            Fully qualified name of the class.
+	 * @param classReader
+	 *            Reader over the byte code of the class.
+	 * @return <code>true</code> if the class can not be instrumented.
+	 * @throws StorageException
+	 *             If agent configuration is not set.
+	 */
+	public boolean isPrefiltered(String className, ClassReader classReader) throws StorageException {
+		InstrumentationPrefilter prefilter = configurationStorage.getInstrumentationPrefilter();
+		if (null == prefilter) {
+			return false;
+		}
+
+		List<String> superNames = new ArrayList<String>();
+		if (null != classReader.getSuperName()) {
+			superNames.add(classReader.getSuperName().replace('/', '.'));
+		}
+		for (String interfaceName : classReader.getInterfaces()) {
+			superNames.add(interfaceName.replace('/', '.'));
+		}
+
+		boolean referencesMatch = prefilter.isAnnotations() && referencesMatchingType(prefilter, classReader);
+		Boolean mightMatch = evaluatePrefilter(prefilter, className, superNames, referencesMatch);
+		if (Boolean.FALSE.equals(mightMatch) && (null == classHashHelper.getInstrumentationDefinition(className))) {
+			filteredClassCount.incrementAndGet();
+			return true;
+		}
+
+		analyzedClassCount.incrementAndGet();
+		return false;
+	}
+
+	/**
+	 * Returns if the type might be instrumented. All super-types of the type must have been passed
+	 * to this method before.
+	 *
+	 * @param type
+	 *            Type parsed from the byte code.
+	 * @return <code>true</code> if the type might be instrumented, <code>false</code> if it can
+	 *         not match any of the sensor assignments.
+	 * @throws StorageException
+	 *             If agent configuration is not set.
+	 */
+	public boolean isCandidate(Type type) throws StorageException {
+		Collection<IMatchPattern> classCandidatePatterns = configurationStorage.getClassCandidatePatterns();
+		if (null == classCandidatePatterns) {
+			return true;
+		}
+
+		// super-types are analyzed now, so remember the prefilter state if not known yet
+		InstrumentationPrefilter prefilter = configurationStorage.getInstrumentationPrefilter();
+		if ((null != prefilter) && !prefilterHierarchy.containsKey(type.getFQN())) {
+			List<String> superNames = new ArrayList<String>();
+			for (Type superType : type.getDependingTypes()) {
+				superNames.add(superType.getFQN());
+			}
+			evaluatePrefilter(prefilter, type.getFQN(), superNames, prefilter.isAnnotations() && matchesAnnotations(prefilter, type));
+		}
+
+		if (isHierarchyCandidate(type, configurationStorage.getHierarchyCandidatePatterns())) {
+			hierarchyCandidates.add(type.getFQN());
+			return true;
+		}
+
+		return matches(classCandidatePatterns, type.getFQN());
+	}
+
+	/**
+	 * Returns if the type is a hierarchy candidate.
+	 *
+	 * @param type
+	 *            Type to check.
+	 * @param patterns
+	 *            Hierarchy candidate patterns.
+	 * @return If type or any of its super-types match the patterns.
+	 */
+	private boolean isHierarchyCandidate(Type type, Collection<IMatchPattern> patterns) {
+		if (patterns.isEmpty()) {
+			return false;
+		}
+
+		if (matches(patterns, type.getFQN()) || matchesAnnotations(patterns, type.getAnnotations())) {
+			return true;
+		}
+
+		if (type instanceof TypeWithMethods) {
+			for (MethodType methodType : ((TypeWithMethods) type).getMethods()) {
+				if (matchesAnnotations(patterns, methodType.getAnnotations())) {
+					return true;
+				}
+			}
+		}
+
+		for (Type superType : type.getDependingTypes()) {
+			if (hierarchyCandidates.contains(superType.getFQN()) || matches(patterns, superType.getFQN())) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Evaluates the prefilter for the type and remembers the result if it's known.
+	 *
+	 * @param prefilter
+	 *            {@link InstrumentationPrefilter}
+	 * @param className
+	 *            Name of the type.
+	 * @param superNames
+	 *            Names of the direct super-class and interfaces.
+	 * @param referencesMatch
+	 *            If any of the annotations or referenced types matches the prefilter.
+	 * @return <code>true</code> if the type might match, <code>false</code> if it can not match
+	 *         or <code>null</code> if unknown because some super-types were not seen yet.
+	 */
+	private Boolean evaluatePrefilter(InstrumentationPrefilter prefilter, String className, Collection<String> superNames, boolean referencesMatch) {
+		boolean mightMatch = referencesMatch || prefilter.mightMatch(className);
+		boolean known = true;
+		for (String superName : superNames) {
+			if (mightMatch) {
+				break;
+			}
+			if (prefilter.mightMatch(superName)) {
+				mightMatch = true;
+			} else {
+				Boolean superMightMatch = prefilterHierarchy.get(superName);
+				if (null == superMightMatch) {
+					known = false;
+				} else if (superMightMatch.booleanValue()) {
+					mightMatch = true;
+				}
+			}
+		}
+
+		if (mightMatch) {
+			// other class loaders might define a different class with same name
+			prefilterHierarchy.put(className, Boolean.TRUE);
+			return Boolean.TRUE;
+		} else if (known) {
+			prefilterHierarchy.putIfAbsent(className, Boolean.FALSE);
+			return Boolean.FALSE;
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns if any of the types referenced in the constant pool of the class might match the
+	 * prefilter. This covers all annotations of the class, its methods and fields, as annotation
+	 * types are referenced with their descriptors. Entries with characters that are not ASCII are
+	 * always treated as a match.
+	 *
+	 * @param prefilter
+	 *            {@link InstrumentationPrefilter}
+	 * @param classReader
+	 *            Reader over the byte code of the class.
+	 * @return If any referenced type might match.
+	 */
+	private boolean referencesMatchingType(InstrumentationPrefilter prefilter, ClassReader classReader) {
+		byte[] b = classReader.b;
+		for (int i = 1; i < classReader.getItemCount(); i++) {
+			int index = classReader.getItem(i);
+			if ((0 == index) || (UTF8_TAG != b[index - 1])) {
+				continue;
+			}
+
+			// only descriptors of the object types
+			int length = classReader.readUnsignedShort(index);
+			int start = index + 2;
+			if ((length < 3) || ('L' != b[start]) || (';' != b[(start + length) - 1])) {
+				continue;
+			}
+
+			char[] chars = new char[length - 2];
+			for (int j = 0; j < chars.length; j++) {
+				byte c = b[start + 1 + j];
+				if (c <= 0) {
+					return true;
+				}
+				chars[j] = ('/' == c) ? '.' : (char) c;
+			}
+			if (prefilter.mightMatch(new String(chars))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns if any of the annotations of the type or its methods might match the prefilter.
+	 *
+	 * @param prefilter
+	 *            {@link InstrumentationPrefilter}
+	 * @param type
+	 *            Type to check.
+	 * @return If any annotation might match.
+	 */
+	private boolean matchesAnnotations(InstrumentationPrefilter prefilter, Type type) {
+		List<AnnotationType> annotations = new ArrayList<AnnotationType>(type.getAnnotations());
+		if (type instanceof TypeWithMethods) {
+			for (MethodType methodType : ((TypeWithMethods) type).getMethods()) {
+				annotations.addAll(methodType.getAnnotations());
+			}
+		}
+		for (AnnotationType annotationType : annotations) {
+			if (prefilter.mightMatch(annotationType.getFQN())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns if any of the annotations matches the patterns.
+	 *
+	 * @param patterns
+	 *            Patterns.
+	 * @param annotations
+	 *            Annotations, can be <code>null</code>.
+	 * @return If one of the annotations matches.
+	 */
+	private boolean matchesAnnotations(Collection<IMatchPattern> patterns, Collection<AnnotationType> annotations) {
+		if (null != annotations) {
+			for (AnnotationType annotationType : annotations) {
+				if (matches(patterns, annotationType.getFQN())) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns if the name matches any of the patterns.
+	 *
+	 * @param patterns
+	 *            Patterns.
+	 * @param name
+	 *            Name to check.
+	 * @return If one of the patterns matches.
+	 */
+	private boolean matches(Collection<IMatchPattern> patterns, String name) {
+		for (IMatchPattern pattern : patterns) {
+			if (pattern.match(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Gets {@link #filteredClassCount}.
+	 *
+	 * @return {@link #filteredClassCount}
+	 */
+	public long getFilteredClassCount() {
+		return filteredClassCount.get();
+	}
+
+	/**
+	 * Gets {@link #analyzedClassCount}.
+	 *
+	 * @return {@link #analyzedClassCount}
+	 */
+	public long getAnalyzedClassCount() {
+		return analyzedClassCount.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Logs the prefilter counters.
+	 */
+	@Override
+	public void destroy() throws Exception {
+		if (log.isInfoEnabled()) {
+			log.info("Instrumentation prefilter skipped " + filteredClassCount.get() + " classes, " + analyzedClassCount.get() + " classes were analyzed.");
+		}
+	}
+
+}
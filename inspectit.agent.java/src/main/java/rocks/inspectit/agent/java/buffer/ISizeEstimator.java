@@ -0,0 +1,23 @@
+package rocks.inspectit.agent.java.buffer;
+
+/**
+ * Estimates the size of objects in bytes. Implementations should be cheap enough to be called for
+ * every object passed to a buffer strategy.
+ *
+ * @author agent
+ *
+ * @param <E>
+ *            Type of objects to estimate.
+ */
+public interface ISizeEstimator<E> {
+
+	/**
+	 * Returns the estimated size of the object in bytes.
+	 *
+	 * @param object
+	 *            Object to estimate, can be <code>null</code>.
+	 * @return Estimated size in bytes.
+	 */
+	long estimateSize(E object);
+
+}
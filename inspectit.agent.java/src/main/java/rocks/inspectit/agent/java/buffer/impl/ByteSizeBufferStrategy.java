@@ -0,0 +1,204 @@
+package rocks.inspectit.agent.java.buffer.impl;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+
+import rocks.inspectit.agent.java.buffer.AbstractBufferStrategy;
+import rocks.inspectit.agent.java.buffer.IBufferStrategy;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.spring.logger.Log;
+
+/**
+ * This implementation holds the lists of measurements as long as their estimated serialized size
+ * fits into the configured byte budget. When the budget is exceeded the oldest lists are dropped.
+ * The newest list is always kept, even if it alone exceeds the budget. Lists are returned newest
+ * first, the same way as in the {@link SizeBufferStrategy}.
+ * <p>
+ * The size of each list is estimated with the {@link DefaultDataSizeEstimator} when the list is
+ * added. The current and the peak footprint of the buffer can be queried to size the agent heap.
+ *
+ * @author agent
+ *
+ */
+public class ByteSizeBufferStrategy extends AbstractBufferStrategy<DefaultData> implements IBufferStrategy<DefaultData> {
+
+	/**
+	 * The logger of the class.
+	 */
+	@Log
+	Logger log;
+
+	/**
+	 * The default budget in megabytes if none is specified.
+	 */
+	private static final long DEFAULT_BUDGET = 16;
+
+	/**
+	 * Bytes in one megabyte.
+	 */
+	private static final long MEGABYTE = 1024L * 1024L;
+
+	/**
+	 * Estimator for the list sizes.
+	 */
+	private final DefaultDataSizeEstimator sizeEstimator = new DefaultDataSizeEstimator();
+
+	/**
+	 * The linked list containing the FILO stack.
+	 */
+	private final LinkedList<SizedList> stack = new LinkedList<SizedList>(); // NOPMD
+
+	/**
+	 * The budget in bytes.
+	 */
+	private long budget = DEFAULT_BUDGET * MEGABYTE;
+
+	/**
+	 * Estimated bytes of all lists currently in the buffer.
+	 */
+	private long currentBytes;
+
+	/**
+	 * Maximum of the {@link #currentBytes}.
+	 */
+	private long peakBytes;
+
+	/**
+	 * Estimated bytes of all dropped lists.
+	 */
+	private long droppedBytes;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void addMeasurements(List<DefaultData> measurements) {
+		if (null == measurements) {
+			throw new IllegalArgumentException("Measurements cannot be null!");
+		}
+
+		long size = sizeEstimator.estimateSize(measurements);
+
+		synchronized (this) {
+			long dropped = 0;
+			while (!stack.isEmpty() && ((currentBytes + size) > budget)) {
+				// drop the oldest lists, because we can not let the data pile up if the sending of
+				// the data is not fast enough
+				SizedList oldest = stack.removeFirst();
+				currentBytes -= oldest.size;
+				dropped += oldest.size;
+			}
+
+			stack.addLast(new SizedList(measurements, size));
+			currentBytes += size;
+			if (currentBytes > peakBytes) {
+				peakBytes = currentBytes;
+			}
+
+			if (dropped > 0) {
+				droppedBytes += dropped;
+				log.info("Possible data loss due to the excessive data creation on the Agent! Dropped " + dropped + " bytes, current buffer size " + currentBytes + " bytes, peak buffer size "
+						+ peakBytes + " bytes.");
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized boolean hasNext() {
+		return !stack.isEmpty();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized List<DefaultData> next() {
+		SizedList newest = stack.removeLast();
+		currentBytes -= newest.size;
+		return newest.measurements;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void init(Map<String, String> settings) {
+		if (settings.containsKey("budget")) {
+			this.budget = Long.parseLong(settings.get("budget")) * MEGABYTE;
+		}
+	}
+
+	/**
+	 * Returns the estimated bytes of all lists currently in the buffer.
+	 *
+	 * @return Returns the estimated bytes of all lists currently in the buffer.
+	 */
+	public synchronized long getCurrentBytes() {
+		return currentBytes;
+	}
+
+	/**
+	 * Returns the maximum estimated bytes that were in the buffer at once.
+	 *
+	 * @return Returns the maximum estimated bytes that were in the buffer at once.
+	 */
+	public synchronized long getPeakBytes() {
+		return peakBytes;
+	}
+
+	/**
+	 * Returns the estimated bytes of all lists that were dropped.
+	 *
+	 * @return Returns the estimated bytes of all lists that were dropped.
+	 */
+	public synchronized long getDroppedBytes() {
+		return droppedBytes;
+	}
+
+	/**
+	 * List of measurements with the estimated size.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static class SizedList {
+
+		/**
+		 * Measurements.
+		 */
+		private final List<DefaultData> measurements;
+
+		/**
+		 * Estimated size in bytes.
+		 */
+		private final long size;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param measurements
+		 *            Measurements.
+		 * @param size
+		 *            Estimated size in bytes.
+		 */
+		SizedList(List<DefaultData> measurements, long size) {
+			this.measurements = measurements;
+			this.size = size;
+		}
+	}
+
+}
@@ -0,0 +1,520 @@
+package rocks.inspectit.agent.java.buffer.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import rocks.inspectit.agent.java.buffer.ISizeEstimator;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.MethodSensorData;
+import rocks.inspectit.shared.all.communication.SystemSensorData;
+import rocks.inspectit.shared.all.communication.data.CpuInformationData;
+import rocks.inspectit.shared.all.communication.data.ExceptionSensorData;
+import rocks.inspectit.shared.all.communication.data.HttpInfo;
+import rocks.inspectit.shared.all.communication.data.HttpTimerData;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.JmxSensorValueData;
+import rocks.inspectit.shared.all.communication.data.LoggingData;
+import rocks.inspectit.shared.all.communication.data.MemoryInformationData;
+import rocks.inspectit.shared.all.communication.data.ParameterContentData;
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+
+/**
+ * Estimates the serialized size of the measurements in bytes without serializing them.
+ * <p>
+ * The constants follow the encoding of the
+ * {@link rocks.inspectit.shared.all.serializer.impl.SerializationManager}: every object is
+ * written with its class id (references are not tracked for the measurements), every field of the
+ * compatible field serializer is written as a chunk with length and end marker, longs and ints as
+ * variable length values, doubles with 8 bytes and strings with a null marker or their (mostly
+ * ASCII) characters. The field markers of a class are written once per serialized graph. The fixed
+ * size of a type counts every field with its smallest value, so <code>null</code> for all
+ * references, and the content of the strings, collections and referenced objects is added by
+ * walking it. A string instance occurring again in the same graph is written as a reference, this
+ * is only considered for the exception chains, so lists repeating the same strings are rather
+ * overestimated. The estimation does not allocate any objects.
+ *
+ * @author agent
+ *
+ */
+public class DefaultDataSizeEstimator implements ISizeEstimator<DefaultData> {
+
+	/**
+	 * Class id of an object.
+	 */
+	static final int OBJECT_OVERHEAD = 1;
+
+	/**
+	 * Chunk length and end marker of a field.
+	 */
+	static final int FIELD_OVERHEAD = 2;
+
+	/**
+	 * Size of a field holding a <code>null</code> reference, a flag, an enumeration or a number
+	 * that is zero on the agent.
+	 */
+	static final int SMALL_FIELD = FIELD_OVERHEAD + 1;
+
+	/**
+	 * Size of a field holding an id (variable length long, usually small).
+	 */
+	static final int ID_FIELD = FIELD_OVERHEAD + 2;
+
+	/**
+	 * Size of a field holding a counter (variable length long or int).
+	 */
+	static final int COUNT_FIELD = FIELD_OVERHEAD + 2;
+
+	/**
+	 * Size of a field holding a large variable length long, like a time in nanoseconds or a
+	 * memory size in bytes.
+	 */
+	static final int LONG_FIELD = FIELD_OVERHEAD + 5;
+
+	/**
+	 * Size of a field holding a float.
+	 */
+	static final int FLOAT_FIELD = FIELD_OVERHEAD + 4;
+
+	/**
+	 * Size of a field holding a double.
+	 */
+	static final int DOUBLE_FIELD = FIELD_OVERHEAD + 8;
+
+	/**
+	 * Size of a field holding a time stamp (reference marker, class id and variable length long).
+	 */
+	static final int TIMESTAMP_FIELD = FIELD_OVERHEAD + 8;
+
+	/**
+	 * Size of the class id and the size of a collection or map, in addition to the
+	 * <code>null</code> marker counted in the fixed size.
+	 */
+	static final int COLLECTION_OVERHEAD = 2;
+
+	/**
+	 * Size of the class id of a string being an element of a collection or map.
+	 */
+	static final int STRING_ELEMENT_OVERHEAD = 1;
+
+	/**
+	 * Size of a reference to a string already written in the same graph.
+	 */
+	static final int STRING_REFERENCE_SIZE = 1;
+
+	/**
+	 * Size of the field markers of one class, written once per serialized graph (amount of fields
+	 * and one marker for each of the about 20 fields).
+	 */
+	static final int FIELD_MARKERS_SIZE = 1 + 20;
+
+	/**
+	 * Size of the fields defined in {@link DefaultData} (the id is not set on the agent).
+	 */
+	static final int DEFAULT_DATA_SIZE = OBJECT_OVERHEAD + SMALL_FIELD + (2 * ID_FIELD) + TIMESTAMP_FIELD;
+
+	/**
+	 * Size of the fields defined in {@link MethodSensorData} without the parameter contents.
+	 */
+	static final int METHOD_SENSOR_DATA_SIZE = DEFAULT_DATA_SIZE + ID_FIELD + SMALL_FIELD;
+
+	/**
+	 * Size of the fields defined in the invocation aware data (the map of the invocation parents
+	 * is not set on the agent).
+	 */
+	static final int INVOCATION_AWARE_DATA_SIZE = METHOD_SENSOR_DATA_SIZE + SMALL_FIELD;
+
+	/**
+	 * Size of the fixed part of the {@link TimerData} (10 doubles, the count, exclusive count and
+	 * CPU count, the charting flag and the histogram reference).
+	 */
+	static final int TIMER_DATA_SIZE = INVOCATION_AWARE_DATA_SIZE + (10 * DOUBLE_FIELD) + (3 * COUNT_FIELD) + (2 * SMALL_FIELD);
+
+	/**
+	 * Size of one histogram bucket (variable length long, usually small).
+	 */
+	static final int HISTOGRAM_BUCKET_SIZE = 2;
+
+	/**
+	 * Size of the fixed part of the {@link SqlStatementData} (the 4 strings, the prepared
+	 * statement flag, the parameter values reference and the SQL id).
+	 */
+	static final int SQL_STATEMENT_DATA_SIZE = TIMER_DATA_SIZE + (6 * SMALL_FIELD) + ID_FIELD;
+
+	/**
+	 * Size of the fixed part of the {@link HttpTimerData} (the 4 maps, the HTTP info reference
+	 * and the response status).
+	 */
+	static final int HTTP_TIMER_DATA_SIZE = TIMER_DATA_SIZE + (5 * SMALL_FIELD) + COUNT_FIELD;
+
+	/**
+	 * Size of the fixed part of the {@link HttpInfo} (id and the 3 strings).
+	 */
+	static final int HTTP_INFO_SIZE = OBJECT_OVERHEAD + (4 * SMALL_FIELD);
+
+	/**
+	 * Size of the fixed part of the {@link InvocationSequenceData} (6 doubles, position, child
+	 * count and loop count, the empty list of the nested sequences, the references to the
+	 * optional objects, the two flags and the application and business transaction ids).
+	 */
+	static final int INVOCATION_SEQUENCE_DATA_SIZE = METHOD_SENSOR_DATA_SIZE + (6 * DOUBLE_FIELD) + (3 * COUNT_FIELD) + SMALL_FIELD + COLLECTION_OVERHEAD + (9 * SMALL_FIELD);
+
+	/**
+	 * Size of the fixed part of the {@link ExceptionSensorData} (the 4 strings, the event, the
+	 * child reference, the identity hash code and the stack trace id).
+	 */
+	static final int EXCEPTION_SENSOR_DATA_SIZE = INVOCATION_AWARE_DATA_SIZE + (6 * SMALL_FIELD) + (FIELD_OVERHEAD + 5) + ID_FIELD;
+
+	/**
+	 * Size of the fixed part of the {@link LoggingData} (level and message).
+	 */
+	static final int LOGGING_DATA_SIZE = INVOCATION_AWARE_DATA_SIZE + (2 * SMALL_FIELD);
+
+	/**
+	 * Size of the span ident, whose three random 64 bit ids need the maximum length.
+	 */
+	static final int SPAN_IDENT_SIZE = OBJECT_OVERHEAD + (3 * (FIELD_OVERHEAD + 9));
+
+	/**
+	 * Size of the fixed part of the {@link JmxSensorValueData} (definition id, value, aggregation
+	 * count and 3 doubles).
+	 */
+	static final int JMX_SENSOR_VALUE_DATA_SIZE = DEFAULT_DATA_SIZE + ID_FIELD + SMALL_FIELD + COUNT_FIELD + (3 * DOUBLE_FIELD);
+
+	/**
+	 * Size of the fixed part of the {@link ParameterContentData} (id, method sensor id, name,
+	 * content, signature position and content type).
+	 */
+	static final int PARAMETER_CONTENT_DATA_SIZE = OBJECT_OVERHEAD + SMALL_FIELD + ID_FIELD + (2 * SMALL_FIELD) + COUNT_FIELD + SMALL_FIELD;
+
+	/**
+	 * Size of the {@link CpuInformationData} (count, process CPU time and 3 floats).
+	 */
+	static final int CPU_INFORMATION_DATA_SIZE = DEFAULT_DATA_SIZE + COUNT_FIELD + LONG_FIELD + (3 * FLOAT_FIELD);
+
+	/**
+	 * Size of the {@link MemoryInformationData} (count and 21 memory sizes).
+	 */
+	static final int MEMORY_INFORMATION_DATA_SIZE = DEFAULT_DATA_SIZE + COUNT_FIELD + (21 * LONG_FIELD);
+
+	/**
+	 * Average size of the other platform sensor data, which only hold about 10 counters each.
+	 */
+	static final int SYSTEM_SENSOR_DATA_SIZE = DEFAULT_DATA_SIZE + (10 * (FIELD_OVERHEAD + 3));
+
+	/**
+	 * Size of the list holding the measurements.
+	 */
+	static final int LIST_OVERHEAD = OBJECT_OVERHEAD + 2;
+
+	/**
+	 * Returns the estimated size of the list of measurements in bytes. The field markers are
+	 * counted every time the class changes in the list, so interleaved lists are rather
+	 * overestimated.
+	 *
+	 * @param measurements
+	 *            List of measurements.
+	 * @return Estimated size in bytes.
+	 */
+	public long estimateSize(List<? extends DefaultData> measurements) {
+		long size = LIST_OVERHEAD;
+		Class<?> previousClass = null;
+		for (DefaultData defaultData : measurements) {
+			size += estimateSize(defaultData);
+			if ((null != defaultData) && (defaultData.getClass() != previousClass)) {
+				size += FIELD_MARKERS_SIZE;
+				previousClass = defaultData.getClass();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The field markers of the class are not included, as they are written only once per
+	 * serialized graph.
+	 */
+	@Override
+	public long estimateSize(DefaultData defaultData) {
+		if (null == defaultData) {
+			return 1;
+		}
+
+		if (defaultData instanceof InvocationSequenceData) {
+			return estimateInvocationSequence((InvocationSequenceData) defaultData);
+		} else if (defaultData instanceof SqlStatementData) {
+			return estimateSqlStatement((SqlStatementData) defaultData);
+		} else if (defaultData instanceof HttpTimerData) {
+			return estimateHttpTimer((HttpTimerData) defaultData);
+		} else if (defaultData instanceof TimerData) {
+			return TIMER_DATA_SIZE + estimateHistogram((TimerData) defaultData) + estimateParameterContents((MethodSensorData) defaultData);
+		} else if (defaultData instanceof ExceptionSensorData) {
+			return estimateException((ExceptionSensorData) defaultData);
+		} else if (defaultData instanceof LoggingData) {
+			return estimateLogging((LoggingData) defaultData);
+		} else if (defaultData instanceof JmxSensorValueData) {
+			return JMX_SENSOR_VALUE_DATA_SIZE + estimateString(((JmxSensorValueData) defaultData).getValue());
+		} else if (defaultData instanceof CpuInformationData) {
+			return CPU_INFORMATION_DATA_SIZE;
+		} else if (defaultData instanceof MemoryInformationData) {
+			return MEMORY_INFORMATION_DATA_SIZE;
+		} else if (defaultData instanceof SystemSensorData) {
+			return SYSTEM_SENSOR_DATA_SIZE;
+		} else if (defaultData instanceof MethodSensorData) {
+			return METHOD_SENSOR_DATA_SIZE + estimateParameterContents((MethodSensorData) defaultData);
+		}
+		return DEFAULT_DATA_SIZE;
+	}
+
+	/**
+	 * Estimates the invocation sequence including all nested sequences and the data attached to
+	 * them.
+	 *
+	 * @param invocation
+	 *            Invocation sequence.
+	 * @return Estimated size in bytes.
+	 */
+	private long estimateInvocationSequence(InvocationSequenceData invocation) {
+		long size = INVOCATION_SEQUENCE_DATA_SIZE + estimateParameterContents(invocation);
+		if (null != invocation.getTimerData()) {
+			size += estimateSize(invocation.getTimerData());
+		}
+		if (null != invocation.getSqlStatementData()) {
+			size += estimateSize(invocation.getSqlStatementData());
+		}
+		List<ExceptionSensorData> exceptions = invocation.getExceptionSensorDataObjects();
+		if (null != exceptions) {
+			size += COLLECTION_OVERHEAD;
+			for (ExceptionSensorData exception : exceptions) {
+				size += estimateException(exception);
+			}
+		}
+		if (null != invocation.getLoggingData()) {
+			size += estimateLogging(invocation.getLoggingData());
+		}
+		if (null != invocation.getSpanIdent()) {
+			size += SPAN_IDENT_SIZE;
+		}
+		List<InvocationSequenceData> nestedSequences = invocation.getNestedSequences();
+		if (null != nestedSequences) {
+			for (InvocationSequenceData nested : nestedSequences) {
+				size += estimateInvocationSequence(nested);
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Estimates the SQL statement data.
+	 *
+	 * @param sqlStatementData
+	 *            SQL statement data.
+	 * @return Estimated size in bytes.
+	 */
+	private long estimateSqlStatement(SqlStatementData sqlStatementData) {
+		long size = SQL_STATEMENT_DATA_SIZE + estimateHistogram(sqlStatementData) + estimateParameterContents(sqlStatementData);
+		size += estimateString(sqlStatementData.getSql());
+		size += estimateString(sqlStatementData.getDatabaseUrl());
+		size += estimateString(sqlStatementData.getDatabaseProductName());
+		size += estimateString(sqlStatementData.getDatabaseProductVersion());
+		size += estimateStrings(sqlStatementData.getParameterValues());
+		return size;
+	}
+
+	/**
+	 * Estimates the HTTP timer data.
+	 *
+	 * @param httpTimerData
+	 *            HTTP timer data.
+	 * @return Estimated size in bytes.
+	 */
+	private long estimateHttpTimer(HttpTimerData httpTimerData) {
+		long size = HTTP_TIMER_DATA_SIZE + estimateHistogram(httpTimerData) + estimateParameterContents(httpTimerData);
+		size += estimateStringMap(httpTimerData.getAttributes());
+		size += estimateStringMap(httpTimerData.getHeaders());
+		size += estimateStringMap(httpTimerData.getSessionAttributes());
+
+		Map<String, String[]> parameters = httpTimerData.getParameters();
+		if (null != parameters) {
+			size += COLLECTION_OVERHEAD;
+			for (Entry<String, String[]> entry : parameters.entrySet()) {
+				size += estimateStringElement(entry.getKey()) + OBJECT_OVERHEAD;
+				String[] values = entry.getValue();
+				if (null != values) {
+					size += 1;
+					for (String value : values) {
+						size += 1 + estimateString(value);
+					}
+				}
+			}
+		}
+
+		HttpInfo httpInfo = httpTimerData.getHttpInfo();
+		if (null != httpInfo) {
+			size += HTTP_INFO_SIZE + estimateString(httpInfo.getUri()) + estimateString(httpInfo.getRequestMethod()) + estimateString(httpInfo.getInspectItTaggingHeaderValue());
+		}
+		return size;
+	}
+
+	/**
+	 * Estimates the exception sensor data including the child. The child usually holds the same
+	 * message and type strings as its parent, these are written as references.
+	 *
+	 * @param exceptionSensorData
+	 *            Exception sensor data.
+	 * @return Estimated size in bytes.
+	 */
+	private long estimateException(ExceptionSensorData exceptionSensorData) {
+		long size = 0;
+		ExceptionSensorData parent = null;
+		ExceptionSensorData current = exceptionSensorData;
+		while (null != current) {
+			size += EXCEPTION_SENSOR_DATA_SIZE + estimateParameterContents(current);
+			if (null == parent) {
+				size += estimateString(current.getErrorMessage());
+				size += estimateString(current.getCause());
+				size += estimateString(current.getStackTrace());
+				size += estimateString(current.getThrowableType());
+			} else {
+				size += estimateString(current.getErrorMessage(), parent.getErrorMessage());
+				size += estimateString(current.getCause(), parent.getCause());
+				size += estimateString(current.getStackTrace(), parent.getStackTrace());
+				size += estimateString(current.getThrowableType(), parent.getThrowableType());
+			}
+			parent = current;
+			current = current.getChild();
+		}
+		return size;
+	}
+
+	/**
+	 * Estimates the logging data.
+	 *
+	 * @param loggingData
+	 *            Logging data.
+	 * @return Estimated size in bytes.
+	 */
+	private long estimateLogging(LoggingData loggingData) {
+		return LOGGING_DATA_SIZE + estimateParameterContents(loggingData) + estimateString(loggingData.getLevel()) + estimateString(loggingData.getMessage());
+	}
+
+	/**
+	 * Estimates the parameter contents of the method sensor data.
+	 *
+	 * @param methodSensorData
+	 *            Method sensor data.
+	 * @return Estimated size in bytes, without the <code>null</code> marker of the field.
+	 */
+	private long estimateParameterContents(MethodSensorData methodSensorData) {
+		Collection<ParameterContentData> parameterContents = methodSensorData.getParameterContentData();
+		if (null == parameterContents) {
+			return 0;
+		}
+		long size = COLLECTION_OVERHEAD;
+		for (ParameterContentData parameterContent : parameterContents) {
+			size += PARAMETER_CONTENT_DATA_SIZE + estimateString(parameterContent.getName()) + estimateString(parameterContent.getContent());
+		}
+		return size;
+	}
+
+	/**
+	 * Estimates the histogram buckets of the timer data.
+	 *
+	 * @param timerData
+	 *            Timer data.
+	 * @return Estimated size in bytes, without the <code>null</code> marker of the field.
+	 */
+	private long estimateHistogram(TimerData timerData) {
+		long[] histogram = timerData.getHistogram();
+		if (null == histogram) {
+			return 0;
+		}
+		return 1 + (histogram.length * HISTOGRAM_BUCKET_SIZE);
+	}
+
+	/**
+	 * Estimates the collection of strings.
+	 *
+	 * @param strings
+	 *            Strings, can be <code>null</code>.
+	 * @return Estimated size in bytes, without the <code>null</code> marker of the field.
+	 */
+	private long estimateStrings(Collection<String> strings) {
+		if (null == strings) {
+			return 0;
+		}
+		long size = COLLECTION_OVERHEAD;
+		for (String string : strings) {
+			size += estimateStringElement(string);
+		}
+		return size;
+	}
+
+	/**
+	 * Estimates the map of strings.
+	 *
+	 * @param map
+	 *            Map, can be <code>null</code>.
+	 * @return Estimated size in bytes, without the <code>null</code> marker of the field.
+	 */
+	private long estimateStringMap(Map<String, String> map) {
+		if (null == map) {
+			return 0;
+		}
+		long size = COLLECTION_OVERHEAD;
+		for (Entry<String, String> entry : map.entrySet()) {
+			size += estimateStringElement(entry.getKey()) + estimateStringElement(entry.getValue());
+		}
+		return size;
+	}
+
+	/**
+	 * Estimates the string being an element of a collection or map.
+	 *
+	 * @param string
+	 *            String, can be <code>null</code>.
+	 * @return Estimated size in bytes.
+	 */
+	private long estimateStringElement(String string) {
+		if (null == string) {
+			return 1;
+		}
+		return STRING_ELEMENT_OVERHEAD + Math.max(1, string.length());
+	}
+
+	/**
+	 * Estimates the characters of the string, assuming mostly ASCII characters. The length of the
+	 * string is covered by the <code>null</code> marker counted in the fixed size.
+	 *
+	 * @param string
+	 *            String, can be <code>null</code>.
+	 * @return Estimated size in bytes, without the <code>null</code> marker.
+	 */
+	private long estimateString(String string) {
+		if (null == string) {
+			return 0;
+		}
+		return string.length();
+	}
+
+	/**
+	 * Estimates the characters of the string that is a reference if it's the same instance as the
+	 * string already written.
+	 *
+	 * @param string
+	 *            String, can be <code>null</code>.
+	 * @param writtenString
+	 *            String already written in the same graph, can be <code>null</code>.
+	 * @return Estimated size in bytes, without the <code>null</code> marker.
+	 */
+	private long estimateString(String string, String writtenString) {
+		if ((null != string) && (string == writtenString)) { // NOPMD == on purpose
+			return STRING_REFERENCE_SIZE;
+		}
+		return estimateString(string);
+	}
+
+}
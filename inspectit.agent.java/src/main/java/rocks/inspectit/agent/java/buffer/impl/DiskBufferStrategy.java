@@ -0,0 +1,356 @@
+package rocks.inspectit.agent.java.buffer.impl;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import rocks.inspectit.agent.java.buffer.AbstractBufferStrategy;
+import rocks.inspectit.agent.java.buffer.IBufferStrategy;
+import rocks.inspectit.agent.java.connection.IConnection;
+import rocks.inspectit.agent.java.io.FileResolver;
+import rocks.inspectit.agent.java.spring.PrototypesProvider;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.serializer.SerializationException;
+import rocks.inspectit.shared.all.serializer.impl.SerializationManager;
+import rocks.inspectit.shared.all.spring.logger.Log;
+
+/**
+ * Buffer strategy that holds the given number of measurement lists in memory and spills the oldest
+ * ones to the disk when the memory buffer is full, f.e. when the CMR is not reachable. Spilled
+ * lists are serialized with the {@link SerializationManager} into the {@link MappedSegmentQueue}
+ * located in the {@link FileResolver#getBufferSpillDirectory()} which is bounded by the disk
+ * quota.
+ * <p>
+ * Lists are returned in the order they were added. Spilled lists are read from the disk only when
+ * the connection is established, thus they are replayed as soon as the CMR is reachable again.
+ *
+ * @author agent
+ *
+ */
+public class DiskBufferStrategy extends AbstractBufferStrategy<DefaultData> implements IBufferStrategy<DefaultData>, DisposableBean {
+
+	/**
+	 * The logger of the class.
+	 */
+	@Log
+	Logger log;
+
+	/**
+	 * The default count of lists in memory if none is specified.
+	 */
+	private static final int DEFAULT_SIZE = 12;
+
+	/**
+	 * The default disk quota in megabytes if none is specified.
+	 */
+	private static final long DEFAULT_DISK_QUOTA = 128;
+
+	/**
+	 * Maximum size of one segment file in bytes.
+	 */
+	private static final int SEGMENT_SIZE = 8 * 1024 * 1024;
+
+	/**
+	 * Minimum number of segments the disk quota is split into, so that exceeding the quota drops
+	 * only a part of the spilled data.
+	 */
+	private static final int MIN_SEGMENTS = 4;
+
+	/**
+	 * Initial size of the serialization buffer.
+	 */
+	private static final int SERIALIZATION_BUFFER_SIZE = 8192;
+
+	/**
+	 * Bytes in one megabyte.
+	 */
+	private static final long MEGABYTE = 1024L * 1024L;
+
+	/**
+	 * File resolver for the spill directory.
+	 */
+	@Autowired
+	private FileResolver fileResolver;
+
+	/**
+	 * Provider of the serialization manager.
+	 */
+	@Autowired
+	private PrototypesProvider prototypesProvider;
+
+	/**
+	 * Connection to the CMR.
+	 */
+	@Autowired
+	private IConnection connection;
+
+	/**
+	 * Lists held in memory, oldest first.
+	 */
+	private final LinkedList<List<DefaultData>> memoryBuffer = new LinkedList<List<DefaultData>>(); // NOPMD
+
+	/**
+	 * Number of lists held in memory.
+	 */
+	private int size = DEFAULT_SIZE;
+
+	/**
+	 * Disk quota in megabytes.
+	 */
+	private long diskQuota = DEFAULT_DISK_QUOTA;
+
+	/**
+	 * Serialization manager used for the spilling, can only be used when holding the lock.
+	 */
+	private SerializationManager serializationManager;
+
+	/**
+	 * Queue storing the spilled lists.
+	 */
+	private MappedSegmentQueue spillQueue;
+
+	/**
+	 * Number of bytes spilled to the disk.
+	 */
+	private long spilledBytes;
+
+	/**
+	 * Number of bytes replayed from the disk.
+	 */
+	private long replayedBytes;
+
+	/**
+	 * Number of bytes that were dropped because they could not be spilled or replayed.
+	 */
+	private long droppedBytes;
+
+	/**
+	 * Number of lists that were dropped without being serialized.
+	 */
+	private long droppedLists;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void addMeasurements(List<DefaultData> measurements) {
+		if (null == measurements) {
+			throw new IllegalArgumentException("Measurements cannot be null!");
+		}
+
+		synchronized (this) {
+			if (memoryBuffer.size() >= size) {
+				spill(memoryBuffer.removeFirst());
+			}
+			memoryBuffer.addLast(measurements);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Spilled data is only available while connected, as it's only read from disk for sending.
+	 */
+	@Override
+	public synchronized boolean hasNext() {
+		return !memoryBuffer.isEmpty() || isSpilledDataAvailable();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized List<DefaultData> next() {
+		if (isSpilledDataAvailable()) {
+			byte[] bytes = spillQueue.poll();
+			while (null != bytes) {
+				List<DefaultData> measurements = deserialize(bytes);
+				if (null != measurements) {
+					replayedBytes += bytes.length;
+					if (spillQueue.isEmpty()) {
+						log.info("Replayed all spilled data from disk. " + getStatistics());
+					}
+					return measurements;
+				}
+				bytes = spillQueue.poll();
+			}
+		}
+
+		if (!memoryBuffer.isEmpty()) {
+			return memoryBuffer.removeFirst();
+		}
+
+		throw new NoSuchElementException();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void init(Map<String, String> settings) {
+		if (settings.containsKey("size")) {
+			this.size = Integer.parseInt(settings.get("size"));
+		}
+		if (settings.containsKey("diskQuota")) {
+			this.diskQuota = Long.parseLong(settings.get("diskQuota"));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		super.afterPropertiesSet();
+
+		serializationManager = prototypesProvider.createSerializer();
+		long quota = diskQuota * MEGABYTE;
+		int segmentSize = (int) Math.min(SEGMENT_SIZE, quota / MIN_SEGMENTS);
+		spillQueue = new MappedSegmentQueue(fileResolver.getBufferSpillDirectory().getAbsoluteFile(), segmentSize, quota);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void destroy() throws Exception {
+		if (null != spillQueue) {
+			spillQueue.close();
+		}
+	}
+
+	/**
+	 * Returns if the spilled data can be read from disk. Must be called holding the lock.
+	 *
+	 * @return <code>true</code> if there is spilled data and the agent is connected.
+	 */
+	private boolean isSpilledDataAvailable() {
+		return (null != spillQueue) && !spillQueue.isEmpty() && connection.isConnected();
+	}
+
+	/**
+	 * Serializes the list and writes it to the spill queue. Must be called holding the lock.
+	 *
+	 * @param measurements
+	 *            List to spill.
+	 */
+	private void spill(List<DefaultData> measurements) {
+		if (null == spillQueue) {
+			droppedLists++;
+			log.info("Possible data loss due to the excessive data creation on the Agent!");
+			return;
+		}
+
+		byte[] bytes;
+		try {
+			Output output = new Output(SERIALIZATION_BUFFER_SIZE, -1);
+			serializationManager.serialize(measurements, output);
+			bytes = output.toBytes();
+		} catch (SerializationException e) {
+			droppedLists++;
+			log.warn("Unable to serialize measurements for spilling to disk, data is lost.", e);
+			return;
+		}
+
+		long droppedBefore = spillQueue.getDroppedBytes();
+		try {
+			if (spillQueue.offer(bytes)) {
+				spilledBytes += bytes.length;
+			}
+		} catch (IOException e) {
+			droppedBytes += bytes.length;
+			log.warn("Unable to spill measurements to disk, data is lost.", e);
+			return;
+		}
+
+		long droppedNow = spillQueue.getDroppedBytes() - droppedBefore;
+		if (droppedNow > 0) {
+			droppedBytes += droppedNow;
+			log.info("Disk quota for buffering exceeded, possible data loss due to the excessive data creation on the Agent! " + getStatistics());
+		} else if (log.isDebugEnabled()) {
+			log.debug("Spilled " + bytes.length + " bytes of measurements to disk. " + getStatistics());
+		}
+	}
+
+	/**
+	 * Deserializes the list of spilled measurements. Must be called holding the lock.
+	 *
+	 * @param bytes
+	 *            Serialized list.
+	 * @return List or <code>null</code> if deserialization failed.
+	 */
+	@SuppressWarnings("unchecked")
+	private List<DefaultData> deserialize(byte[] bytes) {
+		try {
+			return (List<DefaultData>) serializationManager.deserialize(new Input(bytes));
+		} catch (SerializationException e) {
+			droppedBytes += bytes.length;
+			log.warn("Unable to read spilled measurements from disk, data is lost.", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the statistics of the strategy as string for logging.
+	 *
+	 * @return Returns the statistics of the strategy as string for logging.
+	 */
+	private String getStatistics() {
+		return "Spilled bytes: " + spilledBytes + ", replayed bytes: " + replayedBytes + ", dropped bytes: " + droppedBytes + ", dropped lists: " + droppedLists + ", disk usage: "
+				+ spillQueue.getOccupiedBytes() + " bytes.";
+	}
+
+	/**
+	 * Gets {@link #spilledBytes}.
+	 *
+	 * @return {@link #spilledBytes}
+	 */
+	public synchronized long getSpilledBytes() {
+		return spilledBytes;
+	}
+
+	/**
+	 * Gets {@link #replayedBytes}.
+	 *
+	 * @return {@link #replayedBytes}
+	 */
+	public synchronized long getReplayedBytes() {
+		return replayedBytes;
+	}
+
+	/**
+	 * Gets {@link #droppedBytes}.
+	 *
+	 * @return {@link #droppedBytes}
+	 */
+	public synchronized long getDroppedBytes() {
+		return droppedBytes;
+	}
+
+	/**
+	 * Gets {@link #droppedLists}.
+	 *
+	 * @return {@link #droppedLists}
+	 */
+	public synchronized long getDroppedLists() {
+		return droppedLists;
+	}
+
+}
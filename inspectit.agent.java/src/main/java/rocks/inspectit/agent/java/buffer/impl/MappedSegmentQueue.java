@@ -0,0 +1,435 @@
+package rocks.inspectit.agent.java.buffer.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.LinkedList;
+
+/**
+ * FIFO queue of byte arrays that are stored in memory-mapped segment files in the given
+ * directory. Every entry is written as its length followed by the bytes. A new segment is created
+ * once the current one is full and a segment is deleted as soon as all of its entries have been
+ * read. The total size of all segments is bounded by the quota; if a new segment would exceed it,
+ * the oldest segments are dropped together with the entries that have not been read yet. The
+ * segment size is limited to the quota, so any quota bigger than the entry header can be used.
+ * <p>
+ * The queue is thread-safe.
+ *
+ * @author agent
+ *
+ */
+public class MappedSegmentQueue {
+
+	/**
+	 * Number of bytes used for the length of an entry.
+	 */
+	private static final int ENTRY_HEADER_SIZE = 4;
+
+	/**
+	 * Prefix of the segment file names.
+	 */
+	private static final String SEGMENT_FILE_PREFIX = "segment-";
+
+	/**
+	 * Directory where segments are stored.
+	 */
+	private final File directory;
+
+	/**
+	 * Default size of one segment in bytes, never bigger than the quota.
+	 */
+	private final int segmentSize;
+
+	/**
+	 * Maximum number of bytes all segments can occupy.
+	 */
+	private final long quota;
+
+	/**
+	 * Segments, the first one is read from, the last one is written to.
+	 */
+	private final LinkedList<Segment> segments = new LinkedList<Segment>(); // NOPMD
+
+	/**
+	 * Number of bytes occupied by all segments.
+	 */
+	private long occupiedBytes;
+
+	/**
+	 * Number of entry bytes that were dropped because of the quota.
+	 */
+	private long droppedBytes;
+
+	/**
+	 * Counter used for the segment file names.
+	 */
+	private long segmentCounter;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param directory
+	 *            Directory where segments are stored. Any existing segment files in the directory
+	 *            are deleted.
+	 * @param segmentSize
+	 *            Default size of one segment in bytes. Limited to the quota if bigger.
+	 * @param quota
+	 *            Maximum number of bytes all segments can occupy.
+	 * @throws IllegalArgumentException
+	 *             If segment size or quota are not bigger than the entry header.
+	 */
+	public MappedSegmentQueue(File directory, int segmentSize, long quota) throws IllegalArgumentException {
+		if (segmentSize <= ENTRY_HEADER_SIZE) {
+			throw new IllegalArgumentException("Segment size must be greater than " + ENTRY_HEADER_SIZE + " bytes.");
+		}
+		if (quota <= ENTRY_HEADER_SIZE) {
+			throw new IllegalArgumentException("Quota must be greater than " + ENTRY_HEADER_SIZE + " bytes.");
+		}
+		this.directory = directory;
+		this.segmentSize = (int) Math.min(segmentSize, quota);
+		this.quota = quota;
+		deleteExistingSegmentFiles();
+	}
+
+	/**
+	 * Adds the given bytes to the end of the queue. If the quota does not allow storing of the
+	 * bytes the oldest segments are dropped.
+	 *
+	 * @param bytes
+	 *            Bytes to add.
+	 * @return <code>true</code> if bytes were added, <code>false</code> if bytes are bigger than
+	 *         the complete quota.
+	 * @throws IOException
+	 *             If segment file can not be created.
+	 */
+	public synchronized boolean offer(byte[] bytes) throws IOException {
+		int entrySize = ENTRY_HEADER_SIZE + bytes.length;
+		if (entrySize > quota) {
+			droppedBytes += bytes.length;
+			return false;
+		}
+
+		Segment segment = segments.peekLast();
+		if ((null == segment) || (segment.remaining() < entrySize)) {
+			segment = createSegment(Math.max(segmentSize, entrySize));
+		}
+		segment.write(bytes);
+		return true;
+	}
+
+	/**
+	 * Removes and returns the bytes at the head of the queue.
+	 *
+	 * @return Bytes at the head of the queue or <code>null</code> if queue is empty.
+	 */
+	public synchronized byte[] poll() {
+		while (!segments.isEmpty()) {
+			Segment segment = segments.getFirst();
+			if (segment.hasUnread()) {
+				byte[] bytes = segment.read();
+				if (!segment.hasUnread()) {
+					recycle(segment);
+				}
+				return bytes;
+			}
+			recycle(segment);
+			if (segments.peekFirst() == segment) {
+				// last segment is kept for writing
+				return null;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns if the queue contains no entries.
+	 *
+	 * @return Returns if the queue contains no entries.
+	 */
+	public synchronized boolean isEmpty() {
+		for (Segment segment : segments) {
+			if (segment.hasUnread()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the number of bytes occupied by the segments.
+	 *
+	 * @return Returns the number of bytes occupied by the segments.
+	 */
+	public synchronized long getOccupiedBytes() {
+		return occupiedBytes;
+	}
+
+	/**
+	 * Returns the number of entry bytes dropped because of the quota.
+	 *
+	 * @return Returns the number of entry bytes dropped because of the quota.
+	 */
+	public synchronized long getDroppedBytes() {
+		return droppedBytes;
+	}
+
+	/**
+	 * Deletes all segments and the entries in them.
+	 */
+	public synchronized void close() {
+		while (!segments.isEmpty()) {
+			deleteSegment(segments.removeFirst());
+		}
+	}
+
+	/**
+	 * Creates a new segment at the end of the queue. Drops the oldest segments if needed to stay in
+	 * the quota.
+	 *
+	 * @param size
+	 *            Size of the segment.
+	 * @return Created segment.
+	 * @throws IOException
+	 *             If segment file can not be created.
+	 */
+	private Segment createSegment(int size) throws IOException {
+		while (((occupiedBytes + size) > quota) && !segments.isEmpty()) {
+			Segment oldest = segments.removeFirst();
+			droppedBytes += oldest.unreadBytes();
+			deleteSegment(oldest);
+		}
+
+		if (!directory.exists() && !directory.mkdirs()) {
+			throw new IOException("Unable to create directory " + directory.getAbsolutePath());
+		}
+
+		File file = new File(directory, SEGMENT_FILE_PREFIX + segmentCounter++);
+		Segment segment = new Segment(file, size);
+		segments.addLast(segment);
+		occupiedBytes += size;
+		return segment;
+	}
+
+	/**
+	 * Recycles a fully read segment. The segment is deleted, unless it's the last one, in which
+	 * case it is reset so that writing starts from the beginning.
+	 *
+	 * @param segment
+	 *            Segment with no unread entries.
+	 */
+	private void recycle(Segment segment) {
+		if (segments.getLast() == segment) {
+			segment.reset();
+		} else {
+			segments.remove(segment);
+			deleteSegment(segment);
+		}
+	}
+
+	/**
+	 * Closes and deletes the segment file. The segment must already be removed from the
+	 * {@link #segments}, as its buffer is unmapped.
+	 *
+	 * @param segment
+	 *            Segment to delete.
+	 */
+	private void deleteSegment(Segment segment) {
+		occupiedBytes -= segment.capacity;
+		segment.close();
+	}
+
+	/**
+	 * Deletes segment files left in the directory.
+	 */
+	private void deleteExistingSegmentFiles() {
+		File[] files = directory.listFiles();
+		if (null != files) {
+			for (File file : files) {
+				if (file.getName().startsWith(SEGMENT_FILE_PREFIX)) {
+					deleteFile(file);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Deletes the file. If deleting is not possible at the moment (f.e. the file is still mapped),
+	 * the file is deleted on exit.
+	 *
+	 * @param file
+	 *            File to delete.
+	 */
+	private static void deleteFile(File file) {
+		if (!file.delete()) {
+			file.deleteOnExit();
+		}
+	}
+
+	/**
+	 * One memory-mapped segment file.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static class Segment {
+
+		/**
+		 * Segment file.
+		 */
+		private final File file;
+
+		/**
+		 * Random access file.
+		 */
+		private final RandomAccessFile randomAccessFile;
+
+		/**
+		 * Mapped buffer of the complete file.
+		 */
+		private final MappedByteBuffer buffer;
+
+		/**
+		 * Capacity of the segment in bytes.
+		 */
+		private final int capacity;
+
+		/**
+		 * Position of the next write.
+		 */
+		private int writePosition;
+
+		/**
+		 * Position of the next read.
+		 */
+		private int readPosition;
+
+		/**
+		 * Creates and maps the segment file.
+		 *
+		 * @param file
+		 *            Segment file.
+		 * @param capacity
+		 *            Capacity in bytes.
+		 * @throws IOException
+		 *             If file can not be created or mapped.
+		 */
+		Segment(File file, int capacity) throws IOException {
+			this.file = file;
+			this.capacity = capacity;
+			this.randomAccessFile = new RandomAccessFile(file, "rw");
+			try {
+				randomAccessFile.setLength(capacity);
+				this.buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+			} catch (IOException e) {
+				randomAccessFile.close();
+				deleteFile(file);
+				throw e;
+			}
+		}
+
+		/**
+		 * Writes entry to the segment. Caller must ensure there is enough space.
+		 *
+		 * @param bytes
+		 *            Bytes to write.
+		 */
+		void write(byte[] bytes) {
+			ByteBuffer duplicate = buffer.duplicate();
+			duplicate.position(writePosition);
+			duplicate.putInt(bytes.length);
+			duplicate.put(bytes);
+			writePosition = duplicate.position();
+		}
+
+		/**
+		 * Reads next entry from the segment. Caller must ensure there is an unread entry.
+		 *
+		 * @return Bytes of the entry.
+		 */
+		byte[] read() {
+			ByteBuffer duplicate = buffer.duplicate();
+			duplicate.position(readPosition);
+			byte[] bytes = new byte[duplicate.getInt()];
+			duplicate.get(bytes);
+			readPosition = duplicate.position();
+			return bytes;
+		}
+
+		/**
+		 * @return Number of bytes that can still be written.
+		 */
+		int remaining() {
+			return capacity - writePosition;
+		}
+
+		/**
+		 * @return If there are unread entries.
+		 */
+		boolean hasUnread() {
+			return readPosition < writePosition;
+		}
+
+		/**
+		 * @return Number of written but not read bytes, without entry headers.
+		 */
+		long unreadBytes() {
+			long unread = 0;
+			int position = readPosition;
+			while (position < writePosition) {
+				int length = buffer.getInt(position);
+				unread += length;
+				position += ENTRY_HEADER_SIZE + length;
+			}
+			return unread;
+		}
+
+		/**
+		 * Resets the read and write positions.
+		 */
+		void reset() {
+			readPosition = 0;
+			writePosition = 0;
+		}
+
+		/**
+		 * Unmaps the buffer, closes and deletes the file. The segment can not be used afterwards.
+		 */
+		void close() {
+			unmap(buffer);
+			try {
+				randomAccessFile.close();
+			} catch (IOException e) { // NOPMD //NOCHK
+				// ignore
+			}
+			deleteFile(file);
+		}
+
+		/**
+		 * Releases the mapped memory and the file handle of the buffer right away, instead of
+		 * waiting for the buffer to be garbage collected. Uses the cleaner of the direct buffer if
+		 * the JVM provides one, otherwise the buffer is released by the garbage collector.
+		 *
+		 * @param buffer
+		 *            Buffer to unmap.
+		 */
+		private static void unmap(MappedByteBuffer buffer) {
+			try {
+				Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+				cleanerMethod.setAccessible(true);
+				Object cleaner = cleanerMethod.invoke(buffer);
+				if (null != cleaner) {
+					Method cleanMethod = cleaner.getClass().getMethod("clean");
+					cleanMethod.setAccessible(true);
+					cleanMethod.invoke(cleaner);
+				}
+			} catch (Exception e) { // NOPMD //NOCHK
+				// cleaner not accessible, buffer is unmapped when garbage collected
+			}
+		}
+	}
+
+}
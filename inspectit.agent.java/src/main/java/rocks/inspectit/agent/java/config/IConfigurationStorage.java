@@ -6,9 +6,11 @@ import java.util.Map;
 
 import rocks.inspectit.agent.java.config.impl.RepositoryConfig;
 import rocks.inspectit.agent.java.sensor.exception.IExceptionSensor;
+import rocks.inspectit.shared.all.instrumentation.config.ClassHashAlgorithm;
 import rocks.inspectit.shared.all.instrumentation.config.impl.AgentConfig;
 import rocks.inspectit.shared.all.instrumentation.config.impl.ExceptionSensorTypeConfig;
 import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationDefinition;
+import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationPrefilter;
 import rocks.inspectit.shared.all.instrumentation.config.impl.JmxSensorTypeConfig;
 import rocks.inspectit.shared.all.instrumentation.config.impl.MethodSensorTypeConfig;
 import rocks.inspectit.shared.all.instrumentation.config.impl.PlatformSensorTypeConfig;
@@ -155,6 +157,46 @@ public interface IConfigurationStorage {
 	 */
 	Collection<IMatchPattern> getIgnoreClassesPatterns() throws StorageException;
 
+	/**
+	 * Returns the patterns of the class names that the sensor assignments target directly.
+	 *
+	 * @return Returns the class candidate patterns or <code>null</code> if the CMR did not define
+	 *         them, in which case every class is a candidate for the instrumentation.
+	 * @throws StorageException
+	 *             If agent configuration is not set.
+	 */
+	Collection<IMatchPattern> getClassCandidatePatterns() throws StorageException;
+
+	/**
+	 * Returns the patterns of the super-class, interface and annotation names that the sensor
+	 * assignments target.
+	 *
+	 * @return Returns the hierarchy candidate patterns, never <code>null</code>.
+	 * @throws StorageException
+	 *             If agent configuration is not set.
+	 */
+	Collection<IMatchPattern> getHierarchyCandidatePatterns() throws StorageException;
+
+	/**
+	 * Returns the filter over all candidate patterns that can prove that a class can not be
+	 * instrumented.
+	 *
+	 * @return Returns the {@link InstrumentationPrefilter} or <code>null</code> if the CMR did not
+	 *         define it, in which case all classes are analyzed.
+	 * @throws StorageException
+	 *             If agent configuration is not set.
+	 */
+	InstrumentationPrefilter getInstrumentationPrefilter() throws StorageException;
+
+	/**
+	 * Returns the algorithm to compute the hashes of the class byte code with.
+	 *
+	 * @return Returns the {@link ClassHashAlgorithm}, never <code>null</code>.
+	 * @throws StorageException
+	 *             If agent configuration is not set.
+	 */
+	ClassHashAlgorithm getClassHashAlgorithm() throws StorageException;
+
 	/**
 	 * Returns if the class cache for the agent exist on the CMR. If this is set to
 	 * <code>true</code> agent can use its internal sending classes cache, otherwise agent should
@@ -166,6 +208,28 @@ public interface IConfigurationStorage {
 	 */
 	boolean isClassCacheExistsOnCmr() throws StorageException;
 
+	/**
+	 * Returns the revision of the configuration. Instrumentation definitions received with the
+	 * same revision are still valid and can be applied without asking the CMR.
+	 *
+	 * @return Returns the configuration revision, can be <code>null</code> if CMR does not
+	 *         provide one.
+	 * @throws StorageException
+	 *             If agent configuration is not set.
+	 */
+	String getConfigurationRevision() throws StorageException;
+
+	/**
+	 * Returns the hook time in microseconds per second each instrumented method can cause before
+	 * its hooks are sampled or disabled. Value <code>0</code> means that the overhead is not
+	 * limited.
+	 *
+	 * @return Returns the method overhead budget in microseconds per second.
+	 * @throws StorageException
+	 *             If agent configuration is not set.
+	 */
+	long getMethodOverheadBudget() throws StorageException;
+
 	/**
 	 * Set of known {@link InstrumentationDefinition} for the agent that can be used by the Agent
 	 * right away. Each {@link InstrumentationDefinition} is mapped to the collection of the class
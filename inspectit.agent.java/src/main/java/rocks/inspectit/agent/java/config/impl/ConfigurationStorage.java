@@ -18,9 +18,11 @@ import rocks.inspectit.agent.java.config.IConfigurationStorage;
 import rocks.inspectit.agent.java.config.StorageException;
 import rocks.inspectit.agent.java.logback.LogInitializer;
 import rocks.inspectit.agent.java.spring.SpringConfiguration;
+import rocks.inspectit.shared.all.instrumentation.config.ClassHashAlgorithm;
 import rocks.inspectit.shared.all.instrumentation.config.impl.AgentConfig;
 import rocks.inspectit.shared.all.instrumentation.config.impl.ExceptionSensorTypeConfig;
 import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationDefinition;
+import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationPrefilter;
 import rocks.inspectit.shared.all.instrumentation.config.impl.JmxSensorTypeConfig;
 import rocks.inspectit.shared.all.instrumentation.config.impl.MethodSensorTypeConfig;
 import rocks.inspectit.shared.all.instrumentation.config.impl.PlatformSensorTypeConfig;
@@ -312,6 +314,58 @@ public class ConfigurationStorage implements IConfigurationStorage, Initializing
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Collection<IMatchPattern> getClassCandidatePatterns() throws StorageException {
+		ensureConfigurationExists();
+
+		if (null != agentConfiguration.getClassCandidatePatterns()) {
+			return Collections.unmodifiableCollection(agentConfiguration.getClassCandidatePatterns());
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Collection<IMatchPattern> getHierarchyCandidatePatterns() throws StorageException {
+		ensureConfigurationExists();
+
+		if (CollectionUtils.isNotEmpty(agentConfiguration.getHierarchyCandidatePatterns())) {
+			return Collections.unmodifiableCollection(agentConfiguration.getHierarchyCandidatePatterns());
+		} else {
+			return Collections.emptyList();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public InstrumentationPrefilter getInstrumentationPrefilter() throws StorageException {
+		ensureConfigurationExists();
+
+		return agentConfiguration.getInstrumentationPrefilter();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ClassHashAlgorithm getClassHashAlgorithm() throws StorageException {
+		ensureConfigurationExists();
+
+		if (null != agentConfiguration.getClassHashAlgorithm()) {
+			return agentConfiguration.getClassHashAlgorithm();
+		} else {
+			return ClassHashAlgorithm.SHA256;
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -322,6 +376,26 @@ public class ConfigurationStorage implements IConfigurationStorage, Initializing
 		return agentConfiguration.isClassCacheExistsOnCmr();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getConfigurationRevision() throws StorageException {
+		ensureConfigurationExists();
+
+		return agentConfiguration.getConfigurationRevision();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getMethodOverheadBudget() throws StorageException {
+		ensureConfigurationExists();
+
+		return agentConfiguration.getMethodOverheadBudget();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
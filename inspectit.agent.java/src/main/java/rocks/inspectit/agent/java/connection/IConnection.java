@@ -74,6 +74,16 @@ public interface IConnection {
 	 */
 	void sendDataObjects(List<? extends DefaultData> dataObjects) throws ServerUnavailableException;
 
+	/**
+	 * Waits until all the measurements sent to the server are acknowledged. Measurements that were
+	 * not acknowledged due to a connection problem are resent first. Returns immediately if the
+	 * server does not acknowledge the measurements.
+	 *
+	 * @throws ServerUnavailableException
+	 *             If server to send the request to is unavailable.
+	 */
+	void flushDataObjects() throws ServerUnavailableException;
+
 	/**
 	 * Registers the agent with the CMR. The CMR will answer with the {@link AgentConfig} containing
 	 * all necessary information for the agent initialization.
@@ -126,6 +136,24 @@ public interface IConnection {
 	 */
 	InstrumentationDefinition analyze(long platformIdent, String hash, Type type) throws ServerUnavailableException, BusinessException;
 
+	/**
+	 * Analyzes all given types in one call, returning the {@link InstrumentationDefinition} for
+	 * each of the class hashes.
+	 *
+	 * @param platformIdent
+	 *            Id of the agent.
+	 * @param hashesAndTypes
+	 *            Map of class hashes to the types parsed from the byte-code. Depending types should
+	 *            come first in the iteration order.
+	 * @return Map of class hashes to the instrumentation definitions. Hashes of types that should
+	 *         not be instrumented are mapped to <code>null</code>.
+	 * @throws ServerUnavailableException
+	 *             If server to send the request to is unavailable.
+	 * @throws BusinessException
+	 *             If {@link BusinessException} is thrown on the server.
+	 */
+	Map<String, InstrumentationDefinition> analyzeAll(long platformIdent, Map<String, Type> hashesAndTypes) throws ServerUnavailableException, BusinessException;
+
 	/**
 	 * Informs the CMR that the methods have been instrumented on the agent.
 	 *
@@ -138,6 +166,18 @@ public interface IConnection {
 	 */
 	void instrumentationApplied(long platformIdent, Map<Long, long[]> methodToSensorMap) throws ServerUnavailableException;
 
+	/**
+	 * Informs the CMR that the sampling of the method hooks has been changed due to the overhead.
+	 *
+	 * @param platformIdent
+	 *            Id of the agent.
+	 * @param methodSamplingRates
+	 *            Map containing method id as key and the sampling rate as value.
+	 * @throws ServerUnavailableException
+	 *             If server to send the request to is unavailable.
+	 */
+	void methodSamplingChanged(long platformIdent, Map<Long, Integer> methodSamplingRates) throws ServerUnavailableException;
+
 	/**
 	 * Sends the given {@link JmxAttributeDescriptor} to the CMR, returning the ones that will be
 	 * monitored, based on the current configuration on the server.
@@ -0,0 +1,43 @@
+package rocks.inspectit.agent.java.connection.impl;
+
+import rocks.inspectit.agent.java.connection.AbstractRemoteMethodCall;
+import rocks.inspectit.shared.all.cmr.service.IAgentStorageService;
+import rocks.inspectit.shared.all.communication.CompressedDataObjects;
+
+/**
+ * Class which encapsulates the request to the remote object {@link IAgentStorageService} for
+ * sending the compressed batch of measurements.
+ *
+ * @author agent
+ *
+ */
+public class AddCompressedDataObjects extends AbstractRemoteMethodCall<IAgentStorageService, Void> {
+
+	/**
+	 * The compressed batch of measurements we want to send.
+	 */
+	private final CompressedDataObjects compressedDataObjects;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param repository
+	 *            The remote object.
+	 * @param compressedDataObjects
+	 *            The compressed batch of measurements to send.
+	 */
+	public AddCompressedDataObjects(IAgentStorageService repository, CompressedDataObjects compressedDataObjects) {
+		super(repository);
+		this.compressedDataObjects = compressedDataObjects;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected Void performRemoteCall(IAgentStorageService remoteObject) {
+		remoteObject.addCompressedDataObjects(compressedDataObjects);
+		return null;
+	}
+
+}
@@ -9,9 +9,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.collections.MapUtils;
 import org.slf4j.Logger;
@@ -19,15 +21,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.esotericsoftware.kryonet.rmi.RemoteObject;
+import com.esotericsoftware.kryonet.rmi.TimeoutException;
 
+import rocks.inspectit.agent.java.connection.AbstractRemoteMethodCall;
 import rocks.inspectit.agent.java.connection.FailFastRemoteMethodCall;
 import rocks.inspectit.agent.java.connection.IConnection;
 import rocks.inspectit.agent.java.connection.RegistrationException;
 import rocks.inspectit.agent.java.connection.ServerUnavailableException;
+import rocks.inspectit.agent.java.spring.PrototypesProvider;
 import rocks.inspectit.shared.all.cmr.service.IAgentService;
 import rocks.inspectit.shared.all.cmr.service.IAgentStorageService;
 import rocks.inspectit.shared.all.cmr.service.IKeepAliveService;
 import rocks.inspectit.shared.all.cmr.service.ServiceInterface;
+import rocks.inspectit.shared.all.communication.CompressedDataObjects;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.message.IAgentMessage;
 import rocks.inspectit.shared.all.exception.BusinessException;
@@ -37,6 +43,8 @@ import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationDef
 import rocks.inspectit.shared.all.instrumentation.config.impl.JmxAttributeDescriptor;
 import rocks.inspectit.shared.all.kryonet.Client;
 import rocks.inspectit.shared.all.kryonet.rmi.ObjectSpace;
+import rocks.inspectit.shared.all.serializer.SerializationException;
+import rocks.inspectit.shared.all.serializer.impl.DataObjectsCompressor;
 import rocks.inspectit.shared.all.spring.logger.Log;
 
 /**
@@ -49,6 +57,12 @@ import rocks.inspectit.shared.all.spring.logger.Log;
 @Component
 public class KryoNetConnection implements IConnection {
 
+	/**
+	 * Maximum number of unacknowledged batches in flight. Kryonet can distinguish at most 63
+	 * pending responses of one remote object.
+	 */
+	private static final int MAX_SENDING_WINDOW = 32;
+
 	/**
 	 * The logger of the class.
 	 */
@@ -61,11 +75,24 @@ public class KryoNetConnection implements IConnection {
 	@Autowired
 	private Client client;
 
+	/**
+	 * Provider of the serializer for the compressed data transport.
+	 */
+	@Autowired
+	private PrototypesProvider prototypesProvider;
+
 	/**
 	 * The agent storage remote object which will be used to send the measurements to.
 	 */
 	private IAgentStorageService agentStorageService;
 
+	/**
+	 * The agent storage remote object which will be used to send the measurements when the CMR
+	 * acknowledges them. Calls are not blocking, the acknowledgement is awaited separately. Only
+	 * used when holding the {@link #sendingLock}.
+	 */
+	private IAgentStorageService acknowledgedAgentStorageService;
+
 	/**
 	 * Agent service.
 	 */
@@ -87,6 +114,54 @@ public class KryoNetConnection implements IConnection {
 	 */
 	private List<String> networkInterfaces;
 
+	/**
+	 * If data objects are sent as compressed batches. Negotiated with the CMR on registration.
+	 */
+	private volatile boolean compressDataObjects;
+
+	/**
+	 * Compressor for the data objects, created on first use. Only used when holding the lock.
+	 */
+	private DataObjectsCompressor dataObjectsCompressor;
+
+	/**
+	 * Number of data objects bytes sent compressed, counted before the compression.
+	 */
+	private long uncompressedBytes;
+
+	/**
+	 * Number of bytes of the compressed batches.
+	 */
+	private long compressedBytes;
+
+	/**
+	 * Time spent in the serialization and compression of the batches in nanoseconds.
+	 */
+	private long compressionNanos;
+
+	/**
+	 * Lock for the acknowledged sending of the measurements.
+	 */
+	private final Object sendingLock = new Object();
+
+	/**
+	 * Batches sent to the CMR, but not yet acknowledged. <code>null</code> if measurements are sent
+	 * without acknowledgements. Only used when holding the {@link #sendingLock}.
+	 */
+	private SendingWindow sendingWindow;
+
+	/**
+	 * Batches that still have to be sent, in the order they should be sent. Contains the batches
+	 * that were not acknowledged due to the connection problems. Only used when holding the
+	 * {@link #sendingLock}.
+	 */
+	private final LinkedList<List<? extends DefaultData>> pendingBatches = new LinkedList<List<? extends DefaultData>>(); // NOPMD
+
+	/**
+	 * Number of pending batches dropped because of the repeated connection problems.
+	 */
+	private long droppedBatches;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -147,6 +222,9 @@ public class KryoNetConnection implements IConnection {
 		stopClient();
 
 		agentStorageService = null; // NOPMD
+		synchronized (sendingLock) {
+			acknowledgedAgentStorageService = null; // NOPMD
+		}
 		agentService = null; // NOPMD
 		keepAliveService = null; // NOPMD
 	}
@@ -211,6 +289,12 @@ public class KryoNetConnection implements IConnection {
 			((RemoteObject) agentStorageService).setNonBlocking(true);
 			((RemoteObject) agentStorageService).setTransmitReturnValue(false);
 
+			synchronized (sendingLock) {
+				acknowledgedAgentStorageService = createAcknowledgedAgentStorageService();
+				// responses of the old connection will never arrive
+				returnUnacknowledged();
+			}
+
 			int agentServiceServiceId = IAgentService.class.getAnnotation(ServiceInterface.class).serviceId();
 			agentService = ObjectSpace.getRemoteObject(client, agentServiceServiceId, IAgentService.class);
 			((RemoteObject) agentService).setNonBlocking(false);
@@ -223,6 +307,20 @@ public class KryoNetConnection implements IConnection {
 		}
 	}
 
+	/**
+	 * Creates the agent storage remote object used for the acknowledged sending.
+	 *
+	 * @return Agent storage remote object that transmits the responses.
+	 */
+	private IAgentStorageService createAcknowledgedAgentStorageService() {
+		int agentStorageServiceId = IAgentStorageService.class.getAnnotation(ServiceInterface.class).serviceId();
+		IAgentStorageService service = ObjectSpace.getRemoteObject(client, agentStorageServiceId, IAgentStorageService.class);
+		((RemoteObject) service).setNonBlocking(true);
+		((RemoteObject) service).setTransmitReturnValue(true);
+		((RemoteObject) service).setTransmitExceptions(true);
+		return service;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -284,7 +382,18 @@ public class KryoNetConnection implements IConnection {
 		};
 
 		try {
-			return call.makeCall();
+			AgentConfig agentConfig = call.makeCall();
+			compressDataObjects = (null != agentConfig) && agentConfig.isCompressedDataTransport();
+			if (compressDataObjects) {
+				log.info("KryoNet: Data objects will be sent as compressed batches.");
+			}
+			configureSendingWindow((null != agentConfig) ? agentConfig.getDataSendingWindow() : 0);
+			boolean stringDictionary = (null != agentConfig) && agentConfig.isStringDictionaryTransport();
+			client.setStringDictionaryEnabled(stringDictionary);
+			if (stringDictionary) {
+				log.info("KryoNet: Repetitive strings will be sent once per connection and referenced by id afterwards.");
+			}
+			return agentConfig;
 		} catch (ExecutionException executionException) {
 			if (log.isTraceEnabled()) {
 				log.trace("register(String, String)", executionException);
@@ -351,9 +460,16 @@ public class KryoNetConnection implements IConnection {
 		}
 
 		if ((null != measurements) && !measurements.isEmpty()) {
+			synchronized (sendingLock) {
+				if (null != sendingWindow) {
+					pendingBatches.addLast(measurements);
+					sendPendingBatches(false);
+					return;
+				}
+			}
+
 			try {
-				AddDataObjects remote = new AddDataObjects(agentStorageService, measurements);
-				remote.makeCall();
+				createAddDataObjectsCall(agentStorageService, measurements).makeCall();
 			} catch (ExecutionException executionException) {
 				// there should be no execution exception
 				log.error("Could not send data objects", executionException);
@@ -366,6 +482,317 @@ public class KryoNetConnection implements IConnection {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void flushDataObjects() throws ServerUnavailableException {
+		if (!isConnected()) {
+			throw new ServerUnavailableException();
+		}
+
+		synchronized (sendingLock) {
+			if (null != sendingWindow) {
+				sendPendingBatches(true);
+			}
+		}
+	}
+
+	/**
+	 * Sends the pending batches keeping at most the window capacity of batches unacknowledged. If
+	 * the window is full, waits for the acknowledgement of the oldest batch. On a connection
+	 * problem all unacknowledged batches are returned to the pending ones, so that they are resent
+	 * with the next call.
+	 * <p>
+	 * The delivery is at-least-once: a batch the CMR processed, but whose acknowledgement was lost
+	 * or arrived after the timeout, is sent again and stored twice by the CMR.
+	 * <p>
+	 * Must be called when holding the {@link #sendingLock}.
+	 *
+	 * @param flush
+	 *            If the acknowledgements of all batches should be awaited.
+	 * @throws ServerUnavailableException
+	 *             If server is unavailable or does not acknowledge the batches in time.
+	 */
+	private void sendPendingBatches(boolean flush) throws ServerUnavailableException {
+		if (null == acknowledgedAgentStorageService) {
+			// disconnected in the meantime
+			throw new ServerUnavailableException();
+		}
+
+		try {
+			while (!pendingBatches.isEmpty()) {
+				if (sendingWindow.isFull()) {
+					awaitOldestAcknowledgement();
+				}
+
+				List<? extends DefaultData> batch = pendingBatches.getFirst();
+				long sendNanos = System.nanoTime();
+				try {
+					createAddDataObjectsCall(acknowledgedAgentStorageService, batch).makeCall();
+				} catch (ExecutionException executionException) {
+					// there should be no execution exception
+					log.error("Could not send data objects", executionException);
+					pendingBatches.removeFirst();
+					continue;
+				}
+				sendingWindow.add(((RemoteObject) acknowledgedAgentStorageService).getLastResponseID(), batch, sendNanos);
+				pendingBatches.removeFirst();
+			}
+
+			if (flush) {
+				while (!sendingWindow.isEmpty()) {
+					awaitOldestAcknowledgement();
+				}
+			}
+		} catch (ServerUnavailableException e) {
+			returnUnacknowledged();
+			if (!e.isServerTimeout()) {
+				disconnectClient();
+			}
+			throw e;
+		} catch (TimeoutException timeoutException) {
+			returnUnacknowledged();
+			// late responses must not be mistaken for the acknowledgements of the resent batches
+			((RemoteObject) acknowledgedAgentStorageService).close();
+			acknowledgedAgentStorageService = createAcknowledgedAgentStorageService();
+			throw new ServerUnavailableException(true); // NOPMD
+		} catch (RuntimeException runtimeException) {
+			// kryonet reports all errors via runtime exceptions
+			log.warn("KryoNet: Waiting for the acknowledgement of the data objects failed.", runtimeException);
+			returnUnacknowledged();
+			disconnectClient();
+			throw new ServerUnavailableException(); // NOPMD
+		}
+	}
+
+	/**
+	 * Waits for the acknowledgement of the oldest batch in the sending window.
+	 * <p>
+	 * Must be called when holding the {@link #sendingLock}.
+	 */
+	private void awaitOldestAcknowledgement() {
+		Object result = ((RemoteObject) acknowledgedAgentStorageService).waitForResponse(sendingWindow.getOldestResponseId());
+		long roundTripNanos = sendingWindow.acknowledgeOldest(System.nanoTime());
+
+		if (result instanceof Exception) {
+			log.warn("KryoNet: CMR failed to process the data objects.", (Exception) result);
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("KryoNet: Data objects acknowledged after " + TimeUnit.NANOSECONDS.toMillis(roundTripNanos) + " ms, " + sendingWindow.size() + " batches still in flight.");
+		}
+	}
+
+	/**
+	 * Returns all unacknowledged batches of the sending window to the beginning of the pending
+	 * batches. The pending batches are limited to the window capacity plus the batch currently
+	 * being sent, if there are more the oldest ones are dropped.
+	 * <p>
+	 * Must be called when holding the {@link #sendingLock}.
+	 */
+	private void returnUnacknowledged() {
+		if (null == sendingWindow) {
+			return;
+		}
+
+		pendingBatches.addAll(0, sendingWindow.removeUnacknowledged());
+		while (pendingBatches.size() > (sendingWindow.getCapacity() + 1)) {
+			pendingBatches.removeFirst();
+			droppedBatches++;
+			log.warn("KryoNet: Unacknowledged data objects dropped as the connection problems persist. Data is lost!");
+		}
+	}
+
+	/**
+	 * Creates or replaces the sending window.
+	 *
+	 * @param capacity
+	 *            Number of batches that can be unacknowledged, <code>0</code> to send without
+	 *            acknowledgements.
+	 */
+	private void configureSendingWindow(int capacity) {
+		int windowCapacity = Math.min(capacity, MAX_SENDING_WINDOW);
+		synchronized (sendingLock) {
+			if (windowCapacity <= 0) {
+				if (null != sendingWindow) {
+					returnUnacknowledged();
+					droppedBatches += pendingBatches.size();
+					pendingBatches.clear();
+					sendingWindow = null; // NOPMD
+				}
+			} else if ((null == sendingWindow) || (sendingWindow.getCapacity() != windowCapacity)) {
+				returnUnacknowledged();
+				sendingWindow = new SendingWindow(windowCapacity);
+				log.info("KryoNet: Data objects will be sent with up to " + windowCapacity + " unacknowledged batches in flight.");
+			}
+		}
+	}
+
+	/**
+	 * Creates the remote call that sends the measurements, compressed if the CMR supports it.
+	 *
+	 * @param service
+	 *            Agent storage remote object.
+	 * @param measurements
+	 *            Measurements to send.
+	 * @return Remote call.
+	 */
+	private AbstractRemoteMethodCall<IAgentStorageService, Void> createAddDataObjectsCall(IAgentStorageService service, List<? extends DefaultData> measurements) {
+		if (compressDataObjects) {
+			CompressedDataObjects compressedDataObjects = compress(measurements);
+			if (null != compressedDataObjects) {
+				return new AddCompressedDataObjects(service, compressedDataObjects);
+			}
+		}
+		return new AddDataObjects(service, measurements);
+	}
+
+	/**
+	 * Serializes and compresses the measurements and updates the compression counters.
+	 *
+	 * @param measurements
+	 *            Measurements to compress.
+	 * @return {@link CompressedDataObjects} or <code>null</code> if the compression failed and the
+	 *         measurements should be sent uncompressed.
+	 */
+	private synchronized CompressedDataObjects compress(List<? extends DefaultData> measurements) {
+		if (null == dataObjectsCompressor) {
+			dataObjectsCompressor = new DataObjectsCompressor(prototypesProvider.createSerializer());
+		}
+
+		try {
+			long start = System.nanoTime();
+			CompressedDataObjects compressedDataObjects = dataObjectsCompressor.compress(measurements);
+			compressionNanos += System.nanoTime() - start;
+			uncompressedBytes += compressedDataObjects.getUncompressedLength();
+			compressedBytes += compressedDataObjects.getData().length;
+
+			if (log.isDebugEnabled()) {
+				log.debug("KryoNet: Compressed " + measurements.size() + " data objects from " + compressedDataObjects.getUncompressedLength() + " to "
+						+ compressedDataObjects.getData().length + " bytes. Total compression ratio " + getCompressionRatio() + ", throughput " + getCompressionThroughput()
+						+ " bytes/ms.");
+			}
+			return compressedDataObjects;
+		} catch (SerializationException e) {
+			log.warn("KryoNet: Data objects could not be compressed, sending uncompressed.", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the ratio between the uncompressed and compressed size of all data objects sent
+	 * compressed so far.
+	 *
+	 * @return Compression ratio or <code>0</code> if nothing was compressed.
+	 */
+	public synchronized double getCompressionRatio() {
+		if (0 == compressedBytes) {
+			return 0;
+		}
+		return (double) uncompressedBytes / compressedBytes;
+	}
+
+	/**
+	 * Returns the number of uncompressed bytes serialized and compressed per millisecond.
+	 *
+	 * @return Compression throughput in bytes per millisecond or <code>0</code> if nothing was
+	 *         compressed.
+	 */
+	public synchronized double getCompressionThroughput() {
+		if (0 == compressionNanos) {
+			return 0;
+		}
+		return (uncompressedBytes * 1000000d) / compressionNanos;
+	}
+
+	/**
+	 * Gets {@link #uncompressedBytes}.
+	 *
+	 * @return {@link #uncompressedBytes}
+	 */
+	public synchronized long getUncompressedBytes() {
+		return uncompressedBytes;
+	}
+
+	/**
+	 * Gets {@link #compressedBytes}.
+	 *
+	 * @return {@link #compressedBytes}
+	 */
+	public synchronized long getCompressedBytes() {
+		return compressedBytes;
+	}
+
+	/**
+	 * Returns the number of batches that can be unacknowledged.
+	 *
+	 * @return Returns the number of batches that can be unacknowledged or <code>0</code> if
+	 *         measurements are sent without acknowledgements.
+	 */
+	public int getSendingWindowCapacity() {
+		synchronized (sendingLock) {
+			return (null != sendingWindow) ? sendingWindow.getCapacity() : 0;
+		}
+	}
+
+	/**
+	 * Returns the average round trip time of the acknowledged batches.
+	 *
+	 * @return Average round trip time in milliseconds or <code>0</code> if no batch was
+	 *         acknowledged.
+	 */
+	public double getAverageRoundTripTime() {
+		synchronized (sendingLock) {
+			return (null != sendingWindow) ? sendingWindow.getAverageRoundTripTime() : 0;
+		}
+	}
+
+	/**
+	 * Returns the maximum round trip time of the acknowledged batches.
+	 *
+	 * @return Maximum round trip time in milliseconds or <code>0</code> if no batch was
+	 *         acknowledged.
+	 */
+	public double getMaxRoundTripTime() {
+		synchronized (sendingLock) {
+			return (null != sendingWindow) ? sendingWindow.getMaxRoundTripTime() : 0;
+		}
+	}
+
+	/**
+	 * Returns the number of acknowledged batches.
+	 *
+	 * @return Returns the number of acknowledged batches.
+	 */
+	public long getAcknowledgedBatches() {
+		synchronized (sendingLock) {
+			return (null != sendingWindow) ? sendingWindow.getAcknowledgedBatches() : 0;
+		}
+	}
+
+	/**
+	 * Returns the number of batches that had to be resent because they were not acknowledged.
+	 *
+	 * @return Returns the number of batches that had to be resent.
+	 */
+	public long getResentBatches() {
+		synchronized (sendingLock) {
+			return (null != sendingWindow) ? sendingWindow.getUnacknowledgedBatches() : 0;
+		}
+	}
+
+	/**
+	 * Returns the number of unacknowledged batches dropped because of the persisting connection
+	 * problems.
+	 *
+	 * @return Returns the number of dropped batches.
+	 */
+	public long getDroppedBatches() {
+		synchronized (sendingLock) {
+			return droppedBatches;
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -406,6 +833,50 @@ public class KryoNetConnection implements IConnection {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<String, InstrumentationDefinition> analyzeAll(final long platformIdent, final Map<String, Type> hashesAndTypes) throws ServerUnavailableException, BusinessException {
+		if (!isConnected()) {
+			throw new ServerUnavailableException();
+		}
+
+		if (MapUtils.isEmpty(hashesAndTypes)) {
+			return Collections.emptyMap();
+		}
+
+		// make call
+		AbstractRemoteMethodCall<IAgentService, Map<String, InstrumentationDefinition>> call = new AbstractRemoteMethodCall<IAgentService, Map<String, InstrumentationDefinition>>(agentService) {
+			@Override
+			protected Map<String, InstrumentationDefinition> performRemoteCall(IAgentService service) throws Exception {
+				return agentService.analyzeAll(platformIdent, hashesAndTypes);
+			}
+		};
+
+		try {
+			return call.makeCall();
+		} catch (ExecutionException executionException) {
+			if (log.isTraceEnabled()) {
+				log.trace("analyzeAll(long,Map)", executionException);
+			}
+
+			// check for business exception
+			if (executionException.getCause() instanceof BusinessException) {
+				throw ((BusinessException) executionException.getCause()); // NOPMD
+			}
+
+			// otherwise we log and return empty map as it's unexpected exception for us
+			log.error("Could not get instrumentation results", executionException);
+			return Collections.emptyMap();
+		} catch (ServerUnavailableException e) {
+			if (!e.isServerTimeout()) {
+				disconnectClient();
+			}
+			throw e;
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -432,6 +903,31 @@ public class KryoNetConnection implements IConnection {
 
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void methodSamplingChanged(long platformIdent, Map<Long, Integer> methodSamplingRates) throws ServerUnavailableException {
+		if (!isConnected()) {
+			throw new ServerUnavailableException();
+		}
+
+		if (MapUtils.isNotEmpty(methodSamplingRates)) {
+			try {
+				MethodSamplingChangedCall call = new MethodSamplingChangedCall(agentService, platformIdent, methodSamplingRates);
+				call.makeCall();
+			} catch (ExecutionException executionException) {
+				// there should be no execution exception
+				log.error("Could not sent changed method sampling", executionException);
+			} catch (ServerUnavailableException e) {
+				if (!e.isServerTimeout()) {
+					disconnectClient();
+				}
+				throw e;
+			}
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
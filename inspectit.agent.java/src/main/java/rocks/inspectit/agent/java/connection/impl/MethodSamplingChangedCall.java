@@ -0,0 +1,51 @@
+package rocks.inspectit.agent.java.connection.impl;
+
+import java.util.Map;
+
+import rocks.inspectit.agent.java.connection.AbstractRemoteMethodCall;
+import rocks.inspectit.shared.all.cmr.service.IAgentService;
+
+/**
+ * {@link AbstractRemoteMethodCall} for the {@link IAgentService#methodSamplingChanged(long, Map)}.
+ *
+ * @author agent
+ *
+ */
+public class MethodSamplingChangedCall extends AbstractRemoteMethodCall<IAgentService, Void> {
+
+	/**
+	 * Platform id.
+	 */
+	private final long platformIdent;
+
+	/**
+	 * Map containing method id as key and the sampling rate as value.
+	 */
+	private final Map<Long, Integer> methodSamplingRates;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param remoteObject
+	 *            {@link IAgentService} object
+	 * @param platformIdent
+	 *            Platform id.
+	 * @param methodSamplingRates
+	 *            map containing method id as key and the sampling rate as value
+	 */
+	public MethodSamplingChangedCall(IAgentService remoteObject, long platformIdent, Map<Long, Integer> methodSamplingRates) {
+		super(remoteObject);
+		this.platformIdent = platformIdent;
+		this.methodSamplingRates = methodSamplingRates;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected Void performRemoteCall(IAgentService remoteObject) throws Exception {
+		remoteObject.methodSamplingChanged(platformIdent, methodSamplingRates);
+		return null;
+	}
+
+}
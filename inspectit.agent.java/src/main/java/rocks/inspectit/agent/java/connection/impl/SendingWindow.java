@@ -0,0 +1,270 @@
+package rocks.inspectit.agent.java.connection.impl;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+
+/**
+ * Window of the data batches that were sent to the CMR, but not yet acknowledged. The CMR
+ * acknowledges the batches in the order they were sent, thus the window is a FIFO queue. The
+ * window keeps the statistics about the round trip time of the acknowledged batches.
+ * <p>
+ * The window is not thread-safe.
+ *
+ * @author agent
+ *
+ */
+public class SendingWindow {
+
+	/**
+	 * Maximum number of batches in the window.
+	 */
+	private final int capacity;
+
+	/**
+	 * Batches in flight, the first one is the oldest.
+	 */
+	private final LinkedList<InFlightBatch> batches = new LinkedList<InFlightBatch>(); // NOPMD
+
+	/**
+	 * Number of acknowledged batches.
+	 */
+	private long acknowledgedBatches;
+
+	/**
+	 * Number of batches that were returned as unacknowledged.
+	 */
+	private long unacknowledgedBatches;
+
+	/**
+	 * Sum of the round trip times of all acknowledged batches in nanoseconds.
+	 */
+	private long totalRoundTripNanos;
+
+	/**
+	 * Round trip time of the last acknowledged batch in nanoseconds.
+	 */
+	private long lastRoundTripNanos;
+
+	/**
+	 * Maximum round trip time of all acknowledged batches in nanoseconds.
+	 */
+	private long maxRoundTripNanos;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param capacity
+	 *            Maximum number of batches in the window.
+	 */
+	public SendingWindow(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity of the sending window must be positive.");
+		}
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Adds the sent batch to the window. Caller must ensure the window is not full.
+	 *
+	 * @param responseId
+	 *            Id of the response that acknowledges the batch.
+	 * @param dataObjects
+	 *            Data objects of the batch.
+	 * @param sendNanos
+	 *            Time the batch was sent in nanoseconds as given by {@link System#nanoTime()}.
+	 */
+	public void add(byte responseId, List<? extends DefaultData> dataObjects, long sendNanos) {
+		if (isFull()) {
+			throw new IllegalStateException("Sending window is full.");
+		}
+		batches.addLast(new InFlightBatch(responseId, dataObjects, sendNanos));
+	}
+
+	/**
+	 * Returns the id of the response that acknowledges the oldest batch in the window.
+	 *
+	 * @return Returns the id of the response that acknowledges the oldest batch in the window.
+	 */
+	public byte getOldestResponseId() {
+		return batches.getFirst().responseId;
+	}
+
+	/**
+	 * Removes the oldest batch from the window as it was acknowledged and updates the round trip
+	 * statistics.
+	 *
+	 * @param acknowledgeNanos
+	 *            Time the acknowledgement was received in nanoseconds as given by
+	 *            {@link System#nanoTime()}.
+	 * @return Round trip time of the batch in nanoseconds.
+	 */
+	public long acknowledgeOldest(long acknowledgeNanos) {
+		InFlightBatch batch = batches.removeFirst();
+		long roundTripNanos = acknowledgeNanos - batch.sendNanos;
+		acknowledgedBatches++;
+		totalRoundTripNanos += roundTripNanos;
+		lastRoundTripNanos = roundTripNanos;
+		if (roundTripNanos > maxRoundTripNanos) {
+			maxRoundTripNanos = roundTripNanos;
+		}
+		return roundTripNanos;
+	}
+
+	/**
+	 * Removes all batches from the window and returns their data objects in the order the batches
+	 * were sent. Used when the acknowledgements can not be expected any more, so that batches can
+	 * be resent.
+	 *
+	 * @return Data objects of the unacknowledged batches.
+	 */
+	public List<List<? extends DefaultData>> removeUnacknowledged() {
+		List<List<? extends DefaultData>> result = new ArrayList<List<? extends DefaultData>>(batches.size());
+		for (InFlightBatch batch : batches) {
+			result.add(batch.dataObjects);
+		}
+		unacknowledgedBatches += batches.size();
+		batches.clear();
+		return result;
+	}
+
+	/**
+	 * Returns if no more batches can be added.
+	 *
+	 * @return Returns if no more batches can be added.
+	 */
+	public boolean isFull() {
+		return batches.size() >= capacity;
+	}
+
+	/**
+	 * Returns if there are no batches in flight.
+	 *
+	 * @return Returns if there are no batches in flight.
+	 */
+	public boolean isEmpty() {
+		return batches.isEmpty();
+	}
+
+	/**
+	 * Returns the number of batches in flight.
+	 *
+	 * @return Returns the number of batches in flight.
+	 */
+	public int size() {
+		return batches.size();
+	}
+
+	/**
+	 * Gets {@link #capacity}.
+	 *
+	 * @return {@link #capacity}
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Gets {@link #acknowledgedBatches}.
+	 *
+	 * @return {@link #acknowledgedBatches}
+	 */
+	public long getAcknowledgedBatches() {
+		return acknowledgedBatches;
+	}
+
+	/**
+	 * Gets {@link #unacknowledgedBatches}.
+	 *
+	 * @return {@link #unacknowledgedBatches}
+	 */
+	public long getUnacknowledgedBatches() {
+		return unacknowledgedBatches;
+	}
+
+	/**
+	 * Returns the round trip time of the last acknowledged batch in milliseconds.
+	 *
+	 * @return Returns the round trip time of the last acknowledged batch in milliseconds.
+	 */
+	public double getLastRoundTripTime() {
+		return toMillis(lastRoundTripNanos);
+	}
+
+	/**
+	 * Returns the average round trip time of all acknowledged batches in milliseconds.
+	 *
+	 * @return Returns the average round trip time of all acknowledged batches in milliseconds or
+	 *         <code>0</code> if no batch was acknowledged.
+	 */
+	public double getAverageRoundTripTime() {
+		if (0 == acknowledgedBatches) {
+			return 0;
+		}
+		return toMillis(totalRoundTripNanos) / acknowledgedBatches;
+	}
+
+	/**
+	 * Returns the maximum round trip time of all acknowledged batches in milliseconds.
+	 *
+	 * @return Returns the maximum round trip time of all acknowledged batches in milliseconds.
+	 */
+	public double getMaxRoundTripTime() {
+		return toMillis(maxRoundTripNanos);
+	}
+
+	/**
+	 * Converts nanoseconds to milliseconds.
+	 *
+	 * @param nanos
+	 *            Nanoseconds.
+	 * @return Milliseconds.
+	 */
+	private static double toMillis(long nanos) {
+		return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	/**
+	 * Batch that was sent and is waiting for the acknowledgement.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static class InFlightBatch {
+
+		/**
+		 * Id of the response that acknowledges the batch.
+		 */
+		private final byte responseId;
+
+		/**
+		 * Data objects of the batch.
+		 */
+		private final List<? extends DefaultData> dataObjects;
+
+		/**
+		 * Time the batch was sent in nanoseconds.
+		 */
+		private final long sendNanos;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param responseId
+		 *            Id of the response that acknowledges the batch.
+		 * @param dataObjects
+		 *            Data objects of the batch.
+		 * @param sendNanos
+		 *            Time the batch was sent in nanoseconds.
+		 */
+		InFlightBatch(byte responseId, List<? extends DefaultData> dataObjects, long sendNanos) {
+			this.responseId = responseId;
+			this.dataObjects = dataObjects;
+			this.sendNanos = sendNanos;
+		}
+	}
+
+}
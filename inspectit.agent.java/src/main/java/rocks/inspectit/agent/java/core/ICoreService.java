@@ -149,4 +149,22 @@ public interface ICoreService {
 	 */
 	void removeListListener(ListListener<?> listener);
 
+	/**
+	 * Adds a new list size listener. Size listeners are notified with the current number of the
+	 * collected measurements and object storages, which is cheaper than the notification of the
+	 * {@link ListListener}s.
+	 *
+	 * @param listener
+	 *            The listener to add.
+	 */
+	void addListSizeListener(ListSizeListener listener);
+
+	/**
+	 * Removes a list size listener.
+	 *
+	 * @param listener
+	 *            The listener to remove.
+	 */
+	void removeListSizeListener(ListSizeListener listener);
+
 }
@@ -0,0 +1,23 @@
+package rocks.inspectit.agent.java.core;
+
+import java.util.EventListener;
+
+/**
+ * The {@link ListSizeListener} interface allows a class to react on changes of the number of
+ * elements in a list. In contrast to the {@link ListListener} the list itself is not passed, thus
+ * the notification does not require to create a copy of the list.
+ *
+ * @author agent
+ *
+ */
+public interface ListSizeListener extends EventListener {
+
+	/**
+	 * The size of a list has changed.
+	 *
+	 * @param size
+	 *            The current number of elements in the list.
+	 */
+	void sizeChanged(int size);
+
+}
@@ -0,0 +1,27 @@
+package rocks.inspectit.agent.java.core;
+
+import java.util.EventListener;
+import java.util.List;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+
+/**
+ * The {@link SentDataListener} interface allows a class to react on the data objects being sent to
+ * the CMR. All Spring beans implementing this interface are notified by the core service.
+ *
+ * @author agent
+ *
+ */
+public interface SentDataListener extends EventListener {
+
+	/**
+	 * The list of data objects was successfully passed to the connection. Lists are not passed if
+	 * sending failed, thus the data objects in the list are either delivered or kept by the
+	 * connection for resending.
+	 *
+	 * @param dataObjects
+	 *            The sent data objects. Must not be changed by the listener.
+	 */
+	void dataSent(List<? extends DefaultData> dataObjects);
+
+}
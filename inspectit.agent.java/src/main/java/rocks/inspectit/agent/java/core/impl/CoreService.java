@@ -3,8 +3,6 @@ package rocks.inspectit.agent.java.core.impl;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -25,6 +23,8 @@ import rocks.inspectit.agent.java.core.ICoreService;
 import rocks.inspectit.agent.java.core.IObjectStorage;
 import rocks.inspectit.agent.java.core.IPlatformManager;
 import rocks.inspectit.agent.java.core.ListListener;
+import rocks.inspectit.agent.java.core.ListSizeListener;
+import rocks.inspectit.agent.java.core.SentDataListener;
 import rocks.inspectit.agent.java.sending.ISendingStrategy;
 import rocks.inspectit.agent.java.sensor.jmx.IJmxSensor;
 import rocks.inspectit.agent.java.sensor.platform.IPlatformSensor;
@@ -93,6 +93,12 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 	@Autowired(required = false)
 	private List<IJmxSensor> jmxSensors;
 
+	/**
+	 * All listeners to be notified about the sent data.
+	 */
+	@Autowired(required = false)
+	private List<SentDataListener> sentDataListeners;
+
 	/**
 	 * Executor service that other components can use for asynchronous tasks.
 	 */
@@ -108,39 +114,36 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 	IThreadTransformHelper threadTransformHelper;
 
 	/**
-	 * Already used data objects which can be used directly on the CMR to persist.
+	 * Registry holding the measurements and object storages collected since the last preparation.
 	 */
-	private Map<String, DefaultData> sensorDataObjects = new ConcurrentHashMap<String, DefaultData>();
+	private volatile MeasurementRegistry measurements = new MeasurementRegistry();
 
 	/**
-	 * Contains object storage instances which will be initialized when sending.
+	 * Used as second registry for the measurements and object storages when processed before
+	 * sending.
 	 */
-	private Map<String, IObjectStorage> objectStorages = new ConcurrentHashMap<String, IObjectStorage>();
+	private MeasurementRegistry measurementsProcessing = new MeasurementRegistry();
 
 	/**
-	 * Used as second hash table for the measurements when processed before sending.
+	 * The registered list listeners.
 	 */
-	private Map<String, DefaultData> measurementsProcessing = new ConcurrentHashMap<String, DefaultData>();
+	private final List<ListListener<?>> listListeners = new ArrayList<ListListener<?>>();
 
 	/**
-	 * Used as second hash table for the object storages when processed before sending.
+	 * The registered list size listeners.
 	 */
-	private Map<String, IObjectStorage> objectStoragesProcessing = new ConcurrentHashMap<String, IObjectStorage>();
+	private final List<ListSizeListener> listSizeListeners = new ArrayList<ListSizeListener>();
 
 	/**
-	 * Temporary Map to switch the references of the active hash table with the processed one.
+	 * The default refresh time.
 	 */
-	private Map<String, ?> temp;
+	private static final long DEFAULT_REFRESH_TIME = 1000L;
 
 	/**
-	 * The registered list listeners.
+	 * Time in milliseconds the sending thread waits before checking the connection again when
+	 * there is data to send, but no connection.
 	 */
-	private final List<ListListener<?>> listListeners = new ArrayList<ListListener<?>>();
-
-	/**
-	 * The default refresh time.
-	 */
-	private static final long DEFAULT_REFRESH_TIME = 1000L;
+	private static final long DISCONNECTED_WAIT_TIME = 1000L;
 
 	/**
 	 * The refresh time for the platformSensorRefresher thread in ms.
@@ -234,16 +237,7 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 	 */
 	@Override
 	public void addJmxSensorValueData(long sensorTypeIdent, String objectName, String attributeName, JmxSensorValueData jmxSensorValueData) {
-		StringBuilder builder = new StringBuilder();
-		builder.append(sensorTypeIdent);
-		builder.append('.');
-		builder.append(objectName);
-		builder.append('.');
-		builder.append(attributeName);
-		builder.append('.');
-		// Added timestamp to be able to send multiple objects to cmr.
-		builder.append(jmxSensorValueData.getTimeStamp().getTime());
-		sensorDataObjects.put(builder.toString(), jmxSensorValueData);
+		measurements.addJmxSensorValueData(sensorTypeIdent, objectName, attributeName, jmxSensorValueData);
 		notifyListListeners();
 	}
 
@@ -252,15 +246,7 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 	 */
 	@Override
 	public void addMethodSensorData(long sensorTypeIdent, long methodIdent, String prefix, MethodSensorData methodSensorData) {
-		StringBuilder builder = new StringBuilder();
-		if (null != prefix) {
-			builder.append(prefix);
-			builder.append('.');
-		}
-		builder.append(methodIdent);
-		builder.append('.');
-		builder.append(sensorTypeIdent);
-		sensorDataObjects.put(builder.toString(), methodSensorData);
+		measurements.addMethodSensorData(sensorTypeIdent, methodIdent, prefix, methodSensorData);
 		notifyListListeners();
 	}
 
@@ -269,15 +255,7 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 	 */
 	@Override
 	public MethodSensorData getMethodSensorData(long sensorTypeIdent, long methodIdent, String prefix) {
-		StringBuilder builder = new StringBuilder();
-		if (null != prefix) {
-			builder.append(prefix);
-			builder.append('.');
-		}
-		builder.append(methodIdent);
-		builder.append('.');
-		builder.append(sensorTypeIdent);
-		return (MethodSensorData) sensorDataObjects.get(builder.toString());
+		return measurements.getMethodSensorData(sensorTypeIdent, methodIdent, prefix);
 	}
 
 	/**
@@ -285,7 +263,7 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 	 */
 	@Override
 	public void addPlatformSensorData(long sensorTypeIdent, SystemSensorData systemSensorData) {
-		sensorDataObjects.put(Long.toString(sensorTypeIdent), systemSensorData);
+		measurements.addPlatformSensorData(sensorTypeIdent, systemSensorData);
 		notifyListListeners();
 	}
 
@@ -294,18 +272,12 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 	 */
 	@Override
 	public void addExceptionSensorData(long sensorTypeIdent, long throwableIdentityHashCode, ExceptionSensorData exceptionSensorData) {
-		StringBuilder builder = new StringBuilder();
-		builder.append(sensorTypeIdent);
-		builder.append("::");
-		builder.append(throwableIdentityHashCode);
-		String key = builder.toString();
-
 		// we always only save the first data object, because this object contains the nested
 		// objects to create the whole exception tree
 		if (exceptionSensorData.getExceptionEvent().equals(ExceptionEvent.CREATED)) {
 			// if a data object with the same hash code was already created, then it has to be For
 			// us only the last-most data object is relevant
-			sensorDataObjects.put(key, exceptionSensorData);
+			measurements.addExceptionSensorData(sensorTypeIdent, throwableIdentityHashCode, exceptionSensorData);
 			notifyListListeners();
 		}
 	}
@@ -315,12 +287,7 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 	 */
 	@Override
 	public ExceptionSensorData getExceptionSensorData(long sensorTypeIdent, long throwableIdentityHashCode) {
-		StringBuilder builder = new StringBuilder();
-		builder.append(sensorTypeIdent);
-		builder.append("::");
-		builder.append(throwableIdentityHashCode);
-
-		return (ExceptionSensorData) sensorDataObjects.get(builder.toString());
+		return measurements.getExceptionSensorData(sensorTypeIdent, throwableIdentityHashCode);
 	}
 
 	/**
@@ -328,15 +295,7 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 	 */
 	@Override
 	public void addObjectStorage(long sensorTypeIdent, long methodIdent, String prefix, IObjectStorage objectStorage) {
-		StringBuilder builder = new StringBuilder();
-		if (null != prefix) {
-			builder.append(prefix);
-			builder.append('.');
-		}
-		builder.append(methodIdent);
-		builder.append('.');
-		builder.append(sensorTypeIdent);
-		objectStorages.put(builder.toString(), objectStorage);
+		measurements.addObjectStorage(sensorTypeIdent, methodIdent, prefix, objectStorage);
 		notifyListListeners();
 	}
 
@@ -345,15 +304,7 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 	 */
 	@Override
 	public IObjectStorage getObjectStorage(long sensorTypeIdent, long methodIdent, String prefix) {
-		StringBuilder builder = new StringBuilder();
-		if (null != prefix) {
-			builder.append(prefix);
-			builder.append('.');
-		}
-		builder.append(methodIdent);
-		builder.append('.');
-		builder.append(sensorTypeIdent);
-		return objectStorages.get(builder.toString());
+		return measurements.getObjectStorage(sensorTypeIdent, methodIdent, prefix);
 	}
 
 	/**
@@ -375,13 +326,41 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 	}
 
 	/**
-	 * Notify all registered listeners that a change occurred in the lists.
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void addListSizeListener(ListSizeListener listener) {
+		if (!listSizeListeners.contains(listener)) {
+			listSizeListeners.add(listener);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void removeListSizeListener(ListSizeListener listener) {
+		listSizeListeners.remove(listener);
+	}
+
+	/**
+	 * Notify all registered listeners that a change occurred in the lists. The size listeners only
+	 * get the size maintained by the measurement registry, the content is copied only if there are
+	 * list listeners registered.
 	 */
 	@SuppressWarnings({ "unchecked", "rawtypes" })
 	private void notifyListListeners() {
+		MeasurementRegistry registry = measurements;
+		if (!listSizeListeners.isEmpty()) {
+			int size = registry.size();
+			for (ListSizeListener listSizeListener : listSizeListeners) {
+				listSizeListener.sizeChanged(size);
+			}
+		}
+
 		if (!listListeners.isEmpty()) {
-			List temp = new ArrayList(sensorDataObjects.values());
-			temp.addAll(objectStorages.values());
+			List temp = new ArrayList(registry.getDataObjects());
+			temp.addAll(registry.getObjectStorages());
 			for (ListListener<?> listListener : listListeners) {
 				listListener.contentChanged(temp);
 			}
@@ -518,32 +497,26 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 	 *
 	 * @return <code>true</code> if new data were prepared, else <code>false</code>
 	 */
-	@SuppressWarnings("unchecked")
 	private boolean prepareData() {
 		// check if measurements are added in the last interval, if not nothing needs to be sent.
-		if (sensorDataObjects.isEmpty() && objectStorages.isEmpty()) {
+		if (measurements.isEmpty()) {
 			return false;
 		}
 
 		// switch the references so that new data is stored while sending
-		temp = sensorDataObjects;
-		sensorDataObjects = measurementsProcessing;
-		measurementsProcessing = (Map<String, DefaultData>) temp;
-
-		temp = objectStorages;
-		objectStorages = objectStoragesProcessing;
-		objectStoragesProcessing = (Map<String, IObjectStorage>) temp;
+		MeasurementRegistry temp = measurements;
+		measurements = measurementsProcessing;
+		measurementsProcessing = temp;
 
 		// copy the measurements values to a new list
-		List<DefaultData> tempList = new ArrayList<DefaultData>(measurementsProcessing.values());
-		measurementsProcessing.clear();
+		List<DefaultData> tempList = measurementsProcessing.getDataObjects();
 
 		// iterate the object storages and get the value objects which will be stored in the same
 		// list.
-		for (IObjectStorage objectStorage : objectStoragesProcessing.values()) {
+		for (IObjectStorage objectStorage : measurementsProcessing.getObjectStorages()) {
 			tempList.add(objectStorage.finalizeDataObject());
 		}
-		objectStoragesProcessing.clear();
+		measurementsProcessing.clear();
 
 		// Now give the strategy the list
 		bufferStrategy.addMeasurements(tempList);
@@ -570,6 +543,12 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 				List<DefaultData> dataToSend = bufferStrategy.next();
 				connection.sendDataObjects(dataToSend);
 				sendingExceptionNotice = false;
+				notifySentDataListeners(dataToSend);
+			}
+
+			// wait for the acknowledgements of the batches still in flight
+			if (connection.isConnected()) {
+				connection.flushDataObjects();
 			}
 		} catch (ServerUnavailableException serverUnavailableException) {
 			if (serverUnavailableException.isServerTimeout()) {
@@ -588,6 +567,20 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 		}
 	}
 
+	/**
+	 * Notifies all {@link SentDataListener}s that the given data objects were sent.
+	 *
+	 * @param dataObjects
+	 *            Sent data objects.
+	 */
+	private void notifySentDataListeners(List<DefaultData> dataObjects) {
+		if (CollectionUtils.isNotEmpty(sentDataListeners)) {
+			for (SentDataListener sentDataListener : sentDataListeners) {
+				sentDataListener.dataSent(dataObjects);
+			}
+		}
+	}
+
 	/**
 	 * This implementation of a {@link Thread} is used to prepare the data and value objects that
 	 * have to be sent to the CMR. Prepared data is put into {@link IBufferStrategy}.
@@ -674,12 +667,18 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 			super.run();
 
 			while (!isInterrupted()) {
-				// wait for activation if there is nothing to send
-				if (!bufferStrategy.hasNext()) {
+				// wait for activation if there is nothing to send, if there is no connection
+				// wait only for some time so that we don't spin until reconnected
+				boolean connected = connection.isConnected();
+				if (!bufferStrategy.hasNext() || !connected) {
 					synchronized (this) {
 						try {
 							if (!isInterrupted()) {
-								wait();
+								if (connected) {
+									wait();
+								} else {
+									wait(DISCONNECTED_WAIT_TIME);
+								}
 							}
 						} catch (InterruptedException e) {
 							log.error("Sending thread interrupted and shuting down!");
@@ -0,0 +1,153 @@
+package rocks.inspectit.agent.java.core.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.cliffc.high_scale_lib.NonBlockingHashMapLong;
+
+/**
+ * Concurrent map that is keyed by a pair of primitive long identifiers and an optional
+ * {@link String} prefix. The common case without a prefix is served by nested
+ * {@link NonBlockingHashMapLong} instances, thus the lookup and the update of an existing entry do
+ * not create any objects. The secondary map keyed by the prefix is only used when a prefix is
+ * passed.
+ *
+ * @param <E>
+ *            Type of the values.
+ *
+ * @author agent
+ *
+ */
+public class MeasurementMap<E> {
+
+	/**
+	 * Initial size of the inner maps. Usually there is only a small number of sensor types per
+	 * method.
+	 */
+	private static final int INNER_MAP_INITIAL_SIZE = 4;
+
+	/**
+	 * Entries without prefix.
+	 */
+	private final NonBlockingHashMapLong<NonBlockingHashMapLong<E>> entries = new NonBlockingHashMapLong<NonBlockingHashMapLong<E>>();
+
+	/**
+	 * Entries with the prefix.
+	 */
+	private final ConcurrentHashMap<String, NonBlockingHashMapLong<NonBlockingHashMapLong<E>>> prefixedEntries = new ConcurrentHashMap<String, NonBlockingHashMapLong<NonBlockingHashMapLong<E>>>();
+
+	/**
+	 * Returns the value for the given key.
+	 *
+	 * @param firstKey
+	 *            First part of the key.
+	 * @param secondKey
+	 *            Second part of the key.
+	 * @param prefix
+	 *            Optional prefix, can be <code>null</code>.
+	 * @return Value or <code>null</code> if no value is mapped to the key.
+	 */
+	public E get(long firstKey, long secondKey, String prefix) {
+		NonBlockingHashMapLong<NonBlockingHashMapLong<E>> map;
+		if (null == prefix) {
+			map = entries;
+		} else {
+			map = prefixedEntries.get(prefix);
+			if (null == map) {
+				return null;
+			}
+		}
+
+		NonBlockingHashMapLong<E> innerMap = map.get(firstKey);
+		if (null == innerMap) {
+			return null;
+		}
+		return innerMap.get(secondKey);
+	}
+
+	/**
+	 * Maps the value to the given key. Any value previously mapped to the key is replaced.
+	 *
+	 * @param firstKey
+	 *            First part of the key.
+	 * @param secondKey
+	 *            Second part of the key.
+	 * @param prefix
+	 *            Optional prefix, can be <code>null</code>.
+	 * @param value
+	 *            Value to store.
+	 * @return Value previously mapped to the key or <code>null</code> if there was none.
+	 */
+	public E put(long firstKey, long secondKey, String prefix, E value) {
+		NonBlockingHashMapLong<NonBlockingHashMapLong<E>> map;
+		if (null == prefix) {
+			map = entries;
+		} else {
+			map = prefixedEntries.get(prefix);
+			if (null == map) {
+				map = new NonBlockingHashMapLong<NonBlockingHashMapLong<E>>(INNER_MAP_INITIAL_SIZE);
+				NonBlockingHashMapLong<NonBlockingHashMapLong<E>> existing = prefixedEntries.putIfAbsent(prefix, map);
+				if (null != existing) {
+					map = existing;
+				}
+			}
+		}
+
+		NonBlockingHashMapLong<E> innerMap = map.get(firstKey);
+		if (null == innerMap) {
+			innerMap = new NonBlockingHashMapLong<E>(INNER_MAP_INITIAL_SIZE);
+			NonBlockingHashMapLong<E> existing = map.putIfAbsent(firstKey, innerMap);
+			if (null != existing) {
+				innerMap = existing;
+			}
+		}
+		return innerMap.put(secondKey, value);
+	}
+
+	/**
+	 * Returns if the map contains no values.
+	 *
+	 * @return Returns if the map contains no values.
+	 */
+	public boolean isEmpty() {
+		return entries.isEmpty() && prefixedEntries.isEmpty();
+	}
+
+	/**
+	 * Returns all values currently in the map in a new list.
+	 *
+	 * @return Returns all values currently in the map in a new list.
+	 */
+	public List<E> values() {
+		List<E> values = new ArrayList<E>();
+		addValues(entries, values);
+		for (NonBlockingHashMapLong<NonBlockingHashMapLong<E>> map : prefixedEntries.values()) {
+			addValues(map, values);
+		}
+		return values;
+	}
+
+	/**
+	 * Removes all values from the map.
+	 */
+	public void clear() {
+		entries.clear();
+		prefixedEntries.clear();
+	}
+
+	/**
+	 * Adds all values of the given nested map to the list.
+	 *
+	 * @param map
+	 *            Nested map.
+	 * @param values
+	 *            List to add the values to.
+	 */
+	private void addValues(NonBlockingHashMapLong<NonBlockingHashMapLong<E>> map, List<E> values) {
+		for (NonBlockingHashMapLong<E> innerMap : map.values()) {
+			values.addAll(innerMap.values());
+		}
+	}
+
+}
@@ -0,0 +1,255 @@
+package rocks.inspectit.agent.java.core.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.cliffc.high_scale_lib.NonBlockingHashMapLong;
+
+import rocks.inspectit.agent.java.core.IObjectStorage;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.MethodSensorData;
+import rocks.inspectit.shared.all.communication.SystemSensorData;
+import rocks.inspectit.shared.all.communication.data.ExceptionSensorData;
+import rocks.inspectit.shared.all.communication.data.JmxSensorValueData;
+
+/**
+ * Registry of the measurements and the object storages the {@link CoreService} collects between
+ * two preparations of the data. Method and exception data as well as the object storages are kept
+ * in {@link MeasurementMap}s keyed by the primitive ids, so that the sensors can look them up
+ * without creating a key object on every invocation.
+ * <p>
+ * The registry counts the entries it holds, so that the current size can be queried without
+ * iterating or copying the content.
+ *
+ * @author agent
+ *
+ */
+public class MeasurementRegistry {
+
+	/**
+	 * Method sensor data keyed by method id and sensor type id.
+	 */
+	private final MeasurementMap<MethodSensorData> methodSensorData = new MeasurementMap<MethodSensorData>();
+
+	/**
+	 * Exception sensor data keyed by sensor type id and throwable identity hash code.
+	 */
+	private final MeasurementMap<ExceptionSensorData> exceptionSensorData = new MeasurementMap<ExceptionSensorData>();
+
+	/**
+	 * Object storages keyed by method id and sensor type id.
+	 */
+	private final MeasurementMap<IObjectStorage> objectStorages = new MeasurementMap<IObjectStorage>();
+
+	/**
+	 * Platform sensor data keyed by the sensor type id.
+	 */
+	private final NonBlockingHashMapLong<SystemSensorData> platformSensorData = new NonBlockingHashMapLong<SystemSensorData>();
+
+	/**
+	 * JMX sensor data keyed by the sensor type id, object name, attribute name and time stamp.
+	 */
+	private final Map<String, JmxSensorValueData> jmxSensorValueData = new ConcurrentHashMap<String, JmxSensorValueData>();
+
+	/**
+	 * Number of the measurements and object storages in the registry.
+	 */
+	private final AtomicInteger size = new AtomicInteger();
+
+	/**
+	 * Adds the method sensor data.
+	 *
+	 * @param sensorTypeIdent
+	 *            The id of the sensor type.
+	 * @param methodIdent
+	 *            The id of the method.
+	 * @param prefix
+	 *            An arbitrary prefix {@link String}, can be <code>null</code>.
+	 * @param data
+	 *            The method sensor data.
+	 */
+	public void addMethodSensorData(long sensorTypeIdent, long methodIdent, String prefix, MethodSensorData data) {
+		countIfAdded(methodSensorData.put(methodIdent, sensorTypeIdent, prefix, data));
+	}
+
+	/**
+	 * Returns the method sensor data.
+	 *
+	 * @param sensorTypeIdent
+	 *            The id of the sensor type.
+	 * @param methodIdent
+	 *            The id of the method.
+	 * @param prefix
+	 *            An arbitrary prefix {@link String}, can be <code>null</code>.
+	 * @return The method sensor data or <code>null</code> if it does not exist.
+	 */
+	public MethodSensorData getMethodSensorData(long sensorTypeIdent, long methodIdent, String prefix) {
+		return methodSensorData.get(methodIdent, sensorTypeIdent, prefix);
+	}
+
+	/**
+	 * Adds the exception sensor data.
+	 *
+	 * @param sensorTypeIdent
+	 *            The id of the sensor type.
+	 * @param throwableIdentityHashCode
+	 *            The identity hash code of the throwable.
+	 * @param data
+	 *            The exception sensor data.
+	 */
+	public void addExceptionSensorData(long sensorTypeIdent, long throwableIdentityHashCode, ExceptionSensorData data) {
+		countIfAdded(exceptionSensorData.put(sensorTypeIdent, throwableIdentityHashCode, null, data));
+	}
+
+	/**
+	 * Returns the exception sensor data.
+	 *
+	 * @param sensorTypeIdent
+	 *            The id of the sensor type.
+	 * @param throwableIdentityHashCode
+	 *            The identity hash code of the throwable.
+	 * @return The exception sensor data or <code>null</code> if it does not exist.
+	 */
+	public ExceptionSensorData getExceptionSensorData(long sensorTypeIdent, long throwableIdentityHashCode) {
+		return exceptionSensorData.get(sensorTypeIdent, throwableIdentityHashCode, null);
+	}
+
+	/**
+	 * Adds the object storage.
+	 *
+	 * @param sensorTypeIdent
+	 *            The id of the sensor type.
+	 * @param methodIdent
+	 *            The id of the method.
+	 * @param prefix
+	 *            An arbitrary prefix {@link String}, can be <code>null</code>.
+	 * @param objectStorage
+	 *            The object storage.
+	 */
+	public void addObjectStorage(long sensorTypeIdent, long methodIdent, String prefix, IObjectStorage objectStorage) {
+		countIfAdded(objectStorages.put(methodIdent, sensorTypeIdent, prefix, objectStorage));
+	}
+
+	/**
+	 * Returns the object storage.
+	 *
+	 * @param sensorTypeIdent
+	 *            The id of the sensor type.
+	 * @param methodIdent
+	 *            The id of the method.
+	 * @param prefix
+	 *            An arbitrary prefix {@link String}, can be <code>null</code>.
+	 * @return The object storage or <code>null</code> if it does not exist.
+	 */
+	public IObjectStorage getObjectStorage(long sensorTypeIdent, long methodIdent, String prefix) {
+		return objectStorages.get(methodIdent, sensorTypeIdent, prefix);
+	}
+
+	/**
+	 * Adds the platform sensor data. Any existing data of the same sensor type is replaced.
+	 *
+	 * @param sensorTypeIdent
+	 *            The id of the sensor type.
+	 * @param data
+	 *            The system sensor data.
+	 */
+	public void addPlatformSensorData(long sensorTypeIdent, SystemSensorData data) {
+		countIfAdded(platformSensorData.put(sensorTypeIdent, data));
+	}
+
+	/**
+	 * Adds the JMX sensor value data.
+	 *
+	 * @param sensorTypeIdent
+	 *            The id of the sensor type.
+	 * @param objectName
+	 *            The name of the mBean.
+	 * @param attributeName
+	 *            The name of the attribute.
+	 * @param data
+	 *            The JMX sensor value data.
+	 */
+	public void addJmxSensorValueData(long sensorTypeIdent, String objectName, String attributeName, JmxSensorValueData data) {
+		StringBuilder builder = new StringBuilder();
+		builder.append(sensorTypeIdent);
+		builder.append('.');
+		builder.append(objectName);
+		builder.append('.');
+		builder.append(attributeName);
+		builder.append('.');
+		// Added timestamp to be able to send multiple objects to cmr.
+		builder.append(data.getTimeStamp().getTime());
+		countIfAdded(jmxSensorValueData.put(builder.toString(), data));
+	}
+
+	/**
+	 * Returns if there are no measurements and no object storages in the registry.
+	 *
+	 * @return Returns if there are no measurements and no object storages in the registry.
+	 */
+	public boolean isEmpty() {
+		return methodSensorData.isEmpty() && exceptionSensorData.isEmpty() && objectStorages.isEmpty() && platformSensorData.isEmpty() && jmxSensorValueData.isEmpty();
+	}
+
+	/**
+	 * Returns the number of measurements and object storages in the registry.
+	 *
+	 * @return Returns the number of measurements and object storages in the registry.
+	 */
+	public int size() {
+		return size.get();
+	}
+
+	/**
+	 * Returns all the data objects in the registry in a new list. Object storages are not
+	 * included.
+	 *
+	 * @return Returns all the data objects in the registry in a new list.
+	 */
+	public List<DefaultData> getDataObjects() {
+		List<DefaultData> dataObjects = new ArrayList<DefaultData>();
+		dataObjects.addAll(methodSensorData.values());
+		dataObjects.addAll(exceptionSensorData.values());
+		dataObjects.addAll(platformSensorData.values());
+		dataObjects.addAll(jmxSensorValueData.values());
+		return dataObjects;
+	}
+
+	/**
+	 * Returns all the object storages in the registry in a new list.
+	 *
+	 * @return Returns all the object storages in the registry in a new list.
+	 */
+	public List<IObjectStorage> getObjectStorages() {
+		return objectStorages.values();
+	}
+
+	/**
+	 * Removes all measurements and object storages from the registry.
+	 */
+	public void clear() {
+		methodSensorData.clear();
+		exceptionSensorData.clear();
+		objectStorages.clear();
+		platformSensorData.clear();
+		jmxSensorValueData.clear();
+		size.set(0);
+	}
+
+	/**
+	 * Increments the size if the put operation that returned the given previous value added a new
+	 * entry.
+	 *
+	 * @param previous
+	 *            Value previously mapped to the key.
+	 */
+	private void countIfAdded(Object previous) {
+		if (null == previous) {
+			size.incrementAndGet();
+		}
+	}
+
+}
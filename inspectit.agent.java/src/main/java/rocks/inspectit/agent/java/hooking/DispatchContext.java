@@ -0,0 +1,266 @@
+package rocks.inspectit.agent.java.hooking;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import rocks.inspectit.agent.java.util.TimingStack;
+
+/**
+ * Dispatching state of one thread. Marks executions as already in progress to not dispatch over
+ * and over again and tracks the started invocation sequences. Additionally keeps the stack of the
+ * overhead governing decisions of the currently executing methods, so that the after body calls
+ * follow the decision of the before body call. Values are kept as primitives, so that updating
+ * them does not create any objects.
+ * <p>
+ * The context also holds the {@link TimingStack} of each method hook, so that all hooks share one
+ * thread local. A hook allocates its slot once with {@link #newTimingStackSlot()}, the stacks of
+ * different hooks are kept apart as the dispatcher does not call the hooks in a nested order.
+ * <p>
+ * The context of the current thread is returned by {@link #get()}, each call is one thread local
+ * look-up.
+ *
+ * @author Patrice Bouillet
+ * @author agent
+ *
+ */
+public final class DispatchContext {
+
+	/**
+	 * Dispatch state of a method not governed by the overhead governor.
+	 */
+	public static final byte NOT_GOVERNED = 0;
+
+	/**
+	 * Dispatch state of a governed method whose hooks are executed.
+	 */
+	public static final byte DISPATCHED = 1;
+
+	/**
+	 * Dispatch state of a governed method whose hooks are skipped.
+	 */
+	public static final byte SKIPPED = 2;
+
+	/**
+	 * Thread local holding the context of each thread.
+	 */
+	private static final ThreadLocal<DispatchContext> CONTEXT = new ThreadLocal<DispatchContext>() {
+		@Override
+		protected DispatchContext initialValue() {
+			return new DispatchContext();
+		}
+	};
+
+	/**
+	 * Number of the allocated timing stack slots.
+	 */
+	private static final AtomicInteger TIMING_STACK_SLOTS = new AtomicInteger();
+
+	/**
+	 * If an execution of the dispatching is already in progress, we don't dispatch anything else
+	 * for this thread.
+	 */
+	private boolean executing;
+
+	/**
+	 * Count of the started invocation sequences, as nested ones can be started too.
+	 */
+	private long invocationSequenceCount;
+
+	/**
+	 * Hook of the currently started invocation sequence.
+	 */
+	private IHook invocationSequenceHook;
+
+	/**
+	 * Stack of the dispatch states of the currently executing methods.
+	 */
+	private byte[] dispatchStates = new byte[16];
+
+	/**
+	 * Size of the {@link #dispatchStates} stack.
+	 */
+	private int dispatchStatesSize;
+
+	/**
+	 * Timing stacks of the hooks by the slot.
+	 */
+	private TimingStack[] timingStacks = new TimingStack[8];
+
+	/**
+	 * Seed of the xorshift random generator, never <code>0</code>.
+	 */
+	private long random = ((Thread.currentThread().getId() * 0x9E3779B97F4A7C15L) ^ System.nanoTime()) | 1L;
+
+	/**
+	 * Private constructor, use {@link #get()}.
+	 */
+	private DispatchContext() {
+	}
+
+	/**
+	 * Returns the dispatch context of the current thread.
+	 *
+	 * @return Returns the dispatch context of the current thread.
+	 */
+	public static DispatchContext get() {
+		return CONTEXT.get();
+	}
+
+	/**
+	 * Allocates the slot of the timing stack for a hook. Must be called once per hook instance.
+	 *
+	 * @return Slot to pass to {@link #getTimingStack(int)}.
+	 */
+	public static int newTimingStackSlot() {
+		return TIMING_STACK_SLOTS.getAndIncrement();
+	}
+
+	/**
+	 * Returns the timing stack of the given slot for the current thread.
+	 *
+	 * @param slot
+	 *            Slot allocated by {@link #newTimingStackSlot()}.
+	 * @return {@link TimingStack}
+	 */
+	public TimingStack getTimingStack(int slot) {
+		if (slot >= timingStacks.length) {
+			timingStacks = Arrays.copyOf(timingStacks, Math.max(slot + 1, timingStacks.length << 1));
+		}
+		TimingStack timingStack = timingStacks[slot];
+		if (null == timingStack) {
+			timingStack = new TimingStack();
+			timingStacks[slot] = timingStack;
+		}
+		return timingStack;
+	}
+
+	/**
+	 * Defines if our own execution is active, and thus we have to skip the whole processing
+	 * (because it could happen, that we'll never end then).
+	 *
+	 * @return if own execution is active.
+	 */
+	public boolean isExecuting() {
+		return executing;
+	}
+
+	/**
+	 * Marks the execution as active or not.
+	 *
+	 * @param executing
+	 *            If execution is active.
+	 */
+	public void setExecuting(boolean executing) {
+		this.executing = executing;
+	}
+
+	/**
+	 * Registers start of an invocation sequence. The hook is saved only when no sequence is already
+	 * started.
+	 *
+	 * @param hook
+	 *            Invocation sequence hook.
+	 */
+	public void startInvocationSequence(IHook hook) {
+		invocationSequenceCount++;
+		if (null == invocationSequenceHook) {
+			invocationSequenceHook = hook;
+		}
+	}
+
+	/**
+	 * Registers end of an invocation sequence. The hook is removed when all started sequences
+	 * ended.
+	 */
+	public void endInvocationSequence() {
+		invocationSequenceCount--;
+		if (0 == invocationSequenceCount) {
+			invocationSequenceHook = null; // NOPMD
+		}
+	}
+
+	/**
+	 * Returns the hook of the currently started invocation sequence.
+	 *
+	 * @return Returns the hook of the currently started invocation sequence or <code>null</code>
+	 *         if no sequence is started.
+	 */
+	public IHook getInvocationSequenceHook() {
+		return invocationSequenceHook;
+	}
+
+	/**
+	 * Pushes the dispatch state of a method that starts executing.
+	 *
+	 * @param dispatchState
+	 *            Dispatch state.
+	 */
+	public void pushDispatchState(byte dispatchState) {
+		if (dispatchStatesSize == dispatchStates.length) {
+			dispatchStates = Arrays.copyOf(dispatchStates, dispatchStatesSize << 1);
+		}
+		dispatchStates[dispatchStatesSize++] = dispatchState;
+	}
+
+	/**
+	 * Replaces the dispatch state of the currently executing method.
+	 *
+	 * @param dispatchState
+	 *            Dispatch state.
+	 */
+	public void setDispatchState(byte dispatchState) {
+		if (dispatchStatesSize > 0) {
+			dispatchStates[dispatchStatesSize - 1] = dispatchState;
+		}
+	}
+
+	/**
+	 * Returns the dispatch state of the currently executing method.
+	 *
+	 * @return Dispatch state or {@link #NOT_GOVERNED} if stack is empty.
+	 */
+	public byte peekDispatchState() {
+		if (0 == dispatchStatesSize) {
+			return NOT_GOVERNED;
+		}
+		return dispatchStates[dispatchStatesSize - 1];
+	}
+
+	/**
+	 * Removes and returns the dispatch state of the method that finished executing.
+	 *
+	 * @return Dispatch state or {@link #NOT_GOVERNED} if stack is empty.
+	 */
+	public byte popDispatchState() {
+		if (0 == dispatchStatesSize) {
+			return NOT_GOVERNED;
+		}
+		return dispatchStates[--dispatchStatesSize];
+	}
+
+	/**
+	 * Returns the next value of the xorshift random generator.
+	 *
+	 * @return Random value.
+	 */
+	public long nextRandom() {
+		long x = random;
+		x ^= x << 13;
+		x ^= x >>> 7;
+		x ^= x << 17;
+		random = x;
+		return x;
+	}
+
+	/**
+	 * Decides if the current dispatch is measured, being one of the given number of dispatches.
+	 *
+	 * @param measurementRate
+	 *            Number of dispatches out of which one is measured, must be a power of two.
+	 * @return If the current dispatch is measured.
+	 */
+	public boolean isMeasured(int measurementRate) {
+		return 0 == (nextRandom() & (measurementRate - 1));
+	}
+
+}
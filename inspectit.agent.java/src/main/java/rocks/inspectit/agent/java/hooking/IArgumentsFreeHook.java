@@ -0,0 +1,13 @@
+package rocks.inspectit.agent.java.hooking;
+
+/**
+ * A marker interface for the method hooks that never read the method parameters and the return
+ * value, unless property accessors are defined for the method. Methods instrumented only for such
+ * hooks are dispatched with <code>null</code> instead of the parameter array and the result, thus
+ * the instrumented code does not create the array and does not box the primitives.
+ *
+ * @author agent
+ *
+ */
+public interface IArgumentsFreeHook {
+}
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Component;
 import rocks.inspectit.agent.java.config.impl.RegisteredSensorConfig;
 import rocks.inspectit.agent.java.config.impl.SpecialSensorConfig;
 import rocks.inspectit.agent.java.core.ICoreService;
+import rocks.inspectit.agent.java.hooking.DispatchContext;
 import rocks.inspectit.agent.java.hooking.IConstructorHook;
 import rocks.inspectit.agent.java.hooking.IHook;
 import rocks.inspectit.agent.java.hooking.IHookDispatcher;
@@ -24,6 +25,13 @@ import rocks.inspectit.shared.all.spring.logger.Log;
 /**
  * The hook dispatching service which is called by all the hooks throughout the instrumented target
  * application.
+ * <p>
+ * The hooks of methods not starting an invocation sequence are executed only as often as the
+ * {@link MethodOverheadGovernor} allows. Exception dispatches are never governed.
+ * <p>
+ * The per-thread state of the dispatching is kept in the {@link DispatchContext}, which is looked
+ * up once per dispatch call. The hooks do not receive the context, hooks that need it look it up
+ * on their own.
  *
  * @author Patrice Bouillet
  * @author Eduard Tudenhoefner
@@ -56,6 +64,12 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	@Autowired
 	private ExceptionSensor exceptionSensor;
 
+	/**
+	 * {@link MethodOverheadGovernor} deciding if the hooks of a method are executed.
+	 */
+	@Autowired
+	private MethodOverheadGovernor overheadGovernor;
+
 	/**
 	 * Contains all hooks. Using concurrent map as we need to enable thread-safety of
 	 * {@link #addMapping(long, RegisteredSensorConfig)}.
@@ -74,28 +88,13 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	 */
 	private final NonBlockingHashMapLong<SpecialSensorConfig> specialMappings = new NonBlockingHashMapLong<SpecialSensorConfig>();
 
-	/**
-	 * Stores the current Status of the invocation sequence tracer in a {@link ThreadLocal} object.
-	 */
-	private final InvocationSequenceCount invocationSequenceCount = new InvocationSequenceCount();
-
-	/**
-	 * A thread local holder object to save the current started invocation sequence.
-	 */
-	private final ThreadLocal<IHook> invocationSequenceHolder = new ThreadLocal<IHook>();
-
-	/**
-	 * If an execution of the dispatching is already in progress, we don't dispatch anything else
-	 * for this thread.
-	 */
-	private final ExecutionMarker executionMarker = new ExecutionMarker();
-
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public void addMapping(long id, RegisteredSensorConfig rsc) {
 		mappings.put(id, rsc);
+		overheadGovernor.addMethod(id);
 	}
 
 	/**
@@ -111,9 +110,14 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	 */
 	@Override
 	public void dispatchMethodBeforeBody(long id, Object object, Object[] parameters) {
-		if (!executionMarker.isActive()) {
+		DispatchContext context = DispatchContext.get();
+		if (!context.isExecuting()) {
+			// state is pushed first, so that the after body calls always find it
+			context.pushDispatchState(DispatchContext.NOT_GOVERNED);
 			try {
-				executionMarker.active();
+				context.setExecuting(true);
+				boolean measured = overheadGovernor.isMeasuring() && context.isMeasured(MethodOverheadGovernor.MEASUREMENT_RATE);
+				long startTime = measured ? System.nanoTime() : 0L;
 
 				try {
 					RegisteredSensorConfig rsc = mappings.get(id);
@@ -124,20 +128,23 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 						// access. Additionally, we need to save the count of the called
 						// invocation sensors, as another nested one could be started,
 						// too.
-						invocationSequenceCount.increment();
-
-						if (null == invocationSequenceHolder.get()) {
-							invocationSequenceHolder.set(invocationSequenceSensor.getHook());
+						context.startInvocationSequence(invocationSequenceSensor.getHook());
+					} else {
+						// methods starting invocation sequences are never degraded
+						if (!isDispatched(id, context)) {
+							return;
 						}
-					} else if (null != invocationSequenceHolder.get()) {
-						// We are executing the following sensor types in an invocation
-						// sequence context, thus we have to execute the before body
-						// method of the invocation sequence hook manually.
-						IMethodHook invocationHook = (IMethodHook) invocationSequenceHolder.get();
 
-						// The sensor type ID is not important here, thus we are passing
-						// a -1. It is already stored in the data object
-						invocationHook.beforeBody(id, -1, object, parameters, rsc);
+						if (null != context.getInvocationSequenceHook()) {
+							// We are executing the following sensor types in an invocation
+							// sequence context, thus we have to execute the before body
+							// method of the invocation sequence hook manually.
+							IMethodHook invocationHook = (IMethodHook) context.getInvocationSequenceHook();
+
+							// The sensor type ID is not important here, thus we are passing
+							// a -1. It is already stored in the data object
+							invocationHook.beforeBody(id, -1, object, parameters, rsc);
+						}
 					}
 
 					// Now iterate over all registered sensor types and execute them
@@ -146,11 +153,15 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 						IMethodHook methodHook = (IMethodHook) methodSensor.getHook();
 						methodHook.beforeBody(id, methodSensor.getSensorTypeConfig().getId(), object, parameters, rsc);
 					}
+
+					if (measured && (DispatchContext.DISPATCHED == context.peekDispatchState())) {
+						addMeasurement(id, startTime, true);
+					}
 				} catch (Throwable throwable) { // NOPMD
 					log.error("An error happened in the Hook Dispatcher! (before body)", throwable);
 				}
 			} finally {
-				executionMarker.deactive();
+				context.setExecuting(false);
 			}
 		}
 	}
@@ -160,9 +171,17 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	 */
 	@Override
 	public void dispatchFirstMethodAfterBody(long id, Object object, Object[] parameters, Object returnValue) {
-		if (!executionMarker.isActive()) {
+		DispatchContext context = DispatchContext.get();
+		if (!context.isExecuting()) {
+			byte dispatchState = context.peekDispatchState();
+			if (DispatchContext.SKIPPED == dispatchState) {
+				return;
+			}
+
 			try {
-				executionMarker.active();
+				context.setExecuting(true);
+				boolean measured = (DispatchContext.DISPATCHED == dispatchState) && overheadGovernor.isMeasuring() && context.isMeasured(MethodOverheadGovernor.MEASUREMENT_RATE);
+				long startTime = measured ? System.nanoTime() : 0L;
 
 				try {
 					RegisteredSensorConfig rsc = mappings.get(id);
@@ -173,11 +192,15 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 						IMethodHook methodHook = (IMethodHook) methodSensor.getHook();
 						methodHook.firstAfterBody(id, methodSensor.getSensorTypeConfig().getId(), object, parameters, returnValue, rsc);
 					}
+
+					if (measured) {
+						addMeasurement(id, startTime, false);
+					}
 				} catch (Throwable throwable) { // NOPMD
 					log.error("An error happened in the Hook Dispatcher! (after body)", throwable);
 				}
 			} finally {
-				executionMarker.deactive();
+				context.setExecuting(false);
 			}
 		}
 	}
@@ -187,18 +210,26 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	 */
 	@Override
 	public void dispatchSecondMethodAfterBody(long id, Object object, Object[] parameters, Object returnValue) {
-		if (!executionMarker.isActive()) {
+		DispatchContext context = DispatchContext.get();
+		if (!context.isExecuting()) {
+			byte dispatchState = context.popDispatchState();
+			if (DispatchContext.SKIPPED == dispatchState) {
+				return;
+			}
+
 			try {
-				executionMarker.active();
+				context.setExecuting(true);
+				boolean measured = (DispatchContext.DISPATCHED == dispatchState) && overheadGovernor.isMeasuring() && context.isMeasured(MethodOverheadGovernor.MEASUREMENT_RATE);
+				long startTime = measured ? System.nanoTime() : 0L;
 
 				try {
 					RegisteredSensorConfig rsc = mappings.get(id);
 
-					if (null != invocationSequenceHolder.get()) {
+					if (null != context.getInvocationSequenceHook()) {
 						// Need to replace the core service with the one from the invocation
 						// sequence so that all data objects can be associated to that invocation
 						// record.
-						ICoreService invocCoreService = (ICoreService) invocationSequenceHolder.get();
+						ICoreService invocCoreService = (ICoreService) context.getInvocationSequenceHook();
 
 						// Now iterate over all registered sensor types and execute them
 						// normal execution (sensor with highest priority first)
@@ -220,25 +251,25 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 					}
 
 					if (rsc.isStartsInvocation()) {
-						invocationSequenceCount.decrement();
-
-						if (0 == invocationSequenceCount.getCount()) {
-							invocationSequenceHolder.set(null);
-						}
-					} else if (null != invocationSequenceHolder.get()) {
+						context.endInvocationSequence();
+					} else if (null != context.getInvocationSequenceHook()) {
 						// We have to execute the after body method of the invocation sequence hook
 						// manually.
-						IMethodHook invocationHook = (IMethodHook) invocationSequenceHolder.get();
+						IMethodHook invocationHook = (IMethodHook) context.getInvocationSequenceHook();
 
 						// The sensor type ID is not important here, thus we are passing a -1. It is
 						// already stored in the data object
 						invocationHook.secondAfterBody(coreService, id, -1, object, parameters, returnValue, rsc);
 					}
+
+					if (measured) {
+						addMeasurement(id, startTime, false);
+					}
 				} catch (Throwable throwable) { // NOPMD
 					log.error("An error happened in the Hook Dispatcher! (second after body)", throwable);
 				}
 			} finally {
-				executionMarker.deactive();
+				context.setExecuting(false);
 			}
 		}
 	}
@@ -248,9 +279,10 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	 */
 	@Override
 	public void dispatchOnThrowInBody(long id, Object object, Object[] parameters, Object exceptionObject) {
-		if (!executionMarker.isActive()) {
+		DispatchContext context = DispatchContext.get();
+		if (!context.isExecuting()) {
 			try {
-				executionMarker.active();
+				context.setExecuting(true);
 
 				// rsc contains the settings for the actual method where the exception was thrown.
 				RegisteredSensorConfig rsc = mappings.get(id);
@@ -258,10 +290,10 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 				long sensorTypeId = sensorTypeConfig.getId();
 
 				ICoreService invocCoreService = null;
-				if (null != invocationSequenceHolder.get()) {
+				if (null != context.getInvocationSequenceHook()) {
 					// Need to replace the core service with the one from the invocation sequence so
 					// that all data objects can be associated to that invocation record.
-					invocCoreService = (ICoreService) invocationSequenceHolder.get();
+					invocCoreService = (ICoreService) context.getInvocationSequenceHook();
 				}
 
 				IExceptionSensorHook exceptionHook = (IExceptionSensorHook) exceptionSensor.getHook();
@@ -271,7 +303,7 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 					exceptionHook.dispatchOnThrowInBody(coreService, id, sensorTypeId, object, exceptionObject, parameters, rsc);
 				}
 			} finally {
-				executionMarker.deactive();
+				context.setExecuting(false);
 			}
 		}
 	}
@@ -281,19 +313,20 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	 */
 	@Override
 	public void dispatchBeforeCatch(long id, Object exceptionObject) {
-		if (!executionMarker.isActive()) {
+		DispatchContext context = DispatchContext.get();
+		if (!context.isExecuting()) {
 			try {
-				executionMarker.active();
+				context.setExecuting(true);
 
 				// rsc contains the settings of the actual method where the exception is catched.
 				RegisteredSensorConfig rsc = mappings.get(id);
 				long sensorTypeId = exceptionSensor.getSensorTypeConfig().getId();
 
 				ICoreService invocCoreService = null;
-				if (null != invocationSequenceHolder.get()) {
+				if (null != context.getInvocationSequenceHook()) {
 					// Need to replace the core service with the one from the invocation sequence so
 					// that all data objects can be associated to that invocation record.
-					invocCoreService = (ICoreService) invocationSequenceHolder.get();
+					invocCoreService = (ICoreService) context.getInvocationSequenceHook();
 				}
 
 				IExceptionSensorHook exceptionHook = (IExceptionSensorHook) exceptionSensor.getHook();
@@ -303,7 +336,7 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 					exceptionHook.dispatchBeforeCatchBody(coreService, id, sensorTypeId, exceptionObject, rsc);
 				}
 			} finally {
-				executionMarker.deactive();
+				context.setExecuting(false);
 			}
 		}
 	}
@@ -313,9 +346,10 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	 */
 	@Override
 	public void dispatchConstructorOnThrowInBody(long id, Object object, Object[] parameters, Object exceptionObject) {
-		if (!executionMarker.isActive()) {
+		DispatchContext context = DispatchContext.get();
+		if (!context.isExecuting()) {
 			try {
-				executionMarker.active();
+				context.setExecuting(true);
 
 				// rsc contains the settings for the actual constructor where the exception was
 				// thrown.
@@ -323,10 +357,10 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 				long sensorTypeId = exceptionSensor.getSensorTypeConfig().getId();
 
 				ICoreService invocCoreService = null;
-				if (null != invocationSequenceHolder.get()) {
+				if (null != context.getInvocationSequenceHook()) {
 					// Need to replace the core service with the one from the invocation sequence so
 					// that all data objects can be associated to that invocation record.
-					invocCoreService = (ICoreService) invocationSequenceHolder.get();
+					invocCoreService = (ICoreService) context.getInvocationSequenceHook();
 				}
 
 				IExceptionSensorHook exceptionHook = (IExceptionSensorHook) exceptionSensor.getHook();
@@ -336,7 +370,7 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 					exceptionHook.dispatchOnThrowInBody(coreService, id, sensorTypeId, object, exceptionObject, parameters, rsc);
 				}
 			} finally {
-				executionMarker.deactive();
+				context.setExecuting(false);
 			}
 		}
 	}
@@ -346,9 +380,10 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	 */
 	@Override
 	public void dispatchConstructorBeforeCatch(long id, Object exceptionObject) {
-		if (!executionMarker.isActive()) {
+		DispatchContext context = DispatchContext.get();
+		if (!context.isExecuting()) {
 			try {
-				executionMarker.active();
+				context.setExecuting(true);
 
 				// rsc contains the settings of the actual constructor where the exception is
 				// catched.
@@ -356,10 +391,10 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 				long sensorTypeId = exceptionSensor.getSensorTypeConfig().getId();
 
 				ICoreService invocCoreService = null;
-				if (null != invocationSequenceHolder.get()) {
+				if (null != context.getInvocationSequenceHook()) {
 					// Need to replace the core service with the one from the invocation sequence so
 					// that all data objects can be associated to that invocation record.
-					invocCoreService = (ICoreService) invocationSequenceHolder.get();
+					invocCoreService = (ICoreService) context.getInvocationSequenceHook();
 				}
 
 				IExceptionSensorHook exceptionHook = (IExceptionSensorHook) exceptionSensor.getHook();
@@ -369,7 +404,7 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 					exceptionHook.dispatchBeforeCatchBody(coreService, id, sensorTypeId, exceptionObject, rsc);
 				}
 			} finally {
-				executionMarker.deactive();
+				context.setExecuting(false);
 			}
 		}
 	}
@@ -379,9 +414,14 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	 */
 	@Override
 	public void dispatchConstructorBeforeBody(long id, Object[] parameters) {
-		if (!executionMarker.isActive()) {
+		DispatchContext context = DispatchContext.get();
+		if (!context.isExecuting()) {
+			// state is pushed first, so that the after body call always finds it
+			context.pushDispatchState(DispatchContext.NOT_GOVERNED);
 			try {
-				executionMarker.active();
+				context.setExecuting(true);
+				boolean measured = overheadGovernor.isMeasuring() && context.isMeasured(MethodOverheadGovernor.MEASUREMENT_RATE);
+				long startTime = measured ? System.nanoTime() : 0L;
 
 				try {
 					RegisteredSensorConfig rsc = mappings.get(id);
@@ -391,19 +431,23 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 						// to set it on the thread local map for later access. Additionally, we need
 						// to save the count of the called invocation sensors, as another nested one
 						// could be started, too.
-						invocationSequenceCount.increment();
-						if (null == invocationSequenceHolder.get()) {
-							invocationSequenceHolder.set(invocationSequenceSensor.getHook());
+						context.startInvocationSequence(invocationSequenceSensor.getHook());
+					} else {
+						// constructors starting invocation sequences are never degraded
+						if (!isDispatched(id, context)) {
+							return;
 						}
-					} else if (null != invocationSequenceHolder.get()) {
-						// We are executing the following sensor types in an invocation sequence
-						// context, thus we have to execute the before body method of the invocation
-						// sequence hook manually.
-						IConstructorHook invocationHook = (IConstructorHook) invocationSequenceHolder.get();
 
-						// The sensor type ID is not important here, thus we are passing a -1. It is
-						// already stored in the data object
-						invocationHook.beforeConstructor(id, -1, parameters, rsc);
+						if (null != context.getInvocationSequenceHook()) {
+							// We are executing the following sensor types in an invocation sequence
+							// context, thus we have to execute the before body method of the
+							// invocation sequence hook manually.
+							IConstructorHook invocationHook = (IConstructorHook) context.getInvocationSequenceHook();
+
+							// The sensor type ID is not important here, thus we are passing a -1.
+							// It is already stored in the data object
+							invocationHook.beforeConstructor(id, -1, parameters, rsc);
+						}
 					}
 
 					// Now iterate over all registered sensor types and execute them
@@ -412,11 +456,15 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 						IConstructorHook constructorHook = (IConstructorHook) methodSensor.getHook();
 						constructorHook.beforeConstructor(id, methodSensor.getSensorTypeConfig().getId(), parameters, rsc);
 					}
+
+					if (measured && (DispatchContext.DISPATCHED == context.peekDispatchState())) {
+						addMeasurement(id, startTime, true);
+					}
 				} catch (Throwable throwable) { // NOPMD
 					log.error("An error happened in the Hook Dispatcher! (before constructor)", throwable);
 				}
 			} finally {
-				executionMarker.deactive();
+				context.setExecuting(false);
 			}
 		}
 	}
@@ -426,18 +474,26 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	 */
 	@Override
 	public void dispatchConstructorAfterBody(long id, Object object, Object[] parameters) {
-		if (!executionMarker.isActive()) {
+		DispatchContext context = DispatchContext.get();
+		if (!context.isExecuting()) {
+			byte dispatchState = context.popDispatchState();
+			if (DispatchContext.SKIPPED == dispatchState) {
+				return;
+			}
+
 			try {
-				executionMarker.active();
+				context.setExecuting(true);
+				boolean measured = (DispatchContext.DISPATCHED == dispatchState) && overheadGovernor.isMeasuring() && context.isMeasured(MethodOverheadGovernor.MEASUREMENT_RATE);
+				long startTime = measured ? System.nanoTime() : 0L;
 
 				try {
 					RegisteredSensorConfig rsc = mappings.get(id);
 
-					if (null != invocationSequenceHolder.get()) {
+					if (null != context.getInvocationSequenceHook()) {
 						// Need to replace the core service with the one from the invocation
 						// sequence so that all data objects can be associated to that invocation
 						// record.
-						ICoreService invocCoreService = (ICoreService) invocationSequenceHolder.get();
+						ICoreService invocCoreService = (ICoreService) context.getInvocationSequenceHook();
 
 						for (IMethodSensor methodSensor : rsc.getMethodSensors()) {
 							IConstructorHook constructorHook = (IConstructorHook) methodSensor.getHook();
@@ -458,25 +514,25 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 					}
 
 					if (rsc.isStartsInvocation()) {
-						invocationSequenceCount.decrement();
-
-						if (0 == invocationSequenceCount.getCount()) {
-							invocationSequenceHolder.set(null);
-						}
-					} else if (null != invocationSequenceHolder.get()) {
+						context.endInvocationSequence();
+					} else if (null != context.getInvocationSequenceHook()) {
 						// We have to execute the after body method of the invocation
 						// sequence hook manually.
-						IConstructorHook invocationHook = (IConstructorHook) invocationSequenceHolder.get();
+						IConstructorHook invocationHook = (IConstructorHook) context.getInvocationSequenceHook();
 
 						// The sensor type ID is not important here, thus we are passing
 						// a -1. It is already stored in the data object
 						invocationHook.afterConstructor(coreService, id, -1, object, parameters, rsc);
 					}
+
+					if (measured) {
+						addMeasurement(id, startTime, false);
+					}
 				} catch (Throwable throwable) { // NOPMD
 					log.error("An error happened in the Hook Dispatcher! (after constructor)", throwable);
 				}
 			} finally {
-				executionMarker.deactive();
+				context.setExecuting(false);
 			}
 		}
 	}
@@ -524,88 +580,49 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	}
 
 	/**
-	 * Private inner class used to track the count of the started invocation sequences in one
-	 * thread. Thus it extends {@link ThreadLocal} to provide a unique number for every Thread.
-	 *
-	 * @author Patrice Bouillet
+	 * Decides if the hooks of the method are executed for the current invocation, based on the
+	 * sampling rate the {@link MethodOverheadGovernor} defined for the method. The decision is
+	 * saved as the state of the current dispatch, so that the after body calls follow it.
 	 *
+	 * @param id
+	 *            Method id.
+	 * @param context
+	 *            {@link DispatchContext} of the current thread.
+	 * @return If hooks should be executed.
 	 */
-	private static class InvocationSequenceCount extends ThreadLocal<Long> {
-
-		/**
-		 * {@inheritDoc}
-		 */
-		@Override
-		protected Long initialValue() {
-			return Long.valueOf(0);
-		}
-
-		/**
-		 * Increments the stored value.
-		 */
-		public void increment() {
-			super.set(Long.valueOf(super.get().longValue() + 1));
+	private boolean isDispatched(long id, DispatchContext context) {
+		MethodOverhead methodOverhead = overheadGovernor.getMethodOverhead(id);
+		if (null == methodOverhead) {
+			return true;
 		}
 
-		/**
-		 * Decrements the stored value.
-		 */
-		public void decrement() {
-			super.set(Long.valueOf(super.get().longValue() - 1));
+		if (methodOverhead.isDispatched(context.nextRandom())) {
+			context.setDispatchState(DispatchContext.DISPATCHED);
+			return true;
+		} else {
+			context.setDispatchState(DispatchContext.SKIPPED);
+			return false;
 		}
-
-		/**
-		 * Returns the current count.
-		 *
-		 * @return The count.
-		 */
-		public long getCount() {
-			return super.get().longValue();
-		}
-
 	}
 
 	/**
-	 * ThreadLocal execution marker which is used to mark executions as already in progress to not
-	 * dispatch over and over again.
-	 *
-	 * @author Patrice Bouillet
+	 * Adds the time passed since the start time to the overhead of the method. As only one of
+	 * {@link MethodOverheadGovernor#MEASUREMENT_RATE} dispatches is measured, the time is scaled
+	 * by the rate.
 	 *
+	 * @param id
+	 *            Method id.
+	 * @param startTime
+	 *            Start of the dispatch in nanoseconds.
+	 * @param invocation
+	 *            If the dispatch started an invocation.
 	 */
-	private static class ExecutionMarker extends ThreadLocal<Boolean> {
-
-		/**
-		 * {@inheritDoc}
-		 */
-		@Override
-		protected Boolean initialValue() {
-			return Boolean.FALSE;
+	private void addMeasurement(long id, long startTime, boolean invocation) {
+		long time = System.nanoTime() - startTime;
+		MethodOverhead methodOverhead = overheadGovernor.getMethodOverhead(id);
+		if (null != methodOverhead) {
+			methodOverhead.addMeasurement(time * MethodOverheadGovernor.MEASUREMENT_RATE, invocation ? MethodOverheadGovernor.MEASUREMENT_RATE : 0);
 		}
-
-		/**
-		 * Execution is active.
-		 */
-		public void active() {
-			super.set(Boolean.TRUE);
-		}
-
-		/**
-		 * Execution is deactive.
-		 */
-		public void deactive() {
-			super.set(Boolean.FALSE);
-		}
-
-		/**
-		 * Defines if our own execution is active, and thus we have to skip the whole processing
-		 * (because it could happen, that we'll never end then).
-		 *
-		 * @return if own execution is active.
-		 */
-		public boolean isActive() {
-			return super.get().booleanValue();
-		}
-
 	}
 
 }
@@ -0,0 +1,113 @@
+package rocks.inspectit.agent.java.hooking.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Overhead of the hooks of one instrumented method and the resulting sampling rate. The
+ * {@link HookDispatcher} measures only some of the dispatches and adds the measured time scaled
+ * by the measurement rate, thus the values are estimations. The {@link MethodOverheadGovernor}
+ * drains the values periodically and decides on the sampling rate.
+ *
+ * @author agent
+ *
+ */
+public class MethodOverhead {
+
+	/**
+	 * Sampling rate when hooks are executed for every invocation.
+	 */
+	public static final int ALL_INVOCATIONS = 1;
+
+	/**
+	 * Sampling rate when hooks are disabled.
+	 */
+	public static final int DISABLED = 0;
+
+	/**
+	 * Estimated time in nanoseconds spent in the hooks since the last drain.
+	 */
+	private final AtomicLong hookTime = new AtomicLong();
+
+	/**
+	 * Estimated number of dispatched invocations since the last drain.
+	 */
+	private final AtomicLong invocations = new AtomicLong();
+
+	/**
+	 * Hooks are executed for one of {@link #samplingRate} invocations. Always a power of two or
+	 * {@link #DISABLED}.
+	 */
+	private volatile int samplingRate = ALL_INVOCATIONS;
+
+	/**
+	 * Decides if the hooks should be executed for the invocation.
+	 *
+	 * @param random
+	 *            Random value to sample with.
+	 * @return <code>true</code> if hooks should be executed
+	 */
+	public boolean isDispatched(long random) {
+		int rate = samplingRate;
+		if (ALL_INVOCATIONS == rate) {
+			return true;
+		} else if (DISABLED == rate) {
+			return false;
+		} else {
+			return 0 == (random & (rate - 1));
+		}
+	}
+
+	/**
+	 * Adds the measured time of one dispatch.
+	 *
+	 * @param time
+	 *            Estimated hook time in nanoseconds.
+	 * @param invocationCount
+	 *            Estimated number of invocations the measurement stands for, <code>0</code> if
+	 *            the dispatch did not start an invocation.
+	 */
+	public void addMeasurement(long time, long invocationCount) {
+		hookTime.addAndGet(time);
+		if (invocationCount > 0) {
+			invocations.addAndGet(invocationCount);
+		}
+	}
+
+	/**
+	 * Returns the estimated hook time since the last call and resets it.
+	 *
+	 * @return Estimated hook time in nanoseconds.
+	 */
+	public long drainHookTime() {
+		return hookTime.getAndSet(0);
+	}
+
+	/**
+	 * Returns the estimated number of dispatched invocations since the last call and resets it.
+	 *
+	 * @return Estimated number of invocations.
+	 */
+	public long drainInvocations() {
+		return invocations.getAndSet(0);
+	}
+
+	/**
+	 * Gets {@link #samplingRate}.
+	 *
+	 * @return {@link #samplingRate}
+	 */
+	public int getSamplingRate() {
+		return samplingRate;
+	}
+
+	/**
+	 * Sets {@link #samplingRate}.
+	 *
+	 * @param samplingRate
+	 *            New value for {@link #samplingRate}, must be a power of two or {@link #DISABLED}.
+	 */
+	public void setSamplingRate(int samplingRate) {
+		this.samplingRate = samplingRate;
+	}
+
+}
@@ -0,0 +1,312 @@
+package rocks.inspectit.agent.java.hooking.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.cliffc.high_scale_lib.NonBlockingHashMapLong;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import rocks.inspectit.agent.java.config.IConfigurationStorage;
+import rocks.inspectit.agent.java.config.StorageException;
+import rocks.inspectit.agent.java.connection.IConnection;
+import rocks.inspectit.agent.java.connection.ServerUnavailableException;
+import rocks.inspectit.agent.java.core.IPlatformManager;
+import rocks.inspectit.agent.java.core.IdNotAvailableException;
+import rocks.inspectit.shared.all.spring.logger.Log;
+
+/**
+ * Limits the overhead the hooks cause in each instrumented method. The {@link HookDispatcher}
+ * measures the hook time of the methods in {@link MethodOverhead} objects. The governor
+ * periodically compares the measured time with the budget defined in the agent configuration.
+ * Methods over the budget are first sampled (hooks executed for one of N invocations) and if even
+ * the highest sampling rate does not help, their hooks are disabled. The changes are reported to the
+ * CMR.
+ * <p>
+ * Methods stay degraded until they are instrumented again, as no measurement is available for the
+ * invocations that are not dispatched.
+ *
+ * @author agent
+ *
+ */
+@Component
+public class MethodOverheadGovernor implements InitializingBean, DisposableBean {
+
+	/**
+	 * One of this many dispatches is measured. Must be a power of two.
+	 */
+	public static final int MEASUREMENT_RATE = 64;
+
+	/**
+	 * Period of the overhead checks in seconds.
+	 */
+	private static final long CHECK_PERIOD = 10;
+
+	/**
+	 * Highest sampling rate before the hooks are disabled.
+	 */
+	private static final int MAX_SAMPLING_RATE = 1024;
+
+	/**
+	 * Minimum number of estimated invocations in one check period needed to degrade a method, so
+	 * that methods are not degraded due to few measurements.
+	 */
+	private static final long MIN_INVOCATIONS = 1024;
+
+	/**
+	 * Runnable that checks the overhead.
+	 */
+	private final Runnable checkRunner = new Runnable() {
+
+		@Override
+		public void run() {
+			checkOverhead();
+		}
+
+	};
+
+	/**
+	 * The logger of the class.
+	 */
+	@Log
+	Logger log;
+
+	/**
+	 * Configuration storage to read the budget from.
+	 */
+	@Autowired
+	private IConfigurationStorage configurationStorage;
+
+	/**
+	 * Connection to report the changes.
+	 */
+	@Autowired
+	private IConnection connection;
+
+	/**
+	 * Platform manager.
+	 */
+	@Autowired
+	private IPlatformManager platformManager;
+
+	/**
+	 * Core-service executor service.
+	 */
+	@Autowired
+	@Qualifier("coreServiceExecutorService")
+	private ScheduledExecutorService executorService;
+
+	/**
+	 * Overhead of the methods, keyed by the method id.
+	 */
+	private final NonBlockingHashMapLong<MethodOverhead> methodOverheads = new NonBlockingHashMapLong<MethodOverhead>();
+
+	/**
+	 * Changed sampling rates not yet reported to the CMR. Access must be synchronized on the map.
+	 */
+	private final Map<Long, Integer> pendingChanges = new HashMap<Long, Integer>();
+
+	/**
+	 * Budget in microseconds of hook time per second, <code>0</code> when the overhead is not
+	 * limited.
+	 */
+	private volatile long budget;
+
+	/**
+	 * Time in nanoseconds of the last check.
+	 */
+	private long lastCheckTime;
+
+	/**
+	 * ScheduledFuture representing the pending check task.
+	 */
+	private ScheduledFuture<?> scheduledTask;
+
+	/**
+	 * Starts tracking the overhead of the method. An existing degradation of the method is
+	 * removed, as the method was instrumented again.
+	 *
+	 * @param methodId
+	 *            Method id.
+	 */
+	public void addMethod(long methodId) {
+		MethodOverhead previous = methodOverheads.put(methodId, new MethodOverhead());
+		if ((null != previous) && (MethodOverhead.ALL_INVOCATIONS != previous.getSamplingRate())) {
+			synchronized (pendingChanges) {
+				pendingChanges.put(methodId, MethodOverhead.ALL_INVOCATIONS);
+			}
+		}
+	}
+
+	/**
+	 * Returns the overhead of the method.
+	 *
+	 * @param methodId
+	 *            Method id.
+	 * @return {@link MethodOverhead} or <code>null</code> if method is not tracked.
+	 */
+	public MethodOverhead getMethodOverhead(long methodId) {
+		return methodOverheads.get(methodId);
+	}
+
+	/**
+	 * Returns if the dispatches should be measured, which is only when the overhead is limited.
+	 *
+	 * @return If the dispatches should be measured.
+	 */
+	public boolean isMeasuring() {
+		return budget > 0;
+	}
+
+	/**
+	 * Compares the hook time of each method since the last check with the budget and degrades the
+	 * methods over the budget.
+	 */
+	void checkOverhead() {
+		long currentTime = System.nanoTime();
+		long elapsedTime = currentTime - lastCheckTime;
+		lastCheckTime = currentTime;
+		updateBudget();
+
+		if (budget > 0) {
+			// budget is in micros per second, thus nanos per millisecond
+			double allowedTime = (budget * (double) elapsedTime) / TimeUnit.MILLISECONDS.toNanos(1);
+			for (Entry<Long, MethodOverhead> entry : methodOverheads.entrySet()) {
+				MethodOverhead methodOverhead = entry.getValue();
+				long hookTime = methodOverhead.drainHookTime();
+				long invocations = methodOverhead.drainInvocations();
+				int samplingRate = methodOverhead.getSamplingRate();
+
+				if ((MethodOverhead.DISABLED == samplingRate) || (invocations < MIN_INVOCATIONS) || (hookTime <= allowedTime)) {
+					continue;
+				}
+
+				int degradedSamplingRate = getDegradedSamplingRate(samplingRate, hookTime / allowedTime);
+				methodOverhead.setSamplingRate(degradedSamplingRate);
+				synchronized (pendingChanges) {
+					pendingChanges.put(entry.getKey(), degradedSamplingRate);
+				}
+
+				if (log.isInfoEnabled()) {
+					long hookTimePerSecond = (long) (((double) hookTime / elapsedTime) * TimeUnit.SECONDS.toMicros(1));
+					long invocationsPerSecond = (long) (((double) invocations / elapsedTime) * TimeUnit.SECONDS.toNanos(1));
+					String action = (MethodOverhead.DISABLED == degradedSamplingRate) ? "disabled" : "executed for one of " + degradedSamplingRate + " invocations";
+					log.info("Hooks of the method with id " + entry.getKey() + " caused " + hookTimePerSecond + " micros per second of overhead (" + invocationsPerSecond
+							+ " invocations per second, budget " + budget + " micros per second). Hooks are now " + action + ".");
+				}
+			}
+		}
+
+		reportChanges();
+	}
+
+	/**
+	 * Returns the sampling rate that brings the overhead under the budget. The current sampling
+	 * rate is multiplied by the next power of two of the overhead ratio. If that exceeds the
+	 * {@link #MAX_SAMPLING_RATE} the hooks are disabled.
+	 *
+	 * @param samplingRate
+	 *            Current sampling rate.
+	 * @param overheadRatio
+	 *            Ratio between the measured hook time and the budget, bigger than one.
+	 * @return New sampling rate.
+	 */
+	static int getDegradedSamplingRate(int samplingRate, double overheadRatio) {
+		long degradedSamplingRate = samplingRate << 1;
+		double reduction = 2d;
+		while ((reduction < overheadRatio) && (degradedSamplingRate <= MAX_SAMPLING_RATE)) {
+			degradedSamplingRate <<= 1;
+			reduction *= 2d;
+		}
+
+		if (degradedSamplingRate > MAX_SAMPLING_RATE) {
+			return MethodOverhead.DISABLED;
+		} else {
+			return (int) degradedSamplingRate;
+		}
+	}
+
+	/**
+	 * Reads the budget from the configuration.
+	 */
+	private void updateBudget() {
+		try {
+			budget = configurationStorage.getMethodOverheadBudget();
+		} catch (StorageException e) {
+			budget = 0;
+		}
+	}
+
+	/**
+	 * Reports the pending changes to the CMR. Changes that could not be reported are kept for the
+	 * next check, unless they have been replaced in the meantime.
+	 */
+	private void reportChanges() {
+		Map<Long, Integer> changes;
+		synchronized (pendingChanges) {
+			if (pendingChanges.isEmpty()) {
+				return;
+			}
+			changes = new HashMap<Long, Integer>(pendingChanges);
+			pendingChanges.clear();
+		}
+
+		try {
+			if (connection.isConnected()) {
+				connection.methodSamplingChanged(platformManager.getPlatformId(), changes);
+				return;
+			}
+		} catch (IdNotAvailableException e) {
+			if (log.isDebugEnabled()) {
+				log.debug("Method sampling changes could not be sent. No platform id available.", e);
+			}
+		} catch (ServerUnavailableException e) {
+			if (log.isDebugEnabled()) {
+				log.debug("Method sampling changes could not be sent. Server not available.", e);
+			}
+		}
+
+		synchronized (pendingChanges) {
+			for (Entry<Long, Integer> entry : changes.entrySet()) {
+				if (!pendingChanges.containsKey(entry.getKey())) {
+					pendingChanges.put(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Starts the periodic overhead checks.
+	 */
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		updateBudget();
+		lastCheckTime = System.nanoTime();
+		if (null == scheduledTask) {
+			scheduledTask = executorService.scheduleWithFixedDelay(checkRunner, CHECK_PERIOD, CHECK_PERIOD, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Stops the overhead checks.
+	 */
+	@Override
+	public void destroy() throws Exception {
+		if (null != scheduledTask) {
+			scheduledTask.cancel(false);
+		}
+	}
+
+}
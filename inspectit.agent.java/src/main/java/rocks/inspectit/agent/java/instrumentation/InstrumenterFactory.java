@@ -2,11 +2,19 @@ package rocks.inspectit.agent.java.instrumentation;
 
 import info.novatec.inspectit.org.objectweb.asm.MethodVisitor;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import rocks.inspectit.agent.java.hooking.IArgumentsFreeHook;
 import rocks.inspectit.agent.java.instrumentation.asm.ConstructorInstrumenter;
 import rocks.inspectit.agent.java.instrumentation.asm.MethodInstrumenter;
 import rocks.inspectit.agent.java.instrumentation.asm.SpecialMethodInstrumenter;
+import rocks.inspectit.agent.java.sensor.method.IMethodSensor;
 import rocks.inspectit.shared.all.instrumentation.config.IMethodInstrumentationPoint;
 import rocks.inspectit.shared.all.instrumentation.config.impl.SensorInstrumentationPoint;
 import rocks.inspectit.shared.all.instrumentation.config.impl.SpecialInstrumentationPoint;
@@ -16,12 +24,27 @@ import rocks.inspectit.shared.all.instrumentation.config.impl.SpecialInstrumenta
  * {@link #getMethodVisitor(IMethodInstrumentationPoint, MethodVisitor, int, String, String, boolean)}
  * method to return the correct {@link MethodVisitor} based on the
  * {@link IMethodInstrumentationPoint}.
+ * <p>
+ * For the {@link SensorInstrumentationPoint} the factory decides if the method parameters and the
+ * return value must be passed to the dispatcher. They are not passed if all sensors of the point
+ * have an {@link IArgumentsFreeHook} and no property accessors are defined.
  *
  * @author Ivan Senic
  *
  */
 @Component
-public class InstrumenterFactory {
+public class InstrumenterFactory implements InitializingBean {
+
+	/**
+	 * All initialized {@link IMethodSensor}s.
+	 */
+	@Autowired(required = false)
+	private List<IMethodSensor> methodSensors;
+
+	/**
+	 * Ids of the sensors having the {@link IArgumentsFreeHook}.
+	 */
+	private Set<Long> argumentsFreeSensorIds = new HashSet<Long>(0);
 
 	/**
 	 * Returns correct {@link MethodVisitor} based on the given instrumentation point.
@@ -51,10 +74,11 @@ public class InstrumenterFactory {
 
 		if (instrumentationPoint instanceof SensorInstrumentationPoint) {
 			SensorInstrumentationPoint sensorInstrumentationPoint = (SensorInstrumentationPoint) instrumentationPoint;
+			boolean argumentsNeeded = isArgumentsNeeded(sensorInstrumentationPoint);
 			if (sensorInstrumentationPoint.isConstructor()) {
-				return new ConstructorInstrumenter(superMethodVisitor, access, name, desc, sensorInstrumentationPoint.getId(), enhancedExceptionSensor);
+				return new ConstructorInstrumenter(superMethodVisitor, access, name, desc, sensorInstrumentationPoint.getId(), enhancedExceptionSensor, argumentsNeeded);
 			} else {
-				return new MethodInstrumenter(superMethodVisitor, access, name, desc, sensorInstrumentationPoint.getId(), enhancedExceptionSensor);
+				return new MethodInstrumenter(superMethodVisitor, access, name, desc, sensorInstrumentationPoint.getId(), enhancedExceptionSensor, argumentsNeeded);
 			}
 		} else if (instrumentationPoint instanceof SpecialInstrumentationPoint) {
 			SpecialInstrumentationPoint specialInstrumentationPoint = (SpecialInstrumentationPoint) instrumentationPoint;
@@ -63,4 +87,44 @@ public class InstrumenterFactory {
 		throw new IllegalArgumentException("The instrumentation point " + instrumentationPoint + " is not known to the InstrumenterFactory.");
 	}
 
+	/**
+	 * Returns if the method parameters and the return value must be passed to the dispatcher for
+	 * the given instrumentation point.
+	 *
+	 * @param sensorInstrumentationPoint
+	 *            {@link SensorInstrumentationPoint}
+	 * @return <code>false</code> only if the point has sensors, all of them have the
+	 *         {@link IArgumentsFreeHook} and no property accessors are defined
+	 */
+	private boolean isArgumentsNeeded(SensorInstrumentationPoint sensorInstrumentationPoint) {
+		long[] sensorIds = sensorInstrumentationPoint.getSensorIds();
+		if ((null == sensorIds) || (0 == sensorIds.length) || sensorInstrumentationPoint.isPropertyAccess()) {
+			return true;
+		}
+
+		for (long sensorId : sensorIds) {
+			if (!argumentsFreeSensorIds.contains(sensorId)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		if (null == methodSensors) {
+			return;
+		}
+
+		for (IMethodSensor methodSensor : methodSensors) {
+			// sensors not defined in the configuration are not initialized
+			if ((null != methodSensor.getSensorTypeConfig()) && (methodSensor.getHook() instanceof IArgumentsFreeHook)) {
+				argumentsFreeSensorIds.add(methodSensor.getSensorTypeConfig().getId());
+			}
+		}
+	}
+
 }
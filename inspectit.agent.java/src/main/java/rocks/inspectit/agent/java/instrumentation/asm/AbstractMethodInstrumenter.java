@@ -33,6 +33,12 @@ public abstract class AbstractMethodInstrumenter extends AdviceAdapter {
 	 */
 	protected boolean enhancedExceptionSensor;
 
+	/**
+	 * If the method parameters and the return value must be passed to the dispatcher. If not,
+	 * <code>null</code> is passed instead, so that no array is created and no primitives are boxed.
+	 */
+	protected boolean argumentsNeeded;
+
 	/**
 	 * The label for the start of the try/finally or try/catch/finally block that we are adding.
 	 */
@@ -71,9 +77,33 @@ public abstract class AbstractMethodInstrumenter extends AdviceAdapter {
 	 *            Marker declaring if enhanced exception sensor is active.
 	 */
 	protected AbstractMethodInstrumenter(MethodVisitor mv, int access, String name, String desc, long methodId, boolean enhancedExceptionSensor) {
+		this(mv, access, name, desc, methodId, enhancedExceptionSensor, true);
+	}
+
+	/**
+	 * Constructor for the method instrumenter that additionally defines if the method parameters
+	 * and the return value must be passed to the dispatcher.
+	 *
+	 * @param mv
+	 *            Super method visitor.
+	 * @param access
+	 *            Method access code.
+	 * @param name
+	 *            Method name.
+	 * @param desc
+	 *            Method description.
+	 * @param methodId
+	 *            Method id that will be passed to {@link IHookDispatcher}.
+	 * @param enhancedExceptionSensor
+	 *            Marker declaring if enhanced exception sensor is active.
+	 * @param argumentsNeeded
+	 *            If the method parameters and the return value must be passed to the dispatcher.
+	 */
+	protected AbstractMethodInstrumenter(MethodVisitor mv, int access, String name, String desc, long methodId, boolean enhancedExceptionSensor, boolean argumentsNeeded) {
 		super(Opcodes.ASM5, mv, access, name, desc);
 		this.methodId = methodId;
 		this.enhancedExceptionSensor = enhancedExceptionSensor;
+		this.argumentsNeeded = argumentsNeeded;
 		this.isStatic = (access & Opcodes.ACC_STATIC) != 0;
 	}
 
@@ -136,6 +166,17 @@ public abstract class AbstractMethodInstrumenter extends AdviceAdapter {
 		mv.visitInsn(Opcodes.ACONST_NULL);
 	}
 
+	/**
+	 * Loads the parameter array on the stack if the arguments are needed, otherwise pushes null.
+	 */
+	protected void loadArgArrayIfNeeded() {
+		if (argumentsNeeded) {
+			loadArgArray();
+		} else {
+			pushNull();
+		}
+	}
+
 	/**
 	 * Gets {@link #methodId}.
 	 *
@@ -154,4 +195,13 @@ public abstract class AbstractMethodInstrumenter extends AdviceAdapter {
 		return this.enhancedExceptionSensor;
 	}
 
+	/**
+	 * Gets {@link #argumentsNeeded}.
+	 *
+	 * @return {@link #argumentsNeeded}
+	 */
+	public boolean isArgumentsNeeded() {
+		return this.argumentsNeeded;
+	}
+
 }
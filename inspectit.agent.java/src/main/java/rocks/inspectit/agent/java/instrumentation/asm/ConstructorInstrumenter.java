@@ -37,6 +37,31 @@ public class ConstructorInstrumenter extends AbstractMethodInstrumenter {
 		super(mv, access, name, desc, methodId, enhancedExceptionSensor);
 	}
 
+	/**
+	 * Constructor that additionally defines if the constructor parameters must be passed to the
+	 * dispatcher.
+	 *
+	 * @param mv
+	 *            Super method visitor.
+	 * @param access
+	 *            Method access code.
+	 * @param name
+	 *            Method name.
+	 * @param desc
+	 *            Method description.
+	 * @param methodId
+	 *            Method id that will be passed to {@link IHookDispatcher}.
+	 * @param enhancedExceptionSensor
+	 *            Marker declaring if enhanced exception sensor is active.
+	 * @param argumentsNeeded
+	 *            If the constructor parameters must be passed to the dispatcher.
+	 * @see AbstractMethodInstrumenter#AbstractMethodInstrumenter(MethodVisitor, int, String,
+	 *      String, long, boolean, boolean)
+	 */
+	public ConstructorInstrumenter(MethodVisitor mv, int access, String name, String desc, long methodId, boolean enhancedExceptionSensor, boolean argumentsNeeded) {
+		super(mv, access, name, desc, methodId, enhancedExceptionSensor, argumentsNeeded);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -124,7 +149,7 @@ public class ConstructorInstrumenter extends AbstractMethodInstrumenter {
 		push(methodId);
 
 		// then parameters
-		loadArgArray();
+		loadArgArrayIfNeeded();
 
 		mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, IInstrumenterConstant.IHOOK_DISPATCHER_INTERNAL_NAME, "dispatchConstructorBeforeBody",
 				IInstrumenterConstant.DISPATCH_CONSTRUCTOR_BEFORE_BODY_DESCRIPTOR, true);
@@ -152,7 +177,7 @@ public class ConstructorInstrumenter extends AbstractMethodInstrumenter {
 		// l-l2-r :)
 
 		// then parameters, no need to swap
-		loadArgArray();
+		loadArgArrayIfNeeded();
 
 		// execute after body
 		mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, IInstrumenterConstant.IHOOK_DISPATCHER_INTERNAL_NAME, "dispatchConstructorAfterBody",
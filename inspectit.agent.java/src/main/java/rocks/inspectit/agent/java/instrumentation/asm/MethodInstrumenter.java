@@ -38,6 +38,31 @@ public class MethodInstrumenter extends AbstractMethodInstrumenter {
 		super(mv, access, name, desc, methodId, enhancedExceptionSensor);
 	}
 
+	/**
+	 * Constructor that additionally defines if the method parameters and the return value must be
+	 * passed to the dispatcher.
+	 *
+	 * @param mv
+	 *            Super method visitor.
+	 * @param access
+	 *            Method access code.
+	 * @param name
+	 *            Method name.
+	 * @param desc
+	 *            Method description.
+	 * @param methodId
+	 *            Method id that will be passed to {@link IHookDispatcher}.
+	 * @param enhancedExceptionSensor
+	 *            Marker declaring if enhanced exception sensor is active.
+	 * @param argumentsNeeded
+	 *            If the method parameters and the return value must be passed to the dispatcher.
+	 * @see AbstractMethodInstrumenter#AbstractMethodInstrumenter(MethodVisitor, int, String,
+	 *      String, long, boolean, boolean)
+	 */
+	public MethodInstrumenter(MethodVisitor mv, int access, String name, String desc, long methodId, boolean enhancedExceptionSensor, boolean argumentsNeeded) {
+		super(mv, access, name, desc, methodId, enhancedExceptionSensor, argumentsNeeded);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -64,7 +89,8 @@ public class MethodInstrumenter extends AbstractMethodInstrumenter {
 		// just ensure that result is duplicated on the stack
 		// since we are calling two methods, make 2 copies of result on stack
 		// in case of void return or push null since we don't have result
-		if (opcode == RETURN) {
+		// same if the result is not needed, so we don't box it
+		if ((opcode == RETURN) || !argumentsNeeded) {
 			// standard return with no object (void)
 			pushNull();
 			pushNull();
@@ -85,8 +111,8 @@ public class MethodInstrumenter extends AbstractMethodInstrumenter {
 		}
 
 		// generate code for calling first and second
-		generateAfterBodyCall("dispatchFirstMethodAfterBody");
-		generateAfterBodyCall("dispatchSecondMethodAfterBody");
+		generateAfterBodyCall("dispatchFirstMethodAfterBody", argumentsNeeded);
+		generateAfterBodyCall("dispatchSecondMethodAfterBody", argumentsNeeded);
 	}
 
 	/**
@@ -116,8 +142,8 @@ public class MethodInstrumenter extends AbstractMethodInstrumenter {
 		// push nulls as we don't have a result
 		pushNull();
 		pushNull();
-		generateAfterBodyCall("dispatchFirstMethodAfterBody");
-		generateAfterBodyCall("dispatchSecondMethodAfterBody");
+		generateAfterBodyCall("dispatchFirstMethodAfterBody", argumentsNeeded);
+		generateAfterBodyCall("dispatchSecondMethodAfterBody", argumentsNeeded);
 
 		mv.visitInsn(ATHROW);
 
@@ -143,7 +169,7 @@ public class MethodInstrumenter extends AbstractMethodInstrumenter {
 		}
 
 		// then parameters
-		loadArgArray();
+		loadArgArrayIfNeeded();
 
 		mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, IInstrumenterConstant.IHOOK_DISPATCHER_INTERNAL_NAME, "dispatchMethodBeforeBody", IInstrumenterConstant.DISPATCH_METHOD_BEFORE_BODY_DESCRIPTOR,
 				true);
@@ -158,8 +184,10 @@ public class MethodInstrumenter extends AbstractMethodInstrumenter {
 	 *            {@link IHookDispatcher#dispatchFirstMethodAfterBody(long, Object, Object[], Object)}
 	 *            or
 	 *            {@link IHookDispatcher#dispatchSecondMethodAfterBody(long, Object, Object[], Object)}
+	 * @param loadArguments
+	 *            If the parameter array should be passed, otherwise <code>null</code> is passed.
 	 */
-	private void generateAfterBodyCall(String method) {
+	private void generateAfterBodyCall(String method, boolean loadArguments) {
 		// prepare for calls
 		// we expect result on stack so we must swap as result is last argument in the call
 		loadHookDispatcher();
@@ -183,7 +211,11 @@ public class MethodInstrumenter extends AbstractMethodInstrumenter {
 		swap();
 
 		// then parameters
-		loadArgArray();
+		if (loadArguments) {
+			loadArgArray();
+		} else {
+			pushNull();
+		}
 		swap();
 
 		// execute after body
@@ -197,7 +229,8 @@ public class MethodInstrumenter extends AbstractMethodInstrumenter {
 	 */
 	private void generateThrowInBodyCall() {
 		// we can use same code for the after body call since method signature is same
-		generateAfterBodyCall("dispatchOnThrowInBody");
+		// exception hooks always get the parameters
+		generateAfterBodyCall("dispatchOnThrowInBody", true);
 	}
 
 	/**
@@ -40,6 +40,28 @@ public class FileResolver implements InitializingBean {
 		return new File(agentJar.getParent() + File.separator + "cache" + File.separator + configurationStorage.getAgentName() + File.separator + "sendingClasses.cache");
 	}
 
+	/**
+	 * Returns file where the instrumentation definitions of this agent should be cached.
+	 * <p>
+	 * Expected path: <i>[PATH_TO_AGENT]/cache/agentName/instrumentationDefinitions.cache</i>
+	 *
+	 * @return Returns file where the instrumentation definitions of this agent should be cached.
+	 */
+	public File getInstrumentationDefinitionCacheFile() {
+		return new File(agentJar.getParent() + File.separator + "cache" + File.separator + configurationStorage.getAgentName() + File.separator + "instrumentationDefinitions.cache");
+	}
+
+	/**
+	 * Returns directory where buffer strategies can spill the data that can not be kept in memory.
+	 * <p>
+	 * Expected path: <i>[PATH_TO_AGENT]/buffer/agentName</i>
+	 *
+	 * @return Returns directory where buffer strategies can spill the data.
+	 */
+	public File getBufferSpillDirectory() {
+		return new File(agentJar.getParent() + File.separator + "buffer" + File.separator + configurationStorage.getAgentName());
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -1,20 +1,20 @@
 package rocks.inspectit.agent.java.sending.impl;
 
-import java.util.List;
 import java.util.Map;
 
-import rocks.inspectit.agent.java.core.ListListener;
+import rocks.inspectit.agent.java.core.ListSizeListener;
 import rocks.inspectit.agent.java.sending.AbstractSendingStrategy;
-import rocks.inspectit.shared.all.communication.DefaultData;
 
 /**
  * A simple implementation which checks the size of the list of the current value objects. If the
- * size of the list is greater than the defined one, {@link #sendNow()} is called.
+ * size of the list is greater than the defined one, {@link #sendNow()} is called. The size is
+ * passed by the core service on every change, so the check does not depend on the number of the
+ * collected value objects.
  *
  * @author Patrice Bouillet
  *
  */
-public class ListSizeStrategy extends AbstractSendingStrategy implements ListListener<List<DefaultData>> {
+public class ListSizeStrategy extends AbstractSendingStrategy implements ListSizeListener {
 
 	/**
 	 * Default size.
@@ -31,7 +31,7 @@ public class ListSizeStrategy extends AbstractSendingStrategy implements ListLis
 	 */
 	@Override
 	public void startStrategy() {
-		getCoreService().addListListener(this);
+		getCoreService().addListSizeListener(this);
 	}
 
 	/**
@@ -39,15 +39,15 @@ public class ListSizeStrategy extends AbstractSendingStrategy implements ListLis
 	 */
 	@Override
 	public void stop() {
-		getCoreService().removeListListener(this);
+		getCoreService().removeListSizeListener(this);
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public void contentChanged(List<List<DefaultData>> list) {
-		if (list.size() > size) {
+	public void sizeChanged(int currentSize) {
+		if (currentSize > size) {
 			sendNow();
 		}
 	}
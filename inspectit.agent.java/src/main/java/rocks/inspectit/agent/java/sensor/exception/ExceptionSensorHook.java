@@ -52,16 +52,24 @@ public class ExceptionSensorHook implements IExceptionSensorHook {
 	 */
 	private final StringConstraint strConstraint;
 
+	/**
+	 * Registry of the stack traces sent to the CMR.
+	 */
+	private final StackTraceSendingRegistry stackTraceSendingRegistry;
+
 	/**
 	 * The default constructor which needs one parameter for initialization.
 	 *
 	 * @param platformManager
 	 *            The Platform manager.
+	 * @param stackTraceSendingRegistry
+	 *            Registry of the stack traces sent to the CMR.
 	 * @param parameter
 	 *            Additional parameters.
 	 */
-	public ExceptionSensorHook(IPlatformManager platformManager, Map<String, Object> parameter) {
+	public ExceptionSensorHook(IPlatformManager platformManager, StackTraceSendingRegistry stackTraceSendingRegistry, Map<String, Object> parameter) {
 		this.platformManager = platformManager;
+		this.stackTraceSendingRegistry = stackTraceSendingRegistry;
 		this.strConstraint = new StringConstraint(parameter);
 	}
 
@@ -268,7 +276,7 @@ public class ExceptionSensorHook implements IExceptionSensorHook {
 		}
 
 		try {
-			exceptionSensorData.setStackTrace(strConstraint.crop(stackTraceToString(throwable)));
+			setStackTrace(exceptionSensorData, throwable);
 		} catch (Exception e) {
 			if (LOG.isDebugEnabled()) {
 				LOG.debug("It was not possible to retrieve the stack trace from " + throwable.getClass().getName(), e);
@@ -276,6 +284,42 @@ public class ExceptionSensorHook implements IExceptionSensorHook {
 		}
 	}
 
+	/**
+	 * Sets the stack trace of the {@link Throwable} object to the data object. The stack trace is
+	 * fingerprinted and the text is only rendered and set when the
+	 * {@link StackTraceSendingRegistry} says it has to be sent, otherwise only the stack trace id
+	 * is set. The registry marks the text as sent once the data object is sent.
+	 * <p>
+	 * The first line of the text with the stack trace id holds the throwable type only, while
+	 * {@link Throwable#printStackTrace()} prints the type and the message. The message differs
+	 * between the throwables with same stack trace, thus it's only available as the error message
+	 * of the data object.
+	 *
+	 * @param exceptionSensorData
+	 *            The {@link ExceptionSensorData} object where to set the stack trace.
+	 * @param throwable
+	 *            The current {@link Throwable} object where to get the stack trace from.
+	 */
+	private void setStackTrace(ExceptionSensorData exceptionSensorData, Throwable throwable) {
+		long stackTraceId = StackTraceSendingRegistry.fingerprint(throwable);
+		long currentTime = System.currentTimeMillis();
+		if (!stackTraceSendingRegistry.isSendNeeded(stackTraceId, currentTime)) {
+			exceptionSensorData.setStackTraceId(stackTraceId);
+			return;
+		}
+
+		String stackTrace = stackTraceToString(throwable);
+		String header = throwable.toString();
+		if (stackTrace.startsWith(header)) {
+			String throwableType = throwable.getClass().getName();
+			exceptionSensorData.setStackTrace(strConstraint.crop(throwableType + stackTrace.substring(header.length())));
+			exceptionSensorData.setStackTraceId(stackTraceId);
+		} else {
+			// custom stack trace printing, text can not be shared between throwables
+			exceptionSensorData.setStackTrace(strConstraint.crop(stackTrace));
+		}
+	}
+
 	/**
 	 * Gets the stack trace from the {@link Throwable} object and returns it as a string.
 	 *
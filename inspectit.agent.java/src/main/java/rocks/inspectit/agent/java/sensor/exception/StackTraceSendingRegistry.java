@@ -0,0 +1,230 @@
+package rocks.inspectit.agent.java.sensor.exception;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import rocks.inspectit.agent.java.core.SentDataListener;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.ExceptionSensorData;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+
+/**
+ * Registry of the stack traces already sent to the CMR. The stack traces are identified by the
+ * fingerprint of the throwable type and the class, method and line of all frames (including the
+ * causes). The stack trace text is sent with the data objects of the fingerprint until a data
+ * object holding the text was sent, afterwards only the id is sent and the CMR resolves the text
+ * over its stack trace dictionary. Thus data dropped before sending (buffer overflow) never causes
+ * the text to be skipped.
+ * <p>
+ * As the CMR can lose the dictionary (restart, dictionary clean) the text of each stack trace is
+ * sent again after the {@link #RESEND_INTERVAL}.
+ *
+ * @author agent
+ *
+ */
+@Component
+public class StackTraceSendingRegistry implements SentDataListener {
+
+	/**
+	 * Interval in milliseconds after which the stack trace text is sent again.
+	 */
+	static final long RESEND_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+
+	/**
+	 * Maximum amount of the fingerprints held. When reached the registry is cleared.
+	 */
+	static final int MAX_SIZE = 10000;
+
+	/**
+	 * Maximum depth of the causes included in the fingerprint.
+	 */
+	private static final int MAX_CAUSE_DEPTH = 32;
+
+	/**
+	 * FNV-1a 64-bit offset basis.
+	 */
+	private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+
+	/**
+	 * FNV-1a 64-bit prime.
+	 */
+	private static final long PRIME = 0x100000001b3L;
+
+	/**
+	 * Time in milliseconds the stack trace text was last sent at, by fingerprint.
+	 */
+	private final Map<Long, Long> sentTimes = new ConcurrentHashMap<Long, Long>();
+
+	/**
+	 * Computes the fingerprint of the throwable's stack trace. The fingerprint includes the
+	 * throwable type, all frames and the type, message and frames of all the causes. The message
+	 * of the throwable itself is not included as it's sent separately.
+	 *
+	 * @param throwable
+	 *            Throwable.
+	 * @return Fingerprint, never <code>0</code>.
+	 */
+	public static long fingerprint(Throwable throwable) {
+		long hash = OFFSET_BASIS;
+		hash = mix(hash, throwable.getClass().getName().hashCode());
+		hash = mixFrames(hash, throwable.getStackTrace());
+
+		Throwable cause = throwable.getCause();
+		int depth = 0;
+		while ((null != cause) && (cause != throwable) && (depth < MAX_CAUSE_DEPTH)) {
+			hash = mix(hash, cause.toString().hashCode());
+			hash = mixFrames(hash, cause.getStackTrace());
+			cause = cause.getCause();
+			depth++;
+		}
+
+		hash = finalizeHash(hash);
+		if (0 == hash) {
+			return 1;
+		}
+		return hash;
+	}
+
+	/**
+	 * Returns if the stack trace text with the given fingerprint has to be sent.
+	 *
+	 * @param fingerprint
+	 *            Fingerprint of the stack trace.
+	 * @param currentTime
+	 *            Current time in milliseconds.
+	 * @return <code>true</code> if the fingerprint was never sent or the last sending is older
+	 *         than the {@link #RESEND_INTERVAL}.
+	 */
+	public boolean isSendNeeded(long fingerprint, long currentTime) {
+		Long lastSent = sentTimes.get(Long.valueOf(fingerprint));
+		return (null == lastSent) || ((currentTime - lastSent.longValue()) >= RESEND_INTERVAL);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Marks the stack traces of all exception data objects holding the text as sent, including
+	 * the ones nested in the invocation sequences.
+	 */
+	@Override
+	public void dataSent(List<? extends DefaultData> dataObjects) {
+		long currentTime = System.currentTimeMillis();
+		for (DefaultData defaultData : dataObjects) {
+			if (defaultData instanceof ExceptionSensorData) {
+				markSent((ExceptionSensorData) defaultData, currentTime);
+			} else if (defaultData instanceof InvocationSequenceData) {
+				markSent((InvocationSequenceData) defaultData, currentTime);
+			}
+		}
+	}
+
+	/**
+	 * Marks the stack trace text with the given fingerprint as sent. Two threads sending the same
+	 * text at the same time is harmless, the CMR simply registers the text twice.
+	 *
+	 * @param fingerprint
+	 *            Fingerprint of the stack trace.
+	 * @param currentTime
+	 *            Current time in milliseconds.
+	 */
+	public void markSent(long fingerprint, long currentTime) {
+		if (sentTimes.size() >= MAX_SIZE) {
+			sentTimes.clear();
+		}
+		sentTimes.put(Long.valueOf(fingerprint), Long.valueOf(currentTime));
+	}
+
+	/**
+	 * Marks the stack traces of the exception data and all its children as sent.
+	 *
+	 * @param exceptionSensorData
+	 *            Sent exception data.
+	 * @param currentTime
+	 *            Current time in milliseconds.
+	 */
+	private void markSent(ExceptionSensorData exceptionSensorData, long currentTime) {
+		ExceptionSensorData current = exceptionSensorData;
+		while (null != current) {
+			if ((0 != current.getStackTraceId()) && (null != current.getStackTrace())) {
+				markSent(current.getStackTraceId(), currentTime);
+			}
+			current = current.getChild();
+		}
+	}
+
+	/**
+	 * Marks the stack traces of the exception data in the invocation sequence and all its nested
+	 * sequences as sent.
+	 *
+	 * @param invocationSequenceData
+	 *            Sent invocation sequence.
+	 * @param currentTime
+	 *            Current time in milliseconds.
+	 */
+	private void markSent(InvocationSequenceData invocationSequenceData, long currentTime) {
+		if (null != invocationSequenceData.getExceptionSensorDataObjects()) {
+			for (ExceptionSensorData exceptionSensorData : invocationSequenceData.getExceptionSensorDataObjects()) {
+				markSent(exceptionSensorData, currentTime);
+			}
+		}
+		if (null != invocationSequenceData.getNestedSequences()) {
+			for (InvocationSequenceData nested : invocationSequenceData.getNestedSequences()) {
+				markSent(nested, currentTime);
+			}
+		}
+	}
+
+	/**
+	 * Mixes all frames to the hash.
+	 *
+	 * @param hash
+	 *            Current hash.
+	 * @param frames
+	 *            Stack trace frames.
+	 * @return New hash.
+	 */
+	private static long mixFrames(long hash, StackTraceElement[] frames) {
+		long result = mix(hash, frames.length);
+		for (StackTraceElement frame : frames) {
+			result = mix(result, frame.getClassName().hashCode());
+			result = mix(result, frame.getMethodName().hashCode());
+			result = mix(result, frame.getLineNumber());
+		}
+		return result;
+	}
+
+	/**
+	 * Mixes the int value to the hash.
+	 *
+	 * @param hash
+	 *            Current hash.
+	 * @param value
+	 *            Value to mix.
+	 * @return New hash.
+	 */
+	private static long mix(long hash, int value) {
+		return (hash ^ value) * PRIME;
+	}
+
+	/**
+	 * Final avalanche of the hash.
+	 *
+	 * @param hash
+	 *            Hash.
+	 * @return Final hash.
+	 */
+	private static long finalizeHash(long hash) {
+		long h = hash;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+}
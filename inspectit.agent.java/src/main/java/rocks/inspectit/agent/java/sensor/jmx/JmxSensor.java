@@ -6,12 +6,16 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+import javax.management.Attribute;
+import javax.management.AttributeList;
 import javax.management.AttributeNotFoundException;
 import javax.management.InstanceNotFoundException;
 import javax.management.IntrospectionException;
@@ -122,6 +126,17 @@ public class JmxSensor implements IJmxSensor, InitializingBean, DisposableBean {
 	 */
 	long lastDataCollectionTimestamp = 0;
 
+	/**
+	 * If only the changed attribute values should be sent.
+	 */
+	private boolean changedValuesOnly;
+
+	/**
+	 * Number of collections after which an unchanged value is sent anyway if
+	 * {@link #changedValuesOnly} is set. Value <code>0</code> means never.
+	 */
+	private int heartbeatInterval;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -136,6 +151,12 @@ public class JmxSensor implements IJmxSensor, InitializingBean, DisposableBean {
 				MBeanServer server = ManagementFactory.getPlatformMBeanServer();
 				mbeanServerAdded(server);
 			}
+
+			changedValuesOnly = Boolean.TRUE.equals(parameters.get("changedValuesOnly"));
+			Object heartbeat = parameters.get("heartbeatInterval");
+			if (heartbeat instanceof Number) {
+				heartbeatInterval = ((Number) heartbeat).intValue();
+			}
 		}
 	}
 
@@ -230,7 +251,9 @@ public class JmxSensor implements IJmxSensor, InitializingBean, DisposableBean {
 	}
 
 	/**
-	 * Collects the data from the MBean server in the holder and sends it to the CMR.
+	 * Collects the data from the MBean server in the holder and sends it to the CMR. Attributes
+	 * of the same MBean are read with one {@link MBeanServer#getAttributes(ObjectName, String[])}
+	 * call, attributes not returned by it are read one by one.
 	 *
 	 * @param holder
 	 *            {@link MBeanServerHolder} to collect data from
@@ -241,54 +264,131 @@ public class JmxSensor implements IJmxSensor, InitializingBean, DisposableBean {
 	 */
 	private void collectData(MBeanServerHolder holder, ICoreService coreService, long sensorTypeIdent) {
 		MBeanServer mBeanServer = holder.mBeanServer;
-		Map<JmxAttributeDescriptor, Boolean> activeAttributes = holder.activeAttributes;
+		Map<JmxAttributeDescriptor, AttributeState> activeAttributes = holder.activeAttributes;
 		Map<String, ObjectName> nameStringToObjectName = holder.nameStringToObjectName;
 
+		// group the attributes per MBean
+		Map<String, List<JmxAttributeDescriptor>> descriptorsPerName = new HashMap<String, List<JmxAttributeDescriptor>>();
+		for (JmxAttributeDescriptor descriptor : activeAttributes.keySet()) {
+			List<JmxAttributeDescriptor> descriptors = descriptorsPerName.get(descriptor.getmBeanObjectName());
+			if (null == descriptors) {
+				descriptors = new ArrayList<JmxAttributeDescriptor>();
+				descriptorsPerName.put(descriptor.getmBeanObjectName(), descriptors);
+			}
+			descriptors.add(descriptor);
+		}
+
 		Timestamp timestamp = new Timestamp(Calendar.getInstance().getTime().getTime());
-		for (Iterator<JmxAttributeDescriptor> iterator = activeAttributes.keySet().iterator(); iterator.hasNext();) {
-			JmxAttributeDescriptor descriptor = iterator.next();
+		for (List<JmxAttributeDescriptor> descriptors : descriptorsPerName.values()) {
+			ObjectName objectName = nameStringToObjectName.get(descriptors.get(0).getmBeanObjectName());
+
+			Map<String, Object> values = Collections.emptyMap();
+			if (descriptors.size() > 1) {
+				values = getAttributes(holder, objectName, descriptors);
+				if (null == values) {
+					continue;
+				}
+			}
 
-			try {
-				// Retrieving the value of the, in the JmxAttributeDescriptor specified,
-				// MBeanAttribute
-				ObjectName objectName = nameStringToObjectName.get(descriptor.getmBeanObjectName());
-				Object collectedValue = mBeanServer.getAttribute(objectName, descriptor.getAttributeName());
-
-				String value;
-				if (null == collectedValue) {
-					value = "null";
-				} else if (collectedValue.getClass().isArray()) {
-					value = getArrayValue(collectedValue);
-				} else {
-					value = collectedValue.toString();
+			for (JmxAttributeDescriptor descriptor : descriptors) {
+				try {
+					// Retrieving the value of the, in the JmxAttributeDescriptor specified,
+					// MBeanAttribute
+					Object collectedValue;
+					if (values.containsKey(descriptor.getAttributeName())) {
+						collectedValue = values.get(descriptor.getAttributeName());
+					} else {
+						collectedValue = mBeanServer.getAttribute(objectName, descriptor.getAttributeName());
+					}
+
+					String value;
+					if (null == collectedValue) {
+						value = "null";
+					} else if (collectedValue.getClass().isArray()) {
+						value = getArrayValue(collectedValue);
+					} else {
+						value = collectedValue.toString();
+					}
+
+					long platformid = platformManager.getPlatformId();
+
+					// skip the unchanged values if so configured
+					AttributeState state = activeAttributes.get(descriptor);
+					if (changedValuesOnly && (null != state) && !state.isSendNeeded(value, heartbeatInterval)) {
+						continue;
+					}
+
+					// Create a new JmxSensorValueData to be saved into the database
+					JmxSensorValueData jsvd = new JmxSensorValueData(descriptor.getId(), value, timestamp, platformid, sensorTypeIdent);
+
+					coreService.addJmxSensorValueData(sensorTypeIdent, descriptor.getmBeanObjectName(), descriptor.getAttributeName(), jsvd);
+				} catch (AttributeNotFoundException e) {
+					activeAttributes.remove(descriptor);
+					log.warn("JMX::AttributeNotFound. Attribute was not found. Maybe currently not available on the server. Attribute removed from the actively read list.", e);
+				} catch (InstanceNotFoundException e) {
+					activeAttributes.remove(descriptor);
+					log.warn("JMX::Instance not found. MBean may not be registered on the Server. Attribute removed from the actively read list.", e);
+				} catch (MBeanException e) {
+					activeAttributes.remove(descriptor);
+					log.warn("JMX::MBean. Undefined problem with the MBean. Attribute removed from the actively read list.", e);
+				} catch (ReflectionException e) {
+					activeAttributes.remove(descriptor);
+					log.warn("JMX::Reflection error. MBean may not be registered on the Server. Attribute removed from the actively read list.", e);
+				} catch (RuntimeMBeanException e) {
+					activeAttributes.remove(descriptor);
+					log.warn("JMX::Runtime error reading the attribute " + descriptor.getAttributeName() + " from the MBean " + descriptor.getmBeanObjectName()
+					+ ". Attribute removed from the actively read list.", e);
+				} catch (IdNotAvailableException e) {
+					if (log.isDebugEnabled()) {
+						log.debug("JMX::IdNotAvailable. MBean may not be registered on the Server.", e);
+					}
 				}
+			}
+		}
+	}
 
-				// Create a new JmxSensorValueData to be saved into the database
-				long platformid = platformManager.getPlatformId();
-				JmxSensorValueData jsvd = new JmxSensorValueData(descriptor.getId(), value, timestamp, platformid, sensorTypeIdent);
+	/**
+	 * Reads the attributes of one MBean with one call to the MBean server.
+	 *
+	 * @param holder
+	 *            {@link MBeanServerHolder} to read from
+	 * @param objectName
+	 *            Name of the MBean.
+	 * @param descriptors
+	 *            Descriptors of the attributes to read, all belonging to the same MBean.
+	 * @return Map of attribute names to values, containing only the successfully read attributes,
+	 *         or <code>null</code> if the MBean can not be read any more, in which case all
+	 *         descriptors are removed from the active attributes.
+	 */
+	private Map<String, Object> getAttributes(MBeanServerHolder holder, ObjectName objectName, List<JmxAttributeDescriptor> descriptors) {
+		String[] attributeNames = new String[descriptors.size()];
+		for (int i = 0; i < attributeNames.length; i++) {
+			attributeNames[i] = descriptors.get(i).getAttributeName();
+		}
 
-				coreService.addJmxSensorValueData(sensorTypeIdent, descriptor.getmBeanObjectName(), descriptor.getAttributeName(), jsvd);
-			} catch (AttributeNotFoundException e) {
-				iterator.remove();
-				log.warn("JMX::AttributeNotFound. Attribute was not found. Maybe currently not available on the server. Attribute removed from the actively read list.", e);
-			} catch (InstanceNotFoundException e) {
-				iterator.remove();
-				log.warn("JMX::Instance not found. MBean may not be registered on the Server. Attribute removed from the actively read list.", e);
-			} catch (MBeanException e) {
-				iterator.remove();
-				log.warn("JMX::MBean. Undefined problem with the MBean. Attribute removed from the actively read list.", e);
-			} catch (ReflectionException e) {
-				iterator.remove();
-				log.warn("JMX::Reflection error. MBean may not be registered on the Server. Attribute removed from the actively read list.", e);
-			} catch (RuntimeMBeanException e) {
-				iterator.remove();
-				log.warn("JMX::Runtime error reading the attribute " + descriptor.getAttributeName() + " from the MBean " + descriptor.getmBeanObjectName()
-				+ ". Attribute removed from the actively read list.", e);
-			} catch (IdNotAvailableException e) {
-				if (log.isDebugEnabled()) {
-					log.debug("JMX::IdNotAvailable. MBean may not be registered on the Server.", e);
+		try {
+			AttributeList attributeList = holder.mBeanServer.getAttributes(objectName, attributeNames);
+			Map<String, Object> values = new HashMap<String, Object>();
+			if (null != attributeList) {
+				for (Attribute attribute : attributeList.asList()) {
+					values.put(attribute.getName(), attribute.getValue());
 				}
 			}
+			return values;
+		} catch (InstanceNotFoundException e) {
+			holder.activeAttributes.keySet().removeAll(descriptors);
+			log.warn("JMX::Instance not found. MBean may not be registered on the Server. Attributes removed from the actively read list.", e);
+			return null;
+		} catch (ReflectionException e) {
+			holder.activeAttributes.keySet().removeAll(descriptors);
+			log.warn("JMX::Reflection error. MBean may not be registered on the Server. Attributes removed from the actively read list.", e);
+			return null;
+		} catch (RuntimeException e) {
+			// read attributes one by one to find the failing one
+			if (log.isDebugEnabled()) {
+				log.debug("JMX::Runtime error reading the attributes of the MBean " + objectName + ". Attributes will be read one by one.", e);
+			}
+			return Collections.emptyMap();
 		}
 	}
 
@@ -304,7 +404,7 @@ public class JmxSensor implements IJmxSensor, InitializingBean, DisposableBean {
 	 */
 	private void registerMBeans(MBeanServerHolder holder, ObjectName mBeanName) {
 		MBeanServer mBeanServer = holder.mBeanServer;
-		Map<JmxAttributeDescriptor, Boolean> activeAttributes = holder.activeAttributes;
+		Map<JmxAttributeDescriptor, AttributeState> activeAttributes = holder.activeAttributes;
 		Map<String, ObjectName> nameStringToObjectName = holder.nameStringToObjectName;
 
 		// do nothing if connection is not there
@@ -345,7 +445,7 @@ public class JmxSensor implements IJmxSensor, InitializingBean, DisposableBean {
 
 			// add to active attributes
 			for (JmxAttributeDescriptor descriptor : toMonitor) {
-				activeAttributes.put(descriptor, Boolean.FALSE);
+				activeAttributes.put(descriptor, new AttributeState());
 			}
 			// if call is working add object names to the map
 			for (ObjectName name : allNames) {
@@ -432,9 +532,10 @@ public class JmxSensor implements IJmxSensor, InitializingBean, DisposableBean {
 		final Map<String, ObjectName> nameStringToObjectName = new ConcurrentHashMap<String, ObjectName>();
 
 		/**
-		 * Set of active attributes (represented as Map).
+		 * Set of active attributes (represented as Map) with the state of the values sent for
+		 * them.
 		 */
-		final Map<JmxAttributeDescriptor, Boolean> activeAttributes = new ConcurrentHashMap<JmxAttributeDescriptor, Boolean>();
+		final Map<JmxAttributeDescriptor, AttributeState> activeAttributes = new ConcurrentHashMap<JmxAttributeDescriptor, AttributeState>();
 
 		/**
 		 * Default constructor.
@@ -478,4 +579,44 @@ public class JmxSensor implements IJmxSensor, InitializingBean, DisposableBean {
 
 	}
 
-}
\ No newline at end of file
+	/**
+	 * State of the values sent for one attribute.
+	 *
+	 * @author agent
+	 *
+	 */
+	static final class AttributeState {
+
+		/**
+		 * Last value sent.
+		 */
+		private String lastValue;
+
+		/**
+		 * Number of collections since the last value was sent.
+		 */
+		private int collectionsSinceSent;
+
+		/**
+		 * Returns if the collected value has to be sent, because it changed or the heartbeat
+		 * interval elapsed. If so the value is remembered as the last sent one.
+		 *
+		 * @param value
+		 *            Collected value.
+		 * @param heartbeatInterval
+		 *            Number of collections after which the unchanged value is sent anyway.
+		 *            Value <code>0</code> means never.
+		 * @return If value should be sent.
+		 */
+		boolean isSendNeeded(String value, int heartbeatInterval) {
+			collectionsSinceSent++;
+			if (!value.equals(lastValue) || ((heartbeatInterval > 0) && (collectionsSinceSent >= heartbeatInterval))) {
+				lastValue = value;
+				collectionsSinceSent = 0;
+				return true;
+			}
+			return false;
+		}
+	}
+
+}
@@ -13,24 +13,26 @@ import rocks.inspectit.agent.java.core.ICoreService;
 import rocks.inspectit.agent.java.core.IPlatformManager;
 import rocks.inspectit.agent.java.core.IdNotAvailableException;
 import rocks.inspectit.agent.java.core.impl.CoreService;
+import rocks.inspectit.agent.java.hooking.DispatchContext;
+import rocks.inspectit.agent.java.hooking.IArgumentsFreeHook;
 import rocks.inspectit.agent.java.hooking.IConstructorHook;
 import rocks.inspectit.agent.java.hooking.IMethodHook;
 import rocks.inspectit.agent.java.util.StringConstraint;
-import rocks.inspectit.agent.java.util.ThreadLocalStack;
+import rocks.inspectit.agent.java.util.TimingStack;
 import rocks.inspectit.agent.java.util.Timer;
 import rocks.inspectit.shared.all.communication.data.ParameterContentData;
 import rocks.inspectit.shared.all.communication.data.TimerData;
 
 /**
- * The hook implementation for the average timer sensor. It uses the {@link ThreadLocalStack} class
- * to save the time when the method was called. After the complete original method was executed, it
- * computes the how long the method took to finish. Afterwards, the measurement is added to the
- * {@link CoreService}.
+ * The hook implementation for the average timer sensor. It uses the
+ * {@link DispatchContext} class to save the time when the method was called. After the
+ * complete original method was executed, it computes the how long the method took to finish.
+ * Afterwards, the measurement is added to the {@link CoreService}.
  *
  * @author Patrice Bouillet
  *
  */
-public class AverageTimerHook implements IMethodHook, IConstructorHook {
+public class AverageTimerHook implements IMethodHook, IConstructorHook, IArgumentsFreeHook {
 
 	/**
 	 * The logger of this class. Initialized manually.
@@ -38,9 +40,9 @@ public class AverageTimerHook implements IMethodHook, IConstructorHook {
 	private static final Logger LOG = LoggerFactory.getLogger(AverageTimerHook.class);
 
 	/**
-	 * The stack containing the start time values.
+	 * Slot of the stack containing the start time values in the {@link DispatchContext}.
 	 */
-	private final ThreadLocalStack<Double> timeStack = new ThreadLocalStack<Double>();
+	private final int timingStackSlot = DispatchContext.newTimingStackSlot();
 
 	/**
 	 * The timer used for accurate measuring.
@@ -86,7 +88,7 @@ public class AverageTimerHook implements IMethodHook, IConstructorHook {
 	 */
 	@Override
 	public void beforeBody(long methodId, long sensorTypeId, Object object, Object[] parameters, RegisteredSensorConfig rsc) {
-		timeStack.push(new Double(timer.getCurrentTime()));
+		DispatchContext.get().getTimingStack(timingStackSlot).pushTime(timer.getCurrentNanoTime());
 	}
 
 	/**
@@ -94,7 +96,7 @@ public class AverageTimerHook implements IMethodHook, IConstructorHook {
 	 */
 	@Override
 	public void firstAfterBody(long methodId, long sensorTypeId, Object object, Object[] parameters, Object result, RegisteredSensorConfig rsc) {
-		timeStack.push(new Double(timer.getCurrentTime()));
+		DispatchContext.get().getTimingStack(timingStackSlot).pushTime(timer.getCurrentNanoTime());
 	}
 
 	/**
@@ -102,9 +104,10 @@ public class AverageTimerHook implements IMethodHook, IConstructorHook {
 	 */
 	@Override
 	public void secondAfterBody(ICoreService coreService, long methodId, long sensorTypeId, Object object, Object[] parameters, Object result, RegisteredSensorConfig rsc) {
-		double endTime = timeStack.pop().doubleValue();
-		double startTime = timeStack.pop().doubleValue();
-		double duration = endTime - startTime;
+		TimingStack stack = DispatchContext.get().getTimingStack(timingStackSlot);
+		long endTime = stack.popTime();
+		long startTime = stack.popTime();
+		double duration = Timer.toMillis(endTime - startTime);
 
 		List<ParameterContentData> parameterContentData = null;
 		String prefix = null;
@@ -154,7 +157,7 @@ public class AverageTimerHook implements IMethodHook, IConstructorHook {
 	 */
 	@Override
 	public void beforeConstructor(long methodId, long sensorTypeId, Object[] parameters, RegisteredSensorConfig rsc) {
-		timeStack.push(new Double(timer.getCurrentTime()));
+		DispatchContext.get().getTimingStack(timingStackSlot).pushTime(timer.getCurrentNanoTime());
 	}
 
 	/**
@@ -162,7 +165,7 @@ public class AverageTimerHook implements IMethodHook, IConstructorHook {
 	 */
 	@Override
 	public void afterConstructor(ICoreService coreService, long methodId, long sensorTypeId, Object object, Object[] parameters, RegisteredSensorConfig rsc) {
-		timeStack.push(new Double(timer.getCurrentTime()));
+		DispatchContext.get().getTimingStack(timingStackSlot).pushTime(timer.getCurrentNanoTime());
 		secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, null, rsc);
 	}
 
@@ -12,17 +12,18 @@ import rocks.inspectit.agent.java.config.impl.RegisteredSensorConfig;
 import rocks.inspectit.agent.java.core.ICoreService;
 import rocks.inspectit.agent.java.core.IPlatformManager;
 import rocks.inspectit.agent.java.core.IdNotAvailableException;
+import rocks.inspectit.agent.java.hooking.DispatchContext;
 import rocks.inspectit.agent.java.hooking.IMethodHook;
 import rocks.inspectit.agent.java.sensor.method.timer.TimerHook;
 import rocks.inspectit.agent.java.util.ClassUtil;
 import rocks.inspectit.agent.java.util.StringConstraint;
-import rocks.inspectit.agent.java.util.ThreadLocalStack;
+import rocks.inspectit.agent.java.util.TimingStack;
 import rocks.inspectit.agent.java.util.Timer;
 import rocks.inspectit.shared.all.communication.data.HttpTimerData;
 
 /**
- * The hook implementation for the http sensor. It uses the {@link ThreadLocalStack} class to save
- * the time when the method was called.
+ * The hook implementation for the http sensor. It uses the {@link DispatchContext} class to
+ * save the time when the method was called.
  * <p>
  * This hook measures timer data like the {@link TimerHook} but in addition provides Http
  * information. Another difference is that we ensure that only one Http metric per request is
@@ -39,9 +40,9 @@ public class HttpHook implements IMethodHook {
 	private static final Logger LOG = LoggerFactory.getLogger(HttpHook.class);
 
 	/**
-	 * The stack containing the start time values.
+	 * Slot of the stack containing the start time values in the {@link DispatchContext}.
 	 */
-	private final ThreadLocalStack<Double> timeStack = new ThreadLocalStack<Double>();
+	private final int timingStackSlot = DispatchContext.newTimingStackSlot();
 
 	/**
 	 * The timer used for accurate measuring.
@@ -69,9 +70,10 @@ public class HttpHook implements IMethodHook {
 	private boolean threadCPUTimeEnabled = false;
 
 	/**
-	 * The stack containing the start time values.
+	 * Sampling rate of the thread CPU time. The CPU time is measured for one in the given number of
+	 * requests.
 	 */
-	private final ThreadLocalStack<Long> threadCpuTimeStack = new ThreadLocalStack<Long>();
+	private final int cpuTimeSampling;
 
 	/**
 	 * Extractor for Http information.
@@ -136,7 +138,8 @@ public class HttpHook implements IMethodHook {
 	 * @param threadMXBean
 	 *            the threadMx Bean for cpu timing
 	 * @param parameters
-	 *            the map containing the configuration parameters
+	 *            the map containing the configuration parameters, the <code>cpuTimeSampling</code>
+	 *            parameter defines the sampling rate of the thread CPU time
 	 */
 	public HttpHook(Timer timer, IPlatformManager platformManager, Map<String, Object> parameters, ThreadMXBean threadMXBean) {
 		this.timer = timer;
@@ -153,6 +156,8 @@ public class HttpHook implements IMethodHook {
 			captureSessionData = false;
 		}
 
+		cpuTimeSampling = getCpuTimeSampling(parameters);
+
 		try {
 			// if it is even supported by this JVM
 			threadCPUTimeJMXAvailable = threadMXBean.isThreadCpuTimeSupported();
@@ -173,6 +178,27 @@ public class HttpHook implements IMethodHook {
 		}
 	}
 
+	/**
+	 * Reads the CPU time sampling rate from the parameters.
+	 *
+	 * @param parameters
+	 *            Parameters of the sensor.
+	 * @return Sampling rate or <code>1</code> if it's not defined or invalid.
+	 */
+	private static int getCpuTimeSampling(Map<String, Object> parameters) {
+		if (null != parameters) {
+			Object value = parameters.get("cpuTimeSampling");
+			if (null != value) {
+				try {
+					return Math.max(1, Integer.parseInt(value.toString()));
+				} catch (NumberFormatException e) {
+					LOG.warn("CPU time sampling rate '" + value + "' is not a number, CPU time will be measured for all requests.");
+				}
+			}
+		}
+		return 1;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -201,9 +227,14 @@ public class HttpHook implements IMethodHook {
 					// timer. We cannot do that after we read the information from the request
 					// object because these methods could be instrumented and thus the whole http
 					// timer would be off - resulting in very strange results.
-					timeStack.push(new Double(timer.getCurrentTime()));
+					TimingStack stack = DispatchContext.get().getTimingStack(timingStackSlot);
+					stack.pushTime(timer.getCurrentNanoTime());
 					if (threadCPUTimeEnabled) {
-						threadCpuTimeStack.push(Long.valueOf(threadMXBean.getCurrentThreadCpuTime()));
+						if (stack.isCpuTimeSampled(cpuTimeSampling)) {
+							stack.pushCpuTime(threadMXBean.getCurrentThreadCpuTime());
+						} else {
+							stack.pushCpuTime(TimingStack.CPU_TIME_NOT_MEASURED);
+						}
 					}
 
 					// Mark first invocation
@@ -233,9 +264,15 @@ public class HttpHook implements IMethodHook {
 
 		if (refMarker.matchesFirst()) {
 			// Get the timer and store it.
-			timeStack.push(new Double(timer.getCurrentTime()));
+			TimingStack stack = DispatchContext.get().getTimingStack(timingStackSlot);
+			stack.pushTime(timer.getCurrentNanoTime());
 			if (threadCPUTimeEnabled) {
-				threadCpuTimeStack.push(Long.valueOf(threadMXBean.getCurrentThreadCpuTime()));
+				// measure only if the CPU time was measured when the request started
+				if (stack.peekCpuTime() >= 0) {
+					stack.pushCpuTime(threadMXBean.getCurrentThreadCpuTime());
+				} else {
+					stack.pushCpuTime(TimingStack.CPU_TIME_NOT_MEASURED);
+				}
 			}
 		}
 	}
@@ -263,16 +300,19 @@ public class HttpHook implements IMethodHook {
 				if (providesHttpRequestMetrics(servletRequestClass) && providesHttpResponseMetrics(servletResponseClass)) {
 
 					try {
-						double endTime = timeStack.pop().doubleValue();
-						double startTime = timeStack.pop().doubleValue();
-						double duration = endTime - startTime;
+						TimingStack stack = DispatchContext.get().getTimingStack(timingStackSlot);
+						long endTime = stack.popTime();
+						long startTime = stack.popTime();
+						double duration = Timer.toMillis(endTime - startTime);
 
 						// default setting to a negative number
 						double cpuDuration = -1.0d;
 						if (threadCPUTimeEnabled) {
-							long cpuEndTime = threadCpuTimeStack.pop().longValue();
-							long cpuStartTime = threadCpuTimeStack.pop().longValue();
-							cpuDuration = (cpuEndTime - cpuStartTime) / 1000000.0d;
+							long cpuEndTime = stack.popCpuTime();
+							long cpuStartTime = stack.popCpuTime();
+							if ((cpuStartTime >= 0) && (cpuEndTime >= 0)) {
+								cpuDuration = Timer.toMillis(cpuEndTime - cpuStartTime);
+							}
 						}
 
 						long platformId = platformManager.getPlatformId();
@@ -289,9 +329,12 @@ public class HttpHook implements IMethodHook {
 						data.setDuration(duration);
 						data.calculateMin(duration);
 						data.calculateMax(duration);
-						data.setCpuDuration(cpuDuration);
-						data.calculateCpuMax(cpuDuration);
-						data.calculateCpuMin(cpuDuration);
+						if (cpuDuration >= 0) {
+							data.setCpuDuration(cpuDuration);
+							data.calculateCpuMax(cpuDuration);
+							data.calculateCpuMin(cpuDuration);
+							data.setCpuCount(1L);
+						}
 						data.setCount(1L);
 
 						// Include additional http information
@@ -0,0 +1,215 @@
+package rocks.inspectit.agent.java.sensor.method.invocationsequence;
+
+import java.util.List;
+
+import org.apache.commons.collections.CollectionUtils;
+
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+
+/**
+ * Compresses loops in the invocation sequences. Consecutive invocations of the same method with
+ * the same shape are aggregated in one {@link InvocationSequenceData} element. Two invocations
+ * have the same shape if they have the same method and sensor type, the same kind of sensor data
+ * and the nested sequences have the same shape as well. Invocations with exceptions, logging,
+ * captured parameters, spans or HTTP data are never aggregated, as their details would be lost.
+ *
+ * @author agent
+ *
+ */
+public final class InvocationLoopCompressor {
+
+	/**
+	 * Private constructor.
+	 */
+	private InvocationLoopCompressor() {
+	}
+
+	/**
+	 * Returns if the two invocations have the same shape and thus can be aggregated.
+	 *
+	 * @param first
+	 *            First invocation.
+	 * @param second
+	 *            Second invocation.
+	 * @return If invocations can be aggregated.
+	 */
+	public static boolean isSameShape(InvocationSequenceData first, InvocationSequenceData second) {
+		if ((first.getMethodIdent() != second.getMethodIdent()) || (first.getSensorTypeIdent() != second.getSensorTypeIdent())) {
+			return false;
+		}
+		if (!isAggregatable(first) || !isAggregatable(second)) {
+			return false;
+		}
+		if (!isSameTimerData(first.getTimerData(), second.getTimerData()) || !isSameSqlStatementData(first.getSqlStatementData(), second.getSqlStatementData())) {
+			return false;
+		}
+
+		List<InvocationSequenceData> firstNested = first.getNestedSequences();
+		List<InvocationSequenceData> secondNested = second.getNestedSequences();
+		if (firstNested.size() != secondNested.size()) {
+			return false;
+		}
+		for (int i = 0; i < firstNested.size(); i++) {
+			if (!isSameShape(firstNested.get(i), secondNested.get(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Aggregates the source invocation into the target invocation. Both invocations must have the
+	 * same shape.
+	 *
+	 * @param target
+	 *            Invocation to aggregate to.
+	 * @param source
+	 *            Invocation to aggregate.
+	 */
+	public static void aggregate(InvocationSequenceData target, InvocationSequenceData source) {
+		target.setLoopMinDuration(Math.min(getMinDuration(target), getMinDuration(source)));
+		target.setLoopMaxDuration(Math.max(getMaxDuration(target), getMaxDuration(source)));
+		target.setLoopCount(getCount(target) + getCount(source));
+		target.setDuration(target.getDuration() + source.getDuration());
+		target.setEnd(source.getEnd());
+
+		if (null != target.getTimerData()) {
+			target.getTimerData().aggregateTimerData(source.getTimerData());
+		}
+		if (null != target.getSqlStatementData()) {
+			target.getSqlStatementData().aggregateTimerData(source.getSqlStatementData());
+			// keep the SQL string if only the aggregated one holds it
+			if (null == target.getSqlStatementData().getSql()) {
+				target.getSqlStatementData().setSql(source.getSqlStatementData().getSql());
+			}
+		}
+
+		List<InvocationSequenceData> targetNested = target.getNestedSequences();
+		List<InvocationSequenceData> sourceNested = source.getNestedSequences();
+		for (int i = 0; i < targetNested.size(); i++) {
+			aggregate(targetNested.get(i), sourceNested.get(i));
+		}
+	}
+
+	/**
+	 * Returns if the invocation holds only data that can be aggregated.
+	 *
+	 * @param data
+	 *            Invocation.
+	 * @return If invocation can be aggregated.
+	 */
+	private static boolean isAggregatable(InvocationSequenceData data) {
+		return CollectionUtils.isEmpty(data.getExceptionSensorDataObjects()) && (null == data.getLoggingData()) && (null == data.getSpanIdent())
+				&& CollectionUtils.isEmpty(data.getParameterContentData());
+	}
+
+	/**
+	 * Returns if the two timer data objects can be aggregated. Only plain {@link TimerData} is
+	 * aggregated.
+	 *
+	 * @param first
+	 *            First timer data, can be <code>null</code>.
+	 * @param second
+	 *            Second timer data, can be <code>null</code>.
+	 * @return If timer data can be aggregated.
+	 */
+	private static boolean isSameTimerData(TimerData first, TimerData second) {
+		if ((null == first) || (null == second)) {
+			return first == second;
+		}
+		return TimerData.class.equals(first.getClass()) && TimerData.class.equals(second.getClass());
+	}
+
+	/**
+	 * Returns if the two SQL statement data objects can be aggregated, which is when they are
+	 * executing the same SQL on the same database.
+	 *
+	 * @param first
+	 *            First SQL data, can be <code>null</code>.
+	 * @param second
+	 *            Second SQL data, can be <code>null</code>.
+	 * @return If SQL data can be aggregated.
+	 */
+	private static boolean isSameSqlStatementData(SqlStatementData first, SqlStatementData second) {
+		if ((null == first) || (null == second)) {
+			return first == second;
+		}
+		return (first.getCount() > 0) && (second.getCount() > 0) && isSameSql(first, second) && equals(first.getDatabaseUrl(), second.getDatabaseUrl());
+	}
+
+	/**
+	 * Returns if the two SQL statement data objects have the same SQL. If both have the id from the
+	 * statement dictionary the ids are compared, as the SQL string might only be set in one of
+	 * them.
+	 *
+	 * @param first
+	 *            First SQL data.
+	 * @param second
+	 *            Second SQL data.
+	 * @return If SQLs are same.
+	 */
+	private static boolean isSameSql(SqlStatementData first, SqlStatementData second) {
+		if ((0 != first.getSqlId()) && (0 != second.getSqlId())) {
+			return first.getSqlId() == second.getSqlId();
+		}
+		return equals(first.getSql(), second.getSql());
+	}
+
+	/**
+	 * Null-safe equals.
+	 *
+	 * @param first
+	 *            First string.
+	 * @param second
+	 *            Second string.
+	 * @return If strings are equal.
+	 */
+	private static boolean equals(String first, String second) {
+		if (null == first) {
+			return null == second;
+		}
+		return first.equals(second);
+	}
+
+	/**
+	 * Returns the number of invocations the element represents.
+	 *
+	 * @param data
+	 *            Invocation.
+	 * @return Number of invocations.
+	 */
+	private static long getCount(InvocationSequenceData data) {
+		return Math.max(1L, data.getLoopCount());
+	}
+
+	/**
+	 * Returns the minimum duration of the invocations the element represents.
+	 *
+	 * @param data
+	 *            Invocation.
+	 * @return Minimum duration.
+	 */
+	private static double getMinDuration(InvocationSequenceData data) {
+		if (data.getLoopCount() > 0) {
+			return data.getLoopMinDuration();
+		}
+		return data.getDuration();
+	}
+
+	/**
+	 * Returns the maximum duration of the invocations the element represents.
+	 *
+	 * @param data
+	 *            Invocation.
+	 * @return Maximum duration.
+	 */
+	private static double getMaxDuration(InvocationSequenceData data) {
+		if (data.getLoopCount() > 0) {
+			return data.getLoopMaxDuration();
+		}
+		return data.getDuration();
+	}
+
+}
@@ -0,0 +1,236 @@
+package rocks.inspectit.agent.java.sensor.method.invocationsequence;
+
+import java.util.Map;
+
+/**
+ * Decides at the start of an invocation sequence if the sequence should be recorded. The sampler
+ * combines a probabilistic sampling with a token bucket limiting the amount of recorded sequences
+ * per second. One sampler exists for each method starting invocation sequences and it is replaced
+ * when the method gets new settings.
+ * <p>
+ * The sampler is configured by the settings of the method:
+ * <ul>
+ * <li>{@value #SAMPLING_RATE_SETTING} - probability between 0 and 1 of recording a sequence
+ * <li>{@value #MAX_PER_SECOND_SETTING} - maximum amount of recorded sequences per second
+ * <li>{@value #KEEP_ERRORS_SETTING} - if sequences having exceptions are kept although not sampled
+ * </ul>
+ *
+ * @author agent
+ *
+ */
+public class InvocationSampler {
+
+	/**
+	 * Setting key for the sampling rate.
+	 */
+	public static final String SAMPLING_RATE_SETTING = "samplingrate";
+
+	/**
+	 * Setting key for the maximum amount of sequences per second.
+	 */
+	public static final String MAX_PER_SECOND_SETTING = "maxpersecond";
+
+	/**
+	 * Setting key for keeping the sequences with exceptions.
+	 */
+	public static final String KEEP_ERRORS_SETTING = "keeperrors";
+
+	/**
+	 * Length of the token bucket window in milliseconds.
+	 */
+	private static final long WINDOW = 1000L;
+
+	/**
+	 * Probability of recording a sequence.
+	 */
+	private final double probability;
+
+	/**
+	 * Maximum amount of recorded sequences per second, <code>0</code> for no limit.
+	 */
+	private final long maxPerSecond;
+
+	/**
+	 * If sequences with exceptions are kept although not sampled.
+	 */
+	private final boolean keepErrors;
+
+	/**
+	 * Settings the sampler was created from, <code>null</code> if not created from settings.
+	 */
+	private Map<String, Object> settings;
+
+	/**
+	 * Currently available tokens.
+	 */
+	private double tokens;
+
+	/**
+	 * Time of the last token refill.
+	 */
+	private long lastRefillTime;
+
+	/**
+	 * Start of the current window used to calculate the accept ratio.
+	 */
+	private long windowStart;
+
+	/**
+	 * Sequences that reached the token bucket in the current window.
+	 */
+	private long offered;
+
+	/**
+	 * Sequences that got a token in the current window.
+	 */
+	private long accepted;
+
+	/**
+	 * Ratio of the sequences that got a token in the last completed window.
+	 */
+	private volatile double acceptRatio = 1d;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param probability
+	 *            Probability of recording a sequence.
+	 * @param maxPerSecond
+	 *            Maximum amount of recorded sequences per second, <code>0</code> for no limit.
+	 * @param keepErrors
+	 *            If sequences with exceptions are kept although not sampled.
+	 */
+	public InvocationSampler(double probability, long maxPerSecond, boolean keepErrors) {
+		this.probability = probability;
+		this.maxPerSecond = maxPerSecond;
+		this.keepErrors = keepErrors;
+		this.tokens = maxPerSecond;
+	}
+
+	/**
+	 * Creates the sampler from the settings of the method.
+	 *
+	 * @param settings
+	 *            Method settings, can be <code>null</code>.
+	 * @return {@link InvocationSampler}
+	 */
+	public static InvocationSampler fromSettings(Map<String, Object> settings) {
+		double probability = 1d;
+		long maxPerSecond = 0L;
+		boolean keepErrors = true;
+		if (null != settings) {
+			Object value = settings.get(SAMPLING_RATE_SETTING);
+			if (value instanceof Number) {
+				probability = Math.max(0d, Math.min(1d, ((Number) value).doubleValue()));
+			}
+			value = settings.get(MAX_PER_SECOND_SETTING);
+			if (value instanceof Number) {
+				maxPerSecond = Math.max(0L, ((Number) value).longValue());
+			}
+			value = settings.get(KEEP_ERRORS_SETTING);
+			if (value instanceof Boolean) {
+				keepErrors = ((Boolean) value).booleanValue();
+			}
+		}
+		InvocationSampler sampler = new InvocationSampler(probability, maxPerSecond, keepErrors);
+		sampler.settings = settings;
+		return sampler;
+	}
+
+	/**
+	 * Returns if the sampler was created from the given settings. The settings are compared by
+	 * identity, as a changed instrumentation always provides new settings to the method.
+	 *
+	 * @param methodSettings
+	 *            Current settings of the method, can be <code>null</code>.
+	 * @return If the sampler reflects the given settings.
+	 */
+	public boolean isCreatedFrom(Map<String, Object> methodSettings) {
+		return settings == methodSettings;
+	}
+
+	/**
+	 * Returns if the sampler drops any sequences, thus if it is needed to ask the sampler at all.
+	 *
+	 * @return If sequences are sampled.
+	 */
+	public boolean isSampling() {
+		return (probability < 1d) || (maxPerSecond > 0);
+	}
+
+	/**
+	 * Decides if the sequence starting now should be recorded.
+	 *
+	 * @param random
+	 *            Random value between 0 (inclusive) and 1 (exclusive).
+	 * @param currentTime
+	 *            Current time in milliseconds.
+	 * @return <code>true</code> if the sequence should be recorded
+	 */
+	public boolean sample(double random, long currentTime) {
+		if (random >= probability) {
+			return false;
+		}
+		if (maxPerSecond <= 0) {
+			return true;
+		}
+		return acquireToken(currentTime);
+	}
+
+	/**
+	 * Takes a token from the bucket if one is available. The bucket is refilled with
+	 * {@link #maxPerSecond} tokens per second and holds at most that many tokens.
+	 *
+	 * @param currentTime
+	 *            Current time in milliseconds.
+	 * @return If token was available.
+	 */
+	private synchronized boolean acquireToken(long currentTime) {
+		long elapsed = currentTime - lastRefillTime;
+		if (elapsed > 0) {
+			tokens = Math.min(maxPerSecond, tokens + ((elapsed * maxPerSecond) / (double) WINDOW));
+			lastRefillTime = currentTime;
+		}
+
+		if ((currentTime - windowStart) >= WINDOW) {
+			if (offered > 0) {
+				acceptRatio = (double) accepted / offered;
+			}
+			offered = 0;
+			accepted = 0;
+			windowStart = currentTime;
+		}
+
+		offered++;
+		if (tokens >= 1d) {
+			tokens -= 1d;
+			accepted++;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the estimated probability with which the recorded sequences are sampled, being the
+	 * sampling probability reduced by the ratio of the sequences that got a token in the last
+	 * second.
+	 *
+	 * @return Effective sampling rate between 0 and 1.
+	 */
+	public double getSamplingRate() {
+		if (maxPerSecond <= 0) {
+			return probability;
+		}
+		return probability * acceptRatio;
+	}
+
+	/**
+	 * Gets {@link #keepErrors}.
+	 *
+	 * @return {@link #keepErrors}
+	 */
+	public boolean isKeepErrors() {
+		return keepErrors;
+	}
+
+}
@@ -5,6 +5,7 @@ import java.sql.Timestamp;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.slf4j.Logger;
@@ -18,6 +19,9 @@ import rocks.inspectit.agent.java.core.IObjectStorage;
 import rocks.inspectit.agent.java.core.IPlatformManager;
 import rocks.inspectit.agent.java.core.IdNotAvailableException;
 import rocks.inspectit.agent.java.core.ListListener;
+import rocks.inspectit.agent.java.core.ListSizeListener;
+import rocks.inspectit.agent.java.hooking.DispatchContext;
+import rocks.inspectit.agent.java.hooking.IArgumentsFreeHook;
 import rocks.inspectit.agent.java.hooking.IConstructorHook;
 import rocks.inspectit.agent.java.hooking.IMethodHook;
 import rocks.inspectit.agent.java.sdk.opentracing.internal.impl.TracerImpl;
@@ -30,7 +34,7 @@ import rocks.inspectit.agent.java.sensor.method.jdbc.PreparedStatementSensor;
 import rocks.inspectit.agent.java.sensor.method.logging.Log4JLoggingSensor;
 import rocks.inspectit.agent.java.tracing.core.transformer.SpanContextTransformer;
 import rocks.inspectit.agent.java.util.StringConstraint;
-import rocks.inspectit.agent.java.util.ThreadLocalStack;
+import rocks.inspectit.agent.java.util.TimingStack;
 import rocks.inspectit.agent.java.util.Timer;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.MethodSensorData;
@@ -56,11 +60,20 @@ import rocks.inspectit.shared.all.tracing.data.AbstractSpan;
  * other hooks which are called during the execution of this invocation. The
  * <code>defaultCoreService</code> field is used to delegate some calls directly to the original
  * core service and later sending of the data to the server.
+ * <p>
+ * If the method starting the invocation defines sampling settings, the {@link InvocationSampler}
+ * decides already at the start of the invocation if it is recorded. For not sampled invocations no
+ * nested sequences are created and only the exceptions are collected, so that the invocation can
+ * still be kept if it ends with an error.
+ * <p>
+ * Consecutive invocations of the same method having the same shape are aggregated in one element
+ * by the {@link InvocationLoopCompressor}. Additionally the amount of elements in one invocation
+ * can be limited by the <code>maxchildren</code> setting of the method starting the invocation.
  *
  * @author Patrice Bouillet
  *
  */
-public class InvocationSequenceHook implements IMethodHook, IConstructorHook, ICoreService {
+public class InvocationSequenceHook implements IMethodHook, IConstructorHook, IArgumentsFreeHook, ICoreService {
 
 	/**
 	 * The logger of this class. Initialized manually.
@@ -105,21 +118,43 @@ public class InvocationSequenceHook implements IMethodHook, IConstructorHook, IC
 	 */
 	private final ThreadLocal<Long> invocationStartIdCount = new ThreadLocal<Long>();
 
+	/**
+	 * Stores if the currently started invocation is sampled. Not sampled invocations are not
+	 * recorded.
+	 */
+	private final ThreadLocal<Boolean> invocationSampled = new ThreadLocal<Boolean>();
+
+	/**
+	 * Stores the count of the nested elements currently existing in the started invocation.
+	 */
+	private final ThreadLocal<Long> invocationElementCount = new ThreadLocal<Long>();
+
 	/**
 	 * The timer used for accurate measuring.
 	 */
 	private final Timer timer;
 
 	/**
-	 * The stack containing the start time values.
+	 * Slot of the stack containing the start time values in the {@link DispatchContext}.
 	 */
-	private final ThreadLocalStack<Double> timeStack = new ThreadLocalStack<Double>();
+	private final int timingStackSlot = DispatchContext.newTimingStackSlot();
 
 	/**
 	 * Saves the min duration for faster access of the values.
 	 */
 	private final Map<Long, Double> minDurationMap = new HashMap<Long, Double>();
 
+	/**
+	 * Samplers of the methods starting the invocations.
+	 */
+	private final Map<Long, InvocationSampler> samplerMap = new ConcurrentHashMap<Long, InvocationSampler>();
+
+	/**
+	 * Saves the max children of the methods starting the invocations, <code>0</code> for no
+	 * limit.
+	 */
+	private final Map<Long, Long> maxChildrenMap = new ConcurrentHashMap<Long, Long>();
+
 	/**
 	 * The StringConstraint to ensure a maximum length of strings.
 	 */
@@ -178,7 +213,8 @@ public class InvocationSequenceHook implements IMethodHook, IConstructorHook, IC
 				// sequence trace
 
 				// save the start time
-				timeStack.push(new Double(timer.getCurrentTime()));
+				TimingStack stack = DispatchContext.get().getTimingStack(timingStackSlot);
+				stack.pushTime(timer.getCurrentNanoTime());
 
 				// no invocation tracer is currently started, so we do that now.
 				InvocationSequenceData invocationSequenceData = new InvocationSequenceData(timestamp, platformId, sensorTypeId, methodId);
@@ -186,21 +222,42 @@ public class InvocationSequenceHook implements IMethodHook, IConstructorHook, IC
 
 				invocationStartId.set(Long.valueOf(methodId));
 				invocationStartIdCount.set(Long.valueOf(1));
+
+				InvocationSampler sampler = getSampler(methodId, rsc);
+				boolean sampled = true;
+				if (sampler.isSampling()) {
+					sampled = sampler.sample(stack.nextRandomDouble(), timestamp.getTime());
+					invocationSequenceData.setSamplingRate(sampler.getSamplingRate());
+				}
+				invocationSampled.set(Boolean.valueOf(sampled));
+
+				if (!maxChildrenMap.containsKey(methodId)) {
+					Object maxChildren = (null != rsc.getSettings()) ? rsc.getSettings().get("maxchildren") : null;
+					maxChildrenMap.put(methodId, (maxChildren instanceof Number) ? Long.valueOf(((Number) maxChildren).longValue()) : Long.valueOf(0L));
+				}
+				invocationElementCount.set(Long.valueOf(0L));
 			} else {
 				if (methodId == invocationStartId.get().longValue()) {
 					long count = invocationStartIdCount.get().longValue();
 					invocationStartIdCount.set(Long.valueOf(count + 1));
 				}
+
+				// not sampled invocations do not record nested sequences
+				if (!isSampled()) {
+					return;
+				}
+
 				// A subsequent call to the before body method where an
 				// invocation tracer is already started.
 				InvocationSequenceData invocationSequenceData = threadLocalInvocationData.get();
 				invocationSequenceData.setChildCount(invocationSequenceData.getChildCount() + 1L);
 
 				InvocationSequenceData nestedInvocationSequenceData = new InvocationSequenceData(timestamp, platformId, invocationSequenceData.getSensorTypeIdent(), methodId);
-				nestedInvocationSequenceData.setStart(timer.getCurrentTime());
+				nestedInvocationSequenceData.setStart(Timer.toMillis(timer.getCurrentNanoTime()));
 				nestedInvocationSequenceData.setParentSequence(invocationSequenceData);
 
 				invocationSequenceData.getNestedSequences().add(nestedInvocationSequenceData);
+				changeElementCount(1L);
 
 				threadLocalInvocationData.set(nestedInvocationSequenceData);
 			}
@@ -228,7 +285,7 @@ public class InvocationSequenceHook implements IMethodHook, IConstructorHook, IC
 				invocationStartIdCount.set(Long.valueOf(count - 1));
 
 				if (0 == (count - 1)) {
-					timeStack.push(new Double(timer.getCurrentTime()));
+					DispatchContext.get().getTimingStack(timingStackSlot).pushTime(timer.getCurrentNanoTime());
 				}
 			}
 		}
@@ -257,9 +314,18 @@ public class InvocationSequenceHook implements IMethodHook, IConstructorHook, IC
 			}
 
 			if ((methodId == invocationStartId.get().longValue()) && (0 == invocationStartIdCount.get().longValue())) {
-				double endTime = timeStack.pop().doubleValue();
-				double startTime = timeStack.pop().doubleValue();
-				double duration = endTime - startTime;
+				TimingStack stack = DispatchContext.get().getTimingStack(timingStackSlot);
+				long endTime = stack.popTime();
+				long startTime = stack.popTime();
+				double duration = Timer.toMillis(endTime - startTime);
+				// start and end of the sequences are kept in milliseconds
+				double startMillis = Timer.toMillis(startTime);
+				double endMillis = Timer.toMillis(endTime);
+
+				if (!keepSequence(methodId, invocationSequenceData)) {
+					threadLocalInvocationData.set(null);
+					return;
+				}
 
 				// check if we belong to a span
 				if (tracer.isCurrentContextExisting()) {
@@ -271,18 +337,18 @@ public class InvocationSequenceHook implements IMethodHook, IConstructorHook, IC
 				// just need an arbitrary prefix so that this sequence will
 				// never be overwritten in the core service!
 				if (minDurationMap.containsKey(invocationStartId.get())) {
-					checkForSavingOrNot(coreService, methodId, sensorTypeId, rsc, invocationSequenceData, startTime, endTime, duration);
+					checkForSavingOrNot(coreService, methodId, sensorTypeId, rsc, invocationSequenceData, startMillis, endMillis, duration);
 				} else {
 					// maybe not saved yet in the map
 					if (rsc.getSettings().containsKey("minduration")) {
 						Long minDuration = (Long) rsc.getSettings().get("minduration");
 						minDurationMap.put(invocationStartId.get(), minDuration.doubleValue());
-						checkForSavingOrNot(coreService, methodId, sensorTypeId, rsc, invocationSequenceData, startTime, endTime, duration);
+						checkForSavingOrNot(coreService, methodId, sensorTypeId, rsc, invocationSequenceData, startMillis, endMillis, duration);
 					} else {
 						invocationSequenceData.setDuration(duration);
-						invocationSequenceData.setStart(startTime);
-						invocationSequenceData.setEnd(endTime);
-						coreService.addMethodSensorData(sensorTypeId, methodId, String.valueOf(startTime), invocationSequenceData);
+						invocationSequenceData.setStart(startMillis);
+						invocationSequenceData.setEnd(endMillis);
+						coreService.addMethodSensorData(sensorTypeId, methodId, String.valueOf(startMillis), invocationSequenceData);
 					}
 				}
 
@@ -290,7 +356,7 @@ public class InvocationSequenceHook implements IMethodHook, IConstructorHook, IC
 			} else {
 				// check for the correct id we must be sure that
 				// we are closing the right sequence
-				if (methodId != invocationSequenceData.getMethodIdent()) {
+				if (!isSampled() || (methodId != invocationSequenceData.getMethodIdent())) {
 					return;
 				}
 
@@ -301,6 +367,7 @@ public class InvocationSequenceHook implements IMethodHook, IConstructorHook, IC
 				if (removeDueToExceptionDelegation(rsc, invocationSequenceData) || removeDueToWrappedSqls(rsc, invocationSequenceData) || removeDueToNotCapturedLogging(rsc, invocationSequenceData)) {
 					parentSequence.getNestedSequences().remove(invocationSequenceData);
 					parentSequence.setChildCount(parentSequence.getChildCount() - 1);
+					changeElementCount(-1L);
 					// but connect all possible children to the parent then we are eliminating one
 					// level here
 					if (CollectionUtils.isNotEmpty(invocationSequenceData.getNestedSequences())) {
@@ -311,15 +378,169 @@ public class InvocationSequenceHook implements IMethodHook, IConstructorHook, IC
 						parentSequence.setChildCount(parentSequence.getChildCount() + invocationSequenceData.getChildCount());
 					}
 				} else {
-					invocationSequenceData.setEnd(timer.getCurrentTime());
+					invocationSequenceData.setEnd(Timer.toMillis(timer.getCurrentNanoTime()));
 					invocationSequenceData.setDuration(invocationSequenceData.getEnd() - invocationSequenceData.getStart());
-					parentSequence.setChildCount(parentSequence.getChildCount() + invocationSequenceData.getChildCount());
+					if (!compressLoop(parentSequence, invocationSequenceData) && !removeDueToMaxChildren(parentSequence, invocationSequenceData)) {
+						parentSequence.setChildCount(parentSequence.getChildCount() + invocationSequenceData.getChildCount());
+					}
 				}
 				threadLocalInvocationData.set(parentSequence);
 			}
 		}
 	}
 
+	/**
+	 * Aggregates the closed nested invocation into the previous sibling if both have the same
+	 * shape. The closed invocation is removed from the parent in that case.
+	 *
+	 * @param parentSequence
+	 *            Parent invocation.
+	 * @param invocationSequenceData
+	 *            Closed nested invocation.
+	 * @return True if the invocation was aggregated.
+	 */
+	private boolean compressLoop(InvocationSequenceData parentSequence, InvocationSequenceData invocationSequenceData) {
+		List<InvocationSequenceData> siblings = parentSequence.getNestedSequences();
+		int size = siblings.size();
+		if ((size < 2) || (siblings.get(size - 1) != invocationSequenceData)) { // NOPMD
+			return false;
+		}
+
+		InvocationSequenceData previous = siblings.get(size - 2);
+		if (!InvocationLoopCompressor.isSameShape(previous, invocationSequenceData)) {
+			return false;
+		}
+
+		InvocationLoopCompressor.aggregate(previous, invocationSequenceData);
+		siblings.remove(size - 1);
+		parentSequence.setChildCount(parentSequence.getChildCount() - 1);
+		changeElementCount(-1L - invocationSequenceData.getChildCount());
+		return true;
+	}
+
+	/**
+	 * Removes the closed nested invocation with all its children if the invocation has more
+	 * elements than the max children setting of the method starting the invocation allows.
+	 *
+	 * @param parentSequence
+	 *            Parent invocation.
+	 * @param invocationSequenceData
+	 *            Closed nested invocation.
+	 * @return True if the invocation was removed.
+	 */
+	private boolean removeDueToMaxChildren(InvocationSequenceData parentSequence, InvocationSequenceData invocationSequenceData) {
+		Long maxChildren = maxChildrenMap.get(invocationStartId.get());
+		Long elementCount = invocationElementCount.get();
+		if ((null == maxChildren) || (null == elementCount) || (maxChildren.longValue() <= 0) || (elementCount.longValue() <= maxChildren.longValue())) {
+			return false;
+		}
+
+		List<InvocationSequenceData> siblings = parentSequence.getNestedSequences();
+		int last = siblings.size() - 1;
+		if ((last >= 0) && (siblings.get(last) == invocationSequenceData)) { // NOPMD
+			siblings.remove(last);
+		} else {
+			siblings.remove(invocationSequenceData);
+		}
+		parentSequence.setChildCount(parentSequence.getChildCount() - 1);
+		changeElementCount(-1L - invocationSequenceData.getChildCount());
+		return true;
+	}
+
+	/**
+	 * Changes the count of the nested elements in the started invocation.
+	 *
+	 * @param delta
+	 *            Change of the count.
+	 */
+	private void changeElementCount(long delta) {
+		Long count = invocationElementCount.get();
+		if (null != count) {
+			invocationElementCount.set(Long.valueOf(count.longValue() + delta));
+		}
+	}
+
+	/**
+	 * Returns the sampler for the method starting the invocation. Sampler is created from the
+	 * settings of the method on the first invocation and created again when the method is
+	 * instrumented with different settings, in which case the cached max children are refreshed
+	 * as well.
+	 *
+	 * @param methodId
+	 *            Method id.
+	 * @param rsc
+	 *            {@link RegisteredSensorConfig}
+	 * @return {@link InvocationSampler}
+	 */
+	private InvocationSampler getSampler(long methodId, RegisteredSensorConfig rsc) {
+		InvocationSampler sampler = samplerMap.get(methodId);
+		if ((null == sampler) || !sampler.isCreatedFrom(rsc.getSettings())) {
+			sampler = InvocationSampler.fromSettings(rsc.getSettings());
+			samplerMap.put(methodId, sampler);
+			maxChildrenMap.remove(methodId);
+		}
+		return sampler;
+	}
+
+	/**
+	 * Returns if the currently started invocation is sampled.
+	 *
+	 * @return If the currently started invocation is sampled.
+	 */
+	private boolean isSampled() {
+		return !Boolean.FALSE.equals(invocationSampled.get());
+	}
+
+	/**
+	 * Returns if the finished invocation should be kept. Not sampled invocations are kept only if
+	 * they contain exceptions and the sampler is keeping errors. As all invocations with exceptions
+	 * are kept in that case, their sampling rate is set to <code>1</code>.
+	 *
+	 * @param methodId
+	 *            Id of the method that started the invocation.
+	 * @param invocationSequenceData
+	 *            Root {@link InvocationSequenceData}.
+	 * @return If invocation should be kept.
+	 */
+	private boolean keepSequence(long methodId, InvocationSequenceData invocationSequenceData) {
+		boolean sampled = isSampled();
+		invocationSampled.set(null);
+
+		InvocationSampler sampler = samplerMap.get(methodId);
+		if ((null == sampler) || !sampler.isSampling()) {
+			return true;
+		}
+
+		if (sampler.isKeepErrors() && hasExceptions(invocationSequenceData)) {
+			invocationSequenceData.setSamplingRate(1d);
+			return true;
+		}
+
+		if (!sampled && LOG.isDebugEnabled()) {
+			LOG.debug("Not saving invocation as it is not sampled. ID(local): " + methodId);
+		}
+		return sampled;
+	}
+
+	/**
+	 * Returns if the invocation or any of the nested invocations contain exceptions.
+	 *
+	 * @param invocationSequenceData
+	 *            {@link InvocationSequenceData} to check.
+	 * @return True if exceptions are available.
+	 */
+	private static boolean hasExceptions(InvocationSequenceData invocationSequenceData) {
+		if (CollectionUtils.isNotEmpty(invocationSequenceData.getExceptionSensorDataObjects())) {
+			return true;
+		}
+		for (InvocationSequenceData nested : invocationSequenceData.getNestedSequences()) {
+			if (hasExceptions(nested)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Returns if the given {@link InvocationSequenceData} should be removed due to the exception
 	 * constructor delegation.
@@ -495,6 +716,11 @@ public class InvocationSequenceHook implements IMethodHook, IConstructorHook, IC
 	private void saveDataObject(DefaultData dataObject) {
 		InvocationSequenceData invocationSequenceData = threadLocalInvocationData.get();
 
+		// not sampled invocations only collect exceptions
+		if (!isSampled() && !dataObject.getClass().equals(ExceptionSensorData.class)) {
+			return;
+		}
+
 		if (dataObject.getClass().equals(SqlStatementData.class)) {
 			// don't overwrite an already existing sql statement data object.
 			if (null == invocationSequenceData.getSqlStatementData()) {
@@ -658,6 +884,22 @@ public class InvocationSequenceHook implements IMethodHook, IConstructorHook, IC
 		throw new UnsupportedMethodException();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void addListSizeListener(ListSizeListener listener) {
+		throw new UnsupportedMethodException();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void removeListSizeListener(ListSizeListener listener) {
+		throw new UnsupportedMethodException();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -13,10 +13,11 @@ import rocks.inspectit.agent.java.config.impl.RegisteredSensorConfig;
 import rocks.inspectit.agent.java.core.ICoreService;
 import rocks.inspectit.agent.java.core.IPlatformManager;
 import rocks.inspectit.agent.java.core.IdNotAvailableException;
+import rocks.inspectit.agent.java.hooking.DispatchContext;
 import rocks.inspectit.agent.java.hooking.IConstructorHook;
 import rocks.inspectit.agent.java.hooking.IMethodHook;
 import rocks.inspectit.agent.java.util.StringConstraint;
-import rocks.inspectit.agent.java.util.ThreadLocalStack;
+import rocks.inspectit.agent.java.util.TimingStack;
 import rocks.inspectit.agent.java.util.Timer;
 import rocks.inspectit.shared.all.communication.data.SqlStatementData;
 
@@ -39,9 +40,9 @@ public class PreparedStatementHook implements IMethodHook, IConstructorHook {
 	Logger log = LoggerFactory.getLogger(PreparedStatementHook.class);
 
 	/**
-	 * The stack containing the start time values.
+	 * Slot of the stack containing the start time values in the {@link DispatchContext}.
 	 */
-	private final ThreadLocalStack<Double> timeStack = new ThreadLocalStack<Double>();
+	private final int timingStackSlot = DispatchContext.newTimingStackSlot();
 
 	/**
 	 * The timer used for accurate measuring.
@@ -79,6 +80,17 @@ public class PreparedStatementHook implements IMethodHook, IConstructorHook {
 	 */
 	private final StatementReflectionCache statementReflectionCache;
 
+	/**
+	 * Dictionary of the SQL strings sent to the CMR.
+	 */
+	private final SqlStatementDictionary sqlStatementDictionary;
+
+	/**
+	 * Normalizer of the SQL strings used for the aggregation. <code>null</code> if the SQL
+	 * normalization is not active.
+	 */
+	private final SqlNormalizer sqlNormalizer;
+
 	/**
 	 * Contains all method idents of all prepared statements that had a problem finding the stored
 	 * SQL statement. Using this structure we can ensure that we do not throw the exception always
@@ -101,15 +113,23 @@ public class PreparedStatementHook implements IMethodHook, IConstructorHook {
 	 *            the meta information storage for connections.
 	 * @param statementReflectionCache
 	 *            Caches the calls to getConnection().
+	 * @param sqlStatementDictionary
+	 *            Dictionary of the SQL strings sent to the CMR.
 	 */
 	public PreparedStatementHook(Timer timer, IPlatformManager platformManager, StatementStorage statementStorage, ConnectionMetaDataStorage connectionMetaDataStorage,
-			StatementReflectionCache statementReflectionCache, Map<String, Object> parameter) {
+			StatementReflectionCache statementReflectionCache, SqlStatementDictionary sqlStatementDictionary, Map<String, Object> parameter) {
 		this.timer = timer;
 		this.platformManager = platformManager;
 		this.statementStorage = statementStorage;
 		this.connectionMetaDataStorage = connectionMetaDataStorage;
 		this.strConstraint = new StringConstraint(parameter);
 		this.statementReflectionCache = statementReflectionCache;
+		this.sqlStatementDictionary = sqlStatementDictionary;
+		if (Boolean.TRUE.equals(parameter.get("normalizeSql"))) {
+			this.sqlNormalizer = new SqlNormalizer();
+		} else {
+			this.sqlNormalizer = null;
+		}
 	}
 
 	/**
@@ -117,7 +137,7 @@ public class PreparedStatementHook implements IMethodHook, IConstructorHook {
 	 */
 	@Override
 	public void beforeBody(long methodId, long sensorTypeId, Object object, Object[] parameters, RegisteredSensorConfig rsc) {
-		timeStack.push(new Double(timer.getCurrentTime()));
+		DispatchContext.get().getTimingStack(timingStackSlot).pushTime(timer.getCurrentNanoTime());
 		threadLast.set(Boolean.TRUE);
 	}
 
@@ -126,7 +146,7 @@ public class PreparedStatementHook implements IMethodHook, IConstructorHook {
 	 */
 	@Override
 	public void firstAfterBody(long methodId, long sensorTypeId, Object object, Object[] parameters, Object result, RegisteredSensorConfig rsc) {
-		timeStack.push(new Double(timer.getCurrentTime()));
+		DispatchContext.get().getTimingStack(timingStackSlot).pushTime(timer.getCurrentNanoTime());
 	}
 
 	/**
@@ -134,15 +154,20 @@ public class PreparedStatementHook implements IMethodHook, IConstructorHook {
 	 */
 	@Override
 	public void secondAfterBody(ICoreService coreService, long methodId, long sensorTypeId, Object object, Object[] parameters, Object result, RegisteredSensorConfig rsc) {
-		double endTime = timeStack.pop().doubleValue();
-		double startTime = timeStack.pop().doubleValue();
+		TimingStack stack = DispatchContext.get().getTimingStack(timingStackSlot);
+		long endTime = stack.popTime();
+		long startTime = stack.popTime();
 
 		if (threadLast.get().booleanValue()) {
 			threadLast.set(Boolean.FALSE);
 
-			String sql = statementStorage.getPreparedStatement(object);
-			if (null != sql) {
-				double duration = endTime - startTime;
+			String rawSql = statementStorage.getPreparedStatement(object);
+			if (null != rawSql) {
+				String sql = rawSql;
+				if (null != sqlNormalizer) {
+					sql = sqlNormalizer.normalize(rawSql);
+				}
+				double duration = Timer.toMillis(endTime - startTime);
 				SqlStatementData sqlData = (SqlStatementData) coreService.getMethodSensorData(sensorTypeId, methodId, sql);
 				if (null == sqlData) {
 					try {
@@ -152,12 +177,15 @@ public class PreparedStatementHook implements IMethodHook, IConstructorHook {
 
 						sqlData = new SqlStatementData(timestamp, platformId, sensorTypeId, methodId);
 						sqlData.setPreparedStatement(true);
-						sqlData.setSql(strConstraint.crop(sql));
+						sqlStatementDictionary.setSql(sqlData, strConstraint.crop(sql));
 						sqlData.setDuration(duration);
 						sqlData.calculateMin(duration);
 						sqlData.calculateMax(duration);
 						sqlData.setCount(1L);
-						sqlData.setParameterValues(params);
+						// parameters only match the placeholders of not normalized SQL
+						if (sql.equals(rawSql)) {
+							sqlData.setParameterValues(params);
+						}
 
 						// populate the connection meta data.
 						connectionMetaDataStorage.populate(sqlData, statementReflectionCache.getConnection(object.getClass(), object));
@@ -46,6 +46,12 @@ public class PreparedStatementSensor extends AbstractMethodSensor implements IMe
 	@Autowired
 	private ConnectionMetaDataStorage connectionMetaDataStorage;
 
+	/**
+	 * Dictionary of the SQL strings sent to the CMR.
+	 */
+	@Autowired
+	private SqlStatementDictionary sqlStatementDictionary;
+
 	/**
 	 * The used prepared statement hook.
 	 */
@@ -64,7 +70,7 @@ public class PreparedStatementSensor extends AbstractMethodSensor implements IMe
 	 */
 	@Override
 	protected void initHook(Map<String, Object> parameters) {
-		preparedStatementHook = new PreparedStatementHook(timer, platformManager, statementStorage, connectionMetaDataStorage, statementReflectionCache, parameters);
+		preparedStatementHook = new PreparedStatementHook(timer, platformManager, statementStorage, connectionMetaDataStorage, statementReflectionCache, sqlStatementDictionary, parameters);
 	}
 
 }
@@ -0,0 +1,390 @@
+package rocks.inspectit.agent.java.sensor.method.jdbc;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Normalizes the SQL strings by replacing the literals with the <code>?</code> placeholder, so
+ * that the statements executed with inline literals are aggregated to the same SQL. The
+ * normalization does the following:
+ * <ul>
+ * <li>String literals (<code>'...'</code>, with <code>''</code> as escaped quote) are replaced with
+ * <code>?</code>. Backslash escapes (<code>\'</code>) as used by MySQL are supported as well, if
+ * the literal is not closed when reading the backslash as escape, the backslash is taken as a
+ * normal character.
+ * <li>Numeric literals (decimal, with fraction and exponent, and hexadecimal) that are not part of
+ * an identifier or of a numbered bind variable (<code>:1</code>) are replaced with <code>?</code>.
+ * <li>Lists in the <code>IN (...)</code> clauses that consist only of literals and placeholders are
+ * collapsed to <code>IN (?)</code>.
+ * <li>Quoted identifiers and comments are left untouched.
+ * </ul>
+ * The normalized strings are cached per raw SQL string.
+ *
+ * @author agent
+ *
+ */
+public class SqlNormalizer {
+
+	/**
+	 * Maximum amount of normalized strings to cache.
+	 */
+	static final int MAX_CACHE_SIZE = 10000;
+
+	/**
+	 * Cache of the normalized SQLs by the raw SQL.
+	 */
+	private final Cache<String, String> cache = CacheBuilder.newBuilder().maximumSize(MAX_CACHE_SIZE).build();
+
+	/**
+	 * Returns the normalized SQL string. Result is cached.
+	 *
+	 * @param sql
+	 *            Raw SQL string.
+	 * @return Normalized SQL string.
+	 */
+	public String normalize(String sql) {
+		String normalized = cache.getIfPresent(sql);
+		if (null == normalized) {
+			normalized = normalizeSql(sql);
+			cache.put(sql, normalized);
+		}
+		return normalized;
+	}
+
+	/**
+	 * Normalizes the SQL string without the caching.
+	 *
+	 * @param sql
+	 *            Raw SQL string.
+	 * @return Normalized SQL string or the same string if nothing had to be normalized.
+	 */
+	static String normalizeSql(String sql) {
+		int length = sql.length();
+		StringBuilder builder = new StringBuilder(length);
+		boolean changed = false;
+		int i = 0;
+		while (i < length) {
+			char c = sql.charAt(i);
+			if ('\'' == c) {
+				i = skipString(sql, i);
+				builder.append('?');
+				changed = true;
+			} else if (('"' == c) || ('`' == c)) {
+				int end = skipQuotedIdentifier(sql, i, c);
+				builder.append(sql, i, end);
+				i = end;
+			} else if (('-' == c) && isCharAt(sql, i + 1, '-')) {
+				int end = sql.indexOf('\n', i);
+				if (end < 0) {
+					end = length;
+				}
+				builder.append(sql, i, end);
+				i = end;
+			} else if (('/' == c) && isCharAt(sql, i + 1, '*')) {
+				int end = sql.indexOf("*/", i + 2);
+				end = (end < 0) ? length : end + 2;
+				builder.append(sql, i, end);
+				i = end;
+			} else if (isNumberStart(sql, i) && !isIdentifierEnd(builder) && !isBindMarkerEnd(builder)) {
+				i = skipNumber(sql, i);
+				builder.append('?');
+				changed = true;
+			} else if (('(' == c) && isInKeywordEnd(builder)) {
+				int end = skipLiteralList(sql, i);
+				if (end > 0) {
+					builder.append("(?)");
+					changed = true;
+					i = end;
+				} else {
+					builder.append(c);
+					i++;
+				}
+			} else {
+				builder.append(c);
+				i++;
+			}
+		}
+
+		if (changed) {
+			return builder.toString();
+		} else {
+			return sql;
+		}
+	}
+
+	/**
+	 * Skips the string literal. The backslash is first read as escape character, if the literal is
+	 * not closed that way, it's read as normal character.
+	 *
+	 * @param sql
+	 *            SQL string.
+	 * @param start
+	 *            Index of the opening quote.
+	 * @return Index after the closing quote or length of the SQL if the literal is not closed.
+	 */
+	private static int skipString(String sql, int start) {
+		int end = findStringEnd(sql, start, true);
+		if (end < 0) {
+			end = findStringEnd(sql, start, false);
+		}
+		if (end < 0) {
+			return sql.length();
+		}
+		return end;
+	}
+
+	/**
+	 * Finds the end of the string literal.
+	 *
+	 * @param sql
+	 *            SQL string.
+	 * @param start
+	 *            Index of the opening quote.
+	 * @param backslashEscapes
+	 *            If the backslash escapes the following character.
+	 * @return Index after the closing quote or <code>-1</code> if the literal is not closed.
+	 */
+	private static int findStringEnd(String sql, int start, boolean backslashEscapes) {
+		int length = sql.length();
+		int i = start + 1;
+		while (i < length) {
+			char c = sql.charAt(i);
+			if (backslashEscapes && ('\\' == c)) {
+				i += 2;
+				continue;
+			}
+			if ('\'' == c) {
+				if (isCharAt(sql, i + 1, '\'')) {
+					// escaped quote
+					i += 2;
+					continue;
+				}
+				return i + 1;
+			}
+			i++;
+		}
+		return -1;
+	}
+
+	/**
+	 * Skips the quoted identifier.
+	 *
+	 * @param sql
+	 *            SQL string.
+	 * @param start
+	 *            Index of the opening quote.
+	 * @param quote
+	 *            Quote character.
+	 * @return Index after the closing quote or length of the SQL if the identifier is not closed.
+	 */
+	private static int skipQuotedIdentifier(String sql, int start, char quote) {
+		int end = sql.indexOf(quote, start + 1);
+		if (end < 0) {
+			return sql.length();
+		}
+		return end + 1;
+	}
+
+	/**
+	 * Skips the numeric literal.
+	 *
+	 * @param sql
+	 *            SQL string.
+	 * @param start
+	 *            Index where the number starts.
+	 * @return Index after the number.
+	 */
+	private static int skipNumber(String sql, int start) {
+		int length = sql.length();
+		int i = start;
+		if (('0' == sql.charAt(i)) && (isCharAt(sql, i + 1, 'x') || isCharAt(sql, i + 1, 'X'))) {
+			i += 2;
+			while ((i < length) && (Character.digit(sql.charAt(i), 16) >= 0)) {
+				i++;
+			}
+			return i;
+		}
+
+		i = skipDigits(sql, i);
+		if (isCharAt(sql, i, '.')) {
+			i = skipDigits(sql, i + 1);
+		}
+		if (isCharAt(sql, i, 'e') || isCharAt(sql, i, 'E')) {
+			int exponent = i + 1;
+			if (isCharAt(sql, exponent, '+') || isCharAt(sql, exponent, '-')) {
+				exponent++;
+			}
+			if ((exponent < length) && isDigit(sql.charAt(exponent))) {
+				i = skipDigits(sql, exponent);
+			}
+		}
+		return i;
+	}
+
+	/**
+	 * Skips the digits.
+	 *
+	 * @param sql
+	 *            SQL string.
+	 * @param start
+	 *            Start index.
+	 * @return Index of the first non-digit character.
+	 */
+	private static int skipDigits(String sql, int start) {
+		int length = sql.length();
+		int i = start;
+		while ((i < length) && isDigit(sql.charAt(i))) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * Checks if the list starting at the given opening bracket consists only of literals and
+	 * placeholders separated by commas.
+	 *
+	 * @param sql
+	 *            SQL string.
+	 * @param start
+	 *            Index of the opening bracket.
+	 * @return Index after the closing bracket or <code>-1</code> if the list can not be collapsed.
+	 */
+	private static int skipLiteralList(String sql, int start) {
+		int length = sql.length();
+		int i = start + 1;
+		boolean expectElement = true;
+		int elements = 0;
+		while (i < length) {
+			char c = sql.charAt(i);
+			if (Character.isWhitespace(c)) {
+				i++;
+			} else if (')' == c) {
+				if ((elements > 0) && !expectElement) {
+					return i + 1;
+				}
+				return -1;
+			} else if (expectElement) {
+				if ('\'' == c) {
+					i = skipString(sql, i);
+				} else if ('?' == c) {
+					i++;
+				} else if ((('-' == c) || ('+' == c)) && isNumberStart(sql, i + 1)) {
+					i = skipNumber(sql, i + 1);
+				} else if (isNumberStart(sql, i)) {
+					i = skipNumber(sql, i);
+				} else {
+					return -1;
+				}
+				elements++;
+				expectElement = false;
+			} else if (',' == c) {
+				expectElement = true;
+				i++;
+			} else {
+				return -1;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns if the number starts at the given index.
+	 *
+	 * @param sql
+	 *            SQL string.
+	 * @param index
+	 *            Index.
+	 * @return <code>true</code> if there is a digit or a dot followed by a digit at the index.
+	 */
+	private static boolean isNumberStart(String sql, int index) {
+		if (index >= sql.length()) {
+			return false;
+		}
+		char c = sql.charAt(index);
+		return isDigit(c) || (('.' == c) && ((index + 1) < sql.length()) && isDigit(sql.charAt(index + 1)));
+	}
+
+	/**
+	 * Returns if the already normalized part ends with an identifier character, meaning that a
+	 * following digit is part of the identifier.
+	 *
+	 * @param builder
+	 *            Normalized part.
+	 * @return <code>true</code> if the last character is part of an identifier.
+	 */
+	private static boolean isIdentifierEnd(StringBuilder builder) {
+		if (builder.length() == 0) {
+			return false;
+		}
+		return isIdentifierPart(builder.charAt(builder.length() - 1));
+	}
+
+	/**
+	 * Returns if the already normalized part ends with the bind variable marker, meaning that a
+	 * following number is the index of the bind variable (<code>:1</code>).
+	 *
+	 * @param builder
+	 *            Normalized part.
+	 * @return <code>true</code> if the last character is the bind variable marker.
+	 */
+	private static boolean isBindMarkerEnd(StringBuilder builder) {
+		return (builder.length() > 0) && (':' == builder.charAt(builder.length() - 1));
+	}
+
+	/**
+	 * Returns if the already normalized part ends with the <code>IN</code> keyword, optionally
+	 * followed by white spaces.
+	 *
+	 * @param builder
+	 *            Normalized part.
+	 * @return <code>true</code> if the part ends with <code>IN</code> keyword.
+	 */
+	private static boolean isInKeywordEnd(StringBuilder builder) {
+		int i = builder.length() - 1;
+		while ((i >= 0) && Character.isWhitespace(builder.charAt(i))) {
+			i--;
+		}
+		if ((i < 1) || (Character.toLowerCase(builder.charAt(i)) != 'n') || (Character.toLowerCase(builder.charAt(i - 1)) != 'i')) {
+			return false;
+		}
+		return (i < 2) || !isIdentifierPart(builder.charAt(i - 2));
+	}
+
+	/**
+	 * Returns if the character can be part of an unquoted identifier.
+	 *
+	 * @param c
+	 *            Character.
+	 * @return <code>true</code> if the character can be part of an unquoted identifier.
+	 */
+	private static boolean isIdentifierPart(char c) {
+		return Character.isLetterOrDigit(c) || ('_' == c) || ('$' == c) || ('#' == c) || ('@' == c);
+	}
+
+	/**
+	 * Returns if the character is an ASCII digit.
+	 *
+	 * @param c
+	 *            Character.
+	 * @return <code>true</code> for digits.
+	 */
+	private static boolean isDigit(char c) {
+		return (c >= '0') && (c <= '9');
+	}
+
+	/**
+	 * Returns if the given character is at the given index.
+	 *
+	 * @param sql
+	 *            SQL string.
+	 * @param index
+	 *            Index, can be out of bounds.
+	 * @param c
+	 *            Character.
+	 * @return <code>true</code> if the index is valid and the character at it is the given one.
+	 */
+	private static boolean isCharAt(String sql, int index, char c) {
+		return (index < sql.length()) && (sql.charAt(index) == c);
+	}
+
+}
@@ -0,0 +1,157 @@
+package rocks.inspectit.agent.java.sensor.method.jdbc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import rocks.inspectit.agent.java.core.SentDataListener;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+
+/**
+ * Dictionary of the SQL strings already sent to the CMR over the agent's connection. Each SQL
+ * string gets a numeric id computed from its content. The SQL string is sent with the
+ * {@link SqlStatementData} objects of the id until a data object holding the string was sent,
+ * afterwards only the id is sent and the CMR resolves the string. Thus data dropped before sending
+ * (buffer overflow) or invocation sequences sent later than the first data object never cause the
+ * string to be skipped.
+ * <p>
+ * As the CMR can lose the dictionary (restart, dictionary clean) each SQL string is sent again
+ * after the {@link #RESEND_INTERVAL}.
+ *
+ * @author agent
+ *
+ */
+@Component
+public class SqlStatementDictionary implements SentDataListener {
+
+	/**
+	 * Interval in milliseconds after which the SQL string is sent again.
+	 */
+	static final long RESEND_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+
+	/**
+	 * Maximum amount of the ids held. When reached the dictionary is cleared.
+	 */
+	static final int MAX_SIZE = 10000;
+
+	/**
+	 * FNV-1a 64-bit offset basis.
+	 */
+	private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+
+	/**
+	 * FNV-1a 64-bit prime.
+	 */
+	private static final long PRIME = 0x100000001b3L;
+
+	/**
+	 * Time in milliseconds the SQL string was last sent at, by id.
+	 */
+	private final Map<Long, Long> sentTimes = new ConcurrentHashMap<Long, Long>();
+
+	/**
+	 * Sets the SQL string to the data object. The id of the SQL is always set, while the string
+	 * itself is only set if no data object holding it was sent in the last
+	 * {@link #RESEND_INTERVAL}.
+	 *
+	 * @param sqlStatementData
+	 *            Data object.
+	 * @param sql
+	 *            SQL string.
+	 */
+	public void setSql(SqlStatementData sqlStatementData, String sql) {
+		long sqlId = getId(sql);
+		sqlStatementData.setSqlId(sqlId);
+
+		Long lastSent = sentTimes.get(Long.valueOf(sqlId));
+		if ((null == lastSent) || ((System.currentTimeMillis() - lastSent.longValue()) >= RESEND_INTERVAL)) {
+			sqlStatementData.setSql(sql);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Marks the SQL strings of all data objects holding the string as sent, including the ones
+	 * nested in the invocation sequences.
+	 */
+	@Override
+	public void dataSent(List<? extends DefaultData> dataObjects) {
+		long currentTime = System.currentTimeMillis();
+		for (DefaultData defaultData : dataObjects) {
+			if (defaultData instanceof SqlStatementData) {
+				markSent((SqlStatementData) defaultData, currentTime);
+			} else if (defaultData instanceof InvocationSequenceData) {
+				markSent((InvocationSequenceData) defaultData, currentTime);
+			}
+		}
+	}
+
+	/**
+	 * Marks the SQL string of the data object as sent if the data object holds it.
+	 *
+	 * @param sqlStatementData
+	 *            Sent data object.
+	 * @param currentTime
+	 *            Current time in milliseconds.
+	 */
+	private void markSent(SqlStatementData sqlStatementData, long currentTime) {
+		if ((0 != sqlStatementData.getSqlId()) && (null != sqlStatementData.getSql())) {
+			if (sentTimes.size() >= MAX_SIZE) {
+				sentTimes.clear();
+			}
+			sentTimes.put(Long.valueOf(sqlStatementData.getSqlId()), Long.valueOf(currentTime));
+		}
+	}
+
+	/**
+	 * Marks the SQL strings of the invocation sequence and all its nested sequences as sent.
+	 *
+	 * @param invocationSequenceData
+	 *            Sent invocation sequence.
+	 * @param currentTime
+	 *            Current time in milliseconds.
+	 */
+	private void markSent(InvocationSequenceData invocationSequenceData, long currentTime) {
+		if (null != invocationSequenceData.getSqlStatementData()) {
+			markSent(invocationSequenceData.getSqlStatementData(), currentTime);
+		}
+		if (null != invocationSequenceData.getNestedSequences()) {
+			for (InvocationSequenceData nested : invocationSequenceData.getNestedSequences()) {
+				markSent(nested, currentTime);
+			}
+		}
+	}
+
+	/**
+	 * Computes the id of the SQL string. The id is the 64-bit FNV-1a hash of the characters with
+	 * the final avalanche mix.
+	 *
+	 * @param sql
+	 *            SQL string.
+	 * @return Id, never <code>0</code>.
+	 */
+	static long getId(String sql) {
+		long hash = OFFSET_BASIS;
+		for (int i = 0; i < sql.length(); i++) {
+			hash = (hash ^ sql.charAt(i)) * PRIME;
+		}
+
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+
+		if (0 == hash) {
+			return 1;
+		}
+		return hash;
+	}
+
+}
@@ -11,16 +11,18 @@ import rocks.inspectit.agent.java.core.ICoreService;
 import rocks.inspectit.agent.java.core.IPlatformManager;
 import rocks.inspectit.agent.java.core.IdNotAvailableException;
 import rocks.inspectit.agent.java.core.impl.CoreService;
+import rocks.inspectit.agent.java.hooking.DispatchContext;
 import rocks.inspectit.agent.java.hooking.IMethodHook;
 import rocks.inspectit.agent.java.util.StringConstraint;
-import rocks.inspectit.agent.java.util.ThreadLocalStack;
+import rocks.inspectit.agent.java.util.TimingStack;
 import rocks.inspectit.agent.java.util.Timer;
 import rocks.inspectit.shared.all.communication.data.SqlStatementData;
 
 /**
- * The hook implementation for the statement sensor. It uses the {@link ThreadLocalStack} class to
+ * The hook implementation for the statement sensor. It uses the {@link #threadLast} marker to
  * know if some execute methods call each other which would result in multiple data objects for only
- * one query. After the complete SQL method was executed, it computes how long the method took to
+ * one query, and the {@link DispatchContext} class to save the time when the method was
+ * called. After the complete SQL method was executed, it computes how long the method took to
  * finish and saves the executed SQL Statement String. Afterwards, the measurement is added to the
  * {@link CoreService}.
  *
@@ -36,9 +38,9 @@ public class StatementHook implements IMethodHook {
 	private static final Logger LOG = LoggerFactory.getLogger(StatementHook.class);
 
 	/**
-	 * The stack containing the start time values.
+	 * Slot of the stack containing the start time values in the {@link DispatchContext}.
 	 */
-	private final ThreadLocalStack<Double> timeStack = new ThreadLocalStack<Double>();
+	private final int timingStackSlot = DispatchContext.newTimingStackSlot();
 
 	/**
 	 * The timer used for accurate measuring.
@@ -71,6 +73,17 @@ public class StatementHook implements IMethodHook {
 	 */
 	private final StatementReflectionCache statementReflectionCache;
 
+	/**
+	 * Dictionary of the SQL strings sent to the CMR.
+	 */
+	private final SqlStatementDictionary sqlStatementDictionary;
+
+	/**
+	 * Normalizer of the SQL strings used for the aggregation. <code>null</code> if the SQL
+	 * normalization is not active.
+	 */
+	private final SqlNormalizer sqlNormalizer;
+
 	/**
 	 * The only constructor which needs the {@link Timer}.
 	 *
@@ -84,14 +97,22 @@ public class StatementHook implements IMethodHook {
 	 *            the storage containing meta information on the connection.
 	 * @param statementReflectionCache
 	 *            Caches the calls to getConnection()
+	 * @param sqlStatementDictionary
+	 *            Dictionary of the SQL strings sent to the CMR.
 	 */
 	public StatementHook(Timer timer, IPlatformManager platformManager, ConnectionMetaDataStorage connectionMetaDataStorage, StatementReflectionCache statementReflectionCache,
-			Map<String, Object> parameter) {
+			SqlStatementDictionary sqlStatementDictionary, Map<String, Object> parameter) {
 		this.timer = timer;
 		this.platformManager = platformManager;
 		this.connectionMetaDataStorage = connectionMetaDataStorage;
 		this.strConstraint = new StringConstraint(parameter);
 		this.statementReflectionCache = statementReflectionCache;
+		this.sqlStatementDictionary = sqlStatementDictionary;
+		if (Boolean.TRUE.equals(parameter.get("normalizeSql"))) {
+			this.sqlNormalizer = new SqlNormalizer();
+		} else {
+			this.sqlNormalizer = null;
+		}
 	}
 
 	/**
@@ -99,7 +120,7 @@ public class StatementHook implements IMethodHook {
 	 */
 	@Override
 	public void beforeBody(long methodId, long sensorTypeId, Object object, Object[] parameters, RegisteredSensorConfig rsc) {
-		timeStack.push(new Double(timer.getCurrentTime()));
+		DispatchContext.get().getTimingStack(timingStackSlot).pushTime(timer.getCurrentNanoTime());
 		threadLast.set(Boolean.TRUE);
 	}
 
@@ -108,7 +129,7 @@ public class StatementHook implements IMethodHook {
 	 */
 	@Override
 	public void firstAfterBody(long methodId, long sensorTypeId, Object object, Object[] parameters, Object result, RegisteredSensorConfig rsc) {
-		timeStack.push(new Double(timer.getCurrentTime()));
+		DispatchContext.get().getTimingStack(timingStackSlot).pushTime(timer.getCurrentNanoTime());
 	}
 
 	/**
@@ -116,14 +137,18 @@ public class StatementHook implements IMethodHook {
 	 */
 	@Override
 	public void secondAfterBody(ICoreService coreService, long methodId, long sensorTypeId, Object object, Object[] parameters, Object result, RegisteredSensorConfig rsc) {
-		double endTime = timeStack.pop().doubleValue();
-		double startTime = timeStack.pop().doubleValue();
+		TimingStack stack = DispatchContext.get().getTimingStack(timingStackSlot);
+		long endTime = stack.popTime();
+		long startTime = stack.popTime();
 
 		if (threadLast.get().booleanValue()) {
 			threadLast.set(Boolean.FALSE);
 
-			double duration = endTime - startTime;
+			double duration = Timer.toMillis(endTime - startTime);
 			String sql = parameters[0].toString();
+			if (null != sqlNormalizer) {
+				sql = sqlNormalizer.normalize(sql);
+			}
 			SqlStatementData sqlData = (SqlStatementData) coreService.getMethodSensorData(sensorTypeId, methodId, sql);
 
 			if (null == sqlData) {
@@ -133,7 +158,7 @@ public class StatementHook implements IMethodHook {
 
 					sqlData = new SqlStatementData(timestamp, platformId, sensorTypeId, methodId);
 					sqlData.setPreparedStatement(false);
-					sqlData.setSql(strConstraint.crop(sql));
+					sqlStatementDictionary.setSql(sqlData, strConstraint.crop(sql));
 					sqlData.setDuration(duration);
 					sqlData.calculateMin(duration);
 					sqlData.calculateMax(duration);
@@ -136,17 +136,20 @@ public class RemoteClientHook implements IMethodHook {
 					LOG.debug("Remote client hook after body span " + span);
 				}
 
-				try {
-					AbstractSpan transformedSpan = SpanTransformer.transformSpan(span);
-					transformedSpan.setPlatformIdent(platformManager.getPlatformId());
-					transformedSpan.setMethodIdent(methodId);
-					transformedSpan.setSensorTypeIdent(sensorTypeId);
-
-					// add to core service (use span id as prefix)
-					coreService.addMethodSensorData(sensorTypeId, methodId, String.valueOf(transformedSpan.getSpanIdent().getId()), transformedSpan);
-				} catch (IdNotAvailableException e) {
-					if (LOG.isDebugEnabled()) {
-						LOG.debug("Could not save the timer data because of an unavailable id. " + e.getMessage());
+				// spans of the not sampled traces are not sent
+				if (span.isSampled()) {
+					try {
+						AbstractSpan transformedSpan = SpanTransformer.transformSpan(span);
+						transformedSpan.setPlatformIdent(platformManager.getPlatformId());
+						transformedSpan.setMethodIdent(methodId);
+						transformedSpan.setSensorTypeIdent(sensorTypeId);
+
+						// add to core service (use span id as prefix)
+						coreService.addMethodSensorData(sensorTypeId, methodId, String.valueOf(transformedSpan.getSpanIdent().getId()), transformedSpan);
+					} catch (IdNotAvailableException e) {
+						if (LOG.isDebugEnabled()) {
+							LOG.debug("Could not save the timer data because of an unavailable id. " + e.getMessage());
+						}
 					}
 				}
 			}
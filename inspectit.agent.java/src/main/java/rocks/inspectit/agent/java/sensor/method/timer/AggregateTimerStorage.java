@@ -3,6 +3,7 @@ package rocks.inspectit.agent.java.sensor.method.timer;
 import java.sql.Timestamp;
 import java.util.List;
 
+import rocks.inspectit.agent.java.util.Timer;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.data.ParameterContentData;
 import rocks.inspectit.shared.all.communication.valueobject.TimerRawVO;
@@ -46,11 +47,12 @@ public class AggregateTimerStorage implements ITimerStorage {
 	 * {@inheritDoc}
 	 */
 	@Override
-	public void addData(double time, double cpuTime) {
+	public void addData(long time, long cpuTime) {
+		// raw value object holds the times in milliseconds
 		if (cpuTime < 0) {
-			timerRawVO.add(time);
+			timerRawVO.add(Timer.toMillis(time));
 		} else {
-			timerRawVO.add(time, cpuTime);
+			timerRawVO.add(Timer.toMillis(time), Timer.toMillis(cpuTime));
 		}
 	}
 
@@ -0,0 +1,67 @@
+package rocks.inspectit.agent.java.sensor.method.timer;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import rocks.inspectit.agent.java.util.Timer;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.DurationHistogram;
+import rocks.inspectit.shared.all.communication.data.ParameterContentData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+
+/**
+ * The histogram timer storage computes the values as the {@link OptimizedTimerStorage} and in
+ * addition counts the durations in the buckets of the {@link DurationHistogram}, so that the
+ * percentiles can be estimated on the CMR. The memory used by the storage is fixed, only the
+ * buckets up to the last one having a count are passed with the {@link TimerData}.
+ *
+ * @author agent
+ *
+ */
+public class HistogramTimerStorage extends OptimizedTimerStorage {
+
+	/**
+	 * Bucket counts.
+	 */
+	private final long[] buckets = new long[DurationHistogram.BUCKETS];
+
+	/**
+	 * Default constructor which initializes a {@link TimerData} object.
+	 *
+	 * @param timeStamp
+	 *            The time stamp.
+	 * @param platformIdent
+	 *            The platform ID.
+	 * @param sensorTypeIdent
+	 *            The sensor type ID.
+	 * @param methodIdent
+	 *            The method ID.
+	 * @param parameterContentData
+	 *            The content of the parameter/fields.
+	 * @param charting
+	 *            If TimerData's charting should be set or not.
+	 */
+	public HistogramTimerStorage(Timestamp timeStamp, long platformIdent, long sensorTypeIdent, long methodIdent, List<ParameterContentData> parameterContentData, boolean charting) {
+		super(timeStamp, platformIdent, sensorTypeIdent, methodIdent, parameterContentData, charting);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void addData(long time, long cpuTime) {
+		super.addData(time, cpuTime);
+		DurationHistogram.record(buckets, Timer.toMillis(time));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public DefaultData finalizeDataObject() {
+		TimerData timerData = (TimerData) super.finalizeDataObject();
+		timerData.setHistogram(DurationHistogram.trim(buckets));
+		return timerData;
+	}
+
+}
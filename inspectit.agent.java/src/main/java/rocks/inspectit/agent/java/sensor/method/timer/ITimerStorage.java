@@ -3,7 +3,7 @@ package rocks.inspectit.agent.java.sensor.method.timer;
 import rocks.inspectit.agent.java.core.IObjectStorage;
 
 /**
- * A {@link ITimerStorage} just accepts time data through {@link #addData(double, double)}.
+ * A {@link ITimerStorage} just accepts time data through {@link #addData(long, long)}.
  *
  * @author Patrice Bouillet
  *
@@ -11,13 +11,14 @@ import rocks.inspectit.agent.java.core.IObjectStorage;
 public interface ITimerStorage extends IObjectStorage {
 
 	/**
-	 * The only method, which is used to process the new time and cpu time value.
+	 * The only method, which is used to process the new time and cpu time value. Values are
+	 * converted to the milliseconds of the data objects when the data object is finalized.
 	 *
 	 * @param time
-	 *            The time value.
+	 *            The time value in nanoseconds.
 	 * @param cpuTime
-	 *            The cpu time value.
+	 *            The cpu time value in nanoseconds, negative if the cpu time was not measured.
 	 */
-	void addData(double time, double cpuTime);
+	void addData(long time, long cpuTime);
 
 }
@@ -3,13 +3,14 @@ package rocks.inspectit.agent.java.sensor.method.timer;
 import java.sql.Timestamp;
 import java.util.List;
 
+import rocks.inspectit.agent.java.util.Timer;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.data.ParameterContentData;
 import rocks.inspectit.shared.all.communication.data.TimerData;
 
 /**
- * The optimized timer storage instantly computes the new values and saves them in the
- * {@link TimerData}.
+ * The optimized timer storage instantly computes the new values in nanoseconds and saves them in
+ * the {@link TimerData} in milliseconds when the data object is finalized.
  *
  * @author Patrice Bouillet
  *
@@ -21,6 +22,46 @@ public class OptimizedTimerStorage implements ITimerStorage {
 	 */
 	private TimerData timerData;
 
+	/**
+	 * Number of added times.
+	 */
+	private long count;
+
+	/**
+	 * Sum of the times.
+	 */
+	private long duration;
+
+	/**
+	 * Minimum time.
+	 */
+	private long min = Long.MAX_VALUE;
+
+	/**
+	 * Maximum time.
+	 */
+	private long max = -1L;
+
+	/**
+	 * Number of added CPU times.
+	 */
+	private long cpuCount;
+
+	/**
+	 * Sum of the CPU times.
+	 */
+	private long cpuDuration;
+
+	/**
+	 * Minimum CPU time.
+	 */
+	private long cpuMin = Long.MAX_VALUE;
+
+	/**
+	 * Maximum CPU time.
+	 */
+	private long cpuMax = -1L;
+
 	/**
 	 * Default constructor which initializes a {@link TimerData} object.
 	 *
@@ -46,19 +87,28 @@ public class OptimizedTimerStorage implements ITimerStorage {
 	 * {@inheritDoc}
 	 */
 	@Override
-	public void addData(double time, double cpuTime) {
-		timerData.increaseCount();
-		timerData.addDuration(time);
+	public void addData(long time, long cpuTime) {
+		count++;
+		duration += time;
 
-		timerData.calculateMax(time);
-		timerData.calculateMin(time);
+		if (time > max) {
+			max = time;
+		}
+		if (time < min) {
+			min = time;
+		}
 
 		// only add the cpu time if it greater than zero
 		if (cpuTime >= 0) {
-			timerData.addCpuDuration(cpuTime);
+			cpuCount++;
+			cpuDuration += cpuTime;
 
-			timerData.calculateCpuMax(cpuTime);
-			timerData.calculateCpuMin(cpuTime);
+			if (cpuTime > cpuMax) {
+				cpuMax = cpuTime;
+			}
+			if (cpuTime < cpuMin) {
+				cpuMin = cpuTime;
+			}
 		}
 	}
 
@@ -67,7 +117,19 @@ public class OptimizedTimerStorage implements ITimerStorage {
 	 */
 	@Override
 	public DefaultData finalizeDataObject() {
-		// processing is done during data adding, so nothing to do here.
+		// processing is done during data adding, only the conversion to milliseconds is left
+		if (0 != count) {
+			timerData.setCount(count);
+			timerData.setDuration(Timer.toMillis(duration));
+			timerData.calculateMin(Timer.toMillis(min));
+			timerData.calculateMax(Timer.toMillis(max));
+		}
+		if (0 != cpuCount) {
+			timerData.setCpuCount(cpuCount);
+			timerData.setCpuDuration(Timer.toMillis(cpuDuration));
+			timerData.calculateCpuMin(Timer.toMillis(cpuMin));
+			timerData.calculateCpuMax(Timer.toMillis(cpuMax));
+		}
 		return timerData;
 	}
 
@@ -0,0 +1,336 @@
+package rocks.inspectit.agent.java.sensor.method.timer;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import rocks.inspectit.agent.java.util.Timer;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.ParameterContentData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+
+/**
+ * The striped timer storage accumulates the values in a number of cells and merges them into the
+ * {@link TimerData} only when the data object is finalized. Each thread updates the cell selected
+ * by its id with atomic operations, so that concurrent threads in the same method don't lose any
+ * updates and threads in different cells don't compete for the same cache line. No locks are used
+ * when adding the data.
+ * <p>
+ * Cells are created on the first use, thus the storage of a method called by one thread only holds
+ * a single cell.
+ *
+ * @author agent
+ *
+ */
+public class StripedTimerStorage implements ITimerStorage {
+
+	/**
+	 * Maximum number of cells.
+	 */
+	private static final int MAX_CELLS = 64;
+
+	/**
+	 * Number of cells, the power of two that is at least twice the number of processors.
+	 */
+	static final int CELLS = cellCount(Runtime.getRuntime().availableProcessors());
+
+	/**
+	 * Multiplier spreading the sequential thread ids over the cells.
+	 */
+	private static final int SPREAD = 0x9E3779B9;
+
+	/**
+	 * The used {@link TimerData}, values are set on finalization.
+	 */
+	private final TimerData timerData;
+
+	/**
+	 * Cells holding the values.
+	 */
+	private final AtomicReferenceArray<Cell> cells = new AtomicReferenceArray<Cell>(CELLS);
+
+	/**
+	 * Default constructor which initializes a {@link TimerData} object.
+	 *
+	 * @param timeStamp
+	 *            The time stamp.
+	 * @param platformIdent
+	 *            The platform ID.
+	 * @param sensorTypeIdent
+	 *            The sensor type ID.
+	 * @param methodIdent
+	 *            The method ID.
+	 * @param parameterContentData
+	 *            The content of the parameter/fields.
+	 * @param charting
+	 *            If TimerData's charting should be set or not.
+	 */
+	public StripedTimerStorage(Timestamp timeStamp, long platformIdent, long sensorTypeIdent, long methodIdent, List<ParameterContentData> parameterContentData, boolean charting) {
+		timerData = new TimerData(timeStamp, platformIdent, sensorTypeIdent, methodIdent, parameterContentData);
+		timerData.setCharting(charting);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void addData(long time, long cpuTime) {
+		int index = cellIndex(Thread.currentThread().getId());
+		Cell cell = cells.get(index);
+		if (null == cell) {
+			cells.compareAndSet(index, null, new Cell());
+			cell = cells.get(index);
+		}
+		cell.add(time, cpuTime);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Merges the values of all cells into the {@link TimerData}.
+	 */
+	@Override
+	public DefaultData finalizeDataObject() {
+		long count = 0;
+		long duration = 0;
+		long cpuDuration = 0;
+		long cpuCount = 0;
+
+		for (int i = 0; i < CELLS; i++) {
+			Cell cell = cells.get(i);
+			if ((null == cell) || (0 == cell.count)) {
+				continue;
+			}
+
+			count += cell.count;
+			duration += cell.duration;
+			timerData.calculateMin(Timer.toMillis(cell.min));
+			timerData.calculateMax(Timer.toMillis(cell.max));
+
+			long cellCpuCount = cell.cpuCount;
+			if (0 != cellCpuCount) {
+				cpuCount += cellCpuCount;
+				cpuDuration += cell.cpuDuration;
+				timerData.calculateCpuMin(Timer.toMillis(cell.cpuMin));
+				timerData.calculateCpuMax(Timer.toMillis(cell.cpuMax));
+			}
+		}
+
+		timerData.setCount(count);
+		timerData.setDuration(Timer.toMillis(duration));
+		if (0 != cpuCount) {
+			timerData.setCpuDuration(Timer.toMillis(cpuDuration));
+			timerData.setCpuCount(cpuCount);
+		}
+		return timerData;
+	}
+
+	/**
+	 * Returns the index of the cell used by the thread with the given id.
+	 *
+	 * @param threadId
+	 *            Id of the thread.
+	 * @return Index of the cell.
+	 */
+	static int cellIndex(long threadId) {
+		int hash = (int) threadId * SPREAD;
+		return (hash ^ (hash >>> 16)) & (CELLS - 1);
+	}
+
+	/**
+	 * Returns the power of two that is at least twice the number of processors, limited to
+	 * {@link #MAX_CELLS}.
+	 *
+	 * @param processors
+	 *            Number of processors.
+	 * @return Number of cells.
+	 */
+	static int cellCount(int processors) {
+		int cellCount = 1;
+		while ((cellCount < (processors * 2)) && (cellCount < MAX_CELLS)) {
+			cellCount <<= 1;
+		}
+		return cellCount;
+	}
+
+	/**
+	 * Padding before the values of the cell, so that two cells never share a cache line.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static class CellPadding {
+
+		/**
+		 * Padding.
+		 */
+		long p0, p1, p2, p3, p4, p5, p6; // NOPMD NOCHK
+	}
+
+	/**
+	 * Values of the cell. All times are in nanoseconds and converted to milliseconds only when
+	 * merged into the {@link TimerData}.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static class CellValues extends CellPadding {
+
+		/**
+		 * Number of added times.
+		 */
+		volatile long count; // NOPMD
+
+		/**
+		 * Sum of the times.
+		 */
+		volatile long duration; // NOPMD
+
+		/**
+		 * Minimum time.
+		 */
+		volatile long min = Long.MAX_VALUE; // NOPMD
+
+		/**
+		 * Maximum time.
+		 */
+		volatile long max = -1L; // NOPMD
+
+		/**
+		 * Number of added CPU times.
+		 */
+		volatile long cpuCount; // NOPMD
+
+		/**
+		 * Sum of the CPU times.
+		 */
+		volatile long cpuDuration; // NOPMD
+
+		/**
+		 * Minimum CPU time.
+		 */
+		volatile long cpuMin = Long.MAX_VALUE; // NOPMD
+
+		/**
+		 * Maximum CPU time.
+		 */
+		volatile long cpuMax = -1L; // NOPMD
+	}
+
+	/**
+	 * One cell of the storage.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class Cell extends CellValues {
+
+		/**
+		 * Updater for {@link CellValues#count}.
+		 */
+		private static final AtomicLongFieldUpdater<CellValues> COUNT = AtomicLongFieldUpdater.newUpdater(CellValues.class, "count");
+
+		/**
+		 * Updater for {@link CellValues#duration}.
+		 */
+		private static final AtomicLongFieldUpdater<CellValues> DURATION = AtomicLongFieldUpdater.newUpdater(CellValues.class, "duration");
+
+		/**
+		 * Updater for {@link CellValues#min}.
+		 */
+		private static final AtomicLongFieldUpdater<CellValues> MIN = AtomicLongFieldUpdater.newUpdater(CellValues.class, "min");
+
+		/**
+		 * Updater for {@link CellValues#max}.
+		 */
+		private static final AtomicLongFieldUpdater<CellValues> MAX = AtomicLongFieldUpdater.newUpdater(CellValues.class, "max");
+
+		/**
+		 * Updater for {@link CellValues#cpuCount}.
+		 */
+		private static final AtomicLongFieldUpdater<CellValues> CPU_COUNT = AtomicLongFieldUpdater.newUpdater(CellValues.class, "cpuCount");
+
+		/**
+		 * Updater for {@link CellValues#cpuDuration}.
+		 */
+		private static final AtomicLongFieldUpdater<CellValues> CPU_DURATION = AtomicLongFieldUpdater.newUpdater(CellValues.class, "cpuDuration");
+
+		/**
+		 * Updater for {@link CellValues#cpuMin}.
+		 */
+		private static final AtomicLongFieldUpdater<CellValues> CPU_MIN = AtomicLongFieldUpdater.newUpdater(CellValues.class, "cpuMin");
+
+		/**
+		 * Updater for {@link CellValues#cpuMax}.
+		 */
+		private static final AtomicLongFieldUpdater<CellValues> CPU_MAX = AtomicLongFieldUpdater.newUpdater(CellValues.class, "cpuMax");
+
+		/**
+		 * Padding.
+		 */
+		long q0, q1, q2, q3, q4, q5, q6; // NOPMD NOCHK
+
+		/**
+		 * Adds the time and the CPU time to the cell.
+		 *
+		 * @param time
+		 *            The time value in nanoseconds.
+		 * @param cpuTime
+		 *            The CPU time value in nanoseconds, only added if it's not negative.
+		 */
+		void add(long time, long cpuTime) {
+			DURATION.addAndGet(this, time);
+			min(MIN, time);
+			max(MAX, time);
+
+			// only add the cpu time if it greater than zero
+			if (cpuTime >= 0) {
+				CPU_DURATION.addAndGet(this, cpuTime);
+				min(CPU_MIN, cpuTime);
+				max(CPU_MAX, cpuTime);
+				CPU_COUNT.incrementAndGet(this);
+			}
+
+			// count is the last, so that merge does not see count without the duration
+			COUNT.incrementAndGet(this);
+		}
+
+		/**
+		 * Atomically sets the field to the value if the value is smaller.
+		 *
+		 * @param updater
+		 *            Updater of the field.
+		 * @param value
+		 *            Value to compare.
+		 */
+		private void min(AtomicLongFieldUpdater<CellValues> updater, long value) {
+			long current = updater.get(this);
+			while (value < current) {
+				if (updater.compareAndSet(this, current, value)) {
+					return;
+				}
+				current = updater.get(this);
+			}
+		}
+
+		/**
+		 * Atomically sets the field to the value if the value is bigger.
+		 *
+		 * @param updater
+		 *            Updater of the field.
+		 * @param value
+		 *            Value to compare.
+		 */
+		private void max(AtomicLongFieldUpdater<CellValues> updater, long value) {
+			long current = updater.get(this);
+			while (value > current) {
+				if (updater.compareAndSet(this, current, value)) {
+					return;
+				}
+				current = updater.get(this);
+			}
+		}
+	}
+
+}
@@ -13,17 +13,19 @@ import rocks.inspectit.agent.java.config.impl.RegisteredSensorConfig;
 import rocks.inspectit.agent.java.core.ICoreService;
 import rocks.inspectit.agent.java.core.IPlatformManager;
 import rocks.inspectit.agent.java.core.IdNotAvailableException;
+import rocks.inspectit.agent.java.hooking.DispatchContext;
+import rocks.inspectit.agent.java.hooking.IArgumentsFreeHook;
 import rocks.inspectit.agent.java.hooking.IConstructorHook;
 import rocks.inspectit.agent.java.hooking.IMethodHook;
 import rocks.inspectit.agent.java.sensor.method.averagetimer.AverageTimerHook;
 import rocks.inspectit.agent.java.util.StringConstraint;
-import rocks.inspectit.agent.java.util.ThreadLocalStack;
+import rocks.inspectit.agent.java.util.TimingStack;
 import rocks.inspectit.agent.java.util.Timer;
 import rocks.inspectit.shared.all.communication.data.ParameterContentData;
 
 /**
- * The hook implementation for the timer sensor. It uses the {@link ThreadLocalStack} class to save
- * the time when the method was called.
+ * The hook implementation for the timer sensor. It uses the {@link DispatchContext} class to
+ * save the time when the method was called.
  * <p>
  * The difference to the {@link AverageTimerHook} is that it's using {@link ITimerStorage} objects
  * to save the values. The {@link ITimerStorage} is responsible for the actual data saving, so
@@ -32,7 +34,7 @@ import rocks.inspectit.shared.all.communication.data.ParameterContentData;
  * @author Patrice Bouillet
  *
  */
-public class TimerHook implements IMethodHook, IConstructorHook {
+public class TimerHook implements IMethodHook, IConstructorHook, IArgumentsFreeHook {
 
 	/**
 	 * The logger of this class. Initialized manually.
@@ -40,9 +42,9 @@ public class TimerHook implements IMethodHook, IConstructorHook {
 	private static final Logger LOG = LoggerFactory.getLogger(TimerHook.class);
 
 	/**
-	 * The stack containing the start time values.
+	 * Slot of the stack containing the start time values in the {@link DispatchContext}.
 	 */
-	private final ThreadLocalStack<Double> timeStack = new ThreadLocalStack<Double>();
+	private final int timingStackSlot = DispatchContext.newTimingStackSlot();
 
 	/**
 	 * The timer used for accurate measuring.
@@ -86,9 +88,10 @@ public class TimerHook implements IMethodHook, IConstructorHook {
 	private boolean enabled = false;
 
 	/**
-	 * The stack containing the start time values.
+	 * Sampling rate of the thread CPU time. The CPU time is measured for one in the given number of
+	 * invocations, as reading the thread CPU time is often more expensive than the measured method.
 	 */
-	private final ThreadLocalStack<Long> threadCpuTimeStack = new ThreadLocalStack<Long>();
+	private final int cpuTimeSampling;
 
 	/**
 	 * The only constructor which needs the used {@link ICoreService} implementation and the used
@@ -102,7 +105,8 @@ public class TimerHook implements IMethodHook, IConstructorHook {
 	 *            The property accessor.
 	 * @param param
 	 *            Additional parameters passed to the {@link TimerStorageFactory} for proper
-	 *            initialization.
+	 *            initialization. The <code>cpuTimeSampling</code> parameter defines the sampling
+	 *            rate of the thread CPU time.
 	 * @param threadMXBean
 	 *            The bean used to access the cpu time.
 	 */
@@ -133,6 +137,28 @@ public class TimerHook implements IMethodHook, IConstructorHook {
 
 		timerStorageFactory.setParameters(param);
 		this.strConstraint = new StringConstraint(param);
+		this.cpuTimeSampling = getCpuTimeSampling(param);
+	}
+
+	/**
+	 * Reads the CPU time sampling rate from the parameters.
+	 *
+	 * @param param
+	 *            Parameters of the sensor.
+	 * @return Sampling rate or <code>1</code> if it's not defined or invalid.
+	 */
+	private static int getCpuTimeSampling(Map<String, Object> param) {
+		if (null != param) {
+			Object value = param.get("cpuTimeSampling");
+			if (null != value) {
+				try {
+					return Math.max(1, Integer.parseInt(value.toString()));
+				} catch (NumberFormatException e) {
+					LOG.warn("CPU time sampling rate '" + value + "' is not a number, CPU time will be measured for all invocations.");
+				}
+			}
+		}
+		return 1;
 	}
 
 	/**
@@ -140,9 +166,14 @@ public class TimerHook implements IMethodHook, IConstructorHook {
 	 */
 	@Override
 	public void beforeBody(long methodId, long sensorTypeId, Object object, Object[] parameters, RegisteredSensorConfig rsc) {
-		timeStack.push(new Double(timer.getCurrentTime()));
+		TimingStack stack = DispatchContext.get().getTimingStack(timingStackSlot);
+		stack.pushTime(timer.getCurrentNanoTime());
 		if (enabled) {
-			threadCpuTimeStack.push(Long.valueOf(threadMXBean.getCurrentThreadCpuTime()));
+			if (stack.isCpuTimeSampled(cpuTimeSampling)) {
+				stack.pushCpuTime(threadMXBean.getCurrentThreadCpuTime());
+			} else {
+				stack.pushCpuTime(TimingStack.CPU_TIME_NOT_MEASURED);
+			}
 		}
 	}
 
@@ -151,9 +182,15 @@ public class TimerHook implements IMethodHook, IConstructorHook {
 	 */
 	@Override
 	public void firstAfterBody(long methodId, long sensorTypeId, Object object, Object[] parameters, Object result, RegisteredSensorConfig rsc) {
-		timeStack.push(new Double(timer.getCurrentTime()));
+		TimingStack stack = DispatchContext.get().getTimingStack(timingStackSlot);
+		stack.pushTime(timer.getCurrentNanoTime());
 		if (enabled) {
-			threadCpuTimeStack.push(Long.valueOf(threadMXBean.getCurrentThreadCpuTime()));
+			// measure only if the CPU time was measured when the invocation started
+			if (stack.peekCpuTime() >= 0) {
+				stack.pushCpuTime(threadMXBean.getCurrentThreadCpuTime());
+			} else {
+				stack.pushCpuTime(TimingStack.CPU_TIME_NOT_MEASURED);
+			}
 		}
 	}
 
@@ -162,16 +199,19 @@ public class TimerHook implements IMethodHook, IConstructorHook {
 	 */
 	@Override
 	public void secondAfterBody(ICoreService coreService, long methodId, long sensorTypeId, Object object, Object[] parameters, Object result, RegisteredSensorConfig rsc) {
-		double endTime = timeStack.pop().doubleValue();
-		double startTime = timeStack.pop().doubleValue();
-		double duration = endTime - startTime;
+		TimingStack stack = DispatchContext.get().getTimingStack(timingStackSlot);
+		long endTime = stack.popTime();
+		long startTime = stack.popTime();
+		long duration = endTime - startTime;
 
 		// default setting to a negative number
-		double cpuDuration = -1.0d;
+		long cpuDuration = -1L;
 		if (enabled) {
-			long cpuEndTime = threadCpuTimeStack.pop().longValue();
-			long cpuStartTime = threadCpuTimeStack.pop().longValue();
-			cpuDuration = (cpuEndTime - cpuStartTime) / 1000000.0d;
+			long cpuEndTime = stack.popCpuTime();
+			long cpuStartTime = stack.popCpuTime();
+			if ((cpuStartTime >= 0) && (cpuEndTime >= 0)) {
+				cpuDuration = cpuEndTime - cpuStartTime;
+			}
 		}
 
 		List<ParameterContentData> parameterContentData = null;
@@ -193,7 +233,7 @@ public class TimerHook implements IMethodHook, IConstructorHook {
 			try {
 				long platformId = platformManager.getPlatformId();
 
-				Timestamp timestamp = new Timestamp(System.currentTimeMillis() - Math.round(duration));
+				Timestamp timestamp = new Timestamp(System.currentTimeMillis() - Math.round(Timer.toMillis(duration)));
 
 				boolean charting = Boolean.TRUE.equals(rsc.getSettings().get("charting"));
 
@@ -216,9 +256,14 @@ public class TimerHook implements IMethodHook, IConstructorHook {
 	 */
 	@Override
 	public void beforeConstructor(long methodId, long sensorTypeId, Object[] parameters, RegisteredSensorConfig rsc) {
-		timeStack.push(new Double(timer.getCurrentTime()));
+		TimingStack stack = DispatchContext.get().getTimingStack(timingStackSlot);
+		stack.pushTime(timer.getCurrentNanoTime());
 		if (enabled) {
-			threadCpuTimeStack.push(Long.valueOf(threadMXBean.getCurrentThreadCpuTime()));
+			if (stack.isCpuTimeSampled(cpuTimeSampling)) {
+				stack.pushCpuTime(threadMXBean.getCurrentThreadCpuTime());
+			} else {
+				stack.pushCpuTime(TimingStack.CPU_TIME_NOT_MEASURED);
+			}
 		}
 	}
 
@@ -227,9 +272,15 @@ public class TimerHook implements IMethodHook, IConstructorHook {
 	 */
 	@Override
 	public void afterConstructor(ICoreService coreService, long methodId, long sensorTypeId, Object object, Object[] parameters, RegisteredSensorConfig rsc) {
-		timeStack.push(new Double(timer.getCurrentTime()));
+		TimingStack stack = DispatchContext.get().getTimingStack(timingStackSlot);
+		stack.pushTime(timer.getCurrentNanoTime());
 		if (enabled) {
-			threadCpuTimeStack.push(Long.valueOf(threadMXBean.getCurrentThreadCpuTime()));
+			// measure only if the CPU time was measured when the invocation started
+			if (stack.peekCpuTime() >= 0) {
+				stack.pushCpuTime(threadMXBean.getCurrentThreadCpuTime());
+			} else {
+				stack.pushCpuTime(TimingStack.CPU_TIME_NOT_MEASURED);
+			}
 		}
 		// just call the second after body method directly
 		secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, null, rsc);
@@ -71,7 +71,7 @@ public final class SpanTransformer implements Transformer {
 
 		// transform to inspectIT way of time handling
 		long timestampMillis = spanImpl.getStartTimeMicros() / 1000;
-		double durationMillis = spanImpl.getDuration() / 1000.0d;
+		double durationMillis = spanImpl.getDurationNanos() / 1000000.0d;
 		span.setTimeStamp(new Timestamp(timestampMillis));
 		span.setDuration(durationMillis);
 
@@ -0,0 +1,227 @@
+package rocks.inspectit.agent.java.util;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+import rocks.inspectit.shared.all.instrumentation.config.ClassHashAlgorithm;
+
+/**
+ * Util class for computing the hash of the class byte code with the {@link ClassHashAlgorithm}
+ * defined in the agent configuration.
+ * <p>
+ * The {@link ClassHashAlgorithm#MURMUR3_128} hash is the x64 128-bit variant of the MurmurHash3
+ * with seed <code>0</code>. It's not a cryptographic hash, but it's several times faster than the
+ * SHA-256 and 128 bits are more than enough to identify the classes. The hex string is the same
+ * as the one of the Guava's <code>Hashing.murmur3_128()</code>.
+ *
+ * @author agent
+ *
+ */
+public final class ClassHashUtil {
+
+	/**
+	 * First mixing constant of the MurmurHash3.
+	 */
+	private static final long C1 = 0x87c37b91114253d5L;
+
+	/**
+	 * Second mixing constant of the MurmurHash3.
+	 */
+	private static final long C2 = 0x4cf5ad432745937fL;
+
+	/**
+	 * Hex digits.
+	 */
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	/**
+	 * Private constructor.
+	 */
+	private ClassHashUtil() {
+	}
+
+	/**
+	 * Computes the hash of the byte code with the given algorithm.
+	 *
+	 * @param byteCode
+	 *            Byte code of the class.
+	 * @param algorithm
+	 *            {@link ClassHashAlgorithm} to use. If <code>null</code>
+	 *            {@link ClassHashAlgorithm#SHA256} is used.
+	 * @return Hash as the hex string.
+	 */
+	public static String hash(byte[] byteCode, ClassHashAlgorithm algorithm) {
+		if (ClassHashAlgorithm.MURMUR3_128.equals(algorithm)) {
+			return murmur3Hex(byteCode);
+		} else {
+			return DigestUtils.sha256Hex(byteCode);
+		}
+	}
+
+	/**
+	 * Computes the 128-bit MurmurHash3 (x64 variant, seed <code>0</code>) of the bytes.
+	 *
+	 * @param bytes
+	 *            Bytes to hash.
+	 * @return Hash as the hex string of 32 characters.
+	 */
+	public static String murmur3Hex(byte[] bytes) {
+		long h1 = 0;
+		long h2 = 0;
+		int length = bytes.length;
+		int blocks = length >>> 4;
+
+		// body, 16 bytes at a time
+		for (int i = 0; i < blocks; i++) {
+			int offset = i << 4;
+			long k1 = getLong(bytes, offset);
+			long k2 = getLong(bytes, offset + 8);
+
+			h1 ^= mixK1(k1);
+			h1 = Long.rotateLeft(h1, 27);
+			h1 += h2;
+			h1 = (h1 * 5) + 0x52dce729;
+
+			h2 ^= mixK2(k2);
+			h2 = Long.rotateLeft(h2, 31);
+			h2 += h1;
+			h2 = (h2 * 5) + 0x38495ab5;
+		}
+
+		// tail, up to 15 bytes
+		int offset = blocks << 4;
+		long k1 = 0;
+		long k2 = 0;
+		switch (length & 15) {
+		case 15:
+			k2 ^= ((long) bytes[offset + 14] & 0xff) << 48;
+		case 14: // NOCHK fall through
+			k2 ^= ((long) bytes[offset + 13] & 0xff) << 40;
+		case 13: // NOCHK fall through
+			k2 ^= ((long) bytes[offset + 12] & 0xff) << 32;
+		case 12: // NOCHK fall through
+			k2 ^= ((long) bytes[offset + 11] & 0xff) << 24;
+		case 11: // NOCHK fall through
+			k2 ^= ((long) bytes[offset + 10] & 0xff) << 16;
+		case 10: // NOCHK fall through
+			k2 ^= ((long) bytes[offset + 9] & 0xff) << 8;
+		case 9: // NOCHK fall through
+			k2 ^= (long) bytes[offset + 8] & 0xff;
+			h2 ^= mixK2(k2);
+		case 8: // NOCHK fall through
+			k1 ^= ((long) bytes[offset + 7] & 0xff) << 56;
+		case 7: // NOCHK fall through
+			k1 ^= ((long) bytes[offset + 6] & 0xff) << 48;
+		case 6: // NOCHK fall through
+			k1 ^= ((long) bytes[offset + 5] & 0xff) << 40;
+		case 5: // NOCHK fall through
+			k1 ^= ((long) bytes[offset + 4] & 0xff) << 32;
+		case 4: // NOCHK fall through
+			k1 ^= ((long) bytes[offset + 3] & 0xff) << 24;
+		case 3: // NOCHK fall through
+			k1 ^= ((long) bytes[offset + 2] & 0xff) << 16;
+		case 2: // NOCHK fall through
+			k1 ^= ((long) bytes[offset + 1] & 0xff) << 8;
+		case 1: // NOCHK fall through
+			k1 ^= (long) bytes[offset] & 0xff;
+			h1 ^= mixK1(k1);
+		default:
+			break;
+		}
+
+		// finalization
+		h1 ^= length;
+		h2 ^= length;
+
+		h1 += h2;
+		h2 += h1;
+
+		h1 = fmix(h1);
+		h2 = fmix(h2);
+
+		h1 += h2;
+		h2 += h1;
+
+		char[] hex = new char[32];
+		putHexLittleEndian(h1, hex, 0);
+		putHexLittleEndian(h2, hex, 16);
+		return new String(hex);
+	}
+
+	/**
+	 * Reads the little-endian long from the bytes.
+	 *
+	 * @param bytes
+	 *            Bytes.
+	 * @param offset
+	 *            Offset to start reading at.
+	 * @return Long value.
+	 */
+	private static long getLong(byte[] bytes, int offset) {
+		return ((long) bytes[offset] & 0xff) | (((long) bytes[offset + 1] & 0xff) << 8) | (((long) bytes[offset + 2] & 0xff) << 16) | (((long) bytes[offset + 3] & 0xff) << 24)
+				| (((long) bytes[offset + 4] & 0xff) << 32) | (((long) bytes[offset + 5] & 0xff) << 40) | (((long) bytes[offset + 6] & 0xff) << 48) | (((long) bytes[offset + 7] & 0xff) << 56);
+	}
+
+	/**
+	 * Mixes the first block half.
+	 *
+	 * @param k1
+	 *            First half of the block.
+	 * @return Mixed value.
+	 */
+	private static long mixK1(long k1) {
+		long k = k1 * C1;
+		k = Long.rotateLeft(k, 31);
+		return k * C2;
+	}
+
+	/**
+	 * Mixes the second block half.
+	 *
+	 * @param k2
+	 *            Second half of the block.
+	 * @return Mixed value.
+	 */
+	private static long mixK2(long k2) {
+		long k = k2 * C2;
+		k = Long.rotateLeft(k, 33);
+		return k * C1;
+	}
+
+	/**
+	 * Final avalanche mix of the MurmurHash3.
+	 *
+	 * @param value
+	 *            Value to mix.
+	 * @return Mixed value.
+	 */
+	private static long fmix(long value) {
+		long k = value;
+		k ^= k >>> 33;
+		k *= 0xff51afd7ed558ccdL;
+		k ^= k >>> 33;
+		k *= 0xc4ceb9fe1a85ec53L;
+		k ^= k >>> 33;
+		return k;
+	}
+
+	/**
+	 * Writes the hex characters of the long bytes in the little-endian order.
+	 *
+	 * @param value
+	 *            Value to write.
+	 * @param hex
+	 *            Array to write to.
+	 * @param offset
+	 *            Offset in the array.
+	 */
+	private static void putHexLittleEndian(long value, char[] hex, int offset) {
+		long v = value;
+		for (int i = 0; i < 8; i++) {
+			int b = (int) (v & 0xff);
+			hex[offset + (i * 2)] = HEX_DIGITS[b >>> 4];
+			hex[offset + (i * 2) + 1] = HEX_DIGITS[b & 0x0f];
+			v >>>= 8;
+		}
+	}
+
+}
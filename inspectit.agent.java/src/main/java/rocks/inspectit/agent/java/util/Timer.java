@@ -13,13 +13,41 @@ import org.springframework.stereotype.Component;
 @Component
 public class Timer {
 
+	/**
+	 * Number of nanoseconds in one millisecond.
+	 */
+	private static final double NANOS_PER_MILLI = 1000000.0d;
+
 	/**
 	 * Returns the current time in milliseconds.
 	 *
 	 * @return The time as a double value.
 	 */
 	public double getCurrentTime() {
-		return System.nanoTime() / 1000000.0d;
+		return toMillis(System.nanoTime());
+	}
+
+	/**
+	 * Returns the current time in nanoseconds. The hooks measure with the nanoseconds and convert
+	 * the results to milliseconds with {@link #toMillis(long)} only when the data objects are
+	 * filled, so that no floating-point operations are needed when measuring.
+	 *
+	 * @return The time as a long value, only the differences of the values are meaningful (see
+	 *         {@link System#nanoTime()}).
+	 */
+	public long getCurrentNanoTime() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * Converts the nanoseconds to the milliseconds used in the data objects.
+	 *
+	 * @param nanos
+	 *            Time in nanoseconds.
+	 * @return Time in milliseconds.
+	 */
+	public static double toMillis(long nanos) {
+		return nanos / NANOS_PER_MILLI;
 	}
 
 }
@@ -0,0 +1,193 @@
+package rocks.inspectit.agent.java.util;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Stack of the primitive time and CPU time values (both in nanoseconds) used by the method hooks to
+ * save the times between the before and after calls. Values are stored in growable arrays, so that pushing and
+ * popping does not create any objects once the arrays reached the nesting depth of the thread.
+ * <p>
+ * The stack is not thread-safe and is meant to be used through the
+ * {@link rocks.inspectit.agent.java.hooking.DispatchContext}.
+ *
+ * @author agent
+ *
+ */
+public class TimingStack {
+
+	/**
+	 * CPU time value pushed for the invocations the CPU time is not measured for. Negative as
+	 * {@link java.lang.management.ThreadMXBean#getCurrentThreadCpuTime()} never returns negative
+	 * values for a measured time.
+	 */
+	public static final long CPU_TIME_NOT_MEASURED = -1L;
+
+	/**
+	 * Initial capacity of the stacks.
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * Amount of the non-negative values returned by the random generator.
+	 */
+	private static final double RANDOM_RANGE = 2147483648.0d;
+
+	/**
+	 * Time values in nanoseconds.
+	 */
+	private long[] times = new long[INITIAL_CAPACITY];
+
+	/**
+	 * Number of time values on the stack.
+	 */
+	private int timesSize;
+
+	/**
+	 * CPU time values.
+	 */
+	private long[] cpuTimes = new long[INITIAL_CAPACITY];
+
+	/**
+	 * Number of CPU time values on the stack.
+	 */
+	private int cpuTimesSize;
+
+	/**
+	 * State of the random generator used for the sampling decisions. Must not be zero.
+	 */
+	private int samplingSeed = System.identityHashCode(this) | 1;
+
+	/**
+	 * Pushes the time value onto the stack.
+	 *
+	 * @param time
+	 *            Time value in nanoseconds.
+	 */
+	public void pushTime(long time) {
+		if (timesSize == times.length) {
+			long[] grown = new long[times.length << 1];
+			System.arraycopy(times, 0, grown, 0, timesSize);
+			times = grown;
+		}
+		times[timesSize++] = time;
+	}
+
+	/**
+	 * Removes and returns the last pushed time value.
+	 *
+	 * @return The last pushed time value.
+	 * @throws NoSuchElementException
+	 *             If there is no time value on the stack.
+	 */
+	public long popTime() {
+		if (0 == timesSize) {
+			throw new NoSuchElementException();
+		}
+		return times[--timesSize];
+	}
+
+	/**
+	 * Pushes the CPU time value onto the stack.
+	 *
+	 * @param cpuTime
+	 *            CPU time value.
+	 */
+	public void pushCpuTime(long cpuTime) {
+		if (cpuTimesSize == cpuTimes.length) {
+			long[] grown = new long[cpuTimes.length << 1];
+			System.arraycopy(cpuTimes, 0, grown, 0, cpuTimesSize);
+			cpuTimes = grown;
+		}
+		cpuTimes[cpuTimesSize++] = cpuTime;
+	}
+
+	/**
+	 * Removes and returns the last pushed CPU time value.
+	 *
+	 * @return The last pushed CPU time value.
+	 * @throws NoSuchElementException
+	 *             If there is no CPU time value on the stack.
+	 */
+	public long popCpuTime() {
+		if (0 == cpuTimesSize) {
+			throw new NoSuchElementException();
+		}
+		return cpuTimes[--cpuTimesSize];
+	}
+
+	/**
+	 * Returns the last pushed CPU time value without removing it.
+	 *
+	 * @return The last pushed CPU time value.
+	 * @throws NoSuchElementException
+	 *             If there is no CPU time value on the stack.
+	 */
+	public long peekCpuTime() {
+		if (0 == cpuTimesSize) {
+			throw new NoSuchElementException();
+		}
+		return cpuTimes[cpuTimesSize - 1];
+	}
+
+	/**
+	 * Decides if the CPU time should be measured for the next invocation when only one in
+	 * <code>samplingRate</code> invocations is measured. The decision is random (xorshift generator
+	 * local to the thread) instead of every n-th invocation, so that the sampled invocations are
+	 * not biased by the periodic call patterns of the thread.
+	 *
+	 * @param samplingRate
+	 *            Sampling rate, values of <code>1</code> or smaller denote that the CPU time is
+	 *            measured for every invocation.
+	 * @return <code>true</code> if the CPU time should be measured.
+	 */
+	public boolean isCpuTimeSampled(int samplingRate) {
+		if (samplingRate <= 1) {
+			return true;
+		}
+		return 0 == (nextRandom() % samplingRate);
+	}
+
+	/**
+	 * Returns a random value from the xorshift generator local to the thread. Sampling decisions
+	 * of the hooks should use this value instead of a shared {@link java.util.Random}, which would
+	 * be contended by all threads.
+	 *
+	 * @return Random value between <code>0</code> (inclusive) and <code>1</code> (exclusive).
+	 */
+	public double nextRandomDouble() {
+		return nextRandom() / RANDOM_RANGE;
+	}
+
+	/**
+	 * Returns the next value of the xorshift generator.
+	 *
+	 * @return Non-negative random value.
+	 */
+	private int nextRandom() {
+		int x = samplingSeed;
+		x ^= x << 13;
+		x ^= x >>> 17;
+		x ^= x << 5;
+		samplingSeed = x;
+		return x & Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Returns the number of time values on the stack.
+	 *
+	 * @return Returns the number of time values on the stack.
+	 */
+	public int getTimesSize() {
+		return timesSize;
+	}
+
+	/**
+	 * Returns the number of CPU time values on the stack.
+	 *
+	 * @return Returns the number of CPU time values on the stack.
+	 */
+	public int getCpuTimesSize() {
+		return cpuTimesSize;
+	}
+
+}
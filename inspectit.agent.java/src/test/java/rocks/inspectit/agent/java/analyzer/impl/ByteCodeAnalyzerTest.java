@@ -14,6 +14,7 @@ import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -50,6 +51,7 @@ import org.testng.annotations.Test;
 import rocks.inspectit.agent.java.analyzer.classes.AbstractSubTest;
 import rocks.inspectit.agent.java.analyzer.classes.TestClass;
 import rocks.inspectit.agent.java.config.IConfigurationStorage;
+import rocks.inspectit.agent.java.config.StorageException;
 import rocks.inspectit.agent.java.config.impl.RegisteredSensorConfig;
 import rocks.inspectit.agent.java.config.impl.SpecialSensorConfig;
 import rocks.inspectit.agent.java.connection.IConnection;
@@ -59,7 +61,10 @@ import rocks.inspectit.agent.java.core.IdNotAvailableException;
 import rocks.inspectit.agent.java.hooking.IHookDispatcherMapper;
 import rocks.inspectit.agent.java.instrumentation.InstrumenterFactory;
 import rocks.inspectit.agent.java.sensor.method.IMethodSensor;
+import rocks.inspectit.agent.java.util.ClassHashUtil;
 import rocks.inspectit.shared.all.instrumentation.classcache.ClassType;
+import rocks.inspectit.shared.all.instrumentation.classcache.Type;
+import rocks.inspectit.shared.all.instrumentation.config.ClassHashAlgorithm;
 import rocks.inspectit.shared.all.instrumentation.config.IMethodInstrumentationPoint;
 import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationDefinition;
 import rocks.inspectit.shared.all.instrumentation.config.impl.MethodInstrumentationConfig;
@@ -105,6 +110,12 @@ public class ByteCodeAnalyzerTest extends TestBase {
 	@Mock
 	ClassHashHelper classHashHelper;
 
+	@Mock
+	InstrumentationCacheValidator instrumentationCacheValidator;
+
+	@Mock
+	InstrumentationCandidateFilter instrumentationCandidateFilter;
+
 	@Mock
 	InstrumenterFactory instrumenterFactory;
 
@@ -129,8 +140,9 @@ public class ByteCodeAnalyzerTest extends TestBase {
 	final Long platformId = 10L;
 
 	@BeforeMethod
-	public void setup() throws IdNotAvailableException, ServerUnavailableException {
+	public void setup() throws IdNotAvailableException, ServerUnavailableException, StorageException {
 		when(platformManager.getPlatformId()).thenReturn(platformId);
+		when(instrumentationCandidateFilter.isCandidate(Matchers.<Type> any())).thenReturn(true);
 		doAnswer(new Answer<Void>() {
 			@Override
 			public Void answer(InvocationOnMock invocation) throws Throwable {
@@ -212,6 +224,7 @@ public class ByteCodeAnalyzerTest extends TestBase {
 			assertThat((Map<Long, long[]>) captor.getValue(), hasEntry(rscId, sensorIds));
 			verify(classHashHelper, atLeastOnce()).isAnalyzed(anyString());
 			verify(classHashHelper, times(1)).isSent(fqnCaptor.getValue(), hashCaptor.getValue());
+			verify(classHashHelper, times(1)).isCached(fqnCaptor.getValue(), hashCaptor.getValue());
 			verify(classHashHelper, times(1)).registerAnalyzed(fqnCaptor.getValue());
 			verify(classHashHelper, times(1)).registerSent(fqnCaptor.getValue(), hashCaptor.getValue());
 			verify(classHashHelper, times(1)).registerInstrumentationDefinition(fqnCaptor.getValue(), instrumentationResult);
@@ -273,6 +286,7 @@ public class ByteCodeAnalyzerTest extends TestBase {
 			assertThat((Map<Long, long[]>) captor.getValue(), hasEntry(rscId, sensorIds));
 			verify(classHashHelper, atLeastOnce()).isAnalyzed(anyString());
 			verify(classHashHelper, times(1)).isSent(fqnCaptor.getValue(), hashCaptor.getValue());
+			verify(classHashHelper, times(1)).isCached(fqnCaptor.getValue(), hashCaptor.getValue());
 			verify(classHashHelper, times(1)).registerAnalyzed(fqnCaptor.getValue());
 			verify(classHashHelper, times(1)).registerSent(fqnCaptor.getValue(), hashCaptor.getValue());
 			verify(classHashHelper, times(1)).registerInstrumentationDefinition(fqnCaptor.getValue(), instrumentationResult);
@@ -330,6 +344,7 @@ public class ByteCodeAnalyzerTest extends TestBase {
 			assertThat((Map<Long, long[]>) captor.getValue(), hasEntry(sscId, new long[] { sensorId }));
 			verify(classHashHelper, atLeastOnce()).isAnalyzed(anyString());
 			verify(classHashHelper, times(1)).isSent(fqnCaptor.getValue(), hashCaptor.getValue());
+			verify(classHashHelper, times(1)).isCached(fqnCaptor.getValue(), hashCaptor.getValue());
 			verify(classHashHelper, times(1)).registerAnalyzed(fqnCaptor.getValue());
 			verify(classHashHelper, times(1)).registerSent(fqnCaptor.getValue(), hashCaptor.getValue());
 			verify(classHashHelper, times(1)).registerInstrumentationDefinition(fqnCaptor.getValue(), instrumentationResult);
@@ -425,6 +440,109 @@ public class ByteCodeAnalyzerTest extends TestBase {
 			verifyNoMoreInteractions(hookDispatcherMapper, connection, classHashHelper);
 		}
 
+		@Test
+		public void definitionCacheInstrumentation() throws Exception {
+			String className = TestClass.class.getName();
+			ClassLoader classLoader = TestClass.class.getClassLoader();
+			byte[] byteCode = getByteCode(className);
+
+			when(methodInstrumentationConfig.getTargetClassFqn()).thenReturn(className);
+			when(methodInstrumentationConfig.getTargetMethodName()).thenReturn("<init>");
+			when(methodInstrumentationConfig.getReturnType()).thenReturn("void");
+			when(methodInstrumentationConfig.getParameterTypes()).thenReturn(Collections.<String> emptyList());
+			when(methodInstrumentationConfig.getSensorInstrumentationPoint()).thenReturn(sensorInstrumentationPoint);
+			when(methodInstrumentationConfig.getAllInstrumentationPoints()).thenReturn(Collections.<IMethodInstrumentationPoint> singleton(sensorInstrumentationPoint));
+			when(instrumenterFactory.getMethodVisitor(eq(sensorInstrumentationPoint), Matchers.<MethodVisitor> any(), anyInt(), anyString(), anyString(), anyBoolean())).thenReturn(methodVisitor);
+
+			ArgumentCaptor<String> fqnCaptor = ArgumentCaptor.forClass(String.class);
+			ArgumentCaptor<String> hashCaptor = ArgumentCaptor.forClass(String.class);
+			when(classHashHelper.isSent(fqnCaptor.capture(), hashCaptor.capture())).thenReturn(false);
+			when(classHashHelper.isCached(fqnCaptor.capture(), hashCaptor.capture())).thenReturn(true);
+			when(classHashHelper.isAnalyzed(anyString())).thenReturn(true);
+			when(classHashHelper.getInstrumentationDefinition(fqnCaptor.capture())).thenReturn(instrumentationResult);
+			when(instrumentationResult.getMethodInstrumentationConfigs()).thenReturn(Collections.singleton(methodInstrumentationConfig));
+			long rscId = 13L;
+			long[] sensorIds = { 17L };
+			when(sensorInstrumentationPoint.getId()).thenReturn(rscId);
+			when(sensorInstrumentationPoint.getSensorIds()).thenReturn(sensorIds);
+			when(sensorInstrumentationPoint.getPropertyAccessorList()).thenReturn(Collections.<PropertyPathStart> emptyList());
+			when(methodSensorTypeConfig.getId()).thenReturn(sensorIds[0]);
+			when(connection.isConnected()).thenReturn(true);
+
+			byteCodeAnalyzer.afterPropertiesSet();
+			byte[] instrumentedByteCode = byteCodeAnalyzer.analyzeAndInstrument(byteCode, className, classLoader);
+
+			// instrumented with the cached definition without asking the server
+			assertThat(instrumentedByteCode, is(not(nullValue())));
+			verify(connection, never()).analyze(anyLong(), anyString(), Matchers.<Type> any());
+			ArgumentCaptor<Type> typeCaptor = ArgumentCaptor.forClass(Type.class);
+			verify(instrumentationCacheValidator, times(1)).addType(eq(hashCaptor.getValue()), typeCaptor.capture());
+			assertThat(typeCaptor.getValue().getFQN(), is(className));
+			verify(classHashHelper, never()).registerSent(anyString(), anyString());
+			verify(hookDispatcherMapper, times(1)).addMapping(eq(rscId), Matchers.<RegisteredSensorConfig> any());
+		}
+
+		@Test
+		public void murmur3Hash() throws Exception {
+			String className = TestClass.class.getName();
+			ClassLoader classLoader = TestClass.class.getClassLoader();
+			byte[] byteCode = getByteCode(className);
+			String hash = ClassHashUtil.murmur3Hex(byteCode);
+			when(configurationStorage.getClassHashAlgorithm()).thenReturn(ClassHashAlgorithm.MURMUR3_128);
+			when(classHashHelper.isSent(className, hash)).thenReturn(true);
+
+			byteCodeAnalyzer.afterPropertiesSet();
+			byte[] instrumentedByteCode = byteCodeAnalyzer.analyzeAndInstrument(byteCode, className, classLoader);
+
+			assertThat(instrumentedByteCode, is(nullValue()));
+			verify(classHashHelper, times(1)).isSent(className, hash);
+			verify(classHashHelper, times(1)).getInstrumentationDefinition(className);
+			verifyZeroInteractions(connection);
+		}
+
+		@Test
+		public void prefiltered() throws Exception {
+			String className = TestClass.class.getName();
+			ClassLoader classLoader = TestClass.class.getClassLoader();
+			byte[] byteCode = getByteCode(className);
+			when(instrumentationCandidateFilter.isPrefiltered(eq(className), Matchers.<ClassReader> any())).thenReturn(true);
+
+			byteCodeAnalyzer.afterPropertiesSet();
+			byte[] instrumentedByteCode = byteCodeAnalyzer.analyzeAndInstrument(byteCode, className, classLoader);
+
+			// neither hashed nor parsed
+			assertThat(instrumentedByteCode, is(nullValue()));
+			verify(classHashHelper, times(1)).registerAnalyzed(className);
+			verifyNoMoreInteractions(classHashHelper);
+			verifyZeroInteractions(connection, instrumentationCacheValidator, hookDispatcherMapper);
+		}
+
+		@Test
+		public void notCandidate() throws Exception {
+			String className = TestClass.class.getName();
+			ClassLoader classLoader = TestClass.class.getClassLoader();
+			byte[] byteCode = getByteCode(className);
+
+			ArgumentCaptor<String> fqnCaptor = ArgumentCaptor.forClass(String.class);
+			ArgumentCaptor<String> hashCaptor = ArgumentCaptor.forClass(String.class);
+			when(classHashHelper.isSent(fqnCaptor.capture(), hashCaptor.capture())).thenReturn(false);
+			when(classHashHelper.isAnalyzed(anyString())).thenReturn(true);
+			when(connection.isConnected()).thenReturn(true);
+			when(instrumentationCandidateFilter.isCandidate(Matchers.<Type> any())).thenReturn(false);
+
+			byteCodeAnalyzer.afterPropertiesSet();
+			byte[] instrumentedByteCode = byteCodeAnalyzer.analyzeAndInstrument(byteCode, className, classLoader);
+
+			// not analyzed by the server right away, but sent in a batch
+			assertThat(instrumentedByteCode, is(nullValue()));
+			verify(connection, never()).analyze(anyLong(), anyString(), Matchers.<Type> any());
+			ArgumentCaptor<Type> typeCaptor = ArgumentCaptor.forClass(Type.class);
+			verify(instrumentationCacheValidator, times(1)).addType(eq(hashCaptor.getValue()), typeCaptor.capture());
+			assertThat(typeCaptor.getValue().getFQN(), is(className));
+			verify(classHashHelper, never()).registerSent(anyString(), anyString());
+			verifyZeroInteractions(hookDispatcherMapper);
+		}
+
 		@Test
 		public void noInstrumentationResult() throws Exception {
 			String className = TestClass.class.getName();
@@ -448,6 +566,7 @@ public class ByteCodeAnalyzerTest extends TestBase {
 			verify(connection, times(1)).analyze(platformId.longValue(), hashCaptor.getValue(), classCaptor.getValue());
 			verify(classHashHelper, atLeastOnce()).isAnalyzed(anyString());
 			verify(classHashHelper, times(1)).isSent(fqnCaptor.getValue(), hashCaptor.getValue());
+			verify(classHashHelper, times(1)).isCached(fqnCaptor.getValue(), hashCaptor.getValue());
 			verify(classHashHelper, times(1)).registerAnalyzed(fqnCaptor.getValue());
 			verify(classHashHelper, times(1)).registerSent(fqnCaptor.getValue(), hashCaptor.getValue());
 			verify(classHashHelper, times(1)).registerInstrumentationDefinition(fqnCaptor.getValue(), null);
@@ -474,6 +593,7 @@ public class ByteCodeAnalyzerTest extends TestBase {
 			verify(connection, times(1)).isConnected();
 			verify(classHashHelper, times(1)).registerAnalyzed(fqnCaptor.getValue());
 			verify(classHashHelper, times(1)).isSent(fqnCaptor.getValue(), hashCaptor.getValue());
+			verify(classHashHelper, times(1)).isCached(fqnCaptor.getValue(), hashCaptor.getValue());
 			verifyZeroInteractions(hookDispatcherMapper);
 			verifyNoMoreInteractions(connection, classHashHelper);
 		}
@@ -511,6 +631,7 @@ public class ByteCodeAnalyzerTest extends TestBase {
 			verify(connection, times(1)).analyze(platformId.longValue(), hashCaptor.getValue(), classCaptor.getValue());
 			verify(classHashHelper, atLeastOnce()).isAnalyzed(anyString());
 			verify(classHashHelper, times(1)).isSent(fqnCaptor.getValue(), hashCaptor.getValue());
+			verify(classHashHelper, times(1)).isCached(fqnCaptor.getValue(), hashCaptor.getValue());
 			verify(classHashHelper, times(1)).registerAnalyzed(fqnCaptor.getValue());
 			verify(classHashHelper, times(1)).registerSent(fqnCaptor.getValue(), hashCaptor.getValue());
 			verify(classHashHelper, times(1)).registerInstrumentationDefinition(fqnCaptor.getValue(), instrumentationResult);
@@ -581,7 +702,9 @@ public class ByteCodeAnalyzerTest extends TestBase {
 			// class hash verfications
 			verify(classHashHelper, atLeastOnce()).isAnalyzed(anyString());
 			verify(classHashHelper, times(1)).isSent(eq(TestClass.class.getName()), anyString());
+			verify(classHashHelper, times(1)).isCached(eq(TestClass.class.getName()), anyString());
 			verify(classHashHelper, times(1)).isSent(eq(AbstractSubTest.class.getName()), anyString());
+			verify(classHashHelper, times(1)).isCached(eq(AbstractSubTest.class.getName()), anyString());
 			verify(classHashHelper, times(1)).registerAnalyzed(TestClass.class.getName());
 			verify(classHashHelper, times(1)).registerAnalyzed(AbstractSubTest.class.getName());
 			verify(classHashHelper, times(1)).registerSent(eq(TestClass.class.getName()), anyString());
@@ -630,6 +753,7 @@ public class ByteCodeAnalyzerTest extends TestBase {
 			verify(connection, times(1)).isConnected();
 			verify(classHashHelper, atLeastOnce()).isAnalyzed(anyString());
 			verify(classHashHelper, times(1)).isSent(fqnCaptor.getValue(), hashCaptor.getValue());
+			verify(classHashHelper, times(1)).isCached(fqnCaptor.getValue(), hashCaptor.getValue());
 			verify(classHashHelper, times(1)).registerAnalyzed(fqnCaptor.getValue());
 			verifyZeroInteractions(hookDispatcherMapper);
 			verifyNoMoreInteractions(connection, classHashHelper);
@@ -664,6 +788,7 @@ public class ByteCodeAnalyzerTest extends TestBase {
 			verify(connection, times(1)).isConnected();
 			verify(classHashHelper, atLeastOnce()).isAnalyzed(anyString());
 			verify(classHashHelper, times(1)).isSent(fqnCaptor.getValue(), hashCaptor.getValue());
+			verify(classHashHelper, times(1)).isCached(fqnCaptor.getValue(), hashCaptor.getValue());
 			verify(classHashHelper, times(1)).registerAnalyzed(fqnCaptor.getValue());
 			verifyZeroInteractions(hookDispatcherMapper);
 			verifyNoMoreInteractions(connection, classHashHelper);
@@ -720,6 +845,7 @@ public class ByteCodeAnalyzerTest extends TestBase {
 			assertThat((Map<Long, long[]>) captor.getValue(), hasEntry(rscId, sensorIds));
 			verify(classHashHelper, atLeastOnce()).isAnalyzed(anyString());
 			verify(classHashHelper, times(1)).isSent(fqnCaptor.getValue(), hashCaptor.getValue());
+			verify(classHashHelper, times(1)).isCached(fqnCaptor.getValue(), hashCaptor.getValue());
 			verify(classHashHelper, times(1)).registerAnalyzed(fqnCaptor.getValue());
 			verify(classHashHelper, times(1)).registerSent(fqnCaptor.getValue(), hashCaptor.getValue());
 			verify(classHashHelper, times(1)).registerInstrumentationDefinition(fqnCaptor.getValue(), instrumentationResult);
@@ -12,12 +12,14 @@ import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.lang.StringUtils;
 import org.mockito.InjectMocks;
 import org.mockito.Matchers;
 import org.mockito.Mock;
@@ -31,6 +33,7 @@ import com.esotericsoftware.kryo.io.Input;
 import rocks.inspectit.agent.java.config.IConfigurationStorage;
 import rocks.inspectit.agent.java.io.FileResolver;
 import rocks.inspectit.agent.java.spring.PrototypesProvider;
+import rocks.inspectit.shared.all.instrumentation.config.ClassHashAlgorithm;
 import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationDefinition;
 import rocks.inspectit.shared.all.serializer.SerializationException;
 import rocks.inspectit.shared.all.serializer.impl.SerializationManager;
@@ -41,6 +44,8 @@ public class ClassHashHelperTest extends TestBase {
 
 	protected static final String TEST_CACHE_FILE = "test.cache";
 
+	protected static final String TEST_DEFINITION_CACHE_FILE = "testDefinitions.cache";
+
 	@InjectMocks
 	ClassHashHelper helper;
 
@@ -65,6 +70,7 @@ public class ClassHashHelperTest extends TestBase {
 	@BeforeMethod
 	public void setup() {
 		doReturn(new File(TEST_CACHE_FILE)).when(fileResolver).getClassHashCacheFile();
+		doReturn(new File(TEST_DEFINITION_CACHE_FILE)).when(fileResolver).getInstrumentationDefinitionCacheFile();
 
 		when(prototypesProvider.createSerializer()).thenReturn(serializationManager);
 	}
@@ -75,6 +81,10 @@ public class ClassHashHelperTest extends TestBase {
 		if (file.exists()) {
 			assertThat(file.delete(), is(true));
 		}
+		file = new File(TEST_DEFINITION_CACHE_FILE);
+		if (file.exists()) {
+			assertThat(file.delete(), is(true));
+		}
 	}
 
 	public class AfterPropertiesSet extends ClassHashHelperTest {
@@ -106,6 +116,22 @@ public class ClassHashHelperTest extends TestBase {
 			assertThat(helper.isEmpty(), is(false));
 		}
 
+		@Test
+		public void cacheFileOtherAlgorithm() throws Exception {
+			String sha256Hash = StringUtils.repeat("a", 64);
+			String murmur3Hash = StringUtils.repeat("b", 32);
+			when(configurationStorage.isClassCacheExistsOnCmr()).thenReturn(true);
+			when(configurationStorage.getClassHashAlgorithm()).thenReturn(ClassHashAlgorithm.MURMUR3_128);
+			new File(TEST_CACHE_FILE).createNewFile();
+			Object hashes = Collections.singletonMap("fqn", Arrays.asList(sha256Hash, murmur3Hash));
+			when(serializationManager.deserialize(Matchers.<Input> any())).thenReturn(hashes);
+
+			helper.afterPropertiesSet();
+
+			assertThat(helper.isSent("fqn", murmur3Hash), is(true));
+			assertThat(helper.isSent("fqn", sha256Hash), is(false));
+		}
+
 		@Test
 		public void cacheFileExistsException() throws Exception {
 			when(configurationStorage.isClassCacheExistsOnCmr()).thenReturn(true);
@@ -290,4 +316,84 @@ public class ClassHashHelperTest extends TestBase {
 		}
 	}
 
+	public class IsCached extends ClassHashHelperTest {
+
+		@Test
+		public void notCached() throws Exception {
+			helper.afterPropertiesSet();
+
+			boolean cached = helper.isCached("fqn", "hash");
+
+			assertThat(cached, is(false));
+		}
+
+		@Test
+		public void load() throws Exception {
+			String fqn = "fqn";
+			String hash = "hash";
+			InstrumentationDefinition definition = mock(InstrumentationDefinition.class);
+			when(configurationStorage.isClassCacheExistsOnCmr()).thenReturn(false);
+			when(configurationStorage.getConfigurationRevision()).thenReturn("revision");
+			new File(TEST_DEFINITION_CACHE_FILE).createNewFile();
+			Object hashes = Collections.singletonMap(fqn, Collections.singleton(hash));
+			Object definitions = Collections.singletonMap(fqn, definition);
+			when(serializationManager.deserialize(Matchers.<Input> any())).thenReturn("revision", hashes, definitions);
+			helper.afterPropertiesSet();
+
+			boolean cached = helper.isCached(fqn, hash);
+
+			assertThat(cached, is(true));
+			assertThat(helper.isSent(fqn, hash), is(false));
+			assertThat(helper.getInstrumentationDefinition(fqn), is(definition));
+		}
+
+		@Test
+		public void revisionChanged() throws Exception {
+			String fqn = "fqn";
+			String hash = "hash";
+			when(configurationStorage.isClassCacheExistsOnCmr()).thenReturn(false);
+			when(configurationStorage.getConfigurationRevision()).thenReturn("revision");
+			new File(TEST_DEFINITION_CACHE_FILE).createNewFile();
+			when(serializationManager.deserialize(Matchers.<Input> any())).thenReturn("oldRevision");
+			helper.afterPropertiesSet();
+
+			boolean cached = helper.isCached(fqn, hash);
+
+			assertThat(cached, is(false));
+			assertThat(helper.isEmpty(), is(true));
+			verify(serializationManager, times(1)).deserialize(Matchers.<Input> any());
+		}
+
+		@Test
+		public void cacheOnCmr() throws Exception {
+			when(configurationStorage.isClassCacheExistsOnCmr()).thenReturn(true);
+			when(configurationStorage.getConfigurationRevision()).thenReturn("revision");
+			new File(TEST_DEFINITION_CACHE_FILE).createNewFile();
+			helper.afterPropertiesSet();
+
+			boolean cached = helper.isCached("fqn", "hash");
+
+			assertThat(cached, is(false));
+			verifyZeroInteractions(serializationManager);
+		}
+
+		@Test
+		public void sent() throws Exception {
+			String fqn = "fqn";
+			String hash = "hash";
+			when(configurationStorage.isClassCacheExistsOnCmr()).thenReturn(false);
+			when(configurationStorage.getConfigurationRevision()).thenReturn("revision");
+			new File(TEST_DEFINITION_CACHE_FILE).createNewFile();
+			Object hashes = Collections.singletonMap(fqn, Collections.singleton(hash));
+			Object definitions = Collections.emptyMap();
+			when(serializationManager.deserialize(Matchers.<Input> any())).thenReturn("revision", hashes, definitions);
+			helper.afterPropertiesSet();
+
+			helper.registerSent(fqn, hash);
+
+			assertThat(helper.isCached(fqn, hash), is(false));
+			assertThat(helper.isSent(fqn, hash), is(true));
+		}
+	}
+
 }
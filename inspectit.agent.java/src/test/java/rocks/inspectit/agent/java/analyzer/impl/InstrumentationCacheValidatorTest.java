@@ -0,0 +1,274 @@
+package rocks.inspectit.agent.java.analyzer.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyMapOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.slf4j.Logger;
+import org.springframework.context.ApplicationEventPublisher;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.agent.java.connection.IConnection;
+import rocks.inspectit.agent.java.connection.ServerUnavailableException;
+import rocks.inspectit.agent.java.core.IPlatformManager;
+import rocks.inspectit.agent.java.event.AgentMessagesReceivedEvent;
+import rocks.inspectit.shared.all.communication.data.ParameterContentType;
+import rocks.inspectit.shared.all.communication.message.UpdatedInstrumentationMessage;
+import rocks.inspectit.shared.all.exception.BusinessException;
+import rocks.inspectit.shared.all.instrumentation.classcache.ClassType;
+import rocks.inspectit.shared.all.instrumentation.classcache.Type;
+import rocks.inspectit.shared.all.instrumentation.config.PriorityEnum;
+import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationDefinition;
+import rocks.inspectit.shared.all.instrumentation.config.impl.MethodInstrumentationConfig;
+import rocks.inspectit.shared.all.instrumentation.config.impl.PropertyPathStart;
+import rocks.inspectit.shared.all.instrumentation.config.impl.SensorInstrumentationPoint;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests the {@link InstrumentationCacheValidator}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class InstrumentationCacheValidatorTest extends TestBase {
+
+	static final String FQN = "fqn";
+
+	static final String HASH = "hash";
+
+	@InjectMocks
+	InstrumentationCacheValidator validator;
+
+	@Mock
+	Logger log;
+
+	@Mock
+	IConnection connection;
+
+	@Mock
+	IPlatformManager platformManager;
+
+	@Mock
+	ClassHashHelper classHashHelper;
+
+	@Mock
+	ApplicationEventPublisher eventPublisher;
+
+	@Mock
+	ScheduledExecutorService executorService;
+
+	Type type = new ClassType(FQN, HASH, 0);
+
+	@BeforeMethod
+	public void init() throws Exception {
+		when(platformManager.getPlatformId()).thenReturn(1L);
+		when(connection.isConnected()).thenReturn(true);
+		doAnswer(new Answer<Void>() {
+			@Override
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				((Runnable) invocation.getArguments()[0]).run();
+				return null;
+			}
+		}).when(executorService).execute(Matchers.<Runnable> any());
+	}
+
+	static InstrumentationDefinition definition(long id, long... sensorIds) {
+		SensorInstrumentationPoint sensorInstrumentationPoint = new SensorInstrumentationPoint();
+		sensorInstrumentationPoint.setId(id);
+		for (long sensorId : sensorIds) {
+			sensorInstrumentationPoint.addSensorId(sensorId, PriorityEnum.NORMAL);
+		}
+		MethodInstrumentationConfig config = new MethodInstrumentationConfig();
+		config.setTargetClassFqn(FQN);
+		config.setTargetMethodName("method");
+		config.setReturnType("void");
+		config.setParameterTypes(Collections.<String> emptyList());
+		config.setSensorInstrumentationPoint(sensorInstrumentationPoint);
+		InstrumentationDefinition definition = new InstrumentationDefinition(FQN);
+		definition.setMethodInstrumentationConfigs(Collections.singleton(config));
+		return definition;
+	}
+
+	static PropertyPathStart propertyAccessor(String name, int signaturePosition) {
+		PropertyPathStart propertyPathStart = new PropertyPathStart();
+		propertyPathStart.setName(name);
+		propertyPathStart.setContentType(ParameterContentType.PARAM);
+		propertyPathStart.setSignaturePosition(signaturePosition);
+		return propertyPathStart;
+	}
+
+	public class Validate extends InstrumentationCacheValidatorTest {
+
+		@Test
+		public void nothingPending() throws Exception {
+			validator.validate();
+
+			verifyZeroInteractions(connection, classHashHelper, eventPublisher);
+		}
+
+		@Test
+		public void sameDefinition() throws Exception {
+			when(classHashHelper.getInstrumentationDefinition(FQN)).thenReturn(definition(1L, 2L));
+			when(connection.analyzeAll(anyLong(), anyMapOf(String.class, Type.class))).thenReturn(Collections.singletonMap(HASH, definition(1L, 2L)));
+			validator.addType(HASH, type);
+
+			validator.validate();
+
+			verify(connection, times(1)).analyzeAll(1L, Collections.singletonMap(HASH, type));
+			verify(classHashHelper, times(1)).registerSent(FQN, HASH);
+			verifyZeroInteractions(eventPublisher);
+		}
+
+		@Test
+		public void changedDefinition() throws Exception {
+			InstrumentationDefinition received = definition(1L, 3L);
+			when(classHashHelper.getInstrumentationDefinition(FQN)).thenReturn(definition(1L, 2L));
+			when(connection.analyzeAll(anyLong(), anyMapOf(String.class, Type.class))).thenReturn(Collections.singletonMap(HASH, received));
+			validator.addType(HASH, type);
+
+			validator.validate();
+
+			verify(classHashHelper, times(1)).registerSent(FQN, HASH);
+			ArgumentCaptor<AgentMessagesReceivedEvent> captor = ArgumentCaptor.forClass(AgentMessagesReceivedEvent.class);
+			verify(eventPublisher, times(1)).publishEvent(captor.capture());
+			assertThat(captor.getValue().getAgentMessages(), hasSize(1));
+			UpdatedInstrumentationMessage message = (UpdatedInstrumentationMessage) captor.getValue().getAgentMessages().get(0);
+			assertThat(message.getMessageContent(), contains(received));
+		}
+
+		@Test
+		public void serverUnavailable() throws Exception {
+			when(connection.analyzeAll(anyLong(), anyMapOf(String.class, Type.class))).thenThrow(new ServerUnavailableException()).thenReturn(Collections.<String, InstrumentationDefinition> emptyMap());
+			validator.addType(HASH, type);
+
+			validator.validate();
+			validator.validate();
+
+			verify(connection, times(2)).analyzeAll(1L, Collections.singletonMap(HASH, type));
+			verifyZeroInteractions(classHashHelper, eventPublisher);
+		}
+
+		@Test
+		public void businessException() throws Exception {
+			when(connection.analyzeAll(anyLong(), anyMapOf(String.class, Type.class))).thenThrow(new BusinessException(null)).thenReturn(Collections.<String, InstrumentationDefinition> emptyMap());
+			validator.addType(HASH, type);
+
+			validator.validate();
+			validator.validate();
+
+			verify(connection, times(2)).analyzeAll(1L, Collections.singletonMap(HASH, type));
+			verifyZeroInteractions(classHashHelper, eventPublisher);
+		}
+
+		@Test
+		public void maxPendingTypes() throws Exception {
+			when(connection.analyzeAll(anyLong(), anyMapOf(String.class, Type.class))).thenReturn(Collections.<String, InstrumentationDefinition> emptyMap());
+
+			for (int i = 0; i < 256; i++) {
+				validator.addType(HASH + i, new ClassType(FQN + i, HASH + i, 0));
+			}
+
+			ArgumentCaptor<Map> captor = ArgumentCaptor.forClass(Map.class);
+			verify(connection, times(1)).analyzeAll(eq(1L), captor.capture());
+			assertThat(captor.getValue().size(), is(256));
+		}
+
+		@Test
+		public void validatedOnce() throws Exception {
+			when(connection.analyzeAll(anyLong(), anyMapOf(String.class, Type.class))).thenReturn(Collections.<String, InstrumentationDefinition> singletonMap(HASH, null));
+			validator.addType(HASH, type);
+
+			validator.validate();
+			validator.validate();
+
+			verify(connection, times(1)).analyzeAll(anyLong(), any(Map.class));
+			verify(classHashHelper, times(1)).registerSent(FQN, HASH);
+			verifyZeroInteractions(eventPublisher);
+		}
+	}
+
+	public class IsSameDefinition extends InstrumentationCacheValidatorTest {
+
+		@Test
+		public void bothNull() {
+			assertThat(InstrumentationCacheValidator.isSameDefinition(null, null), is(true));
+		}
+
+		@Test
+		public void emptyAndNull() {
+			assertThat(InstrumentationCacheValidator.isSameDefinition(new InstrumentationDefinition(FQN), null), is(true));
+		}
+
+		@Test
+		public void oneNull() {
+			assertThat(InstrumentationCacheValidator.isSameDefinition(definition(1L, 2L), null), is(false));
+		}
+
+		@Test
+		public void same() {
+			assertThat(InstrumentationCacheValidator.isSameDefinition(definition(1L, 2L, 3L), definition(1L, 2L, 3L)), is(true));
+		}
+
+		@Test
+		public void differentMethodId() {
+			assertThat(InstrumentationCacheValidator.isSameDefinition(definition(1L, 2L), definition(4L, 2L)), is(false));
+		}
+
+		@Test
+		public void differentSensors() {
+			assertThat(InstrumentationCacheValidator.isSameDefinition(definition(1L, 2L), definition(1L, 2L, 3L)), is(false));
+		}
+
+		@Test
+		public void samePropertyAccessors() {
+			InstrumentationDefinition first = definition(1L, 2L);
+			first.getMethodInstrumentationConfigs().iterator().next().getSensorInstrumentationPoint().addPropertyAccessor(propertyAccessor("field", 1));
+			InstrumentationDefinition second = definition(1L, 2L);
+			second.getMethodInstrumentationConfigs().iterator().next().getSensorInstrumentationPoint().addPropertyAccessor(propertyAccessor("field", 1));
+
+			assertThat(InstrumentationCacheValidator.isSameDefinition(first, second), is(true));
+		}
+
+		@Test
+		public void differentPropertyAccessors() {
+			InstrumentationDefinition first = definition(1L, 2L);
+			first.getMethodInstrumentationConfigs().iterator().next().getSensorInstrumentationPoint().addPropertyAccessor(propertyAccessor("field", 1));
+			InstrumentationDefinition second = definition(1L, 2L);
+			second.getMethodInstrumentationConfigs().iterator().next().getSensorInstrumentationPoint().addPropertyAccessor(propertyAccessor("field", 2));
+
+			assertThat(InstrumentationCacheValidator.isSameDefinition(first, second), is(false));
+		}
+
+		@Test
+		public void addedPropertyAccessor() {
+			InstrumentationDefinition first = definition(1L, 2L);
+			InstrumentationDefinition second = definition(1L, 2L);
+			second.getMethodInstrumentationConfigs().iterator().next().getSensorInstrumentationPoint().addPropertyAccessor(propertyAccessor("field", 1));
+
+			assertThat(InstrumentationCacheValidator.isSameDefinition(first, second), is(false));
+		}
+	}
+
+}
@@ -0,0 +1,243 @@
+package rocks.inspectit.agent.java.analyzer.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.when;
+
+import info.novatec.inspectit.org.objectweb.asm.ClassReader;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.agent.java.analyzer.classes.AbstractTest;
+import rocks.inspectit.agent.java.analyzer.classes.EmptyClass;
+import rocks.inspectit.agent.java.analyzer.classes.ISubTest;
+import rocks.inspectit.agent.java.analyzer.classes.ITest;
+import rocks.inspectit.agent.java.analyzer.classes.TestClass;
+import rocks.inspectit.agent.java.config.IConfigurationStorage;
+import rocks.inspectit.shared.all.instrumentation.classcache.AnnotationType;
+import rocks.inspectit.shared.all.instrumentation.classcache.ClassType;
+import rocks.inspectit.shared.all.instrumentation.classcache.InterfaceType;
+import rocks.inspectit.shared.all.instrumentation.classcache.MethodType;
+import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationDefinition;
+import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationPrefilter;
+import rocks.inspectit.shared.all.pattern.IMatchPattern;
+import rocks.inspectit.shared.all.pattern.PatternFactory;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests the {@link InstrumentationCandidateFilter}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class InstrumentationCandidateFilterTest extends TestBase {
+
+	@InjectMocks
+	InstrumentationCandidateFilter filter;
+
+	@Mock
+	IConfigurationStorage configurationStorage;
+
+	@Mock
+	ClassHashHelper classHashHelper;
+
+	@BeforeMethod
+	public void init() throws Exception {
+		when(configurationStorage.getClassCandidatePatterns()).thenReturn(Collections.singletonList(PatternFactory.getPattern("info.novatec.*")));
+		when(configurationStorage.getHierarchyCandidatePatterns()).thenReturn(Collections.singletonList(PatternFactory.getPattern("javax.servlet.Servlet")));
+	}
+
+	public class IsCandidate extends InstrumentationCandidateFilterTest {
+
+		@Test
+		public void noPatterns() throws Exception {
+			when(configurationStorage.getClassCandidatePatterns()).thenReturn(null);
+
+			boolean candidate = filter.isCandidate(new ClassType("java.lang.String"));
+
+			assertThat(candidate, is(true));
+		}
+
+		@Test
+		public void className() throws Exception {
+			boolean candidate = filter.isCandidate(new ClassType("info.novatec.Service"));
+
+			assertThat(candidate, is(true));
+		}
+
+		@Test
+		public void noMatch() throws Exception {
+			boolean candidate = filter.isCandidate(new ClassType("java.lang.String"));
+
+			assertThat(candidate, is(false));
+		}
+
+		@Test
+		public void realizedInterface() throws Exception {
+			ClassType classType = new ClassType("my.Servlet");
+			classType.addInterface(new InterfaceType("javax.servlet.Servlet"));
+
+			boolean candidate = filter.isCandidate(classType);
+
+			assertThat(candidate, is(true));
+		}
+
+		@Test
+		public void indirectSuperType() throws Exception {
+			ClassType abstractServlet = new ClassType("my.AbstractServlet");
+			abstractServlet.addInterface(new InterfaceType("javax.servlet.Servlet"));
+			ClassType classType = new ClassType("my.Servlet");
+			classType.addSuperClass(new ClassType("my.AbstractServlet"));
+
+			boolean superCandidate = filter.isCandidate(abstractServlet);
+			boolean candidate = filter.isCandidate(classType);
+
+			assertThat(superCandidate, is(true));
+			assertThat(candidate, is(true));
+		}
+
+		@Test
+		public void indirectSuperTypeNotAnalyzed() throws Exception {
+			ClassType classType = new ClassType("my.Servlet");
+			classType.addSuperClass(new ClassType("my.AbstractServlet"));
+
+			boolean candidate = filter.isCandidate(classType);
+
+			assertThat(candidate, is(false));
+		}
+
+		@Test
+		public void classAnnotation() throws Exception {
+			Collection<IMatchPattern> patterns = Collections.singletonList(PatternFactory.getPattern("javax.ws.rs.Path"));
+			when(configurationStorage.getHierarchyCandidatePatterns()).thenReturn(patterns);
+			ClassType classType = new ClassType("my.Resource");
+			classType.addAnnotation(new AnnotationType("javax.ws.rs.Path"));
+
+			boolean candidate = filter.isCandidate(classType);
+
+			assertThat(candidate, is(true));
+		}
+
+		@Test
+		public void methodAnnotation() throws Exception {
+			Collection<IMatchPattern> patterns = Collections.singletonList(PatternFactory.getPattern("javax.ws.rs.GET"));
+			when(configurationStorage.getHierarchyCandidatePatterns()).thenReturn(patterns);
+			MethodType methodType = new MethodType();
+			methodType.setName("get");
+			methodType.addAnnotation(new AnnotationType("javax.ws.rs.GET"));
+			ClassType classType = new ClassType("my.Resource");
+			classType.addMethod(methodType);
+
+			boolean candidate = filter.isCandidate(classType);
+
+			assertThat(candidate, is(true));
+		}
+	}
+
+	public class IsPrefiltered extends InstrumentationCandidateFilterTest {
+
+		@Test
+		public void noPrefilter() throws Exception {
+			boolean prefiltered = filter.isPrefiltered(Object.class.getName(), new ClassReader(Object.class.getName()));
+
+			assertThat(prefiltered, is(false));
+		}
+
+		@Test
+		public void noMatch() throws Exception {
+			InstrumentationPrefilter prefilter = InstrumentationPrefilter.create(Collections.singletonList("info.novatec.*"), Collections.<String> emptyList());
+			when(configurationStorage.getInstrumentationPrefilter()).thenReturn(prefilter);
+
+			boolean objectPrefiltered = filter.isPrefiltered(Object.class.getName(), new ClassReader(Object.class.getName()));
+			boolean prefiltered = filter.isPrefiltered(EmptyClass.class.getName(), new ClassReader(EmptyClass.class.getName()));
+
+			assertThat(objectPrefiltered, is(true));
+			assertThat(prefiltered, is(true));
+			assertThat(filter.getFilteredClassCount(), is(2L));
+		}
+
+		@Test
+		public void superTypeNotSeen() throws Exception {
+			InstrumentationPrefilter prefilter = InstrumentationPrefilter.create(Collections.singletonList("info.novatec.*"), Collections.<String> emptyList());
+			when(configurationStorage.getInstrumentationPrefilter()).thenReturn(prefilter);
+
+			boolean prefiltered = filter.isPrefiltered(EmptyClass.class.getName(), new ClassReader(EmptyClass.class.getName()));
+
+			assertThat(prefiltered, is(false));
+			assertThat(filter.getAnalyzedClassCount(), is(1L));
+		}
+
+		@Test
+		public void className() throws Exception {
+			InstrumentationPrefilter prefilter = InstrumentationPrefilter.create(Collections.singletonList(TestClass.class.getName()), Collections.<String> emptyList());
+			when(configurationStorage.getInstrumentationPrefilter()).thenReturn(prefilter);
+
+			boolean prefiltered = filter.isPrefiltered(TestClass.class.getName(), new ClassReader(TestClass.class.getName()));
+
+			assertThat(prefiltered, is(false));
+		}
+
+		@Test
+		public void indirectInterface() throws Exception {
+			InstrumentationPrefilter prefilter = InstrumentationPrefilter.create(Collections.singletonList(ITest.class.getName()), Collections.<String> emptyList());
+			when(configurationStorage.getInstrumentationPrefilter()).thenReturn(prefilter);
+
+			// ISubTest extends ITest, AbstractTest implements ISubTest
+			filter.isPrefiltered(Object.class.getName(), new ClassReader(Object.class.getName()));
+			filter.isPrefiltered(ITest.class.getName(), new ClassReader(ITest.class.getName()));
+			filter.isPrefiltered(ISubTest.class.getName(), new ClassReader(ISubTest.class.getName()));
+			boolean prefiltered = filter.isPrefiltered(AbstractTest.class.getName(), new ClassReader(AbstractTest.class.getName()));
+
+			assertThat(prefiltered, is(false));
+		}
+
+		@Test
+		public void annotation() throws Exception {
+			String className = "rocks.inspectit.agent.java.instrumentation.asm.TestInterface";
+			InstrumentationPrefilter prefilter = InstrumentationPrefilter.create(Collections.<String> emptyList(), Collections.singletonList("rocks.inspectit.agent.java.instrumentation.asm.TestAnnotation"));
+			when(configurationStorage.getInstrumentationPrefilter()).thenReturn(prefilter);
+
+			// only the annotation matches, the super-types are known
+			boolean objectPrefiltered = filter.isPrefiltered(Object.class.getName(), new ClassReader(Object.class.getName()));
+			boolean serializablePrefiltered = filter.isPrefiltered(Serializable.class.getName(), new ClassReader(Serializable.class.getName()));
+			boolean prefiltered = filter.isPrefiltered(className, new ClassReader(className));
+
+			assertThat(objectPrefiltered, is(true));
+			assertThat(serializablePrefiltered, is(true));
+			assertThat(prefiltered, is(false));
+		}
+
+		@Test
+		public void knownDefinition() throws Exception {
+			InstrumentationPrefilter prefilter = InstrumentationPrefilter.create(Collections.singletonList("info.novatec.*"), Collections.<String> emptyList());
+			when(configurationStorage.getInstrumentationPrefilter()).thenReturn(prefilter);
+			when(classHashHelper.getInstrumentationDefinition(anyString())).thenReturn(new InstrumentationDefinition(Object.class.getName()));
+
+			boolean prefiltered = filter.isPrefiltered(Object.class.getName(), new ClassReader(Object.class.getName()));
+
+			assertThat(prefiltered, is(false));
+		}
+
+		@Test
+		public void parsedSuperType() throws Exception {
+			InstrumentationPrefilter prefilter = InstrumentationPrefilter.create(Collections.singletonList("info.novatec.*"), Collections.<String> emptyList());
+			when(configurationStorage.getInstrumentationPrefilter()).thenReturn(prefilter);
+
+			// super-type state is known after the parsed type is checked
+			filter.isCandidate(new ClassType(Object.class.getName()));
+			boolean prefiltered = filter.isPrefiltered(EmptyClass.class.getName(), new ClassReader(EmptyClass.class.getName()));
+
+			assertThat(prefiltered, is(true));
+		}
+	}
+
+}
@@ -0,0 +1,117 @@
+package rocks.inspectit.agent.java.buffer.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+
+@SuppressWarnings("PMD")
+public class ByteSizeBufferStrategyTest {
+
+	private ByteSizeBufferStrategy bufferStrategy;
+
+	private DefaultDataSizeEstimator sizeEstimator;
+
+	@BeforeMethod
+	public void initTestClass() {
+		bufferStrategy = new ByteSizeBufferStrategy();
+		bufferStrategy.log = LoggerFactory.getLogger(ByteSizeBufferStrategy.class);
+		sizeEstimator = new DefaultDataSizeEstimator();
+	}
+
+	public class AddMeasurements extends ByteSizeBufferStrategyTest {
+
+		@Test
+		public void addAndRetrieve() {
+			List<DefaultData> list = timerDataList(10);
+
+			bufferStrategy.addMeasurements(list);
+
+			assertThat(bufferStrategy.hasNext(), is(true));
+			assertThat(bufferStrategy.getCurrentBytes(), is(sizeEstimator.estimateSize(list)));
+			assertThat(bufferStrategy.next(), is(sameInstance(list)));
+			assertThat(bufferStrategy.hasNext(), is(false));
+			assertThat(bufferStrategy.getCurrentBytes(), is(0L));
+			assertThat(bufferStrategy.getPeakBytes(), is(sizeEstimator.estimateSize(list)));
+		}
+
+		@Test
+		public void newestFirst() {
+			List<DefaultData> first = timerDataList(1);
+			List<DefaultData> second = timerDataList(1);
+
+			bufferStrategy.addMeasurements(first);
+			bufferStrategy.addMeasurements(second);
+
+			assertThat(bufferStrategy.next(), is(sameInstance(second)));
+			assertThat(bufferStrategy.next(), is(sameInstance(first)));
+		}
+
+		@Test
+		public void budgetExceeded() {
+			List<DefaultData> first = timerDataList(4000);
+			List<DefaultData> second = timerDataList(4000);
+			long size = sizeEstimator.estimateSize(first);
+			// budget in megabytes that fits only one of the lists
+			bufferStrategy.init(Collections.singletonMap("budget", "1"));
+			assertThat(size < (1024 * 1024), is(true));
+			assertThat((2 * size) > (1024 * 1024), is(true));
+
+			bufferStrategy.addMeasurements(first);
+			bufferStrategy.addMeasurements(second);
+
+			assertThat(bufferStrategy.next(), is(sameInstance(second)));
+			assertThat(bufferStrategy.hasNext(), is(false));
+			assertThat(bufferStrategy.getDroppedBytes(), is(size));
+			assertThat(bufferStrategy.getPeakBytes(), is(size));
+		}
+
+		@Test
+		public void biggerThanBudgetKept() {
+			List<DefaultData> list = timerDataList(10000);
+			bufferStrategy.init(Collections.singletonMap("budget", "1"));
+
+			bufferStrategy.addMeasurements(list);
+
+			assertThat(bufferStrategy.next(), is(sameInstance(list)));
+			assertThat(bufferStrategy.getDroppedBytes(), is(0L));
+		}
+
+		@Test(expectedExceptions = { IllegalArgumentException.class })
+		public void addNull() {
+			bufferStrategy.addMeasurements(null);
+		}
+	}
+
+	public class Next extends ByteSizeBufferStrategyTest {
+
+		@Test(expectedExceptions = { NoSuchElementException.class })
+		public void empty() {
+			bufferStrategy.next();
+		}
+
+		@Test(expectedExceptions = { UnsupportedOperationException.class })
+		public void remove() {
+			bufferStrategy.remove();
+		}
+	}
+
+	private static List<DefaultData> timerDataList(int count) {
+		List<DefaultData> list = new ArrayList<DefaultData>(count);
+		for (int i = 0; i < count; i++) {
+			list.add(new TimerData());
+		}
+		return list;
+	}
+}
@@ -0,0 +1,397 @@
+package rocks.inspectit.agent.java.buffer.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.slf4j.Logger;
+import org.springframework.core.io.ClassPathResource;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.esotericsoftware.kryo.io.Output;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.ExceptionEvent;
+import rocks.inspectit.shared.all.communication.data.CpuInformationData;
+import rocks.inspectit.shared.all.communication.data.ExceptionSensorData;
+import rocks.inspectit.shared.all.communication.data.HttpInfo;
+import rocks.inspectit.shared.all.communication.data.HttpTimerData;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.LoggingData;
+import rocks.inspectit.shared.all.communication.data.MemoryInformationData;
+import rocks.inspectit.shared.all.communication.data.ParameterContentData;
+import rocks.inspectit.shared.all.communication.data.ParameterContentType;
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.communication.data.ThreadInformationData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.serializer.SerializationException;
+import rocks.inspectit.shared.all.serializer.impl.SerializationManager;
+import rocks.inspectit.shared.all.serializer.schema.ClassSchemaManager;
+import rocks.inspectit.shared.all.testbase.TestBase;
+import rocks.inspectit.shared.all.util.KryoNetNetwork;
+
+/**
+ * Compares the estimated sizes with the sizes of the data serialized by the
+ * {@link SerializationManager}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class DefaultDataSizeEstimatorTest extends TestBase {
+
+	/**
+	 * Allowed relative difference between the estimated and the serialized size.
+	 */
+	private static final double TOLERANCE = 0.2d;
+
+	/**
+	 * Amount of objects of one type in the tested lists, so that the field markers written once
+	 * per list do not dominate.
+	 */
+	private static final int LIST_SIZE = 10;
+
+	private DefaultDataSizeEstimator estimator;
+
+	private SerializationManager serializer;
+
+	@InjectMocks
+	private ClassSchemaManager schemaManager;
+
+	@Mock
+	private Logger log;
+
+	@BeforeMethod
+	public void init() throws IOException {
+		estimator = new DefaultDataSizeEstimator();
+
+		schemaManager.setSchemaListFile(new ClassPathResource(ClassSchemaManager.SCHEMA_DIR + "/" + ClassSchemaManager.SCHEMA_LIST_FILE, schemaManager.getClass().getClassLoader()));
+		schemaManager.loadSchemasFromLocations();
+
+		serializer = new SerializationManager();
+		serializer.setSchemaManager(schemaManager);
+		serializer.setKryoNetNetwork(new KryoNetNetwork());
+		serializer.initKryo();
+	}
+
+	public class EstimateSize extends DefaultDataSizeEstimatorTest {
+
+		@Test
+		public void timerData() throws SerializationException {
+			List<DefaultData> list = new ArrayList<DefaultData>();
+			for (int i = 0; i < LIST_SIZE; i++) {
+				list.add(createTimerData());
+			}
+
+			assertEstimated(list);
+		}
+
+		@Test
+		public void timerDataWithHistogram() throws SerializationException {
+			List<DefaultData> list = new ArrayList<DefaultData>();
+			for (int i = 0; i < LIST_SIZE; i++) {
+				TimerData timerData = createTimerData();
+				timerData.setHistogram(new long[] { 1, 5, 20, 3, 0, 0, 1, 0, 0, 0 });
+				list.add(timerData);
+			}
+
+			assertEstimated(list);
+		}
+
+		@Test
+		public void timerDataWithParameters() throws SerializationException {
+			List<DefaultData> list = new ArrayList<DefaultData>();
+			for (int i = 0; i < LIST_SIZE; i++) {
+				TimerData timerData = createTimerData();
+				ParameterContentData parameterContentData = new ParameterContentData();
+				parameterContentData.setName("productId");
+				parameterContentData.setContent("'" + i + "'");
+				parameterContentData.setContentType(ParameterContentType.PARAM);
+				timerData.addParameterContentData(parameterContentData);
+				list.add(timerData);
+			}
+
+			assertEstimated(list);
+		}
+
+		@Test
+		public void sqlStatementData() throws SerializationException {
+			List<DefaultData> list = new ArrayList<DefaultData>();
+			for (int i = 0; i < LIST_SIZE; i++) {
+				list.add(createSqlStatementData(i));
+			}
+
+			assertEstimated(list);
+		}
+
+		@Test
+		public void httpTimerData() throws SerializationException {
+			List<DefaultData> list = new ArrayList<DefaultData>();
+			for (int i = 0; i < LIST_SIZE; i++) {
+				list.add(createHttpTimerData(i));
+			}
+
+			assertEstimated(list);
+		}
+
+		@Test
+		public void exceptionSensorData() throws SerializationException {
+			List<DefaultData> list = new ArrayList<DefaultData>();
+			for (int i = 0; i < LIST_SIZE; i++) {
+				list.add(createExceptionSensorData(i));
+			}
+
+			assertEstimated(list);
+		}
+
+		@Test
+		public void exceptionSensorDataWithChild() throws SerializationException {
+			List<DefaultData> list = new ArrayList<DefaultData>();
+			for (int i = 0; i < LIST_SIZE; i++) {
+				ExceptionSensorData exceptionSensorData = createExceptionSensorData(i);
+				ExceptionSensorData child = new ExceptionSensorData(new Timestamp(System.currentTimeMillis()), 1L, 7L, 1301L);
+				child.setErrorMessage(exceptionSensorData.getErrorMessage());
+				child.setThrowableType(exceptionSensorData.getThrowableType());
+				child.setExceptionEvent(ExceptionEvent.PASSED);
+				child.setThrowableIdentityHashCode(exceptionSensorData.getThrowableIdentityHashCode());
+				exceptionSensorData.setChild(child);
+				list.add(exceptionSensorData);
+			}
+
+			assertEstimated(list);
+		}
+
+		@Test
+		public void invocationSequenceData() throws SerializationException {
+			InvocationSequenceData invocation = new InvocationSequenceData(new Timestamp(System.currentTimeMillis()), 1L, 9L, 1400L);
+			invocation.setDuration(500d);
+			invocation.setStart(1000d);
+			invocation.setEnd(1500d);
+			invocation.setTimerData(createTimerData());
+			invocation.setSamplingRate(0.5d);
+			invocation.setLoopCount(3);
+			invocation.setLoopMinDuration(1.5d);
+			invocation.setLoopMaxDuration(3.5d);
+			for (int i = 0; i < LIST_SIZE; i++) {
+				InvocationSequenceData nested = new InvocationSequenceData(new Timestamp(System.currentTimeMillis()), 1L, 9L, 1401L + i);
+				nested.setDuration(10d);
+				nested.setStart(1000d + i);
+				nested.setEnd(1010d + i);
+				nested.setPosition(i);
+				nested.setParentSequence(invocation);
+				if (0 == (i % 3)) {
+					nested.setSqlStatementData(createSqlStatementData(i));
+				} else {
+					nested.setTimerData(createTimerData());
+				}
+				if (5 == i) {
+					nested.setExceptionSensorDataObjects(new ArrayList<ExceptionSensorData>(Collections.singletonList(createExceptionSensorData(i))));
+				}
+				if (7 == i) {
+					nested.setLoggingData(new LoggingData("WARN", "Product cache is cold."));
+				}
+				invocation.getNestedSequences().add(nested);
+			}
+			invocation.setChildCount(LIST_SIZE);
+
+			assertEstimated(Collections.<DefaultData> singletonList(invocation));
+		}
+
+		@Test
+		public void cpuInformationData() throws SerializationException {
+			List<DefaultData> list = new ArrayList<DefaultData>();
+			for (int i = 0; i < LIST_SIZE; i++) {
+				CpuInformationData cpuInformationData = new CpuInformationData(new Timestamp(System.currentTimeMillis()), 1L, 2L);
+				cpuInformationData.setCount(5);
+				cpuInformationData.setProcessCpuTime(35000000000L + i);
+				cpuInformationData.setMinCpuUsage(10f);
+				cpuInformationData.setMaxCpuUsage(90f);
+				cpuInformationData.setTotalCpuUsage(255.5f);
+				list.add(cpuInformationData);
+			}
+
+			assertEstimated(list);
+		}
+
+		@Test
+		public void memoryInformationData() throws SerializationException {
+			List<DefaultData> list = new ArrayList<DefaultData>();
+			long heap = 512L * 1024 * 1024;
+			long nonHeap = heap / 8;
+			for (int i = 0; i < LIST_SIZE; i++) {
+				MemoryInformationData memoryInformationData = new MemoryInformationData(new Timestamp(System.currentTimeMillis()), 1L, 3L);
+				memoryInformationData.setCount(5);
+				memoryInformationData.setMinFreePhysMemory(heap);
+				memoryInformationData.setMaxFreePhysMemory(heap);
+				memoryInformationData.setTotalFreePhysMemory(5 * heap);
+				memoryInformationData.setMinFreeSwapSpace(heap);
+				memoryInformationData.setMaxFreeSwapSpace(heap);
+				memoryInformationData.setTotalFreeSwapSpace(5 * heap);
+				memoryInformationData.setMinComittedVirtualMemSize(heap);
+				memoryInformationData.setMaxComittedVirtualMemSize(heap);
+				memoryInformationData.setTotalComittedVirtualMemSize(5 * heap);
+				memoryInformationData.setMinUsedHeapMemorySize(heap);
+				memoryInformationData.setMaxUsedHeapMemorySize(heap);
+				memoryInformationData.setTotalUsedHeapMemorySize(5 * heap);
+				memoryInformationData.setMinComittedHeapMemorySize(heap);
+				memoryInformationData.setMaxComittedHeapMemorySize(heap);
+				memoryInformationData.setTotalComittedHeapMemorySize(5 * heap);
+				memoryInformationData.setMinUsedNonHeapMemorySize(nonHeap);
+				memoryInformationData.setMaxUsedNonHeapMemorySize(nonHeap);
+				memoryInformationData.setTotalUsedNonHeapMemorySize(5 * nonHeap);
+				memoryInformationData.setMinComittedNonHeapMemorySize(nonHeap);
+				memoryInformationData.setMaxComittedNonHeapMemorySize(nonHeap);
+				memoryInformationData.setTotalComittedNonHeapMemorySize(5 * nonHeap);
+				list.add(memoryInformationData);
+			}
+
+			assertEstimated(list);
+		}
+
+		@Test
+		public void threadInformationData() throws SerializationException {
+			List<DefaultData> list = new ArrayList<DefaultData>();
+			for (int i = 0; i < LIST_SIZE; i++) {
+				ThreadInformationData threadInformationData = new ThreadInformationData(new Timestamp(System.currentTimeMillis()), 1L, 4L);
+				threadInformationData.setCount(5);
+				threadInformationData.setMinThreadCount(40);
+				threadInformationData.setMaxThreadCount(45);
+				threadInformationData.setTotalThreadCount(210);
+				threadInformationData.setMinDaemonThreadCount(20);
+				threadInformationData.setMaxDaemonThreadCount(22);
+				threadInformationData.setTotalDaemonThreadCount(105);
+				threadInformationData.setMinPeakThreadCount(50);
+				threadInformationData.setMaxPeakThreadCount(50);
+				threadInformationData.setTotalPeakThreadCount(250);
+				threadInformationData.setMinTotalStartedThreadCount(300);
+				threadInformationData.setMaxTotalStartedThreadCount(310);
+				threadInformationData.setTotalTotalStartedThreadCount(1520);
+				list.add(threadInformationData);
+			}
+
+			assertEstimated(list);
+		}
+
+		@Test
+		public void mixedList() throws SerializationException {
+			List<DefaultData> list = new ArrayList<DefaultData>();
+			for (int i = 0; i < (2 * LIST_SIZE); i++) {
+				list.add(createTimerData());
+			}
+			for (int i = 0; i < LIST_SIZE; i++) {
+				list.add(createSqlStatementData(i));
+				list.add(createExceptionSensorData(i));
+				list.add(createHttpTimerData(i));
+			}
+
+			assertEstimated(list);
+		}
+
+		@Test
+		public void emptyList() throws SerializationException {
+			List<DefaultData> list = new ArrayList<DefaultData>();
+
+			assertThat(estimator.estimateSize(list), is((long) serializedSize(list)));
+		}
+
+		@Test
+		public void sqlGrowsWithStatement() {
+			SqlStatementData shortSql = new SqlStatementData();
+			shortSql.setSql("SELECT 1");
+			SqlStatementData longSql = new SqlStatementData();
+			longSql.setSql("SELECT 1 FROM TABLE WHERE ID = ?");
+
+			long difference = estimator.estimateSize(longSql) - estimator.estimateSize(shortSql);
+
+			assertThat(difference, is((long) (longSql.getSql().length() - shortSql.getSql().length())));
+		}
+
+		private void assertEstimated(List<DefaultData> list) throws SerializationException {
+			double serializedSize = serializedSize(list);
+
+			assertThat((double) estimator.estimateSize(list), is(closeTo(serializedSize, serializedSize * TOLERANCE)));
+		}
+
+		private int serializedSize(List<DefaultData> list) throws SerializationException {
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			Output output = new Output(outputStream);
+			serializer.serialize(list, output);
+			return outputStream.size();
+		}
+
+		private TimerData createTimerData() {
+			TimerData timerData = new TimerData(new Timestamp(System.currentTimeMillis()), 1L, 5L, 1234L);
+			fillTimerData(timerData);
+			return timerData;
+		}
+
+		private SqlStatementData createSqlStatementData(int i) {
+			SqlStatementData sqlStatementData = new SqlStatementData(new Timestamp(System.currentTimeMillis()), 1L, 6L, 1235L);
+			fillTimerData(sqlStatementData);
+			sqlStatementData.setSql("SELECT ID, NAME, PRICE FROM PRODUCT WHERE CATEGORY = ? AND PRICE < ? AND SHOP = " + i);
+			sqlStatementData.setPreparedStatement(true);
+			sqlStatementData.setDatabaseUrl("jdbc:mysql://localhost:3306/shop" + i);
+			sqlStatementData.setDatabaseProductName("MySQL" + i);
+			sqlStatementData.setDatabaseProductVersion("5.7." + i);
+			sqlStatementData.setParameterValues(new ArrayList<String>(Arrays.asList("'books'", String.valueOf(i))));
+			sqlStatementData.setSqlId(100L + i);
+			return sqlStatementData;
+		}
+
+		private HttpTimerData createHttpTimerData(int i) {
+			HttpTimerData httpTimerData = new HttpTimerData(new Timestamp(System.currentTimeMillis()), 1L, 8L, 1236L);
+			fillTimerData(httpTimerData);
+			httpTimerData.setHttpInfo(new HttpInfo("/shop/catalog/products/list/" + i, "GET", null));
+			httpTimerData.setHttpResponseStatus(200);
+			Map<String, String> headers = new HashMap<String, String>();
+			headers.put("host", "shop" + i + ".example.com");
+			headers.put("user-agent", "Mozilla/5.0 (X11; Linux x86_64) Build/" + i);
+			headers.put("accept", "text/html;q=0." + i);
+			httpTimerData.setHeaders(headers);
+			Map<String, String[]> parameters = new HashMap<String, String[]>();
+			parameters.put("category", new String[] { "books" + i });
+			parameters.put("page", new String[] { String.valueOf(i), String.valueOf(i + 1) });
+			httpTimerData.setParameters(parameters);
+			return httpTimerData;
+		}
+
+		private ExceptionSensorData createExceptionSensorData(int i) {
+			ExceptionSensorData exceptionSensorData = new ExceptionSensorData(new Timestamp(System.currentTimeMillis()), 1L, 7L, 1300L);
+			exceptionSensorData.setThrowableType("java.lang.IllegalStateException");
+			exceptionSensorData.setErrorMessage("Product " + i + " not found.");
+			exceptionSensorData.setStackTrace("java.lang.IllegalStateException\n\tat shop.Catalog.find(Catalog.java:" + i + ")\n\tat shop.CatalogServlet.doGet(CatalogServlet.java:20)");
+			exceptionSensorData.setExceptionEvent(ExceptionEvent.CREATED);
+			exceptionSensorData.setThrowableIdentityHashCode(1829164700L + i);
+			exceptionSensorData.setStackTraceId(200L + i);
+			return exceptionSensorData;
+		}
+
+		private void fillTimerData(TimerData timerData) {
+			timerData.setCount(10L);
+			timerData.setDuration(123.4d);
+			timerData.calculateMin(1.2d);
+			timerData.calculateMax(50.3d);
+			timerData.setCpuCount(10L);
+			timerData.setCpuDuration(11.1d);
+			timerData.calculateCpuMin(0.5d);
+			timerData.calculateCpuMax(5.5d);
+			timerData.setExclusiveCount(10L);
+			timerData.setExclusiveDuration(100.2d);
+			timerData.calculateExclusiveMin(0.9d);
+			timerData.calculateExclusiveMax(40.1d);
+		}
+	}
+}
@@ -0,0 +1,232 @@
+package rocks.inspectit.agent.java.buffer.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.agent.java.config.IConfigurationStorage;
+import rocks.inspectit.agent.java.connection.IConnection;
+import rocks.inspectit.agent.java.io.FileResolver;
+import rocks.inspectit.agent.java.spring.PrototypesProvider;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.instrumentation.config.impl.StrategyConfig;
+import rocks.inspectit.shared.all.serializer.impl.SerializationManager;
+import rocks.inspectit.shared.all.serializer.schema.ClassSchemaManager;
+import rocks.inspectit.shared.all.testbase.TestBase;
+import rocks.inspectit.shared.all.util.KryoNetNetwork;
+
+@SuppressWarnings("PMD")
+public class DiskBufferStrategyTest extends TestBase {
+
+	@InjectMocks
+	DiskBufferStrategy bufferStrategy;
+
+	@Mock
+	IConfigurationStorage configurationStorage;
+
+	@Mock
+	FileResolver fileResolver;
+
+	@Mock
+	PrototypesProvider prototypesProvider;
+
+	@Mock
+	IConnection connection;
+
+	ClassSchemaManager schemaManager;
+
+	File directory;
+
+	@BeforeMethod
+	public void initSerializer() throws IOException {
+		schemaManager = new ClassSchemaManager();
+		schemaManager.setLog(LoggerFactory.getLogger(ClassSchemaManager.class));
+		schemaManager.setSchemaListFile(new ClassPathResource(ClassSchemaManager.SCHEMA_DIR + "/" + ClassSchemaManager.SCHEMA_LIST_FILE, schemaManager.getClass().getClassLoader()));
+		schemaManager.loadSchemasFromLocations();
+
+		SerializationManager serializationManager = new SerializationManager();
+		serializationManager.setSchemaManager(schemaManager);
+		serializationManager.setKryoNetNetwork(new KryoNetNetwork());
+		serializationManager.initKryo();
+		when(prototypesProvider.createSerializer()).thenReturn(serializationManager);
+
+		directory = new File(System.getProperty("java.io.tmpdir"), "inspectit-disk-buffer-test-" + System.nanoTime());
+		when(fileResolver.getBufferSpillDirectory()).thenReturn(directory);
+
+		bufferStrategy.log = LoggerFactory.getLogger(DiskBufferStrategy.class);
+	}
+
+	@AfterMethod
+	public void cleanUp() throws Exception {
+		bufferStrategy.destroy();
+		File[] files = directory.listFiles();
+		if (null != files) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		directory.delete();
+	}
+
+	void init(int size, long diskQuota) throws Exception {
+		Map<String, String> settings = new HashMap<String, String>();
+		settings.put("size", String.valueOf(size));
+		settings.put("diskQuota", String.valueOf(diskQuota));
+		when(configurationStorage.getBufferStrategyConfig()).thenReturn(new StrategyConfig(DiskBufferStrategy.class.getName(), settings));
+		bufferStrategy.afterPropertiesSet();
+	}
+
+	public class AddMeasurements extends DiskBufferStrategyTest {
+
+		@Test
+		public void inMemory() throws Exception {
+			init(3, 1);
+			List<DefaultData> first = timerDataList(1, 10);
+			List<DefaultData> second = timerDataList(2, 10);
+
+			bufferStrategy.addMeasurements(first);
+			bufferStrategy.addMeasurements(second);
+
+			assertThat(bufferStrategy.getSpilledBytes(), is(0L));
+			assertThat(bufferStrategy.next(), is(sameInstance(first)));
+			assertThat(bufferStrategy.next(), is(sameInstance(second)));
+			assertThat(bufferStrategy.hasNext(), is(false));
+		}
+
+		@Test
+		public void spillToDisk() throws Exception {
+			init(2, 1);
+			when(connection.isConnected()).thenReturn(true);
+			for (int i = 0; i < 5; i++) {
+				bufferStrategy.addMeasurements(timerDataList(i, 10));
+			}
+
+			assertThat(bufferStrategy.getSpilledBytes(), is(greaterThan(0L)));
+			assertThat(bufferStrategy.getDroppedBytes(), is(0L));
+			for (int i = 0; i < 5; i++) {
+				assertThat(bufferStrategy.hasNext(), is(true));
+				List<DefaultData> measurements = bufferStrategy.next();
+				assertThat(measurements.size(), is(10));
+				assertThat(((TimerData) measurements.get(0)).getMethodIdent(), is((long) i));
+			}
+			assertThat(bufferStrategy.hasNext(), is(false));
+			assertThat(bufferStrategy.getReplayedBytes(), is(bufferStrategy.getSpilledBytes()));
+		}
+
+		@Test
+		public void spilledNotReadWhenDisconnected() throws Exception {
+			init(1, 1);
+			List<DefaultData> first = timerDataList(1, 10);
+			List<DefaultData> second = timerDataList(2, 10);
+			bufferStrategy.addMeasurements(first);
+			bufferStrategy.addMeasurements(second);
+
+			when(connection.isConnected()).thenReturn(false);
+			assertThat(bufferStrategy.next(), is(sameInstance(second)));
+			assertThat(bufferStrategy.hasNext(), is(false));
+
+			when(connection.isConnected()).thenReturn(true);
+			assertThat(bufferStrategy.hasNext(), is(true));
+			List<DefaultData> replayed = bufferStrategy.next();
+			assertThat(replayed, is(not(sameInstance(first))));
+			assertThat(((TimerData) replayed.get(0)).getMethodIdent(), is(1L));
+			assertThat(bufferStrategy.hasNext(), is(false));
+		}
+
+		@Test
+		public void quotaDropsOldest() throws Exception {
+			// one megabyte quota holds only a part of the spilled lists
+			init(1, 1);
+			when(connection.isConnected()).thenReturn(true);
+			int count = 30;
+			for (int i = 0; i < count; i++) {
+				bufferStrategy.addMeasurements(timerDataList(i, 2000));
+			}
+
+			assertThat(bufferStrategy.getDroppedBytes(), is(greaterThan(0L)));
+			List<Long> methodIdents = new ArrayList<Long>();
+			while (bufferStrategy.hasNext()) {
+				methodIdents.add(((TimerData) bufferStrategy.next().get(0)).getMethodIdent());
+			}
+			assertThat(methodIdents.size(), is(lessThan(count)));
+			assertThat(methodIdents.get(0), is(greaterThan(0L)));
+			for (int i = 1; i < methodIdents.size(); i++) {
+				assertThat(methodIdents.get(i), is(methodIdents.get(i - 1) + 1));
+			}
+			assertThat(methodIdents.get(methodIdents.size() - 1), is((long) count - 1));
+		}
+
+		@Test(expectedExceptions = { IllegalArgumentException.class })
+		public void nullMeasurements() throws Exception {
+			init(1, 1);
+
+			bufferStrategy.addMeasurements(null);
+		}
+	}
+
+	public class Next extends DiskBufferStrategyTest {
+
+		@Test(expectedExceptions = { NoSuchElementException.class })
+		public void empty() throws Exception {
+			init(1, 1);
+
+			bufferStrategy.next();
+		}
+
+		@Test(expectedExceptions = { NoSuchElementException.class })
+		public void onlySpilledWhenDisconnected() throws Exception {
+			init(1, 1);
+			bufferStrategy.addMeasurements(timerDataList(1, 10));
+			bufferStrategy.addMeasurements(timerDataList(2, 10));
+			bufferStrategy.next();
+
+			assertThat(bufferStrategy.hasNext(), is(false));
+			bufferStrategy.next();
+		}
+
+		@Test
+		public void destroyDeletesSegments() throws Exception {
+			init(1, 1);
+			bufferStrategy.addMeasurements(timerDataList(1, 10));
+			bufferStrategy.addMeasurements(timerDataList(2, 10));
+			assertThat(directory.listFiles().length, is(greaterThan(0)));
+
+			bufferStrategy.destroy();
+
+			assertThat(directory.listFiles().length, is(0));
+		}
+	}
+
+	private static List<DefaultData> timerDataList(long methodIdent, int count) {
+		List<DefaultData> list = new ArrayList<DefaultData>(count);
+		for (int i = 0; i < count; i++) {
+			TimerData timerData = new TimerData(new Timestamp(System.currentTimeMillis()), 1L, 2L, methodIdent);
+			timerData.setCount(1L);
+			timerData.setDuration(i);
+			list.add(timerData);
+		}
+		return list;
+	}
+}
@@ -0,0 +1,135 @@
+package rocks.inspectit.agent.java.buffer.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("PMD")
+public class MappedSegmentQueueTest {
+
+	private static final int SEGMENT_SIZE = 64;
+
+	private File directory;
+
+	private MappedSegmentQueue queue;
+
+	@BeforeMethod
+	public void init() {
+		directory = new File(System.getProperty("java.io.tmpdir"), "inspectit-segment-test-" + System.nanoTime());
+		queue = new MappedSegmentQueue(directory, SEGMENT_SIZE, 3 * SEGMENT_SIZE);
+	}
+
+	@AfterMethod
+	public void cleanUp() {
+		queue.close();
+		File[] files = directory.listFiles();
+		if (null != files) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		directory.delete();
+	}
+
+	public class Offer extends MappedSegmentQueueTest {
+
+		@Test
+		public void fifo() throws IOException {
+			for (int i = 0; i < 10; i++) {
+				assertThat(queue.offer(new byte[] { (byte) i, (byte) i }), is(true));
+			}
+
+			for (int i = 0; i < 10; i++) {
+				byte[] bytes = queue.poll();
+				assertThat(bytes.length, is(2));
+				assertThat(bytes[0], is((byte) i));
+			}
+			assertThat(queue.poll(), is(nullValue()));
+			assertThat(queue.isEmpty(), is(true));
+		}
+
+		@Test
+		public void biggerThanSegment() throws IOException {
+			assertThat(queue.offer(new byte[SEGMENT_SIZE * 2]), is(true));
+
+			assertThat(queue.poll().length, is(SEGMENT_SIZE * 2));
+			assertThat(queue.isEmpty(), is(true));
+		}
+
+		@Test
+		public void biggerThanQuota() throws IOException {
+			assertThat(queue.offer(new byte[SEGMENT_SIZE * 3]), is(false));
+
+			assertThat(queue.isEmpty(), is(true));
+			assertThat(queue.getDroppedBytes(), is((long) SEGMENT_SIZE * 3));
+		}
+
+		@Test
+		public void segmentLimitedToQuota() throws IOException {
+			MappedSegmentQueue smallQueue = new MappedSegmentQueue(directory, SEGMENT_SIZE * 16, SEGMENT_SIZE);
+			try {
+				assertThat(smallQueue.offer(new byte[] { 1 }), is(true));
+
+				assertThat(smallQueue.getOccupiedBytes(), is((long) SEGMENT_SIZE));
+			} finally {
+				smallQueue.close();
+			}
+		}
+
+		@Test(expectedExceptions = { IllegalArgumentException.class })
+		public void quotaTooSmall() {
+			new MappedSegmentQueue(directory, SEGMENT_SIZE, 4);
+		}
+
+		@Test
+		public void quotaDropsOldest() throws IOException {
+			// two entries fill exactly one segment: 4 + 1 + 4 + 55 bytes
+			for (int i = 0; i < 4; i++) {
+				queue.offer(new byte[] { (byte) i });
+				queue.offer(new byte[55]);
+			}
+
+			assertThat(queue.getOccupiedBytes(), is((long) 3 * SEGMENT_SIZE));
+			assertThat(queue.getDroppedBytes(), is(56L));
+			assertThat(queue.poll()[0], is((byte) 1));
+		}
+	}
+
+	public class Poll extends MappedSegmentQueueTest {
+
+		@Test
+		public void empty() {
+			assertThat(queue.poll(), is(nullValue()));
+			assertThat(queue.isEmpty(), is(true));
+		}
+
+		@Test
+		public void segmentsReleased() throws IOException {
+			for (int i = 0; i < 6; i++) {
+				queue.offer(new byte[SEGMENT_SIZE / 4]);
+			}
+			while (null != queue.poll()) {
+				// consume all
+			}
+
+			assertThat(queue.getOccupiedBytes(), is((long) SEGMENT_SIZE));
+			assertThat(queue.isEmpty(), is(true));
+		}
+
+		@Test
+		public void existingFilesDeleted() throws IOException {
+			queue.offer(new byte[] { 1 });
+
+			new MappedSegmentQueue(directory, SEGMENT_SIZE, SEGMENT_SIZE);
+
+			assertThat(directory.listFiles().length, is(0));
+		}
+	}
+}
@@ -26,19 +26,23 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.slf4j.Logger;
 import org.testng.annotations.Test;
 
+import com.esotericsoftware.kryo.io.Output;
 import com.esotericsoftware.kryonet.rmi.TimeoutException;
 
 import rocks.inspectit.agent.java.connection.RetryStrategy;
 import rocks.inspectit.agent.java.connection.ServerUnavailableException;
+import rocks.inspectit.agent.java.spring.PrototypesProvider;
 import rocks.inspectit.shared.all.cmr.service.IAgentService;
 import rocks.inspectit.shared.all.cmr.service.IAgentStorageService;
 import rocks.inspectit.shared.all.cmr.service.IKeepAliveService;
+import rocks.inspectit.shared.all.communication.CompressedDataObjects;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.data.TimerData;
 import rocks.inspectit.shared.all.communication.message.IAgentMessage;
@@ -48,6 +52,7 @@ import rocks.inspectit.shared.all.instrumentation.config.impl.AgentConfig;
 import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationDefinition;
 import rocks.inspectit.shared.all.instrumentation.config.impl.JmxAttributeDescriptor;
 import rocks.inspectit.shared.all.kryonet.Client;
+import rocks.inspectit.shared.all.serializer.impl.SerializationManager;
 import rocks.inspectit.shared.all.testbase.TestBase;
 
 @SuppressWarnings({ "PMD", "unchecked" })
@@ -71,6 +76,12 @@ public class KryoNetConnectionTest extends TestBase {
 	@Mock
 	IKeepAliveService keepAliveService;
 
+	@Mock
+	PrototypesProvider prototypesProvider;
+
+	@Mock
+	SerializationManager serializationManager;
+
 	public static class Connect extends KryoNetConnectionTest {
 
 		@Test
@@ -229,6 +240,29 @@ public class KryoNetConnectionTest extends TestBase {
 			verifyNoMoreInteractions(agentStorageService);
 		}
 
+		@Test
+		public void sendDataCompressed() throws Exception {
+			when(client.isConnected()).thenReturn(true);
+			AgentConfig agentConfiguration = new AgentConfig();
+			agentConfiguration.setCompressedDataTransport(true);
+			doReturn(agentConfiguration).when(agentService).register(Matchers.<List<String>> any(), anyString(), anyString());
+			when(prototypesProvider.createSerializer()).thenReturn(serializationManager);
+			List<DefaultData> measurements = new ArrayList<DefaultData>();
+			TimerData timerData = new TimerData();
+			timerData.setPlatformIdent(10L);
+			measurements.add(timerData);
+
+			connection.register("agentName", "version");
+			connection.sendDataObjects(measurements);
+
+			ArgumentCaptor<CompressedDataObjects> captor = ArgumentCaptor.forClass(CompressedDataObjects.class);
+			verify(agentStorageService, times(1)).addCompressedDataObjects(captor.capture());
+			assertThat(captor.getValue().getPlatformIdent(), is(10L));
+			assertThat(captor.getValue().getCount(), is(1));
+			verify(serializationManager).serialize(eq(measurements), Matchers.<Output> any());
+			verifyNoMoreInteractions(agentStorageService);
+		}
+
 		@Test(expectedExceptions = { ServerUnavailableException.class })
 		public void timeout() throws Exception {
 			when(client.isConnected()).thenReturn(true);
@@ -299,6 +333,19 @@ public class KryoNetConnectionTest extends TestBase {
 
 			verify(agentService, times(1)).register(Matchers.<List<String>> any(), eq(agentName), eq(version));
 			verifyNoMoreInteractions(agentService);
+			verify(client).setStringDictionaryEnabled(false);
+		}
+
+		@Test
+		public void registerStringDictionary() throws Exception {
+			AgentConfig agentConfiguration = new AgentConfig();
+			agentConfiguration.setStringDictionaryTransport(true);
+			when(client.isConnected()).thenReturn(true);
+			doReturn(agentConfiguration).when(agentService).register(Matchers.<List<String>> any(), anyString(), anyString());
+
+			connection.register("agentName", "version");
+
+			verify(client).setStringDictionaryEnabled(true);
 		}
 
 		@Test(expectedExceptions = { ServerUnavailableException.class })
@@ -0,0 +1,131 @@
+package rocks.inspectit.agent.java.connection.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+
+@SuppressWarnings("PMD")
+public class SendingWindowTest {
+
+	SendingWindow sendingWindow;
+
+	List<DefaultData> first = Collections.<DefaultData> singletonList(new TimerData());
+
+	List<DefaultData> second = Collections.<DefaultData> singletonList(new TimerData());
+
+	@BeforeMethod
+	public void init() {
+		sendingWindow = new SendingWindow(2);
+	}
+
+	public class Add extends SendingWindowTest {
+
+		@Test
+		public void full() {
+			sendingWindow.add((byte) 1, first, 0L);
+			assertThat(sendingWindow.isFull(), is(false));
+
+			sendingWindow.add((byte) 2, second, 0L);
+
+			assertThat(sendingWindow.isFull(), is(true));
+			assertThat(sendingWindow.size(), is(2));
+			assertThat(sendingWindow.getOldestResponseId(), is((byte) 1));
+		}
+
+		@Test(expectedExceptions = IllegalStateException.class)
+		public void overCapacity() {
+			sendingWindow.add((byte) 1, first, 0L);
+			sendingWindow.add((byte) 2, second, 0L);
+			sendingWindow.add((byte) 3, first, 0L);
+		}
+
+		@Test(expectedExceptions = IllegalArgumentException.class)
+		public void zeroCapacity() {
+			new SendingWindow(0);
+		}
+	}
+
+	public class AcknowledgeOldest extends SendingWindowTest {
+
+		@Test
+		public void inOrder() {
+			sendingWindow.add((byte) 1, first, 0L);
+			sendingWindow.add((byte) 2, second, TimeUnit.MILLISECONDS.toNanos(1));
+
+			long roundTrip = sendingWindow.acknowledgeOldest(TimeUnit.MILLISECONDS.toNanos(10));
+
+			assertThat(roundTrip, is(TimeUnit.MILLISECONDS.toNanos(10)));
+			assertThat(sendingWindow.size(), is(1));
+			assertThat(sendingWindow.getOldestResponseId(), is((byte) 2));
+		}
+
+		@Test
+		public void roundTripTimes() {
+			sendingWindow.add((byte) 1, first, 0L);
+			sendingWindow.add((byte) 2, second, 0L);
+
+			sendingWindow.acknowledgeOldest(TimeUnit.MILLISECONDS.toNanos(10));
+			sendingWindow.acknowledgeOldest(TimeUnit.MILLISECONDS.toNanos(20));
+
+			assertThat(sendingWindow.isEmpty(), is(true));
+			assertThat(sendingWindow.getAcknowledgedBatches(), is(2L));
+			assertThat(sendingWindow.getLastRoundTripTime(), is(20d));
+			assertThat(sendingWindow.getMaxRoundTripTime(), is(20d));
+			assertThat(sendingWindow.getAverageRoundTripTime(), is(15d));
+		}
+
+		@Test
+		public void nothingAcknowledged() {
+			assertThat(sendingWindow.getAverageRoundTripTime(), is(0d));
+			assertThat(sendingWindow.getMaxRoundTripTime(), is(0d));
+		}
+	}
+
+	public class RemoveUnacknowledged extends SendingWindowTest {
+
+		@Test
+		public void inSendingOrder() {
+			sendingWindow.add((byte) 1, first, 0L);
+			sendingWindow.add((byte) 2, second, 0L);
+
+			List<List<? extends DefaultData>> unacknowledged = sendingWindow.removeUnacknowledged();
+
+			assertThat(unacknowledged, hasSize(2));
+			assertThat(unacknowledged.get(0), is((Object) first));
+			assertThat(unacknowledged.get(1), is((Object) second));
+			assertThat(sendingWindow.isEmpty(), is(true));
+			assertThat(sendingWindow.getUnacknowledgedBatches(), is(2L));
+		}
+
+		@Test
+		public void onlyNotAcknowledged() {
+			sendingWindow.add((byte) 1, first, 0L);
+			sendingWindow.add((byte) 2, second, 0L);
+			sendingWindow.acknowledgeOldest(1L);
+
+			List<List<? extends DefaultData>> unacknowledged = sendingWindow.removeUnacknowledged();
+
+			assertThat(unacknowledged, hasSize(1));
+			assertThat(unacknowledged.get(0), is((Object) second));
+			assertThat(sendingWindow.getUnacknowledgedBatches(), is(1L));
+		}
+
+		@Test
+		public void nothingInFlight() {
+			List<List<? extends DefaultData>> unacknowledged = sendingWindow.removeUnacknowledged();
+
+			assertThat(unacknowledged, is(empty()));
+		}
+	}
+}
@@ -28,6 +28,7 @@ import rocks.inspectit.agent.java.connection.ServerUnavailableException;
 import rocks.inspectit.agent.java.core.IObjectStorage;
 import rocks.inspectit.agent.java.core.IPlatformManager;
 import rocks.inspectit.agent.java.core.ListListener;
+import rocks.inspectit.agent.java.core.ListSizeListener;
 import rocks.inspectit.agent.java.sending.ISendingStrategy;
 import rocks.inspectit.agent.java.sensor.method.timer.PlainTimerStorage;
 import rocks.inspectit.shared.all.communication.DefaultData;
@@ -301,6 +302,27 @@ public class CoreServiceTest extends TestBase {
 		verifyZeroInteractions(platformManager);
 	}
 
+	@Test
+	public void verifyListSizeListener() {
+		ListSizeListener listener = mock(ListSizeListener.class);
+		TimerData timerData = new TimerData();
+		PlainTimerStorage timerStorage = new PlainTimerStorage(null, 0, 0, 0, Collections.<ParameterContentData> emptyList(), false);
+
+		coreService.addListSizeListener(listener);
+		coreService.addMethodSensorData(0, 0, null, timerData);
+		coreService.addMethodSensorData(0, 0, null, timerData);
+		coreService.addObjectStorage(0, 0, null, timerStorage);
+
+		verify(listener, times(2)).sizeChanged(1);
+		verify(listener, times(1)).sizeChanged(2);
+
+		coreService.removeListSizeListener(listener);
+		coreService.addMethodSensorData(0, 1, null, timerData);
+
+		verifyNoMoreInteractions(listener, bufferStrategy, connection, sendingStrategy);
+		verifyZeroInteractions(platformManager);
+	}
+
 	@Test
 	public void addAndRetrieveMethodSensorDataNoPrefix() {
 		long sensorTypeId = 2;
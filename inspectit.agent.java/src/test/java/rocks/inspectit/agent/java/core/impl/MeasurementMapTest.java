@@ -0,0 +1,89 @@
+package rocks.inspectit.agent.java.core.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("PMD")
+public class MeasurementMapTest {
+
+	private MeasurementMap<String> map;
+
+	@BeforeMethod
+	public void init() {
+		map = new MeasurementMap<String>();
+	}
+
+	public class Get extends MeasurementMapTest {
+
+		@Test
+		public void noPrefix() {
+			map.put(1L, 2L, null, "value");
+
+			assertThat(map.get(1L, 2L, null), is("value"));
+			assertThat(map.get(2L, 1L, null), is(nullValue()));
+			assertThat(map.get(1L, 2L, "prefix"), is(nullValue()));
+		}
+
+		@Test
+		public void withPrefix() {
+			map.put(1L, 2L, "prefix", "value");
+
+			assertThat(map.get(1L, 2L, "prefix"), is("value"));
+			assertThat(map.get(1L, 2L, "otherPrefix"), is(nullValue()));
+			assertThat(map.get(1L, 2L, null), is(nullValue()));
+		}
+
+		@Test
+		public void zeroKeys() {
+			map.put(0L, 0L, null, "value");
+
+			assertThat(map.get(0L, 0L, null), is("value"));
+		}
+
+		@Test
+		public void replaced() {
+			map.put(1L, 2L, null, "value");
+			String previous = map.put(1L, 2L, null, "newValue");
+
+			assertThat(previous, is("value"));
+			assertThat(map.get(1L, 2L, null), is("newValue"));
+		}
+
+		@Test
+		public void empty() {
+			assertThat(map.get(1L, 2L, null), is(nullValue()));
+		}
+	}
+
+	public class Values extends MeasurementMapTest {
+
+		@Test
+		public void all() {
+			map.put(1L, 2L, null, "first");
+			map.put(1L, 3L, null, "second");
+			map.put(1L, 2L, "prefix", "third");
+
+			assertThat(map.values(), hasSize(3));
+			assertThat(map.values(), containsInAnyOrder("first", "second", "third"));
+			assertThat(map.isEmpty(), is(false));
+		}
+
+		@Test
+		public void clear() {
+			map.put(1L, 2L, null, "first");
+			map.put(1L, 2L, "prefix", "second");
+
+			map.clear();
+
+			assertThat(map.values(), is(empty()));
+			assertThat(map.isEmpty(), is(true));
+		}
+	}
+}
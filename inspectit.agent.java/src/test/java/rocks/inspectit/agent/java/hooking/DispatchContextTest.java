@@ -0,0 +1,67 @@
+package rocks.inspectit.agent.java.hooking;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.testng.annotations.Test;
+
+import rocks.inspectit.agent.java.util.TimingStack;
+
+@SuppressWarnings("PMD")
+public class DispatchContextTest {
+
+	public class GetTimingStack extends DispatchContextTest {
+
+		@Test
+		public void samePerThreadAndSlot() {
+			int slot = DispatchContext.newTimingStackSlot();
+
+			assertThat(DispatchContext.get().getTimingStack(slot), is(sameInstance(DispatchContext.get().getTimingStack(slot))));
+		}
+
+		@Test
+		public void differentPerSlot() {
+			int slot = DispatchContext.newTimingStackSlot();
+			int otherSlot = DispatchContext.newTimingStackSlot();
+			DispatchContext.get().getTimingStack(slot).pushTime(1L);
+
+			TimingStack otherStack = DispatchContext.get().getTimingStack(otherSlot);
+
+			assertThat(otherStack, is(not(sameInstance(DispatchContext.get().getTimingStack(slot)))));
+			assertThat(otherStack.getTimesSize(), is(0));
+		}
+
+		@Test
+		public void growsForManySlots() {
+			int slot = 0;
+			for (int i = 0; i < 100; i++) {
+				slot = DispatchContext.newTimingStackSlot();
+			}
+
+			DispatchContext.get().getTimingStack(slot).pushTime(1L);
+
+			assertThat(DispatchContext.get().getTimingStack(slot).getTimesSize(), is(1));
+		}
+
+		@Test
+		public void differentPerThread() throws InterruptedException {
+			final int slot = DispatchContext.newTimingStackSlot();
+			DispatchContext.get().getTimingStack(slot).pushTime(1L);
+			final TimingStack[] otherStack = new TimingStack[1];
+
+			Thread thread = new Thread() {
+				@Override
+				public void run() {
+					otherStack[0] = DispatchContext.get().getTimingStack(slot);
+				}
+			};
+			thread.start();
+			thread.join();
+
+			assertThat(otherStack[0] == DispatchContext.get().getTimingStack(slot), is(false));
+			assertThat(otherStack[0].getTimesSize(), is(0));
+		}
+	}
+}
@@ -1,12 +1,14 @@
 package rocks.inspectit.agent.java.hooking.impl;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -60,6 +62,9 @@ public class HookDispatcherTest extends TestBase {
 	@Mock
 	ExceptionSensor exceptionSensor;
 
+	@Mock
+	MethodOverheadGovernor overheadGovernor;
+
 	public class MethodHook extends HookDispatcherTest {
 
 		@Test
@@ -929,4 +934,148 @@ public class HookDispatcherTest extends TestBase {
 		}
 	}
 
+	public class OverheadGovernor extends HookDispatcherTest {
+
+		@Test
+		public void disabledMethod() {
+			long methodId = 3L;
+			Object object = mock(Object.class);
+			Object[] parameters = new Object[0];
+			Object returnValue = mock(Object.class);
+			IMethodSensor methodSensor = mock(IMethodSensor.class);
+			IMethodHook methodHook = mock(IMethodHook.class);
+			when(methodSensor.getHook()).thenReturn(methodHook);
+			RegisteredSensorConfig registeredSensorConfig = mock(RegisteredSensorConfig.class);
+			when(registeredSensorConfig.getMethodSensors()).thenReturn(Collections.singletonList(methodSensor));
+			when(registeredSensorConfig.getMethodSensorsReverse()).thenReturn(Collections.singletonList(methodSensor));
+			MethodOverhead methodOverhead = new MethodOverhead();
+			methodOverhead.setSamplingRate(MethodOverhead.DISABLED);
+			when(overheadGovernor.getMethodOverhead(methodId)).thenReturn(methodOverhead);
+
+			hookDispatcher.addMapping(methodId, registeredSensorConfig);
+			hookDispatcher.dispatchMethodBeforeBody(methodId, object, parameters);
+			hookDispatcher.dispatchFirstMethodAfterBody(methodId, object, parameters, returnValue);
+			hookDispatcher.dispatchSecondMethodAfterBody(methodId, object, parameters, returnValue);
+
+			verify(overheadGovernor).addMethod(methodId);
+			verify(registeredSensorConfig).isStartsInvocation();
+			verifyZeroInteractions(object, coreService, returnValue, methodHook);
+			verifyNoMoreInteractions(registeredSensorConfig);
+		}
+
+		@Test
+		public void disabledMethodNotAffectingNested() {
+			long outerMethodId = 3L;
+			long innerMethodId = 4L;
+			Object object = mock(Object.class);
+			Object[] parameters = new Object[0];
+			Object returnValue = mock(Object.class);
+			IMethodSensor methodSensor = mock(IMethodSensor.class);
+			IMethodHook methodHook = mock(IMethodHook.class);
+			MethodSensorTypeConfig methodSensorConfig = mock(MethodSensorTypeConfig.class);
+			when(methodSensor.getHook()).thenReturn(methodHook);
+			when(methodSensor.getSensorTypeConfig()).thenReturn(methodSensorConfig);
+			when(methodSensorConfig.getId()).thenReturn(7L);
+			RegisteredSensorConfig registeredSensorConfig = mock(RegisteredSensorConfig.class);
+			when(registeredSensorConfig.getMethodSensors()).thenReturn(Collections.singletonList(methodSensor));
+			when(registeredSensorConfig.getMethodSensorsReverse()).thenReturn(Collections.singletonList(methodSensor));
+			MethodOverhead methodOverhead = new MethodOverhead();
+			methodOverhead.setSamplingRate(MethodOverhead.DISABLED);
+			when(overheadGovernor.getMethodOverhead(outerMethodId)).thenReturn(methodOverhead);
+
+			hookDispatcher.addMapping(outerMethodId, registeredSensorConfig);
+			hookDispatcher.addMapping(innerMethodId, registeredSensorConfig);
+			hookDispatcher.dispatchMethodBeforeBody(outerMethodId, object, parameters);
+			hookDispatcher.dispatchMethodBeforeBody(innerMethodId, object, parameters);
+			hookDispatcher.dispatchFirstMethodAfterBody(innerMethodId, object, parameters, returnValue);
+			hookDispatcher.dispatchSecondMethodAfterBody(innerMethodId, object, parameters, returnValue);
+			hookDispatcher.dispatchFirstMethodAfterBody(outerMethodId, object, parameters, returnValue);
+			hookDispatcher.dispatchSecondMethodAfterBody(outerMethodId, object, parameters, returnValue);
+
+			verify(methodHook).beforeBody(innerMethodId, 7L, object, parameters, registeredSensorConfig);
+			verify(methodHook).firstAfterBody(innerMethodId, 7L, object, parameters, returnValue, registeredSensorConfig);
+			verify(methodHook).secondAfterBody(coreService, innerMethodId, 7L, object, parameters, returnValue, registeredSensorConfig);
+			verifyNoMoreInteractions(methodHook);
+		}
+
+		@Test
+		public void invocationStarterNotGoverned() {
+			long methodId = 3L;
+			Object object = mock(Object.class);
+			Object[] parameters = new Object[0];
+			Object returnValue = mock(Object.class);
+			IMethodSensor methodSensor = mock(IMethodSensor.class);
+			IMethodHook methodHook = mock(IMethodHook.class);
+			MethodSensorTypeConfig methodSensorConfig = mock(MethodSensorTypeConfig.class);
+			when(methodSensor.getHook()).thenReturn(methodHook);
+			when(methodSensor.getSensorTypeConfig()).thenReturn(methodSensorConfig);
+			when(methodSensorConfig.getId()).thenReturn(7L);
+			RegisteredSensorConfig registeredSensorConfig = mock(RegisteredSensorConfig.class);
+			when(registeredSensorConfig.isStartsInvocation()).thenReturn(true);
+			when(registeredSensorConfig.getMethodSensors()).thenReturn(Collections.singletonList(methodSensor));
+			when(registeredSensorConfig.getMethodSensorsReverse()).thenReturn(Collections.singletonList(methodSensor));
+			InvocationSequenceHook invocationHook = mock(InvocationSequenceHook.class);
+			when(invocationSequenceSensor.getHook()).thenReturn(invocationHook);
+			MethodOverhead methodOverhead = new MethodOverhead();
+			methodOverhead.setSamplingRate(MethodOverhead.DISABLED);
+			when(overheadGovernor.getMethodOverhead(methodId)).thenReturn(methodOverhead);
+
+			hookDispatcher.addMapping(methodId, registeredSensorConfig);
+			hookDispatcher.dispatchMethodBeforeBody(methodId, object, parameters);
+			hookDispatcher.dispatchFirstMethodAfterBody(methodId, object, parameters, returnValue);
+			hookDispatcher.dispatchSecondMethodAfterBody(methodId, object, parameters, returnValue);
+
+			verify(methodHook).beforeBody(methodId, 7L, object, parameters, registeredSensorConfig);
+			verify(methodHook).firstAfterBody(methodId, 7L, object, parameters, returnValue, registeredSensorConfig);
+			verify(overheadGovernor, never()).getMethodOverhead(methodId);
+		}
+
+		@Test
+		public void disabledConstructor() {
+			long methodId = 3L;
+			Object object = mock(Object.class);
+			Object[] parameters = new Object[0];
+			IMethodSensor methodSensor = mock(IMethodSensor.class);
+			IConstructorHook constructorHook = mock(IConstructorHook.class);
+			when(methodSensor.getHook()).thenReturn(constructorHook);
+			RegisteredSensorConfig registeredSensorConfig = mock(RegisteredSensorConfig.class);
+			when(registeredSensorConfig.getMethodSensors()).thenReturn(Collections.singletonList(methodSensor));
+			when(registeredSensorConfig.getMethodSensorsReverse()).thenReturn(Collections.singletonList(methodSensor));
+			MethodOverhead methodOverhead = new MethodOverhead();
+			methodOverhead.setSamplingRate(MethodOverhead.DISABLED);
+			when(overheadGovernor.getMethodOverhead(methodId)).thenReturn(methodOverhead);
+
+			hookDispatcher.addMapping(methodId, registeredSensorConfig);
+			hookDispatcher.dispatchConstructorBeforeBody(methodId, parameters);
+			hookDispatcher.dispatchConstructorAfterBody(methodId, object, parameters);
+
+			verifyZeroInteractions(object, coreService, constructorHook);
+		}
+
+		@Test
+		public void measured() {
+			long methodId = 3L;
+			Object object = mock(Object.class);
+			Object[] parameters = new Object[0];
+			Object returnValue = mock(Object.class);
+			RegisteredSensorConfig registeredSensorConfig = mock(RegisteredSensorConfig.class);
+			when(registeredSensorConfig.getMethodSensors()).thenReturn(Collections.<IMethodSensor> emptyList());
+			when(registeredSensorConfig.getMethodSensorsReverse()).thenReturn(Collections.<IMethodSensor> emptyList());
+			MethodOverhead methodOverhead = new MethodOverhead();
+			when(overheadGovernor.getMethodOverhead(methodId)).thenReturn(methodOverhead);
+			when(overheadGovernor.isMeasuring()).thenReturn(true);
+
+			hookDispatcher.addMapping(methodId, registeredSensorConfig);
+			for (int i = 0; i < 2000; i++) {
+				hookDispatcher.dispatchMethodBeforeBody(methodId, object, parameters);
+				hookDispatcher.dispatchFirstMethodAfterBody(methodId, object, parameters, returnValue);
+				hookDispatcher.dispatchSecondMethodAfterBody(methodId, object, parameters, returnValue);
+			}
+
+			long invocations = methodOverhead.drainInvocations();
+			assertThat(invocations, is(greaterThan(0L)));
+			assertThat(invocations % MethodOverheadGovernor.MEASUREMENT_RATE, is(0L));
+		}
+	}
+
 }
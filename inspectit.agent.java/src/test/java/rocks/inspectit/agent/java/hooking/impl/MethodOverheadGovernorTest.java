@@ -0,0 +1,192 @@
+package rocks.inspectit.agent.java.hooking.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyMapOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.slf4j.Logger;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.agent.java.config.IConfigurationStorage;
+import rocks.inspectit.agent.java.connection.IConnection;
+import rocks.inspectit.agent.java.connection.ServerUnavailableException;
+import rocks.inspectit.agent.java.core.IPlatformManager;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class MethodOverheadGovernorTest extends TestBase {
+
+	static final long PLATFORM_ID = 1L;
+
+	static final long METHOD_ID = 10L;
+
+	@InjectMocks
+	MethodOverheadGovernor governor;
+
+	@Mock
+	Logger log;
+
+	@Mock
+	IConfigurationStorage configurationStorage;
+
+	@Mock
+	IConnection connection;
+
+	@Mock
+	IPlatformManager platformManager;
+
+	@Mock
+	ScheduledExecutorService executorService;
+
+	public class GetDegradedSamplingRate extends MethodOverheadGovernorTest {
+
+		@Test
+		public void slightlyOver() {
+			assertThat(MethodOverheadGovernor.getDegradedSamplingRate(1, 1.1d), is(2));
+			assertThat(MethodOverheadGovernor.getDegradedSamplingRate(4, 1.1d), is(8));
+		}
+
+		@Test
+		public void farOver() {
+			assertThat(MethodOverheadGovernor.getDegradedSamplingRate(1, 5d), is(8));
+			assertThat(MethodOverheadGovernor.getDegradedSamplingRate(2, 16d), is(32));
+		}
+
+		@Test
+		public void disabled() {
+			assertThat(MethodOverheadGovernor.getDegradedSamplingRate(1, 1000000d), is(MethodOverhead.DISABLED));
+			assertThat(MethodOverheadGovernor.getDegradedSamplingRate(1024, 1.1d), is(MethodOverhead.DISABLED));
+		}
+	}
+
+	public class CheckOverhead extends MethodOverheadGovernorTest {
+
+		@Test
+		@SuppressWarnings("unchecked")
+		public void degraded() throws Exception {
+			when(configurationStorage.getMethodOverheadBudget()).thenReturn(1L);
+			when(connection.isConnected()).thenReturn(true);
+			when(platformManager.getPlatformId()).thenReturn(PLATFORM_ID);
+			governor.afterPropertiesSet();
+			governor.addMethod(METHOD_ID);
+			governor.getMethodOverhead(METHOD_ID).addMeasurement(1000000000L, 2048L);
+
+			governor.checkOverhead();
+
+			int samplingRate = governor.getMethodOverhead(METHOD_ID).getSamplingRate();
+			assertThat(samplingRate == MethodOverhead.ALL_INVOCATIONS, is(false));
+			ArgumentCaptor<Map> captor = ArgumentCaptor.forClass(Map.class);
+			verify(connection).methodSamplingChanged(eq(PLATFORM_ID), captor.capture());
+			assertThat((Map<Long, Integer>) captor.getValue(), hasEntry(METHOD_ID, samplingRate));
+		}
+
+		@Test
+		public void underBudget() throws Exception {
+			when(configurationStorage.getMethodOverheadBudget()).thenReturn(1000000L);
+			governor.afterPropertiesSet();
+			governor.addMethod(METHOD_ID);
+			governor.getMethodOverhead(METHOD_ID).addMeasurement(0L, 2048L);
+
+			governor.checkOverhead();
+
+			assertThat(governor.getMethodOverhead(METHOD_ID).getSamplingRate(), is(MethodOverhead.ALL_INVOCATIONS));
+			verifyZeroInteractions(connection);
+		}
+
+		@Test
+		public void fewInvocations() throws Exception {
+			when(configurationStorage.getMethodOverheadBudget()).thenReturn(1L);
+			governor.afterPropertiesSet();
+			governor.addMethod(METHOD_ID);
+			governor.getMethodOverhead(METHOD_ID).addMeasurement(1000000000L, 64L);
+
+			governor.checkOverhead();
+
+			assertThat(governor.getMethodOverhead(METHOD_ID).getSamplingRate(), is(MethodOverhead.ALL_INVOCATIONS));
+			verifyZeroInteractions(connection);
+		}
+
+		@Test
+		public void notLimited() throws Exception {
+			when(configurationStorage.getMethodOverheadBudget()).thenReturn(0L);
+			governor.afterPropertiesSet();
+			governor.addMethod(METHOD_ID);
+			governor.getMethodOverhead(METHOD_ID).addMeasurement(1000000000L, 2048L);
+
+			governor.checkOverhead();
+
+			assertThat(governor.isMeasuring(), is(false));
+			assertThat(governor.getMethodOverhead(METHOD_ID).getSamplingRate(), is(MethodOverhead.ALL_INVOCATIONS));
+			verifyZeroInteractions(connection);
+		}
+
+		@Test
+		@SuppressWarnings("unchecked")
+		public void reportedAgainAfterFailure() throws Exception {
+			when(configurationStorage.getMethodOverheadBudget()).thenReturn(1L);
+			when(connection.isConnected()).thenReturn(true);
+			when(platformManager.getPlatformId()).thenReturn(PLATFORM_ID);
+			doThrow(ServerUnavailableException.class).doNothing().when(connection).methodSamplingChanged(anyLong(), anyMapOf(Long.class, Integer.class));
+			governor.afterPropertiesSet();
+			governor.addMethod(METHOD_ID);
+			governor.getMethodOverhead(METHOD_ID).addMeasurement(1000000000L, 2048L);
+
+			governor.checkOverhead();
+			governor.checkOverhead();
+
+			verify(connection, times(2)).methodSamplingChanged(eq(PLATFORM_ID), anyMapOf(Long.class, Integer.class));
+		}
+	}
+
+	public class AddMethod extends MethodOverheadGovernorTest {
+
+		@Test
+		@SuppressWarnings("unchecked")
+		public void restoresDegraded() throws Exception {
+			when(configurationStorage.getMethodOverheadBudget()).thenReturn(0L);
+			when(connection.isConnected()).thenReturn(true);
+			when(platformManager.getPlatformId()).thenReturn(PLATFORM_ID);
+			governor.afterPropertiesSet();
+			governor.addMethod(METHOD_ID);
+			governor.getMethodOverhead(METHOD_ID).setSamplingRate(MethodOverhead.DISABLED);
+
+			governor.addMethod(METHOD_ID);
+			governor.checkOverhead();
+
+			assertThat(governor.getMethodOverhead(METHOD_ID).getSamplingRate(), is(MethodOverhead.ALL_INVOCATIONS));
+			ArgumentCaptor<Map> captor = ArgumentCaptor.forClass(Map.class);
+			verify(connection).methodSamplingChanged(eq(PLATFORM_ID), captor.capture());
+			assertThat((Map<Long, Integer>) captor.getValue(), hasEntry(METHOD_ID, MethodOverhead.ALL_INVOCATIONS));
+		}
+
+		@Test
+		public void notDegraded() throws Exception {
+			when(configurationStorage.getMethodOverheadBudget()).thenReturn(0L);
+			governor.afterPropertiesSet();
+			governor.addMethod(METHOD_ID);
+
+			governor.addMethod(METHOD_ID);
+			governor.checkOverhead();
+
+			verifyZeroInteractions(connection);
+		}
+	}
+}
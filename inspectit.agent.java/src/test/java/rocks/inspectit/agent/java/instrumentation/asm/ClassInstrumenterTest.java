@@ -75,6 +75,16 @@ public class ClassInstrumenterTest extends AbstractInstrumentationTest {
 		}
 	};
 
+	protected static final Answer<MethodVisitor> ARGUMENTS_FREE_METHOD_INSTRUMENTER_ANSWER = new Answer<MethodVisitor>() {
+
+		@Override
+		public MethodVisitor answer(InvocationOnMock invocation) throws Throwable {
+			Object[] arguments = invocation.getArguments();
+			SensorInstrumentationPoint sip = (SensorInstrumentationPoint) arguments[0];
+			return getMethodInstrumenter((MethodVisitor) arguments[1], (Integer) arguments[2], (String) arguments[3], (String) arguments[4], sip.getId(), (Boolean) arguments[5], false);
+		}
+	};
+
 	public static IHookDispatcher dispatcher;
 
 	public static IAgent a;
@@ -513,6 +523,62 @@ public class ClassInstrumenterTest extends AbstractInstrumentationTest {
 			verifyNoMoreInteractions(hookDispatcher);
 		}
 
+		@Test
+		public void stringOneParameterArgumentsFree() throws Exception {
+			String methodName = "stringOneParameter";
+			Object[] parameters = { "java.lang.String" };
+			long methodId = 9L;
+
+			when(sip.getId()).thenReturn(methodId);
+			prepareConfigurationMockMethod(config, InstrumentationTestClass.class, methodName, String.class);
+			doAnswer(ARGUMENTS_FREE_METHOD_INSTRUMENTER_ANSWER).when(instrumenterFactory).getMethodVisitor(eq(sip), Matchers.<MethodVisitor> any(), anyInt(), anyString(), anyString(), anyBoolean());
+			when(config.getAllInstrumentationPoints()).thenReturn(Collections.<IMethodInstrumentationPoint> singleton(sip));
+
+			ClassReader cr = new ClassReader(TEST_CLASS_FQN);
+			prepareWriter(cr, null, false, config);
+			cr.accept(classInstrumenter, ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
+			assertThat(classInstrumenter.isByteCodeAdded(), is(true));
+			byte b[] = classWriter.toByteArray();
+
+			// now call this method
+			Object testClass = this.createInstance(TEST_CLASS_FQN, b);
+			Object result = this.callMethod(testClass, methodName, parameters);
+
+			// method still works, but hooks get neither parameters nor the result
+			assertThat(result, is((Object) "stringOneParameter"));
+			verify(hookDispatcher).dispatchMethodBeforeBody(methodId, testClass, null);
+			verify(hookDispatcher).dispatchFirstMethodAfterBody(methodId, testClass, null, null);
+			verify(hookDispatcher).dispatchSecondMethodAfterBody(methodId, testClass, null, null);
+			verifyNoMoreInteractions(hookDispatcher);
+		}
+
+		@Test
+		public void intNullParameterArgumentsFree() throws Exception {
+			String methodName = "intNullParameter";
+			long methodId = 9L;
+
+			when(sip.getId()).thenReturn(methodId);
+			prepareConfigurationMockMethod(config, InstrumentationTestClass.class, methodName);
+			doAnswer(ARGUMENTS_FREE_METHOD_INSTRUMENTER_ANSWER).when(instrumenterFactory).getMethodVisitor(eq(sip), Matchers.<MethodVisitor> any(), anyInt(), anyString(), anyString(), anyBoolean());
+			when(config.getAllInstrumentationPoints()).thenReturn(Collections.<IMethodInstrumentationPoint> singleton(sip));
+
+			ClassReader cr = new ClassReader(TEST_CLASS_FQN);
+			prepareWriter(cr, null, false, config);
+			cr.accept(classInstrumenter, ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
+			assertThat(classInstrumenter.isByteCodeAdded(), is(true));
+			byte b[] = classWriter.toByteArray();
+
+			// now call this method
+			Object testClass = this.createInstance(TEST_CLASS_FQN, b);
+			Object result = this.callMethod(testClass, methodName, null);
+
+			assertThat(result, is((Object) Integer.valueOf(3)));
+			verify(hookDispatcher).dispatchMethodBeforeBody(methodId, testClass, null);
+			verify(hookDispatcher).dispatchFirstMethodAfterBody(methodId, testClass, null, null);
+			verify(hookDispatcher).dispatchSecondMethodAfterBody(methodId, testClass, null, null);
+			verifyNoMoreInteractions(hookDispatcher);
+		}
+
 		@Test
 		public void voidTwoParameters() throws Exception {
 			String methodName = "voidTwoParameters";
@@ -1172,6 +1238,15 @@ public class ClassInstrumenterTest extends AbstractInstrumentationTest {
 		};
 	}
 
+	protected static MethodInstrumenter getMethodInstrumenter(MethodVisitor superMethodVisitor, int access, String name, String desc, long id, boolean enhancedExceptionSensor, boolean argumentsNeeded) {
+		return new MethodInstrumenter(superMethodVisitor, access, name, desc, id, enhancedExceptionSensor, argumentsNeeded) {
+			@Override
+			protected void loadHookDispatcher() {
+				mv.visitFieldInsn(Opcodes.GETSTATIC, Type.getInternalName(ClassInstrumenterTest.class), "dispatcher", Type.getDescriptor(IHookDispatcher.class));
+			}
+		};
+	}
+
 	protected static ConstructorInstrumenter getConstructorInstrumenter(MethodVisitor superMethodVisitor, int access, String name, String desc, long id, boolean enhancedExceptionSensor) {
 		return new ConstructorInstrumenter(superMethodVisitor, access, name, desc, id, enhancedExceptionSensor) {
 			@Override
@@ -5,14 +5,22 @@ import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 import info.novatec.inspectit.org.objectweb.asm.MethodVisitor;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.testng.annotations.Test;
 
+import rocks.inspectit.agent.java.hooking.IArgumentsFreeHook;
+import rocks.inspectit.agent.java.hooking.IMethodHook;
 import rocks.inspectit.agent.java.instrumentation.InstrumenterFactory;
+import rocks.inspectit.agent.java.sensor.method.IMethodSensor;
+import rocks.inspectit.shared.all.instrumentation.config.impl.MethodSensorTypeConfig;
 import rocks.inspectit.shared.all.instrumentation.config.IMethodInstrumentationPoint;
 import rocks.inspectit.shared.all.instrumentation.config.impl.SensorInstrumentationPoint;
 import rocks.inspectit.shared.all.instrumentation.config.impl.SpecialInstrumentationPoint;
@@ -38,6 +46,9 @@ public class InstrumenterFactoryTest extends TestBase {
 	@Mock
 	MethodVisitor superMethodVisitor;
 
+	@Mock
+	List<IMethodSensor> methodSensors;
+
 	public static class GetMethodVisitor extends InstrumenterFactoryTest {
 
 		@Test
@@ -144,4 +155,90 @@ public class InstrumenterFactoryTest extends TestBase {
 
 	}
 
+	public static class ArgumentsNeeded extends InstrumenterFactoryTest {
+
+		private static final long SENSOR_ID = 3L;
+
+		@Mock
+		IMethodSensor methodSensor;
+
+		@Mock
+		MethodSensorTypeConfig sensorTypeConfig;
+
+		@Test
+		public void argumentsFreeHook() throws Exception {
+			IMethodHook hook = mock(IMethodHook.class, withSettings().extraInterfaces(IArgumentsFreeHook.class));
+			prepareSensor(hook);
+			when(sensorInstrumentationPoint.getSensorIds()).thenReturn(new long[] { SENSOR_ID });
+
+			MethodInstrumenter methodInstrumenter = (MethodInstrumenter) factory.getMethodVisitor(sensorInstrumentationPoint, superMethodVisitor, 0, "method", "()V", false);
+
+			assertThat(methodInstrumenter.isArgumentsNeeded(), is(false));
+		}
+
+		@Test
+		public void argumentsFreeHookPropertyAccess() throws Exception {
+			IMethodHook hook = mock(IMethodHook.class, withSettings().extraInterfaces(IArgumentsFreeHook.class));
+			prepareSensor(hook);
+			when(sensorInstrumentationPoint.getSensorIds()).thenReturn(new long[] { SENSOR_ID });
+			when(sensorInstrumentationPoint.isPropertyAccess()).thenReturn(true);
+
+			MethodInstrumenter methodInstrumenter = (MethodInstrumenter) factory.getMethodVisitor(sensorInstrumentationPoint, superMethodVisitor, 0, "method", "()V", false);
+
+			assertThat(methodInstrumenter.isArgumentsNeeded(), is(true));
+		}
+
+		@Test
+		public void argumentsFreeHookConstructor() throws Exception {
+			IMethodHook hook = mock(IMethodHook.class, withSettings().extraInterfaces(IArgumentsFreeHook.class));
+			prepareSensor(hook);
+			when(sensorInstrumentationPoint.getSensorIds()).thenReturn(new long[] { SENSOR_ID });
+			when(sensorInstrumentationPoint.isConstructor()).thenReturn(true);
+
+			ConstructorInstrumenter constructorInstrumenter = (ConstructorInstrumenter) factory.getMethodVisitor(sensorInstrumentationPoint, superMethodVisitor, 0, "<init>", "()V", false);
+
+			assertThat(constructorInstrumenter.isArgumentsNeeded(), is(false));
+		}
+
+		@Test
+		public void otherSensor() throws Exception {
+			IMethodHook hook = mock(IMethodHook.class, withSettings().extraInterfaces(IArgumentsFreeHook.class));
+			prepareSensor(hook);
+			when(sensorInstrumentationPoint.getSensorIds()).thenReturn(new long[] { SENSOR_ID, SENSOR_ID + 1 });
+
+			MethodInstrumenter methodInstrumenter = (MethodInstrumenter) factory.getMethodVisitor(sensorInstrumentationPoint, superMethodVisitor, 0, "method", "()V", false);
+
+			assertThat(methodInstrumenter.isArgumentsNeeded(), is(true));
+		}
+
+		@Test
+		public void hookReadingArguments() throws Exception {
+			IMethodHook hook = mock(IMethodHook.class);
+			prepareSensor(hook);
+			when(sensorInstrumentationPoint.getSensorIds()).thenReturn(new long[] { SENSOR_ID });
+
+			MethodInstrumenter methodInstrumenter = (MethodInstrumenter) factory.getMethodVisitor(sensorInstrumentationPoint, superMethodVisitor, 0, "method", "()V", false);
+
+			assertThat(methodInstrumenter.isArgumentsNeeded(), is(true));
+		}
+
+		@Test
+		public void noSensors() throws Exception {
+			when(methodSensors.iterator()).thenReturn(Collections.<IMethodSensor> emptyList().iterator());
+			factory.afterPropertiesSet();
+
+			MethodInstrumenter methodInstrumenter = (MethodInstrumenter) factory.getMethodVisitor(sensorInstrumentationPoint, superMethodVisitor, 0, "method", "()V", false);
+
+			assertThat(methodInstrumenter.isArgumentsNeeded(), is(true));
+		}
+
+		private void prepareSensor(IMethodHook hook) throws Exception {
+			when(methodSensor.getHook()).thenReturn(hook);
+			when(methodSensor.getSensorTypeConfig()).thenReturn(sensorTypeConfig);
+			when(sensorTypeConfig.getId()).thenReturn(SENSOR_ID);
+			when(methodSensors.iterator()).thenReturn(Collections.singletonList(methodSensor).iterator());
+			factory.afterPropertiesSet();
+		}
+	}
+
 }
@@ -1,12 +1,9 @@
 package rocks.inspectit.agent.java.sending.impl;
 
-import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
-import static org.mockito.Mockito.when;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import org.mockito.InjectMocks;
@@ -14,7 +11,6 @@ import org.mockito.Mock;
 import org.testng.annotations.Test;
 
 import rocks.inspectit.agent.java.core.ICoreService;
-import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.testbase.TestBase;
 
 @SuppressWarnings("PMD")
@@ -29,50 +25,41 @@ public class ListSizeStrategyTest extends TestBase {
 	@Test
 	public void startStop() {
 		sendingStrategy.start(coreService);
-		verify(coreService).addListListener(sendingStrategy);
+		verify(coreService).addListSizeListener(sendingStrategy);
 
 		sendingStrategy.stop();
-		verify(coreService).removeListListener(sendingStrategy);
+		verify(coreService).removeListSizeListener(sendingStrategy);
 
 		verifyNoMoreInteractions(coreService);
 	}
 
-	@SuppressWarnings("unchecked")
 	@Test
-	public void contentChanged() {
+	public void sizeChanged() {
 		sendingStrategy.start(coreService);
-		List<List<DefaultData>> list = mock(List.class);
+		verify(coreService).addListSizeListener(sendingStrategy);
 
-		sendingStrategy.contentChanged(list);
+		sendingStrategy.sizeChanged(10);
 
-		verify(list).size();
-
-		verifyNoMoreInteractions(list);
+		verifyNoMoreInteractions(coreService);
 	}
 
-	@SuppressWarnings("unchecked")
 	@Test
 	public void fireSending() {
 		sendingStrategy.start(coreService);
-		List<List<DefaultData>> list = mock(List.class);
-		when(list.size()).thenReturn(11);
 
-		sendingStrategy.contentChanged(list);
+		sendingStrategy.sizeChanged(11);
 
 		verify(coreService).sendData();
 	}
 
-	@SuppressWarnings("unchecked")
 	@Test
 	public void fireSendingModifiedListSize() {
 		Map<String, String> settings = new HashMap<String, String>();
 		settings.put("size", "3");
 		sendingStrategy.init(settings);
 		sendingStrategy.start(coreService);
-		List<List<DefaultData>> list = mock(List.class);
-		when(list.size()).thenReturn(5);
 
-		sendingStrategy.contentChanged(list);
+		sendingStrategy.sizeChanged(5);
 
 		verify(coreService).sendData();
 	}
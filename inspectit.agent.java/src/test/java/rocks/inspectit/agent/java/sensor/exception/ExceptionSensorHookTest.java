@@ -3,6 +3,9 @@ package rocks.inspectit.agent.java.sensor.exception;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.argThat;
@@ -18,9 +21,11 @@ import static org.mockito.Mockito.when;
 
 import java.lang.reflect.Field;
 import java.sql.Timestamp;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatcher;
 import org.mockito.Mock;
 import org.testng.annotations.BeforeMethod;
@@ -51,6 +56,8 @@ public class ExceptionSensorHookTest extends AbstractLogSupport {
 
 	private int stringLength;
 
+	private StackTraceSendingRegistry stackTraceSendingRegistry;
+
 	private ExceptionSensorHook exceptionHook;
 
 	@BeforeMethod
@@ -58,7 +65,8 @@ public class ExceptionSensorHookTest extends AbstractLogSupport {
 		stringLength = 1000;
 		parameter = new HashMap<String, Object>();
 		parameter.put("stringLength", String.valueOf(stringLength));
-		exceptionHook = new ExceptionSensorHook(platformManager, parameter);
+		stackTraceSendingRegistry = new StackTraceSendingRegistry();
+		exceptionHook = new ExceptionSensorHook(platformManager, stackTraceSendingRegistry, parameter);
 	}
 
 	@Test
@@ -246,6 +254,44 @@ public class ExceptionSensorHookTest extends AbstractLogSupport {
 		verifyNoMoreInteractions(platformManager);
 	}
 
+	@Test
+	public void stackTraceSentUntilDataSent() throws IdNotAvailableException {
+		long constructorId = 5L;
+		long sensorTypeId = 3L;
+		long platformId = 1L;
+
+		Object[] parameters = new Object[0];
+		MyTestException[] exceptionObjects = new MyTestException[3];
+		for (int i = 0; i < exceptionObjects.length; i++) {
+			exceptionObjects[i] = new MyTestException("message" + i);
+		}
+
+		when(platformManager.getPlatformId()).thenReturn(platformId);
+		when(registeredSensorConfig.getTargetClassFqn()).thenReturn(MyTestException.class.getName());
+
+		exceptionHook.afterConstructor(coreService, constructorId, sensorTypeId, exceptionObjects[0], parameters, registeredSensorConfig);
+		exceptionHook.afterConstructor(coreService, constructorId, sensorTypeId, exceptionObjects[1], parameters, registeredSensorConfig);
+		ArgumentCaptor<ExceptionSensorData> captor = ArgumentCaptor.forClass(ExceptionSensorData.class);
+		verify(coreService, times(2)).addExceptionSensorData(eq(sensorTypeId), anyLong(), captor.capture());
+		stackTraceSendingRegistry.dataSent(Collections.singletonList(captor.getAllValues().get(0)));
+		exceptionHook.afterConstructor(coreService, constructorId, sensorTypeId, exceptionObjects[2], parameters, registeredSensorConfig);
+
+		verify(coreService, times(3)).addExceptionSensorData(eq(sensorTypeId), anyLong(), captor.capture());
+		ExceptionSensorData first = captor.getAllValues().get(0);
+		ExceptionSensorData second = captor.getAllValues().get(1);
+		ExceptionSensorData third = captor.getAllValues().get(captor.getAllValues().size() - 1);
+		assertThat(first.getStackTraceId(), is(not(0L)));
+		assertThat(first.getStackTrace(), startsWith(MyTestException.class.getName() + System.getProperty("line.separator")));
+		assertThat(first.getErrorMessage(), is("message0"));
+		// first one not sent yet, so text is still included
+		assertThat(second.getStackTraceId(), is(first.getStackTraceId()));
+		assertThat(second.getStackTrace(), is(first.getStackTrace()));
+		assertThat(second.getErrorMessage(), is("message1"));
+		assertThat(third.getStackTraceId(), is(first.getStackTraceId()));
+		assertThat(third.getStackTrace(), is(nullValue()));
+		assertThat(third.getErrorMessage(), is("message2"));
+	}
+
 	@Test
 	public void platformIdNotAvailable() throws IdNotAvailableException {
 		// set up data
@@ -0,0 +1,168 @@
+package rocks.inspectit.agent.java.sensor.exception;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import java.util.Collections;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.communication.data.ExceptionSensorData;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests the {@link StackTraceSendingRegistry}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class StackTraceSendingRegistryTest extends TestBase {
+
+	StackTraceSendingRegistry registry;
+
+	@BeforeMethod
+	public void init() {
+		registry = new StackTraceSendingRegistry();
+	}
+
+	public class Fingerprint extends StackTraceSendingRegistryTest {
+
+		@Test
+		public void sameFrames() {
+			Throwable[] throwables = new Throwable[2];
+			for (int i = 0; i < throwables.length; i++) {
+				throwables[i] = new IllegalStateException("message" + i);
+			}
+
+			long first = StackTraceSendingRegistry.fingerprint(throwables[0]);
+			long second = StackTraceSendingRegistry.fingerprint(throwables[1]);
+
+			assertThat(first, is(second));
+			assertThat(first, is(not(0L)));
+		}
+
+		@Test
+		public void differentLine() {
+			Throwable first = new IllegalStateException();
+			Throwable second = new IllegalStateException();
+
+			assertThat(StackTraceSendingRegistry.fingerprint(first), is(not(StackTraceSendingRegistry.fingerprint(second))));
+		}
+
+		@Test
+		public void differentType() {
+			Throwable[] throwables = new Throwable[2];
+			for (int i = 0; i < throwables.length; i++) {
+				throwables[i] = (i == 0) ? new IllegalStateException() : new IllegalArgumentException();
+			}
+
+			assertThat(StackTraceSendingRegistry.fingerprint(throwables[0]), is(not(StackTraceSendingRegistry.fingerprint(throwables[1]))));
+		}
+
+		@Test
+		public void differentCause() {
+			Throwable[] throwables = new Throwable[2];
+			for (int i = 0; i < throwables.length; i++) {
+				throwables[i] = new IllegalStateException(new RuntimeException("cause" + i));
+			}
+
+			assertThat(StackTraceSendingRegistry.fingerprint(throwables[0]), is(not(StackTraceSendingRegistry.fingerprint(throwables[1]))));
+		}
+	}
+
+	public class IsSendNeeded extends StackTraceSendingRegistryTest {
+
+		@Test
+		public void notSent() {
+			boolean sendNeeded = registry.isSendNeeded(1L, 0L);
+
+			assertThat(sendNeeded, is(true));
+		}
+
+		@Test
+		public void sent() {
+			registry.markSent(1L, 0L);
+
+			boolean sendNeeded = registry.isSendNeeded(1L, StackTraceSendingRegistry.RESEND_INTERVAL - 1);
+
+			assertThat(sendNeeded, is(false));
+		}
+
+		@Test
+		public void resendInterval() {
+			registry.markSent(1L, 0L);
+
+			boolean sendNeeded = registry.isSendNeeded(1L, StackTraceSendingRegistry.RESEND_INTERVAL);
+
+			assertThat(sendNeeded, is(true));
+		}
+
+		@Test
+		public void maxSize() {
+			for (int i = 0; i < StackTraceSendingRegistry.MAX_SIZE; i++) {
+				registry.markSent(i + 1, 0L);
+			}
+			registry.markSent(StackTraceSendingRegistry.MAX_SIZE + 1, 0L);
+
+			assertThat(registry.isSendNeeded(1L, 0L), is(true));
+			assertThat(registry.isSendNeeded(StackTraceSendingRegistry.MAX_SIZE + 1, 0L), is(false));
+		}
+	}
+
+	public class DataSent extends StackTraceSendingRegistryTest {
+
+		@Test
+		public void withText() {
+			ExceptionSensorData data = new ExceptionSensorData();
+			data.setStackTraceId(1L);
+			data.setStackTrace("java.lang.IllegalStateException");
+
+			registry.dataSent(Collections.singletonList(data));
+
+			assertThat(registry.isSendNeeded(1L, System.currentTimeMillis()), is(false));
+		}
+
+		@Test
+		public void withoutText() {
+			ExceptionSensorData data = new ExceptionSensorData();
+			data.setStackTraceId(1L);
+
+			registry.dataSent(Collections.singletonList(data));
+
+			assertThat(registry.isSendNeeded(1L, System.currentTimeMillis()), is(true));
+		}
+
+		@Test
+		public void child() {
+			ExceptionSensorData data = new ExceptionSensorData();
+			ExceptionSensorData child = new ExceptionSensorData();
+			child.setStackTraceId(1L);
+			child.setStackTrace("java.lang.IllegalStateException");
+			data.setChild(child);
+
+			registry.dataSent(Collections.singletonList(data));
+
+			assertThat(registry.isSendNeeded(1L, System.currentTimeMillis()), is(false));
+		}
+
+		@Test
+		public void nestedInInvocation() {
+			ExceptionSensorData data = new ExceptionSensorData();
+			data.setStackTraceId(1L);
+			data.setStackTrace("java.lang.IllegalStateException");
+			InvocationSequenceData nested = new InvocationSequenceData();
+			nested.setExceptionSensorDataObjects(Collections.singletonList(data));
+			InvocationSequenceData invocation = new InvocationSequenceData();
+			invocation.getNestedSequences().add(nested);
+
+			registry.dataSent(Collections.singletonList(invocation));
+
+			assertThat(registry.isSendNeeded(1L, System.currentTimeMillis()), is(false));
+		}
+	}
+
+}
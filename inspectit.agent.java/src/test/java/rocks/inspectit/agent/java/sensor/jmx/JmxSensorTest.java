@@ -4,8 +4,11 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -15,7 +18,11 @@ import java.lang.management.ManagementFactory;
 import java.lang.reflect.Field;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
+import javax.management.Attribute;
+import javax.management.AttributeList;
 import javax.management.AttributeNotFoundException;
 import javax.management.InstanceNotFoundException;
 import javax.management.MBeanAttributeInfo;
@@ -544,6 +551,135 @@ public class JmxSensorTest extends TestBase {
 			assertThat(valueCaptor.getValue().getValue(), is("[1, 2, 3]"));
 		}
 
+		@Test
+		public void collectBatched() throws Exception {
+			ObjectName objectName = registerAttributes("first", "second");
+			AttributeList attributeList = new AttributeList();
+			attributeList.add(new Attribute("first", "1"));
+			attributeList.add(new Attribute("second", "2"));
+			when(mBeanServer.getAttributes(eq(objectName), Matchers.<String[]> any())).thenReturn(attributeList);
+
+			jmxSensor.update(coreService);
+
+			verify(mBeanServer).getAttributes(eq(objectName), Matchers.<String[]> any());
+			verify(mBeanServer, never()).getAttribute(Matchers.<ObjectName> any(), anyString());
+			ArgumentCaptor<JmxSensorValueData> valueCaptor = ArgumentCaptor.forClass(JmxSensorValueData.class);
+			verify(coreService).addJmxSensorValueData(eq(13L), eq(objectName.toString()), eq("first"), valueCaptor.capture());
+			assertThat(valueCaptor.getValue().getValue(), is("1"));
+			verify(coreService).addJmxSensorValueData(eq(13L), eq(objectName.toString()), eq("second"), valueCaptor.capture());
+			assertThat(valueCaptor.getValue().getValue(), is("2"));
+		}
+
+		@Test
+		public void collectBatchedMissingAttribute() throws Exception {
+			ObjectName objectName = registerAttributes("first", "second");
+			AttributeList attributeList = new AttributeList();
+			attributeList.add(new Attribute("first", "1"));
+			when(mBeanServer.getAttributes(eq(objectName), Matchers.<String[]> any())).thenReturn(attributeList);
+			when(mBeanServer.getAttribute(objectName, "second")).thenThrow(AttributeNotFoundException.class);
+
+			// update twice
+			jmxSensor.update(coreService);
+			jmxSensor.lastDataCollectionTimestamp = 0;
+			jmxSensor.update(coreService);
+
+			// second attribute read once and then removed
+			verify(mBeanServer, times(1)).getAttribute(objectName, "second");
+			verify(mBeanServer, times(1)).getAttributes(eq(objectName), Matchers.<String[]> any());
+			verify(coreService, times(2)).addJmxSensorValueData(eq(13L), eq(objectName.toString()), eq("first"), Matchers.<JmxSensorValueData> any());
+		}
+
+		@Test
+		public void collectBatchedInstanceNotFound() throws Exception {
+			ObjectName objectName = registerAttributes("first", "second");
+			when(mBeanServer.getAttributes(eq(objectName), Matchers.<String[]> any())).thenThrow(InstanceNotFoundException.class);
+
+			// update twice
+			jmxSensor.update(coreService);
+			jmxSensor.lastDataCollectionTimestamp = 0;
+			jmxSensor.update(coreService);
+
+			verify(mBeanServer, times(1)).getAttributes(eq(objectName), Matchers.<String[]> any());
+			verify(mBeanServer, never()).getAttribute(Matchers.<ObjectName> any(), anyString());
+			verifyZeroInteractions(coreService);
+		}
+
+		@Test
+		public void changedValuesOnly() throws Exception {
+			Map<String, Object> parameters = new HashMap<String, Object>();
+			parameters.put("changedValuesOnly", Boolean.TRUE);
+			parameters.put("heartbeatInterval", 0);
+			when(sensorTypeConfig.getParameters()).thenReturn(parameters);
+			jmxSensor.init(sensorTypeConfig);
+			ObjectName objectName = registerAttributes("first");
+			when(mBeanServer.getAttribute(objectName, "first")).thenReturn("1", "1", "2");
+
+			for (int i = 0; i < 3; i++) {
+				jmxSensor.lastDataCollectionTimestamp = 0;
+				jmxSensor.update(coreService);
+			}
+
+			ArgumentCaptor<JmxSensorValueData> valueCaptor = ArgumentCaptor.forClass(JmxSensorValueData.class);
+			verify(coreService, times(2)).addJmxSensorValueData(eq(13L), eq(objectName.toString()), eq("first"), valueCaptor.capture());
+			assertThat(valueCaptor.getAllValues().get(0).getValue(), is("1"));
+			assertThat(valueCaptor.getAllValues().get(1).getValue(), is("2"));
+		}
+
+		@Test
+		public void changedValuesOnlyHeartbeat() throws Exception {
+			Map<String, Object> parameters = new HashMap<String, Object>();
+			parameters.put("changedValuesOnly", Boolean.TRUE);
+			parameters.put("heartbeatInterval", 2);
+			when(sensorTypeConfig.getParameters()).thenReturn(parameters);
+			jmxSensor.init(sensorTypeConfig);
+			ObjectName objectName = registerAttributes("first");
+			when(mBeanServer.getAttribute(objectName, "first")).thenReturn("1");
+
+			for (int i = 0; i < 5; i++) {
+				jmxSensor.lastDataCollectionTimestamp = 0;
+				jmxSensor.update(coreService);
+			}
+
+			// sent in first, third and fifth collection
+			verify(coreService, times(3)).addJmxSensorValueData(eq(13L), eq(objectName.toString()), eq("first"), Matchers.<JmxSensorValueData> any());
+		}
+
+		/**
+		 * Registers the MBean server with one MBean having the given attributes, all being
+		 * monitored.
+		 *
+		 * @param attributeNames
+		 *            Names of the attributes.
+		 * @return Object name of the MBean.
+		 */
+		private ObjectName registerAttributes(String... attributeNames) throws Exception {
+			ObjectName objectName = new ObjectName("Testdomain:Test=TestObjectName,name=test");
+			MBeanAttributeInfo[] mBeanAttributeInfos = new MBeanAttributeInfo[attributeNames.length];
+			for (int i = 0; i < attributeNames.length; i++) {
+				mBeanAttributeInfos[i] = new MBeanAttributeInfo(attributeNames[i], "test-type", "test-description", true, false, false);
+			}
+
+			when(sensorTypeConfig.getId()).thenReturn(13L);
+			when(mBeanServer.queryNames(Matchers.<ObjectName> any(), (QueryExp) eq(null))).thenReturn(Collections.singleton(objectName));
+			when(mBeanServer.getMBeanInfo(Matchers.<ObjectName> any())).thenReturn(mBeanInfo);
+			when(mBeanInfo.getAttributes()).thenReturn(mBeanAttributeInfos);
+			when(platformManager.getPlatformId()).thenReturn(11L);
+			when(connection.isConnected()).thenReturn(true);
+			when(connection.analyzeJmxAttributes(eq(11L), Matchers.<Collection<JmxAttributeDescriptor>> any())).thenAnswer(new Answer<Collection<JmxAttributeDescriptor>>() {
+				@Override
+				public Collection<JmxAttributeDescriptor> answer(InvocationOnMock invocation) throws Throwable {
+					Collection<JmxAttributeDescriptor> descriptors = (Collection<JmxAttributeDescriptor>) invocation.getArguments()[1];
+					long id = 17L;
+					for (JmxAttributeDescriptor d : descriptors) {
+						d.setId(id++);
+					}
+					return descriptors;
+				}
+			});
+			jmxSensor.mbeanServerAdded(mBeanServer);
+			return objectName;
+		}
+
 		@DataProvider(name = "throwableProvider")
 		public Object[][] getThrowables() {
 			return new Object[][] { { AttributeNotFoundException.class }, { InstanceNotFoundException.class }, { MBeanException.class }, { ReflectionException.class },
@@ -73,17 +73,17 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
 		averageTimerHook.beforeBody(methodId, sensorTypeId, object, parameters, registeredSensorConfig);
-		verify(timer, times(1)).getCurrentTime();
+		verify(timer, times(1)).getCurrentNanoTime();
 
 		averageTimerHook.firstAfterBody(methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
-		verify(timer, times(2)).getCurrentTime();
+		verify(timer, times(2)).getCurrentNanoTime();
 
 		averageTimerHook.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
 		verify(platformManager).getPlatformId();
@@ -95,9 +95,9 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		timerData.setMethodIdent(methodId);
 		timerData.setSensorTypeIdent(sensorTypeId);
 		timerData.setCount(1L);
-		timerData.setDuration(secondTimerValue - firstTimerValue);
-		timerData.calculateMax(secondTimerValue - firstTimerValue);
-		timerData.calculateMin(secondTimerValue - firstTimerValue);
+		timerData.setDuration(Timer.toMillis(secondTimerValue - firstTimerValue));
+		timerData.calculateMax(Timer.toMillis(secondTimerValue - firstTimerValue));
+		timerData.calculateMin(Timer.toMillis(secondTimerValue - firstTimerValue));
 		verify(coreService).addMethodSensorData(eq(sensorTypeId), eq(methodId), (String) eq(null), argThat(new TimerDataVerifier(timerData)));
 
 		verifyNoMoreInteractions(timer, platformManager, coreService, registeredSensorConfig);
@@ -114,12 +114,12 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
-		Double thirdTimerValue = 1578.92d;
-		Double fourthTimerValue = 2319.712d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
+		Long thirdTimerValue = 1578920000L;
+		Long fourthTimerValue = 2319712000L;
 
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue).thenReturn(thirdTimerValue).thenReturn(fourthTimerValue);
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue).thenReturn(thirdTimerValue).thenReturn(fourthTimerValue);
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
 		averageTimerHook.beforeBody(methodIdOne, sensorTypeId, object, parameters, registeredSensorConfig);
@@ -132,9 +132,9 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		timerDataTwo.setMethodIdent(methodIdTwo);
 		timerDataTwo.setSensorTypeIdent(sensorTypeId);
 		timerDataTwo.setCount(1L);
-		timerDataTwo.setDuration(thirdTimerValue - secondTimerValue);
-		timerDataTwo.calculateMax(thirdTimerValue - secondTimerValue);
-		timerDataTwo.calculateMin(thirdTimerValue - secondTimerValue);
+		timerDataTwo.setDuration(Timer.toMillis(thirdTimerValue - secondTimerValue));
+		timerDataTwo.calculateMax(Timer.toMillis(thirdTimerValue - secondTimerValue));
+		timerDataTwo.calculateMin(Timer.toMillis(thirdTimerValue - secondTimerValue));
 		verify(coreService).addMethodSensorData(eq(sensorTypeId), eq(methodIdTwo), (String) eq(null), argThat(new TimerDataVerifier(timerDataTwo)));
 
 		averageTimerHook.firstAfterBody(methodIdOne, sensorTypeId, object, parameters, result, registeredSensorConfig);
@@ -144,9 +144,9 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		timerDataOne.setMethodIdent(methodIdOne);
 		timerDataOne.setSensorTypeIdent(sensorTypeId);
 		timerDataOne.setCount(1L);
-		timerDataOne.setDuration(fourthTimerValue - firstTimerValue);
-		timerDataOne.calculateMax(fourthTimerValue - firstTimerValue);
-		timerDataOne.calculateMin(fourthTimerValue - firstTimerValue);
+		timerDataOne.setDuration(Timer.toMillis(fourthTimerValue - firstTimerValue));
+		timerDataOne.calculateMax(Timer.toMillis(fourthTimerValue - firstTimerValue));
+		timerDataOne.calculateMin(Timer.toMillis(fourthTimerValue - firstTimerValue));
 		verify(coreService).addMethodSensorData(eq(sensorTypeId), eq(methodIdOne), (String) eq(null), argThat(new TimerDataVerifier(timerDataOne)));
 	}
 
@@ -160,20 +160,20 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.0d;
-		Double secondTimerValue = 1323.0d;
-		Double thirdTimerValue = 1894.0d;
-		Double fourthTimerValue = 2812.0d;
+		Long firstTimerValue = 1000000000L;
+		Long secondTimerValue = 1323000000L;
+		Long thirdTimerValue = 1894000000L;
+		Long fourthTimerValue = 2812000000L;
 
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue).thenReturn(thirdTimerValue).thenReturn(fourthTimerValue);
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue).thenReturn(thirdTimerValue).thenReturn(fourthTimerValue);
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
 		// First call
 		averageTimerHook.beforeBody(methodId, sensorTypeId, object, parameters, registeredSensorConfig);
-		verify(timer, times(1)).getCurrentTime();
+		verify(timer, times(1)).getCurrentNanoTime();
 
 		averageTimerHook.firstAfterBody(methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
-		verify(timer, times(2)).getCurrentTime();
+		verify(timer, times(2)).getCurrentNanoTime();
 
 		averageTimerHook.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
 		verify(platformManager).getPlatformId();
@@ -185,17 +185,17 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		timerData.setMethodIdent(methodId);
 		timerData.setSensorTypeIdent(sensorTypeId);
 		timerData.setCount(1L);
-		timerData.setDuration(secondTimerValue - firstTimerValue);
-		timerData.calculateMax(secondTimerValue - firstTimerValue);
-		timerData.calculateMin(secondTimerValue - firstTimerValue);
+		timerData.setDuration(Timer.toMillis(secondTimerValue - firstTimerValue));
+		timerData.calculateMax(Timer.toMillis(secondTimerValue - firstTimerValue));
+		timerData.calculateMin(Timer.toMillis(secondTimerValue - firstTimerValue));
 		verify(coreService).addMethodSensorData(eq(sensorTypeId), eq(methodId), (String) eq(null), argThat(new TimerDataVerifier(timerData)));
 
 		// second one
 		averageTimerHook.beforeBody(methodId, sensorTypeId, object, parameters, registeredSensorConfig);
-		verify(timer, times(3)).getCurrentTime();
+		verify(timer, times(3)).getCurrentNanoTime();
 
 		averageTimerHook.firstAfterBody(methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
-		verify(timer, times(4)).getCurrentTime();
+		verify(timer, times(4)).getCurrentNanoTime();
 
 		when(coreService.getMethodSensorData(sensorTypeId, methodId, null)).thenReturn(timerData);
 		averageTimerHook.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
@@ -206,9 +206,9 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		assertThat(timerData.getMethodIdent(), is(equalTo(methodId)));
 		assertThat(timerData.getSensorTypeIdent(), is(equalTo(sensorTypeId)));
 		assertThat(timerData.getCount(), is(equalTo(2L)));
-		assertThat(timerData.getDuration(), is(equalTo(((fourthTimerValue - thirdTimerValue) + secondTimerValue) - firstTimerValue)));
-		assertThat(timerData.getMax(), is(equalTo(fourthTimerValue - thirdTimerValue)));
-		assertThat(timerData.getMin(), is(equalTo(secondTimerValue - firstTimerValue)));
+		assertThat(timerData.getDuration(), is(equalTo(Timer.toMillis(secondTimerValue - firstTimerValue) + Timer.toMillis(fourthTimerValue - thirdTimerValue))));
+		assertThat(timerData.getMax(), is(equalTo(Timer.toMillis(fourthTimerValue - thirdTimerValue))));
+		assertThat(timerData.getMin(), is(equalTo(Timer.toMillis(secondTimerValue - firstTimerValue))));
 
 		verifyNoMoreInteractions(timer, platformManager, coreService, registeredSensorConfig);
 		verifyZeroInteractions(propertyAccessor, object, result);
@@ -224,20 +224,20 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.0d;
-		Double secondTimerValue = 1323.0d;
-		Double thirdTimerValue = 1894.0d;
-		Double fourthTimerValue = 1934.0d;
+		Long firstTimerValue = 1000000000L;
+		Long secondTimerValue = 1323000000L;
+		Long thirdTimerValue = 1894000000L;
+		Long fourthTimerValue = 1934000000L;
 
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue).thenReturn(thirdTimerValue).thenReturn(fourthTimerValue);
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue).thenReturn(thirdTimerValue).thenReturn(fourthTimerValue);
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
 		// First call
 		averageTimerHook.beforeBody(methodId, sensorTypeId, object, parameters, registeredSensorConfig);
-		verify(timer, times(1)).getCurrentTime();
+		verify(timer, times(1)).getCurrentNanoTime();
 
 		averageTimerHook.firstAfterBody(methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
-		verify(timer, times(2)).getCurrentTime();
+		verify(timer, times(2)).getCurrentNanoTime();
 
 		averageTimerHook.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
 		verify(platformManager).getPlatformId();
@@ -249,17 +249,17 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		timerData.setMethodIdent(methodId);
 		timerData.setSensorTypeIdent(sensorTypeId);
 		timerData.setCount(1L);
-		timerData.setDuration(secondTimerValue - firstTimerValue);
-		timerData.calculateMax(secondTimerValue - firstTimerValue);
-		timerData.calculateMin(secondTimerValue - firstTimerValue);
+		timerData.setDuration(Timer.toMillis(secondTimerValue - firstTimerValue));
+		timerData.calculateMax(Timer.toMillis(secondTimerValue - firstTimerValue));
+		timerData.calculateMin(Timer.toMillis(secondTimerValue - firstTimerValue));
 		verify(coreService).addMethodSensorData(eq(sensorTypeId), eq(methodId), (String) eq(null), argThat(new TimerDataVerifier(timerData)));
 
 		// second one
 		averageTimerHook.beforeBody(methodId, sensorTypeId, object, parameters, registeredSensorConfig);
-		verify(timer, times(3)).getCurrentTime();
+		verify(timer, times(3)).getCurrentNanoTime();
 
 		averageTimerHook.firstAfterBody(methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
-		verify(timer, times(4)).getCurrentTime();
+		verify(timer, times(4)).getCurrentNanoTime();
 
 		when(coreService.getMethodSensorData(sensorTypeId, methodId, null)).thenReturn(timerData);
 		averageTimerHook.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
@@ -270,9 +270,9 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		assertThat(timerData.getMethodIdent(), is(equalTo(methodId)));
 		assertThat(timerData.getSensorTypeIdent(), is(equalTo(sensorTypeId)));
 		assertThat(timerData.getCount(), is(equalTo(2L)));
-		assertThat(timerData.getDuration(), is(equalTo(((fourthTimerValue - thirdTimerValue) + secondTimerValue) - firstTimerValue)));
-		assertThat(timerData.getMax(), is(equalTo(secondTimerValue - firstTimerValue)));
-		assertThat(timerData.getMin(), is(equalTo(fourthTimerValue - thirdTimerValue)));
+		assertThat(timerData.getDuration(), is(equalTo(Timer.toMillis(secondTimerValue - firstTimerValue) + Timer.toMillis(fourthTimerValue - thirdTimerValue))));
+		assertThat(timerData.getMax(), is(equalTo(Timer.toMillis(secondTimerValue - firstTimerValue))));
+		assertThat(timerData.getMin(), is(equalTo(Timer.toMillis(fourthTimerValue - thirdTimerValue))));
 
 		verifyNoMoreInteractions(timer, platformManager, coreService, registeredSensorConfig);
 		verifyZeroInteractions(propertyAccessor, object, result);
@@ -328,10 +328,10 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		doThrow(new IdNotAvailableException("")).when(platformManager).getPlatformId();
 
 		averageTimerHook.beforeBody(methodId, sensorTypeId, object, parameters, registeredSensorConfig);
@@ -351,10 +351,10 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[2];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 		when(registeredSensorConfig.isPropertyAccess()).thenReturn(true);
 
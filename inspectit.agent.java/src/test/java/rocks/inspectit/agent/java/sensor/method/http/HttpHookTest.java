@@ -94,15 +94,15 @@ public class HttpHookTest extends AbstractLogSupport {
 
 	@Test
 	public void oneRecordThatIsHttpWithoutReadingData() throws IdNotAvailableException {
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		Long firstCpuTimerValue = 5000L;
 		Long secondCpuTimerValue = 6872L;
 
 		HttpTimerData data = new HttpTimerData(null, platformId, sensorTypeId, methodId);
 
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(threadMXBean.getCurrentThreadCpuTime()).thenReturn(firstCpuTimerValue).thenReturn(secondCpuTimerValue);
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
@@ -121,8 +121,8 @@ public class HttpHookTest extends AbstractLogSupport {
 
 	@Test
 	public void oneRecordThatIsHttpCharting() throws IdNotAvailableException {
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		Long firstCpuTimerValue = 5000L;
 		Long secondCpuTimerValue = 6872L;
@@ -130,7 +130,7 @@ public class HttpHookTest extends AbstractLogSupport {
 		HttpTimerData data = new HttpTimerData(null, platformId, sensorTypeId, methodId);
 		data.setCharting(true);
 
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(threadMXBean.getCurrentThreadCpuTime()).thenReturn(firstCpuTimerValue).thenReturn(secondCpuTimerValue);
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 		when(registeredSensorConfig.getSettings()).thenReturn(Collections.<String, Object> singletonMap("charting", Boolean.TRUE));
@@ -187,8 +187,8 @@ public class HttpHookTest extends AbstractLogSupport {
 		Collections.addAll(sessionAttributesList, sa1, sa2);
 		final Enumeration<String> sessionAttributes = sessionAttributesList.elements();
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		Long firstCpuTimerValue = 5000L;
 		Long secondCpuTimerValue = 6872L;
@@ -215,7 +215,7 @@ public class HttpHookTest extends AbstractLogSupport {
 
 		MethodSensorData data = tmp;
 
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(threadMXBean.getCurrentThreadCpuTime()).thenReturn(firstCpuTimerValue).thenReturn(secondCpuTimerValue);
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
@@ -252,13 +252,13 @@ public class HttpHookTest extends AbstractLogSupport {
 
 	@Test
 	public void oneRecordThatIsNotHttp() throws IdNotAvailableException {
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		Long firstCpuTimerValue = 5000L;
 		Long secondCpuTimerValue = 6872L;
 
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 
 		when(threadMXBean.getCurrentThreadCpuTime()).thenReturn(firstCpuTimerValue).thenReturn(secondCpuTimerValue);
 		when(platformManager.getPlatformId()).thenReturn(platformId);
@@ -298,15 +298,15 @@ public class HttpHookTest extends AbstractLogSupport {
 		long methodId21 = 3L;
 		long methodId22 = 4L;
 
-		Double timerS11 = 1000d;
-		Double timerS12 = 1500d;
-		Double timerE12 = 2000d;
-		Double timerE11 = 2500d;
+		Long timerS11 = 1000000000L;
+		Long timerS12 = 1500000000L;
+		Long timerE12 = 2000000000L;
+		Long timerE11 = 2500000000L;
 
-		Double timerS21 = 2000d;
-		Double timerS22 = 2500d;
-		Double timerE22 = 3000d;
-		Double timerE21 = 3500d;
+		Long timerS21 = 2000000000L;
+		Long timerS22 = 2500000000L;
+		Long timerE22 = 3000000000L;
+		Long timerE21 = 3500000000L;
 
 		Long cpuS11 = 11000L;
 		Long cpuS12 = 21500L;
@@ -322,7 +322,7 @@ public class HttpHookTest extends AbstractLogSupport {
 		MethodSensorData data1 = new HttpTimerData(null, platformId, sensorTypeId, methodId12);
 		MethodSensorData data2 = new HttpTimerData(null, platformId, sensorTypeId, methodId21);
 
-		when(timer.getCurrentTime()).thenReturn(timerS11).thenReturn(timerS12).thenReturn(timerE12).thenReturn(timerE11).thenReturn(timerS21).thenReturn(timerS22).thenReturn(timerE22)
+		when(timer.getCurrentNanoTime()).thenReturn(timerS11).thenReturn(timerS12).thenReturn(timerE12).thenReturn(timerE11).thenReturn(timerS21).thenReturn(timerS22).thenReturn(timerE22)
 				.thenReturn(timerE21);
 		when(threadMXBean.getCurrentThreadCpuTime()).thenReturn(cpuS11).thenReturn(cpuS12).thenReturn(cpuE12).thenReturn(cpuE11).thenReturn(cpuS21).thenReturn(cpuS22).thenReturn(cpuE22)
 				.thenReturn(cpuE21);
@@ -382,14 +382,14 @@ public class HttpHookTest extends AbstractLogSupport {
 		long methodId3 = 3L;
 		long methodId4 = 4L;
 
-		Double timerS1 = 1000d;
-		Double timerS2 = 1500d;
-		Double timerS3 = 2000d;
-		Double timerS4 = 2500d;
-		Double timerE4 = 3500d;
-		Double timerE3 = 4000d;
-		Double timerE2 = 4500d;
-		Double timerE1 = 5000d;
+		Long timerS1 = 1000000000L;
+		Long timerS2 = 1500000000L;
+		Long timerS3 = 2000000000L;
+		Long timerS4 = 2500000000L;
+		Long timerE4 = 3500000000L;
+		Long timerE3 = 4000000000L;
+		Long timerE2 = 4500000000L;
+		Long timerE1 = 5000000000L;
 
 		Long cpuS1 = 11000L;
 		Long cpuS2 = 21500L;
@@ -403,7 +403,7 @@ public class HttpHookTest extends AbstractLogSupport {
 		// The second one should have the results!
 		MethodSensorData data = new HttpTimerData(null, platformId, sensorTypeId, methodId2);
 
-		when(timer.getCurrentTime()).thenReturn(timerS1).thenReturn(timerS2).thenReturn(timerS3).thenReturn(timerS4).thenReturn(timerE4).thenReturn(timerE3).thenReturn(timerE2).thenReturn(timerE1);
+		when(timer.getCurrentNanoTime()).thenReturn(timerS1).thenReturn(timerS2).thenReturn(timerS3).thenReturn(timerS4).thenReturn(timerE4).thenReturn(timerE3).thenReturn(timerE2).thenReturn(timerE1);
 		when(threadMXBean.getCurrentThreadCpuTime()).thenReturn(cpuS1).thenReturn(cpuS2).thenReturn(cpuS3).thenReturn(cpuS4).thenReturn(cpuE4).thenReturn(cpuE3).thenReturn(cpuE2).thenReturn(cpuE1);
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
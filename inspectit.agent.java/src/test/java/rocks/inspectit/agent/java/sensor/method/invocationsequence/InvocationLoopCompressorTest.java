@@ -0,0 +1,143 @@
+package rocks.inspectit.agent.java.sensor.method.invocationsequence;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.communication.data.ExceptionSensorData;
+import rocks.inspectit.shared.all.communication.data.HttpTimerData;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+
+/**
+ * Tests the {@link InvocationLoopCompressor}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class InvocationLoopCompressorTest {
+
+	static InvocationSequenceData invocation(long methodId, double duration) {
+		InvocationSequenceData data = new InvocationSequenceData(null, 1L, 2L, methodId);
+		data.setDuration(duration);
+		return data;
+	}
+
+	static SqlStatementData sql(String statement) {
+		SqlStatementData sqlStatementData = new SqlStatementData();
+		sqlStatementData.setSql(statement);
+		sqlStatementData.setCount(1L);
+		return sqlStatementData;
+	}
+
+	public class IsSameShape extends InvocationLoopCompressorTest {
+
+		@Test
+		public void sameMethod() {
+			assertThat(InvocationLoopCompressor.isSameShape(invocation(1L, 1d), invocation(1L, 2d)), is(true));
+		}
+
+		@Test
+		public void differentMethod() {
+			assertThat(InvocationLoopCompressor.isSameShape(invocation(1L, 1d), invocation(2L, 1d)), is(false));
+		}
+
+		@Test
+		public void differentNested() {
+			InvocationSequenceData first = invocation(1L, 1d);
+			first.getNestedSequences().add(invocation(3L, 1d));
+			InvocationSequenceData second = invocation(1L, 1d);
+			second.getNestedSequences().add(invocation(4L, 1d));
+
+			assertThat(InvocationLoopCompressor.isSameShape(first, second), is(false));
+		}
+
+		@Test
+		public void sameSql() {
+			InvocationSequenceData first = invocation(1L, 1d);
+			first.setSqlStatementData(sql("select 1"));
+			InvocationSequenceData second = invocation(1L, 1d);
+			second.setSqlStatementData(sql("select 1"));
+
+			assertThat(InvocationLoopCompressor.isSameShape(first, second), is(true));
+		}
+
+		@Test
+		public void differentSql() {
+			InvocationSequenceData first = invocation(1L, 1d);
+			first.setSqlStatementData(sql("select 1"));
+			InvocationSequenceData second = invocation(1L, 1d);
+			second.setSqlStatementData(sql("select 2"));
+
+			assertThat(InvocationLoopCompressor.isSameShape(first, second), is(false));
+		}
+
+		@Test
+		public void exception() {
+			InvocationSequenceData first = invocation(1L, 1d);
+			InvocationSequenceData second = invocation(1L, 1d);
+			second.addExceptionSensorData(new ExceptionSensorData());
+
+			assertThat(InvocationLoopCompressor.isSameShape(first, second), is(false));
+		}
+
+		@Test
+		public void httpTimer() {
+			InvocationSequenceData first = invocation(1L, 1d);
+			first.setTimerData(new HttpTimerData());
+			InvocationSequenceData second = invocation(1L, 1d);
+			second.setTimerData(new HttpTimerData());
+
+			assertThat(InvocationLoopCompressor.isSameShape(first, second), is(false));
+		}
+	}
+
+	public class Aggregate extends InvocationLoopCompressorTest {
+
+		@Test
+		public void durations() {
+			InvocationSequenceData target = invocation(1L, 10d);
+			TimerData timerData = new TimerData();
+			timerData.setCount(1L);
+			timerData.setDuration(10d);
+			target.setTimerData(timerData);
+			InvocationSequenceData source = invocation(1L, 4d);
+			TimerData sourceTimerData = new TimerData();
+			sourceTimerData.setCount(1L);
+			sourceTimerData.setDuration(4d);
+			source.setTimerData(sourceTimerData);
+			source.setEnd(20d);
+
+			InvocationLoopCompressor.aggregate(target, source);
+
+			assertThat(target.getLoopCount(), is(2L));
+			assertThat(target.getLoopMinDuration(), is(4d));
+			assertThat(target.getLoopMaxDuration(), is(10d));
+			assertThat(target.getDuration(), is(14d));
+			assertThat(target.getEnd(), is(20d));
+			assertThat(target.getTimerData().getCount(), is(2L));
+			assertThat(target.getTimerData().getDuration(), is(14d));
+		}
+
+		@Test
+		public void nested() {
+			InvocationSequenceData target = invocation(1L, 10d);
+			target.getNestedSequences().add(invocation(3L, 2d));
+			InvocationSequenceData source = invocation(1L, 10d);
+			source.getNestedSequences().add(invocation(3L, 6d));
+
+			InvocationLoopCompressor.aggregate(target, source);
+			InvocationLoopCompressor.aggregate(target, source);
+
+			InvocationSequenceData nested = target.getNestedSequences().get(0);
+			assertThat(target.getLoopCount(), is(3L));
+			assertThat(nested.getLoopCount(), is(3L));
+			assertThat(nested.getLoopMinDuration(), is(2d));
+			assertThat(nested.getLoopMaxDuration(), is(6d));
+			assertThat(nested.getDuration(), is(14d));
+		}
+	}
+}
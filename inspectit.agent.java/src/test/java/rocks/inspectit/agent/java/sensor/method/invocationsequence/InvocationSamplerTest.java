@@ -0,0 +1,108 @@
+package rocks.inspectit.agent.java.sensor.method.invocationsequence;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+/**
+ * Tests the {@link InvocationSampler}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class InvocationSamplerTest {
+
+	public class FromSettings extends InvocationSamplerTest {
+
+		@Test
+		public void noSettings() {
+			InvocationSampler sampler = InvocationSampler.fromSettings(null);
+
+			assertThat(sampler.isSampling(), is(false));
+			assertThat(sampler.isKeepErrors(), is(true));
+			assertThat(sampler.getSamplingRate(), is(1d));
+		}
+
+		@Test
+		public void settings() {
+			Map<String, Object> settings = new HashMap<String, Object>();
+			settings.put(InvocationSampler.SAMPLING_RATE_SETTING, Double.valueOf(0.25d));
+			settings.put(InvocationSampler.MAX_PER_SECOND_SETTING, Long.valueOf(10L));
+			settings.put(InvocationSampler.KEEP_ERRORS_SETTING, Boolean.FALSE);
+
+			InvocationSampler sampler = InvocationSampler.fromSettings(settings);
+
+			assertThat(sampler.isSampling(), is(true));
+			assertThat(sampler.isKeepErrors(), is(false));
+			assertThat(sampler.getSamplingRate(), is(0.25d));
+		}
+
+		@Test
+		public void rateOutOfRange() {
+			Map<String, Object> settings = new HashMap<String, Object>();
+			settings.put(InvocationSampler.SAMPLING_RATE_SETTING, Double.valueOf(2d));
+
+			InvocationSampler sampler = InvocationSampler.fromSettings(settings);
+
+			assertThat(sampler.isSampling(), is(false));
+		}
+
+		@Test
+		public void createdFrom() {
+			Map<String, Object> settings = new HashMap<String, Object>();
+			settings.put(InvocationSampler.SAMPLING_RATE_SETTING, Double.valueOf(0.5d));
+			Map<String, Object> newSettings = new HashMap<String, Object>(settings);
+
+			InvocationSampler sampler = InvocationSampler.fromSettings(settings);
+
+			assertThat(sampler.isCreatedFrom(settings), is(true));
+			assertThat(sampler.isCreatedFrom(newSettings), is(false));
+			assertThat(sampler.isCreatedFrom(null), is(false));
+		}
+	}
+
+	public class Sample extends InvocationSamplerTest {
+
+		@Test
+		public void probability() {
+			InvocationSampler sampler = new InvocationSampler(0.5d, 0L, true);
+
+			assertThat(sampler.sample(0.49d, 0L), is(true));
+			assertThat(sampler.sample(0.5d, 0L), is(false));
+		}
+
+		@Test
+		public void tokenBucket() {
+			InvocationSampler sampler = new InvocationSampler(1d, 2L, true);
+			long time = 10000L;
+
+			assertThat(sampler.sample(0d, time), is(true));
+			assertThat(sampler.sample(0d, time), is(true));
+			assertThat(sampler.sample(0d, time), is(false));
+			assertThat(sampler.sample(0d, time), is(false));
+			// half a second refills one token
+			assertThat(sampler.sample(0d, time + 500L), is(true));
+			assertThat(sampler.sample(0d, time + 500L), is(false));
+		}
+
+		@Test
+		public void samplingRateFromAcceptRatio() {
+			InvocationSampler sampler = new InvocationSampler(0.5d, 1L, true);
+			long time = 10000L;
+
+			sampler.sample(0d, time);
+			sampler.sample(0d, time);
+			sampler.sample(0d, time);
+			sampler.sample(0d, time);
+			// next window calculates the ratio
+			sampler.sample(0d, time + 1000L);
+
+			assertThat(sampler.getSamplingRate(), is(0.5d * 0.25d));
+		}
+	}
+}
@@ -118,9 +118,9 @@ public class InvocationSequenceHookTest extends TestBase {
 
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
-		double firstTimerValue = 1000.0d;
-		double secondTimerValue = 1323.0d;
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue);
+		long firstTimerValue = 1000000000L;
+		long secondTimerValue = 1323000000L;
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue, secondTimerValue);
 		when(rsc.getMethodSensors()).thenReturn(Collections.singletonList(methodSensor));
 		when(methodSensor.getSensorTypeConfig()).thenReturn(methodSensorTypeConfig);
 
@@ -134,7 +134,7 @@ public class InvocationSequenceHookTest extends TestBase {
 		invocationSequenceHook.firstAfterBody(methodId, sensorTypeId, object, parameters, result, rsc);
 		invocationSequenceHook.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, result, rsc);
 
-		verify(timer, times(2)).getCurrentTime();
+		verify(timer, times(2)).getCurrentNanoTime();
 		ArgumentCaptor<InvocationSequenceData> captor = ArgumentCaptor.forClass(InvocationSequenceData.class);
 		verify(coreService, times(1)).addMethodSensorData(eq(sensorTypeId), eq(methodId), Matchers.<String> anyObject(), captor.capture());
 
@@ -142,7 +142,7 @@ public class InvocationSequenceHookTest extends TestBase {
 		assertThat(invocation.getPlatformIdent(), is(platformId));
 		assertThat(invocation.getMethodIdent(), is(methodId));
 		assertThat(invocation.getSensorTypeIdent(), is(sensorTypeId));
-		assertThat(invocation.getDuration(), is(secondTimerValue - firstTimerValue));
+		assertThat(invocation.getDuration(), is(Timer.toMillis(secondTimerValue - firstTimerValue)));
 		assertThat(invocation.getNestedSequences(), is(empty()));
 		assertThat(invocation.getChildCount(), is(0L));
 		assertThat(invocation.getTimerData(), is(timerData));
@@ -168,9 +168,9 @@ public class InvocationSequenceHookTest extends TestBase {
 
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
-		double firstTimerValue = 1000.0d;
-		double secondTimerValue = 1323.0d;
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue);
+		long firstTimerValue = 1000000000L;
+		long secondTimerValue = 1323000000L;
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue, secondTimerValue);
 		when(rsc.getMethodSensors()).thenReturn(Collections.singletonList(methodSensor));
 		when(methodSensor.getSensorTypeConfig()).thenReturn(methodSensorTypeConfig);
 
@@ -183,7 +183,7 @@ public class InvocationSequenceHookTest extends TestBase {
 		invocationSequenceHook.firstAfterBody(methodId, sensorTypeId, object, parameters, result, rsc);
 		invocationSequenceHook.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, result, rsc);
 
-		verify(timer, times(2)).getCurrentTime();
+		verify(timer, times(2)).getCurrentNanoTime();
 		verify(realCoreService, times(1)).addMethodSensorData(0, 0, "", clientSpan);
 		verifyNoMoreInteractions(realCoreService);
 
@@ -194,7 +194,7 @@ public class InvocationSequenceHookTest extends TestBase {
 		assertThat(invocation.getPlatformIdent(), is(platformId));
 		assertThat(invocation.getMethodIdent(), is(methodId));
 		assertThat(invocation.getSensorTypeIdent(), is(sensorTypeId));
-		assertThat(invocation.getDuration(), is(secondTimerValue - firstTimerValue));
+		assertThat(invocation.getDuration(), is(Timer.toMillis(secondTimerValue - firstTimerValue)));
 		assertThat(invocation.getNestedSequences(), is(empty()));
 		assertThat(invocation.getChildCount(), is(0L));
 		assertThat(invocation.getSpanIdent(), is(spanIdent));
@@ -220,9 +220,9 @@ public class InvocationSequenceHookTest extends TestBase {
 		when(tracer.isCurrentContextExisting()).thenReturn(true);
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
-		double firstTimerValue = 1000.0d;
-		double secondTimerValue = 1323.0d;
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue);
+		long firstTimerValue = 1000000000L;
+		long secondTimerValue = 1323000000L;
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue, secondTimerValue);
 		when(rsc.getMethodSensors()).thenReturn(Collections.singletonList(methodSensor));
 		when(methodSensor.getSensorTypeConfig()).thenReturn(methodSensorTypeConfig);
 
@@ -230,7 +230,7 @@ public class InvocationSequenceHookTest extends TestBase {
 		invocationSequenceHook.firstAfterBody(methodId, sensorTypeId, object, parameters, result, rsc);
 		invocationSequenceHook.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, result, rsc);
 
-		verify(timer, times(2)).getCurrentTime();
+		verify(timer, times(2)).getCurrentNanoTime();
 		ArgumentCaptor<InvocationSequenceData> captor = ArgumentCaptor.forClass(InvocationSequenceData.class);
 		verify(coreService, times(1)).addMethodSensorData(eq(sensorTypeId), eq(methodId), Matchers.<String> anyObject(), captor.capture());
 
@@ -238,7 +238,7 @@ public class InvocationSequenceHookTest extends TestBase {
 		assertThat(invocation.getPlatformIdent(), is(platformId));
 		assertThat(invocation.getMethodIdent(), is(methodId));
 		assertThat(invocation.getSensorTypeIdent(), is(sensorTypeId));
-		assertThat(invocation.getDuration(), is(secondTimerValue - firstTimerValue));
+		assertThat(invocation.getDuration(), is(Timer.toMillis(secondTimerValue - firstTimerValue)));
 		assertThat(invocation.getNestedSequences(), is(empty()));
 		assertThat(invocation.getChildCount(), is(0L));
 		assertThat(invocation.getSpanIdent(), is(SpanContextTransformer.transformSpanContext(context)));
@@ -263,11 +263,11 @@ public class InvocationSequenceHookTest extends TestBase {
 
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
-		double firstTimerValue = 1000.0d;
-		double secondTimerValue = 1323.0d;
-		double thirdTimerValue = 1881.0d;
-		double fourthTimerValue = 2562.0d;
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue, fourthTimerValue);
+		long firstTimerValue = 1000000000L;
+		long secondTimerValue = 1323000000L;
+		long thirdTimerValue = 1881000000L;
+		long fourthTimerValue = 2562000000L;
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue, fourthTimerValue);
 		when(rsc.getMethodSensors()).thenReturn(Collections.singletonList(methodSensor));
 		when(methodSensor.getSensorTypeConfig()).thenReturn(methodSensorTypeConfig);
 
@@ -278,7 +278,7 @@ public class InvocationSequenceHookTest extends TestBase {
 		invocationSequenceHook.firstAfterBody(methodId1, sensorTypeId, object, parameters, result, rsc);
 		invocationSequenceHook.secondAfterBody(coreService, methodId1, sensorTypeId, object, parameters, result, rsc);
 
-		verify(timer, times(4)).getCurrentTime();
+		verify(timer, times(4)).getCurrentNanoTime();
 		ArgumentCaptor<InvocationSequenceData> captor = ArgumentCaptor.forClass(InvocationSequenceData.class);
 		verify(coreService, times(1)).addMethodSensorData(eq(sensorTypeId), eq(methodId1), Matchers.<String> anyObject(), captor.capture());
 
@@ -286,14 +286,14 @@ public class InvocationSequenceHookTest extends TestBase {
 		assertThat(invocation.getPlatformIdent(), is(platformId));
 		assertThat(invocation.getMethodIdent(), is(methodId1));
 		assertThat(invocation.getSensorTypeIdent(), is(sensorTypeId));
-		assertThat(invocation.getDuration(), is(fourthTimerValue - firstTimerValue));
+		assertThat(invocation.getDuration(), is(Timer.toMillis(fourthTimerValue - firstTimerValue)));
 		assertThat(invocation.getNestedSequences(), hasSize(1));
 		assertThat(invocation.getChildCount(), is(1L));
 		InvocationSequenceData child = invocation.getNestedSequences().iterator().next();
 		assertThat(child.getPlatformIdent(), is(platformId));
 		assertThat(child.getMethodIdent(), is(methodId2));
 		assertThat(child.getSensorTypeIdent(), is(sensorTypeId));
-		assertThat(child.getDuration(), is(thirdTimerValue - secondTimerValue));
+		assertThat(child.getDuration(), is(Timer.toMillis(thirdTimerValue - secondTimerValue)));
 		assertThat(child.getNestedSequences(), is(empty()));
 		assertThat(child.getParentSequence(), is(invocation));
 		assertThat(child.getChildCount(), is(0L));
@@ -321,11 +321,11 @@ public class InvocationSequenceHookTest extends TestBase {
 
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
-		double firstTimerValue = 1000.0d;
-		double secondTimerValue = 1323.0d;
-		double thirdTimerValue = 1881.0d;
-		double fourthTimerValue = 2562.0d;
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue, fourthTimerValue);
+		long firstTimerValue = 1000000000L;
+		long secondTimerValue = 1323000000L;
+		long thirdTimerValue = 1881000000L;
+		long fourthTimerValue = 2562000000L;
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue, fourthTimerValue);
 
 		invocationSequenceHook.beforeBody(methodId1, sensorTypeId, object, parameters, rsc);
 		invocationSequenceHook.beforeBody(methodId1, sensorTypeId, object, parameters, rsc);
@@ -334,7 +334,7 @@ public class InvocationSequenceHookTest extends TestBase {
 		invocationSequenceHook.firstAfterBody(methodId1, sensorTypeId, object, parameters, result, rsc);
 		invocationSequenceHook.secondAfterBody(coreService, methodId1, sensorTypeId, object, parameters, result, rsc);
 
-		verify(timer, times(4)).getCurrentTime();
+		verify(timer, times(4)).getCurrentNanoTime();
 		ArgumentCaptor<InvocationSequenceData> captor = ArgumentCaptor.forClass(InvocationSequenceData.class);
 		verify(coreService, times(1)).addMethodSensorData(eq(sensorTypeId), eq(methodId1), Matchers.<String> anyObject(), captor.capture());
 
@@ -342,14 +342,14 @@ public class InvocationSequenceHookTest extends TestBase {
 		assertThat(invocation.getPlatformIdent(), is(platformId));
 		assertThat(invocation.getMethodIdent(), is(methodId1));
 		assertThat(invocation.getSensorTypeIdent(), is(sensorTypeId));
-		assertThat(invocation.getDuration(), is(fourthTimerValue - firstTimerValue));
+		assertThat(invocation.getDuration(), is(Timer.toMillis(fourthTimerValue - firstTimerValue)));
 		assertThat(invocation.getNestedSequences(), hasSize(1));
 		assertThat(invocation.getChildCount(), is(1L));
 		InvocationSequenceData child = invocation.getNestedSequences().iterator().next();
 		assertThat(child.getPlatformIdent(), is(platformId));
 		assertThat(child.getMethodIdent(), is(methodId1));
 		assertThat(child.getSensorTypeIdent(), is(sensorTypeId));
-		assertThat(child.getDuration(), is(thirdTimerValue - secondTimerValue));
+		assertThat(child.getDuration(), is(Timer.toMillis(thirdTimerValue - secondTimerValue)));
 		assertThat(child.getNestedSequences(), is(empty()));
 		assertThat(child.getParentSequence(), is(invocation));
 		assertThat(child.getChildCount(), is(0L));
@@ -374,10 +374,10 @@ public class InvocationSequenceHookTest extends TestBase {
 
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
-		double firstTimerValue = 1000.0d;
-		double secondTimerValue = 1200.0d;
+		long firstTimerValue = 1000000000L;
+		long secondTimerValue = 1200000000L;
 		Long minDuration = 201L;
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue);
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue, secondTimerValue);
 		Map<String, Object> map = new HashMap<String, Object>();
 		map.put("minduration", minDuration);
 		when(rsc.getSettings()).thenReturn(map);
@@ -388,22 +388,262 @@ public class InvocationSequenceHookTest extends TestBase {
 		invocationSequenceHook.firstAfterBody(methodId, sensorTypeId, object, parameters, result, rsc);
 		invocationSequenceHook.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, result, rsc);
 
-		verify(timer, times(2)).getCurrentTime();
+		verify(timer, times(2)).getCurrentNanoTime();
 		verifyZeroInteractions(coreService);
 
-		secondTimerValue = 1202.0d;
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue);
+		secondTimerValue = 1202000000L;
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue, secondTimerValue);
 
 		invocationSequenceHook.beforeBody(methodId, sensorTypeId, object, parameters, rsc);
 		invocationSequenceHook.firstAfterBody(methodId, sensorTypeId, object, parameters, result, rsc);
 		invocationSequenceHook.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, result, rsc);
 
-		verify(timer, times(4)).getCurrentTime();
+		verify(timer, times(4)).getCurrentNanoTime();
 		verify(coreService, times(1)).addMethodSensorData(eq(sensorTypeId), eq(methodId), Matchers.<String> anyObject(), Matchers.<InvocationSequenceData> anyObject());
 
 		verifyZeroInteractions(realCoreService);
 	}
 
+	/**
+	 * Tests that not sampled invocation is not saved and that no nested sequences are created.
+	 *
+	 * @throws IdNotAvailableException
+	 */
+	@Test
+	public void notSampled() throws IdNotAvailableException {
+		long platformId = 1L;
+		long methodId1 = 3L;
+		long methodId2 = 23L;
+		long sensorTypeId = 11L;
+		Object object = mock(Object.class);
+		Object[] parameters = new Object[0];
+		Object result = mock(Object.class);
+
+		when(platformManager.getPlatformId()).thenReturn(platformId);
+		when(timer.getCurrentNanoTime()).thenReturn(1000000000L, 1100000000L);
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put(InvocationSampler.SAMPLING_RATE_SETTING, Double.valueOf(0d));
+		when(rsc.getSettings()).thenReturn(map);
+		when(rsc.getMethodSensors()).thenReturn(Collections.singletonList(methodSensor));
+		when(methodSensor.getSensorTypeConfig()).thenReturn(methodSensorTypeConfig);
+
+		invocationSequenceHook.beforeBody(methodId1, sensorTypeId, object, parameters, rsc);
+		invocationSequenceHook.beforeBody(methodId2, sensorTypeId, object, parameters, rsc);
+		invocationSequenceHook.addMethodSensorData(0, 0, "", new TimerData());
+		invocationSequenceHook.firstAfterBody(methodId2, sensorTypeId, object, parameters, result, rsc);
+		invocationSequenceHook.secondAfterBody(coreService, methodId2, sensorTypeId, object, parameters, result, rsc);
+		invocationSequenceHook.firstAfterBody(methodId1, sensorTypeId, object, parameters, result, rsc);
+		invocationSequenceHook.secondAfterBody(coreService, methodId1, sensorTypeId, object, parameters, result, rsc);
+
+		// only root start and end time
+		verify(timer, times(2)).getCurrentNanoTime();
+		verifyZeroInteractions(coreService, realCoreService);
+	}
+
+	/**
+	 * Tests that not sampled invocation is saved when it contains an exception.
+	 *
+	 * @throws IdNotAvailableException
+	 */
+	@Test
+	public void notSampledKeptOnError() throws IdNotAvailableException {
+		long platformId = 1L;
+		long methodId1 = 3L;
+		long methodId2 = 23L;
+		long sensorTypeId = 11L;
+		Object object = mock(Object.class);
+		Object[] parameters = new Object[0];
+		Object result = mock(Object.class);
+
+		when(platformManager.getPlatformId()).thenReturn(platformId);
+		when(timer.getCurrentNanoTime()).thenReturn(1000000000L, 1100000000L);
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put(InvocationSampler.SAMPLING_RATE_SETTING, Double.valueOf(0d));
+		when(rsc.getSettings()).thenReturn(map);
+		when(rsc.getMethodSensors()).thenReturn(Collections.singletonList(methodSensor));
+		when(methodSensor.getSensorTypeConfig()).thenReturn(methodSensorTypeConfig);
+
+		invocationSequenceHook.beforeBody(methodId1, sensorTypeId, object, parameters, rsc);
+		invocationSequenceHook.beforeBody(methodId2, sensorTypeId, object, parameters, rsc);
+		ExceptionSensorData exceptionSensorData = new ExceptionSensorData();
+		invocationSequenceHook.addExceptionSensorData(0, 0, exceptionSensorData);
+		invocationSequenceHook.addMethodSensorData(0, 0, "", new TimerData());
+		invocationSequenceHook.firstAfterBody(methodId2, sensorTypeId, object, parameters, result, rsc);
+		invocationSequenceHook.secondAfterBody(coreService, methodId2, sensorTypeId, object, parameters, result, rsc);
+		invocationSequenceHook.firstAfterBody(methodId1, sensorTypeId, object, parameters, result, rsc);
+		invocationSequenceHook.secondAfterBody(coreService, methodId1, sensorTypeId, object, parameters, result, rsc);
+
+		ArgumentCaptor<InvocationSequenceData> captor = ArgumentCaptor.forClass(InvocationSequenceData.class);
+		verify(coreService, times(1)).addMethodSensorData(eq(sensorTypeId), eq(methodId1), Matchers.<String> anyObject(), captor.capture());
+
+		InvocationSequenceData invocation = captor.getValue();
+		assertThat(invocation.getNestedSequences(), is(empty()));
+		assertThat(invocation.getChildCount(), is(0L));
+		assertThat(invocation.getTimerData(), is(nullValue()));
+		assertThat(invocation.getExceptionSensorDataObjects(), hasSize(1));
+		assertThat(invocation.getSamplingRate(), is(1d));
+	}
+
+	/**
+	 * Tests that invocations over the limit per second are not saved.
+	 *
+	 * @throws IdNotAvailableException
+	 */
+	@Test
+	public void rateLimited() throws IdNotAvailableException {
+		long platformId = 1L;
+		long methodId = 3L;
+		long sensorTypeId = 11L;
+		Object object = mock(Object.class);
+		Object[] parameters = new Object[0];
+		Object result = mock(Object.class);
+
+		when(platformManager.getPlatformId()).thenReturn(platformId);
+		when(timer.getCurrentNanoTime()).thenReturn(1000000000L, 1100000000L, 1200000000L, 1300000000L);
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put(InvocationSampler.MAX_PER_SECOND_SETTING, Long.valueOf(1L));
+		when(rsc.getSettings()).thenReturn(map);
+		when(rsc.getMethodSensors()).thenReturn(Collections.singletonList(methodSensor));
+		when(methodSensor.getSensorTypeConfig()).thenReturn(methodSensorTypeConfig);
+
+		for (int i = 0; i < 2; i++) {
+			invocationSequenceHook.beforeBody(methodId, sensorTypeId, object, parameters, rsc);
+			invocationSequenceHook.firstAfterBody(methodId, sensorTypeId, object, parameters, result, rsc);
+			invocationSequenceHook.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, result, rsc);
+		}
+
+		ArgumentCaptor<InvocationSequenceData> captor = ArgumentCaptor.forClass(InvocationSequenceData.class);
+		verify(coreService, times(1)).addMethodSensorData(eq(sensorTypeId), eq(methodId), Matchers.<String> anyObject(), captor.capture());
+		assertThat(captor.getValue().getSamplingRate(), is(1d));
+	}
+
+	/**
+	 * Tests that the sampler is created again when the method gets new settings.
+	 *
+	 * @throws IdNotAvailableException
+	 */
+	@Test
+	public void samplerRecreatedOnSettingsChange() throws IdNotAvailableException {
+		long platformId = 1L;
+		long methodId = 3L;
+		long sensorTypeId = 11L;
+		Object object = mock(Object.class);
+		Object[] parameters = new Object[0];
+		Object result = mock(Object.class);
+
+		when(platformManager.getPlatformId()).thenReturn(platformId);
+		when(timer.getCurrentNanoTime()).thenReturn(1000000000L, 1100000000L, 1200000000L, 1300000000L);
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put(InvocationSampler.SAMPLING_RATE_SETTING, Double.valueOf(0d));
+		Map<String, Object> newMap = new HashMap<String, Object>();
+		newMap.put(InvocationSampler.SAMPLING_RATE_SETTING, Double.valueOf(1d));
+		when(rsc.getSettings()).thenReturn(map);
+		when(rsc.getMethodSensors()).thenReturn(Collections.singletonList(methodSensor));
+		RegisteredSensorConfig newRsc = mock(RegisteredSensorConfig.class);
+		when(newRsc.getSettings()).thenReturn(newMap);
+		when(newRsc.getMethodSensors()).thenReturn(Collections.singletonList(methodSensor));
+		when(methodSensor.getSensorTypeConfig()).thenReturn(methodSensorTypeConfig);
+
+		invocationSequenceHook.beforeBody(methodId, sensorTypeId, object, parameters, rsc);
+		invocationSequenceHook.firstAfterBody(methodId, sensorTypeId, object, parameters, result, rsc);
+		invocationSequenceHook.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, result, rsc);
+
+		verifyZeroInteractions(coreService);
+
+		invocationSequenceHook.beforeBody(methodId, sensorTypeId, object, parameters, newRsc);
+		invocationSequenceHook.firstAfterBody(methodId, sensorTypeId, object, parameters, result, newRsc);
+		invocationSequenceHook.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, result, newRsc);
+
+		verify(coreService, times(1)).addMethodSensorData(eq(sensorTypeId), eq(methodId), Matchers.<String> anyObject(), Matchers.<InvocationSequenceData> any());
+	}
+
+	/**
+	 * Tests that consecutive invocations of the same method are aggregated.
+	 *
+	 * @throws IdNotAvailableException
+	 */
+	@Test
+	public void loopCompressed() throws IdNotAvailableException {
+		long platformId = 1L;
+		long methodId1 = 3L;
+		long methodId2 = 23L;
+		long sensorTypeId = 11L;
+		Object object = mock(Object.class);
+		Object[] parameters = new Object[0];
+		Object result = mock(Object.class);
+
+		when(platformManager.getPlatformId()).thenReturn(platformId);
+		when(timer.getCurrentNanoTime()).thenReturn(0L, 10000000L, 20000000L, 20000000L, 35000000L, 35000000L, 40000000L, 50000000L);
+		when(rsc.getMethodSensors()).thenReturn(Collections.singletonList(methodSensor));
+		when(methodSensor.getSensorTypeConfig()).thenReturn(methodSensorTypeConfig);
+
+		invocationSequenceHook.beforeBody(methodId1, sensorTypeId, object, parameters, rsc);
+		for (int i = 0; i < 3; i++) {
+			invocationSequenceHook.beforeBody(methodId2, sensorTypeId, object, parameters, rsc);
+			invocationSequenceHook.addMethodSensorData(0, 0, "", new TimerData());
+			invocationSequenceHook.firstAfterBody(methodId2, sensorTypeId, object, parameters, result, rsc);
+			invocationSequenceHook.secondAfterBody(coreService, methodId2, sensorTypeId, object, parameters, result, rsc);
+		}
+		invocationSequenceHook.firstAfterBody(methodId1, sensorTypeId, object, parameters, result, rsc);
+		invocationSequenceHook.secondAfterBody(coreService, methodId1, sensorTypeId, object, parameters, result, rsc);
+
+		ArgumentCaptor<InvocationSequenceData> captor = ArgumentCaptor.forClass(InvocationSequenceData.class);
+		verify(coreService, times(1)).addMethodSensorData(eq(sensorTypeId), eq(methodId1), Matchers.<String> anyObject(), captor.capture());
+
+		InvocationSequenceData invocation = captor.getValue();
+		assertThat(invocation.getNestedSequences(), hasSize(1));
+		assertThat(invocation.getChildCount(), is(1L));
+		InvocationSequenceData loop = invocation.getNestedSequences().get(0);
+		assertThat(loop.getLoopCount(), is(3L));
+		assertThat(loop.getLoopMinDuration(), is(5d));
+		assertThat(loop.getLoopMaxDuration(), is(15d));
+		assertThat(loop.getDuration(), is(30d));
+		assertThat(loop.getStart(), is(10d));
+		assertThat(loop.getEnd(), is(40d));
+		assertThat(loop.getTimerData().getCount(), is(3L));
+	}
+
+	/**
+	 * Tests that invocation elements over the max children are removed.
+	 *
+	 * @throws IdNotAvailableException
+	 */
+	@Test
+	public void maxChildren() throws IdNotAvailableException {
+		long platformId = 1L;
+		long methodId1 = 3L;
+		long sensorTypeId = 11L;
+		Object object = mock(Object.class);
+		Object[] parameters = new Object[0];
+		Object result = mock(Object.class);
+
+		when(platformManager.getPlatformId()).thenReturn(platformId);
+		when(timer.getCurrentNanoTime()).thenReturn(0L);
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("maxchildren", Long.valueOf(2L));
+		when(rsc.getSettings()).thenReturn(map);
+		when(rsc.getMethodSensors()).thenReturn(Collections.singletonList(methodSensor));
+		when(methodSensor.getSensorTypeConfig()).thenReturn(methodSensorTypeConfig);
+
+		invocationSequenceHook.beforeBody(methodId1, sensorTypeId, object, parameters, rsc);
+		for (long methodId = 100L; methodId < 105L; methodId++) {
+			invocationSequenceHook.beforeBody(methodId, sensorTypeId, object, parameters, rsc);
+			invocationSequenceHook.firstAfterBody(methodId, sensorTypeId, object, parameters, result, rsc);
+			invocationSequenceHook.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, result, rsc);
+		}
+		invocationSequenceHook.firstAfterBody(methodId1, sensorTypeId, object, parameters, result, rsc);
+		invocationSequenceHook.secondAfterBody(coreService, methodId1, sensorTypeId, object, parameters, result, rsc);
+
+		ArgumentCaptor<InvocationSequenceData> captor = ArgumentCaptor.forClass(InvocationSequenceData.class);
+		verify(coreService, times(1)).addMethodSensorData(eq(sensorTypeId), eq(methodId1), Matchers.<String> anyObject(), captor.capture());
+
+		InvocationSequenceData invocation = captor.getValue();
+		assertThat(invocation.getNestedSequences(), hasSize(2));
+		assertThat(invocation.getChildCount(), is(2L));
+		assertThat(invocation.getNestedSequences().get(0).getMethodIdent(), is(100L));
+		assertThat(invocation.getNestedSequences().get(1).getMethodIdent(), is(101L));
+	}
+
 	/**
 	 * Tests that when Id is not available (platform) on start of invocation no data will be
 	 * captured.
@@ -444,12 +684,12 @@ public class InvocationSequenceHookTest extends TestBase {
 
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
-		double firstTimerValue = 1000.0d;
-		double secondTimerValue = 1323.0d;
-		double thirdTimerValue = 1881.0d;
-		double fourthTimerValue = 2562.0d;
-		double fifthTimerValue = 3221.0d;
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue, fourthTimerValue, fifthTimerValue);
+		long firstTimerValue = 1000000000L;
+		long secondTimerValue = 1323000000L;
+		long thirdTimerValue = 1881000000L;
+		long fourthTimerValue = 2562000000L;
+		long fifthTimerValue = 3221000000L;
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue, fourthTimerValue, fifthTimerValue);
 
 		RegisteredSensorConfig removingRsc = mock(RegisteredSensorConfig.class);
 		MethodSensorTypeConfig exceptionSensorConfig = mock(MethodSensorTypeConfig.class);
@@ -469,7 +709,7 @@ public class InvocationSequenceHookTest extends TestBase {
 		invocationSequenceHook.firstAfterBody(methodId1, sensorTypeId, object, parameters, result, rsc);
 		invocationSequenceHook.secondAfterBody(coreService, methodId1, sensorTypeId, object, parameters, result, rsc);
 
-		verify(timer, times(5)).getCurrentTime();
+		verify(timer, times(5)).getCurrentNanoTime();
 		ArgumentCaptor<InvocationSequenceData> captor = ArgumentCaptor.forClass(InvocationSequenceData.class);
 		verify(coreService, times(1)).addMethodSensorData(eq(sensorTypeId), eq(methodId1), Matchers.<String> anyObject(), captor.capture());
 
@@ -477,14 +717,14 @@ public class InvocationSequenceHookTest extends TestBase {
 		assertThat(invocation.getPlatformIdent(), is(platformId));
 		assertThat(invocation.getMethodIdent(), is(methodId1));
 		assertThat(invocation.getSensorTypeIdent(), is(sensorTypeId));
-		assertThat(invocation.getDuration(), is(fifthTimerValue - firstTimerValue));
+		assertThat(invocation.getDuration(), is(Timer.toMillis(fifthTimerValue - firstTimerValue)));
 		assertThat(invocation.getNestedSequences(), hasSize(1));
 		assertThat(invocation.getChildCount(), is(1L));
 		InvocationSequenceData child = invocation.getNestedSequences().iterator().next();
 		assertThat(child.getPlatformIdent(), is(platformId));
 		assertThat(child.getMethodIdent(), is(methodId3));
 		assertThat(child.getSensorTypeIdent(), is(sensorTypeId));
-		assertThat(child.getDuration(), is(fourthTimerValue - thirdTimerValue));
+		assertThat(child.getDuration(), is(Timer.toMillis(fourthTimerValue - thirdTimerValue)));
 		assertThat(child.getNestedSequences(), is(empty()));
 		assertThat(child.getParentSequence(), is(invocation));
 		assertThat(child.getChildCount(), is(0L));
@@ -507,10 +747,10 @@ public class InvocationSequenceHookTest extends TestBase {
 
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
-		double firstTimerValue = 1000.0d;
-		double secondTimerValue = 1323.0d;
-		double thirdTimerValue = 1881.0d;
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue);
+		long firstTimerValue = 1000000000L;
+		long secondTimerValue = 1323000000L;
+		long thirdTimerValue = 1881000000L;
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue);
 
 		RegisteredSensorConfig removingRsc = mock(RegisteredSensorConfig.class);
 		MethodSensorTypeConfig exceptionSensorConfig = mock(MethodSensorTypeConfig.class);
@@ -527,7 +767,7 @@ public class InvocationSequenceHookTest extends TestBase {
 		invocationSequenceHook.firstAfterBody(methodId1, sensorTypeId, object, parameters, result, rsc);
 		invocationSequenceHook.secondAfterBody(coreService, methodId1, sensorTypeId, object, parameters, result, rsc);
 
-		verify(timer, times(3)).getCurrentTime();
+		verify(timer, times(3)).getCurrentNanoTime();
 		ArgumentCaptor<InvocationSequenceData> captor = ArgumentCaptor.forClass(InvocationSequenceData.class);
 		verify(coreService, times(1)).addMethodSensorData(eq(sensorTypeId), eq(methodId1), Matchers.<String> anyObject(), captor.capture());
 
@@ -535,7 +775,7 @@ public class InvocationSequenceHookTest extends TestBase {
 		assertThat(invocation.getPlatformIdent(), is(platformId));
 		assertThat(invocation.getMethodIdent(), is(methodId1));
 		assertThat(invocation.getSensorTypeIdent(), is(sensorTypeId));
-		assertThat(invocation.getDuration(), is(thirdTimerValue - firstTimerValue));
+		assertThat(invocation.getDuration(), is(Timer.toMillis(thirdTimerValue - firstTimerValue)));
 		assertThat(invocation.getNestedSequences(), hasSize(0));
 		assertThat(invocation.getChildCount(), is(0L));
 
@@ -557,11 +797,11 @@ public class InvocationSequenceHookTest extends TestBase {
 
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
-		double firstTimerValue = 1000.0d;
-		double secondTimerValue = 1323.0d;
-		double thirdTimerValue = 1881.0d;
-		double fourthTimerValue = 2562.0d;
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue, fourthTimerValue);
+		long firstTimerValue = 1000000000L;
+		long secondTimerValue = 1323000000L;
+		long thirdTimerValue = 1881000000L;
+		long fourthTimerValue = 2562000000L;
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue, fourthTimerValue);
 
 		RegisteredSensorConfig removingRsc = mock(RegisteredSensorConfig.class);
 		MethodSensorTypeConfig exceptionSensorConfig = mock(MethodSensorTypeConfig.class);
@@ -582,7 +822,7 @@ public class InvocationSequenceHookTest extends TestBase {
 		invocationSequenceHook.firstAfterBody(methodId1, sensorTypeId, object, parameters, result, rsc);
 		invocationSequenceHook.secondAfterBody(coreService, methodId1, sensorTypeId, object, parameters, result, rsc);
 
-		verify(timer, times(4)).getCurrentTime();
+		verify(timer, times(4)).getCurrentNanoTime();
 		ArgumentCaptor<InvocationSequenceData> captor = ArgumentCaptor.forClass(InvocationSequenceData.class);
 		verify(coreService, times(1)).addMethodSensorData(eq(sensorTypeId), eq(methodId1), Matchers.<String> anyObject(), captor.capture());
 
@@ -590,14 +830,14 @@ public class InvocationSequenceHookTest extends TestBase {
 		assertThat(invocation.getPlatformIdent(), is(platformId));
 		assertThat(invocation.getMethodIdent(), is(methodId1));
 		assertThat(invocation.getSensorTypeIdent(), is(sensorTypeId));
-		assertThat(invocation.getDuration(), is(fourthTimerValue - firstTimerValue));
+		assertThat(invocation.getDuration(), is(Timer.toMillis(fourthTimerValue - firstTimerValue)));
 		assertThat(invocation.getNestedSequences(), hasSize(1));
 		assertThat(invocation.getChildCount(), is(1L));
 		InvocationSequenceData child = invocation.getNestedSequences().iterator().next();
 		assertThat(child.getPlatformIdent(), is(platformId));
 		assertThat(child.getMethodIdent(), is(methodId2));
 		assertThat(child.getSensorTypeIdent(), is(sensorTypeId));
-		assertThat(child.getDuration(), is(thirdTimerValue - secondTimerValue));
+		assertThat(child.getDuration(), is(Timer.toMillis(thirdTimerValue - secondTimerValue)));
 		assertThat(child.getNestedSequences(), is(empty()));
 		assertThat(child.getParentSequence(), is(invocation));
 		assertThat(child.getChildCount(), is(0L));
@@ -621,10 +861,10 @@ public class InvocationSequenceHookTest extends TestBase {
 
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
-		double firstTimerValue = 1000.0d;
-		double secondTimerValue = 1323.0d;
-		double thirdTimerValue = 1881.0d;
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue);
+		long firstTimerValue = 1000000000L;
+		long secondTimerValue = 1323000000L;
+		long thirdTimerValue = 1881000000L;
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue);
 
 		RegisteredSensorConfig removingRsc = mock(RegisteredSensorConfig.class);
 		MethodSensorTypeConfig sqlSensorConfig = mock(MethodSensorTypeConfig.class);
@@ -641,7 +881,7 @@ public class InvocationSequenceHookTest extends TestBase {
 		invocationSequenceHook.firstAfterBody(methodId1, sensorTypeId, object, parameters, result, rsc);
 		invocationSequenceHook.secondAfterBody(coreService, methodId1, sensorTypeId, object, parameters, result, rsc);
 
-		verify(timer, times(3)).getCurrentTime();
+		verify(timer, times(3)).getCurrentNanoTime();
 		ArgumentCaptor<InvocationSequenceData> captor = ArgumentCaptor.forClass(InvocationSequenceData.class);
 		verify(coreService, times(1)).addMethodSensorData(eq(sensorTypeId), eq(methodId1), Matchers.<String> anyObject(), captor.capture());
 
@@ -649,7 +889,7 @@ public class InvocationSequenceHookTest extends TestBase {
 		assertThat(invocation.getPlatformIdent(), is(platformId));
 		assertThat(invocation.getMethodIdent(), is(methodId1));
 		assertThat(invocation.getSensorTypeIdent(), is(sensorTypeId));
-		assertThat(invocation.getDuration(), is(thirdTimerValue - firstTimerValue));
+		assertThat(invocation.getDuration(), is(Timer.toMillis(thirdTimerValue - firstTimerValue)));
 		assertThat(invocation.getNestedSequences(), hasSize(0));
 		assertThat(invocation.getChildCount(), is(0L));
 
@@ -671,11 +911,11 @@ public class InvocationSequenceHookTest extends TestBase {
 
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
-		double firstTimerValue = 1000.0d;
-		double secondTimerValue = 1323.0d;
-		double thirdTimerValue = 1881.0d;
-		double fourthTimerValue = 2562.0d;
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue, fourthTimerValue);
+		long firstTimerValue = 1000000000L;
+		long secondTimerValue = 1323000000L;
+		long thirdTimerValue = 1881000000L;
+		long fourthTimerValue = 2562000000L;
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue, fourthTimerValue);
 
 		RegisteredSensorConfig removingRsc = mock(RegisteredSensorConfig.class);
 		MethodSensorTypeConfig sqlSensorConfig = mock(MethodSensorTypeConfig.class);
@@ -697,7 +937,7 @@ public class InvocationSequenceHookTest extends TestBase {
 		invocationSequenceHook.firstAfterBody(methodId1, sensorTypeId, object, parameters, result, rsc);
 		invocationSequenceHook.secondAfterBody(coreService, methodId1, sensorTypeId, object, parameters, result, rsc);
 
-		verify(timer, times(4)).getCurrentTime();
+		verify(timer, times(4)).getCurrentNanoTime();
 		ArgumentCaptor<InvocationSequenceData> captor = ArgumentCaptor.forClass(InvocationSequenceData.class);
 		verify(coreService, times(1)).addMethodSensorData(eq(sensorTypeId), eq(methodId1), Matchers.<String> anyObject(), captor.capture());
 
@@ -705,14 +945,14 @@ public class InvocationSequenceHookTest extends TestBase {
 		assertThat(invocation.getPlatformIdent(), is(platformId));
 		assertThat(invocation.getMethodIdent(), is(methodId1));
 		assertThat(invocation.getSensorTypeIdent(), is(sensorTypeId));
-		assertThat(invocation.getDuration(), is(fourthTimerValue - firstTimerValue));
+		assertThat(invocation.getDuration(), is(Timer.toMillis(fourthTimerValue - firstTimerValue)));
 		assertThat(invocation.getNestedSequences(), hasSize(1));
 		assertThat(invocation.getChildCount(), is(1L));
 		InvocationSequenceData child = invocation.getNestedSequences().iterator().next();
 		assertThat(child.getPlatformIdent(), is(platformId));
 		assertThat(child.getMethodIdent(), is(methodId2));
 		assertThat(child.getSensorTypeIdent(), is(sensorTypeId));
-		assertThat(child.getDuration(), is(thirdTimerValue - secondTimerValue));
+		assertThat(child.getDuration(), is(Timer.toMillis(thirdTimerValue - secondTimerValue)));
 		assertThat(child.getNestedSequences(), is(empty()));
 		assertThat(child.getParentSequence(), is(invocation));
 		assertThat(child.getChildCount(), is(0L));
@@ -736,10 +976,10 @@ public class InvocationSequenceHookTest extends TestBase {
 
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
-		double firstTimerValue = 1000.0d;
-		double secondTimerValue = 1323.0d;
-		double thirdTimerValue = 1881.0d;
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue);
+		long firstTimerValue = 1000000000L;
+		long secondTimerValue = 1323000000L;
+		long thirdTimerValue = 1881000000L;
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue);
 
 		RegisteredSensorConfig removingRsc = mock(RegisteredSensorConfig.class);
 		MethodSensorTypeConfig logSensorConfig = mock(MethodSensorTypeConfig.class);
@@ -756,7 +996,7 @@ public class InvocationSequenceHookTest extends TestBase {
 		invocationSequenceHook.firstAfterBody(methodId1, sensorTypeId, object, parameters, result, rsc);
 		invocationSequenceHook.secondAfterBody(coreService, methodId1, sensorTypeId, object, parameters, result, rsc);
 
-		verify(timer, times(3)).getCurrentTime();
+		verify(timer, times(3)).getCurrentNanoTime();
 		ArgumentCaptor<InvocationSequenceData> captor = ArgumentCaptor.forClass(InvocationSequenceData.class);
 		verify(coreService, times(1)).addMethodSensorData(eq(sensorTypeId), eq(methodId1), Matchers.<String> anyObject(), captor.capture());
 
@@ -764,7 +1004,7 @@ public class InvocationSequenceHookTest extends TestBase {
 		assertThat(invocation.getPlatformIdent(), is(platformId));
 		assertThat(invocation.getMethodIdent(), is(methodId1));
 		assertThat(invocation.getSensorTypeIdent(), is(sensorTypeId));
-		assertThat(invocation.getDuration(), is(thirdTimerValue - firstTimerValue));
+		assertThat(invocation.getDuration(), is(Timer.toMillis(thirdTimerValue - firstTimerValue)));
 		assertThat(invocation.getNestedSequences(), hasSize(0));
 		assertThat(invocation.getChildCount(), is(0L));
 
@@ -786,11 +1026,11 @@ public class InvocationSequenceHookTest extends TestBase {
 
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
-		double firstTimerValue = 1000.0d;
-		double secondTimerValue = 1323.0d;
-		double thirdTimerValue = 1881.0d;
-		double fourthTimerValue = 2562.0d;
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue, fourthTimerValue);
+		long firstTimerValue = 1000000000L;
+		long secondTimerValue = 1323000000L;
+		long thirdTimerValue = 1881000000L;
+		long fourthTimerValue = 2562000000L;
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue, fourthTimerValue);
 
 		RegisteredSensorConfig removingRsc = mock(RegisteredSensorConfig.class);
 		MethodSensorTypeConfig logSensorConfig = mock(MethodSensorTypeConfig.class);
@@ -811,7 +1051,7 @@ public class InvocationSequenceHookTest extends TestBase {
 		invocationSequenceHook.firstAfterBody(methodId1, sensorTypeId, object, parameters, result, rsc);
 		invocationSequenceHook.secondAfterBody(coreService, methodId1, sensorTypeId, object, parameters, result, rsc);
 
-		verify(timer, times(4)).getCurrentTime();
+		verify(timer, times(4)).getCurrentNanoTime();
 		ArgumentCaptor<InvocationSequenceData> captor = ArgumentCaptor.forClass(InvocationSequenceData.class);
 		verify(coreService, times(1)).addMethodSensorData(eq(sensorTypeId), eq(methodId1), Matchers.<String> anyObject(), captor.capture());
 
@@ -819,14 +1059,14 @@ public class InvocationSequenceHookTest extends TestBase {
 		assertThat(invocation.getPlatformIdent(), is(platformId));
 		assertThat(invocation.getMethodIdent(), is(methodId1));
 		assertThat(invocation.getSensorTypeIdent(), is(sensorTypeId));
-		assertThat(invocation.getDuration(), is(fourthTimerValue - firstTimerValue));
+		assertThat(invocation.getDuration(), is(Timer.toMillis(fourthTimerValue - firstTimerValue)));
 		assertThat(invocation.getNestedSequences(), hasSize(1));
 		assertThat(invocation.getChildCount(), is(1L));
 		InvocationSequenceData child = invocation.getNestedSequences().iterator().next();
 		assertThat(child.getPlatformIdent(), is(platformId));
 		assertThat(child.getMethodIdent(), is(methodId2));
 		assertThat(child.getSensorTypeIdent(), is(sensorTypeId));
-		assertThat(child.getDuration(), is(thirdTimerValue - secondTimerValue));
+		assertThat(child.getDuration(), is(Timer.toMillis(thirdTimerValue - secondTimerValue)));
 		assertThat(child.getNestedSequences(), is(empty()));
 		assertThat(child.getParentSequence(), is(invocation));
 		assertThat(child.getChildCount(), is(0L));
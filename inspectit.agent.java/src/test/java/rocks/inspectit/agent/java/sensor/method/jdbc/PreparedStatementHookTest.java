@@ -35,6 +35,9 @@ public class PreparedStatementHookTest extends AbstractLogSupport {
 	@Mock
 	private StatementReflectionCache statementReflectionCache;
 
+	@Mock
+	private SqlStatementDictionary sqlStatementDictionary;
+
 	@Mock
 	private Map<String, Object> parameter;
 
@@ -48,7 +51,7 @@ public class PreparedStatementHookTest extends AbstractLogSupport {
 
 	@Test
 	public void exceptionLoggingTest() {
-		PreparedStatementHook hook = new PreparedStatementHook(timer, platformManager, statementStorage, connectionMetaDataStorage, statementReflectionCache, parameter);
+		PreparedStatementHook hook = new PreparedStatementHook(timer, platformManager, statementStorage, connectionMetaDataStorage, statementReflectionCache, sqlStatementDictionary, parameter);
 		hook.log = log;
 
 		// Throwing the same exception a few times... (as statement storage always raises the
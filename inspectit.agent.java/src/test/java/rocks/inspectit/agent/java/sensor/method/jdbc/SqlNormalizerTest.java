@@ -0,0 +1,136 @@
+package rocks.inspectit.agent.java.sensor.method.jdbc;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests the {@link SqlNormalizer}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class SqlNormalizerTest extends TestBase {
+
+	SqlNormalizer normalizer;
+
+	@BeforeMethod
+	public void init() {
+		normalizer = new SqlNormalizer();
+	}
+
+	public class Normalize extends SqlNormalizerTest {
+
+		@Test
+		public void noLiterals() {
+			String sql = "SELECT * FROM TEST WHERE ID = ?";
+
+			String normalized = normalizer.normalize(sql);
+
+			assertThat(normalized, is(sameInstance(sql)));
+		}
+
+		@Test
+		public void stringLiteral() {
+			String normalized = normalizer.normalize("SELECT * FROM TEST WHERE NAME = 'O''Brien' AND CITY='Stuttgart'");
+
+			assertThat(normalized, is("SELECT * FROM TEST WHERE NAME = ? AND CITY=?"));
+		}
+
+		@Test
+		public void backslashEscapedQuote() {
+			String normalized = normalizer.normalize("SELECT * FROM TEST WHERE A = 'it\\'s' AND B=1");
+
+			assertThat(normalized, is("SELECT * FROM TEST WHERE A = ? AND B=?"));
+		}
+
+		@Test
+		public void trailingBackslash() {
+			String normalized = normalizer.normalize("SELECT * FROM TEST WHERE PATH = 'C:\\'");
+
+			assertThat(normalized, is("SELECT * FROM TEST WHERE PATH = ?"));
+		}
+
+		@Test
+		public void numberedBindVariables() {
+			String sql = "SELECT * FROM TEST WHERE A = :1 AND B IN (:2, :3)";
+
+			String normalized = normalizer.normalize(sql);
+
+			assertThat(normalized, is(sameInstance(sql)));
+		}
+
+		@Test
+		public void numericLiteral() {
+			String normalized = normalizer.normalize("SELECT * FROM TEST WHERE A = 1 AND B=-1.5e10 AND C = .5 AND D = 0xFF");
+
+			assertThat(normalized, is("SELECT * FROM TEST WHERE A = ? AND B=-? AND C = ? AND D = ?"));
+		}
+
+		@Test
+		public void identifiersWithDigits() {
+			String sql = "SELECT t1.col2 FROM table3 t1";
+
+			String normalized = normalizer.normalize(sql);
+
+			assertThat(normalized, is(sameInstance(sql)));
+		}
+
+		@Test
+		public void quotedIdentifiers() {
+			String normalized = normalizer.normalize("SELECT \"col'1\", `x2` FROM TEST WHERE A = 1");
+
+			assertThat(normalized, is("SELECT \"col'1\", `x2` FROM TEST WHERE A = ?"));
+		}
+
+		@Test
+		public void comments() {
+			String normalized = normalizer.normalize("SELECT * FROM TEST -- ID = 5\nWHERE A = 1 /* B = 2 */");
+
+			assertThat(normalized, is("SELECT * FROM TEST -- ID = 5\nWHERE A = ? /* B = 2 */"));
+		}
+
+		@Test
+		public void inList() {
+			String normalized = normalizer.normalize("SELECT * FROM TEST WHERE A IN (1, 2, 3) AND B in('a','b') AND C IN (?, ?)");
+
+			assertThat(normalized, is("SELECT * FROM TEST WHERE A IN (?) AND B in(?) AND C IN (?)"));
+		}
+
+		@Test
+		public void inSubSelect() {
+			String normalized = normalizer.normalize("SELECT * FROM TEST WHERE A IN (SELECT ID FROM OTHER WHERE B = 1)");
+
+			assertThat(normalized, is("SELECT * FROM TEST WHERE A IN (SELECT ID FROM OTHER WHERE B = ?)"));
+		}
+
+		@Test
+		public void notInKeyword() {
+			String normalized = normalizer.normalize("SELECT MIN(1, 2) FROM TEST");
+
+			assertThat(normalized, is("SELECT MIN(?, ?) FROM TEST"));
+		}
+
+		@Test
+		public void notClosedLiteral() {
+			String normalized = normalizer.normalize("SELECT * FROM TEST WHERE A = 'abc");
+
+			assertThat(normalized, is("SELECT * FROM TEST WHERE A = ?"));
+		}
+
+		@Test
+		public void cached() {
+			String first = normalizer.normalize(new String("SELECT * FROM TEST WHERE A = 1"));
+			String second = normalizer.normalize(new String("SELECT * FROM TEST WHERE A = 1"));
+
+			assertThat(second, is(sameInstance(first)));
+		}
+	}
+
+}
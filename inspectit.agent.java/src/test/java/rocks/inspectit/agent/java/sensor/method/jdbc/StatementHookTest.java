@@ -1,5 +1,9 @@
 package rocks.inspectit.agent.java.sensor.method.jdbc;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
@@ -15,9 +19,12 @@ import static org.mockito.Mockito.when;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.testng.annotations.BeforeMethod;
@@ -57,14 +64,17 @@ public class StatementHookTest extends AbstractLogSupport {
 	@Mock
 	private StatementReflectionCache statementReflectionCache;
 
+	private SqlStatementDictionary sqlStatementDictionary;
+
 	private StatementHook statementHook;
 
 	private StatementHook statementHook2;
 
 	@BeforeMethod
 	public void initTestClass() {
-		statementHook = new StatementHook(timer, platformManager, connectionMetaDataStorage, statementReflectionCache, parameter);
-		statementHook2 = new StatementHook(timer, platformManager, connectionMetaDataStorage, statementReflectionCache, parameter);
+		sqlStatementDictionary = new SqlStatementDictionary();
+		statementHook = new StatementHook(timer, platformManager, connectionMetaDataStorage, statementReflectionCache, sqlStatementDictionary, parameter);
+		statementHook2 = new StatementHook(timer, platformManager, connectionMetaDataStorage, statementReflectionCache, sqlStatementDictionary, parameter);
 
 		List<String> list = new ArrayList<String>();
 		list.add("java.lang.String");
@@ -82,17 +92,17 @@ public class StatementHookTest extends AbstractLogSupport {
 		parameters[0] = "SELECT * FROM TEST";
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
 		statementHook.beforeBody(methodId, sensorTypeId, object, parameters, registeredSensorConfig);
-		verify(timer, times(1)).getCurrentTime();
+		verify(timer, times(1)).getCurrentNanoTime();
 
 		statementHook.firstAfterBody(methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
-		verify(timer, times(2)).getCurrentTime();
+		verify(timer, times(2)).getCurrentNanoTime();
 
 		statementHook.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
 		verify(platformManager).getPlatformId();
@@ -117,23 +127,23 @@ public class StatementHookTest extends AbstractLogSupport {
 		parameters[0] = "SELECT * FROM TEST";
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
 		statementHook.beforeBody(methodId, sensorTypeId, object, parameters, registeredSensorConfig);
-		verify(timer, times(1)).getCurrentTime();
+		verify(timer, times(1)).getCurrentNanoTime();
 
 		statementHook2.beforeBody(methodId, sensorTypeId, object, parameters, registeredSensorConfig);
-		verify(timer, times(2)).getCurrentTime();
+		verify(timer, times(2)).getCurrentNanoTime();
 		statementHook2.firstAfterBody(methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
-		verify(timer, times(3)).getCurrentTime();
+		verify(timer, times(3)).getCurrentNanoTime();
 		statementHook2.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
 
 		statementHook.firstAfterBody(methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
-		verify(timer, times(4)).getCurrentTime();
+		verify(timer, times(4)).getCurrentNanoTime();
 
 		statementHook.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
 
@@ -148,6 +158,80 @@ public class StatementHookTest extends AbstractLogSupport {
 		verifyNoMoreInteractions(timer, platformManager, coreService, registeredSensorConfig);
 	}
 
+	@Test
+	public void sqlSentUntilDataSent() throws IdNotAvailableException {
+		long platformId = 1L;
+		long methodId = 3L;
+		long sensorTypeId = 11L;
+		Object object = mock(Object.class);
+		Object[] parameters = new Object[] { "SELECT * FROM TEST" };
+
+		when(timer.getCurrentNanoTime()).thenReturn(1000000000L);
+		when(platformManager.getPlatformId()).thenReturn(platformId);
+
+		executeStatement(methodId, sensorTypeId, object, parameters);
+		ArgumentCaptor<MethodSensorData> captor = ArgumentCaptor.forClass(MethodSensorData.class);
+		verify(coreService).addMethodSensorData(eq(sensorTypeId), eq(methodId), eq("SELECT * FROM TEST"), captor.capture());
+		sqlStatementDictionary.dataSent(Collections.singletonList(captor.getValue()));
+		executeStatement(methodId, sensorTypeId, object, parameters);
+
+		verify(coreService, times(2)).addMethodSensorData(eq(sensorTypeId), eq(methodId), eq("SELECT * FROM TEST"), captor.capture());
+		SqlStatementData first = (SqlStatementData) captor.getAllValues().get(0);
+		SqlStatementData second = (SqlStatementData) captor.getAllValues().get(captor.getAllValues().size() - 1);
+		assertThat(first.getSql(), is("SELECT * FROM TEST"));
+		assertThat(first.getSqlId(), is(not(0L)));
+		assertThat(second.getSql(), is(nullValue()));
+		assertThat(second.getSqlId(), is(first.getSqlId()));
+	}
+
+	@Test
+	public void firstDataDropped() throws IdNotAvailableException {
+		long platformId = 1L;
+		long methodId = 3L;
+		long sensorTypeId = 11L;
+		Object object = mock(Object.class);
+		Object[] parameters = new Object[] { "SELECT * FROM TEST" };
+
+		when(timer.getCurrentNanoTime()).thenReturn(1000000000L);
+		when(platformManager.getPlatformId()).thenReturn(platformId);
+
+		// first data object never reaches the connection
+		executeStatement(methodId, sensorTypeId, object, parameters);
+		executeStatement(methodId, sensorTypeId, object, parameters);
+
+		ArgumentCaptor<MethodSensorData> captor = ArgumentCaptor.forClass(MethodSensorData.class);
+		verify(coreService, times(2)).addMethodSensorData(eq(sensorTypeId), eq(methodId), eq("SELECT * FROM TEST"), captor.capture());
+		SqlStatementData first = (SqlStatementData) captor.getAllValues().get(0);
+		SqlStatementData second = (SqlStatementData) captor.getAllValues().get(1);
+		assertThat(second.getSql(), is("SELECT * FROM TEST"));
+		assertThat(second.getSqlId(), is(first.getSqlId()));
+	}
+
+	@Test
+	public void normalizeSql() throws IdNotAvailableException {
+		long platformId = 1L;
+		long methodId = 3L;
+		long sensorTypeId = 11L;
+		Object object = mock(Object.class);
+		Map<String, Object> parameters = new HashMap<String, Object>();
+		parameters.put("normalizeSql", Boolean.TRUE);
+		statementHook = new StatementHook(timer, platformManager, connectionMetaDataStorage, statementReflectionCache, sqlStatementDictionary, parameters);
+
+		when(timer.getCurrentNanoTime()).thenReturn(1000000000L);
+		when(platformManager.getPlatformId()).thenReturn(platformId);
+
+		String[] sqls = new String[] { "SELECT * FROM TEST WHERE ID = 1", "SELECT * FROM TEST WHERE ID = 2" };
+		for (String sql : sqls) {
+			Object[] hookParameters = new Object[] { sql };
+			statementHook.beforeBody(methodId, sensorTypeId, object, hookParameters, registeredSensorConfig);
+			statementHook.firstAfterBody(methodId, sensorTypeId, object, hookParameters, null, registeredSensorConfig);
+			statementHook.secondAfterBody(coreService, methodId, sensorTypeId, object, hookParameters, null, registeredSensorConfig);
+		}
+
+		verify(coreService, times(2)).getMethodSensorData(sensorTypeId, methodId, "SELECT * FROM TEST WHERE ID = ?");
+		verify(coreService, times(2)).addMethodSensorData(eq(sensorTypeId), eq(methodId), eq("SELECT * FROM TEST WHERE ID = ?"), (MethodSensorData) Matchers.anyObject());
+	}
+
 	@Test
 	public void platformIdNotAvailable() throws IdNotAvailableException {
 		// set up data
@@ -158,10 +242,10 @@ public class StatementHookTest extends AbstractLogSupport {
 		parameters[0] = "SELECT * FROM TEST";
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		doThrow(new IdNotAvailableException("")).when(platformManager).getPlatformId();
 
 		statementHook.beforeBody(methodId, sensorTypeId, object, parameters, registeredSensorConfig);
@@ -171,4 +255,10 @@ public class StatementHookTest extends AbstractLogSupport {
 		verify(coreService, never()).addObjectStorage(anyLong(), anyLong(), anyString(), (IObjectStorage) isNull());
 	}
 
+	private void executeStatement(long methodId, long sensorTypeId, Object object, Object[] parameters) {
+		statementHook.beforeBody(methodId, sensorTypeId, object, parameters, registeredSensorConfig);
+		statementHook.firstAfterBody(methodId, sensorTypeId, object, parameters, null, registeredSensorConfig);
+		statementHook.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, null, registeredSensorConfig);
+	}
+
 }
@@ -83,6 +83,7 @@ public class RemoteClientHookTest extends TestBase {
 		SpanImpl spanImpl = mock(SpanImpl.class);
 		when(spanImpl.context()).thenReturn(context);
 		when(spanImpl.isClient()).thenReturn(true);
+		when(spanImpl.isSampled()).thenReturn(true);
 		when(clientInterceptor.handleRequest(requestAdapter)).thenReturn(spanImpl);
 		when(clientInterceptor.handleResponse(spanImpl, responseAdapter)).thenReturn(spanImpl);
 
@@ -131,6 +132,33 @@ public class RemoteClientHookTest extends TestBase {
 		verifyZeroInteractions(coreService);
 	}
 
+	@Test
+	public void notSampled() throws Exception {
+		// ids
+		long methodId = 7l;
+		long sensorId = 13l;
+		// interceptor
+		Object[] parameters = new String[] { "blah", "bla" };
+		doReturn(requestAdapter).when(adapterProvider).getClientRequestAdapter(object, parameters, rsc);
+		doReturn(responseAdapter).when(adapterProvider).getClientResponseAdapter(object, parameters, result, rsc);
+
+		SpanImpl spanImpl = mock(SpanImpl.class);
+		when(spanImpl.isSampled()).thenReturn(false);
+		when(clientInterceptor.handleRequest(requestAdapter)).thenReturn(spanImpl);
+		when(clientInterceptor.handleResponse(spanImpl, responseAdapter)).thenReturn(spanImpl);
+
+		// execute calls
+		hook.beforeBody(methodId, sensorId, object, parameters, rsc);
+		hook.firstAfterBody(methodId, sensorId, object, parameters, result, rsc);
+		hook.secondAfterBody(coreService, methodId, sensorId, object, parameters, result, rsc);
+
+		// span is finished, but not sent
+		verify(clientInterceptor).handleRequest(requestAdapter);
+		verify(clientInterceptor).handleResponse(spanImpl, responseAdapter);
+		verifyNoMoreInteractions(clientInterceptor);
+		verifyZeroInteractions(coreService, platformManager);
+	}
+
 	@Test
 	public void twoCalls() throws Exception {
 		// ids
@@ -149,6 +177,7 @@ public class RemoteClientHookTest extends TestBase {
 		SpanImpl spanImpl = mock(SpanImpl.class);
 		when(spanImpl.context()).thenReturn(context);
 		when(spanImpl.isClient()).thenReturn(true);
+		when(spanImpl.isSampled()).thenReturn(true);
 		when(clientInterceptor.handleRequest(requestAdapter)).thenReturn(spanImpl);
 		when(clientInterceptor.handleResponse(spanImpl, responseAdapter)).thenReturn(spanImpl);
 
@@ -83,6 +83,7 @@ public class RemoteServerHookTest extends TestBase {
 		SpanImpl spanImpl = mock(SpanImpl.class);
 		when(spanImpl.context()).thenReturn(context);
 		when(spanImpl.isClient()).thenReturn(false);
+		when(spanImpl.isSampled()).thenReturn(true);
 		when(serverInterceptor.handleRequest(requestAdapter)).thenReturn(spanImpl);
 		when(serverInterceptor.handleResponse(spanImpl, responseAdapter)).thenReturn(spanImpl);
 
@@ -131,6 +132,33 @@ public class RemoteServerHookTest extends TestBase {
 		verifyZeroInteractions(coreService);
 	}
 
+	@Test
+	public void notSampled() throws Exception {
+		// ids
+		long methodId = 7l;
+		long sensorId = 13l;
+		// interceptor
+		Object[] parameters = new String[] { "blah", "bla" };
+		doReturn(requestAdapter).when(adapterProvider).getServerRequestAdapter(object, parameters, rsc);
+		doReturn(responseAdapter).when(adapterProvider).getServerResponseAdapter(object, parameters, result, rsc);
+
+		SpanImpl spanImpl = mock(SpanImpl.class);
+		when(spanImpl.isSampled()).thenReturn(false);
+		when(serverInterceptor.handleRequest(requestAdapter)).thenReturn(spanImpl);
+		when(serverInterceptor.handleResponse(spanImpl, responseAdapter)).thenReturn(spanImpl);
+
+		// execute calls
+		hook.beforeBody(methodId, sensorId, object, parameters, rsc);
+		hook.firstAfterBody(methodId, sensorId, object, parameters, result, rsc);
+		hook.secondAfterBody(coreService, methodId, sensorId, object, parameters, result, rsc);
+
+		// span is finished, but not sent
+		verify(serverInterceptor).handleRequest(requestAdapter);
+		verify(serverInterceptor).handleResponse(spanImpl, responseAdapter);
+		verifyNoMoreInteractions(serverInterceptor);
+		verifyZeroInteractions(coreService, platformManager);
+	}
+
 	@Test
 	public void twoCalls() throws Exception {
 		// ids
@@ -150,6 +178,7 @@ public class RemoteServerHookTest extends TestBase {
 		SpanImpl spanImpl = mock(SpanImpl.class);
 		when(spanImpl.context()).thenReturn(context);
 		when(spanImpl.isClient()).thenReturn(false);
+		when(spanImpl.isSampled()).thenReturn(true);
 		when(serverInterceptor.handleRequest(requestAdapter)).thenReturn(spanImpl);
 		when(serverInterceptor.handleResponse(spanImpl, responseAdapter)).thenReturn(spanImpl);
 
@@ -0,0 +1,135 @@
+package rocks.inspectit.agent.java.sensor.method.timer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.sql.Timestamp;
+import java.util.concurrent.CountDownLatch;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.communication.data.TimerData;
+
+@SuppressWarnings("PMD")
+public class StripedTimerStorageTest {
+
+	StripedTimerStorage storage;
+
+	@BeforeMethod
+	public void init() {
+		storage = new StripedTimerStorage(new Timestamp(System.currentTimeMillis()), 1L, 2L, 3L, null, true);
+	}
+
+	public class AddData extends StripedTimerStorageTest {
+
+		@Test
+		public void noData() {
+			TimerData timerData = (TimerData) storage.finalizeDataObject();
+
+			assertThat(timerData.getCount(), is(0L));
+			assertThat(timerData.isCpuMetricDataAvailable(), is(false));
+			assertThat(timerData.isCharting(), is(true));
+		}
+
+		@Test
+		public void timeAndCpuTime() {
+			storage.addData(10000000L, 5000000L);
+			storage.addData(20000000L, 1000000L);
+			storage.addData(30000000L, 3000000L);
+
+			TimerData timerData = (TimerData) storage.finalizeDataObject();
+
+			assertThat(timerData.getPlatformIdent(), is(1L));
+			assertThat(timerData.getSensorTypeIdent(), is(2L));
+			assertThat(timerData.getMethodIdent(), is(3L));
+			assertThat(timerData.getCount(), is(3L));
+			assertThat(timerData.getDuration(), is(60d));
+			assertThat(timerData.getMin(), is(10d));
+			assertThat(timerData.getMax(), is(30d));
+			assertThat(timerData.getCpuDuration(), is(9d));
+			assertThat(timerData.getCpuMin(), is(1d));
+			assertThat(timerData.getCpuMax(), is(5d));
+		}
+
+		@Test
+		public void negativeCpuTimeIgnored() {
+			storage.addData(10000000L, -1L);
+
+			TimerData timerData = (TimerData) storage.finalizeDataObject();
+
+			assertThat(timerData.getCount(), is(1L));
+			assertThat(timerData.getDuration(), is(10d));
+			assertThat(timerData.isCpuMetricDataAvailable(), is(false));
+		}
+
+		@Test
+		public void finalizeTwice() {
+			storage.addData(10000000L, 5000000L);
+			storage.finalizeDataObject();
+
+			TimerData timerData = (TimerData) storage.finalizeDataObject();
+
+			assertThat(timerData.getCount(), is(1L));
+			assertThat(timerData.getDuration(), is(10d));
+			assertThat(timerData.getCpuDuration(), is(5d));
+		}
+
+		@Test
+		public void concurrentThreads() throws InterruptedException {
+			final int threads = 8;
+			final int additions = 10000;
+			final CountDownLatch start = new CountDownLatch(1);
+			Thread[] workers = new Thread[threads];
+			for (int i = 0; i < threads; i++) {
+				// milliseconds in nanoseconds
+				final long time = (i + 1) * 1000000L;
+				workers[i] = new Thread() {
+					@Override
+					public void run() {
+						try {
+							start.await();
+						} catch (InterruptedException e) {
+							return;
+						}
+						for (int j = 0; j < additions; j++) {
+							storage.addData(time, time);
+						}
+					}
+				};
+				workers[i].start();
+			}
+			start.countDown();
+			for (Thread worker : workers) {
+				worker.join();
+			}
+
+			TimerData timerData = (TimerData) storage.finalizeDataObject();
+
+			assertThat(timerData.getCount(), is((long) threads * additions));
+			assertThat(timerData.getDuration(), is((double) ((threads * (threads + 1)) / 2) * additions));
+			assertThat(timerData.getCpuDuration(), is((double) ((threads * (threads + 1)) / 2) * additions));
+			assertThat(timerData.getMin(), is(1d));
+			assertThat(timerData.getMax(), is((double) threads));
+		}
+	}
+
+	public class Cells extends StripedTimerStorageTest {
+
+		@Test
+		public void cellCount() {
+			assertThat(StripedTimerStorage.cellCount(1), is(2));
+			assertThat(StripedTimerStorage.cellCount(3), is(8));
+			assertThat(StripedTimerStorage.cellCount(4), is(8));
+			assertThat(StripedTimerStorage.cellCount(1000), is(64));
+		}
+
+		@Test
+		public void cellIndexInRange() {
+			for (long threadId = 0; threadId < 1000; threadId++) {
+				assertThat(StripedTimerStorage.cellIndex(threadId), is(lessThan(StripedTimerStorage.CELLS)));
+			}
+		}
+	}
+}
@@ -86,21 +86,21 @@ public class TimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.0d;
-		Double secondTimerValue = 1323.0d;
-		Double thirdTimerValue = 1894.0d;
-		Double fourthTimerValue = 2812.0d;
+		Long firstTimerValue = 1000000000L;
+		Long secondTimerValue = 1323000000L;
+		Long thirdTimerValue = 1894000000L;
+		Long fourthTimerValue = 2812000000L;
 
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue).thenReturn(thirdTimerValue).thenReturn(fourthTimerValue);
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue).thenReturn(thirdTimerValue).thenReturn(fourthTimerValue);
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 		when(registeredSensorConfig.getSettings()).thenReturn(Collections.<String, Object> singletonMap("charting", Boolean.TRUE));
 
 		// First call
 		timerHook.beforeBody(methodId, sensorTypeId, object, parameters, registeredSensorConfig);
-		verify(timer, times(1)).getCurrentTime();
+		verify(timer, times(1)).getCurrentNanoTime();
 
 		timerHook.firstAfterBody(methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
-		verify(timer, times(2)).getCurrentTime();
+		verify(timer, times(2)).getCurrentNanoTime();
 
 		timerHook.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
 		verify(platformManager).getPlatformId();
@@ -108,15 +108,15 @@ public class TimerHookTest extends AbstractLogSupport {
 		verify(registeredSensorConfig).isPropertyAccess();
 
 		PlainTimerStorage plainTimerStorage = new PlainTimerStorage(null, platformId, sensorTypeId, methodId, null, true);
-		plainTimerStorage.addData(secondTimerValue - firstTimerValue, 0.0d);
+		plainTimerStorage.addData(secondTimerValue - firstTimerValue, 0L);
 		verify(coreService).addObjectStorage(eq(sensorTypeId), eq(methodId), (String) eq(null), argThat(new PlainTimerStorageVerifier(plainTimerStorage)));
 
 		// second one
 		timerHook.beforeBody(methodId, sensorTypeId, object, parameters, registeredSensorConfig);
-		verify(timer, times(3)).getCurrentTime();
+		verify(timer, times(3)).getCurrentNanoTime();
 
 		timerHook.firstAfterBody(methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
-		verify(timer, times(4)).getCurrentTime();
+		verify(timer, times(4)).getCurrentNanoTime();
 
 		when(coreService.getObjectStorage(sensorTypeId, methodId, null)).thenReturn(plainTimerStorage);
 		timerHook.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
@@ -178,10 +178,10 @@ public class TimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		doThrow(new IdNotAvailableException("")).when(platformManager).getPlatformId();
 
 		timerHook.beforeBody(methodId, sensorTypeId, object, parameters, registeredSensorConfig);
@@ -201,10 +201,10 @@ public class TimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[2];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 		when(registeredSensorConfig.isPropertyAccess()).thenReturn(true);
 
@@ -226,10 +226,10 @@ public class TimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[2];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 		when(registeredSensorConfig.getSettings()).thenReturn(Collections.<String, Object> singletonMap("charting", Boolean.TRUE));
 
@@ -259,19 +259,19 @@ public class TimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
 		when(registeredSensorConfig.getSettings()).thenReturn(Collections.<String, Object> singletonMap("charting", Boolean.TRUE));
 
 		timerHook.beforeBody(methodId, sensorTypeId, object, parameters, registeredSensorConfig);
-		verify(timer, times(1)).getCurrentTime();
+		verify(timer, times(1)).getCurrentNanoTime();
 
 		timerHook.firstAfterBody(methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
-		verify(timer, times(2)).getCurrentTime();
+		verify(timer, times(2)).getCurrentNanoTime();
 
 		timerHook.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
 		verify(platformManager).getPlatformId();
@@ -280,7 +280,7 @@ public class TimerHookTest extends AbstractLogSupport {
 		verify(registeredSensorConfig).getSettings();
 
 		AggregateTimerStorage aggregateTimerStorage = new AggregateTimerStorage(null, platformId, sensorTypeId, methodId, null, true);
-		aggregateTimerStorage.addData(secondTimerValue - firstTimerValue, -1.0d);
+		aggregateTimerStorage.addData(secondTimerValue - firstTimerValue, -1L);
 		verify(coreService).addObjectStorage(eq(sensorTypeId), eq(methodId), (String) eq(null), argThat(new AggregateTimerStorageVerifier(aggregateTimerStorage)));
 
 		verifyNoMoreInteractions(timer, platformManager, coreService, registeredSensorConfig);
@@ -341,19 +341,19 @@ public class TimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
 		when(registeredSensorConfig.getSettings()).thenReturn(Collections.<String, Object> singletonMap("charting", Boolean.TRUE));
 
 		timerHook.beforeBody(methodId, sensorTypeId, object, parameters, registeredSensorConfig);
-		verify(timer, times(1)).getCurrentTime();
+		verify(timer, times(1)).getCurrentNanoTime();
 
 		timerHook.firstAfterBody(methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
-		verify(timer, times(2)).getCurrentTime();
+		verify(timer, times(2)).getCurrentNanoTime();
 
 		timerHook.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
 		verify(platformManager).getPlatformId();
@@ -362,7 +362,7 @@ public class TimerHookTest extends AbstractLogSupport {
 		verify(registeredSensorConfig).getSettings();
 
 		OptimizedTimerStorage optimizedTimerStorage = new OptimizedTimerStorage(null, platformId, sensorTypeId, methodId, null, true);
-		optimizedTimerStorage.addData(secondTimerValue - firstTimerValue, -1.0d);
+		optimizedTimerStorage.addData(secondTimerValue - firstTimerValue, -1L);
 		verify(coreService).addObjectStorage(eq(sensorTypeId), eq(methodId), (String) eq(null), argThat(new OptimizedTimerStorageVerifier(optimizedTimerStorage)));
 
 		verifyNoMoreInteractions(timer, platformManager, coreService, registeredSensorConfig);
@@ -421,23 +421,23 @@ public class TimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		Long firstCpuTimerValue = 5000L;
 		Long secondCpuTimerValue = 6872L;
 
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(threadMXBean.getCurrentThreadCpuTime()).thenReturn(firstCpuTimerValue).thenReturn(secondCpuTimerValue);
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
 		when(registeredSensorConfig.getSettings()).thenReturn(Collections.<String, Object> singletonMap("charting", Boolean.TRUE));
 
 		timerHook.beforeBody(methodId, sensorTypeId, object, parameters, registeredSensorConfig);
-		verify(timer, times(1)).getCurrentTime();
+		verify(timer, times(1)).getCurrentNanoTime();
 
 		timerHook.firstAfterBody(methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
-		verify(timer, times(2)).getCurrentTime();
+		verify(timer, times(2)).getCurrentNanoTime();
 
 		timerHook.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
 		verify(platformManager).getPlatformId();
@@ -446,7 +446,7 @@ public class TimerHookTest extends AbstractLogSupport {
 		verify(registeredSensorConfig).getSettings();
 
 		PlainTimerStorage plainTimerStorage = new PlainTimerStorage(null, platformId, sensorTypeId, methodId, null, true);
-		plainTimerStorage.addData(secondTimerValue - firstTimerValue, (secondCpuTimerValue - firstCpuTimerValue) / 1000000.0d);
+		plainTimerStorage.addData(secondTimerValue - firstTimerValue, secondCpuTimerValue - firstCpuTimerValue);
 		verify(coreService).addObjectStorage(eq(sensorTypeId), eq(methodId), (String) eq(null), argThat(new PlainTimerStorageVerifier(plainTimerStorage)));
 
 		verifyNoMoreInteractions(timer, platformManager, coreService, registeredSensorConfig);
@@ -463,17 +463,17 @@ public class TimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
-		Double thirdTimerValue = 1578.92d;
-		Double fourthTimerValue = 2319.712d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
+		Long thirdTimerValue = 1578920000L;
+		Long fourthTimerValue = 2319712000L;
 
 		Long firstCpuTimerValue = 5000L;
 		Long secondCpuTimerValue = 6872L;
 		Long thirdCpuTimerValue = 8412L;
 		Long fourthCpuTimerValue = 15932L;
 
-		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue).thenReturn(thirdTimerValue).thenReturn(fourthTimerValue);
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue).thenReturn(thirdTimerValue).thenReturn(fourthTimerValue);
 		when(threadMXBean.getCurrentThreadCpuTime()).thenReturn(firstCpuTimerValue).thenReturn(secondCpuTimerValue).thenReturn(thirdCpuTimerValue).thenReturn(fourthCpuTimerValue);
 		when(platformManager.getPlatformId()).thenReturn(platformId);
 
@@ -483,14 +483,44 @@ public class TimerHookTest extends AbstractLogSupport {
 		timerHook.firstAfterBody(methodIdTwo, sensorTypeId, object, parameters, result, registeredSensorConfig);
 		timerHook.secondAfterBody(coreService, methodIdTwo, sensorTypeId, object, parameters, result, registeredSensorConfig);
 		PlainTimerStorage plainTimerStorageTwo = new PlainTimerStorage(null, platformId, sensorTypeId, methodIdTwo, null, true);
-		plainTimerStorageTwo.addData(thirdTimerValue - secondTimerValue, (thirdCpuTimerValue - secondCpuTimerValue) / 1000000.0d);
+		plainTimerStorageTwo.addData(thirdTimerValue - secondTimerValue, thirdCpuTimerValue - secondCpuTimerValue);
 		verify(coreService).addObjectStorage(eq(sensorTypeId), eq(methodIdTwo), (String) eq(null), argThat(new PlainTimerStorageVerifier(plainTimerStorageTwo)));
 
 		timerHook.firstAfterBody(methodIdOne, sensorTypeId, object, parameters, result, registeredSensorConfig);
 		timerHook.secondAfterBody(coreService, methodIdOne, sensorTypeId, object, parameters, result, registeredSensorConfig);
 		PlainTimerStorage plainTimerStorageOne = new PlainTimerStorage(null, platformId, sensorTypeId, methodIdOne, null, true);
-		plainTimerStorageOne.addData(fourthTimerValue - firstTimerValue, (fourthCpuTimerValue - firstCpuTimerValue) / 1000000.0d);
+		plainTimerStorageOne.addData(fourthTimerValue - firstTimerValue, fourthCpuTimerValue - firstCpuTimerValue);
 		verify(coreService).addObjectStorage(eq(sensorTypeId), eq(methodIdOne), (String) eq(null), argThat(new PlainTimerStorageVerifier(plainTimerStorageOne)));
 	}
 
+	@Test
+	public void cpuTimeNotSampled() throws IdNotAvailableException {
+		long platformId = 1L;
+		long methodId = 3L;
+		long sensorTypeId = 11L;
+		Object object = mock(Object.class);
+		Object[] parameters = new Object[0];
+		Object result = mock(Object.class);
+
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
+
+		Map<String, Object> settings = new HashMap<String, Object>();
+		settings.put("mode", "raw");
+		settings.put("cpuTimeSampling", String.valueOf(Integer.MAX_VALUE));
+		timerHook = new TimerHook(timer, platformManager, propertyAccessor, settings, threadMXBean);
+
+		when(timer.getCurrentNanoTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
+		when(platformManager.getPlatformId()).thenReturn(platformId);
+
+		timerHook.beforeBody(methodId, sensorTypeId, object, parameters, registeredSensorConfig);
+		timerHook.firstAfterBody(methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
+		timerHook.secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, result, registeredSensorConfig);
+
+		PlainTimerStorage plainTimerStorage = new PlainTimerStorage(null, platformId, sensorTypeId, methodId, null, true);
+		plainTimerStorage.addData(secondTimerValue - firstTimerValue, -1L);
+		verify(coreService).addObjectStorage(eq(sensorTypeId), eq(methodId), (String) eq(null), argThat(new PlainTimerStorageVerifier(plainTimerStorage)));
+		verify(threadMXBean, never()).getCurrentThreadCpuTime();
+	}
+
 }
@@ -141,14 +141,14 @@ public class SpanTransformerTest extends TestBase {
 
 		@Test
 		public void duration() {
-			double durationMicros = 123456.8856d;
+			long durationNanos = 123456885L;
 			when(spanImpl.context()).thenReturn(SpanContextImpl.build());
-			when(spanImpl.getDuration()).thenReturn(durationMicros);
+			when(spanImpl.getDurationNanos()).thenReturn(durationNanos);
 
 			AbstractSpan span = SpanTransformer.transformSpan(spanImpl);
 
 			assertThat(span.getTimeStamp(), is(not(nullValue())));
-			assertThat(span.getDuration(), is(durationMicros / 1000.d));
+			assertThat(span.getDuration(), is(durationNanos / 1000000.d));
 		}
 
 		@Test
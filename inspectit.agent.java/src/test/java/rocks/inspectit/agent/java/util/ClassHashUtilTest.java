@@ -0,0 +1,79 @@
+package rocks.inspectit.agent.java.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.instrumentation.config.ClassHashAlgorithm;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests the {@link ClassHashUtil} class.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class ClassHashUtilTest extends TestBase {
+
+	public class Murmur3Hex extends ClassHashUtilTest {
+
+		@Test
+		public void empty() {
+			String hash = ClassHashUtil.murmur3Hex(new byte[0]);
+
+			assertThat(hash, is("00000000000000000000000000000000"));
+		}
+
+		@Test
+		public void tail() {
+			String hash = ClassHashUtil.murmur3Hex("hello".getBytes());
+
+			assertThat(hash, is("029bbd41b3a7d8cb191dae486a901e5b"));
+		}
+
+		@Test
+		public void blocksAndTail() {
+			String hash = ClassHashUtil.murmur3Hex("The quick brown fox jumps over the lazy dog".getBytes());
+
+			assertThat(hash, is("6c1b07bc7bbc4be347939ac4a93c437a"));
+		}
+
+		@Test
+		public void differentBytes() {
+			String hash = ClassHashUtil.murmur3Hex(new byte[] { 1, 2, 3 });
+			String otherHash = ClassHashUtil.murmur3Hex(new byte[] { 1, 2, 4 });
+
+			assertThat(hash, is(not(otherHash)));
+		}
+	}
+
+	public class Hash extends ClassHashUtilTest {
+
+		@Test
+		public void murmur3() {
+			String hash = ClassHashUtil.hash("hello".getBytes(), ClassHashAlgorithm.MURMUR3_128);
+
+			assertThat(hash, is("029bbd41b3a7d8cb191dae486a901e5b"));
+			assertThat(ClassHashAlgorithm.of(hash), is(ClassHashAlgorithm.MURMUR3_128));
+		}
+
+		@Test
+		public void sha256() {
+			String hash = ClassHashUtil.hash("hello".getBytes(), ClassHashAlgorithm.SHA256);
+
+			assertThat(hash, is("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824"));
+			assertThat(ClassHashAlgorithm.of(hash), is(ClassHashAlgorithm.SHA256));
+		}
+
+		@Test
+		public void defaultAlgorithm() {
+			String hash = ClassHashUtil.hash("hello".getBytes(), null);
+
+			assertThat(hash, is("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824"));
+		}
+	}
+
+}
@@ -0,0 +1,148 @@
+package rocks.inspectit.agent.java.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.util.NoSuchElementException;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("PMD")
+public class TimingStackTest {
+
+	TimingStack stack;
+
+	@BeforeMethod
+	public void init() {
+		stack = new TimingStack();
+	}
+
+	public class Times extends TimingStackTest {
+
+		@Test
+		public void pushPop() {
+			stack.pushTime(1L);
+			stack.pushTime(2L);
+
+			assertThat(stack.getTimesSize(), is(2));
+			assertThat(stack.popTime(), is(2L));
+			assertThat(stack.popTime(), is(1L));
+			assertThat(stack.getTimesSize(), is(0));
+		}
+
+		@Test
+		public void grow() {
+			for (int i = 0; i < 100; i++) {
+				stack.pushTime(i);
+			}
+
+			for (int i = 99; i >= 0; i--) {
+				assertThat(stack.popTime(), is((long) i));
+			}
+		}
+
+		@Test(expectedExceptions = NoSuchElementException.class)
+		public void empty() {
+			stack.popTime();
+		}
+	}
+
+	public class CpuTimes extends TimingStackTest {
+
+		@Test
+		public void pushPop() {
+			stack.pushCpuTime(1L);
+			stack.pushCpuTime(2L);
+
+			assertThat(stack.getCpuTimesSize(), is(2));
+			assertThat(stack.popCpuTime(), is(2L));
+			assertThat(stack.popCpuTime(), is(1L));
+			assertThat(stack.getCpuTimesSize(), is(0));
+		}
+
+		@Test
+		public void grow() {
+			for (int i = 0; i < 100; i++) {
+				stack.pushCpuTime(i);
+			}
+
+			for (int i = 99; i >= 0; i--) {
+				assertThat(stack.popCpuTime(), is((long) i));
+			}
+		}
+
+		@Test
+		public void independentOfTimes() {
+			stack.pushTime(1L);
+			stack.pushCpuTime(10L);
+			stack.pushTime(2L);
+
+			assertThat(stack.popCpuTime(), is(10L));
+			assertThat(stack.popTime(), is(2L));
+			assertThat(stack.popTime(), is(1L));
+		}
+
+		@Test(expectedExceptions = NoSuchElementException.class)
+		public void empty() {
+			stack.popCpuTime();
+		}
+	}
+
+	public class CpuTimeSampling extends TimingStackTest {
+
+		@Test
+		public void peek() {
+			stack.pushCpuTime(1L);
+			stack.pushCpuTime(2L);
+
+			assertThat(stack.peekCpuTime(), is(2L));
+			assertThat(stack.getCpuTimesSize(), is(2));
+		}
+
+		@Test(expectedExceptions = NoSuchElementException.class)
+		public void peekEmpty() {
+			stack.peekCpuTime();
+		}
+
+		@Test
+		public void noSampling() {
+			for (int i = 0; i < 100; i++) {
+				assertThat(stack.isCpuTimeSampled(1), is(true));
+				assertThat(stack.isCpuTimeSampled(0), is(true));
+			}
+		}
+
+		@Test
+		public void sampled() {
+			int sampled = 0;
+			for (int i = 0; i < 100000; i++) {
+				if (stack.isCpuTimeSampled(10)) {
+					sampled++;
+				}
+			}
+
+			assertThat(sampled, is(greaterThan(9000)));
+			assertThat(sampled, is(lessThan(11000)));
+		}
+
+		@Test
+		public void randomDouble() {
+			int belowHalf = 0;
+			for (int i = 0; i < 100000; i++) {
+				double random = stack.nextRandomDouble();
+				assertThat(random, is(greaterThanOrEqualTo(0d)));
+				assertThat(random, is(lessThan(1d)));
+				if (random < 0.5d) {
+					belowHalf++;
+				}
+			}
+
+			assertThat(belowHalf, is(greaterThan(49000)));
+			assertThat(belowHalf, is(lessThan(51000)));
+		}
+	}
+}
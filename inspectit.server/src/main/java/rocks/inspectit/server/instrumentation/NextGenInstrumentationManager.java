@@ -3,6 +3,7 @@ package rocks.inspectit.server.instrumentation;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -189,6 +190,26 @@ public class NextGenInstrumentationManager implements ApplicationListener<AgentD
 		return classCache.getInstrumentationService().addAndGetInstrumentationResult(classType, configurationHolder.getAgentConfiguration(), configurationHolder.getInstrumentationAppliers());
 	}
 
+	/**
+	 * Analyzes all given types in the iteration order of the map.
+	 *
+	 * @param platformIdent
+	 *            Id of the agent.
+	 * @param hashesAndTypes
+	 *            Map of class hashes to the types sent by the agent.
+	 * @return Map of class hashes to the instrumentation definitions.
+	 * @throws BusinessException
+	 *             If agent with given ID does not exist.
+	 * @see #analyze(long, String, Type)
+	 */
+	public Map<String, InstrumentationDefinition> analyzeAll(long platformIdent, Map<String, Type> hashesAndTypes) throws BusinessException {
+		Map<String, InstrumentationDefinition> results = new HashMap<>(hashesAndTypes.size());
+		for (Entry<String, Type> entry : hashesAndTypes.entrySet()) {
+			results.put(entry.getKey(), analyze(platformIdent, entry.getKey(), entry.getValue()));
+		}
+		return results;
+	}
+
 	/**
 	 * Generates {@link RefreshInstrumentationTimestampsJob} for the given method IDs.
 	 *
@@ -18,6 +18,11 @@ import rocks.inspectit.shared.all.instrumentation.classcache.ImmutableType;
 /**
  * Indexer that index types based on the hash.
  * <p>
+ * Agents can hash the classes with different
+ * {@link rocks.inspectit.shared.all.instrumentation.config.ClassHashAlgorithm}s. As hashes of
+ * different algorithms have different length they never collide, so one type can be indexed with
+ * hashes of all algorithms at the same time.
+ * <p>
  * Note that this indexer should not be used with multiple threads reading and writing. Multiple
  * threads reading is OK.
  *
@@ -5,11 +5,15 @@ import java.util.Collection;
 import java.util.Collections;
 
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import rocks.inspectit.server.instrumentation.config.applier.IInstrumentationApplier;
 import rocks.inspectit.shared.all.instrumentation.config.impl.AgentConfig;
 import rocks.inspectit.shared.all.instrumentation.config.impl.ExceptionSensorTypeConfig;
+import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationPrefilter;
 import rocks.inspectit.shared.all.instrumentation.config.impl.JmxAttributeDescriptor;
 import rocks.inspectit.shared.all.instrumentation.config.impl.JmxSensorTypeConfig;
 import rocks.inspectit.shared.all.instrumentation.config.impl.MethodSensorTypeConfig;
@@ -18,6 +22,7 @@ import rocks.inspectit.shared.all.instrumentation.config.impl.StrategyConfig;
 import rocks.inspectit.shared.all.pattern.IMatchPattern;
 import rocks.inspectit.shared.all.pattern.PatternFactory;
 import rocks.inspectit.shared.cs.ci.Environment;
+import rocks.inspectit.shared.cs.ci.assignment.AbstractClassSensorAssignment;
 import rocks.inspectit.shared.cs.ci.exclude.ExcludeRule;
 import rocks.inspectit.shared.cs.ci.sensor.exception.IExceptionSensorConfig;
 import rocks.inspectit.shared.cs.ci.sensor.jmx.JmxSensorConfig;
@@ -49,6 +54,13 @@ public class ConfigurationCreator {
 	@Autowired
 	private ConfigurationResolver configurationResolver;
 
+	/**
+	 * If agents should skip the classes that can not match any of the sensor assignments without
+	 * hashing and analyzing them.
+	 */
+	@Value("${cmr.instrumentationPrefilter}")
+	boolean instrumentationPrefilter;
+
 	/**
 	 * Returns proper configuration for the agent with the correctly set IDs for the agent and
 	 * sensors.
@@ -127,12 +139,56 @@ public class ConfigurationCreator {
 			agentConfiguration.setExcludeClassesPatterns(Collections.<IMatchPattern> emptyList());
 		}
 
+		// instrumentation candidates
+		setCandidatePatterns(agentConfiguration, environment);
+
 		// set configuration info
 		agentConfiguration.setConfigurationInfo(configurationResolver.getConfigurationInfo(environment));
 
+		// set configuration revision, bound to the platform as method ids are
+		agentConfiguration.setConfigurationRevision(platformId + "/" + configurationResolver.getConfigurationRevision(environment));
+
 		return agentConfiguration;
 	}
 
+	/**
+	 * Sets the patterns the agent uses to decide which classes might be instrumented and the
+	 * {@link InstrumentationPrefilter} built from them. Assignments defining an annotation
+	 * contribute only the annotation pattern, as the annotation has to match as well. Classes not
+	 * matching any pattern are sent to the CMR in batches. The prefilter is only set if enabled,
+	 * as classes not passing it are not analyzed at all and thus can not be instrumented by the
+	 * later configuration updates.
+	 *
+	 * @param agentConfiguration
+	 *            {@link AgentConfig} to set patterns to.
+	 * @param environment
+	 *            {@link Environment} to get assignments from.
+	 */
+	private void setCandidatePatterns(AgentConfig agentConfiguration, Environment environment) {
+		Collection<IMatchPattern> classCandidatePatterns = new ArrayList<>();
+		Collection<IMatchPattern> hierarchyCandidatePatterns = new ArrayList<>();
+		Collection<String> namePatterns = new ArrayList<>();
+		Collection<String> annotationPatterns = new ArrayList<>();
+		for (IInstrumentationApplier applier : configurationResolver.getInstrumentationAppliers(environment)) {
+			AbstractClassSensorAssignment<?> assignment = applier.getSensorAssignment();
+			if (StringUtils.isNotEmpty(assignment.getAnnotation())) {
+				hierarchyCandidatePatterns.add(PatternFactory.getPattern(assignment.getAnnotation()));
+				annotationPatterns.add(assignment.getAnnotation());
+			} else if (assignment.isSuperclass() || assignment.isInterf()) {
+				hierarchyCandidatePatterns.add(PatternFactory.getPattern(assignment.getClassName()));
+				namePatterns.add(assignment.getClassName());
+			} else {
+				classCandidatePatterns.add(PatternFactory.getPattern(assignment.getClassName()));
+				namePatterns.add(assignment.getClassName());
+			}
+		}
+		agentConfiguration.setClassCandidatePatterns(classCandidatePatterns);
+		agentConfiguration.setHierarchyCandidatePatterns(hierarchyCandidatePatterns);
+		if (instrumentationPrefilter) {
+			agentConfiguration.setInstrumentationPrefilter(InstrumentationPrefilter.create(namePatterns, annotationPatterns));
+		}
+	}
+
 	/**
 	 * Creates the agent based {@link PlatformSensorTypeConfig} with correctly registered ID.
 	 *
@@ -233,6 +233,41 @@ public class ConfigurationResolver {
 		return rules;
 	}
 
+	/**
+	 * Returns the revision of the configuration based on the given {@link Environment}. The
+	 * revision is composed of the id and revision of the environment and of all active profiles,
+	 * thus it changes with every update of the environment or of any profile the agent uses.
+	 *
+	 * @param environment
+	 *            {@link Environment}.
+	 * @return Configuration revision
+	 */
+	public String getConfigurationRevision(Environment environment) {
+		if (null == environment) {
+			return null;
+		}
+
+		StringBuilder stringBuilder = new StringBuilder();
+		stringBuilder.append(environment.getId()).append('@').append(environment.getRevision());
+		for (String profileId : environment.getProfileIds()) {
+			try {
+				Profile profile = configurationInterfaceManager.getProfile(profileId);
+				if (!profile.isActive()) {
+					continue;
+				}
+
+				stringBuilder.append('/').append(profile.getId()).append('@').append(profile.getRevision());
+			} catch (Exception e) {
+				if (log.isDebugEnabled()) {
+					log.debug("Profile with id " + profileId + " ignored during configuration revision creation due to the exception.", e);
+				}
+				continue;
+			}
+		}
+
+		return stringBuilder.toString();
+	}
+
 	/**
 	 * Returns the configuration info based on the given {@link Environment}.
 	 *
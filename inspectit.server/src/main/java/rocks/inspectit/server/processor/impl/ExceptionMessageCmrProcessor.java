@@ -2,24 +2,36 @@ package rocks.inspectit.server.processor.impl;
 
 import javax.persistence.EntityManager;
 
+import org.springframework.beans.factory.annotation.Autowired;
+
 import rocks.inspectit.server.processor.AbstractCmrDataProcessor;
+import rocks.inspectit.server.util.StackTraceDictionary;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.data.ExceptionSensorData;
 
 /**
- * Processor that connects error messages in the {@link ExceptionSensorData}.
+ * Processor that connects error messages in the {@link ExceptionSensorData} and resolves the stack
+ * traces that agents only reference by the id over the {@link StackTraceDictionary}.
  *
  * @author Ivan Senic
  *
  */
 public class ExceptionMessageCmrProcessor extends AbstractCmrDataProcessor {
 
+	/**
+	 * Dictionary of the stack traces.
+	 */
+	@Autowired
+	StackTraceDictionary stackTraceDictionary;
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	protected void processData(DefaultData defaultData, EntityManager entityManager) {
-		connectErrorMessagesInExceptionData((ExceptionSensorData) defaultData);
+		ExceptionSensorData exceptionSensorData = (ExceptionSensorData) defaultData;
+		resolveStackTraces(exceptionSensorData);
+		connectErrorMessagesInExceptionData(exceptionSensorData);
 	}
 
 	/**
@@ -44,4 +56,24 @@ public class ExceptionMessageCmrProcessor extends AbstractCmrDataProcessor {
 		}
 	}
 
+	/**
+	 * Registers the stack traces sent together with the id to the dictionary and resolves the
+	 * ones only referenced by id for the given exception data and all its children. Afterwards
+	 * all exception data with same stack trace id share the dictionary's stack trace instance.
+	 * Exception data referencing an unknown id keeps the id and gets the stack trace as soon as it
+	 * is registered.
+	 *
+	 * @param exceptionSensorData
+	 *            Exception data.
+	 */
+	private void resolveStackTraces(ExceptionSensorData exceptionSensorData) {
+		ExceptionSensorData current = exceptionSensorData;
+		while (null != current) {
+			if (0 != current.getStackTraceId()) {
+				stackTraceDictionary.process(current);
+			}
+			current = current.getChild();
+		}
+	}
+
 }
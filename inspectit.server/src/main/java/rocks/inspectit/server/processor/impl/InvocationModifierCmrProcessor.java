@@ -184,6 +184,9 @@ public class InvocationModifierCmrProcessor extends AbstractChainedCmrDataProces
 					exceptionMessageCmrProcessor.process(exceptionData, entityManager);
 					exceptionData.addInvocationParentId(topInvocationParent.getId());
 					passToChainedProcessors(exceptionData, entityManager);
+				} else if (exceptionData.getExceptionEvent() == ExceptionEvent.UNREGISTERED_PASSED) {
+					// holds the stack trace as well, resolve it over the message processor
+					exceptionMessageCmrProcessor.process(exceptionData, entityManager);
 				}
 			}
 		}
@@ -0,0 +1,47 @@
+package rocks.inspectit.server.processor.impl;
+
+import javax.persistence.EntityManager;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import rocks.inspectit.server.processor.AbstractCmrDataProcessor;
+import rocks.inspectit.server.util.SqlStringDictionary;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+
+/**
+ * Processor that resolves the SQL strings of the {@link SqlStatementData} that agents only
+ * reference by the {@link SqlStatementData#getSqlId()} over the {@link SqlStringDictionary}. Data
+ * objects referencing an unknown id keep the id and get the SQL string as soon as it is
+ * registered.
+ * <p>
+ * This processor must be executed before any other processor that needs the SQL string.
+ *
+ * @author agent
+ *
+ */
+public class SqlStatementDictionaryCmrProcessor extends AbstractCmrDataProcessor {
+
+	/**
+	 * Dictionary of the SQL strings.
+	 */
+	@Autowired
+	SqlStringDictionary sqlStringDictionary;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void processData(DefaultData defaultData, EntityManager entityManager) {
+		sqlStringDictionary.process((SqlStatementData) defaultData);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean canBeProcessed(DefaultData defaultData) {
+		return (defaultData instanceof SqlStatementData) && (0 != ((SqlStatementData) defaultData).getSqlId());
+	}
+
+}
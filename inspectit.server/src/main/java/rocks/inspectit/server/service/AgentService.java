@@ -8,15 +8,18 @@ import javax.annotation.PostConstruct;
 
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import rocks.inspectit.server.instrumentation.NextGenInstrumentationManager;
 import rocks.inspectit.server.messaging.AgentMessageProvider;
 import rocks.inspectit.server.spring.aop.MethodLog;
+import rocks.inspectit.server.util.AgentStatusDataProvider;
 import rocks.inspectit.shared.all.cmr.service.IAgentService;
 import rocks.inspectit.shared.all.communication.message.IAgentMessage;
 import rocks.inspectit.shared.all.exception.BusinessException;
 import rocks.inspectit.shared.all.instrumentation.classcache.Type;
+import rocks.inspectit.shared.all.instrumentation.config.ClassHashAlgorithm;
 import rocks.inspectit.shared.all.instrumentation.config.impl.AgentConfig;
 import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationDefinition;
 import rocks.inspectit.shared.all.instrumentation.config.impl.JmxAttributeDescriptor;
@@ -49,13 +52,55 @@ public class AgentService implements IAgentService {
 	@Autowired
 	AgentMessageProvider messageProvider;
 
+	/**
+	 * The {@link AgentStatusDataProvider}.
+	 */
+	@Autowired
+	AgentStatusDataProvider agentStatusDataProvider;
+
+	/**
+	 * If agents should send the data objects as compressed batches.
+	 */
+	@Value("${cmr.compressedAgentDataTransport}")
+	boolean compressedDataTransport;
+
+	/**
+	 * Number of data batches agents can send without waiting for the acknowledgement.
+	 */
+	@Value("${cmr.agentDataSendingWindow}")
+	int dataSendingWindow;
+
+	/**
+	 * Hook time in microseconds per second each instrumented method can cause on the agents.
+	 */
+	@Value("${cmr.methodOverheadBudget}")
+	long methodOverheadBudget;
+
+	/**
+	 * If agents should use the fast non-cryptographic hash to identify the classes.
+	 */
+	@Value("${cmr.fastClassHashing}")
+	boolean fastClassHashing;
+
+	/**
+	 * If agents should encode the repetitive strings with the connection's string dictionary.
+	 */
+	@Value("${cmr.agentStringDictionary}")
+	boolean stringDictionaryTransport;
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	@MethodLog
 	public AgentConfig register(List<String> definedIPs, String agentName, String version) throws BusinessException {
-		return nextGenInstrumentationManager.register(definedIPs, agentName, version);
+		AgentConfig agentConfig = nextGenInstrumentationManager.register(definedIPs, agentName, version);
+		agentConfig.setCompressedDataTransport(compressedDataTransport);
+		agentConfig.setDataSendingWindow(dataSendingWindow);
+		agentConfig.setMethodOverheadBudget(methodOverheadBudget);
+		agentConfig.setClassHashAlgorithm(fastClassHashing ? ClassHashAlgorithm.MURMUR3_128 : ClassHashAlgorithm.SHA256);
+		agentConfig.setStringDictionaryTransport(stringDictionaryTransport);
+		return agentConfig;
 	}
 
 	/**
@@ -76,6 +121,15 @@ public class AgentService implements IAgentService {
 		return nextGenInstrumentationManager.analyze(platformIdent, hash, sentType);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@MethodLog
+	public Map<String, InstrumentationDefinition> analyzeAll(long platformIdent, Map<String, Type> hashesAndTypes) throws BusinessException {
+		return nextGenInstrumentationManager.analyzeAll(platformIdent, hashesAndTypes);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -85,6 +139,15 @@ public class AgentService implements IAgentService {
 		nextGenInstrumentationManager.instrumentationApplied(platformId, methodToSensorMap);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@MethodLog
+	public void methodSamplingChanged(long platformId, Map<Long, Integer> methodSamplingRates) {
+		agentStatusDataProvider.registerMethodSampling(platformId, methodSamplingRates);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.PostConstruct;
 
@@ -19,7 +20,11 @@ import rocks.inspectit.server.util.AgentStatusDataProvider;
 import rocks.inspectit.server.util.Converter;
 import rocks.inspectit.shared.all.cmr.property.spring.PropertyUpdate;
 import rocks.inspectit.shared.all.cmr.service.IAgentStorageService;
+import rocks.inspectit.shared.all.communication.CompressedDataObjects;
 import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.serializer.SerializationException;
+import rocks.inspectit.shared.all.serializer.impl.DataObjectsCompressor;
+import rocks.inspectit.shared.all.serializer.provider.SerializationManagerProvider;
 import rocks.inspectit.shared.all.spring.logger.Log;
 import rocks.inspectit.shared.cs.cmr.service.ICmrManagementService;
 
@@ -66,9 +71,31 @@ public class AgentStorageService implements IAgentStorageService {
 	ICmrManagementService cmrManagementService;
 
 	/**
-	 * Queue to store and remove list of data that has to be processed.
+	 * Serialization manager provider for the decompression of the data.
 	 */
-	private ArrayBlockingQueue<SoftReference<List<? extends DefaultData>>> dataObjectsBlockingQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+	@Autowired
+	SerializationManagerProvider serializationManagerProvider;
+
+	/**
+	 * Queue to store and remove data that has to be processed. Holds either a list of data or the
+	 * {@link CompressedDataObjects}.
+	 */
+	private ArrayBlockingQueue<SoftReference<?>> dataObjectsBlockingQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+	/**
+	 * Number of received compressed bytes.
+	 */
+	private final AtomicLong compressedBytes = new AtomicLong();
+
+	/**
+	 * Number of bytes the received compressed data had before compression.
+	 */
+	private final AtomicLong uncompressedBytes = new AtomicLong();
+
+	/**
+	 * Time spent in the decompression and de-serialization in nanoseconds.
+	 */
+	private final AtomicLong decompressionNanos = new AtomicLong();
 
 	/**
 	 * Count of thread to process data.
@@ -93,7 +120,7 @@ public class AgentStorageService implements IAgentStorageService {
 	 * @param dataObjectsBlockingQueue
 	 *            Queue.
 	 */
-	AgentStorageService(ArrayBlockingQueue<SoftReference<List<? extends DefaultData>>> dataObjectsBlockingQueue) {
+	AgentStorageService(ArrayBlockingQueue<SoftReference<?>> dataObjectsBlockingQueue) {
 		this.dataObjectsBlockingQueue = dataObjectsBlockingQueue;
 	}
 
@@ -103,24 +130,96 @@ public class AgentStorageService implements IAgentStorageService {
 	@Override
 	@MethodLog
 	public void addDataObjects(final List<? extends DefaultData> dataObjects) {
-		SoftReference<List<? extends DefaultData>> softReference = new SoftReference<List<? extends DefaultData>>(dataObjects);
 		if (!dataObjects.isEmpty()) {
 			platformIdentDateSaver.registerDataSent(dataObjects.get(0).getPlatformIdent());
 		}
+		enqueue(dataObjects, dataObjects.size());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The data is decompressed and de-serialized by the processing threads.
+	 */
+	@Override
+	@MethodLog
+	public void addCompressedDataObjects(CompressedDataObjects compressedDataObjects) {
+		platformIdentDateSaver.registerDataSent(compressedDataObjects.getPlatformIdent());
+		compressedBytes.addAndGet(compressedDataObjects.getData().length);
+		uncompressedBytes.addAndGet(compressedDataObjects.getUncompressedLength());
+		enqueue(compressedDataObjects, compressedDataObjects.getCount());
+	}
+
+	/**
+	 * Adds the data to the processing queue. If the queue is full, the data is dropped after the
+	 * timeout.
+	 *
+	 * @param data
+	 *            List of data objects or {@link CompressedDataObjects}.
+	 * @param count
+	 *            Number of data objects contained in the data.
+	 */
+	private void enqueue(Object data, int count) {
+		SoftReference<Object> softReference = new SoftReference<>(data);
 		try {
 			boolean added = dataObjectsBlockingQueue.offer(softReference, DATA_THROW_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
 			if (!added) {
-				int droppedSize = dataObjects.size();
 				if (log.isTraceEnabled()) {
-					log.trace("Data dropped on the CMR due to the high volume of incoming data from Agent(s). Dropped data objects count: " + droppedSize);
+					log.trace("Data dropped on the CMR due to the high volume of incoming data from Agent(s). Dropped data objects count: " + count);
 				}
-				cmrManagementService.addDroppedDataCount(droppedSize);
+				cmrManagementService.addDroppedDataCount(count);
 			}
 		} catch (InterruptedException e) {
 			return;
 		}
 	}
 
+	/**
+	 * Returns the ratio between the uncompressed and compressed size of all compressed data
+	 * received so far.
+	 *
+	 * @return Compression ratio or <code>0</code> if no compressed data was received.
+	 */
+	public double getCompressionRatio() {
+		long compressed = compressedBytes.get();
+		if (0 == compressed) {
+			return 0;
+		}
+		return (double) uncompressedBytes.get() / compressed;
+	}
+
+	/**
+	 * Returns the number of uncompressed bytes decompressed and de-serialized per millisecond.
+	 *
+	 * @return Decompression throughput in bytes per millisecond or <code>0</code> if nothing was
+	 *         decompressed.
+	 */
+	public double getDecompressionThroughput() {
+		long nanos = decompressionNanos.get();
+		if (0 == nanos) {
+			return 0;
+		}
+		return (uncompressedBytes.get() * 1000000d) / nanos;
+	}
+
+	/**
+	 * Gets {@link #compressedBytes}.
+	 *
+	 * @return {@link #compressedBytes}
+	 */
+	public long getCompressedBytes() {
+		return compressedBytes.get();
+	}
+
+	/**
+	 * Gets {@link #uncompressedBytes}.
+	 *
+	 * @return {@link #uncompressedBytes}
+	 */
+	public long getUncompressedBytes() {
+		return uncompressedBytes.get();
+	}
+
 	/**
 	 * Updates the number of data processing threads. The new number of threads should be defined in
 	 * {@link #threadCount} before calling this method.
@@ -181,6 +280,11 @@ public class AgentStorageService implements IAgentStorageService {
 	 */
 	private class ProcessDataThread extends Thread {
 
+		/**
+		 * Compressor for the compressed data, created on first use.
+		 */
+		private DataObjectsCompressor dataObjectsCompressor;
+
 		/**
 		 * Default constructor.
 		 *
@@ -202,7 +306,7 @@ public class AgentStorageService implements IAgentStorageService {
 					break;
 				}
 
-				SoftReference<List<? extends DefaultData>> softReference = null;
+				SoftReference<?> softReference = null;
 				try {
 					softReference = dataObjectsBlockingQueue.take();
 				} catch (InterruptedException e) {
@@ -210,7 +314,7 @@ public class AgentStorageService implements IAgentStorageService {
 					return;
 				}
 
-				List<? extends DefaultData> defaultDataList = softReference.get();
+				List<? extends DefaultData> defaultDataList = getDataObjects(softReference.get());
 				if (defaultDataList != null) {
 					for (DefaultData data : defaultDataList) {
 						data.finalizeData();
@@ -229,5 +333,39 @@ public class AgentStorageService implements IAgentStorageService {
 				}
 			}
 		}
+
+		/**
+		 * Returns the list of data objects from the queued data, decompressing it if needed.
+		 *
+		 * @param data
+		 *            Queued data, can be <code>null</code> if the soft reference was cleared.
+		 * @return List of data objects or <code>null</code> if not available.
+		 */
+		@SuppressWarnings("unchecked")
+		private List<? extends DefaultData> getDataObjects(Object data) {
+			if (data instanceof CompressedDataObjects) {
+				CompressedDataObjects compressedDataObjects = (CompressedDataObjects) data;
+				if (null == dataObjectsCompressor) {
+					dataObjectsCompressor = new DataObjectsCompressor(serializationManagerProvider.createSerializer());
+				}
+
+				try {
+					long start = System.nanoTime();
+					List<? extends DefaultData> dataObjects = dataObjectsCompressor.decompress(compressedDataObjects);
+					decompressionNanos.addAndGet(System.nanoTime() - start);
+
+					if (log.isDebugEnabled()) {
+						log.debug("Decompressed " + compressedDataObjects + ". Total compression ratio " + getCompressionRatio() + ", throughput " + getDecompressionThroughput()
+								+ " bytes/ms.");
+					}
+					return dataObjects;
+				} catch (SerializationException e) {
+					log.warn("Compressed data from the agent could not be decompressed, data is lost.", e);
+					cmrManagementService.addDroppedDataCount(compressedDataObjects.getCount());
+					return null;
+				}
+			}
+			return (List<? extends DefaultData>) data;
+		}
 	}
 }
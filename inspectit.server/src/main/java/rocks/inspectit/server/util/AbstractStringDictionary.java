@@ -0,0 +1,184 @@
+package rocks.inspectit.server.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary of the strings that agents send only once and afterwards reference by a
+ * content-derived id. The dictionary holds one string instance per id, thus all data objects in
+ * the buffer share the same instance.
+ * <p>
+ * Both the strings and the data objects waiting for an unknown id are held in least recently used
+ * order and the eldest entries are evicted when the limits are reached. Data objects referencing
+ * an unknown id keep the id and are resolved as soon as any agent sends the string again, agents
+ * periodically re-send the strings they use.
+ *
+ * @param <E>
+ *            Type of the data objects holding the id and the string.
+ *
+ * @author agent
+ *
+ */
+public abstract class AbstractStringDictionary<E> {
+
+	/**
+	 * Maximum amount of data objects waiting for one unknown id.
+	 */
+	static final int MAX_UNRESOLVED_PER_ID = 100;
+
+	/**
+	 * Strings by id in least recently used order.
+	 */
+	private final Map<Long, String> strings;
+
+	/**
+	 * Data objects waiting for the string by id in least recently used order.
+	 */
+	private final Map<Long, List<E>> unresolved;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param maxSize
+	 *            Maximum amount of strings held in the dictionary.
+	 * @param maxUnresolvedIds
+	 *            Maximum amount of unknown ids data objects can wait for.
+	 */
+	protected AbstractStringDictionary(int maxSize, int maxUnresolvedIds) {
+		this.strings = new LruMap<>(maxSize);
+		this.unresolved = new LruMap<>(maxUnresolvedIds);
+	}
+
+	/**
+	 * Processes the data object. If the data object holds the string, the string is registered and
+	 * set to all data objects waiting for it. Otherwise the string is resolved by the id or the
+	 * data object waits until the string is registered.
+	 *
+	 * @param element
+	 *            Data object with the id set.
+	 */
+	public synchronized void process(E element) {
+		Long id = Long.valueOf(getId(element));
+		String string = getString(element);
+		if (null != string) {
+			String existing = strings.get(id);
+			if (string.equals(existing)) {
+				setString(element, existing);
+			} else {
+				strings.put(id, string);
+			}
+
+			List<E> waiting = unresolved.remove(id);
+			if (null != waiting) {
+				String shared = strings.get(id);
+				for (E waitingElement : waiting) {
+					setString(waitingElement, shared);
+				}
+			}
+		} else {
+			String existing = strings.get(id);
+			if (null != existing) {
+				setString(element, existing);
+			} else {
+				List<E> waiting = unresolved.get(id);
+				if (null == waiting) {
+					waiting = new ArrayList<>(1);
+					unresolved.put(id, waiting);
+				}
+				if (waiting.size() < MAX_UNRESOLVED_PER_ID) {
+					waiting.add(element);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the amount of the strings in the dictionary.
+	 *
+	 * @return Returns the amount of the strings in the dictionary.
+	 */
+	public synchronized int size() {
+		return strings.size();
+	}
+
+	/**
+	 * Returns the amount of the unknown ids data objects are waiting for.
+	 *
+	 * @return Returns the amount of the unknown ids data objects are waiting for.
+	 */
+	public synchronized int getUnresolvedSize() {
+		return unresolved.size();
+	}
+
+	/**
+	 * Returns the id of the string in the data object.
+	 *
+	 * @param element
+	 *            Data object.
+	 * @return Id of the string.
+	 */
+	protected abstract long getId(E element);
+
+	/**
+	 * Returns the string held by the data object.
+	 *
+	 * @param element
+	 *            Data object.
+	 * @return String or <code>null</code> if the agent sent only the id.
+	 */
+	protected abstract String getString(E element);
+
+	/**
+	 * Sets the string to the data object.
+	 *
+	 * @param element
+	 *            Data object.
+	 * @param string
+	 *            String to set.
+	 */
+	protected abstract void setString(E element, String string);
+
+	/**
+	 * Map in the access order that evicts the least recently used entry when the maximum size is
+	 * exceeded.
+	 *
+	 * @param <K>
+	 *            Key type.
+	 * @param <V>
+	 *            Value type.
+	 */
+	private static final class LruMap<K, V> extends LinkedHashMap<K, V> {
+
+		/**
+		 * Generated UID.
+		 */
+		private static final long serialVersionUID = -4370713418236458721L;
+
+		/**
+		 * Maximum size.
+		 */
+		private final int maxSize;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param maxSize
+		 *            Maximum size.
+		 */
+		LruMap(int maxSize) {
+			super(16, 0.75f, true);
+			this.maxSize = maxSize;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+			return size() > maxSize;
+		}
+	}
+
+}
@@ -10,6 +10,7 @@ import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Resource;
 
+import org.apache.commons.collections.MapUtils;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -104,6 +105,9 @@ public class AgentStatusDataProvider implements InitializingBean, ApplicationLis
 		agentStatusData.setAgentConnection(AgentConnection.CONNECTED);
 		agentStatusData.setPendingSinceTime(currentTimeMillis);
 
+		// new connection starts with all methods fully instrumented
+		agentStatusData.setDegradedMethods(new HashMap<>(0));
+
 		// set instrumentation status up-to-date
 		agentStatusData.setInstrumentationStatus(InstrumentationStatus.UP_TO_DATE);
 	}
@@ -174,6 +178,40 @@ public class AgentStatusDataProvider implements InitializingBean, ApplicationLis
 		}
 	}
 
+	/**
+	 * Registers the sampling rates of the methods the agent changed due to the hook overhead.
+	 * Methods with the sampling rate <code>1</code> are not degraded anymore.
+	 *
+	 * @param platformIdent
+	 *            ID of the platform ident.
+	 * @param methodSamplingRates
+	 *            Map containing method id as key and the sampling rate as value.
+	 */
+	public void registerMethodSampling(long platformIdent, Map<Long, Integer> methodSamplingRates) {
+		AgentStatusData agentStatusData = agentStatusDataMap.get(platformIdent);
+		if ((null == agentStatusData) || MapUtils.isEmpty(methodSamplingRates)) {
+			return;
+		}
+
+		synchronized (agentStatusData) {
+			// copy on write, as the map can be serialized at the same time
+			Map<Long, Integer> degradedMethods = new HashMap<>(agentStatusData.getDegradedMethods());
+			for (Entry<Long, Integer> entry : methodSamplingRates.entrySet()) {
+				if (1 == entry.getValue().intValue()) {
+					degradedMethods.remove(entry.getKey());
+				} else {
+					degradedMethods.put(entry.getKey(), entry.getValue());
+				}
+			}
+			agentStatusData.setDegradedMethods(degradedMethods);
+		}
+
+		if (log.isInfoEnabled()) {
+			log.info("Platform " + platformIdent + " changed the sampling of " + methodSamplingRates.size() + " method(s) due to the overhead, " + agentStatusData.getDegradedMethods().size()
+					+ " method(s) degraded in total.");
+		}
+	}
+
 	/**
 	 * @return Returns the map of platform ident IDs and dates when the last data was received.
 	 */
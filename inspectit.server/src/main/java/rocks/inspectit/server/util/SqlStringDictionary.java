@@ -0,0 +1,62 @@
+package rocks.inspectit.server.util;
+
+import org.springframework.stereotype.Component;
+
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+
+/**
+ * Dictionary of the SQL strings sent by the agents. Agents send the SQL string until the first
+ * data object holding it was sent, afterwards the {@link SqlStatementData} only holds the
+ * {@link SqlStatementData#getSqlId()}. The dictionary holds one string instance per SQL id, thus
+ * all SQL data objects in the buffer share the same instance.
+ * <p>
+ * The SQL id is computed from the content only, so the dictionary is shared by all agents.
+ *
+ * @author agent
+ *
+ */
+@Component
+public class SqlStringDictionary extends AbstractStringDictionary<SqlStatementData> {
+
+	/**
+	 * Maximum amount of SQL strings held in the dictionary.
+	 */
+	static final int MAX_SIZE = 50000;
+
+	/**
+	 * Maximum amount of unknown SQL ids data objects can wait for.
+	 */
+	static final int MAX_UNRESOLVED_IDS = 10000;
+
+	/**
+	 * Default constructor.
+	 */
+	public SqlStringDictionary() {
+		super(MAX_SIZE, MAX_UNRESOLVED_IDS);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected long getId(SqlStatementData element) {
+		return element.getSqlId();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected String getString(SqlStatementData element) {
+		return element.getSql();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void setString(SqlStatementData element, String string) {
+		element.setSql(string);
+	}
+
+}
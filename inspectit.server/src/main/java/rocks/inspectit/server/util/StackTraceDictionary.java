@@ -0,0 +1,63 @@
+package rocks.inspectit.server.util;
+
+import org.springframework.stereotype.Component;
+
+import rocks.inspectit.shared.all.communication.data.ExceptionSensorData;
+
+/**
+ * Dictionary of the stack traces sent by the agents. Agents fingerprint the stack trace frames and
+ * send the stack trace text until the first data object holding it was sent, afterwards the
+ * {@link ExceptionSensorData} only holds the {@link ExceptionSensorData#getStackTraceId()}. The
+ * dictionary holds one string instance per stack trace id, thus all exception data objects in the
+ * buffer share the same instance.
+ * <p>
+ * The stack trace id is computed from the content only, so the dictionary is shared by all agents.
+ *
+ * @author agent
+ *
+ */
+@Component
+public class StackTraceDictionary extends AbstractStringDictionary<ExceptionSensorData> {
+
+	/**
+	 * Maximum amount of stack traces held in the dictionary.
+	 */
+	static final int MAX_SIZE = 50000;
+
+	/**
+	 * Maximum amount of unknown stack trace ids exception data can wait for.
+	 */
+	static final int MAX_UNRESOLVED_IDS = 10000;
+
+	/**
+	 * Default constructor.
+	 */
+	public StackTraceDictionary() {
+		super(MAX_SIZE, MAX_UNRESOLVED_IDS);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected long getId(ExceptionSensorData element) {
+		return element.getStackTraceId();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected String getString(ExceptionSensorData element) {
+		return element.getStackTrace();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void setString(ExceptionSensorData element, String string) {
+		element.setStackTrace(string);
+	}
+
+}
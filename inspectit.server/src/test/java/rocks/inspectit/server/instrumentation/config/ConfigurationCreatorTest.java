@@ -9,6 +9,7 @@ import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyMap;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -26,9 +27,11 @@ import org.mockito.Mock;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import rocks.inspectit.server.instrumentation.config.applier.IInstrumentationApplier;
 import rocks.inspectit.shared.all.instrumentation.config.PriorityEnum;
 import rocks.inspectit.shared.all.instrumentation.config.impl.AgentConfig;
 import rocks.inspectit.shared.all.instrumentation.config.impl.ExceptionSensorTypeConfig;
+import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationPrefilter;
 import rocks.inspectit.shared.all.instrumentation.config.impl.JmxSensorTypeConfig;
 import rocks.inspectit.shared.all.instrumentation.config.impl.MethodSensorTypeConfig;
 import rocks.inspectit.shared.all.instrumentation.config.impl.PlatformSensorTypeConfig;
@@ -38,6 +41,7 @@ import rocks.inspectit.shared.all.pattern.IMatchPattern;
 import rocks.inspectit.shared.all.pattern.WildcardMatchPattern;
 import rocks.inspectit.shared.all.testbase.TestBase;
 import rocks.inspectit.shared.cs.ci.Environment;
+import rocks.inspectit.shared.cs.ci.assignment.impl.MethodSensorAssignment;
 import rocks.inspectit.shared.cs.ci.exclude.ExcludeRule;
 import rocks.inspectit.shared.cs.ci.sensor.exception.IExceptionSensorConfig;
 import rocks.inspectit.shared.cs.ci.sensor.jmx.JmxSensorConfig;
@@ -237,6 +241,55 @@ public class ConfigurationCreatorTest extends TestBase {
 			assertThat(excludeClassesPatterns, hasItem(new WildcardMatchPattern(er2.getClassName())));
 		}
 
+		@Test
+		public void candidatePatterns() throws Exception {
+			MethodSensorAssignment classAssignment = mock(MethodSensorAssignment.class);
+			when(classAssignment.getClassName()).thenReturn("info.novatec.*");
+			MethodSensorAssignment interfaceAssignment = mock(MethodSensorAssignment.class);
+			when(interfaceAssignment.getClassName()).thenReturn("javax.servlet.Servlet");
+			when(interfaceAssignment.isInterf()).thenReturn(true);
+			MethodSensorAssignment annotationAssignment = mock(MethodSensorAssignment.class);
+			when(annotationAssignment.getClassName()).thenReturn("*");
+			when(annotationAssignment.getAnnotation()).thenReturn("javax.ws.rs.Path");
+			IInstrumentationApplier classApplier = mock(IInstrumentationApplier.class);
+			doReturn(classAssignment).when(classApplier).getSensorAssignment();
+			IInstrumentationApplier interfaceApplier = mock(IInstrumentationApplier.class);
+			doReturn(interfaceAssignment).when(interfaceApplier).getSensorAssignment();
+			IInstrumentationApplier annotationApplier = mock(IInstrumentationApplier.class);
+			doReturn(annotationAssignment).when(annotationApplier).getSensorAssignment();
+			when(configurationResolver.getInstrumentationAppliers(environment)).thenReturn(Arrays.asList(classApplier, interfaceApplier, annotationApplier));
+			creator.instrumentationPrefilter = true;
+
+			AgentConfig agentConfiguration = creator.environmentToConfiguration(environment, 0);
+
+			assertThat(agentConfiguration.getClassCandidatePatterns(), hasSize(1));
+			assertThat(agentConfiguration.getClassCandidatePatterns(), hasItem(new WildcardMatchPattern("info.novatec.*")));
+			assertThat(agentConfiguration.getHierarchyCandidatePatterns(), hasSize(2));
+			assertThat(agentConfiguration.getHierarchyCandidatePatterns(), hasItem(new EqualsMatchPattern("javax.servlet.Servlet")));
+			assertThat(agentConfiguration.getHierarchyCandidatePatterns(), hasItem(new EqualsMatchPattern("javax.ws.rs.Path")));
+			InstrumentationPrefilter prefilter = agentConfiguration.getInstrumentationPrefilter();
+			assertThat(prefilter.isAnnotations(), is(true));
+			assertThat(prefilter.mightMatch("info.novatec.Service"), is(true));
+			assertThat(prefilter.mightMatch("javax.servlet.Servlet"), is(true));
+			assertThat(prefilter.mightMatch("javax.ws.rs.Path"), is(true));
+			assertThat(prefilter.mightMatch("java.lang.String"), is(false));
+		}
+
+		@Test
+		public void instrumentationPrefilterDisabled() throws Exception {
+			MethodSensorAssignment classAssignment = mock(MethodSensorAssignment.class);
+			when(classAssignment.getClassName()).thenReturn("info.novatec.*");
+			IInstrumentationApplier classApplier = mock(IInstrumentationApplier.class);
+			doReturn(classAssignment).when(classApplier).getSensorAssignment();
+			when(configurationResolver.getInstrumentationAppliers(environment)).thenReturn(Collections.singletonList(classApplier));
+			creator.instrumentationPrefilter = false;
+
+			AgentConfig agentConfiguration = creator.environmentToConfiguration(environment, 0);
+
+			assertThat(agentConfiguration.getClassCandidatePatterns(), hasItem(new WildcardMatchPattern("info.novatec.*")));
+			assertThat(agentConfiguration.getInstrumentationPrefilter(), is(nullValue()));
+		}
+
 		@Test
 		public void sendingStrategy() throws Exception {
 			String className = "className";
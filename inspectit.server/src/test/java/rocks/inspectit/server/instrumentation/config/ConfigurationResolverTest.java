@@ -6,6 +6,8 @@ import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -565,4 +567,59 @@ public class ConfigurationResolverTest extends TestBase {
 
 	}
 
+	public static class GetConfigurationRevision extends ConfigurationResolverTest {
+
+		@Test
+		public void nullEnvironment() {
+			String revision = configurationResolver.getConfigurationRevision(null);
+
+			assertThat(revision, is(nullValue()));
+		}
+
+		@Test
+		public void activeProfile() throws BusinessException {
+			when(environment.getId()).thenReturn("env");
+			when(environment.getRevision()).thenReturn(2);
+			when(environment.getProfileIds()).thenReturn(Collections.singleton(PROFILE_ID));
+			when(configurationInterfaceManager.getProfile(PROFILE_ID)).thenReturn(profile);
+			when(profile.getId()).thenReturn(PROFILE_ID);
+			when(profile.getRevision()).thenReturn(5);
+			when(profile.isActive()).thenReturn(true);
+
+			String revision = configurationResolver.getConfigurationRevision(environment);
+
+			assertThat(revision, is("env@2/id@5"));
+		}
+
+		@Test
+		public void profileNotActive() throws BusinessException {
+			when(environment.getId()).thenReturn("env");
+			when(environment.getRevision()).thenReturn(2);
+			when(environment.getProfileIds()).thenReturn(Collections.singleton(PROFILE_ID));
+			when(configurationInterfaceManager.getProfile(PROFILE_ID)).thenReturn(profile);
+			when(profile.isActive()).thenReturn(false);
+
+			String revision = configurationResolver.getConfigurationRevision(environment);
+
+			assertThat(revision, is("env@2"));
+		}
+
+		@Test
+		public void profileRevisionChanged() throws BusinessException {
+			when(environment.getId()).thenReturn("env");
+			when(environment.getRevision()).thenReturn(2);
+			when(environment.getProfileIds()).thenReturn(Collections.singleton(PROFILE_ID));
+			when(configurationInterfaceManager.getProfile(PROFILE_ID)).thenReturn(profile);
+			when(profile.getId()).thenReturn(PROFILE_ID);
+			when(profile.getRevision()).thenReturn(5, 6);
+			when(profile.isActive()).thenReturn(true);
+
+			String first = configurationResolver.getConfigurationRevision(environment);
+			String second = configurationResolver.getConfigurationRevision(environment);
+
+			assertThat(first, is(not(second)));
+		}
+
+	}
+
 }
@@ -37,6 +37,8 @@ import rocks.inspectit.server.dao.impl.TimerDataAggregator;
 import rocks.inspectit.server.processor.AbstractCmrDataProcessor;
 import rocks.inspectit.server.storage.CmrStorageManager;
 import rocks.inspectit.server.util.CacheIdGenerator;
+import rocks.inspectit.server.util.SqlStringDictionary;
+import rocks.inspectit.server.util.StackTraceDictionary;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.ExceptionEvent;
 import rocks.inspectit.shared.all.communication.MethodSensorData;
@@ -161,6 +163,7 @@ public class CmrDataProcessorsTest {
 	@Test
 	public void exceptionMessageProcessor() {
 		ExceptionMessageCmrProcessor processor = new ExceptionMessageCmrProcessor();
+		processor.stackTraceDictionary = new StackTraceDictionary();
 
 		// only exceptions
 		assertThat(processor.canBeProcessed(new TimerData()), is(false));
@@ -181,6 +184,111 @@ public class CmrDataProcessorsTest {
 		assertThat(child.getErrorMessage(), is("parentMsg"));
 	}
 
+	/**
+	 * Tests that the {@link ExceptionMessageCmrProcessor} resolves the stack traces over the
+	 * dictionary.
+	 */
+	@Test
+	public void exceptionMessageProcessorStackTraceDictionary() {
+		ExceptionMessageCmrProcessor processor = new ExceptionMessageCmrProcessor();
+		processor.stackTraceDictionary = new StackTraceDictionary();
+
+		ExceptionSensorData first = new ExceptionSensorData();
+		first.setStackTraceId(5L);
+		first.setStackTrace(new String("java.lang.RuntimeException\n\tat Test.test(Test.java:10)"));
+		ExceptionSensorData second = new ExceptionSensorData();
+		second.setStackTraceId(5L);
+		ExceptionSensorData secondChild = new ExceptionSensorData();
+		secondChild.setStackTraceId(5L);
+		second.setChild(secondChild);
+		ExceptionSensorData unknown = new ExceptionSensorData();
+		unknown.setStackTraceId(6L);
+		ExceptionSensorData noId = new ExceptionSensorData();
+		noId.setStackTrace("java.lang.IllegalStateException");
+
+		processor.process(first, entityManager);
+		processor.process(second, entityManager);
+		processor.process(unknown, entityManager);
+		processor.process(noId, entityManager);
+
+		// same instance is shared
+		assertThat(second.getStackTrace() == first.getStackTrace(), is(true));
+		assertThat(secondChild.getStackTrace() == first.getStackTrace(), is(true));
+		assertThat(unknown.getStackTrace(), is(nullValue()));
+		assertThat(unknown.getStackTraceId(), is(6L));
+		assertThat(noId.getStackTrace(), is("java.lang.IllegalStateException"));
+		assertThat(processor.stackTraceDictionary.size(), is(1));
+
+		// unknown one is resolved when the stack trace arrives
+		ExceptionSensorData resent = new ExceptionSensorData();
+		resent.setStackTraceId(6L);
+		resent.setStackTrace("java.lang.IllegalArgumentException\n\tat Test.test(Test.java:20)");
+		processor.process(resent, entityManager);
+
+		assertThat(unknown.getStackTrace() == resent.getStackTrace(), is(true));
+	}
+
+	/**
+	 * Tests the {@link SqlStatementDictionaryCmrProcessor}.
+	 */
+	@Test
+	public void sqlStatementDictionaryProcessor() {
+		SqlStatementDictionaryCmrProcessor processor = new SqlStatementDictionaryCmrProcessor();
+		processor.sqlStringDictionary = new SqlStringDictionary();
+
+		SqlStatementData first = new SqlStatementData();
+		first.setSqlId(5L);
+		first.setSql(new String("SELECT * FROM TABLE"));
+		SqlStatementData second = new SqlStatementData();
+		second.setSqlId(5L);
+		SqlStatementData unknown = new SqlStatementData();
+		unknown.setSqlId(6L);
+		SqlStatementData noId = new SqlStatementData();
+		noId.setSql("SELECT 1");
+
+		assertThat(processor.canBeProcessed(new TimerData()), is(false));
+		assertThat(processor.canBeProcessed(noId), is(false));
+
+		processor.process(first, entityManager);
+		processor.process(second, entityManager);
+		processor.process(unknown, entityManager);
+		processor.process(noId, entityManager);
+
+		// same instance is shared
+		assertThat(second.getSql() == first.getSql(), is(true));
+		assertThat(unknown.getSql(), is(nullValue()));
+		assertThat(unknown.getSqlId(), is(6L));
+		assertThat(noId.getSql(), is("SELECT 1"));
+		verifyZeroInteractions(entityManager);
+	}
+
+	/**
+	 * Tests that the {@link SqlStatementDictionaryCmrProcessor} resolves the SQL when the first
+	 * data object holding it was dropped and the next one holds it.
+	 */
+	@Test
+	public void sqlStatementDictionaryProcessorFirstDropped() {
+		SqlStatementDictionaryCmrProcessor processor = new SqlStatementDictionaryCmrProcessor();
+		processor.sqlStringDictionary = new SqlStringDictionary();
+
+		// first data object holding the SQL never arrives
+		SqlStatementData unresolved = new SqlStatementData();
+		unresolved.setSqlId(5L);
+		SqlStatementData next = new SqlStatementData();
+		next.setSqlId(5L);
+		next.setSql("SELECT * FROM TABLE");
+		SqlStatementData later = new SqlStatementData();
+		later.setSqlId(5L);
+
+		processor.process(unresolved, entityManager);
+		processor.process(next, entityManager);
+		processor.process(later, entityManager);
+
+		assertThat(unresolved.getSql(), is("SELECT * FROM TABLE"));
+		assertThat(later.getSql() == next.getSql(), is(true));
+		assertThat(processor.sqlStringDictionary.getUnresolvedSize(), is(0));
+	}
+
 	/**
 	 * Tests the {@link IndexerCmrProcessor}.
 	 */
@@ -5,6 +5,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
@@ -171,6 +172,23 @@ public class KryoNetIntegrationTest extends AbstractTransactionalTestNGLogSuppor
 				verify(service).returnSame(toSend);
 			}
 		}
+
+		@Test
+		public void stringDictionary() {
+			client.setStringDictionaryEnabled(true);
+			try {
+				Service clientService = getServiceForClient();
+
+				String toSend = "SELECT * FROM TABLE WHERE ID = ?";
+				assertThat(clientService.returnSame(toSend), is(equalTo(toSend)));
+				assertThat(clientService.returnSame(new String(toSend)), is(equalTo(toSend)));
+
+				verify(service, times(2)).returnSame(toSend);
+				verifyNoMoreInteractions(service);
+			} finally {
+				client.setStringDictionaryEnabled(false);
+			}
+		}
 	}
 
 	public class Send extends KryoNetIntegrationTest {
@@ -17,7 +17,9 @@ import org.testng.annotations.Test;
 
 import rocks.inspectit.server.instrumentation.NextGenInstrumentationManager;
 import rocks.inspectit.server.messaging.AgentMessageProvider;
+import rocks.inspectit.server.util.AgentStatusDataProvider;
 import rocks.inspectit.shared.all.instrumentation.classcache.Type;
+import rocks.inspectit.shared.all.instrumentation.config.ClassHashAlgorithm;
 import rocks.inspectit.shared.all.instrumentation.config.impl.AgentConfig;
 import rocks.inspectit.shared.all.instrumentation.config.impl.JmxAttributeDescriptor;
 import rocks.inspectit.shared.all.testbase.TestBase;
@@ -39,6 +41,9 @@ public class AgentServiceTest extends TestBase {
 	@Mock
 	AgentMessageProvider messageProvider;
 
+	@Mock
+	AgentStatusDataProvider agentStatusDataProvider;
+
 	/**
 	 * Tests the {@link AgentService#analyze(long, String, Type)} method.
 	 */
@@ -107,6 +112,24 @@ public class AgentServiceTest extends TestBase {
 		}
 	}
 
+	/**
+	 * Tests the {@link AgentService#methodSamplingChanged(long, Map)} method.
+	 */
+	public static class MethodSamplingChanged extends AgentServiceTest {
+
+		@Test
+		@SuppressWarnings("unchecked")
+		public void successful() throws Exception {
+			Map<Long, Integer> methodSamplingRates = mock(Map.class);
+
+			agentService.methodSamplingChanged(10L, methodSamplingRates);
+
+			verify(agentStatusDataProvider).registerMethodSampling(10L, methodSamplingRates);
+			verifyNoMoreInteractions(agentStatusDataProvider);
+			verifyZeroInteractions(instrumentationManager, messageProvider, methodSamplingRates);
+		}
+	}
+
 	/**
 	 * Tests the {@link AgentService#register(List, String, String)} method.
 	 */
@@ -125,9 +148,84 @@ public class AgentServiceTest extends TestBase {
 			agentService.register(definedIPs, "name", "version");
 
 			verify(instrumentationManager).register(definedIPs, "name", "version");
+			verify(agentConfig).setCompressedDataTransport(false);
+			verify(agentConfig).setDataSendingWindow(0);
+			verify(agentConfig).setMethodOverheadBudget(0L);
 			verifyNoMoreInteractions(instrumentationManager, messageProvider);
 			verifyZeroInteractions(messageProvider, definedIPs);
 		}
+
+		@Test
+		@SuppressWarnings("unchecked")
+		public void compressedDataTransport() throws Exception {
+			List<String> definedIPs = mock(List.class);
+			when(instrumentationManager.register(any(List.class), any(String.class), any(String.class))).thenReturn(agentConfig);
+			agentService.compressedDataTransport = true;
+
+			agentService.register(definedIPs, "name", "version");
+
+			verify(agentConfig).setCompressedDataTransport(true);
+		}
+
+		@Test
+		@SuppressWarnings("unchecked")
+		public void dataSendingWindow() throws Exception {
+			List<String> definedIPs = mock(List.class);
+			when(instrumentationManager.register(any(List.class), any(String.class), any(String.class))).thenReturn(agentConfig);
+			agentService.dataSendingWindow = 8;
+
+			agentService.register(definedIPs, "name", "version");
+
+			verify(agentConfig).setDataSendingWindow(8);
+		}
+
+		@Test
+		@SuppressWarnings("unchecked")
+		public void methodOverheadBudget() throws Exception {
+			List<String> definedIPs = mock(List.class);
+			when(instrumentationManager.register(any(List.class), any(String.class), any(String.class))).thenReturn(agentConfig);
+			agentService.methodOverheadBudget = 10000L;
+
+			agentService.register(definedIPs, "name", "version");
+
+			verify(agentConfig).setMethodOverheadBudget(10000L);
+		}
+
+		@Test
+		@SuppressWarnings("unchecked")
+		public void fastClassHashing() throws Exception {
+			List<String> definedIPs = mock(List.class);
+			when(instrumentationManager.register(any(List.class), any(String.class), any(String.class))).thenReturn(agentConfig);
+			agentService.fastClassHashing = true;
+
+			agentService.register(definedIPs, "name", "version");
+
+			verify(agentConfig).setClassHashAlgorithm(ClassHashAlgorithm.MURMUR3_128);
+		}
+
+		@Test
+		@SuppressWarnings("unchecked")
+		public void sha256ClassHashing() throws Exception {
+			List<String> definedIPs = mock(List.class);
+			when(instrumentationManager.register(any(List.class), any(String.class), any(String.class))).thenReturn(agentConfig);
+			agentService.fastClassHashing = false;
+
+			agentService.register(definedIPs, "name", "version");
+
+			verify(agentConfig).setClassHashAlgorithm(ClassHashAlgorithm.SHA256);
+		}
+
+		@Test
+		@SuppressWarnings("unchecked")
+		public void stringDictionaryTransport() throws Exception {
+			List<String> definedIPs = mock(List.class);
+			when(instrumentationManager.register(any(List.class), any(String.class), any(String.class))).thenReturn(agentConfig);
+			agentService.stringDictionaryTransport = true;
+
+			agentService.register(definedIPs, "name", "version");
+
+			verify(agentConfig).setStringDictionaryTransport(true);
+		}
 	}
 
 	/**
@@ -1,5 +1,8 @@
 package rocks.inspectit.server.service;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
 import java.lang.ref.SoftReference;
 import java.util.ArrayList;
 import java.util.List;
@@ -14,6 +17,7 @@ import org.testng.annotations.Test;
 
 import rocks.inspectit.server.test.AbstractTestNGLogSupport;
 import rocks.inspectit.server.util.AgentStatusDataProvider;
+import rocks.inspectit.shared.all.communication.CompressedDataObjects;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.data.TimerData;
 import rocks.inspectit.shared.cs.cmr.service.ICmrManagementService;
@@ -47,7 +51,7 @@ public class AgentStorageServiceTest extends AbstractTestNGLogSupport {
 	@BeforeMethod
 	public void init() {
 		MockitoAnnotations.initMocks(this);
-		agentStorageService = new AgentStorageService(new ArrayBlockingQueue<SoftReference<List<? extends DefaultData>>>(1));
+		agentStorageService = new AgentStorageService(new ArrayBlockingQueue<SoftReference<?>>(1));
 		agentStorageService.platformIdentDateSaver = agentStatusDataProvider;
 		agentStorageService.cmrManagementService = cmrManagementService;
 		agentStorageService.log = LoggerFactory.getLogger(AgentStorageService.class);
@@ -86,4 +90,35 @@ public class AgentStorageServiceTest extends AbstractTestNGLogSupport {
 		Mockito.verify(agentStatusDataProvider, Mockito.times(1)).registerDataSent(1L);
 		Mockito.verifyZeroInteractions(cmrManagementService);
 	}
+
+	/**
+	 * Proves that the compressed data is accepted and counted.
+	 */
+	@Test
+	public void acceptCompressedData() {
+		CompressedDataObjects compressedDataObjects = new CompressedDataObjects(1L, 10, 200, new byte[50]);
+
+		agentStorageService.addCompressedDataObjects(compressedDataObjects);
+
+		Mockito.verify(agentStatusDataProvider, Mockito.times(1)).registerDataSent(1L);
+		Mockito.verifyZeroInteractions(cmrManagementService);
+		assertThat(agentStorageService.getCompressedBytes(), is(50L));
+		assertThat(agentStorageService.getUncompressedBytes(), is(200L));
+		assertThat(agentStorageService.getCompressionRatio(), is(4d));
+	}
+
+	/**
+	 * Proves that the compressed data is dropped after the timeout and the contained data objects
+	 * are counted as dropped.
+	 */
+	@Test
+	public void dropCompressedDataAfterTimeout() {
+		CompressedDataObjects compressedDataObjects = new CompressedDataObjects(1L, 10, 200, new byte[50]);
+
+		agentStorageService.addCompressedDataObjects(compressedDataObjects);
+		agentStorageService.addCompressedDataObjects(compressedDataObjects);
+
+		Mockito.verify(agentStatusDataProvider, Mockito.times(2)).registerDataSent(1L);
+		Mockito.verify(cmrManagementService, Mockito.times(1)).addDroppedDataCount(10);
+	}
 }
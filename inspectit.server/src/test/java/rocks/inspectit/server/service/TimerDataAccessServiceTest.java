@@ -0,0 +1,95 @@
+package rocks.inspectit.server.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.server.dao.TimerDataDao;
+import rocks.inspectit.shared.all.communication.data.DurationHistogram;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests the {@link TimerDataAccessService} class.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class TimerDataAccessServiceTest extends TestBase {
+
+	@InjectMocks
+	TimerDataAccessService timerDataAccessService;
+
+	@Mock
+	TimerDataDao timerDataDao;
+
+	/**
+	 * Tests the {@link TimerDataAccessService#getPercentiles(TimerData, Date, Date, double[])}
+	 * method.
+	 */
+	public static class GetPercentiles extends TimerDataAccessServiceTest {
+
+		@Test
+		public void dataWithoutHistogramIgnored() {
+			TimerData template = new TimerData();
+			Date fromDate = new Date(0);
+			Date toDate = new Date();
+			TimerData withHistogram = timerData(100d, 150d, 200d);
+			TimerData withoutHistogram = new TimerData();
+			withoutHistogram.setCount(1);
+			withoutHistogram.calculateMin(1d);
+			withoutHistogram.calculateMax(10000d);
+			when(timerDataDao.getAggregatedTimerData(template, fromDate, toDate)).thenReturn(Arrays.asList(withoutHistogram, withHistogram));
+
+			double[] result = timerDataAccessService.getPercentiles(template, fromDate, toDate, new double[] { 0d, 50d, 100d });
+
+			assertThat(result.length, is(3));
+			for (double percentile : result) {
+				assertThat(percentile, is(greaterThanOrEqualTo(100d)));
+				assertThat(percentile, is(lessThanOrEqualTo(200d)));
+			}
+		}
+
+		@Test
+		public void noHistogramData() {
+			TimerData template = new TimerData();
+			Date fromDate = new Date(0);
+			Date toDate = new Date();
+			TimerData withoutHistogram = new TimerData();
+			withoutHistogram.setCount(1);
+			withoutHistogram.calculateMin(1d);
+			withoutHistogram.calculateMax(10000d);
+			when(timerDataDao.getAggregatedTimerData(template, fromDate, toDate)).thenReturn(Collections.singletonList(withoutHistogram));
+
+			double[] result = timerDataAccessService.getPercentiles(template, fromDate, toDate, new double[] { 50d, 99d });
+
+			assertThat(result[0], is(-1d));
+			assertThat(result[1], is(-1d));
+		}
+
+		private TimerData timerData(double... durations) {
+			TimerData timerData = new TimerData();
+			long[] histogram = new long[DurationHistogram.BUCKETS];
+			for (double duration : durations) {
+				timerData.increaseCount();
+				timerData.addDuration(duration);
+				timerData.calculateMin(duration);
+				timerData.calculateMax(duration);
+				DurationHistogram.record(histogram, duration);
+			}
+			timerData.setHistogram(histogram);
+			return timerData;
+		}
+	}
+}
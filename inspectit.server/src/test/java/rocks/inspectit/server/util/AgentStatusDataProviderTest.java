@@ -11,6 +11,9 @@ import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.doAnswer;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -113,6 +116,58 @@ public class AgentStatusDataProviderTest extends TestBase {
 		}
 	}
 
+	public class RegisterMethodSampling extends AgentStatusDataProviderTest {
+
+		@Test
+		public void neverConnected() {
+			long platformIdent = 10L;
+
+			agentStatusDataProvider.registerMethodSampling(platformIdent, Collections.singletonMap(1L, 0));
+
+			assertThat(agentStatusDataProvider.getAgentStatusDataMap().entrySet(), is(empty()));
+		}
+
+		@Test
+		public void degraded() {
+			long platformIdent = 10L;
+			agentStatusDataProvider.registerConnected(platformIdent);
+			Map<Long, Integer> methodSamplingRates = new HashMap<>();
+			methodSamplingRates.put(1L, 16);
+			methodSamplingRates.put(2L, 0);
+
+			agentStatusDataProvider.registerMethodSampling(platformIdent, methodSamplingRates);
+
+			AgentStatusData agentStatusData = agentStatusDataProvider.getAgentStatusDataMap().get(platformIdent);
+			assertThat(agentStatusData.getDegradedMethods().size(), is(2));
+			assertThat(agentStatusData.getDegradedMethods().get(1L), is(16));
+			assertThat(agentStatusData.getDegradedMethods().get(2L), is(0));
+		}
+
+		@Test
+		public void restored() {
+			long platformIdent = 10L;
+			agentStatusDataProvider.registerConnected(platformIdent);
+			agentStatusDataProvider.registerMethodSampling(platformIdent, Collections.singletonMap(1L, 16));
+
+			agentStatusDataProvider.registerMethodSampling(platformIdent, Collections.singletonMap(1L, 1));
+
+			AgentStatusData agentStatusData = agentStatusDataProvider.getAgentStatusDataMap().get(platformIdent);
+			assertThat(agentStatusData.getDegradedMethods().isEmpty(), is(true));
+		}
+
+		@Test
+		public void resetOnConnect() {
+			long platformIdent = 10L;
+			agentStatusDataProvider.registerConnected(platformIdent);
+			agentStatusDataProvider.registerMethodSampling(platformIdent, Collections.singletonMap(1L, 0));
+
+			agentStatusDataProvider.registerConnected(platformIdent);
+
+			AgentStatusData agentStatusData = agentStatusDataProvider.getAgentStatusDataMap().get(platformIdent);
+			assertThat(agentStatusData.getDegradedMethods().isEmpty(), is(true));
+		}
+	}
+
 	public class RegisterDataSent extends AgentStatusDataProviderTest {
 
 		@Test
@@ -0,0 +1,87 @@
+package rocks.inspectit.server.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.communication.data.ExceptionSensorData;
+
+/**
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class StackTraceDictionaryTest {
+
+	StackTraceDictionary dictionary;
+
+	@BeforeMethod
+	public void init() {
+		dictionary = new StackTraceDictionary();
+	}
+
+	public class Process extends StackTraceDictionaryTest {
+
+		@Test
+		public void sharedInstance() {
+			ExceptionSensorData first = exceptionData(1L, new String("trace"));
+			ExceptionSensorData second = exceptionData(1L, new String("trace"));
+			ExceptionSensorData third = exceptionData(1L, null);
+
+			dictionary.process(first);
+			dictionary.process(second);
+			dictionary.process(third);
+
+			assertThat(second.getStackTrace(), is(sameInstance(first.getStackTrace())));
+			assertThat(third.getStackTrace(), is(sameInstance(first.getStackTrace())));
+			assertThat(dictionary.size(), is(1));
+		}
+
+		@Test
+		public void unknownIdResolvedLater() {
+			ExceptionSensorData unknown = exceptionData(1L, null);
+
+			dictionary.process(unknown);
+
+			assertThat(unknown.getStackTrace(), is(nullValue()));
+			assertThat(unknown.getStackTraceId(), is(1L));
+			assertThat(dictionary.getUnresolvedSize(), is(1));
+
+			ExceptionSensorData known = exceptionData(1L, "trace");
+			dictionary.process(known);
+
+			assertThat(unknown.getStackTrace(), is(sameInstance(known.getStackTrace())));
+			assertThat(dictionary.getUnresolvedSize(), is(0));
+		}
+
+		@Test
+		public void leastRecentlyUsedEvicted() {
+			for (int i = 0; i < StackTraceDictionary.MAX_SIZE; i++) {
+				dictionary.process(exceptionData(i + 1, "trace" + i));
+			}
+			// touch the first one so that the second is the eldest
+			dictionary.process(exceptionData(1L, null));
+
+			dictionary.process(exceptionData(StackTraceDictionary.MAX_SIZE + 1, "new"));
+
+			ExceptionSensorData first = exceptionData(1L, null);
+			ExceptionSensorData second = exceptionData(2L, null);
+			dictionary.process(first);
+			dictionary.process(second);
+			assertThat(dictionary.size(), is(StackTraceDictionary.MAX_SIZE));
+			assertThat(first.getStackTrace(), is("trace0"));
+			assertThat(second.getStackTrace(), is(nullValue()));
+		}
+	}
+
+	private static ExceptionSensorData exceptionData(long stackTraceId, String stackTrace) {
+		ExceptionSensorData exceptionSensorData = new ExceptionSensorData();
+		exceptionSensorData.setStackTraceId(stackTraceId);
+		exceptionSensorData.setStackTrace(stackTrace);
+		return exceptionSensorData;
+	}
+}
@@ -64,6 +64,22 @@ public interface IAgentService {
 	 */
 	InstrumentationDefinition analyze(long platformIdent, String hash, Type type) throws BusinessException;
 
+	/**
+	 * Analyzes the given types in one call. Same as calling {@link #analyze(long, String, Type)}
+	 * for each of the types in the iteration order of the map, thus depending types should come
+	 * first.
+	 *
+	 * @param platformIdent
+	 *            Id of the agent.
+	 * @param hashesAndTypes
+	 *            Map of class hashes to the parsed {@link Type}s.
+	 * @return Map of class hashes to the instrumentation definitions. Hashes of types that should
+	 *         not be instrumented are mapped to <code>null</code>.
+	 * @throws BusinessException
+	 *             If agent with specified id does not exist.
+	 */
+	Map<String, InstrumentationDefinition> analyzeAll(long platformIdent, Map<String, Type> hashesAndTypes) throws BusinessException;
+
 	/**
 	 * Informs the CMR that the methods have been instrumented on the agent.
 	 *
@@ -74,6 +90,19 @@ public interface IAgentService {
 	 */
 	void instrumentationApplied(long platformId, Map<Long, long[]> methodToSensorMap);
 
+	/**
+	 * Informs the CMR that the agent changed how often the hooks of the methods are executed,
+	 * because their overhead exceeded the budget. Sampling rate <code>1</code> means that the hooks
+	 * are executed on every invocation again, <code>N</code> that they are executed for one of N
+	 * invocations and <code>0</code> that the hooks are disabled.
+	 *
+	 * @param platformId
+	 *            Id of the agent.
+	 * @param methodSamplingRates
+	 *            map containing method id as key and the sampling rate as value
+	 */
+	void methodSamplingChanged(long platformId, Map<Long, Integer> methodSamplingRates);
+
 	/**
 	 * Analyzes the given {@link JmxAttributeDescriptor} and decides which ones will be monitored,
 	 * based on the current configuration.
@@ -3,6 +3,7 @@ package rocks.inspectit.shared.all.cmr.service;
 import java.rmi.Remote;
 import java.util.List;
 
+import rocks.inspectit.shared.all.communication.CompressedDataObjects;
 import rocks.inspectit.shared.all.communication.DefaultData;
 
 /**
@@ -24,4 +25,14 @@ public interface IAgentStorageService extends Remote {
 	 */
 	void addDataObjects(List<? extends DefaultData> dataObjects);
 
+	/**
+	 * Adds the data objects that have been serialized and compressed as one batch by the Agent.
+	 * Agents use this method only if the CMR announced it in the
+	 * {@link rocks.inspectit.shared.all.instrumentation.config.impl.AgentConfig} on registration.
+	 *
+	 * @param compressedDataObjects
+	 *            The compressed batch of data objects.
+	 */
+	void addCompressedDataObjects(CompressedDataObjects compressedDataObjects);
+
 }
@@ -0,0 +1,103 @@
+package rocks.inspectit.shared.all.communication;
+
+/**
+ * Batch of data objects that has been serialized and compressed on the agent with the
+ * {@link rocks.inspectit.shared.all.serializer.impl.DataObjectsCompressor}, so that it can be
+ * transferred to the CMR as a single byte array.
+ *
+ * @author agent
+ *
+ */
+public class CompressedDataObjects {
+
+	/**
+	 * Id of the platform the data objects belong to.
+	 */
+	private long platformIdent;
+
+	/**
+	 * Number of data objects in the batch.
+	 */
+	private int count;
+
+	/**
+	 * Length of the serialized data before compression.
+	 */
+	private int uncompressedLength;
+
+	/**
+	 * Compressed serialized data.
+	 */
+	private byte[] data;
+
+	/**
+	 * No-arg constructor.
+	 */
+	public CompressedDataObjects() {
+	}
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param platformIdent
+	 *            Id of the platform the data objects belong to.
+	 * @param count
+	 *            Number of data objects in the batch.
+	 * @param uncompressedLength
+	 *            Length of the serialized data before compression.
+	 * @param data
+	 *            Compressed serialized data.
+	 */
+	public CompressedDataObjects(long platformIdent, int count, int uncompressedLength, byte[] data) {
+		this.platformIdent = platformIdent;
+		this.count = count;
+		this.uncompressedLength = uncompressedLength;
+		this.data = data;
+	}
+
+	/**
+	 * Gets {@link #platformIdent}.
+	 *
+	 * @return {@link #platformIdent}
+	 */
+	public long getPlatformIdent() {
+		return platformIdent;
+	}
+
+	/**
+	 * Gets {@link #count}.
+	 *
+	 * @return {@link #count}
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Gets {@link #uncompressedLength}.
+	 *
+	 * @return {@link #uncompressedLength}
+	 */
+	public int getUncompressedLength() {
+		return uncompressedLength;
+	}
+
+	/**
+	 * Gets {@link #data}.
+	 *
+	 * @return {@link #data}
+	 */
+	public byte[] getData() {
+		return data;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "CompressedDataObjects [platformIdent=" + platformIdent + ", count=" + count + ", uncompressedLength=" + uncompressedLength + ", compressedLength="
+				+ ((null != data) ? data.length : 0) + "]";
+	}
+
+}
@@ -117,7 +117,7 @@ public enum TimerDataComparatorEnum implements IDataComparator<TimerData>, Compa
 		case CPUMAX:
 			return Double.compare(o1.getCpuMax(), o2.getCpuMax());
 		case CPUDURATION:
-			return Double.compare(o1.getCpuDuration(), o2.getCpuDuration());
+			return Double.compare(o1.getEstimatedCpuDuration(), o2.getEstimatedCpuDuration());
 		case EXCLUSIVEAVERAGE:
 			return Double.compare(o1.getExclusiveAverage(), o2.getExclusiveAverage());
 		case EXCLUSIVEMIN:
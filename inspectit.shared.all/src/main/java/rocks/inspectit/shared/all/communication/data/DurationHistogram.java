@@ -0,0 +1,224 @@
+package rocks.inspectit.shared.all.communication.data;
+
+import java.util.Arrays;
+
+/**
+ * Log-linear histogram of the durations in milliseconds kept as the array of bucket counts. Every
+ * power of two between {@link #MIN_EXPONENT} and {@link #MAX_EXPONENT} is split in
+ * {@link #SUB_BUCKETS} linear sub-buckets, so the width of a bucket is at most 12.5% of its lower
+ * bound. Durations below the smallest power of two are counted in the first bucket, durations
+ * above the biggest one in the last bucket.
+ * <p>
+ * The bucket arrays are kept trimmed to the last bucket having a count, thus a histogram of a
+ * method with durations in the same range has only a few elements.
+ *
+ * @author agent
+ *
+ */
+public final class DurationHistogram {
+
+	/**
+	 * Exponent of the smallest power of two that has own buckets (~1 microsecond).
+	 */
+	public static final int MIN_EXPONENT = -10;
+
+	/**
+	 * Exponent of the biggest power of two that has own buckets (~35 minutes).
+	 */
+	public static final int MAX_EXPONENT = 21;
+
+	/**
+	 * Number of bits defining the sub-bucket.
+	 */
+	private static final int SUB_BUCKET_BITS = 3;
+
+	/**
+	 * Number of sub-buckets in each power of two.
+	 */
+	public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/**
+	 * Total number of buckets.
+	 */
+	public static final int BUCKETS = 1 + ((MAX_EXPONENT - MIN_EXPONENT + 1) * SUB_BUCKETS);
+
+	/**
+	 * Number of bits of the double mantissa.
+	 */
+	private static final int MANTISSA_BITS = 52;
+
+	/**
+	 * Exponent bias of the double.
+	 */
+	private static final int EXPONENT_BIAS = 1023;
+
+	/**
+	 * Private constructor.
+	 */
+	private DurationHistogram() {
+	}
+
+	/**
+	 * Returns the index of the bucket the duration belongs to.
+	 *
+	 * @param duration
+	 *            Duration in milliseconds.
+	 * @return Index of the bucket.
+	 */
+	public static int getBucketIndex(double duration) {
+		if (!(duration >= Math.scalb(1d, MIN_EXPONENT))) {
+			// also takes negative values and NaN
+			return 0;
+		}
+
+		long bits = Double.doubleToRawLongBits(duration);
+		int exponent = (int) ((bits >>> MANTISSA_BITS) & 0x7ff) - EXPONENT_BIAS;
+		if (exponent > MAX_EXPONENT) {
+			return BUCKETS - 1;
+		}
+		int subBucket = (int) (bits >>> (MANTISSA_BITS - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return 1 + ((exponent - MIN_EXPONENT) * SUB_BUCKETS) + subBucket;
+	}
+
+	/**
+	 * Returns the lowest duration belonging to the bucket.
+	 *
+	 * @param index
+	 *            Index of the bucket.
+	 * @return Lowest duration in milliseconds.
+	 */
+	public static double getBucketLowerBound(int index) {
+		if (index <= 0) {
+			return 0d;
+		}
+		int exponent = MIN_EXPONENT + ((index - 1) / SUB_BUCKETS);
+		int subBucket = (index - 1) % SUB_BUCKETS;
+		return Math.scalb(1d + ((double) subBucket / SUB_BUCKETS), exponent);
+	}
+
+	/**
+	 * Returns the duration where the bucket ends. The last bucket ends where the biggest power of
+	 * two having own buckets ends, although it holds all durations above.
+	 *
+	 * @param index
+	 *            Index of the bucket.
+	 * @return Upper bound in milliseconds.
+	 */
+	public static double getBucketUpperBound(int index) {
+		if (index >= (BUCKETS - 1)) {
+			return Math.scalb(1d, MAX_EXPONENT + 1);
+		}
+		return getBucketLowerBound(index + 1);
+	}
+
+	/**
+	 * Records the duration in the buckets. The given array must have {@link #BUCKETS} elements.
+	 *
+	 * @param buckets
+	 *            Bucket counts.
+	 * @param duration
+	 *            Duration in milliseconds.
+	 */
+	public static void record(long[] buckets, double duration) {
+		buckets[getBucketIndex(duration)]++;
+	}
+
+	/**
+	 * Returns the copy of the buckets without the trailing empty buckets.
+	 *
+	 * @param buckets
+	 *            Bucket counts.
+	 * @return Trimmed copy of the buckets or <code>null</code> if all buckets are empty.
+	 */
+	public static long[] trim(long[] buckets) {
+		if (null == buckets) {
+			return null;
+		}
+		int length = buckets.length;
+		while ((length > 0) && (0 == buckets[length - 1])) {
+			length--;
+		}
+		if (0 == length) {
+			return null;
+		}
+		return Arrays.copyOf(buckets, length);
+	}
+
+	/**
+	 * Merges the source buckets into the target buckets. The target array is grown if needed, thus
+	 * the returned array must be used after the merge. The source array is never shared with the
+	 * result.
+	 *
+	 * @param target
+	 *            Buckets to merge to, can be <code>null</code>.
+	 * @param source
+	 *            Buckets to merge, can be <code>null</code>.
+	 * @return Merged buckets.
+	 */
+	public static long[] merge(long[] target, long[] source) {
+		if (null == source) {
+			return target;
+		}
+		if (null == target) {
+			return source.clone();
+		}
+
+		long[] result = target;
+		if (source.length > target.length) {
+			result = Arrays.copyOf(target, source.length);
+		}
+		for (int i = 0; i < source.length; i++) {
+			result[i] += source[i];
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the total count of the buckets.
+	 *
+	 * @param buckets
+	 *            Bucket counts.
+	 * @return Total count.
+	 */
+	public static long getTotalCount(long[] buckets) {
+		long count = 0;
+		if (null != buckets) {
+			for (long bucketCount : buckets) {
+				count += bucketCount;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the estimated duration at the given percentile, being the middle of the bucket
+	 * holding the percentile.
+	 *
+	 * @param buckets
+	 *            Bucket counts.
+	 * @param percentile
+	 *            Percentile between 0 and 100.
+	 * @return Estimated duration in milliseconds or <code>-1</code> if the histogram is empty.
+	 */
+	public static double getPercentile(long[] buckets, double percentile) {
+		if ((percentile < 0) || (percentile > 100)) {
+			throw new IllegalArgumentException("Percentile must be between 0 and 100, given was " + percentile + ".");
+		}
+
+		long totalCount = getTotalCount(buckets);
+		if (0 == totalCount) {
+			return -1;
+		}
+
+		long rank = Math.max(1L, (long) Math.ceil((percentile / 100d) * totalCount));
+		long count = 0;
+		for (int i = 0; i < buckets.length; i++) {
+			count += buckets[i];
+			if (count >= rank) {
+				return (getBucketLowerBound(i) + getBucketUpperBound(i)) / 2d;
+			}
+		}
+		return getBucketUpperBound(buckets.length - 1);
+	}
+
+}
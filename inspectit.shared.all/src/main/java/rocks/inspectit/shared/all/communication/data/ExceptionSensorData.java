@@ -31,10 +31,22 @@ public class ExceptionSensorData extends InvocationAwareData {
 	private String cause;
 
 	/**
-	 * The stack trace stored as a string.
+	 * The stack trace stored as a string. If the {@link #stackTraceId} is set, the first line holds
+	 * only the throwable type and not the message, as the text is shared by all throwables with the
+	 * same stack trace. The message is available as the {@link #errorMessage}. The stack trace can
+	 * be <code>null</code> while the CMR waits for the text of an unknown stack trace id.
 	 */
 	private String stackTrace;
 
+	/**
+	 * Id of the stack trace in the stack trace dictionary. The id is the fingerprint of the stack
+	 * trace frames computed by the agent. If the id is set, the {@link #stackTrace} is only sent by
+	 * the agent until the first data object holding it was sent, afterwards the CMR resolves it by
+	 * id.
+	 * Value <code>0</code> means that the stack trace is not in the dictionary.
+	 */
+	private long stackTraceId;
+
 	/**
 	 * The {@link ExceptionEvent} indicating by which event this object was created.
 	 */
@@ -134,6 +146,25 @@ public class ExceptionSensorData extends InvocationAwareData {
 		this.stackTrace = stackTrace;
 	}
 
+	/**
+	 * Gets {@link #stackTraceId}.
+	 *
+	 * @return {@link #stackTraceId}
+	 */
+	public long getStackTraceId() {
+		return stackTraceId;
+	}
+
+	/**
+	 * Sets {@link #stackTraceId}.
+	 *
+	 * @param stackTraceId
+	 *            New value for {@link #stackTraceId}
+	 */
+	public void setStackTraceId(long stackTraceId) {
+		this.stackTraceId = stackTraceId;
+	}
+
 	/**
 	 * Gets {@link #exceptionEvent}.
 	 *
@@ -224,10 +255,13 @@ public class ExceptionSensorData extends InvocationAwareData {
 	@Override
 	public long getObjectSize(IObjectSizes objectSizes, boolean doAlign) {
 		long size = super.getObjectSize(objectSizes, doAlign);
-		size += objectSizes.getPrimitiveTypesSize(6, 0, 0, 0, 1, 0);
+		size += objectSizes.getPrimitiveTypesSize(6, 0, 0, 0, 2, 0);
 		size += objectSizes.getSizeOf(errorMessage);
 		size += objectSizes.getSizeOf(cause);
-		size += objectSizes.getSizeOf(stackTrace);
+		// stack trace with the id is shared by all objects and held by the dictionary
+		if (0 == stackTraceId) {
+			size += objectSizes.getSizeOf(stackTrace);
+		}
 		size += objectSizes.getSizeOf(throwableType);
 		size += objectSizes.getSizeOf(exceptionEvent);
 		size += objectSizes.getSizeOf(child);
@@ -249,6 +283,7 @@ public class ExceptionSensorData extends InvocationAwareData {
 		result = (prime * result) + ((child == null) ? 0 : child.hashCode());
 		result = (prime * result) + ((exceptionEvent == null) ? 0 : exceptionEvent.hashCode());
 		result = (prime * result) + ((stackTrace == null) ? 0 : stackTrace.hashCode());
+		result = (prime * result) + (int) (stackTraceId ^ (stackTraceId >>> 32));
 		result = (prime * result) + (int) (throwableIdentityHashCode ^ (throwableIdentityHashCode >>> 32));
 		result = (prime * result) + ((throwableType == null) ? 0 : throwableType.hashCode());
 		return result;
@@ -297,6 +332,9 @@ public class ExceptionSensorData extends InvocationAwareData {
 		} else if (!stackTrace.equals(other.stackTrace)) {
 			return false;
 		}
+		if (stackTraceId != other.stackTraceId) {
+			return false;
+		}
 		if (throwableIdentityHashCode != other.throwableIdentityHashCode) {
 			return false;
 		}
@@ -128,6 +128,32 @@ public class InvocationSequenceData extends MethodSensorData implements ISpanIde
 	@JsonSerialize(include = JsonSerialize.Inclusion.NON_DEFAULT)
 	private int businessTransactionId = 0;
 
+	/**
+	 * Probability with which the agent recorded the invocation sequence, <code>1</code> when every
+	 * invocation of the starting method is recorded. Counts derived from the sampled sequences can
+	 * be extrapolated by dividing with the rate.
+	 */
+	private double samplingRate = 1d;
+
+	/**
+	 * Number of consecutive invocations of the same method with the same nested structure that
+	 * are aggregated in this element, <code>0</code> if the element is not aggregated. The
+	 * duration of an aggregated element is the sum of all aggregated durations, the sensor data is
+	 * aggregated as well and the nested sequences are the ones of the first invocation with the
+	 * data of all invocations aggregated.
+	 */
+	private long loopCount = 0;
+
+	/**
+	 * Minimum duration of the aggregated invocations.
+	 */
+	private double loopMinDuration;
+
+	/**
+	 * Maximum duration of the aggregated invocations.
+	 */
+	private double loopMaxDuration;
+
 	/**
 	 * Default no-args constructor.
 	 */
@@ -451,6 +477,82 @@ public class InvocationSequenceData extends MethodSensorData implements ISpanIde
 		this.businessTransactionId = businessTransactionId;
 	}
 
+	/**
+	 * Gets {@link #samplingRate}.
+	 *
+	 * @return {@link #samplingRate}
+	 */
+	public double getSamplingRate() {
+		return samplingRate;
+	}
+
+	/**
+	 * Sets {@link #samplingRate}.
+	 *
+	 * @param samplingRate
+	 *            New value for {@link #samplingRate}
+	 */
+	public void setSamplingRate(double samplingRate) {
+		this.samplingRate = samplingRate;
+	}
+
+	/**
+	 * Gets {@link #loopCount}.
+	 *
+	 * @return {@link #loopCount}
+	 */
+	public long getLoopCount() {
+		return loopCount;
+	}
+
+	/**
+	 * Sets {@link #loopCount}.
+	 *
+	 * @param loopCount
+	 *            New value for {@link #loopCount}
+	 */
+	public void setLoopCount(long loopCount) {
+		this.loopCount = loopCount;
+	}
+
+	/**
+	 * Gets {@link #loopMinDuration}.
+	 *
+	 * @return {@link #loopMinDuration}
+	 */
+	public double getLoopMinDuration() {
+		return loopMinDuration;
+	}
+
+	/**
+	 * Sets {@link #loopMinDuration}.
+	 *
+	 * @param loopMinDuration
+	 *            New value for {@link #loopMinDuration}
+	 */
+	public void setLoopMinDuration(double loopMinDuration) {
+		this.loopMinDuration = loopMinDuration;
+	}
+
+	/**
+	 * Gets {@link #loopMaxDuration}.
+	 *
+	 * @return {@link #loopMaxDuration}
+	 */
+	public double getLoopMaxDuration() {
+		return loopMaxDuration;
+	}
+
+	/**
+	 * Sets {@link #loopMaxDuration}.
+	 *
+	 * @param loopMaxDuration
+	 *            New value for {@link #loopMaxDuration}
+	 */
+	public void setLoopMaxDuration(double loopMaxDuration) {
+		this.loopMaxDuration = loopMaxDuration;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -533,7 +635,7 @@ public class InvocationSequenceData extends MethodSensorData implements ISpanIde
 	@Override
 	public long getObjectSize(IObjectSizes objectSizes, boolean doAlign) {
 		long size = super.getObjectSize(objectSizes, doAlign);
-		size += objectSizes.getPrimitiveTypesSize(9, 0, 2, 0, 2, 3);
+		size += objectSizes.getPrimitiveTypesSize(9, 0, 2, 0, 3, 6);
 		size += objectSizes.getSizeOf(timerData);
 		size += objectSizes.getSizeOf(loggingData);
 		size += objectSizes.getSizeOf(sqlStatementData);
@@ -589,6 +691,10 @@ public class InvocationSequenceData extends MethodSensorData implements ISpanIde
 		clone.setLoggingData(this.getLoggingData());
 		clone.setApplicationId(this.getApplicationId());
 		clone.setBusinessTransactionId(this.getBusinessTransactionId());
+		clone.setSamplingRate(this.getSamplingRate());
+		clone.setLoopCount(this.getLoopCount());
+		clone.setLoopMinDuration(this.getLoopMinDuration());
+		clone.setLoopMaxDuration(this.getLoopMaxDuration());
 		return clone;
 	}
 
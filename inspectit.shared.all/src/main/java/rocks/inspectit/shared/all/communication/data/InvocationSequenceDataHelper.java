@@ -138,14 +138,27 @@ public final class InvocationSequenceDataHelper {
 	}
 
 	/**
-	 * Checks whether this data object contains SQL data.
+	 * Checks whether this data object contains SQL data. The count of the SQL data is bigger than
+	 * one only if the data object aggregates a loop of invocations.
 	 *
 	 * @param data
 	 *            the <code>InvocationSequenceData</code> object.
 	 * @return whether this data object contains SQL data.
 	 */
 	public static boolean hasSQLData(InvocationSequenceData data) {
-		return (null != data.getSqlStatementData()) && (1 == data.getSqlStatementData().getCount());
+		return (null != data.getSqlStatementData()) && (data.getSqlStatementData().getCount() > 0);
+	}
+
+	/**
+	 * Checks whether this data object aggregates a loop of consecutive invocations of the same
+	 * method.
+	 *
+	 * @param data
+	 *            the <code>InvocationSequenceData</code> object.
+	 * @return whether this data object aggregates a loop.
+	 */
+	public static boolean isLoop(InvocationSequenceData data) {
+		return data.getLoopCount() > 1;
 	}
 
 	/**
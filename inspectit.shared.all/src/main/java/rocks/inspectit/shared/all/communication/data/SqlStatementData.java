@@ -25,6 +25,13 @@ public class SqlStatementData extends TimerData {
 	 */
 	private String sql;
 
+	/**
+	 * Id of the SQL-String in the statement dictionary. If the id is set, the {@link #sql} is only
+	 * sent by the agent until the first data object holding it was sent, afterwards the CMR
+	 * resolves it by id. Value <code>0</code> means that the SQL-String is not in the dictionary.
+	 */
+	private long sqlId;
+
 	/**
 	 * The URL that the connection uses.
 	 */
@@ -146,6 +153,25 @@ public class SqlStatementData extends TimerData {
 		this.sql = sql;
 	}
 
+	/**
+	 * Gets {@link #sqlId}.
+	 *
+	 * @return {@link #sqlId}
+	 */
+	public long getSqlId() {
+		return sqlId;
+	}
+
+	/**
+	 * Sets {@link #sqlId}.
+	 *
+	 * @param sqlId
+	 *            New value for {@link #sqlId}
+	 */
+	public void setSqlId(long sqlId) {
+		this.sqlId = sqlId;
+	}
+
 	/**
 	 * Gets {@link #preparedStatement}.
 	 *
@@ -282,6 +308,7 @@ public class SqlStatementData extends TimerData {
 		result = (prime * result) + ((parameterValues == null) ? 0 : parameterValues.hashCode());
 		result = (prime * result) + (preparedStatement ? 1231 : 1237);
 		result = (prime * result) + ((sql == null) ? 0 : sql.hashCode());
+		result = (prime * result) + (int) (sqlId ^ (sqlId >>> 32));
 		result = (prime * result) + ((databaseUrl == null) ? 0 : databaseUrl.hashCode());
 		return result;
 	}
@@ -318,6 +345,9 @@ public class SqlStatementData extends TimerData {
 		} else if (!sql.equals(other.sql)) {
 			return false;
 		}
+		if (sqlId != other.sqlId) {
+			return false;
+		}
 		if (databaseUrl == null) {
 			if (other.databaseUrl != null) {
 				return false;
@@ -334,8 +364,11 @@ public class SqlStatementData extends TimerData {
 	@Override
 	public long getObjectSize(IObjectSizes objectSizes, boolean doAlign) {
 		long size = super.getObjectSize(objectSizes, doAlign);
-		size += objectSizes.getPrimitiveTypesSize(6, 1, 0, 0, 0, 0);
-		size += objectSizes.getSizeOf(sql);
+		size += objectSizes.getPrimitiveTypesSize(6, 1, 0, 0, 1, 0);
+		// SQL-String with the id is shared by all objects and held by the dictionary
+		if (0 == sqlId) {
+			size += objectSizes.getSizeOf(sql);
+		}
 		size += objectSizes.getSizeOf(databaseProductName);
 		size += objectSizes.getSizeOf(databaseProductVersion);
 		size += objectSizes.getSizeOf(databaseUrl);
@@ -1,11 +1,13 @@
 package rocks.inspectit.shared.all.communication.data;
 
 import java.sql.Timestamp;
+import java.util.Arrays;
 import java.util.List;
 
 import javax.persistence.Entity;
 import javax.persistence.Index;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 
 import org.codehaus.jackson.annotate.JsonAutoDetect;
 import org.codehaus.jackson.annotate.JsonAutoDetect.Visibility;
@@ -86,6 +88,13 @@ public class TimerData extends InvocationAwareData {
 	 */
 	private double cpuDuration = 0;
 
+	/**
+	 * Number of invocations the cpu time was measured for. Smaller than the {@link #count} if the
+	 * cpu time is sampled on the agent. Value <code>0</code> denotes data that does not report the
+	 * number, where the cpu time was measured for all invocations.
+	 */
+	private long cpuCount = 0;
+
 	/**
 	 * Exclusive count. Needed because this count can be less than the total count.
 	 */
@@ -112,6 +121,13 @@ public class TimerData extends InvocationAwareData {
 	@JsonIgnore
 	private boolean charting;
 
+	/**
+	 * Bucket counts of the {@link DurationHistogram} (optional parameter). Only available if the
+	 * histogram timer storage is used on the agent.
+	 */
+	@Transient
+	private long[] histogram;
+
 	/**
 	 * Default no-args constructor.
 	 */
@@ -363,7 +379,62 @@ public class TimerData extends InvocationAwareData {
 	 * @return the cpuAverage
 	 */
 	public double getCpuAverage() {
-		return cpuDuration / count;
+		return cpuDuration / ((0 < cpuCount) ? cpuCount : count);
+	}
+
+	/**
+	 * Returns the complete cpu duration corrected by the number of invocations the cpu time was
+	 * measured for. Equal to the {@link #getCpuDuration()} if the cpu time was not sampled.
+	 * <p>
+	 * <b> Notice: ensure to check using the <code> isCpuMetricDataAvailable() </code> if cpu metric
+	 * data is in fact available, otherwise you might get strange results. </b>
+	 *
+	 * @return the estimated cpu duration of all invocations
+	 */
+	public double getEstimatedCpuDuration() {
+		if ((0 < cpuCount) && (cpuCount < count)) {
+			return (cpuDuration / cpuCount) * count;
+		}
+		return cpuDuration;
+	}
+
+	/**
+	 * Gets {@link #cpuCount}.
+	 *
+	 * @return {@link #cpuCount}
+	 */
+	public long getCpuCount() {
+		return cpuCount;
+	}
+
+	/**
+	 * Sets {@link #cpuCount}.
+	 *
+	 * @param cpuCount
+	 *            New value for {@link #cpuCount}
+	 */
+	public void setCpuCount(long cpuCount) {
+		this.cpuCount = cpuCount;
+	}
+
+	/**
+	 * increases the cpu count by 1.
+	 */
+	public void increaseCpuCount() {
+		this.cpuCount++;
+	}
+
+	/**
+	 * Returns the number of invocations the cpu time was measured for, taking into account the data
+	 * that does not report the {@link #cpuCount}.
+	 *
+	 * @return Number of invocations the cpu time was measured for.
+	 */
+	private long getMeasuredCpuCount() {
+		if (!isCpuMetricDataAvailable()) {
+			return 0;
+		}
+		return (0 < cpuCount) ? cpuCount : count;
 	}
 
 	/**
@@ -527,6 +598,45 @@ public class TimerData extends InvocationAwareData {
 		this.charting = charting;
 	}
 
+	/**
+	 * Gets {@link #histogram}.
+	 *
+	 * @return {@link #histogram}
+	 */
+	public long[] getHistogram() {
+		return histogram;
+	}
+
+	/**
+	 * Sets {@link #histogram}.
+	 *
+	 * @param histogram
+	 *            New value for {@link #histogram}
+	 */
+	public void setHistogram(long[] histogram) {
+		this.histogram = histogram;
+	}
+
+	/**
+	 * Returns the estimated duration at the given percentile based on the histogram. The estimation
+	 * is limited by the minimum and the maximum duration.
+	 * <p>
+	 * <b> Notice: ensure to check using the <code> isHistogramDataAvailable() </code> if the
+	 * histogram is in fact available, otherwise <code>-1</code> is returned. </b>
+	 *
+	 * @param percentile
+	 *            Percentile between 0 and 100.
+	 * @return Estimated duration at the percentile or <code>-1</code> if the histogram is not
+	 *         available.
+	 */
+	public double getPercentile(double percentile) {
+		double value = DurationHistogram.getPercentile(histogram, percentile);
+		if ((-1 == value) || !isTimeDataAvailable()) {
+			return value;
+		}
+		return Math.max(min, Math.min(max, value));
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -542,7 +652,10 @@ public class TimerData extends InvocationAwareData {
 	@Override
 	public long getObjectSize(IObjectSizes objectSizes, boolean doAlign) {
 		long size = super.getObjectSize(objectSizes, doAlign);
-		size += objectSizes.getPrimitiveTypesSize(0, 1, 0, 0, 2, 10);
+		size += objectSizes.getPrimitiveTypesSize(1, 1, 0, 0, 3, 10);
+		if (null != histogram) {
+			size += objectSizes.getSizeOfPrimitiveArray(histogram.length, Long.SIZE / Byte.SIZE);
+		}
 		if (doAlign) {
 			return objectSizes.alignTo8Bytes(size);
 		} else {
@@ -590,6 +703,15 @@ public class TimerData extends InvocationAwareData {
 		return min != -1;
 	}
 
+	/**
+	 * Whether or not this timer data contains the histogram of the durations.
+	 *
+	 * @return Whether or not this timer data contains the histogram of the durations.
+	 */
+	public boolean isHistogramDataAvailable() {
+		return null != histogram;
+	}
+
 	/**
 	 * Aggregates the values given in the supplied timer data parameter to the objects data.
 	 *
@@ -598,6 +720,7 @@ public class TimerData extends InvocationAwareData {
 	 */
 	public void aggregateTimerData(TimerData timerData) {
 		super.aggregateInvocationAwareData(timerData);
+		long measuredCpuCount = this.getMeasuredCpuCount();
 		this.setCount(this.getCount() + timerData.getCount());
 		this.setDuration(this.getDuration() + timerData.getDuration());
 		this.calculateMax(timerData.getMax());
@@ -608,12 +731,17 @@ public class TimerData extends InvocationAwareData {
 			this.calculateCpuMax(timerData.getCpuMax());
 			this.calculateCpuMin(timerData.getCpuMin());
 		}
+		// aggregated count can include invocations without the cpu time
+		this.setCpuCount(measuredCpuCount + timerData.getMeasuredCpuCount());
 		if (timerData.isExclusiveTimeDataAvailable()) {
 			this.addExclusiveDuration(timerData.getExclusiveDuration());
 			this.setExclusiveCount(this.getExclusiveCount() + timerData.getExclusiveCount());
 			this.calculateExclusiveMax(timerData.getExclusiveMax());
 			this.calculateExclusiveMin(timerData.getExclusiveMin());
 		}
+		if (timerData.isHistogramDataAvailable()) {
+			this.histogram = DurationHistogram.merge(this.histogram, timerData.getHistogram());
+		}
 		this.charting = this.charting | timerData.isCharting();
 	}
 
@@ -626,6 +754,7 @@ public class TimerData extends InvocationAwareData {
 		int result = super.hashCode();
 		result = (prime * result) + (int) (count ^ (count >>> 32));
 		long temp;
+		result = (prime * result) + (int) (cpuCount ^ (cpuCount >>> 32));
 		temp = Double.doubleToLongBits(cpuDuration);
 		result = (prime * result) + (int) (temp ^ (temp >>> 32));
 		temp = Double.doubleToLongBits(cpuMax);
@@ -648,6 +777,7 @@ public class TimerData extends InvocationAwareData {
 		temp = Double.doubleToLongBits(variance);
 		result = (prime * result) + (int) (temp ^ (temp >>> 32));
 		result = (prime * result) + (charting ? 1231 : 1237);
+		result = (prime * result) + Arrays.hashCode(histogram);
 		return result;
 	}
 
@@ -669,6 +799,9 @@ public class TimerData extends InvocationAwareData {
 		if (count != other.count) {
 			return false;
 		}
+		if (cpuCount != other.cpuCount) {
+			return false;
+		}
 		if (Double.doubleToLongBits(cpuDuration) != Double.doubleToLongBits(other.cpuDuration)) {
 			return false;
 		}
@@ -705,6 +838,9 @@ public class TimerData extends InvocationAwareData {
 		if (charting != other.charting) {
 			return false;
 		}
+		if (!Arrays.equals(histogram, other.histogram)) {
+			return false;
+		}
 		return true;
 	}
 
@@ -1,6 +1,8 @@
 package rocks.inspectit.shared.all.communication.data.cmr;
 
 import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Class that holds agent status data.
@@ -98,6 +100,13 @@ public class AgentStatusData implements Serializable {
 	 */
 	private InstrumentationStatus instrumentationStatus;
 
+	/**
+	 * Methods the agent degraded due to the hook overhead. Key is the method id, value the
+	 * sampling rate: <code>N</code> if hooks are executed for one of N invocations, <code>0</code>
+	 * if hooks are disabled.
+	 */
+	private Map<Long, Integer> degradedMethods = new HashMap<Long, Integer>(0);
+
 	/**
 	 * No-arg constructor. Calling {@link #AgentStatusData(AgentConnection)} using
 	 * {@link AgentConnection#NEVER_CONNECTED}.
@@ -249,6 +258,25 @@ public class AgentStatusData implements Serializable {
 		this.instrumentationStatus = instrumentationStatus;
 	}
 
+	/**
+	 * Gets {@link #degradedMethods}.
+	 *
+	 * @return {@link #degradedMethods}
+	 */
+	public Map<Long, Integer> getDegradedMethods() {
+		return this.degradedMethods;
+	}
+
+	/**
+	 * Sets {@link #degradedMethods}. The map must not be changed after it has been set.
+	 *
+	 * @param degradedMethods
+	 *            New value for {@link #degradedMethods}
+	 */
+	public void setDegradedMethods(Map<Long, Integer> degradedMethods) {
+		this.degradedMethods = degradedMethods;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -258,6 +286,7 @@ public class AgentStatusData implements Serializable {
 		int result = 1;
 		result = (prime * result) + ((this.agentConnection == null) ? 0 : this.agentConnection.hashCode());
 		result = (prime * result) + (int) (this.connectionTimestamp ^ (this.connectionTimestamp >>> 32));
+		result = (prime * result) + ((this.degradedMethods == null) ? 0 : this.degradedMethods.hashCode());
 		result = (prime * result) + ((this.instrumentationStatus == null) ? 0 : this.instrumentationStatus.hashCode());
 		result = (prime * result) + (int) (this.lastDataSendTimestamp ^ (this.lastDataSendTimestamp >>> 32));
 		result = (prime * result) + (int) (this.lastKeepAliveTimestamp ^ (this.lastKeepAliveTimestamp >>> 32));
@@ -287,6 +316,13 @@ public class AgentStatusData implements Serializable {
 		if (this.connectionTimestamp != other.connectionTimestamp) {
 			return false;
 		}
+		if (this.degradedMethods == null) {
+			if (other.degradedMethods != null) {
+				return false;
+			}
+		} else if (!this.degradedMethods.equals(other.degradedMethods)) {
+			return false;
+		}
 		if (this.instrumentationStatus != other.instrumentationStatus) {
 			return false;
 		}
@@ -128,6 +128,7 @@ public class TimerRawVO extends MethodSensorData {
 		double cpuMin = Double.MAX_VALUE;
 		double cpuMax = 0.0d;
 		double cpuDuration = 0.0d;
+		long cpuCount = 0;
 
 		for (TimerRawContainer container : data) {
 			values = container.getData();
@@ -147,6 +148,11 @@ public class TimerRawVO extends MethodSensorData {
 			if (null != values) {
 				for (int j = 0; j < container.getCount(); j++) {
 					value = values[j];
+					if (value < 0) {
+						// cpu time not measured for this invocation
+						continue;
+					}
+					cpuCount++;
 					cpuDuration += value;
 					if (value < cpuMin) {
 						cpuMin = value;
@@ -169,6 +175,7 @@ public class TimerRawVO extends MethodSensorData {
 			timerData.calculateCpuMin(cpuMin);
 			timerData.calculateCpuMax(cpuMax);
 			timerData.setCpuDuration(cpuDuration);
+			timerData.setCpuCount(cpuCount);
 		}
 
 		return timerData;
@@ -199,9 +206,10 @@ public class TimerRawVO extends MethodSensorData {
 		private double[] data = new double[MAX_SIZE];
 
 		/**
-		 * Initializes a new cpu data array with the specified MAX_SIZE.
+		 * The cpu data array, initialized with the first cpu time value. Values of the time
+		 * measurements without cpu time are negative.
 		 */
-		private double[] cpuData = new double[MAX_SIZE];
+		private double[] cpuData;
 
 		/**
 		 * The current position/count.
@@ -216,11 +224,10 @@ public class TimerRawVO extends MethodSensorData {
 		 */
 		public void add(double time) {
 			data[count] = time;
-			count++;
-
 			if (null != cpuData) {
-				cpuData = null; // NOPMD
+				cpuData[count] = -1.0d;
 			}
+			count++;
 		}
 
 		/**
@@ -232,6 +239,10 @@ public class TimerRawVO extends MethodSensorData {
 		 *            the cpu time.
 		 */
 		public void add(double time, double cpuTime) {
+			if (null == cpuData) {
+				cpuData = new double[MAX_SIZE];
+				Arrays.fill(cpuData, 0, count, -1.0d);
+			}
 			data[count] = time;
 			cpuData[count] = cpuTime;
 			count++;
@@ -265,9 +276,10 @@ public class TimerRawVO extends MethodSensorData {
 		}
 
 		/**
-		 * Return the double cpu data array containing the measurements.
+		 * Return the double cpu data array containing the measurements. Negative values denote
+		 * measurements without cpu time.
 		 *
-		 * @return The double cpu data array.
+		 * @return The double cpu data array or <code>null</code> if no cpu time was added.
 		 */
 		public double[] getCpuData() {
 			return cpuData;
@@ -0,0 +1,71 @@
+package rocks.inspectit.shared.all.instrumentation.config;
+
+/**
+ * Algorithms the agent can use to compute the hash of the class byte code. Hashes are hex strings
+ * of different length for each algorithm, thus hashes of different algorithms never collide and
+ * can be held in the same structures.
+ *
+ * @author agent
+ *
+ */
+public enum ClassHashAlgorithm {
+
+	/** SHA-256 digest, 64 hex characters. */
+	SHA256(64),
+
+	/** 128-bit MurmurHash3 (x64 variant), 32 hex characters. */
+	MURMUR3_128(32);
+
+	/**
+	 * Length of the hex string of the hash.
+	 */
+	private final int hexLength;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param hexLength
+	 *            Length of the hex string of the hash.
+	 */
+	ClassHashAlgorithm(int hexLength) {
+		this.hexLength = hexLength;
+	}
+
+	/**
+	 * Returns if the given hash was created with this algorithm.
+	 *
+	 * @param hash
+	 *            Hash to check.
+	 * @return <code>true</code> if the hash has the length of this algorithm's hashes.
+	 */
+	public boolean isAlgorithmOf(String hash) {
+		return (null != hash) && (hash.length() == hexLength);
+	}
+
+	/**
+	 * Returns the algorithm the given hash was created with.
+	 *
+	 * @param hash
+	 *            Hash to check.
+	 * @return {@link ClassHashAlgorithm} or <code>null</code> if the hash is not created with any
+	 *         of the known algorithms.
+	 */
+	public static ClassHashAlgorithm of(String hash) {
+		for (ClassHashAlgorithm algorithm : values()) {
+			if (algorithm.isAlgorithmOf(hash)) {
+				return algorithm;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets {@link #hexLength}.
+	 *
+	 * @return {@link #hexLength}
+	 */
+	public int getHexLength() {
+		return hexLength;
+	}
+
+}
@@ -5,6 +5,7 @@ import java.util.Map;
 
 import org.apache.commons.lang.StringUtils;
 
+import rocks.inspectit.shared.all.instrumentation.config.ClassHashAlgorithm;
 import rocks.inspectit.shared.all.pattern.IMatchPattern;
 
 /**
@@ -67,6 +68,26 @@ public class AgentConfig {
 	 */
 	private Collection<IMatchPattern> excludeClassesPatterns;
 
+	/**
+	 * Patterns of the class names the sensor assignments target directly. Classes matching one of
+	 * these patterns might be instrumented and are analyzed by the CMR right away. If
+	 * <code>null</code> all classes are analyzed right away.
+	 */
+	private Collection<IMatchPattern> classCandidatePatterns;
+
+	/**
+	 * Patterns of the super-class, interface and annotation names the sensor assignments target.
+	 * Types matching one of these patterns and all their sub-types might be instrumented and are
+	 * analyzed by the CMR right away.
+	 */
+	private Collection<IMatchPattern> hierarchyCandidatePatterns;
+
+	/**
+	 * Filter over all candidate patterns the agent uses to skip the analysis of classes that can
+	 * not be instrumented. If <code>null</code> all classes are analyzed.
+	 */
+	private InstrumentationPrefilter instrumentationPrefilter;
+
 	/**
 	 * Set of known {@link InstrumentationDefinition} for the agent that can be used by the Agent
 	 * right away. Each {@link InstrumentationDefinition} is mapped to the collection of the class
@@ -80,6 +101,43 @@ public class AgentConfig {
 	 */
 	private String configurationInfo;
 
+	/**
+	 * Revision of the configuration. Changes each time the environment, any of its profiles or
+	 * the agent registration changes, thus instrumentation definitions received with the same
+	 * revision stay valid.
+	 */
+	private String configurationRevision;
+
+	/**
+	 * If the CMR accepts data objects as compressed batches.
+	 */
+	private boolean compressedDataTransport;
+
+	/**
+	 * Number of data batches the agent can send without waiting for the acknowledgement of the CMR.
+	 * Value <code>0</code> means that the data is sent without acknowledgements. Unacknowledged
+	 * batches are resent, thus a batch whose acknowledgement was lost is stored twice.
+	 */
+	private int dataSendingWindow;
+
+	/**
+	 * Hook time in microseconds per second each instrumented method can cause before the agent
+	 * starts sampling or disables its hooks. Value <code>0</code> means that the overhead is not
+	 * limited.
+	 */
+	private long methodOverheadBudget;
+
+	/**
+	 * Algorithm the agent uses to compute the hashes of the class byte code. If <code>null</code>
+	 * {@link ClassHashAlgorithm#SHA256} is used.
+	 */
+	private ClassHashAlgorithm classHashAlgorithm;
+
+	/**
+	 * If the CMR accepts the strings encoded with the connection's string dictionary.
+	 */
+	private boolean stringDictionaryTransport;
+
 	/**
 	 * Gets {@link #platformId}.
 	 *
@@ -310,6 +368,63 @@ public class AgentConfig {
 		this.excludeClassesPatterns = excludeClassesPatterns;
 	}
 
+	/**
+	 * Gets {@link #classCandidatePatterns}.
+	 *
+	 * @return {@link #classCandidatePatterns}
+	 */
+	public Collection<IMatchPattern> getClassCandidatePatterns() {
+		return classCandidatePatterns;
+	}
+
+	/**
+	 * Sets {@link #classCandidatePatterns}.
+	 *
+	 * @param classCandidatePatterns
+	 *            New value for {@link #classCandidatePatterns}
+	 */
+	public void setClassCandidatePatterns(Collection<IMatchPattern> classCandidatePatterns) {
+		this.classCandidatePatterns = classCandidatePatterns;
+	}
+
+	/**
+	 * Gets {@link #hierarchyCandidatePatterns}.
+	 *
+	 * @return {@link #hierarchyCandidatePatterns}
+	 */
+	public Collection<IMatchPattern> getHierarchyCandidatePatterns() {
+		return hierarchyCandidatePatterns;
+	}
+
+	/**
+	 * Sets {@link #hierarchyCandidatePatterns}.
+	 *
+	 * @param hierarchyCandidatePatterns
+	 *            New value for {@link #hierarchyCandidatePatterns}
+	 */
+	public void setHierarchyCandidatePatterns(Collection<IMatchPattern> hierarchyCandidatePatterns) {
+		this.hierarchyCandidatePatterns = hierarchyCandidatePatterns;
+	}
+
+	/**
+	 * Gets {@link #instrumentationPrefilter}.
+	 *
+	 * @return {@link #instrumentationPrefilter}
+	 */
+	public InstrumentationPrefilter getInstrumentationPrefilter() {
+		return instrumentationPrefilter;
+	}
+
+	/**
+	 * Sets {@link #instrumentationPrefilter}.
+	 *
+	 * @param instrumentationPrefilter
+	 *            New value for {@link #instrumentationPrefilter}
+	 */
+	public void setInstrumentationPrefilter(InstrumentationPrefilter instrumentationPrefilter) {
+		this.instrumentationPrefilter = instrumentationPrefilter;
+	}
+
 	/**
 	 * Gets {@link #initialInstrumentationResults}.
 	 *
@@ -348,6 +463,120 @@ public class AgentConfig {
 		this.configurationInfo = configurationInfo;
 	}
 
+	/**
+	 * Gets {@link #configurationRevision}.
+	 *
+	 * @return {@link #configurationRevision}
+	 */
+	public String getConfigurationRevision() {
+		return configurationRevision;
+	}
+
+	/**
+	 * Sets {@link #configurationRevision}.
+	 *
+	 * @param configurationRevision
+	 *            New value for {@link #configurationRevision}
+	 */
+	public void setConfigurationRevision(String configurationRevision) {
+		this.configurationRevision = configurationRevision;
+	}
+
+	/**
+	 * Gets {@link #compressedDataTransport}.
+	 *
+	 * @return {@link #compressedDataTransport}
+	 */
+	public boolean isCompressedDataTransport() {
+		return compressedDataTransport;
+	}
+
+	/**
+	 * Sets {@link #compressedDataTransport}.
+	 *
+	 * @param compressedDataTransport
+	 *            New value for {@link #compressedDataTransport}
+	 */
+	public void setCompressedDataTransport(boolean compressedDataTransport) {
+		this.compressedDataTransport = compressedDataTransport;
+	}
+
+	/**
+	 * Gets {@link #dataSendingWindow}.
+	 *
+	 * @return {@link #dataSendingWindow}
+	 */
+	public int getDataSendingWindow() {
+		return dataSendingWindow;
+	}
+
+	/**
+	 * Sets {@link #dataSendingWindow}.
+	 *
+	 * @param dataSendingWindow
+	 *            New value for {@link #dataSendingWindow}
+	 */
+	public void setDataSendingWindow(int dataSendingWindow) {
+		this.dataSendingWindow = dataSendingWindow;
+	}
+
+	/**
+	 * Gets {@link #methodOverheadBudget}.
+	 *
+	 * @return {@link #methodOverheadBudget}
+	 */
+	public long getMethodOverheadBudget() {
+		return methodOverheadBudget;
+	}
+
+	/**
+	 * Sets {@link #methodOverheadBudget}.
+	 *
+	 * @param methodOverheadBudget
+	 *            New value for {@link #methodOverheadBudget}
+	 */
+	public void setMethodOverheadBudget(long methodOverheadBudget) {
+		this.methodOverheadBudget = methodOverheadBudget;
+	}
+
+	/**
+	 * Gets {@link #classHashAlgorithm}.
+	 *
+	 * @return {@link #classHashAlgorithm}
+	 */
+	public ClassHashAlgorithm getClassHashAlgorithm() {
+		return classHashAlgorithm;
+	}
+
+	/**
+	 * Sets {@link #classHashAlgorithm}.
+	 *
+	 * @param classHashAlgorithm
+	 *            New value for {@link #classHashAlgorithm}
+	 */
+	public void setClassHashAlgorithm(ClassHashAlgorithm classHashAlgorithm) {
+		this.classHashAlgorithm = classHashAlgorithm;
+	}
+
+	/**
+	 * Gets {@link #stringDictionaryTransport}.
+	 *
+	 * @return {@link #stringDictionaryTransport}
+	 */
+	public boolean isStringDictionaryTransport() {
+		return stringDictionaryTransport;
+	}
+
+	/**
+	 * Sets {@link #stringDictionaryTransport}.
+	 *
+	 * @param stringDictionaryTransport
+	 *            New value for {@link #stringDictionaryTransport}
+	 */
+	public void setStringDictionaryTransport(boolean stringDictionaryTransport) {
+		this.stringDictionaryTransport = stringDictionaryTransport;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -357,16 +586,25 @@ public class AgentConfig {
 		int result = 1;
 		result = (prime * result) + ((this.bufferStrategyConfig == null) ? 0 : this.bufferStrategyConfig.hashCode());
 		result = (prime * result) + (this.classCacheExistsOnCmr ? 1231 : 1237);
+		result = (prime * result) + ((this.classHashAlgorithm == null) ? 0 : this.classHashAlgorithm.hashCode());
+		result = (prime * result) + ((this.classCandidatePatterns == null) ? 0 : this.classCandidatePatterns.hashCode());
+		result = (prime * result) + (this.compressedDataTransport ? 1231 : 1237);
 		result = (prime * result) + ((this.configurationInfo == null) ? 0 : this.configurationInfo.hashCode());
+		result = (prime * result) + ((this.configurationRevision == null) ? 0 : this.configurationRevision.hashCode());
+		result = (prime * result) + this.dataSendingWindow;
 		result = (prime * result) + ((this.exceptionSensorTypeConfig == null) ? 0 : this.exceptionSensorTypeConfig.hashCode());
 		result = (prime * result) + ((this.excludeClassesPatterns == null) ? 0 : this.excludeClassesPatterns.hashCode());
+		result = (prime * result) + ((this.hierarchyCandidatePatterns == null) ? 0 : this.hierarchyCandidatePatterns.hashCode());
 		result = (prime * result) + ((this.initialInstrumentationResults == null) ? 0 : this.initialInstrumentationResults.hashCode());
+		result = (prime * result) + ((this.instrumentationPrefilter == null) ? 0 : this.instrumentationPrefilter.hashCode());
 		result = (prime * result) + ((this.jmxSensorTypeConfig == null) ? 0 : this.jmxSensorTypeConfig.hashCode());
+		result = (prime * result) + (int) (this.methodOverheadBudget ^ (this.methodOverheadBudget >>> 32));
 		result = (prime * result) + ((this.methodSensorTypeConfigs == null) ? 0 : this.methodSensorTypeConfigs.hashCode());
 		result = (prime * result) + (int) (this.platformId ^ (this.platformId >>> 32));
 		result = (prime * result) + ((this.platformSensorTypeConfigs == null) ? 0 : this.platformSensorTypeConfigs.hashCode());
 		result = (prime * result) + ((this.sendingStrategyConfig == null) ? 0 : this.sendingStrategyConfig.hashCode());
 		result = (prime * result) + ((this.specialMethodSensorTypeConfigs == null) ? 0 : this.specialMethodSensorTypeConfigs.hashCode());
+		result = (prime * result) + (this.stringDictionaryTransport ? 1231 : 1237);
 		return result;
 	}
 
@@ -395,6 +633,19 @@ public class AgentConfig {
 		if (this.classCacheExistsOnCmr != other.classCacheExistsOnCmr) {
 			return false;
 		}
+		if (this.classHashAlgorithm != other.classHashAlgorithm) {
+			return false;
+		}
+		if (this.classCandidatePatterns == null) {
+			if (other.classCandidatePatterns != null) {
+				return false;
+			}
+		} else if (!this.classCandidatePatterns.equals(other.classCandidatePatterns)) {
+			return false;
+		}
+		if (this.compressedDataTransport != other.compressedDataTransport) {
+			return false;
+		}
 		if (this.configurationInfo == null) {
 			if (other.configurationInfo != null) {
 				return false;
@@ -402,6 +653,16 @@ public class AgentConfig {
 		} else if (!this.configurationInfo.equals(other.configurationInfo)) {
 			return false;
 		}
+		if (this.configurationRevision == null) {
+			if (other.configurationRevision != null) {
+				return false;
+			}
+		} else if (!this.configurationRevision.equals(other.configurationRevision)) {
+			return false;
+		}
+		if (this.dataSendingWindow != other.dataSendingWindow) {
+			return false;
+		}
 		if (this.exceptionSensorTypeConfig == null) {
 			if (other.exceptionSensorTypeConfig != null) {
 				return false;
@@ -416,6 +677,13 @@ public class AgentConfig {
 		} else if (!this.excludeClassesPatterns.equals(other.excludeClassesPatterns)) {
 			return false;
 		}
+		if (this.hierarchyCandidatePatterns == null) {
+			if (other.hierarchyCandidatePatterns != null) {
+				return false;
+			}
+		} else if (!this.hierarchyCandidatePatterns.equals(other.hierarchyCandidatePatterns)) {
+			return false;
+		}
 		if (this.initialInstrumentationResults == null) {
 			if (other.initialInstrumentationResults != null) {
 				return false;
@@ -423,6 +691,13 @@ public class AgentConfig {
 		} else if (!this.initialInstrumentationResults.equals(other.initialInstrumentationResults)) {
 			return false;
 		}
+		if (this.instrumentationPrefilter == null) {
+			if (other.instrumentationPrefilter != null) {
+				return false;
+			}
+		} else if (!this.instrumentationPrefilter.equals(other.instrumentationPrefilter)) {
+			return false;
+		}
 		if (this.jmxSensorTypeConfig == null) {
 			if (other.jmxSensorTypeConfig != null) {
 				return false;
@@ -430,6 +705,9 @@ public class AgentConfig {
 		} else if (!this.jmxSensorTypeConfig.equals(other.jmxSensorTypeConfig)) {
 			return false;
 		}
+		if (this.methodOverheadBudget != other.methodOverheadBudget) {
+			return false;
+		}
 		if (this.methodSensorTypeConfigs == null) {
 			if (other.methodSensorTypeConfigs != null) {
 				return false;
@@ -461,6 +739,9 @@ public class AgentConfig {
 		} else if (!this.specialMethodSensorTypeConfigs.equals(other.specialMethodSensorTypeConfigs)) {
 			return false;
 		}
+		if (this.stringDictionaryTransport != other.stringDictionaryTransport) {
+			return false;
+		}
 		return true;
 	}
 
@@ -0,0 +1,250 @@
+package rocks.inspectit.shared.all.instrumentation.config.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compact filter over the name patterns of the sensor assignments, used by the agent to skip the
+ * analysis of the classes that can not be instrumented. The filter can return false positives, but
+ * never false negatives.
+ * <p>
+ * Patterns with wildcards are reduced to the text before the first wildcard and kept as a sorted
+ * set of prefixes where no prefix starts with another one, so the only prefix that can match a
+ * name is the greatest one not bigger than the name. Patterns without wildcards are added to a
+ * Bloom filter. Patterns starting with a wildcard match every name, thus disable the filter.
+ *
+ * @author agent
+ *
+ */
+public class InstrumentationPrefilter {
+
+	/**
+	 * Bits in the Bloom filter per added name.
+	 */
+	private static final int BITS_PER_NAME = 10;
+
+	/**
+	 * Number of hash functions in the Bloom filter.
+	 */
+	private static final int HASH_FUNCTIONS = 7;
+
+	/**
+	 * Wildcard character of the patterns.
+	 */
+	private static final char WILDCARD = '*';
+
+	/**
+	 * If every name matches.
+	 */
+	private boolean matchAll;
+
+	/**
+	 * If any of the patterns is an annotation pattern, thus the annotations of the classes have to
+	 * be checked.
+	 */
+	private boolean annotations;
+
+	/**
+	 * Sorted prefixes, none being the prefix of another one.
+	 */
+	private String[] prefixes;
+
+	/**
+	 * Bits of the Bloom filter over the exact names.
+	 */
+	private long[] bloomBits;
+
+	/**
+	 * No-arg constructor for serialization.
+	 */
+	public InstrumentationPrefilter() {
+	}
+
+	/**
+	 * Creates the filter for the given patterns.
+	 *
+	 * @param namePatterns
+	 *            Patterns of the class, super-class and interface names.
+	 * @param annotationPatterns
+	 *            Patterns of the annotation names.
+	 * @return {@link InstrumentationPrefilter}
+	 */
+	public static InstrumentationPrefilter create(Collection<String> namePatterns, Collection<String> annotationPatterns) {
+		InstrumentationPrefilter prefilter = new InstrumentationPrefilter();
+		prefilter.annotations = !annotationPatterns.isEmpty();
+
+		List<String> allPatterns = new ArrayList<String>(namePatterns);
+		allPatterns.addAll(annotationPatterns);
+
+		List<String> prefixList = new ArrayList<String>();
+		List<String> names = new ArrayList<String>();
+		for (String pattern : allPatterns) {
+			int wildcard = pattern.indexOf(WILDCARD);
+			if (0 == wildcard) {
+				prefilter.matchAll = true;
+			} else if (wildcard > 0) {
+				prefixList.add(pattern.substring(0, wildcard));
+			} else {
+				names.add(pattern);
+			}
+		}
+
+		// keep only prefixes that do not start with another prefix
+		Collections.sort(prefixList);
+		List<String> minimalPrefixes = new ArrayList<String>();
+		for (String prefix : prefixList) {
+			if (minimalPrefixes.isEmpty() || !prefix.startsWith(minimalPrefixes.get(minimalPrefixes.size() - 1))) {
+				minimalPrefixes.add(prefix);
+			}
+		}
+		prefilter.prefixes = minimalPrefixes.toArray(new String[minimalPrefixes.size()]);
+
+		prefilter.bloomBits = new long[Math.max(1, ((names.size() * BITS_PER_NAME) + 63) / 64)];
+		for (String name : names) {
+			prefilter.addToBloom(name);
+		}
+		return prefilter;
+	}
+
+	/**
+	 * Returns if the name might match any of the patterns.
+	 *
+	 * @param name
+	 *            Fully qualified name.
+	 * @return <code>false</code> if the name does not match any of the patterns, <code>true</code>
+	 *         if it might match.
+	 */
+	public boolean mightMatch(String name) {
+		if (matchAll) {
+			return true;
+		}
+
+		int index = Arrays.binarySearch(prefixes, name);
+		if (index >= 0) {
+			return true;
+		}
+		int floor = -index - 2;
+		if ((floor >= 0) && name.startsWith(prefixes[floor])) {
+			return true;
+		}
+
+		return mightBeInBloom(name);
+	}
+
+	/**
+	 * Adds the name to the Bloom filter.
+	 *
+	 * @param name
+	 *            Name to add.
+	 */
+	private void addToBloom(String name) {
+		int hash = name.hashCode();
+		int increment = mix(hash);
+		int bits = bloomBits.length * 64;
+		for (int i = 0; i < HASH_FUNCTIONS; i++) {
+			int bit = ((hash + (i * increment)) & Integer.MAX_VALUE) % bits;
+			bloomBits[bit >>> 6] |= 1L << bit;
+		}
+	}
+
+	/**
+	 * Returns if the name might have been added to the Bloom filter.
+	 *
+	 * @param name
+	 *            Name to check.
+	 * @return <code>false</code> if the name was never added.
+	 */
+	private boolean mightBeInBloom(String name) {
+		int hash = name.hashCode();
+		int increment = mix(hash);
+		int bits = bloomBits.length * 64;
+		for (int i = 0; i < HASH_FUNCTIONS; i++) {
+			int bit = ((hash + (i * increment)) & Integer.MAX_VALUE) % bits;
+			if (0 == (bloomBits[bit >>> 6] & (1L << bit))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Derives the second hash used for the double hashing in the Bloom filter.
+	 *
+	 * @param hash
+	 *            Hash code of the name.
+	 * @return Second hash.
+	 */
+	private static int mix(int hash) {
+		int h = hash * 0x9E3779B9;
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		return h | 1;
+	}
+
+	/**
+	 * Gets {@link #matchAll}.
+	 *
+	 * @return {@link #matchAll}
+	 */
+	public boolean isMatchAll() {
+		return matchAll;
+	}
+
+	/**
+	 * Gets {@link #annotations}.
+	 *
+	 * @return {@link #annotations}
+	 */
+	public boolean isAnnotations() {
+		return annotations;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = (prime * result) + (this.annotations ? 1231 : 1237);
+		result = (prime * result) + Arrays.hashCode(this.bloomBits);
+		result = (prime * result) + (this.matchAll ? 1231 : 1237);
+		result = (prime * result) + Arrays.hashCode(this.prefixes);
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		InstrumentationPrefilter other = (InstrumentationPrefilter) obj;
+		if (this.annotations != other.annotations) {
+			return false;
+		}
+		if (!Arrays.equals(this.bloomBits, other.bloomBits)) {
+			return false;
+		}
+		if (this.matchAll != other.matchAll) {
+			return false;
+		}
+		if (!Arrays.equals(this.prefixes, other.prefixes)) {
+			return false;
+		}
+		return true;
+	}
+
+}
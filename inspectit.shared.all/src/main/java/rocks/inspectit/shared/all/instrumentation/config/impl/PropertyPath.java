@@ -55,6 +55,50 @@ public class PropertyPath {
 		return name.endsWith("()");
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = (prime * result) + ((name == null) ? 0 : name.hashCode());
+		result = (prime * result) + ((pathToContinue == null) ? 0 : pathToContinue.hashCode());
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		PropertyPath other = (PropertyPath) obj;
+		if (name == null) {
+			if (other.name != null) {
+				return false;
+			}
+		} else if (!name.equals(other.name)) {
+			return false;
+		}
+		if (pathToContinue == null) {
+			if (other.pathToContinue != null) {
+				return false;
+			}
+		} else if (!pathToContinue.equals(other.pathToContinue)) {
+			return false;
+		}
+		return true;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
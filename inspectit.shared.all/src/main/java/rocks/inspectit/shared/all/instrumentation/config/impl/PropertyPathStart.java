@@ -60,6 +60,42 @@ public class PropertyPathStart extends PropertyPath {
 		return signaturePosition;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		result = (prime * result) + ((contentType == null) ? 0 : contentType.hashCode());
+		result = (prime * result) + signaturePosition;
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!super.equals(obj)) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		PropertyPathStart other = (PropertyPathStart) obj;
+		if (contentType != other.contentType) {
+			return false;
+		}
+		if (signaturePosition != other.signaturePosition) {
+			return false;
+		}
+		return true;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -21,6 +21,7 @@ import com.esotericsoftware.kryonet.FrameworkMessage;
 import com.esotericsoftware.kryonet.FrameworkMessage.Ping;
 import com.esotericsoftware.kryonet.KryoNetException;
 
+import rocks.inspectit.shared.all.serializer.impl.StringDictionary;
 import rocks.inspectit.shared.all.storage.nio.stream.StreamProvider;
 
 // BOZO - Layer to handle handshake state.
@@ -45,6 +46,21 @@ public class Connection {
 	 */
 	private StreamProvider streamProvider; // Added by ISE
 
+	/**
+	 * If the strings written to this connection are encoded with the {@link StringDictionary}.
+	 */
+	private volatile boolean stringDictionaryEnabled; // Added by ISE
+
+	/**
+	 * Dictionary of the strings written to this connection. Replaced on every connect.
+	 */
+	private volatile StringDictionary writeStringDictionary = new StringDictionary(); // Added by ISE
+
+	/**
+	 * Dictionary of the strings read from this connection. Replaced on every connect.
+	 */
+	private volatile StringDictionary readStringDictionary = new StringDictionary(); // Added by ISE
+
 	int id = -1;
 	private String name;
 	EndPoint endPoint;
@@ -432,9 +448,56 @@ public class Connection {
 	}
 
 	void setConnected(boolean isConnected) {
+		// Added by ISE: dictionaries are scoped to one connection session
+		if (isConnected) {
+			writeStringDictionary = new StringDictionary();
+			readStringDictionary = new StringDictionary();
+		}
 		this.isConnected = isConnected;
 		if (isConnected && (name == null)) {
 			name = "Connection " + id;
 		}
 	}
+
+	/**
+	 * Returns if the strings written to this connection are encoded with the string dictionary.
+	 *
+	 * @return If the strings written to this connection are encoded with the string dictionary.
+	 */
+	// Added by ISE
+	public boolean isStringDictionaryEnabled() {
+		return stringDictionaryEnabled;
+	}
+
+	/**
+	 * Sets if the strings written to this connection should be encoded with the string
+	 * dictionary. Should only be enabled when the other side supports it.
+	 *
+	 * @param stringDictionaryEnabled
+	 *            If the strings should be encoded with the string dictionary.
+	 */
+	// Added by ISE
+	public void setStringDictionaryEnabled(boolean stringDictionaryEnabled) {
+		this.stringDictionaryEnabled = stringDictionaryEnabled;
+	}
+
+	/**
+	 * Returns the dictionary of the strings written to this connection.
+	 *
+	 * @return Returns the dictionary of the strings written to this connection.
+	 */
+	// Added by ISE
+	StringDictionary getWriteStringDictionary() {
+		return writeStringDictionary;
+	}
+
+	/**
+	 * Returns the dictionary of the strings read from this connection.
+	 *
+	 * @return Returns the dictionary of the strings read from this connection.
+	 */
+	// Added by ISE
+	StringDictionary getReadStringDictionary() {
+		return readStringDictionary;
+	}
 }
\ No newline at end of file
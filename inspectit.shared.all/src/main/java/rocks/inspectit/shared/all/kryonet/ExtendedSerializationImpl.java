@@ -7,17 +7,27 @@ import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 
 import rocks.inspectit.shared.all.serializer.IKryoProvider;
 import rocks.inspectit.shared.all.serializer.ISerializerProvider;
+import rocks.inspectit.shared.all.serializer.impl.StringDictionary;
 
 /**
  * Implementation of the {@link IExtendedSerialization} with some additional methods we need for
  * (de-)serializing the object during the communication. The idea is not to (de-)serialize from/to
  * buffer, but to use the streams which would give us opportunity to transfer objects of unlimited
  * size.
+ * <p>
+ * Objects encoded with the connection's {@link StringDictionary} are prefixed with the
+ * {@link #STRING_DICTIONARY_MARKER}, other objects are written exactly as before the dictionary was
+ * introduced. The marker is the byte Kryo writes for a <code>null</code> object, which is never
+ * sent over a connection, so the reading side can tell both forms apart without any negotiation.
+ * The strings are encoded only if enabled for the connection, which the agent does only when the
+ * CMR announces the support on registration. Thus a new CMR reads the objects of the old agents
+ * and a new agent talking to an old CMR writes the old format.
  *
  * @author Ivan Senic
  *
@@ -30,6 +40,12 @@ public class ExtendedSerializationImpl implements IExtendedSerialization {
 	 */
 	private static final int INIT_CREATED_SERIALIZERS = 2;
 
+	/**
+	 * Byte preceding the objects encoded with the {@link StringDictionary}. Equal to the class
+	 * marker of the <code>null</code> object written by Kryo.
+	 */
+	static final byte STRING_DICTIONARY_MARKER = 0;
+
 	/**
 	 * Queue for {@link IKryoProvider} that are available.
 	 */
@@ -132,12 +148,29 @@ public class ExtendedSerializationImpl implements IExtendedSerialization {
 			kryoProvider = createKryoProvider();
 		}
 
+		StringDictionary stringDictionary = null;
+		if ((null != connection) && connection.isStringDictionaryEnabled()) {
+			stringDictionary = connection.getWriteStringDictionary();
+			stringDictionary.startMessage();
+		}
+
+		Kryo kryo = kryoProvider.getKryo();
 		try {
-			Kryo kryo = kryoProvider.getKryo();
 			kryo.getContext().put("connection", connection);
+			setStringDictionary(kryo, stringDictionary);
+			if (null != stringDictionary) {
+				output.writeByte(STRING_DICTIONARY_MARKER);
+			}
 			kryo.writeClassAndObject(output, object);
 			output.flush();
+		} catch (RuntimeException e) {
+			if (null != stringDictionary) {
+				// the other side will never read the entries of this message
+				stringDictionary.rollbackMessage();
+			}
+			throw e;
 		} finally {
+			setStringDictionary(kryo, null);
 			serializerQueue.offer(kryoProvider);
 		}
 	}
@@ -157,15 +190,42 @@ public class ExtendedSerializationImpl implements IExtendedSerialization {
 			kryoProvider = createKryoProvider();
 		}
 
+		Kryo kryo = kryoProvider.getKryo();
 		try {
-			Kryo kryo = kryoProvider.getKryo();
 			kryo.getContext().put("connection", connection);
+			if (STRING_DICTIONARY_MARKER == input.readByte()) {
+				if (null == connection) {
+					throw new KryoException("String dictionary encoded object can not be read without the connection.");
+				}
+				setStringDictionary(kryo, connection.getReadStringDictionary());
+			} else {
+				// not encoded, the byte belongs to the object
+				input.setPosition(input.position() - 1);
+			}
 			return kryo.readClassAndObject(input);
 		} finally {
+			setStringDictionary(kryo, null);
 			serializerQueue.offer(kryoProvider);
 		}
 	}
 
+	/**
+	 * Sets the {@link StringDictionary} to be used by the Kryo or removes it if <code>null</code>
+	 * is passed.
+	 *
+	 * @param kryo
+	 *            Kryo instance.
+	 * @param stringDictionary
+	 *            Dictionary or <code>null</code>.
+	 */
+	private void setStringDictionary(Kryo kryo, StringDictionary stringDictionary) {
+		if (null != stringDictionary) {
+			kryo.getContext().put(StringDictionary.CONTEXT_KEY, stringDictionary);
+		} else {
+			kryo.getContext().remove(StringDictionary.CONTEXT_KEY);
+		}
+	}
+
 	/**
 	 * Creates new {@link IKryoProvider}.
 	 * <p>
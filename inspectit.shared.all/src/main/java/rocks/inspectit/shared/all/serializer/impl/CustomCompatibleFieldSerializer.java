@@ -6,6 +6,7 @@ import static com.esotericsoftware.minlog.Log.trace;
 import java.lang.reflect.Field;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.InputChunked;
 import com.esotericsoftware.kryo.io.Output;
@@ -151,9 +152,16 @@ public class CustomCompatibleFieldSerializer<T> extends FieldSerializer<T> {
 			}
 		}
 
+		// Added by ISE: string fields are written with the dictionary when available
+		StringDictionary stringDictionary = (StringDictionary) kryo.getContext().get(StringDictionary.CONTEXT_KEY);
+
 		OutputChunked outputChunked = new OutputChunked(output, 1024);
 		for (com.esotericsoftware.kryo.serializers.FieldSerializer.CachedField field : fields) {
-			field.write(outputChunked, object);
+			if ((null != stringDictionary) && (String.class == field.getField().getType())) {
+				stringDictionary.write(outputChunked, (String) getFieldValue(field, object));
+			} else {
+				field.write(outputChunked, object);
+			}
 			outputChunked.endChunks();
 		}
 	}
@@ -195,6 +203,9 @@ public class CustomCompatibleFieldSerializer<T> extends FieldSerializer<T> {
 			context.put(this, fields);
 		}
 
+		// Added by ISE: string fields are read with the dictionary when available
+		StringDictionary stringDictionary = (StringDictionary) kryo.getContext().get(StringDictionary.CONTEXT_KEY);
+
 		InputChunked inputChunked = new InputChunked(input, 1024);
 		for (com.esotericsoftware.kryo.serializers.FieldSerializer.CachedField cachedField : fields) {
 			if (cachedField == null) {
@@ -204,10 +215,50 @@ public class CustomCompatibleFieldSerializer<T> extends FieldSerializer<T> {
 				inputChunked.nextChunks();
 				continue;
 			}
-			cachedField.read(inputChunked, object);
+			if ((null != stringDictionary) && (String.class == cachedField.getField().getType())) {
+				setFieldValue(cachedField, object, stringDictionary.read(inputChunked));
+			} else {
+				cachedField.read(inputChunked, object);
+			}
 			inputChunked.nextChunks();
 		}
 		return object;
 	}
 
+	/**
+	 * Returns the value of the field. The string fields are not written with the cached field when
+	 * the {@link StringDictionary} is used, as the cached field writes them directly to the output.
+	 *
+	 * @param field
+	 *            Cached field.
+	 * @param object
+	 *            Object to get value from.
+	 * @return Field value.
+	 */
+	private Object getFieldValue(CachedField field, Object object) {
+		try {
+			return field.getField().get(object);
+		} catch (IllegalAccessException e) {
+			throw new KryoException("Error accessing field: " + field.getField().getName() + " (" + object.getClass().getName() + ")", e);
+		}
+	}
+
+	/**
+	 * Sets the value of the field.
+	 *
+	 * @param field
+	 *            Cached field.
+	 * @param object
+	 *            Object to set value to.
+	 * @param value
+	 *            Value to set.
+	 */
+	private void setFieldValue(CachedField field, Object object, Object value) {
+		try {
+			field.getField().set(object, value);
+		} catch (IllegalAccessException e) {
+			throw new KryoException("Error accessing field: " + field.getField().getName() + " (" + object.getClass().getName() + ")", e);
+		}
+	}
+
 }
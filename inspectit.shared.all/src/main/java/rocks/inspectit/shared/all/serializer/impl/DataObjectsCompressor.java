@@ -0,0 +1,160 @@
+package rocks.inspectit.shared.all.serializer.impl;
+
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import rocks.inspectit.shared.all.communication.CompressedDataObjects;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.serializer.ISerializer;
+import rocks.inspectit.shared.all.serializer.SerializationException;
+
+/**
+ * Serializes a list of data objects and compresses it with the Deflate algorithm (fastest level,
+ * no header) and vice versa.
+ * <p>
+ * The serialization and compression buffers are kept and reused for all batches, only the
+ * resulting compressed array is created per batch. As the {@link ISerializer} this class is not
+ * thread-safe, thus every thread should use its own instance.
+ *
+ * @author agent
+ *
+ */
+public class DataObjectsCompressor {
+
+	/**
+	 * Initial size of the buffers.
+	 */
+	private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Serializer to use.
+	 */
+	private final ISerializer serializer;
+
+	/**
+	 * Output for the serialization, reused for every batch.
+	 */
+	private final Output output = new Output(INITIAL_BUFFER_SIZE, -1);
+
+	/**
+	 * Buffer for the compression, reused for every batch.
+	 */
+	private byte[] compressionBuffer = new byte[INITIAL_BUFFER_SIZE];
+
+	/**
+	 * Deflater, created on first compression.
+	 */
+	private Deflater deflater;
+
+	/**
+	 * Inflater, created on first decompression.
+	 */
+	private Inflater inflater;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param serializer
+	 *            Serializer to use.
+	 */
+	public DataObjectsCompressor(ISerializer serializer) {
+		this.serializer = serializer;
+	}
+
+	/**
+	 * Serializes and compresses the list of data objects.
+	 *
+	 * @param dataObjects
+	 *            Data objects, list must not be empty.
+	 * @return {@link CompressedDataObjects}.
+	 * @throws SerializationException
+	 *             If serialization fails.
+	 */
+	public CompressedDataObjects compress(List<? extends DefaultData> dataObjects) throws SerializationException {
+		output.clear();
+		serializer.serialize(dataObjects, output);
+		int uncompressedLength = output.position();
+
+		if (null == deflater) {
+			deflater = new Deflater(Deflater.BEST_SPEED, true);
+		}
+		deflater.reset();
+		deflater.setInput(output.getBuffer(), 0, uncompressedLength);
+		deflater.finish();
+
+		int compressedLength = 0;
+		while (!deflater.finished()) {
+			if (compressedLength == compressionBuffer.length) {
+				byte[] newBuffer = new byte[compressionBuffer.length * 2];
+				System.arraycopy(compressionBuffer, 0, newBuffer, 0, compressedLength);
+				compressionBuffer = newBuffer;
+			}
+			compressedLength += deflater.deflate(compressionBuffer, compressedLength, compressionBuffer.length - compressedLength);
+		}
+
+		byte[] data = new byte[compressedLength];
+		System.arraycopy(compressionBuffer, 0, data, 0, compressedLength);
+		return new CompressedDataObjects(dataObjects.get(0).getPlatformIdent(), dataObjects.size(), uncompressedLength, data);
+	}
+
+	/**
+	 * Decompresses and de-serializes the data objects.
+	 *
+	 * @param compressedDataObjects
+	 *            {@link CompressedDataObjects}.
+	 * @return List of data objects.
+	 * @throws SerializationException
+	 *             If decompression or de-serialization fails.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<? extends DefaultData> decompress(CompressedDataObjects compressedDataObjects) throws SerializationException {
+		int uncompressedLength = compressedDataObjects.getUncompressedLength();
+		if (compressionBuffer.length < uncompressedLength) {
+			compressionBuffer = new byte[uncompressedLength];
+		}
+
+		if (null == inflater) {
+			inflater = new Inflater(true);
+		}
+		inflater.reset();
+		inflater.setInput(compressedDataObjects.getData());
+
+		int length = 0;
+		try {
+			while ((length < uncompressedLength) && !inflater.finished()) {
+				int inflated = inflater.inflate(compressionBuffer, length, uncompressedLength - length);
+				if ((0 == inflated) && (inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+				length += inflated;
+			}
+		} catch (DataFormatException e) {
+			throw new SerializationException("Compressed data objects can not be decompressed.", e);
+		}
+
+		if (length != uncompressedLength) {
+			throw new SerializationException("Decompressed data objects have length " + length + " instead of expected " + uncompressedLength + ".");
+		}
+
+		Input input = new Input(compressionBuffer, 0, uncompressedLength);
+		return (List<? extends DefaultData>) serializer.deserialize(input);
+	}
+
+	/**
+	 * Releases the resources of the compressor. The compressor can not be used any more.
+	 */
+	public void close() {
+		if (null != deflater) {
+			deflater.end();
+		}
+		if (null != inflater) {
+			inflater.end();
+		}
+	}
+
+}
@@ -52,6 +52,7 @@ import rocks.inspectit.shared.all.cmr.model.MethodSensorTypeIdent;
 import rocks.inspectit.shared.all.cmr.model.PlatformIdent;
 import rocks.inspectit.shared.all.cmr.model.PlatformSensorTypeIdent;
 import rocks.inspectit.shared.all.cmr.model.SensorTypeIdent;
+import rocks.inspectit.shared.all.communication.CompressedDataObjects;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.ExceptionEvent;
 import rocks.inspectit.shared.all.communication.comparator.AggregatedExceptionSensorDataComparatorEnum;
@@ -110,6 +111,7 @@ import rocks.inspectit.shared.all.instrumentation.classcache.util.MethodTypeSet;
 import rocks.inspectit.shared.all.instrumentation.classcache.util.SortedArraySet;
 import rocks.inspectit.shared.all.instrumentation.classcache.util.TypeSet;
 import rocks.inspectit.shared.all.instrumentation.classcache.util.TypeWithAnnotationsSet;
+import rocks.inspectit.shared.all.instrumentation.config.ClassHashAlgorithm;
 import rocks.inspectit.shared.all.instrumentation.config.PriorityEnum;
 import rocks.inspectit.shared.all.instrumentation.config.SpecialInstrumentationType;
 import rocks.inspectit.shared.all.instrumentation.config.impl.AgentConfig;
@@ -236,6 +238,7 @@ public class SerializationManager implements ISerializer, IKryoProvider, Initial
 	private void registerClasses(Kryo kryo) {
 		/** Java native classes */
 		kryo.register(Class.class, new ClassSerializer());
+		kryo.register(String.class, new StringDictionarySerializer());
 		kryo.register(ArrayList.class, new HibernateAwareCollectionSerializer(hibernateUtil)); // NOPMD
 		kryo.register(CopyOnWriteArrayList.class, new CollectionSerializer());
 		kryo.register(HashSet.class, new HibernateAwareCollectionSerializer(hibernateUtil)); // NOPMD
@@ -410,6 +413,12 @@ public class SerializationManager implements ISerializer, IKryoProvider, Initial
 		// added with enpro
 		kryo.register(MobilePeriodicMeasurement.class, new CustomCompatibleFieldSerializer<MobilePeriodicMeasurement>(kryo, MobilePeriodicMeasurement.class, schemaManager, true));
 
+		// compressed agent data transport
+		kryo.register(CompressedDataObjects.class, new FieldSerializer<CompressedDataObjects>(kryo, CompressedDataObjects.class));
+
+		// selectable class hash algorithm
+		kryo.register(ClassHashAlgorithm.class, new EnumSerializer(ClassHashAlgorithm.class));
+
 	}
 
 	/**
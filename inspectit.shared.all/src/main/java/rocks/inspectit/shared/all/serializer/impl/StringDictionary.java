@@ -0,0 +1,218 @@
+package rocks.inspectit.shared.all.serializer.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+/**
+ * Session scoped string dictionary used for the strings sent over one connection. The writing side
+ * sends each string once together with its id, afterwards only the id is written. The reading side
+ * registers the strings with the received id and resolves the ids to the registered instances,
+ * thus all objects read with the same string share the same instance.
+ * <p>
+ * Each string is written as the positive variable length int header, followed by the data:
+ * <ul>
+ * <li>{@value #NULL} - <code>null</code> string, no data follows.
+ * <li>{@value #LITERAL} - string that is not part of the dictionary follows.
+ * <li>{@value #NEW_ENTRY} - id of the new dictionary entry and the string follow.
+ * <li>{@value #REFERENCE_OFFSET} or bigger - reference to the dictionary entry with the id of the
+ * header minus {@value #REFERENCE_OFFSET}.
+ * </ul>
+ * Short strings, very long strings and strings that would exceed the dictionary limits are written
+ * as literals. Each side of the connection has to use own instance for writing and reading, and the
+ * instance is not thread-safe (connection writes and reads are already serialized).
+ *
+ * @author agent
+ *
+ */
+public class StringDictionary {
+
+	/**
+	 * Key of the dictionary in the Kryo context. If the dictionary is available in the context the
+	 * strings are (de-)serialized with it.
+	 */
+	public static final String CONTEXT_KEY = "stringDictionary";
+
+	/**
+	 * Minimum length of the string to be added to the dictionary.
+	 */
+	static final int MIN_LENGTH = 4;
+
+	/**
+	 * Maximum length of the string to be added to the dictionary.
+	 */
+	static final int MAX_LENGTH = 16 * 1024;
+
+	/**
+	 * Maximum amount of entries in the dictionary.
+	 */
+	static final int MAX_ENTRIES = 64 * 1024;
+
+	/**
+	 * Maximum amount of characters of all entries in the dictionary.
+	 */
+	static final long MAX_CHARS = 1024 * 1024;
+
+	/**
+	 * Header of the <code>null</code> string.
+	 */
+	private static final int NULL = 0;
+
+	/**
+	 * Header of the string that is not part of the dictionary.
+	 */
+	private static final int LITERAL = 1;
+
+	/**
+	 * Header of the new dictionary entry.
+	 */
+	private static final int NEW_ENTRY = 2;
+
+	/**
+	 * Offset of the dictionary references.
+	 */
+	private static final int REFERENCE_OFFSET = 3;
+
+	/**
+	 * Ids of the written strings. Only used when writing.
+	 */
+	private final Map<String, Integer> ids = new HashMap<String, Integer>();
+
+	/**
+	 * Strings by id.
+	 */
+	private final List<String> strings = new ArrayList<String>();
+
+	/**
+	 * Amount of characters of all entries.
+	 */
+	private long chars;
+
+	/**
+	 * Size of the dictionary when the current message was started.
+	 */
+	private int messageStart;
+
+	/**
+	 * Writes the string to the output.
+	 *
+	 * @param output
+	 *            Output to write to.
+	 * @param value
+	 *            String to write, can be <code>null</code>.
+	 */
+	public void write(Output output, String value) {
+		if (null == value) {
+			output.writeInt(NULL, true);
+			return;
+		}
+
+		Integer id = ids.get(value);
+		if (null != id) {
+			output.writeInt(REFERENCE_OFFSET + id.intValue(), true);
+			return;
+		}
+
+		int length = value.length();
+		if ((length >= MIN_LENGTH) && (length <= MAX_LENGTH) && (strings.size() < MAX_ENTRIES) && ((chars + length) <= MAX_CHARS)) {
+			int newId = strings.size();
+			ids.put(value, Integer.valueOf(newId));
+			strings.add(value);
+			chars += length;
+
+			output.writeInt(NEW_ENTRY, true);
+			output.writeInt(newId, true);
+			output.writeString(value);
+		} else {
+			output.writeInt(LITERAL, true);
+			output.writeString(value);
+		}
+	}
+
+	/**
+	 * Reads the string from the input.
+	 *
+	 * @param input
+	 *            Input to read from.
+	 * @return Read string or the dictionary instance of the string.
+	 */
+	public String read(Input input) {
+		int header = input.readInt(true);
+		switch (header) {
+		case NULL:
+			return null;
+		case LITERAL:
+			return input.readString();
+		case NEW_ENTRY:
+			int newId = input.readInt(true);
+			String value = input.readString();
+			register(newId, value);
+			return value;
+		default:
+			int id = header - REFERENCE_OFFSET;
+			String existing = (id < strings.size()) ? strings.get(id) : null;
+			if (null == existing) {
+				throw new KryoException("String with the id " + id + " is not registered in the string dictionary.");
+			}
+			return existing;
+		}
+	}
+
+	/**
+	 * Starts a new message. Entries written after the start are removed with the
+	 * {@link #rollbackMessage()}.
+	 */
+	public void startMessage() {
+		messageStart = strings.size();
+	}
+
+	/**
+	 * Removes all entries written since the {@link #startMessage()}. Must be called if the message
+	 * could not be written completely, as the reading side will never register these entries.
+	 */
+	public void rollbackMessage() {
+		for (int i = strings.size() - 1; i >= messageStart; i--) {
+			String removed = strings.remove(i);
+			ids.remove(removed);
+			chars -= removed.length();
+		}
+	}
+
+	/**
+	 * Returns the amount of entries in the dictionary.
+	 *
+	 * @return Returns the amount of entries in the dictionary.
+	 */
+	public int size() {
+		return strings.size();
+	}
+
+	/**
+	 * Registers the read string with the given id.
+	 *
+	 * @param id
+	 *            Id of the string.
+	 * @param value
+	 *            String.
+	 */
+	private void register(int id, String value) {
+		if ((id < 0) || (id >= MAX_ENTRIES)) {
+			throw new KryoException("String dictionary id " + id + " is out of the allowed range.");
+		}
+
+		while (strings.size() < id) {
+			strings.add(null);
+		}
+		if (strings.size() == id) {
+			strings.add(value);
+		} else {
+			strings.set(id, value);
+		}
+	}
+
+}
@@ -0,0 +1,51 @@
+package rocks.inspectit.shared.all.serializer.impl;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+/**
+ * Serializes the strings with the {@link StringDictionary} if one is available in the Kryo context
+ * under the {@link StringDictionary#CONTEXT_KEY}. Otherwise the strings are written exactly as with
+ * the Kryo default string serializer.
+ *
+ * @author agent
+ */
+public class StringDictionarySerializer extends Serializer<String> {
+
+	/**
+	 * Default constructor.
+	 */
+	public StringDictionarySerializer() {
+		setImmutable(true);
+		setAcceptsNull(true);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void write(Kryo kryo, Output output, String object) {
+		StringDictionary stringDictionary = (StringDictionary) kryo.getContext().get(StringDictionary.CONTEXT_KEY);
+		if (null != stringDictionary) {
+			stringDictionary.write(output, object);
+		} else {
+			output.writeString(object);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String read(Kryo kryo, Input input, Class<String> type) {
+		StringDictionary stringDictionary = (StringDictionary) kryo.getContext().get(StringDictionary.CONTEXT_KEY);
+		if (null != stringDictionary) {
+			return stringDictionary.read(input);
+		} else {
+			return input.readString();
+		}
+	}
+
+}
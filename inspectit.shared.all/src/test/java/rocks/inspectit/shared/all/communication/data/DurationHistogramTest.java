@@ -0,0 +1,166 @@
+package rocks.inspectit.shared.all.communication.data;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.testng.annotations.Test;
+
+@SuppressWarnings("PMD")
+public class DurationHistogramTest {
+
+	public class GetBucketIndex extends DurationHistogramTest {
+
+		@Test
+		public void belowRange() {
+			assertThat(DurationHistogram.getBucketIndex(0d), is(0));
+			assertThat(DurationHistogram.getBucketIndex(-1d), is(0));
+			assertThat(DurationHistogram.getBucketIndex(Double.NaN), is(0));
+		}
+
+		@Test
+		public void aboveRange() {
+			assertThat(DurationHistogram.getBucketIndex(Double.MAX_VALUE), is(DurationHistogram.BUCKETS - 1));
+			assertThat(DurationHistogram.getBucketIndex(Double.POSITIVE_INFINITY), is(DurationHistogram.BUCKETS - 1));
+		}
+
+		@Test
+		public void withinBounds() {
+			for (double duration = 0.001d; duration < 1000000d; duration *= 1.37d) {
+				int index = DurationHistogram.getBucketIndex(duration);
+
+				assertThat(DurationHistogram.getBucketLowerBound(index), is(lessThanOrEqualTo(duration)));
+				assertThat(DurationHistogram.getBucketUpperBound(index), is(greaterThan(duration)));
+			}
+		}
+
+		@Test
+		public void relativeWidth() {
+			for (int i = 1; i < DurationHistogram.BUCKETS; i++) {
+				double lower = DurationHistogram.getBucketLowerBound(i);
+				double upper = DurationHistogram.getBucketUpperBound(i);
+
+				assertThat((upper - lower) / lower, is(lessThanOrEqualTo(0.125d)));
+			}
+		}
+	}
+
+	public class Trim extends DurationHistogramTest {
+
+		@Test
+		public void trailingEmptyBuckets() {
+			long[] buckets = new long[DurationHistogram.BUCKETS];
+			buckets[3] = 2;
+
+			long[] trimmed = DurationHistogram.trim(buckets);
+
+			assertThat(trimmed.length, is(4));
+			assertThat(trimmed[3], is(2L));
+		}
+
+		@Test
+		public void empty() {
+			assertThat(DurationHistogram.trim(new long[DurationHistogram.BUCKETS]), is(nullValue()));
+			assertThat(DurationHistogram.trim(null), is(nullValue()));
+		}
+	}
+
+	public class Merge extends DurationHistogramTest {
+
+		@Test
+		public void grow() {
+			long[] target = new long[] { 1, 2 };
+			long[] source = new long[] { 1, 0, 3 };
+
+			long[] merged = DurationHistogram.merge(target, source);
+
+			assertThat(merged, is(new long[] { 2, 2, 3 }));
+		}
+
+		@Test
+		public void intoNull() {
+			long[] source = new long[] { 1, 2 };
+
+			long[] merged = DurationHistogram.merge(null, source);
+
+			assertThat(merged, is(source));
+			assertThat(merged == source, is(false));
+		}
+
+		@Test
+		public void nullSource() {
+			long[] target = new long[] { 1, 2 };
+
+			assertThat(DurationHistogram.merge(target, null) == target, is(true));
+		}
+	}
+
+	public class GetPercentile extends DurationHistogramTest {
+
+		@Test
+		public void empty() {
+			assertThat(DurationHistogram.getPercentile(null, 95d), is(-1d));
+			assertThat(DurationHistogram.getPercentile(new long[3], 95d), is(-1d));
+		}
+
+		@Test
+		public void uniform() {
+			long[] buckets = new long[DurationHistogram.BUCKETS];
+			for (int i = 1; i <= 1000; i++) {
+				DurationHistogram.record(buckets, i);
+			}
+
+			assertThat(DurationHistogram.getPercentile(buckets, 50d), is(closeTo(500d, 500d * 0.07d)));
+			assertThat(DurationHistogram.getPercentile(buckets, 95d), is(closeTo(950d, 950d * 0.07d)));
+			assertThat(DurationHistogram.getPercentile(buckets, 99d), is(closeTo(990d, 990d * 0.07d)));
+		}
+
+		@Test(expectedExceptions = IllegalArgumentException.class)
+		public void outOfRange() {
+			DurationHistogram.getPercentile(new long[1], 101d);
+		}
+	}
+
+	public class TimerDataHistogram extends DurationHistogramTest {
+
+		@Test
+		public void aggregate() {
+			TimerData first = new TimerData();
+			first.setHistogram(new long[] { 0, 1 });
+			TimerData second = new TimerData();
+			second.setHistogram(new long[] { 0, 0, 2 });
+
+			TimerData aggregated = new AggregatedTimerData();
+			aggregated.aggregateTimerData(first);
+			aggregated.aggregateTimerData(second);
+
+			assertThat(aggregated.getHistogram(), is(new long[] { 0, 1, 2 }));
+			assertThat(first.getHistogram(), is(new long[] { 0, 1 }));
+		}
+
+		@Test
+		public void percentileLimitedByMinMax() {
+			TimerData timerData = new TimerData();
+			long[] buckets = new long[DurationHistogram.BUCKETS];
+			DurationHistogram.record(buckets, 10.1d);
+			timerData.setHistogram(buckets);
+			timerData.calculateMin(10.1d);
+			timerData.calculateMax(10.1d);
+
+			assertThat(timerData.getPercentile(99d), is(10.1d));
+		}
+
+		@Test
+		public void noHistogram() {
+			TimerData timerData = new TimerData();
+			timerData.calculateMin(10d);
+			timerData.calculateMax(10d);
+
+			assertThat(timerData.isHistogramDataAvailable(), is(false));
+			assertThat(timerData.getPercentile(99d), is(-1d));
+		}
+	}
+}
@@ -99,4 +99,33 @@ public class TimerRawVOTest {
 		assertThat(timerData.getCpuMin(), is(Math.min(cpu1, cpu2)));
 		assertThat(timerData.getCpuMax(), is(Math.max(cpu1, cpu2)));
 	}
-}
+
+	/**
+	 * Tests adding of time with cpu time measured only for some of the invocations.
+	 */
+	@Test
+	public void timeAndSampledCpu() {
+		double time1 = 3.5d;
+		double time2 = 12.25d;
+		double time3 = 8.75d;
+
+		double cpu = 2.5d;
+
+		timerRawVO.add(time1);
+		timerRawVO.add(time2, cpu);
+		timerRawVO.add(time3);
+		DefaultData data = timerRawVO.finalizeData();
+
+		assertThat(data, is(instanceOf(TimerData.class)));
+		TimerData timerData = (TimerData) data;
+		assertThat(timerData.getCount(), is(3l));
+		assertThat(timerData.getDuration(), is(time1 + time2 + time3));
+		assertThat(timerData.isCpuMetricDataAvailable(), is(true));
+		assertThat(timerData.getCpuCount(), is(1l));
+		assertThat(timerData.getCpuDuration(), is(cpu));
+		assertThat(timerData.getCpuAverage(), is(cpu));
+		assertThat(timerData.getEstimatedCpuDuration(), is(cpu * 3));
+		assertThat(timerData.getCpuMin(), is(cpu));
+		assertThat(timerData.getCpuMax(), is(cpu));
+	}
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+package rocks.inspectit.shared.all.instrumentation.config.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Test for the {@link InstrumentationPrefilter}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class InstrumentationPrefilterTest extends TestBase {
+
+	public class MightMatch extends InstrumentationPrefilterTest {
+
+		@Test
+		public void exactName() {
+			InstrumentationPrefilter prefilter = InstrumentationPrefilter.create(Arrays.asList("info.novatec.Service", "javax.servlet.Servlet"), Collections.<String> emptyList());
+
+			assertThat(prefilter.mightMatch("info.novatec.Service"), is(true));
+			assertThat(prefilter.mightMatch("javax.servlet.Servlet"), is(true));
+			assertThat(prefilter.mightMatch("java.lang.String"), is(false));
+			assertThat(prefilter.isAnnotations(), is(false));
+		}
+
+		@Test
+		public void prefix() {
+			InstrumentationPrefilter prefilter = InstrumentationPrefilter.create(Arrays.asList("info.novatec.*", "info.novatec.dao.*Dao", "org.*.Service"), Collections.<String> emptyList());
+
+			assertThat(prefilter.mightMatch("info.novatec.Service"), is(true));
+			assertThat(prefilter.mightMatch("info.novatec.dao.UserDao"), is(true));
+			assertThat(prefilter.mightMatch("org.company.Service"), is(true));
+			assertThat(prefilter.mightMatch("info.novatea.Service"), is(false));
+			assertThat(prefilter.mightMatch("info"), is(false));
+			assertThat(prefilter.mightMatch("java.lang.String"), is(false));
+		}
+
+		@Test
+		public void annotation() {
+			InstrumentationPrefilter prefilter = InstrumentationPrefilter.create(Collections.<String> emptyList(), Collections.singletonList("javax.ws.rs.Path"));
+
+			assertThat(prefilter.mightMatch("javax.ws.rs.Path"), is(true));
+			assertThat(prefilter.mightMatch("java.lang.String"), is(false));
+			assertThat(prefilter.isAnnotations(), is(true));
+		}
+
+		@Test
+		public void leadingWildcard() {
+			InstrumentationPrefilter prefilter = InstrumentationPrefilter.create(Arrays.asList("*Service"), Collections.<String> emptyList());
+
+			assertThat(prefilter.isMatchAll(), is(true));
+			assertThat(prefilter.mightMatch("java.lang.String"), is(true));
+		}
+
+		@Test
+		public void noPatterns() {
+			InstrumentationPrefilter prefilter = InstrumentationPrefilter.create(Collections.<String> emptyList(), Collections.<String> emptyList());
+
+			assertThat(prefilter.mightMatch("java.lang.String"), is(false));
+		}
+
+		@Test
+		public void manyNames() {
+			String[] names = new String[1000];
+			for (int i = 0; i < names.length; i++) {
+				names[i] = "info.novatec.Class" + i;
+			}
+			InstrumentationPrefilter prefilter = InstrumentationPrefilter.create(Arrays.asList(names), Collections.<String> emptyList());
+
+			int falsePositives = 0;
+			for (int i = 0; i < names.length; i++) {
+				assertThat(prefilter.mightMatch(names[i]), is(true));
+				if (prefilter.mightMatch("org.other.Class" + i)) {
+					falsePositives++;
+				}
+			}
+			assertThat(falsePositives < 50, is(true));
+		}
+	}
+
+}
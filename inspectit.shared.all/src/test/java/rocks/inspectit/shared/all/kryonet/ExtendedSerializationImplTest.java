@@ -0,0 +1,117 @@
+package rocks.inspectit.shared.all.kryonet;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Output;
+
+import rocks.inspectit.shared.all.serializer.IKryoProvider;
+import rocks.inspectit.shared.all.serializer.impl.StringDictionarySerializer;
+
+/**
+ * Tests the {@link ExtendedSerializationImpl}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class ExtendedSerializationImplTest {
+
+	private static final String SQL = "SELECT * FROM TABLE WHERE ID = ?";
+
+	@Mock
+	private IKryoProvider kryoProvider;
+
+	private Kryo kryo;
+
+	private ExtendedSerializationImpl serialization;
+
+	private Connection writeConnection;
+
+	private Connection readConnection;
+
+	@BeforeMethod
+	public void init() {
+		MockitoAnnotations.initMocks(this);
+		kryo = new Kryo();
+		kryo.register(String.class, new StringDictionarySerializer());
+		when(kryoProvider.getKryo()).thenReturn(kryo);
+		serialization = new ExtendedSerializationImpl(null, 0) {
+			@Override
+			protected IKryoProvider createKryoProvider() {
+				return kryoProvider;
+			}
+		};
+		writeConnection = new Connection(null);
+		readConnection = new Connection(null);
+	}
+
+	public class ReadWrite extends ExtendedSerializationImplTest {
+
+		@Test
+		public void notEncodedSameAsPlainKryo() {
+			byte[] bytes = write(SQL);
+
+			ByteArrayOutputStream plain = new ByteArrayOutputStream();
+			Output output = new Output(plain);
+			kryo.writeClassAndObject(output, SQL);
+			output.flush();
+
+			assertThat(bytes, is(plain.toByteArray()));
+			assertThat(bytes[0], is(not(ExtendedSerializationImpl.STRING_DICTIONARY_MARKER)));
+		}
+
+		@Test
+		public void notEncodedRead() {
+			Object read = read(write(SQL));
+
+			assertThat(read, is((Object) SQL));
+		}
+
+		@Test
+		public void encodedRead() {
+			writeConnection.setStringDictionaryEnabled(true);
+
+			byte[] first = write(SQL);
+			byte[] second = write(SQL);
+
+			assertThat(first[0], is(ExtendedSerializationImpl.STRING_DICTIONARY_MARKER));
+			assertThat(second.length, is(lessThan(first.length)));
+			assertThat(read(first), is((Object) SQL));
+			assertThat(read(second), is((Object) SQL));
+		}
+
+		@Test
+		public void mixedRead() {
+			byte[] plain = write(SQL);
+			writeConnection.setStringDictionaryEnabled(true);
+			byte[] encoded = write(SQL);
+
+			assertThat(read(encoded), is((Object) SQL));
+			assertThat(read(plain), is((Object) SQL));
+		}
+	}
+
+	byte[] write(Object object) {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		serialization.write(writeConnection, outputStream, object);
+		return outputStream.toByteArray();
+	}
+
+	Object read(byte[] bytes) {
+		return serialization.read(readConnection, new ByteArrayInputStream(bytes));
+	}
+
+}
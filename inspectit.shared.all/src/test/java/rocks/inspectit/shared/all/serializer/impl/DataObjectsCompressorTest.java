@@ -0,0 +1,125 @@
+package rocks.inspectit.shared.all.serializer.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import rocks.inspectit.shared.all.communication.CompressedDataObjects;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.serializer.ISerializer;
+import rocks.inspectit.shared.all.serializer.SerializationException;
+
+@SuppressWarnings("PMD")
+public class DataObjectsCompressorTest {
+
+	private DataObjectsCompressor compressor;
+
+	private Random random = new Random();
+
+	@BeforeMethod
+	public void init() {
+		compressor = new DataObjectsCompressor(new KryoSerializer());
+	}
+
+	public class Compress extends DataObjectsCompressorTest {
+
+		@Test
+		public void roundTrip() throws SerializationException {
+			List<DefaultData> dataObjects = timerDataList(10);
+
+			CompressedDataObjects compressed = compressor.compress(dataObjects);
+			List<? extends DefaultData> decompressed = compressor.decompress(compressed);
+
+			assertThat(compressed.getPlatformIdent(), is(1L));
+			assertThat(compressed.getCount(), is(10));
+			assertThat(decompressed.size(), is(10));
+			for (int i = 0; i < 10; i++) {
+				TimerData original = (TimerData) dataObjects.get(i);
+				TimerData result = (TimerData) decompressed.get(i);
+				assertThat(result.getMethodIdent(), is(original.getMethodIdent()));
+				assertThat(result.getDuration(), is(original.getDuration()));
+			}
+		}
+
+		@Test
+		public void buffersGrow() throws SerializationException {
+			List<DefaultData> dataObjects = timerDataList(20000);
+
+			CompressedDataObjects compressed = compressor.compress(dataObjects);
+			List<? extends DefaultData> decompressed = compressor.decompress(compressed);
+
+			assertThat(decompressed.size(), is(20000));
+			assertThat(compressed.getData().length, is(lessThan(compressed.getUncompressedLength())));
+		}
+
+		@Test
+		public void reused() throws SerializationException {
+			CompressedDataObjects first = compressor.compress(timerDataList(100));
+			CompressedDataObjects second = compressor.compress(timerDataList(5));
+
+			assertThat(compressor.decompress(second).size(), is(5));
+			assertThat(compressor.decompress(first).size(), is(100));
+		}
+
+		@Test(expectedExceptions = SerializationException.class)
+		public void corrupted() throws SerializationException {
+			CompressedDataObjects compressed = compressor.compress(timerDataList(10));
+			CompressedDataObjects corrupted = new CompressedDataObjects(1L, 10, compressed.getUncompressedLength() + 10, compressed.getData());
+
+			compressor.decompress(corrupted);
+		}
+	}
+
+	private List<DefaultData> timerDataList(int count) {
+		List<DefaultData> dataObjects = new ArrayList<DefaultData>(count);
+		for (int i = 0; i < count; i++) {
+			TimerData timerData = new TimerData();
+			timerData.setPlatformIdent(1L);
+			timerData.setMethodIdent(i % 50);
+			timerData.setDuration(random.nextInt(1000));
+			dataObjects.add(timerData);
+		}
+		return dataObjects;
+	}
+
+	/**
+	 * Serializer using plain Kryo.
+	 */
+	private static class KryoSerializer implements ISerializer {
+
+		private final Kryo kryo = new Kryo();
+
+		@Override
+		public void serialize(Object object, Output output) throws SerializationException {
+			kryo.writeClassAndObject(output, object);
+		}
+
+		@Override
+		public void serialize(Object object, Output output, Map<?, ?> kryoPreferences) throws SerializationException {
+			serialize(object, output);
+		}
+
+		@Override
+		public Object deserialize(Input input) throws SerializationException {
+			return kryo.readClassAndObject(input);
+		}
+
+		@Override
+		public <T> T copy(T object) {
+			return kryo.copy(object);
+		}
+	}
+}
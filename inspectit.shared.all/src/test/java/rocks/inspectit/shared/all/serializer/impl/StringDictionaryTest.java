@@ -0,0 +1,155 @@
+package rocks.inspectit.shared.all.serializer.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.HashMap;
+
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import rocks.inspectit.shared.all.serializer.schema.ClassSchema;
+import rocks.inspectit.shared.all.serializer.schema.ClassSchemaManager;
+
+@SuppressWarnings("PMD")
+public class StringDictionaryTest {
+
+	private static final String URI = "/shop/catalog/products/list";
+
+	@Mock
+	private ClassSchemaManager classSchemaManager;
+
+	@Mock
+	private ClassSchema classSchema;
+
+	private Kryo kryo;
+
+	private StringDictionary writeDictionary;
+
+	private StringDictionary readDictionary;
+
+	@BeforeMethod
+	public void init() {
+		MockitoAnnotations.initMocks(this);
+		Mockito.when(classSchemaManager.getSchema(Matchers.anyString())).thenReturn(classSchema);
+		Mockito.when(classSchema.getFieldMarker("uri")).thenReturn(Integer.valueOf(1));
+		Mockito.when(classSchema.getFieldMarker("parameters")).thenReturn(Integer.valueOf(2));
+
+		kryo = new Kryo();
+		kryo.register(String.class, new StringDictionarySerializer());
+		kryo.register(TestClassWithStrings.class, new CustomCompatibleFieldSerializer<TestClassWithStrings>(kryo, TestClassWithStrings.class, classSchemaManager));
+		writeDictionary = new StringDictionary();
+		readDictionary = new StringDictionary();
+	}
+
+	public class ReadWrite extends StringDictionaryTest {
+
+		@Test
+		public void sentOnce() {
+			byte[] first = write(object(URI, "category", "books"));
+			byte[] second = write(object(URI, "category", "books"));
+
+			TestClassWithStrings firstRead = read(first);
+			TestClassWithStrings secondRead = read(second);
+
+			assertThat(second.length, is(lessThan(first.length)));
+			assertThat(firstRead.uri, is(URI));
+			assertThat(secondRead.uri, is(sameInstance(firstRead.uri)));
+			assertThat(secondRead.parameters.get("category"), is(sameInstance(firstRead.parameters.get("category"))));
+			assertThat(secondRead.parameters.get("category"), is("books"));
+			assertThat(writeDictionary.size(), is(3));
+			assertThat(readDictionary.size(), is(3));
+		}
+
+		@Test
+		public void shortAndNullStrings() {
+			TestClassWithStrings read = read(write(object(null, "id", "7")));
+
+			assertThat(read.uri, is(nullValue()));
+			assertThat(read.parameters.get("id"), is("7"));
+			assertThat(writeDictionary.size(), is(0));
+		}
+
+		@Test
+		public void rollback() {
+			writeDictionary.startMessage();
+			write(object(URI, "category", "books"));
+			writeDictionary.rollbackMessage();
+
+			assertThat(writeDictionary.size(), is(0));
+
+			// reading side never received the rolled back message
+			TestClassWithStrings read = read(write(object(URI, "category", "books")));
+			assertThat(read.uri, is(URI));
+		}
+
+		@Test(expectedExceptions = KryoException.class)
+		public void unknownId() {
+			write(object(URI, "category", "books"));
+			byte[] second = write(object(URI, "category", "books"));
+
+			read(second);
+		}
+
+		@Test
+		public void withoutDictionary() {
+			Output output = new Output(1024, -1);
+			kryo.writeClassAndObject(output, object(URI, "category", "books"));
+
+			TestClassWithStrings read = (TestClassWithStrings) kryo.readClassAndObject(new Input(output.toBytes()));
+
+			assertThat(read.uri, is(URI));
+			assertThat(read.parameters.get("category"), is("books"));
+			assertThat(read.uri, is(not(sameInstance(URI))));
+		}
+	}
+
+	private byte[] write(Object object) {
+		Output output = new Output(1024, -1);
+		kryo.getContext().put(StringDictionary.CONTEXT_KEY, writeDictionary);
+		try {
+			kryo.writeClassAndObject(output, object);
+		} finally {
+			kryo.getContext().remove(StringDictionary.CONTEXT_KEY);
+		}
+		return output.toBytes();
+	}
+
+	private TestClassWithStrings read(byte[] bytes) {
+		kryo.getContext().put(StringDictionary.CONTEXT_KEY, readDictionary);
+		try {
+			return (TestClassWithStrings) kryo.readClassAndObject(new Input(bytes));
+		} finally {
+			kryo.getContext().remove(StringDictionary.CONTEXT_KEY);
+		}
+	}
+
+	private TestClassWithStrings object(String uri, String parameterName, String parameterValue) {
+		TestClassWithStrings object = new TestClassWithStrings();
+		object.uri = uri;
+		object.parameters = new HashMap<String, String>();
+		object.parameters.put(parameterName, parameterValue);
+		return object;
+	}
+
+	public static class TestClassWithStrings {
+
+		private String uri;
+
+		private HashMap<String, String> parameters;
+
+	}
+}
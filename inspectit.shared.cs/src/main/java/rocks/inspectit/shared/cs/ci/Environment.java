@@ -29,6 +29,8 @@ import rocks.inspectit.shared.cs.ci.sensor.method.impl.TimerSensorConfig;
 import rocks.inspectit.shared.cs.ci.sensor.platform.AbstractPlatformSensorConfig;
 import rocks.inspectit.shared.cs.ci.sensor.platform.IPlatformSensorConfig;
 import rocks.inspectit.shared.cs.ci.strategy.IStrategyConfig;
+import rocks.inspectit.shared.cs.ci.strategy.impl.ByteSizeBufferStrategyConfig;
+import rocks.inspectit.shared.cs.ci.strategy.impl.DiskBufferStrategyConfig;
 import rocks.inspectit.shared.cs.ci.strategy.impl.ListSendingStrategyConfig;
 import rocks.inspectit.shared.cs.ci.strategy.impl.SimpleBufferStrategyConfig;
 import rocks.inspectit.shared.cs.ci.strategy.impl.SizeBufferStrategyConfig;
@@ -58,7 +60,8 @@ public class Environment extends AbstractCiData {
 	 * <p>
 	 * Default is {@link SimpleBufferStrategyConfig}.
 	 */
-	@XmlElementRefs({ @XmlElementRef(type = SimpleBufferStrategyConfig.class), @XmlElementRef(type = SizeBufferStrategyConfig.class) })
+	@XmlElementRefs({ @XmlElementRef(type = SimpleBufferStrategyConfig.class), @XmlElementRef(type = SizeBufferStrategyConfig.class), @XmlElementRef(type = DiskBufferStrategyConfig.class),
+			@XmlElementRef(type = ByteSizeBufferStrategyConfig.class) })
 	private IStrategyConfig bufferStrategyConfig = ConfigurationDefaultsFactory.getDefaultBufferStrategy();
 
 	/**
@@ -42,6 +42,30 @@ public class TimerMethodSensorAssignment extends ChartingMethodSensorAssignment
 	@XmlAttribute(name = "min-invocation-duration")
 	private Long minInvocationDuration = Long.valueOf(0L);
 
+	/**
+	 * Probability between 0 and 1 of an invocation to be recorded.
+	 */
+	@XmlAttribute(name = "invocation-sampling-rate")
+	private Double invocationSamplingRate = Double.valueOf(1d);
+
+	/**
+	 * Maximum amount of recorded invocations per second, <code>0</code> for no limit.
+	 */
+	@XmlAttribute(name = "max-invocations-per-second")
+	private Long maxInvocationsPerSecond = Long.valueOf(0L);
+
+	/**
+	 * If invocations with exceptions are always recorded when sampling is active.
+	 */
+	@XmlAttribute(name = "keep-invocations-with-errors")
+	private Boolean keepInvocationsWithErrors = Boolean.TRUE;
+
+	/**
+	 * Maximum amount of elements recorded in one invocation, <code>0</code> for no limit.
+	 */
+	@XmlAttribute(name = "max-invocation-children")
+	private Long maxInvocationChildren = Long.valueOf(0L);
+
 	/**
 	 * List of context captures.
 	 */
@@ -71,6 +95,18 @@ public class TimerMethodSensorAssignment extends ChartingMethodSensorAssignment
 			settings.put("minduration", minInvocationDuration);
 		}
 
+		// sampling
+		if (isInvocationSampling()) {
+			settings.put("samplingrate", invocationSamplingRate);
+			settings.put("maxpersecond", maxInvocationsPerSecond);
+			settings.put("keeperrors", keepInvocationsWithErrors);
+		}
+
+		// max children
+		if (getMaxInvocationChildren() > 0) {
+			settings.put("maxchildren", maxInvocationChildren);
+		}
+
 		return settings;
 	}
 
@@ -112,6 +148,100 @@ public class TimerMethodSensorAssignment extends ChartingMethodSensorAssignment
 		this.minInvocationDuration = Long.valueOf(minInvocationDuration);
 	}
 
+	/**
+	 * Returns if the sampling of the started invocations is active.
+	 *
+	 * @return If the sampling of the started invocations is active.
+	 */
+	public boolean isInvocationSampling() {
+		return (getInvocationSamplingRate() < 1d) || (getMaxInvocationsPerSecond() > 0);
+	}
+
+	/**
+	 * Gets {@link #invocationSamplingRate}.
+	 *
+	 * @return {@link #invocationSamplingRate}
+	 */
+	public double getInvocationSamplingRate() {
+		if (null == invocationSamplingRate) {
+			return 1d;
+		}
+		return invocationSamplingRate.doubleValue();
+	}
+
+	/**
+	 * Sets {@link #invocationSamplingRate}.
+	 *
+	 * @param invocationSamplingRate
+	 *            New value for {@link #invocationSamplingRate}
+	 */
+	public void setInvocationSamplingRate(double invocationSamplingRate) {
+		this.invocationSamplingRate = Double.valueOf(invocationSamplingRate);
+	}
+
+	/**
+	 * Gets {@link #maxInvocationsPerSecond}.
+	 *
+	 * @return {@link #maxInvocationsPerSecond}
+	 */
+	public long getMaxInvocationsPerSecond() {
+		if (null == maxInvocationsPerSecond) {
+			return 0L;
+		}
+		return maxInvocationsPerSecond.longValue();
+	}
+
+	/**
+	 * Sets {@link #maxInvocationsPerSecond}.
+	 *
+	 * @param maxInvocationsPerSecond
+	 *            New value for {@link #maxInvocationsPerSecond}
+	 */
+	public void setMaxInvocationsPerSecond(long maxInvocationsPerSecond) {
+		this.maxInvocationsPerSecond = Long.valueOf(maxInvocationsPerSecond);
+	}
+
+	/**
+	 * Gets {@link #keepInvocationsWithErrors}.
+	 *
+	 * @return {@link #keepInvocationsWithErrors}
+	 */
+	public boolean isKeepInvocationsWithErrors() {
+		return (null == keepInvocationsWithErrors) || keepInvocationsWithErrors.booleanValue();
+	}
+
+	/**
+	 * Sets {@link #keepInvocationsWithErrors}.
+	 *
+	 * @param keepInvocationsWithErrors
+	 *            New value for {@link #keepInvocationsWithErrors}
+	 */
+	public void setKeepInvocationsWithErrors(boolean keepInvocationsWithErrors) {
+		this.keepInvocationsWithErrors = Boolean.valueOf(keepInvocationsWithErrors);
+	}
+
+	/**
+	 * Gets {@link #maxInvocationChildren}.
+	 *
+	 * @return {@link #maxInvocationChildren}
+	 */
+	public long getMaxInvocationChildren() {
+		if (null == maxInvocationChildren) {
+			return 0L;
+		}
+		return maxInvocationChildren.longValue();
+	}
+
+	/**
+	 * Sets {@link #maxInvocationChildren}.
+	 *
+	 * @param maxInvocationChildren
+	 *            New value for {@link #maxInvocationChildren}
+	 */
+	public void setMaxInvocationChildren(long maxInvocationChildren) {
+		this.maxInvocationChildren = Long.valueOf(maxInvocationChildren);
+	}
+
 	/**
 	 * Gets {@link #contextCaptures}.
 	 *
@@ -141,6 +271,10 @@ public class TimerMethodSensorAssignment extends ChartingMethodSensorAssignment
 		result = (prime * result) + ((this.contextCaptures == null) ? 0 : this.contextCaptures.hashCode());
 		result = (prime * result) + ((this.minInvocationDuration == null) ? 0 : this.minInvocationDuration.hashCode());
 		result = (prime * result) + ((this.startsInvocation == null) ? 0 : this.startsInvocation.hashCode());
+		result = (prime * result) + ((this.invocationSamplingRate == null) ? 0 : this.invocationSamplingRate.hashCode());
+		result = (prime * result) + ((this.maxInvocationsPerSecond == null) ? 0 : this.maxInvocationsPerSecond.hashCode());
+		result = (prime * result) + ((this.keepInvocationsWithErrors == null) ? 0 : this.keepInvocationsWithErrors.hashCode());
+		result = (prime * result) + ((this.maxInvocationChildren == null) ? 0 : this.maxInvocationChildren.hashCode());
 		return result;
 	}
 
@@ -180,6 +314,34 @@ public class TimerMethodSensorAssignment extends ChartingMethodSensorAssignment
 		} else if (!this.startsInvocation.equals(other.startsInvocation)) {
 			return false;
 		}
+		if (this.invocationSamplingRate == null) {
+			if (other.invocationSamplingRate != null) {
+				return false;
+			}
+		} else if (!this.invocationSamplingRate.equals(other.invocationSamplingRate)) {
+			return false;
+		}
+		if (this.maxInvocationsPerSecond == null) {
+			if (other.maxInvocationsPerSecond != null) {
+				return false;
+			}
+		} else if (!this.maxInvocationsPerSecond.equals(other.maxInvocationsPerSecond)) {
+			return false;
+		}
+		if (this.keepInvocationsWithErrors == null) {
+			if (other.keepInvocationsWithErrors != null) {
+				return false;
+			}
+		} else if (!this.keepInvocationsWithErrors.equals(other.keepInvocationsWithErrors)) {
+			return false;
+		}
+		if (this.maxInvocationChildren == null) {
+			if (other.maxInvocationChildren != null) {
+				return false;
+			}
+		} else if (!this.maxInvocationChildren.equals(other.maxInvocationChildren)) {
+			return false;
+		}
 		return true;
 	}
 
@@ -1,6 +1,6 @@
 package rocks.inspectit.shared.cs.ci.sensor.jmx;
 
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 import javax.xml.bind.annotation.XmlAccessType;
@@ -46,6 +46,24 @@ public class JmxSensorConfig implements ISensorConfig {
 	@XmlAttribute(name = "forceMBeanServerCreation")
 	private boolean forceMBeanServer = false;
 
+	/**
+	 * Option to send the attribute values only when they change.
+	 * <p>
+	 * <code>false</code> by default.
+	 */
+	@XmlAttribute(name = "changedValuesOnly")
+	private boolean changedValuesOnly = false;
+
+	/**
+	 * Number of collection intervals after which an unchanged value is sent anyway, when only
+	 * changed values are sent. Value <code>0</code> means that unchanged values are never sent
+	 * again.
+	 * <p>
+	 * <code>12</code> by default, which is one minute with the default collection interval.
+	 */
+	@XmlAttribute(name = "heartbeatInterval")
+	private int heartbeatInterval = 12;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -59,7 +77,13 @@ public class JmxSensorConfig implements ISensorConfig {
 	 */
 	@Override
 	public Map<String, Object> getParameters() {
-		return Collections.<String, Object> singletonMap("forceMBeanServer", forceMBeanServer);
+		Map<String, Object> parameters = new HashMap<>();
+		parameters.put("forceMBeanServer", forceMBeanServer);
+		if (changedValuesOnly) {
+			parameters.put("changedValuesOnly", Boolean.TRUE);
+			parameters.put("heartbeatInterval", heartbeatInterval);
+		}
+		return parameters;
 	}
 
 	/**
@@ -100,6 +124,44 @@ public class JmxSensorConfig implements ISensorConfig {
 		this.forceMBeanServer = forceMBeanServer;
 	}
 
+	/**
+	 * Gets {@link #changedValuesOnly}.
+	 *
+	 * @return {@link #changedValuesOnly}
+	 */
+	public boolean isChangedValuesOnly() {
+		return this.changedValuesOnly;
+	}
+
+	/**
+	 * Sets {@link #changedValuesOnly}.
+	 *
+	 * @param changedValuesOnly
+	 *            New value for {@link #changedValuesOnly}
+	 */
+	public void setChangedValuesOnly(boolean changedValuesOnly) {
+		this.changedValuesOnly = changedValuesOnly;
+	}
+
+	/**
+	 * Gets {@link #heartbeatInterval}.
+	 *
+	 * @return {@link #heartbeatInterval}
+	 */
+	public int getHeartbeatInterval() {
+		return this.heartbeatInterval;
+	}
+
+	/**
+	 * Sets {@link #heartbeatInterval}.
+	 *
+	 * @param heartbeatInterval
+	 *            New value for {@link #heartbeatInterval}
+	 */
+	public void setHeartbeatInterval(int heartbeatInterval) {
+		this.heartbeatInterval = heartbeatInterval;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -108,7 +170,9 @@ public class JmxSensorConfig implements ISensorConfig {
 		final int prime = 31;
 		int result = 1;
 		result = (prime * result) + (this.active ? 1231 : 1237);
+		result = (prime * result) + (this.changedValuesOnly ? 1231 : 1237);
 		result = (prime * result) + (this.forceMBeanServer ? 1231 : 1237);
+		result = (prime * result) + this.heartbeatInterval;
 		return result;
 	}
 
@@ -130,9 +194,15 @@ public class JmxSensorConfig implements ISensorConfig {
 		if (this.active != other.active) {
 			return false;
 		}
+		if (this.changedValuesOnly != other.changedValuesOnly) {
+			return false;
+		}
 		if (this.forceMBeanServer != other.forceMBeanServer) {
 			return false;
 		}
+		if (this.heartbeatInterval != other.heartbeatInterval) {
+			return false;
+		}
 		return true;
 	}
 
@@ -34,6 +34,13 @@ public class HttpSensorConfig extends StringConstraintSensorConfig implements IM
 	@XmlAttribute(name = "sessionCapture")
 	private Boolean sessionCapture = Boolean.FALSE;
 
+	/**
+	 * Sampling rate of the thread CPU time. The CPU time is measured for one in the given number of
+	 * requests, value <code>1</code> means that it's measured for all of them.
+	 */
+	@XmlAttribute(name = "cpuTimeSampling")
+	private int cpuTimeSampling = 1;
+
 	/**
 	 * No-args constructor.
 	 */
@@ -83,6 +90,9 @@ public class HttpSensorConfig extends StringConstraintSensorConfig implements IM
 		if (sessionCapture) {
 			parameters.put("sessioncapture", "true");
 		}
+		if (cpuTimeSampling > 1) {
+			parameters.put("cpuTimeSampling", String.valueOf(cpuTimeSampling));
+		}
 
 		return parameters;
 	}
@@ -106,4 +116,23 @@ public class HttpSensorConfig extends StringConstraintSensorConfig implements IM
 		this.sessionCapture = Boolean.valueOf(sessionCapture);
 	}
 
+	/**
+	 * Gets {@link #cpuTimeSampling}.
+	 *
+	 * @return {@link #cpuTimeSampling}
+	 */
+	public int getCpuTimeSampling() {
+		return this.cpuTimeSampling;
+	}
+
+	/**
+	 * Sets {@link #cpuTimeSampling}.
+	 *
+	 * @param cpuTimeSampling
+	 *            New value for {@link #cpuTimeSampling}
+	 */
+	public void setCpuTimeSampling(int cpuTimeSampling) {
+		this.cpuTimeSampling = cpuTimeSampling;
+	}
+
 }
@@ -1,5 +1,8 @@
 package rocks.inspectit.shared.cs.ci.sensor.method.impl;
 
+import java.util.Map;
+
+import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlRootElement;
 
 import rocks.inspectit.shared.all.instrumentation.config.PriorityEnum;
@@ -25,6 +28,13 @@ public class StatementSensorConfig extends StringConstraintSensorConfig implemen
 	 */
 	public static final String CLASS_NAME = "rocks.inspectit.agent.java.sensor.method.jdbc.StatementSensor";
 
+	/**
+	 * If the literals in the SQL strings should be replaced with placeholders, so that the
+	 * statements executed with different inline literals are aggregated together.
+	 */
+	@XmlAttribute(name = "normalizeSql")
+	private boolean normalizeSql = false;
+
 	/**
 	 * No-args constructor.
 	 */
@@ -64,4 +74,67 @@ public class StatementSensorConfig extends StringConstraintSensorConfig implemen
 		return true;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<String, Object> getParameters() {
+		Map<String, Object> parameters = super.getParameters();
+		if (normalizeSql) {
+			parameters.put("normalizeSql", Boolean.TRUE);
+		}
+		return parameters;
+	}
+
+	/**
+	 * Gets {@link #normalizeSql}.
+	 *
+	 * @return {@link #normalizeSql}
+	 */
+	public boolean isNormalizeSql() {
+		return this.normalizeSql;
+	}
+
+	/**
+	 * Sets {@link #normalizeSql}.
+	 *
+	 * @param normalizeSql
+	 *            New value for {@link #normalizeSql}
+	 */
+	public void setNormalizeSql(boolean normalizeSql) {
+		this.normalizeSql = normalizeSql;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		result = (prime * result) + (normalizeSql ? 1231 : 1237);
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!super.equals(obj)) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		StatementSensorConfig other = (StatementSensorConfig) obj;
+		if (normalizeSql != other.normalizeSql) {
+			return false;
+		}
+		return true;
+	}
+
 }
@@ -1,5 +1,8 @@
 package rocks.inspectit.shared.cs.ci.sensor.method.impl;
 
+import java.util.Map;
+
+import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlRootElement;
 
 import rocks.inspectit.shared.all.instrumentation.config.PriorityEnum;
@@ -25,6 +28,13 @@ public class TimerSensorConfig extends StringConstraintSensorConfig implements I
 	 */
 	public static final String CLASS_NAME = "rocks.inspectit.agent.java.sensor.method.timer.TimerSensor";
 
+	/**
+	 * Sampling rate of the thread CPU time. The CPU time is measured for one in the given number of
+	 * invocations, value <code>1</code> means that it's measured for all of them.
+	 */
+	@XmlAttribute(name = "cpuTimeSampling")
+	private int cpuTimeSampling = 1;
+
 	/**
 	 * No-args constructor.
 	 */
@@ -64,4 +74,35 @@ public class TimerSensorConfig extends StringConstraintSensorConfig implements I
 		return false;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<String, Object> getParameters() {
+		Map<String, Object> parameters = super.getParameters();
+		if (cpuTimeSampling > 1) {
+			parameters.put("cpuTimeSampling", String.valueOf(cpuTimeSampling));
+		}
+		return parameters;
+	}
+
+	/**
+	 * Gets {@link #cpuTimeSampling}.
+	 *
+	 * @return {@link #cpuTimeSampling}
+	 */
+	public int getCpuTimeSampling() {
+		return this.cpuTimeSampling;
+	}
+
+	/**
+	 * Sets {@link #cpuTimeSampling}.
+	 *
+	 * @param cpuTimeSampling
+	 *            New value for {@link #cpuTimeSampling}
+	 */
+	public void setCpuTimeSampling(int cpuTimeSampling) {
+		this.cpuTimeSampling = cpuTimeSampling;
+	}
+
 }
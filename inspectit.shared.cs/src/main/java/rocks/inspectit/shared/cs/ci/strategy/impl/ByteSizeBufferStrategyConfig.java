@@ -0,0 +1,103 @@
+package rocks.inspectit.shared.cs.ci.strategy.impl;
+
+import java.util.Collections;
+import java.util.Map;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import rocks.inspectit.shared.cs.ci.strategy.IStrategyConfig;
+
+/**
+ * Configuration for the byte size buffer strategy.
+ *
+ * @author agent
+ *
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlRootElement(name = "byte-size-buffer-strategy-config")
+public class ByteSizeBufferStrategyConfig implements IStrategyConfig {
+
+	/**
+	 * Implementing class name.
+	 */
+	private static final String CLASS_NAME = "rocks.inspectit.agent.java.buffer.impl.ByteSizeBufferStrategy";
+
+	/**
+	 * Buffer budget in megabytes of estimated serialized data.
+	 * <p>
+	 * Default budget is {@value #budget}.
+	 */
+	@XmlAttribute(name = "budget", required = true)
+	private long budget = 16;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getClassName() {
+		return CLASS_NAME;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<String, String> getSettings() {
+		return Collections.singletonMap("budget", String.valueOf(budget));
+	}
+
+	/**
+	 * Gets {@link #budget}.
+	 *
+	 * @return {@link #budget}
+	 */
+	public long getBudget() {
+		return budget;
+	}
+
+	/**
+	 * Sets {@link #budget}.
+	 *
+	 * @param budget
+	 *            New value for {@link #budget}
+	 */
+	public void setBudget(long budget) {
+		this.budget = budget;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = (prime * result) + (int) (budget ^ (budget >>> 32));
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		ByteSizeBufferStrategyConfig other = (ByteSizeBufferStrategyConfig) obj;
+		if (budget != other.budget) {
+			return false;
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,137 @@
+package rocks.inspectit.shared.cs.ci.strategy.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import rocks.inspectit.shared.cs.ci.strategy.IStrategyConfig;
+
+/**
+ * Configuration for the disk buffer strategy.
+ *
+ * @author agent
+ *
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlRootElement(name = "disk-buffer-strategy-config")
+public class DiskBufferStrategyConfig implements IStrategyConfig {
+
+	/**
+	 * Implementing class name.
+	 */
+	private static final String CLASS_NAME = "rocks.inspectit.agent.java.buffer.impl.DiskBufferStrategy";
+
+	/**
+	 * Number of lists kept in memory before spilling to disk.
+	 * <p>
+	 * Default size is {@value #size}.
+	 */
+	@XmlAttribute(name = "size", required = true)
+	private int size = 12;
+
+	/**
+	 * Maximum disk space in megabytes used for spilling.
+	 * <p>
+	 * Default quota is {@value #diskQuota}.
+	 */
+	@XmlAttribute(name = "disk-quota", required = true)
+	private long diskQuota = 128;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getClassName() {
+		return CLASS_NAME;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<String, String> getSettings() {
+		Map<String, String> settings = new HashMap<>(2);
+		settings.put("size", String.valueOf(size));
+		settings.put("diskQuota", String.valueOf(diskQuota));
+		return settings;
+	}
+
+	/**
+	 * Gets {@link #size}.
+	 *
+	 * @return {@link #size}
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Sets {@link #size}.
+	 *
+	 * @param size
+	 *            New value for {@link #size}
+	 */
+	public void setSize(int size) {
+		this.size = size;
+	}
+
+	/**
+	 * Gets {@link #diskQuota}.
+	 *
+	 * @return {@link #diskQuota}
+	 */
+	public long getDiskQuota() {
+		return diskQuota;
+	}
+
+	/**
+	 * Sets {@link #diskQuota}.
+	 *
+	 * @param diskQuota
+	 *            New value for {@link #diskQuota}
+	 */
+	public void setDiskQuota(long diskQuota) {
+		this.diskQuota = diskQuota;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = (prime * result) + size;
+		result = (prime * result) + (int) (diskQuota ^ (diskQuota >>> 32));
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		DiskBufferStrategyConfig other = (DiskBufferStrategyConfig) obj;
+		if (size != other.size) {
+			return false;
+		}
+		if (diskQuota != other.diskQuota) {
+			return false;
+		}
+		return true;
+	}
+
+}
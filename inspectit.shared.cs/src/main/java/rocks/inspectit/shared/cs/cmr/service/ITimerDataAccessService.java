@@ -39,4 +39,22 @@ public interface ITimerDataAccessService {
 	 * @return The list of the timer data object.
 	 */
 	List<TimerData> getAggregatedTimerData(TimerData timerData, Date fromDate, Date toDate);
+
+	/**
+	 * Returns the estimated durations at the given percentiles for all timer data matching the
+	 * template in the time frame. In this template, the platform id and the method id are
+	 * extracted. Only timer data carrying the duration histogram is taken into account.
+	 *
+	 * @param timerData
+	 *            The template containing the platform id and the method id.
+	 * @param fromDate
+	 *            Date to include data from, can be <code>null</code>.
+	 * @param toDate
+	 *            Date to include data to, can be <code>null</code>.
+	 * @param percentiles
+	 *            Percentiles between 0 and 100.
+	 * @return Estimated durations in the order of the given percentiles, <code>-1</code> for every
+	 *         percentile if there is no histogram data available.
+	 */
+	double[] getPercentiles(TimerData timerData, Date fromDate, Date toDate, double[] percentiles);
 }
@@ -73,6 +73,8 @@ import rocks.inspectit.shared.cs.ci.sensor.platform.impl.MemorySensorConfig;
 import rocks.inspectit.shared.cs.ci.sensor.platform.impl.RuntimeSensorConfig;
 import rocks.inspectit.shared.cs.ci.sensor.platform.impl.SystemSensorConfig;
 import rocks.inspectit.shared.cs.ci.sensor.platform.impl.ThreadSensorConfig;
+import rocks.inspectit.shared.cs.ci.strategy.impl.ByteSizeBufferStrategyConfig;
+import rocks.inspectit.shared.cs.ci.strategy.impl.DiskBufferStrategyConfig;
 import rocks.inspectit.shared.cs.ci.strategy.impl.ListSendingStrategyConfig;
 import rocks.inspectit.shared.cs.ci.strategy.impl.SimpleBufferStrategyConfig;
 import rocks.inspectit.shared.cs.ci.strategy.impl.SizeBufferStrategyConfig;
@@ -406,6 +408,12 @@ public class SerializationManagerPostProcessor implements BeanPostProcessor {
 		kryo.register(RemoteJmsClientSensorConfig.class, new FieldSerializer<>(kryo, RemoteJmsClientSensorConfig.class), nextRegistrationId++);
 		kryo.register(RemoteJmsListenerServerSensorConfig.class, new FieldSerializer<>(kryo, RemoteJmsListenerServerSensorConfig.class), nextRegistrationId++);
 		kryo.register(RemoteManualServerSensorConfig.class, new FieldSerializer<>(kryo, RemoteManualServerSensorConfig.class), nextRegistrationId++);
+
+		// disk buffer strategy
+		kryo.register(DiskBufferStrategyConfig.class, new FieldSerializer<>(kryo, DiskBufferStrategyConfig.class), nextRegistrationId++);
+
+		// byte size buffer strategy
+		kryo.register(ByteSizeBufferStrategyConfig.class, new FieldSerializer<>(kryo, ByteSizeBufferStrategyConfig.class), nextRegistrationId++);
 	}
 
 }
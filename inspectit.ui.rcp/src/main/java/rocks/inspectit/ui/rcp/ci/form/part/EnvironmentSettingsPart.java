@@ -23,6 +23,8 @@ import org.eclipse.ui.forms.widgets.Section;
 
 import rocks.inspectit.shared.cs.ci.Environment;
 import rocks.inspectit.shared.cs.ci.strategy.IStrategyConfig;
+import rocks.inspectit.shared.cs.ci.strategy.impl.ByteSizeBufferStrategyConfig;
+import rocks.inspectit.shared.cs.ci.strategy.impl.DiskBufferStrategyConfig;
 import rocks.inspectit.shared.cs.ci.strategy.impl.ListSendingStrategyConfig;
 import rocks.inspectit.shared.cs.ci.strategy.impl.SimpleBufferStrategyConfig;
 import rocks.inspectit.shared.cs.ci.strategy.impl.SizeBufferStrategyConfig;
@@ -45,6 +47,16 @@ public class EnvironmentSettingsPart extends SectionPart implements IPropertyLis
 	 */
 	private static final String SIZE_BUFFER_STRATEGY = "Size buffer";
 
+	/**
+	 * Display name of the byte size buffer strategy.
+	 */
+	private static final String BYTE_SIZE_BUFFER_STRATEGY = "Byte size buffer";
+
+	/**
+	 * Display name of the disk buffer strategy.
+	 */
+	private static final String DISK_BUFFER_STRATEGY = "Disk buffer";
+
 	/**
 	 * Display name of the simple buffer strategy.
 	 */
@@ -171,7 +183,7 @@ public class EnvironmentSettingsPart extends SectionPart implements IPropertyLis
 		gd.widthHint = 50;
 		bufferValue.setLayoutData(gd);
 		createInfoLabel(mainComposite, toolkit,
-				"The simple version of a buffer is apparently no buffer at all. It contains exactly one element. This is useful if old data isn't necessary or maybe the memory of the application is very limited.\nThe Size buffer strategy needs specification of the size of this buffer. This buffer works as a FILO stack, so last added elements will be sent first (as they are more important), and old ones are thrown away if this buffer is full");
+				"The simple version of a buffer is apparently no buffer at all. It contains exactly one element. This is useful if old data isn't necessary or maybe the memory of the application is very limited.\nThe Size buffer strategy needs specification of the size of this buffer. This buffer works as a FILO stack, so last added elements will be sent first (as they are more important), and old ones are thrown away if this buffer is full.\nThe Disk buffer strategy needs specification of the disk quota in megabytes. Lists that do not fit into memory are spilled to the disk and sent in the original order once the CMR is reachable.\nThe Byte size buffer strategy needs specification of the budget in megabytes. It works as the Size buffer, but limits the estimated serialized size of the buffered data instead of the number of lists.");
 
 		// fill the boxes and values
 		sendingCombo.add(TIME_SENDING_STRATEGY);
@@ -191,17 +203,29 @@ public class EnvironmentSettingsPart extends SectionPart implements IPropertyLis
 
 		bufferCombo.add(SIMPLE_BUFFER_STRATEGY);
 		bufferCombo.add(SIZE_BUFFER_STRATEGY);
+		bufferCombo.add(DISK_BUFFER_STRATEGY);
+		bufferCombo.add(BYTE_SIZE_BUFFER_STRATEGY);
+		bufferCombo.setData(SIMPLE_BUFFER_STRATEGY, new SimpleBufferStrategyConfig());
+		bufferCombo.setData(SIZE_BUFFER_STRATEGY, new SizeBufferStrategyConfig());
+		bufferCombo.setData(DISK_BUFFER_STRATEGY, new DiskBufferStrategyConfig());
+		bufferCombo.setData(BYTE_SIZE_BUFFER_STRATEGY, new ByteSizeBufferStrategyConfig());
 		IStrategyConfig bufferStrategyConfig = environment.getBufferStrategyConfig();
 		if (bufferStrategyConfig instanceof SimpleBufferStrategyConfig) {
 			bufferCombo.setData(SIMPLE_BUFFER_STRATEGY, bufferStrategyConfig);
-			bufferCombo.setData(SIZE_BUFFER_STRATEGY, new SizeBufferStrategyConfig());
 			bufferCombo.select(0);
 			bufferValue.setEnabled(false);
 		} else if (bufferStrategyConfig instanceof SizeBufferStrategyConfig) {
-			bufferCombo.setData(SIMPLE_BUFFER_STRATEGY, new SimpleBufferStrategyConfig());
 			bufferCombo.setData(SIZE_BUFFER_STRATEGY, bufferStrategyConfig);
 			bufferCombo.select(1);
 			bufferValue.setText(String.valueOf(((SizeBufferStrategyConfig) bufferStrategyConfig).getSize()));
+		} else if (bufferStrategyConfig instanceof DiskBufferStrategyConfig) {
+			bufferCombo.setData(DISK_BUFFER_STRATEGY, bufferStrategyConfig);
+			bufferCombo.select(2);
+			bufferValue.setText(String.valueOf(((DiskBufferStrategyConfig) bufferStrategyConfig).getDiskQuota()));
+		} else if (bufferStrategyConfig instanceof ByteSizeBufferStrategyConfig) {
+			bufferCombo.setData(BYTE_SIZE_BUFFER_STRATEGY, bufferStrategyConfig);
+			bufferCombo.select(3);
+			bufferValue.setText(String.valueOf(((ByteSizeBufferStrategyConfig) bufferStrategyConfig).getBudget()));
 		}
 
 		// listeners
@@ -227,6 +251,12 @@ public class EnvironmentSettingsPart extends SectionPart implements IPropertyLis
 				} else if (data instanceof SizeBufferStrategyConfig) {
 					bufferValue.setEnabled(true);
 					bufferValue.setText(String.valueOf(((SizeBufferStrategyConfig) data).getSize()));
+				} else if (data instanceof DiskBufferStrategyConfig) {
+					bufferValue.setEnabled(true);
+					bufferValue.setText(String.valueOf(((DiskBufferStrategyConfig) data).getDiskQuota()));
+				} else if (data instanceof ByteSizeBufferStrategyConfig) {
+					bufferValue.setEnabled(true);
+					bufferValue.setText(String.valueOf(((ByteSizeBufferStrategyConfig) data).getBudget()));
 				}
 			}
 		});
@@ -358,6 +388,36 @@ public class EnvironmentSettingsPart extends SectionPart implements IPropertyLis
 				showSizeBufferStrategyValidationMessage();
 				valid = false;
 			}
+		} else if (bufferStrategy instanceof DiskBufferStrategyConfig) {
+			try {
+				long diskQuota = Long.parseLong(bufferValue.getText());
+				if (diskQuota <= 0) {
+					showDiskBufferStrategyValidationMessage();
+					valid = false;
+				} else {
+					if (update) {
+						((DiskBufferStrategyConfig) bufferStrategy).setDiskQuota(diskQuota);
+					}
+				}
+			} catch (NumberFormatException exception) {
+				showDiskBufferStrategyValidationMessage();
+				valid = false;
+			}
+		} else if (bufferStrategy instanceof ByteSizeBufferStrategyConfig) {
+			try {
+				long budget = Long.parseLong(bufferValue.getText());
+				if (budget <= 0) {
+					showByteSizeBufferStrategyValidationMessage();
+					valid = false;
+				} else {
+					if (update) {
+						((ByteSizeBufferStrategyConfig) bufferStrategy).setBudget(budget);
+					}
+				}
+			} catch (NumberFormatException exception) {
+				showByteSizeBufferStrategyValidationMessage();
+				valid = false;
+			}
 		}
 		if (update) {
 			environment.setBufferStrategyConfig(bufferStrategy);
@@ -387,6 +447,20 @@ public class EnvironmentSettingsPart extends SectionPart implements IPropertyLis
 		bufferValueDecoration.setDescriptionText("Size buffer strategy must define a buffer size greater than zero.");
 	}
 
+	/**
+	 * Shows validation error message for disk buffer strategy.
+	 */
+	private void showDiskBufferStrategyValidationMessage() {
+		bufferValueDecoration.setDescriptionText("Disk buffer strategy must define a disk quota in megabytes greater than zero.");
+	}
+
+	/**
+	 * Shows validation error message for byte size buffer strategy.
+	 */
+	private void showByteSizeBufferStrategyValidationMessage() {
+		bufferValueDecoration.setDescriptionText("Byte size buffer strategy must define a budget in megabytes greater than zero.");
+	}
+
 	/**
 	 * Creates info icon with given text as tool-tip.
 	 *
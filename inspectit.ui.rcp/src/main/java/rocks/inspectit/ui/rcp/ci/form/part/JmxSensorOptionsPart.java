@@ -13,6 +13,7 @@ import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Listener;
+import org.eclipse.swt.widgets.Spinner;
 import org.eclipse.ui.IEditorPart;
 import org.eclipse.ui.IPropertyListener;
 import org.eclipse.ui.forms.IFormColors;
@@ -186,6 +187,16 @@ public class JmxSensorOptionsPart extends SectionPart implements IPropertyListen
 		 */
 		private Combo forceCombo;
 
+		/**
+		 * If only changed values should be sent.
+		 */
+		private Button changedValuesOnlyButton;
+
+		/**
+		 * Spinner for the heartbeat interval.
+		 */
+		private Spinner heartbeatSpinner;
+
 		/**
 		 * Default constructor.
 		 *
@@ -229,10 +240,31 @@ public class JmxSensorOptionsPart extends SectionPart implements IPropertyListen
 			createInfoLabel(parent, toolkit,
 					"Defines if inspectIT should force the creation of the default MBean server. On some application servers forcing the creation can be problematic. On the other hand, if the creation is not forced and no application component is creating the MBean server(s), then monitoring of the MBeans will not be possible as the server(s) will not created.");
 
+			toolkit.createLabel(parent, "Changed values only:").setLayoutData(getIndentGridData());
+			changedValuesOnlyButton = toolkit.createButton(parent, "Yes", SWT.CHECK);
+			createInfoLabel(parent, toolkit,
+					"Defines if the value of an attribute is sent only when it changes. Reduces the amount of data sent to and stored on the CMR for the attributes that rarely change.");
+
+			toolkit.createLabel(parent, "Heartbeat interval:").setLayoutData(getIndentGridData());
+			heartbeatSpinner = new Spinner(parent, SWT.BORDER);
+			heartbeatSpinner.setMinimum(0);
+			heartbeatSpinner.setMaximum(Integer.MAX_VALUE);
+			heartbeatSpinner.setIncrement(1);
+			heartbeatSpinner.setPageIncrement(12);
+			toolkit.adapt(heartbeatSpinner, false, false);
+			createInfoLabel(parent, toolkit,
+					"Number of collections (every 5 seconds) after which an unchanged value is sent anyway when only changed values are sent. Value 0 means that unchanged values are never sent again.");
+
 			activeButton.addSelectionListener(new SelectionAdapter() {
 				@Override
 				public void widgetSelected(SelectionEvent e) {
-					forceCombo.setEnabled(activeButton.getSelection());
+					updateEnabledState();
+				}
+			});
+			changedValuesOnlyButton.addSelectionListener(new SelectionAdapter() {
+				@Override
+				public void widgetSelected(SelectionEvent e) {
+					updateEnabledState();
 				}
 			});
 
@@ -249,6 +281,8 @@ public class JmxSensorOptionsPart extends SectionPart implements IPropertyListen
 		public void addDirtyListener(Listener listener) {
 			activeButton.addListener(SWT.Selection, listener);
 			forceCombo.addListener(SWT.Selection, listener);
+			changedValuesOnlyButton.addListener(SWT.Selection, listener);
+			heartbeatSpinner.addListener(SWT.Modify, listener);
 		}
 
 		/**
@@ -258,6 +292,17 @@ public class JmxSensorOptionsPart extends SectionPart implements IPropertyListen
 		public void update() {
 			sensorConfig.setActive(activeButton.getSelection());
 			sensorConfig.setForceMBeanServer((Boolean) forceCombo.getData(forceCombo.getText()));
+			sensorConfig.setChangedValuesOnly(changedValuesOnlyButton.getSelection());
+			sensorConfig.setHeartbeatInterval(heartbeatSpinner.getSelection());
+		}
+
+		/**
+		 * Enables the controls based on the selections.
+		 */
+		private void updateEnabledState() {
+			forceCombo.setEnabled(activeButton.getSelection());
+			changedValuesOnlyButton.setEnabled(activeButton.getSelection());
+			heartbeatSpinner.setEnabled(activeButton.getSelection() && changedValuesOnlyButton.getSelection());
 		}
 
 		/**
@@ -265,7 +310,9 @@ public class JmxSensorOptionsPart extends SectionPart implements IPropertyListen
 		 */
 		private void fillValue() {
 			activeButton.setSelection(sensorConfig.isActive());
-			forceCombo.setEnabled(sensorConfig.isActive());
+			changedValuesOnlyButton.setSelection(sensorConfig.isChangedValuesOnly());
+			heartbeatSpinner.setSelection(sensorConfig.getHeartbeatInterval());
+			updateEnabledState();
 			int index;
 			if (sensorConfig.isForceMBeanServer()) {
 				index = forceCombo.indexOf(FORCE_TEXT);
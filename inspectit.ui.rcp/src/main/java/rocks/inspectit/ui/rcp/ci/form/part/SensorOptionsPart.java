@@ -1,7 +1,12 @@
 package rocks.inspectit.ui.rcp.ci.form.part;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 
 import org.eclipse.jface.fieldassist.ControlDecoration;
@@ -80,6 +85,16 @@ public class SensorOptionsPart extends SectionPart implements IPropertyListener
 	 */
 	private Combo sessionCaptureCombo;
 
+	/**
+	 * Combos for the SQL normalization of the statement sensors.
+	 */
+	private final Map<IMethodSensorConfig, Combo> sqlNormalizationCombos = new HashMap<>();
+
+	/**
+	 * Combos for the CPU time sampling of the timer and HTTP sensor.
+	 */
+	private final Map<IMethodSensorConfig, Combo> cpuTimeSamplingCombos = new HashMap<>();
+
 	/**
 	 * Default constructor.
 	 *
@@ -135,20 +150,32 @@ public class SensorOptionsPart extends SectionPart implements IPropertyListener
 				if (methodSensorConfig instanceof TimerSensorConfig) {
 					stringConstraintComponent.createComponent(mainComposite, toolkit, "String length of captured context(s):",
 							"Defines the maximum string length of captured context (parameters, fields, return values) for timer sensor.", layoutColumns);
+
+					int cpuTimeSampling = ((TimerSensorConfig) methodSensorConfig).getCpuTimeSampling();
+					cpuTimeSamplingCombos.put(methodSensorConfig, createCpuTimeSamplingOption(cpuTimeSampling, "invocations", mainComposite, toolkit));
 				} else if (methodSensorConfig instanceof HttpSensorConfig) {
 					stringConstraintComponent.createComponent(mainComposite, toolkit, "String length of captured HTTP data:",
 							"Defines the maximum string length of captured HTTP data (parameters, headers, attributes, etc) for HTTP sensor.", layoutColumns);
 
 					createHttpSensorConfigOptions((HttpSensorConfig) methodSensorConfig, mainComposite, toolkit);
+
+					int cpuTimeSampling = ((HttpSensorConfig) methodSensorConfig).getCpuTimeSampling();
+					cpuTimeSamplingCombos.put(methodSensorConfig, createCpuTimeSamplingOption(cpuTimeSampling, "requests", mainComposite, toolkit));
 				} else if (methodSensorConfig instanceof InvocationSequenceSensorConfig) {
 					stringConstraintComponent.createComponent(mainComposite, toolkit, "String length of captured context(s):",
 							"Defines the maximum string length of captured context (parameters, fields, return values) for invocation sensor.", layoutColumns);
 				} else if (methodSensorConfig instanceof PreparedStatementSensorConfig) {
 					stringConstraintComponent.createComponent(mainComposite, toolkit, "String length of SQLs:",
 							"Defines the maximum string length of SQL strings and parameters for prepared statement sensor.", layoutColumns);
+
+					boolean normalizeSql = ((PreparedStatementSensorConfig) methodSensorConfig).isNormalizeSql();
+					sqlNormalizationCombos.put(methodSensorConfig, createSqlNormalizationOption(normalizeSql, mainComposite, toolkit));
 				} else if (methodSensorConfig instanceof StatementSensorConfig) {
 					stringConstraintComponent.createComponent(mainComposite, toolkit, "String length of SQLs:", "Defines the maximum string length of SQL strings and parameters for statement sensor.",
 							layoutColumns);
+
+					boolean normalizeSql = ((StatementSensorConfig) methodSensorConfig).isNormalizeSql();
+					sqlNormalizationCombos.put(methodSensorConfig, createSqlNormalizationOption(normalizeSql, mainComposite, toolkit));
 				}
 			}
 		}
@@ -191,6 +218,12 @@ public class SensorOptionsPart extends SectionPart implements IPropertyListener
 		exceptionSimple.addListener(SWT.Selection, dirtyListener);
 		exceptionEnhanced.addListener(SWT.Selection, dirtyListener);
 		sessionCaptureCombo.addListener(SWT.Selection, dirtyListener);
+		for (Combo combo : sqlNormalizationCombos.values()) {
+			combo.addListener(SWT.Selection, dirtyListener);
+		}
+		for (Combo combo : cpuTimeSamplingCombos.values()) {
+			combo.addListener(SWT.Selection, dirtyListener);
+		}
 	}
 
 	/**
@@ -212,6 +245,24 @@ public class SensorOptionsPart extends SectionPart implements IPropertyListener
 					break;
 				}
 			}
+			for (Entry<IMethodSensorConfig, Combo> entry : sqlNormalizationCombos.entrySet()) {
+				Combo combo = entry.getValue();
+				boolean normalizeSql = (boolean) combo.getData(combo.getText());
+				if (entry.getKey() instanceof StatementSensorConfig) {
+					((StatementSensorConfig) entry.getKey()).setNormalizeSql(normalizeSql);
+				} else if (entry.getKey() instanceof PreparedStatementSensorConfig) {
+					((PreparedStatementSensorConfig) entry.getKey()).setNormalizeSql(normalizeSql);
+				}
+			}
+			for (Entry<IMethodSensorConfig, Combo> entry : cpuTimeSamplingCombos.entrySet()) {
+				Combo combo = entry.getValue();
+				int cpuTimeSampling = (int) combo.getData(combo.getText());
+				if (entry.getKey() instanceof TimerSensorConfig) {
+					((TimerSensorConfig) entry.getKey()).setCpuTimeSampling(cpuTimeSampling);
+				} else if (entry.getKey() instanceof HttpSensorConfig) {
+					((HttpSensorConfig) entry.getKey()).setCpuTimeSampling(cpuTimeSampling);
+				}
+			}
 		}
 	}
 
@@ -281,6 +332,78 @@ public class SensorOptionsPart extends SectionPart implements IPropertyListener
 		}
 	}
 
+	/**
+	 * Creates the CPU time sampling option for the timer and HTTP sensor.
+	 *
+	 * @param cpuTimeSampling
+	 *            Current value of the option.
+	 * @param measured
+	 *            Name of the measured items (invocations, requests) to display.
+	 * @param parent
+	 *            Parent composite
+	 * @param toolkit
+	 *            {@link FormToolkit}
+	 * @return Created combo.
+	 */
+	private Combo createCpuTimeSamplingOption(int cpuTimeSampling, String measured, Composite parent, FormToolkit toolkit) {
+		toolkit.createLabel(parent, "CPU time measured for:").setLayoutData(getIndentGridData());
+		Combo combo = new Combo(parent, SWT.READ_ONLY);
+		GridData layoutData = new GridData(GridData.FILL_BOTH);
+		layoutData.horizontalSpan = 2;
+		combo.setLayoutData(layoutData);
+		List<Integer> rates = new ArrayList<>(Arrays.asList(1, 10, 100, 1000));
+		if ((cpuTimeSampling > 1) && !rates.contains(cpuTimeSampling)) {
+			// keep the rate defined outside of the UI
+			rates.add(cpuTimeSampling);
+			Collections.sort(rates);
+		}
+		for (int rate : rates) {
+			String text = (1 == rate) ? "All " + measured : "1 in " + rate + " " + measured;
+			combo.add(text);
+			combo.setData(text, rate);
+			if (rate == Math.max(1, cpuTimeSampling)) {
+				combo.select(combo.getItemCount() - 1);
+			}
+		}
+		toolkit.adapt(combo, false, false);
+		createInfoLabel(parent, toolkit,
+				"Reading the CPU time of the thread is an expensive operation that can cost more than the measured method itself. With sampling the CPU time is measured only for a random subset of the "
+						+ measured + " and the CPU averages and totals are estimated from it, while the durations are still measured for all " + measured + ".");
+		return combo;
+	}
+
+	/**
+	 * Creates the SQL normalization option for the statement sensors.
+	 *
+	 * @param normalizeSql
+	 *            Current value of the option.
+	 * @param parent
+	 *            Parent composite
+	 * @param toolkit
+	 *            {@link FormToolkit}
+	 * @return Created combo.
+	 */
+	private Combo createSqlNormalizationOption(boolean normalizeSql, Composite parent, FormToolkit toolkit) {
+		toolkit.createLabel(parent, "Normalize SQLs:").setLayoutData(getIndentGridData());
+		Combo combo = new Combo(parent, SWT.READ_ONLY);
+		GridData layoutData = new GridData(GridData.FILL_BOTH);
+		layoutData.horizontalSpan = 2;
+		combo.setLayoutData(layoutData);
+		combo.add("No");
+		combo.add("Yes");
+		combo.setData("No", Boolean.FALSE);
+		combo.setData("Yes", Boolean.TRUE);
+		toolkit.adapt(combo, false, false);
+		createInfoLabel(parent, toolkit,
+				"If active, the string and numeric literals in the SQLs are replaced with the '?' placeholder and the literal lists in the IN clauses are collapsed. This way statements executed with different inline literals are aggregated together. Parameter values of the prepared statements are not captured for the normalized SQLs.");
+		if (normalizeSql) {
+			combo.select(1);
+		} else {
+			combo.select(0);
+		}
+		return combo;
+	}
+
 	/**
 	 * Help class for managing {@link StringConstraintSensorConfig}s.
 	 *
@@ -89,6 +89,26 @@ public class TimerSensorAssignmentDetailsPage extends ChartingMethodSensorAssign
 	 */
 	private Text minDurationText;
 
+	/**
+	 * Text box for the probability of an invocation to be recorded.
+	 */
+	private Text samplingRateText;
+
+	/**
+	 * Text box for the maximum amount of invocations recorded per second.
+	 */
+	private Text maxPerSecondText;
+
+	/**
+	 * Selection for keeping the invocations with errors when sampling.
+	 */
+	private Button keepErrorsButton;
+
+	/**
+	 * Text box for the maximum amount of elements in one invocation.
+	 */
+	private Text maxChildrenText;
+
 	/**
 	 * Constructor.
 	 *
@@ -247,12 +267,98 @@ public class TimerSensorAssignmentDetailsPage extends ChartingMethodSensorAssign
 		minDurationValidationDecoration.registerListener(SWT.Modify);
 		addValidationControlDecoration(minDurationValidationDecoration);
 
+		// invocation sampling
+		toolkit.createLabel(mainComposite, "Sampling rate:");
+		samplingRateText = toolkit.createText(mainComposite, "", SWT.BORDER | SWT.RIGHT);
+		gd = new GridData(SWT.FILL, SWT.FILL, false, false);
+		gd.widthHint = 50;
+		samplingRateText.setLayoutData(gd);
+		toolkit.createLabel(mainComposite, "Max per second:", SWT.RIGHT).setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+		maxPerSecondText = toolkit.createText(mainComposite, "", SWT.BORDER | SWT.RIGHT);
+		gd = new GridData(SWT.FILL, SWT.FILL, false, false);
+		gd.widthHint = 50;
+		maxPerSecondText.setLayoutData(gd);
+		keepErrorsButton = toolkit.createButton(mainComposite, "Keep errors", SWT.CHECK);
+		keepErrorsButton.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, false, false, 2, 1));
+		createInfoLabel(mainComposite, toolkit,
+				"Defines which of the started invocations are recorded. Sampling rate is the probability between 0 and 1 of an invocation to be recorded. Max per second limits the amount of recorded invocations per second. If keep errors is selected, not sampled invocations that end with an exception are still sent to the server. Recorded invocations carry the sampling rate, so that the statistics can be extrapolated.");
+		final ValidationControlDecoration<Text> samplingRateValidationDecoration = new ValidationControlDecoration<Text>(samplingRateText, null, this) {
+			@Override
+			protected boolean validate(Text control) {
+				if (StringUtils.isNotEmpty(control.getText())) {
+					try {
+						double rate = Double.parseDouble(control.getText());
+						return (rate > 0) && (rate <= 1);
+					} catch (NumberFormatException e) {
+						return false;
+					}
+				} else {
+					return true;
+				}
+			}
+		};
+		samplingRateValidationDecoration.setDescriptionText("Value must be a number bigger than 0 and not bigger than 1.");
+		samplingRateValidationDecoration.registerListener(SWT.Modify);
+		addValidationControlDecoration(samplingRateValidationDecoration);
+		final ValidationControlDecoration<Text> maxPerSecondValidationDecoration = new ValidationControlDecoration<Text>(maxPerSecondText, null, this) {
+			@Override
+			protected boolean validate(Text control) {
+				if (StringUtils.isNotEmpty(control.getText())) {
+					try {
+						return Long.parseLong(control.getText()) > 0;
+					} catch (NumberFormatException e) {
+						return false;
+					}
+				} else {
+					return true;
+				}
+			}
+		};
+		maxPerSecondValidationDecoration.setDescriptionText("Value must be positive amount of invocations.");
+		maxPerSecondValidationDecoration.registerListener(SWT.Modify);
+		addValidationControlDecoration(maxPerSecondValidationDecoration);
+
+		// max children
+		toolkit.createLabel(mainComposite, "Max children:");
+		maxChildrenText = toolkit.createText(mainComposite, "", SWT.BORDER | SWT.RIGHT);
+		gd = new GridData(SWT.FILL, SWT.FILL, false, false);
+		gd.widthHint = 50;
+		maxChildrenText.setLayoutData(gd);
+		toolkit.createLabel(mainComposite, "").setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 4, 1));
+		createInfoLabel(mainComposite, toolkit,
+				"Defines the maximum amount of elements recorded in one invocation. Elements over the limit are not recorded. Consecutive calls of the same method are always merged into one loop element that holds the count, total, minimum and maximum duration.");
+		final ValidationControlDecoration<Text> maxChildrenValidationDecoration = new ValidationControlDecoration<Text>(maxChildrenText, null, this) {
+			@Override
+			protected boolean validate(Text control) {
+				if (StringUtils.isNotEmpty(control.getText())) {
+					try {
+						return Long.parseLong(control.getText()) > 0;
+					} catch (NumberFormatException e) {
+						return false;
+					}
+				} else {
+					return true;
+				}
+			}
+		};
+		maxChildrenValidationDecoration.setDescriptionText("Value must be positive amount of elements.");
+		maxChildrenValidationDecoration.registerListener(SWT.Modify);
+		addValidationControlDecoration(maxChildrenValidationDecoration);
+
 		// listener
 		startInvocationButton.addSelectionListener(new SelectionAdapter() {
 			@Override
 			public void widgetSelected(SelectionEvent e) {
-				minDurationText.setEnabled(startInvocationButton.getSelection());
+				boolean startsInvocation = startInvocationButton.getSelection();
+				minDurationText.setEnabled(startsInvocation);
+				samplingRateText.setEnabled(startsInvocation);
+				maxPerSecondText.setEnabled(startsInvocation);
+				keepErrorsButton.setEnabled(startsInvocation);
+				maxChildrenText.setEnabled(startsInvocation);
 				minDurationValidationDecoration.executeValidation();
+				samplingRateValidationDecoration.executeValidation();
+				maxPerSecondValidationDecoration.executeValidation();
+				maxChildrenValidationDecoration.executeValidation();
 			}
 		});
 
@@ -260,6 +366,10 @@ public class TimerSensorAssignmentDetailsPage extends ChartingMethodSensorAssign
 		captureContextButton.addListener(SWT.Selection, getMarkDirtyListener());
 		startInvocationButton.addListener(SWT.Selection, getMarkDirtyListener());
 		minDurationText.addListener(SWT.Modify, getMarkDirtyListener());
+		samplingRateText.addListener(SWT.Modify, getMarkDirtyListener());
+		maxPerSecondText.addListener(SWT.Modify, getMarkDirtyListener());
+		keepErrorsButton.addListener(SWT.Selection, getMarkDirtyListener());
+		maxChildrenText.addListener(SWT.Modify, getMarkDirtyListener());
 
 		if (!isCanEdit()) {
 			setEnabled(mainComposite, false);
@@ -344,6 +454,14 @@ public class TimerSensorAssignmentDetailsPage extends ChartingMethodSensorAssign
 		startInvocationButton.setSelection(false);
 		minDurationText.setEnabled(false);
 		minDurationText.setText("");
+		samplingRateText.setEnabled(false);
+		samplingRateText.setText("");
+		maxPerSecondText.setEnabled(false);
+		maxPerSecondText.setText("");
+		keepErrorsButton.setEnabled(false);
+		keepErrorsButton.setSelection(true);
+		maxChildrenText.setEnabled(false);
+		maxChildrenText.setText("");
 		contextCaptures.clear();
 		if (null != assignment) {
 			if (CollectionUtils.isNotEmpty(assignment.getContextCaptures())) {
@@ -364,6 +482,20 @@ public class TimerSensorAssignmentDetailsPage extends ChartingMethodSensorAssign
 				if (0 != assignment.getMinInvocationDuration()) {
 					minDurationText.setText(String.valueOf(assignment.getMinInvocationDuration()));
 				}
+				samplingRateText.setEnabled(isCanEdit());
+				if (assignment.getInvocationSamplingRate() < 1d) {
+					samplingRateText.setText(String.valueOf(assignment.getInvocationSamplingRate()));
+				}
+				maxPerSecondText.setEnabled(isCanEdit());
+				if (0 != assignment.getMaxInvocationsPerSecond()) {
+					maxPerSecondText.setText(String.valueOf(assignment.getMaxInvocationsPerSecond()));
+				}
+				keepErrorsButton.setEnabled(isCanEdit());
+				keepErrorsButton.setSelection(assignment.isKeepInvocationsWithErrors());
+				maxChildrenText.setEnabled(isCanEdit());
+				if (0 != assignment.getMaxInvocationChildren()) {
+					maxChildrenText.setText(String.valueOf(assignment.getMaxInvocationChildren()));
+				}
 			}
 		}
 		captureContextTableViewer.refresh();
@@ -392,6 +524,41 @@ public class TimerSensorAssignmentDetailsPage extends ChartingMethodSensorAssign
 			} else {
 				assignment.setMinInvocationDuration(0L);
 			}
+
+			String samplingRate = samplingRateText.getText();
+			if (StringUtils.isNotBlank(samplingRate)) {
+				try {
+					assignment.setInvocationSamplingRate(Double.parseDouble(samplingRate));
+				} catch (NumberFormatException e) {
+					assignment.setInvocationSamplingRate(1d);
+				}
+			} else {
+				assignment.setInvocationSamplingRate(1d);
+			}
+
+			String maxPerSecond = maxPerSecondText.getText();
+			if (StringUtils.isNotBlank(maxPerSecond)) {
+				try {
+					assignment.setMaxInvocationsPerSecond(Long.parseLong(maxPerSecond));
+				} catch (NumberFormatException e) {
+					assignment.setMaxInvocationsPerSecond(0L);
+				}
+			} else {
+				assignment.setMaxInvocationsPerSecond(0L);
+			}
+
+			assignment.setKeepInvocationsWithErrors(keepErrorsButton.getSelection());
+
+			String maxChildren = maxChildrenText.getText();
+			if (StringUtils.isNotBlank(maxChildren)) {
+				try {
+					assignment.setMaxInvocationChildren(Long.parseLong(maxChildren));
+				} catch (NumberFormatException e) {
+					assignment.setMaxInvocationChildren(0L);
+				}
+			} else {
+				assignment.setMaxInvocationChildren(0L);
+			}
 		}
 	}
 
@@ -468,7 +468,7 @@ public class HttpTimerDataInputController extends AbstractHttpInputController {
 			}
 		case CPUDURATION:
 			if (data.isCpuMetricDataAvailable()) {
-				return new StyledString(NumberFormatter.formatDouble(data.getCpuDuration(), timeDecimalPlaces));
+				return new StyledString(NumberFormatter.formatDouble(data.getEstimatedCpuDuration(), timeDecimalPlaces));
 			} else {
 				return emptyStyledString;
 			}
@@ -29,6 +29,7 @@ import rocks.inspectit.shared.all.communication.comparator.IDataComparator;
 import rocks.inspectit.shared.all.communication.comparator.MethodSensorDataComparatorEnum;
 import rocks.inspectit.shared.all.communication.comparator.TimerDataComparatorEnum;
 import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceDataHelper;
 import rocks.inspectit.shared.all.communication.data.TimerData;
 import rocks.inspectit.shared.cs.indexing.aggregation.impl.AggregationPerformer;
 import rocks.inspectit.shared.cs.indexing.aggregation.impl.TimerDataAggregator;
@@ -464,7 +465,7 @@ public class MethodInvocInputController extends AbstractTableInputController {
 				} else if (null != nestedData.getTimerData()) {
 					nestedDuration = nestedDuration + nestedData.getTimerData().getDuration();
 					added = true;
-				} else if ((null != nestedData.getSqlStatementData()) && (1 == nestedData.getSqlStatementData().getCount())) {
+				} else if (InvocationSequenceDataHelper.hasSQLData(nestedData)) {
 					nestedDuration = nestedDuration + nestedData.getSqlStatementData().getDuration();
 					added = true;
 				}
@@ -599,7 +600,7 @@ public class MethodInvocInputController extends AbstractTableInputController {
 			}
 		case CPUDURATION:
 			if (data.isCpuMetricDataAvailable()) {
-				return new StyledString(NumberFormatter.formatDouble(data.getCpuDuration()));
+				return new StyledString(NumberFormatter.formatDouble(data.getEstimatedCpuDuration()));
 			} else {
 				return emptyStyledString;
 			}
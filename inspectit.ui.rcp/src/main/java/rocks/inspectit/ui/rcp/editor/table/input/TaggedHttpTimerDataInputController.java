@@ -366,7 +366,7 @@ public class TaggedHttpTimerDataInputController extends AbstractHttpInputControl
 			}
 		case CPUDURATION:
 			if (data.isCpuMetricDataAvailable()) {
-				return new StyledString(NumberFormatter.formatDouble(data.getCpuDuration(), timeDecimalPlaces));
+				return new StyledString(NumberFormatter.formatDouble(data.getEstimatedCpuDuration(), timeDecimalPlaces));
 			} else {
 				return emptyStyledString;
 			}
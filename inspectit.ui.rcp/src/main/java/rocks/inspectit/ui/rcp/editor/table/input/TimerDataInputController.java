@@ -580,7 +580,7 @@ public class TimerDataInputController extends AbstractTableInputController {
 			}
 		case CPUDURATION:
 			if (data.isCpuMetricDataAvailable()) {
-				return new StyledString(NumberFormatter.formatDouble(data.getCpuDuration(), timeDecimalPlaces));
+				return new StyledString(NumberFormatter.formatDouble(data.getEstimatedCpuDuration(), timeDecimalPlaces));
 			} else {
 				return emptyStyledString;
 			}
@@ -49,7 +49,8 @@ public class UngroupedExceptionOverviewStackTraceInputController extends Abstrac
 		} else {
 			Object input = data.get(0);
 			if (input instanceof ExceptionSensorData) {
-				stackTraceText.setText(((ExceptionSensorData) input).getStackTrace());
+				String stackTrace = ((ExceptionSensorData) input).getStackTrace();
+				stackTraceText.setText((null != stackTrace) ? stackTrace : "");
 			}
 		}
 	}
@@ -327,7 +327,7 @@ public class ExceptionMessagesTreeInputController extends AbstractTreeInputContr
 					styledString = new StyledString(NO_ERROR_MESSAGE_PROVIDED);
 				}
 			} else {
-				String[] stackTraceLines = data.getStackTrace().split("\n");
+				String[] stackTraceLines = (null != data.getStackTrace()) ? data.getStackTrace().split("\n") : new String[0];
 				if (stackTraceLines.length > 0) {
 					styledString = new StyledString(stackTraceLines[0]);
 				} else {
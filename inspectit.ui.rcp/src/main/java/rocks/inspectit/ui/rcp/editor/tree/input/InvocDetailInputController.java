@@ -432,7 +432,12 @@ public class InvocDetailInputController extends AbstractTreeInputController { //
 		StyledString styledString = null;
 		switch (enumId) {
 		case ELEMENT:
-			return TextFormatter.getStyledMethodString(methodIdent);
+			styledString = TextFormatter.getStyledMethodString(methodIdent);
+			if (InvocationSequenceDataHelper.isLoop(data)) {
+				styledString.append(" [loop " + data.getLoopCount() + "x, min " + NumberFormatter.formatDouble(data.getLoopMinDuration()) + ", max "
+						+ NumberFormatter.formatDouble(data.getLoopMaxDuration()) + "]", StyledString.COUNTER_STYLER);
+			}
+			return styledString;
 		case START_DELTA:
 			InvocationSequenceData root = data;
 			while (!InvocationSequenceDataHelper.isRootElementInSequence(root)) {
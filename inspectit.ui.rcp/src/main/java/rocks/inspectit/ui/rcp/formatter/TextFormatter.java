@@ -11,6 +11,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.jface.preference.JFacePreferences;
@@ -386,6 +387,9 @@ public final class TextFormatter {
 				} else {
 					styledString.append("Connected :: No data sent", StyledString.DECORATIONS_STYLER);
 				}
+				if (MapUtils.isNotEmpty(agentStatusData.getDegradedMethods())) {
+					styledString.append(" :: Overhead limited for " + agentStatusData.getDegradedMethods().size() + " method(s)", StyledString.DECORATIONS_STYLER);
+				}
 				break;
 			case NO_KEEP_ALIVE:
 				long timeSinceLastKeepAlive = System.currentTimeMillis() - agentStatusData.getLastKeepAliveTimestamp();
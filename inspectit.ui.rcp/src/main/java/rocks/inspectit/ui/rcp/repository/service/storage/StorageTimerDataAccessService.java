@@ -45,6 +45,26 @@ public class StorageTimerDataAccessService extends AbstractStorageService<TimerD
 		return super.executeQuery(query, Aggregators.TIMER_DATA_AGGREGATOR);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double[] getPercentiles(TimerData timerData, Date fromDate, Date toDate, double[] percentiles) {
+		TimerData merged = new TimerData();
+		for (TimerData aggregated : getAggregatedTimerData(timerData, fromDate, toDate)) {
+			// data without histogram would only widen the min and max the percentiles are clamped to
+			if (aggregated.isHistogramDataAvailable()) {
+				merged.aggregateTimerData(aggregated);
+			}
+		}
+
+		double[] result = new double[percentiles.length];
+		for (int i = 0; i < percentiles.length; i++) {
+			result[i] = merged.getPercentile(percentiles[i]);
+		}
+		return result;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */